@@ -1,21 +1,35 @@
 package com.taskmate.task_mate;
 
+import android.Manifest;
 import android.content.Intent;
+import android.content.pm.PackageManager;
+import android.os.Build;
 import android.os.Bundle;
 import android.view.Menu;
 import android.view.MenuItem;
-import android.widget.Toast;
+import android.view.View;
+import android.view.ViewTreeObserver;
 
 import com.google.android.material.bottomnavigation.BottomNavigationView;
 import com.google.firebase.auth.FirebaseAuth;
 
+import androidx.activity.result.contract.ActivityResultContracts;
 import androidx.appcompat.app.AppCompatActivity;
+import androidx.core.content.ContextCompat;
 import androidx.navigation.NavController;
 import androidx.navigation.Navigation;
 import androidx.navigation.ui.AppBarConfiguration;
 import androidx.navigation.ui.NavigationUI;
 
+import com.taskmate.task_mate.data.TaskRepository;
 import com.taskmate.task_mate.databinding.ActivityMainBinding;
+import com.taskmate.task_mate.feed.ActivityFeed;
+import com.taskmate.task_mate.images.ImageLoader;
+import com.taskmate.task_mate.perf.PerfMonitor;
+import com.taskmate.task_mate.prefetch.TaskPrefetcher;
+import com.taskmate.task_mate.reminders.ReminderScheduler;
+import com.taskmate.task_mate.snapshot.LastScreenSnapshot;
+import com.taskmate.task_mate.stats.CompletionHistory;
 
 public class MainActivity extends AppCompatActivity {
 
@@ -33,16 +47,68 @@ public class MainActivity extends AppCompatActivity {
 
         BottomNavigationView navView = findViewById(R.id.nav_view);
         AppBarConfiguration appBarConfiguration = new AppBarConfiguration.Builder(
-                R.id.navigation_home, R.id.navigation_dashboard, R.id.navigation_notifications)
+                R.id.navigation_home, R.id.navigation_today, R.id.navigation_timeline, R.id.navigation_dashboard,
+                R.id.navigation_notifications)
                 .build();
         NavController navController = Navigation.findNavController(this, R.id.nav_host_fragment_activity_main);
         NavigationUI.setupActionBarWithNavController(this, navController, appBarConfiguration);
         NavigationUI.setupWithNavController(binding.navView, navController);
+
+        // Restores the perf recording switch (debug builds only)
+        PerfMonitor.getInstance(this);
+
+        // Listeners that load their own files wait for the first frame, which
+        // the task list draws from the last-screen snapshot; no task changes
+        // arrive before then anyway
+        afterFirstFrame(() -> {
+            // Due-date reminders follow task changes from here on
+            ReminderScheduler.getInstance(this).attach();
+            // So do the dashboard's per-day counts, whether or not it is open
+            CompletionHistory.getInstance(this).attach();
+            // Records fetched ahead for the detail screen go stale when their task changes
+            TaskPrefetcher.getInstance(this).attach();
+            // And the next cold start draws whatever the list shows last
+            LastScreenSnapshot.getInstance(this).attach();
+        });
+        requestNotificationPermission();
+
+        // Unread badge on the activity tab, updated as events are recorded
+        ActivityFeed.getInstance(this).getUnreadCount().observe(this, count -> {
+            if (count != null && count > 0) {
+                binding.navView.getOrCreateBadge(R.id.navigation_notifications).setNumber(count);
+            } else {
+                binding.navView.removeBadge(R.id.navigation_notifications);
+            }
+        });
+    }
+
+    // Runs the action once the first frame has been drawn
+    private void afterFirstFrame(Runnable action) {
+        View root = binding.getRoot();
+        root.getViewTreeObserver().addOnPreDrawListener(new ViewTreeObserver.OnPreDrawListener() {
+            @Override
+            public boolean onPreDraw() {
+                root.getViewTreeObserver().removeOnPreDrawListener(this);
+                // Queued behind the draw that is about to happen
+                root.post(action);
+                return true;
+            }
+        });
+    }
+
+    private void requestNotificationPermission() {
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.TIRAMISU
+                && ContextCompat.checkSelfPermission(this, Manifest.permission.POST_NOTIFICATIONS)
+                != PackageManager.PERMISSION_GRANTED) {
+            registerForActivityResult(new ActivityResultContracts.RequestPermission(), granted -> {})
+                    .launch(Manifest.permission.POST_NOTIFICATIONS);
+        }
     }
 
     @Override
     public boolean onCreateOptionsMenu(Menu menu) {
         getMenuInflater().inflate(R.menu.main_menu, menu);
+        menu.findItem(R.id.action_performance).setVisible(PerfMonitor.getInstance(this).isAvailable());
         return true;
     }
 
@@ -54,7 +120,10 @@ public class MainActivity extends AppCompatActivity {
             performLogout();
             return true;
         } else if (id == R.id.action_profile) {
-            Toast.makeText(this, "Profile - Coming Soon!", Toast.LENGTH_SHORT).show();
+            startActivity(new Intent(this, ProfileActivity.class));
+            return true;
+        } else if (id == R.id.action_performance) {
+            startActivity(new Intent(this, PerformanceActivity.class));
             return true;
         }
 
@@ -63,6 +132,14 @@ public class MainActivity extends AppCompatActivity {
 
     private void performLogout() {
         mAuth.signOut();
+        // Listeners save what they hold on a replace; clear the tasks first so
+        // the deletions below are the last word on disk
+        TaskRepository.getInstance().clear();
+        LastScreenSnapshot.getInstance(this).delete();
+        ReminderScheduler.getInstance(this).clear();
+        ActivityFeed.getInstance(this).clear();
+        CompletionHistory.getInstance(this).clear();
+        ImageLoader.getInstance(this).clear();
 
         Intent intent = new Intent(this, LoginActivity.class);
         intent.setFlags(Intent.FLAG_ACTIVITY_NEW_TASK | Intent.FLAG_ACTIVITY_CLEAR_TASK);
@@ -0,0 +1,129 @@
+package com.taskmate.task_mate;
+
+import android.os.Bundle;
+import android.view.MenuItem;
+import android.widget.Toast;
+
+import androidx.appcompat.app.AppCompatActivity;
+
+import com.taskmate.task_mate.databinding.ActivityPerformanceBinding;
+import com.taskmate.task_mate.network.ApiClient;
+import com.taskmate.task_mate.network.RequestScheduler;
+import com.taskmate.task_mate.network.WorkPool;
+import com.taskmate.task_mate.perf.FrameMonitor;
+import com.taskmate.task_mate.perf.PerfMonitor;
+import com.taskmate.task_mate.perf.PerfRecorder;
+import com.taskmate.task_mate.perf.PerfSample;
+import com.taskmate.task_mate.perf.PerfSection;
+import com.taskmate.task_mate.perf.PerfTrace;
+import com.taskmate.task_mate.prefetch.TaskPrefetcher;
+import com.taskmate.task_mate.refresh.RefreshScheduler;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+// Debug screen for the perf ring buffer: on/off switch, per-section summary,
+// most recent samples and CSV export. Reachable from the main menu in debug builds.
+public class PerformanceActivity extends AppCompatActivity {
+
+    private static final int RECENT_SAMPLES = 200;
+
+    private ActivityPerformanceBinding binding;
+    private PerfMonitor perfMonitor;
+
+    @Override
+    protected void onCreate(Bundle savedInstanceState) {
+        super.onCreate(savedInstanceState);
+
+        binding = ActivityPerformanceBinding.inflate(getLayoutInflater());
+        setContentView(binding.getRoot());
+
+        setSupportActionBar(binding.toolbar);
+        if (getSupportActionBar() != null) {
+            getSupportActionBar().setDisplayHomeAsUpEnabled(true);
+            getSupportActionBar().setTitle("Performance");
+        }
+
+        perfMonitor = PerfMonitor.getInstance(this);
+        binding.switchRecording.setChecked(perfMonitor.isEnabled());
+        binding.switchRecording.setOnCheckedChangeListener((button, checked) -> {
+            perfMonitor.setEnabled(checked);
+            showSamples();
+        });
+
+        binding.btnRefresh.setOnClickListener(v -> showSamples());
+        binding.btnClear.setOnClickListener(v -> {
+            PerfTrace.getRecorder().clear();
+            ApiClient.getScheduler().resetStats();
+            TaskPrefetcher.getInstance(this).resetStats();
+            RefreshScheduler.getInstance().resetStats();
+            for (WorkPool pool : WorkPool.all()) pool.resetStats();
+            showSamples();
+        });
+        binding.btnExport.setOnClickListener(v -> exportSamples());
+    }
+
+    @Override
+    protected void onResume() {
+        super.onResume();
+        showSamples();
+    }
+
+    private void showSamples() {
+        PerfRecorder recorder = PerfTrace.getRecorder();
+        long frameBudget = FrameMonitor.frameBudgetNanos(binding.getRoot());
+
+        StringBuilder summary = new StringBuilder();
+        summary.append(String.format(Locale.US, "%d samples held, %d recorded in total%n",
+                recorder.size(), recorder.getTotal()));
+        for (Map.Entry<PerfSection, PerfRecorder.Stats> entry : recorder.summarize(frameBudget).entrySet()) {
+            summary.append(entry.getKey().getLabel()).append(": ").append(entry.getValue()).append('\n');
+        }
+        summary.append("\nNetwork queues\n");
+        for (RequestScheduler.QueueStats queue : ApiClient.getScheduler().snapshot()) {
+            summary.append(queue).append('\n');
+        }
+        summary.append("\nWork pools\n");
+        for (WorkPool pool : WorkPool.all()) {
+            summary.append(pool.getStats()).append('\n');
+        }
+        summary.append("\nPrefetch\n").append(TaskPrefetcher.getInstance(this).getStats()).append('\n');
+        summary.append("\nList refresh\n").append(RefreshScheduler.getInstance().getStats()).append('\n');
+        binding.textSummary.setText(summary);
+
+        // Newest first
+        List<PerfSample> samples = recorder.snapshot();
+        StringBuilder recent = new StringBuilder();
+        for (int i = samples.size() - 1; i >= Math.max(0, samples.size() - RECENT_SAMPLES); i--) {
+            PerfSample sample = samples.get(i);
+            recent.append(String.format(Locale.US, "%-18s %8.2f ms",
+                    sample.getSection().getLabel(), sample.getDurationNanos() / 1e6));
+            if (sample.getDetail() != null) {
+                recent.append("\n    ").append(sample.getDetail());
+            }
+            recent.append('\n');
+        }
+        binding.textSamples.setText(recent.length() > 0 ? recent : "No samples yet");
+    }
+
+    private void exportSamples() {
+        try {
+            File file = perfMonitor.export();
+            Toast.makeText(this, "Exported to " + file.getAbsolutePath(), Toast.LENGTH_LONG).show();
+        } catch (IOException e) {
+            Toast.makeText(this, "Export failed: " + e.getMessage(), Toast.LENGTH_SHORT).show();
+        }
+    }
+
+    @Override
+    public boolean onOptionsItemSelected(MenuItem item) {
+        if (item.getItemId() == android.R.id.home) {
+            finish();
+            return true;
+        }
+        return super.onOptionsItemSelected(item);
+    }
+}
@@ -0,0 +1,176 @@
+package com.taskmate.task_mate;
+
+import android.net.Uri;
+import android.os.Bundle;
+import android.view.MenuItem;
+import android.view.View;
+
+import androidx.activity.result.ActivityResultLauncher;
+import androidx.activity.result.contract.ActivityResultContracts;
+import androidx.appcompat.app.AppCompatActivity;
+
+import com.google.firebase.auth.FirebaseAuth;
+import com.google.firebase.auth.FirebaseUser;
+import com.taskmate.task_mate.bulk.BulkTransferManager;
+import com.taskmate.task_mate.bulk.TaskFileFormat;
+import com.taskmate.task_mate.databinding.ActivityProfileBinding;
+import com.taskmate.task_mate.images.ImageLoader;
+import com.taskmate.task_mate.logging.AppLog;
+import com.taskmate.task_mate.models.ApiResponse;
+import com.taskmate.task_mate.models.User;
+import com.taskmate.task_mate.models.UserResponse;
+import com.taskmate.task_mate.network.ApiClient;
+
+import retrofit2.Call;
+import retrofit2.Callback;
+import retrofit2.Response;
+
+// Shows the signed-in user's name, email and avatar. Firebase's copy is shown
+// straight away; the server profile replaces it when it arrives. Also where
+// all tasks are exported to, or imported from, a file.
+public class ProfileActivity extends AppCompatActivity implements BulkTransferManager.Listener {
+
+    private static final String TAG = "ProfileActivity";
+    // Types offered in the picker; the format is then told by the file name
+    private static final String[] IMPORT_TYPES = {
+            "application/x-ndjson", "application/json", "text/csv", "text/comma-separated-values",
+            "text/plain", "application/octet-stream"
+    };
+
+    private ActivityProfileBinding binding;
+    private Call<ApiResponse<UserResponse>> profileCall;
+
+    private final ActivityResultLauncher<String> exportNdjson = registerForActivityResult(
+            new ActivityResultContracts.CreateDocument(TaskFileFormat.NDJSON.getMimeType()),
+            uri -> startExport(uri, TaskFileFormat.NDJSON));
+    private final ActivityResultLauncher<String> exportCsv = registerForActivityResult(
+            new ActivityResultContracts.CreateDocument(TaskFileFormat.CSV.getMimeType()),
+            uri -> startExport(uri, TaskFileFormat.CSV));
+    private final ActivityResultLauncher<String[]> importFile = registerForActivityResult(
+            new ActivityResultContracts.OpenDocument(), uri -> {
+                if (uri == null) return;
+                BulkTransferManager.getInstance(this).importFrom(uri);
+                showBulkStatus("Importing…", true);
+            });
+
+    @Override
+    protected void onCreate(Bundle savedInstanceState) {
+        super.onCreate(savedInstanceState);
+
+        binding = ActivityProfileBinding.inflate(getLayoutInflater());
+        setContentView(binding.getRoot());
+
+        setSupportActionBar(binding.toolbar);
+        if (getSupportActionBar() != null) {
+            getSupportActionBar().setDisplayHomeAsUpEnabled(true);
+            getSupportActionBar().setTitle("Profile");
+        }
+
+        FirebaseUser firebaseUser = FirebaseAuth.getInstance().getCurrentUser();
+        if (firebaseUser != null) {
+            bind(firebaseUser.getDisplayName(), firebaseUser.getEmail(),
+                    firebaseUser.getPhotoUrl() != null ? firebaseUser.getPhotoUrl().toString() : null);
+        }
+        loadProfile();
+
+        binding.btnExportNdjson.setOnClickListener(v ->
+                exportNdjson.launch("tasks" + TaskFileFormat.NDJSON.getExtension()));
+        binding.btnExportCsv.setOnClickListener(v ->
+                exportCsv.launch("tasks" + TaskFileFormat.CSV.getExtension()));
+        binding.btnImport.setOnClickListener(v -> importFile.launch(IMPORT_TYPES));
+        binding.btnCancelBulk.setOnClickListener(v -> BulkTransferManager.getInstance(this).cancel());
+    }
+
+    @Override
+    protected void onStart() {
+        super.onStart();
+        BulkTransferManager manager = BulkTransferManager.getInstance(this);
+        manager.addListener(this);
+        setBulkButtonsEnabled(!manager.isRunning());
+        binding.btnCancelBulk.setVisibility(manager.isRunning() ? View.VISIBLE : View.GONE);
+    }
+
+    @Override
+    protected void onStop() {
+        super.onStop();
+        BulkTransferManager.getInstance(this).removeListener(this);
+    }
+
+    private void startExport(Uri uri, TaskFileFormat format) {
+        if (uri == null) return;
+        BulkTransferManager.getInstance(this).exportTo(uri, format);
+        showBulkStatus("Exporting…", true);
+    }
+
+    @Override
+    public void onBulkProgress(String message) {
+        showBulkStatus(message, true);
+    }
+
+    @Override
+    public void onBulkFinished(String message) {
+        showBulkStatus(message, false);
+    }
+
+    @Override
+    public void onBulkFailed(String message) {
+        showBulkStatus(message, false);
+    }
+
+    private void showBulkStatus(String message, boolean running) {
+        binding.textBulkStatus.setVisibility(View.VISIBLE);
+        binding.textBulkStatus.setText(message);
+        binding.btnCancelBulk.setVisibility(running ? View.VISIBLE : View.GONE);
+        setBulkButtonsEnabled(!running);
+    }
+
+    private void setBulkButtonsEnabled(boolean enabled) {
+        binding.btnExportNdjson.setEnabled(enabled);
+        binding.btnExportCsv.setEnabled(enabled);
+        binding.btnImport.setEnabled(enabled);
+    }
+
+    private void loadProfile() {
+        profileCall = ApiClient.getApiService().getUserProfile();
+        profileCall.enqueue(new Callback<ApiResponse<UserResponse>>() {
+            @Override
+            public void onResponse(Call<ApiResponse<UserResponse>> call, Response<ApiResponse<UserResponse>> response) {
+                if (response.isSuccessful() && response.body() != null && response.body().isSuccess()
+                        && response.body().getData() != null && response.body().getData().getUser() != null) {
+                    if (isFinishing()) return;
+                    User user = response.body().getData().getUser();
+                    bind(user.getDisplayName(), user.getEmail(), user.getPhotoURL());
+                } else {
+                    AppLog.w(TAG, "Failed to load profile: {}", response.code());
+                }
+            }
+
+            @Override
+            public void onFailure(Call<ApiResponse<UserResponse>> call, Throwable t) {
+                if (!call.isCanceled()) AppLog.w(TAG, "Failed to load profile", t);
+            }
+        });
+    }
+
+    private void bind(String displayName, String email, String photoUrl) {
+        binding.textDisplayName.setText(displayName != null && !displayName.isEmpty() ? displayName : "TaskMate user");
+        binding.textEmail.setText(email != null ? email : "");
+        ImageLoader.getInstance(this).load(photoUrl, binding.imageAvatar, R.drawable.ic_avatar_placeholder);
+    }
+
+    @Override
+    protected void onDestroy() {
+        super.onDestroy();
+        if (profileCall != null) profileCall.cancel();
+        ImageLoader.getInstance(this).cancel(binding.imageAvatar);
+    }
+
+    @Override
+    public boolean onOptionsItemSelected(MenuItem item) {
+        if (item.getItemId() == android.R.id.home) {
+            finish();
+            return true;
+        }
+        return super.onOptionsItemSelected(item);
+    }
+}
@@ -1,20 +1,57 @@
 package com.taskmate.task_mate;
 
+import android.app.AlertDialog;
 import android.content.Intent;
 import android.os.Bundle;
+import android.text.format.Formatter;
 import android.view.MenuItem;
+import android.view.View;
 import android.widget.Toast;
 
+import androidx.activity.result.ActivityResultLauncher;
+import androidx.activity.result.contract.ActivityResultContracts;
 import androidx.appcompat.app.AppCompatActivity;
 import androidx.appcompat.widget.Toolbar;
 
+import com.taskmate.task_mate.attachments.AttachmentManager;
+import com.taskmate.task_mate.data.TaskRepository;
 import com.taskmate.task_mate.databinding.ActivityTaskDetailBinding;
+import com.taskmate.task_mate.databinding.ItemAttachmentBinding;
+import com.taskmate.task_mate.logging.AppLog;
+import com.taskmate.task_mate.models.ApiResponse;
+import com.taskmate.task_mate.models.Attachment;
+import com.taskmate.task_mate.models.Priority;
 import com.taskmate.task_mate.models.Task;
+import com.taskmate.task_mate.models.TaskResponse;
+import com.taskmate.task_mate.network.ApiClient;
+import com.taskmate.task_mate.prefetch.TaskPrefetcher;
 
-public class TaskDetailActivity extends AppCompatActivity {
+import java.io.File;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import retrofit2.Call;
+import retrofit2.Callback;
+import retrofit2.Response;
+
+public class TaskDetailActivity extends AppCompatActivity implements AttachmentManager.Listener {
+
+    private static final String TAG = "TaskDetailActivity";
 
     private ActivityTaskDetailBinding binding;
     private Task currentTask;
+    private AttachmentManager attachments;
+    // Attachment rows by id, and the latest progress of running transfers
+    private final Map<String, ItemAttachmentBinding> attachmentRows = new HashMap<>();
+    private final Map<String, Integer> transferPercent = new HashMap<>();
+    private final ActivityResultLauncher<String> pickFile =
+            registerForActivityResult(new ActivityResultContracts.GetContent(), uri -> {
+                if (uri == null || currentTask == null || currentTask.getId() == null) return;
+                Toast.makeText(this, "Preparing upload…", Toast.LENGTH_SHORT).show();
+                attachments.upload(currentTask.getId(), uri);
+            });
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
@@ -22,6 +59,7 @@ public class TaskDetailActivity extends AppCompatActivity {
 
         binding = ActivityTaskDetailBinding.inflate(getLayoutInflater());
         setContentView(binding.getRoot());
+        attachments = AttachmentManager.getInstance(this);
 
         // Setup toolbar with back button
         setSupportActionBar(binding.toolbar);
@@ -37,6 +75,7 @@ public class TaskDetailActivity extends AppCompatActivity {
         // Setup UI
         setupTaskDetails();
         setupClickListeners();
+        loadFullTask();
     }
 
     private void getTaskFromIntent() {
@@ -54,27 +93,282 @@ public class TaskDetailActivity extends AppCompatActivity {
             currentTask.setId(taskId);
             currentTask.setTitle(taskTitle);
             currentTask.setDescription(taskDescription);
-            currentTask.setPriority(taskPriority);
+            currentTask.setPriority(Priority.fromWire(taskPriority));
             currentTask.setCategory(taskCategory);
             currentTask.setCompleted(isCompleted);
         }
     }
 
+    // The list only carries a summary, so the full record is fetched here,
+    // unless the list already fetched it ahead
+    private void loadFullTask() {
+        if (currentTask == null || currentTask.getId() == null) return;
+
+        Task cached = TaskRepository.getInstance().findById(currentTask.getId());
+        if (cached != null && !cached.isSummary()) {
+            currentTask = cached.copy();
+            setupTaskDetails();
+            return;
+        }
+
+        boolean prefetched = TaskPrefetcher.getInstance(this).takeTask(currentTask.getId(), fullTask -> {
+            if (fullTask != null) {
+                showFullTask(fullTask);
+            } else {
+                fetchFullTask();
+            }
+        });
+        if (!prefetched) fetchFullTask();
+    }
+
+    private void fetchFullTask() {
+        ApiClient.getApiService().getTask(currentTask.getId())
+                .enqueue(new Callback<ApiResponse<TaskResponse>>() {
+                    @Override
+                    public void onResponse(Call<ApiResponse<TaskResponse>> call, Response<ApiResponse<TaskResponse>> response) {
+                        if (response.isSuccessful() && response.body() != null && response.body().isSuccess()
+                                && response.body().getData() != null && response.body().getData().getTask() != null) {
+                            showFullTask(response.body().getData().getTask());
+                        } else {
+                            AppLog.w(TAG, "Failed to load task: {}", response.code());
+                        }
+                    }
+
+                    @Override
+                    public void onFailure(Call<ApiResponse<TaskResponse>> call, Throwable t) {
+                        // Keep showing the preview from the list
+                        AppLog.w(TAG, "Failed to load task", t);
+                    }
+                });
+    }
+
+    private void showFullTask(Task fullTask) {
+        TaskRepository.getInstance().upsert(fullTask);
+        if (isFinishing()) return;
+        currentTask = fullTask.copy();
+        setupTaskDetails();
+    }
+
     private void setupTaskDetails() {
         if (currentTask != null) {
             binding.taskTitle.setText(currentTask.getTitle());
             binding.taskDescription.setText(currentTask.getDescription() != null ?
                     currentTask.getDescription() : "No description");
             binding.taskPriority.setText("Priority: " +
-                    (currentTask.getPriority() != null ? currentTask.getPriority().toUpperCase() : "MEDIUM"));
+                    currentTask.getPriority().getLabel());
             binding.taskCategory.setText("Category: " +
                     (currentTask.getCategory() != null ? currentTask.getCategory() : "General"));
             binding.taskStatus.setText("Status: " +
                     (currentTask.isCompleted() ? "Completed ✅" : "Pending ⏳"));
+            binding.taskSubtasks.setText(currentTask.getSubtaskCount() > 0 ?
+                    "Subtasks: " + currentTask.getSubtasksDone() + "/" + currentTask.getSubtaskCount() + " done" :
+                    "Subtasks: none");
 
             // Set priority color
             binding.priorityIndicator.setBackgroundColor(currentTask.getPriorityColor());
+            showAttachments();
+        }
+    }
+
+    // Rebuilds the attachment rows; a task has a handful, so no RecyclerView
+    private void showAttachments() {
+        binding.attachmentList.removeAllViews();
+        attachmentRows.clear();
+        List<Attachment> list = currentTask.getAttachments();
+        binding.attachmentsEmpty.setVisibility(list.isEmpty() ? View.VISIBLE : View.GONE);
+        for (Attachment attachment : list) {
+            ItemAttachmentBinding row = ItemAttachmentBinding.inflate(getLayoutInflater(), binding.attachmentList, true);
+            attachmentRows.put(attachment.getId(), row);
+            row.attachmentName.setText(attachment.getName());
+            row.getRoot().setOnClickListener(v -> onAttachmentClicked(attachment));
+            row.getRoot().setOnLongClickListener(v -> {
+                confirmDeleteAttachment(attachment);
+                return true;
+            });
+            showAttachmentState(attachment, row);
+        }
+    }
+
+    private void showAttachmentState(Attachment attachment, ItemAttachmentBinding row) {
+        String size = Formatter.formatShortFileSize(this, attachment.getSize());
+        Integer percent = transferPercent.get(attachment.getId());
+        if (percent != null) {
+            row.attachmentStatus.setText((attachment.isComplete() ? "Downloading " : "Uploading ") + percent + "% of " + size);
+            row.attachmentProgress.setProgress(percent);
+            row.attachmentProgress.setVisibility(View.VISIBLE);
+            return;
+        }
+        row.attachmentProgress.setVisibility(View.GONE);
+        if (attachment.isComplete()) {
+            row.attachmentStatus.setText(attachments.downloadedFile(attachment).exists() ? size + " · downloaded" : size);
+        } else {
+            long uploadedPercent = attachment.getSize() > 0 ? attachment.getUploadedBytes() * 100 / attachment.getSize() : 0;
+            row.attachmentStatus.setText(attachments.canResume(attachment)
+                    ? "Upload stopped at " + uploadedPercent + "% · tap to resume"
+                    : "Upload incomplete · long-press to remove");
+        }
+    }
+
+    private void onAttachmentClicked(Attachment attachment) {
+        if (attachments.isRunning(attachment.getId())) {
+            Toast.makeText(this, "Transfer in progress", Toast.LENGTH_SHORT).show();
+        } else if (!attachment.isComplete()) {
+            if (!attachments.canResume(attachment)) {
+                Toast.makeText(this, "The original file is gone; remove it and attach it again", Toast.LENGTH_LONG).show();
+                return;
+            }
+            startTransfer(attachment);
+            attachments.resumeUpload(currentTask.getId(), attachment);
+        } else if (attachments.downloadedFile(attachment).exists()) {
+            Toast.makeText(this, "Saved to " + attachments.downloadedFile(attachment).getPath(), Toast.LENGTH_LONG).show();
+        } else {
+            startTransfer(attachment);
+            attachments.download(currentTask.getId(), attachment);
+        }
+    }
+
+    private void startTransfer(Attachment attachment) {
+        transferPercent.put(attachment.getId(), 0);
+        ItemAttachmentBinding row = attachmentRows.get(attachment.getId());
+        if (row != null) showAttachmentState(attachment, row);
+    }
+
+    private void confirmDeleteAttachment(Attachment attachment) {
+        new AlertDialog.Builder(this)
+                .setTitle("Remove attachment")
+                .setMessage("Remove \"" + attachment.getName() + "\" from this task?")
+                .setPositiveButton("Remove", (dialog, which) -> deleteAttachment(attachment))
+                .setNegativeButton("Cancel", null)
+                .show();
+    }
+
+    private void deleteAttachment(Attachment attachment) {
+        ApiClient.getApiService().deleteAttachment(currentTask.getId(), attachment.getId())
+                .enqueue(new Callback<ApiResponse<Void>>() {
+                    @Override
+                    public void onResponse(Call<ApiResponse<Void>> call, Response<ApiResponse<Void>> response) {
+                        if (!response.isSuccessful() && response.code() != 404) {
+                            if (!isFinishing()) showError("Failed to remove attachment: " + response.code());
+                            return;
+                        }
+                        attachments.forget(attachment);
+                        transferPercent.remove(attachment.getId());
+                        updateAttachment(attachment.getId(), null);
+                    }
+
+                    @Override
+                    public void onFailure(Call<ApiResponse<Void>> call, Throwable t) {
+                        AppLog.e(TAG, "Network error removing attachment", t);
+                        if (!isFinishing()) showError("Network error: " + t.getMessage());
+                    }
+                });
+    }
+
+    // Replaces (or with null, removes) one attachment here and in the cached task
+    private void updateAttachment(String attachmentId, Attachment replacement) {
+        currentTask.setAttachments(withAttachment(currentTask.getAttachments(), attachmentId, replacement));
+        TaskRepository repository = TaskRepository.getInstance();
+        Task cached = repository.findById(currentTask.getId());
+        if (cached != null && !cached.isSummary()) {
+            Task updated = cached.copy();
+            updated.setAttachments(withAttachment(cached.getAttachments(), attachmentId, replacement));
+            repository.upsert(updated);
         }
+        if (!isFinishing()) showAttachments();
+    }
+
+    private static List<Attachment> withAttachment(List<Attachment> list, String attachmentId, Attachment replacement) {
+        List<Attachment> result = new ArrayList<>(list.size() + 1);
+        boolean replaced = false;
+        for (Attachment attachment : list) {
+            if (!attachment.getId().equals(attachmentId)) {
+                result.add(attachment);
+            } else if (replacement != null) {
+                result.add(replacement);
+                replaced = true;
+            }
+        }
+        if (!replaced && replacement != null) result.add(replacement);
+        return result;
+    }
+
+    private void showError(String message) {
+        Toast.makeText(this, message, Toast.LENGTH_LONG).show();
+        AppLog.e(TAG, "Shown error: {}", message);
+    }
+
+    // AttachmentManager.Listener implementation
+    @Override
+    public void onUploadStarted(String taskId, Attachment attachment) {
+        if (!isCurrentTask(taskId)) return;
+        transferPercent.put(attachment.getId(), 0);
+        updateAttachment(attachment.getId(), attachment);
+    }
+
+    @Override
+    public void onProgress(String taskId, String attachmentId, long done, long total) {
+        if (!isCurrentTask(taskId)) return;
+        transferPercent.put(attachmentId, total > 0 ? (int) (done * 100 / total) : 100);
+        ItemAttachmentBinding row = attachmentRows.get(attachmentId);
+        Attachment attachment = findAttachment(attachmentId);
+        if (row != null && attachment != null) showAttachmentState(attachment, row);
+    }
+
+    @Override
+    public void onUploadFinished(String taskId, Attachment attachment) {
+        if (!isCurrentTask(taskId)) return;
+        transferPercent.remove(attachment.getId());
+        updateAttachment(attachment.getId(), attachment);
+    }
+
+    @Override
+    public void onDownloadFinished(String taskId, Attachment attachment, File file) {
+        if (!isCurrentTask(taskId)) return;
+        transferPercent.remove(attachment.getId());
+        showAttachments();
+        Toast.makeText(this, "Saved to " + file.getPath(), Toast.LENGTH_LONG).show();
+    }
+
+    @Override
+    public void onTransferFailed(String taskId, String attachmentId, String message) {
+        if (!isCurrentTask(taskId)) return;
+        if (attachmentId != null) transferPercent.remove(attachmentId);
+        if (attachmentId != null && findAttachment(attachmentId) != null) {
+            // Reload for the server's uploadedBytes, which the row shows
+            refreshAttachments();
+        }
+        showError("Attachment: " + message);
+    }
+
+    private boolean isCurrentTask(String taskId) {
+        return currentTask != null && taskId.equals(currentTask.getId());
+    }
+
+    private Attachment findAttachment(String attachmentId) {
+        for (Attachment attachment : currentTask.getAttachments()) {
+            if (attachment.getId().equals(attachmentId)) return attachment;
+        }
+        return null;
+    }
+
+    private void refreshAttachments() {
+        ApiClient.getApiService().getTask(currentTask.getId())
+                .enqueue(new Callback<ApiResponse<TaskResponse>>() {
+                    @Override
+                    public void onResponse(Call<ApiResponse<TaskResponse>> call, Response<ApiResponse<TaskResponse>> response) {
+                        if (isFinishing() || !response.isSuccessful() || response.body() == null
+                                || response.body().getData() == null || response.body().getData().getTask() == null) {
+                            return;
+                        }
+                        currentTask.setAttachments(response.body().getData().getTask().getAttachments());
+                        showAttachments();
+                    }
+
+                    @Override
+                    public void onFailure(Call<ApiResponse<TaskResponse>> call, Throwable t) {
+                        AppLog.w(TAG, "Failed to refresh attachments", t);
+                    }
+                });
     }
 
     private void setupClickListeners() {
@@ -88,6 +382,19 @@ public class TaskDetailActivity extends AppCompatActivity {
             Toast.makeText(this, "Delete functionality - Coming soon!", Toast.LENGTH_SHORT).show();
         });
 
+        // Attachments: any kind of file
+        binding.btnAddAttachment.setOnClickListener(v -> pickFile.launch("*/*"));
+
+        // Subtasks and checklist
+        binding.btnSubtasks.setOnClickListener(v -> {
+            Intent intent = new Intent(this, TaskTreeActivity.class);
+            intent.putExtra("task_id", currentTask.getId());
+            intent.putExtra("task_title", currentTask.getTitle());
+            intent.putExtra("task_subtasks", currentTask.getSubtaskCount());
+            intent.putExtra("task_subtasks_done", currentTask.getSubtasksDone());
+            startActivity(intent);
+        });
+
         // Toggle completion
         binding.btnToggleComplete.setOnClickListener(v -> {
             currentTask.setCompleted(!currentTask.isCompleted());
@@ -98,6 +405,31 @@ public class TaskDetailActivity extends AppCompatActivity {
         });
     }
 
+    @Override
+    protected void onStart() {
+        super.onStart();
+        attachments.addListener(this);
+    }
+
+    @Override
+    protected void onStop() {
+        attachments.removeListener(this);
+        super.onStop();
+    }
+
+    @Override
+    protected void onResume() {
+        super.onResume();
+        // Counts may have changed on the subtask screen
+        if (currentTask == null) return;
+        Task cached = TaskRepository.getInstance().findById(currentTask.getId());
+        if (cached != null) {
+            currentTask.setSubtaskCount(cached.getSubtaskCount());
+            currentTask.setSubtasksDone(cached.getSubtasksDone());
+            setupTaskDetails();
+        }
+    }
+
     @Override
     public boolean onOptionsItemSelected(MenuItem item) {
         // Handle back button press
@@ -0,0 +1,16 @@
+package com.taskmate.task_mate;
+
+import android.app.Application;
+
+import com.taskmate.task_mate.logging.AppLog;
+
+// Process-wide setup that has to run before any component, including
+// receivers started without a UI (boot, reminders)
+public class TaskMateApplication extends Application {
+
+    @Override
+    public void onCreate() {
+        super.onCreate();
+        AppLog.init(this);
+    }
+}
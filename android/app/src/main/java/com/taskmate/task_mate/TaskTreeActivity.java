@@ -0,0 +1,251 @@
+package com.taskmate.task_mate;
+
+import android.app.AlertDialog;
+import android.os.Bundle;
+import android.view.MenuItem;
+import android.view.View;
+import android.widget.EditText;
+import android.widget.Toast;
+
+import androidx.appcompat.app.AppCompatActivity;
+import androidx.recyclerview.widget.LinearLayoutManager;
+
+import com.taskmate.task_mate.adapters.TaskTreeAdapter;
+import com.taskmate.task_mate.data.TaskRepository;
+import com.taskmate.task_mate.databinding.ActivityTaskTreeBinding;
+import com.taskmate.task_mate.logging.AppLog;
+import com.taskmate.task_mate.models.ApiResponse;
+import com.taskmate.task_mate.models.CreateTaskRequest;
+import com.taskmate.task_mate.models.Task;
+import com.taskmate.task_mate.models.TaskKind;
+import com.taskmate.task_mate.models.TaskResponse;
+import com.taskmate.task_mate.models.TasksResponse;
+import com.taskmate.task_mate.network.ApiClient;
+import com.taskmate.task_mate.network.ApiService;
+import com.taskmate.task_mate.subtasks.TaskTree;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import retrofit2.Call;
+import retrofit2.Callback;
+import retrofit2.Response;
+
+// Subtasks and checklist items of one task as an expandable tree. Only the
+// first level is loaded up front; a branch is fetched the first time it is
+// expanded. Long-press a subtask to add something under it.
+public class TaskTreeActivity extends AppCompatActivity implements TaskTreeAdapter.OnNodeActionListener {
+
+    private static final String TAG = "TaskTreeActivity";
+    // The server's page size cap
+    private static final int CHILDREN_LIMIT = 100;
+    private static final int INDENT_DP = 24;
+
+    private ActivityTaskTreeBinding binding;
+    private TaskTree tree;
+    // Branches with a request in flight
+    private final Set<String> loading = new HashSet<>();
+
+    @Override
+    protected void onCreate(Bundle savedInstanceState) {
+        super.onCreate(savedInstanceState);
+
+        binding = ActivityTaskTreeBinding.inflate(getLayoutInflater());
+        setContentView(binding.getRoot());
+
+        String taskId = getIntent().getStringExtra("task_id");
+        String taskTitle = getIntent().getStringExtra("task_title");
+
+        setSupportActionBar(binding.toolbar);
+        if (getSupportActionBar() != null) {
+            getSupportActionBar().setDisplayHomeAsUpEnabled(true);
+            getSupportActionBar().setTitle(taskTitle != null ? taskTitle : "Subtasks");
+        }
+
+        Task root = TaskRepository.getInstance().findById(taskId);
+        if (root == null) {
+            root = new Task();
+            root.setId(taskId);
+            root.setTitle(taskTitle);
+            root.setSubtaskCount(getIntent().getIntExtra("task_subtasks", 0));
+            root.setSubtasksDone(getIntent().getIntExtra("task_subtasks_done", 0));
+        }
+        tree = new TaskTree(root);
+
+        int indentPx = Math.round(INDENT_DP * getResources().getDisplayMetrics().density);
+        binding.recyclerViewTree.setLayoutManager(new LinearLayoutManager(this));
+        binding.recyclerViewTree.setAdapter(new TaskTreeAdapter(tree, indentPx, this));
+        binding.fabAddSubtask.setOnClickListener(v -> showAddDialog(tree.getRoot()));
+
+        showProgress();
+        loadChildren(tree.getRoot());
+    }
+
+    // TaskTreeAdapter.OnNodeActionListener implementation
+    @Override
+    public void onToggleExpanded(TaskTree.Node node) {
+        if (node.isExpanded()) {
+            tree.collapse(node);
+        } else if (!tree.expand(node)) {
+            loadChildren(node);
+        }
+    }
+
+    @Override
+    public void onToggleCompleted(TaskTree.Node node, boolean isCompleted) {
+        // Counts up the tree change right away and go back if the server refuses
+        tree.setCompleted(node, isCompleted);
+        showProgress();
+        String taskId = node.getTask().getId();
+        Call<ApiResponse<Task>> call = isCompleted ?
+                ApiClient.getApiService().markTaskComplete(taskId) :
+                ApiClient.getApiService().markTaskIncomplete(taskId);
+        call.enqueue(new Callback<ApiResponse<Task>>() {
+            @Override
+            public void onResponse(Call<ApiResponse<Task>> call, Response<ApiResponse<Task>> response) {
+                if (response.isSuccessful() && response.body() != null && response.body().isSuccess()) {
+                    publishRootCounts();
+                } else {
+                    undoToggle(node, isCompleted, "Failed to update task: " + response.code());
+                }
+            }
+
+            @Override
+            public void onFailure(Call<ApiResponse<Task>> call, Throwable t) {
+                AppLog.e(TAG, "Network error updating subtask", t);
+                undoToggle(node, isCompleted, "Network error: " + t.getMessage());
+            }
+        });
+    }
+
+    @Override
+    public void onAddChild(TaskTree.Node node) {
+        showAddDialog(node);
+    }
+
+    private void loadChildren(TaskTree.Node node) {
+        String taskId = node.getTask().getId();
+        if (taskId == null || !loading.add(taskId)) return;
+        binding.progressBar.setVisibility(View.VISIBLE);
+
+        ApiClient.getApiService().getSubtasks(taskId, ApiService.VIEW_SUMMARY, CHILDREN_LIMIT)
+                .enqueue(new Callback<ApiResponse<TasksResponse>>() {
+                    @Override
+                    public void onResponse(Call<ApiResponse<TasksResponse>> call, Response<ApiResponse<TasksResponse>> response) {
+                        loading.remove(taskId);
+                        if (isFinishing()) return;
+                        binding.progressBar.setVisibility(loading.isEmpty() ? View.GONE : View.VISIBLE);
+                        ApiResponse<TasksResponse> apiResponse = response.body();
+                        if (response.isSuccessful() && apiResponse != null && apiResponse.isSuccess()
+                                && apiResponse.getData() != null) {
+                            tree.setChildren(node, apiResponse.getData().getTasks());
+                            showProgress();
+                        } else {
+                            tree.collapse(node);
+                            showError("Failed to load subtasks: " + response.code());
+                        }
+                    }
+
+                    @Override
+                    public void onFailure(Call<ApiResponse<TasksResponse>> call, Throwable t) {
+                        loading.remove(taskId);
+                        if (isFinishing()) return;
+                        binding.progressBar.setVisibility(loading.isEmpty() ? View.GONE : View.VISIBLE);
+                        AppLog.e(TAG, "Network error loading subtasks", t);
+                        tree.collapse(node);
+                        showError("Network error: " + t.getMessage());
+                    }
+                });
+    }
+
+    private void showAddDialog(TaskTree.Node parent) {
+        EditText titleInput = new EditText(this);
+        titleInput.setHint("Title");
+
+        AlertDialog.Builder builder = new AlertDialog.Builder(this);
+        builder.setTitle(parent == tree.getRoot() ? "Add to this task" : "Add under \"" + parent.getTask().getTitle() + "\"");
+        builder.setView(titleInput);
+        builder.setPositiveButton("Subtask", (dialog, which) ->
+                createChild(parent, titleInput.getText().toString().trim(), TaskKind.TASK));
+        builder.setNeutralButton("Checklist item", (dialog, which) ->
+                createChild(parent, titleInput.getText().toString().trim(), TaskKind.CHECKLIST));
+        builder.setNegativeButton("Cancel", null);
+        builder.show();
+    }
+
+    private void createChild(TaskTree.Node parent, String title, TaskKind kind) {
+        if (title.isEmpty()) {
+            Toast.makeText(this, "Title is required", Toast.LENGTH_SHORT).show();
+            return;
+        }
+
+        CreateTaskRequest request = new CreateTaskRequest(title, null, null, null);
+        request.setParentId(parent.getTask().getId());
+        request.setKind(kind.getWireValue());
+
+        ApiClient.getApiService().createTask(request)
+                .enqueue(new Callback<ApiResponse<TaskResponse>>() {
+                    @Override
+                    public void onResponse(Call<ApiResponse<TaskResponse>> call, Response<ApiResponse<TaskResponse>> response) {
+                        if (isFinishing()) return;
+                        ApiResponse<TaskResponse> apiResponse = response.body();
+                        if (response.isSuccessful() && apiResponse != null && apiResponse.isSuccess()
+                                && apiResponse.getData() != null && apiResponse.getData().getTask() != null) {
+                            tree.add(parent, apiResponse.getData().getTask());
+                            // Show the new row; an unloaded branch is fetched with it included
+                            if (parent != tree.getRoot() && !parent.isExpanded() && !tree.expand(parent)) {
+                                loadChildren(parent);
+                            }
+                            showProgress();
+                            publishRootCounts();
+                        } else {
+                            showError("Failed to add: " + response.code());
+                        }
+                    }
+
+                    @Override
+                    public void onFailure(Call<ApiResponse<TaskResponse>> call, Throwable t) {
+                        AppLog.e(TAG, "Network error adding subtask", t);
+                        showError("Network error: " + t.getMessage());
+                    }
+                });
+    }
+
+    private void undoToggle(TaskTree.Node node, boolean isCompleted, String message) {
+        if (isFinishing()) return;
+        tree.setCompleted(node, !isCompleted);
+        showProgress();
+        showError(message);
+    }
+
+    private void showProgress() {
+        TaskTree.Node root = tree.getRoot();
+        binding.textProgress.setText(root.getTotal() == 0 ? "No subtasks yet"
+                : root.getDone() + " of " + root.getTotal() + " done");
+    }
+
+    // Keeps the task's own counts current for the list and detail screens
+    private void publishRootCounts() {
+        TaskRepository repository = TaskRepository.getInstance();
+        Task listed = repository.findById(tree.getRoot().getTask().getId());
+        if (listed == null) return;
+        Task updated = listed.copy();
+        updated.setSubtaskCount(tree.getRoot().getTotal());
+        updated.setSubtasksDone(tree.getRoot().getDone());
+        repository.upsert(updated);
+    }
+
+    private void showError(String message) {
+        Toast.makeText(this, message, Toast.LENGTH_LONG).show();
+        AppLog.e(TAG, "Shown error: {}", message);
+    }
+
+    @Override
+    public boolean onOptionsItemSelected(MenuItem item) {
+        if (item.getItemId() == android.R.id.home) {
+            finish();
+            return true;
+        }
+        return super.onOptionsItemSelected(item);
+    }
+}
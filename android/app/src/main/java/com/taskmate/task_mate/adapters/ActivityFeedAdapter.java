@@ -0,0 +1,102 @@
+package com.taskmate.task_mate.adapters;
+
+import android.graphics.Typeface;
+import android.text.format.DateUtils;
+import android.view.LayoutInflater;
+import android.view.View;
+import android.view.ViewGroup;
+import android.widget.TextView;
+
+import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.RecyclerView;
+
+import com.taskmate.task_mate.R;
+import com.taskmate.task_mate.feed.ActivityEvent;
+import com.taskmate.task_mate.feed.ActivityFeed;
+
+// Renders the activity feed straight from its paged store. Rows whose page is
+// not in memory yet show a placeholder and are rebound once the page arrives.
+public class ActivityFeedAdapter extends RecyclerView.Adapter<ActivityFeedAdapter.EventViewHolder> {
+
+    private final ActivityFeed feed;
+    private int itemCount;
+    private long total;
+
+    public ActivityFeedAdapter(ActivityFeed feed) {
+        this.feed = feed;
+        this.itemCount = feed.size();
+        this.total = feed.getTotal();
+    }
+
+    // Newest events are at position 0, so new events are an insert at the top;
+    // once the ring is full the same number of rows drop off the end
+    public void onFeedChanged() {
+        long newTotal = feed.getTotal();
+        int newCount = feed.size();
+        int added = (int) Math.min(newTotal - total, Integer.MAX_VALUE);
+        if (added <= 0) return;
+
+        notifyItemRangeInserted(0, added);
+        int dropped = itemCount + added - newCount;
+        if (dropped > 0) {
+            notifyItemRangeRemoved(newCount, dropped);
+        }
+        itemCount = newCount;
+        total = newTotal;
+    }
+
+    @NonNull
+    @Override
+    public EventViewHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
+        View itemView = LayoutInflater.from(parent.getContext())
+                .inflate(R.layout.item_activity_event, parent, false);
+        return new EventViewHolder(itemView);
+    }
+
+    @Override
+    public void onBindViewHolder(@NonNull EventViewHolder holder, int position) {
+        ActivityEvent event = feed.getOrLoad(position, this::notifyItemChanged);
+        holder.bind(event, feed.isUnread(position));
+    }
+
+    @Override
+    public int getItemCount() {
+        return itemCount;
+    }
+
+    static class EventViewHolder extends RecyclerView.ViewHolder {
+        private final TextView eventIcon;
+        private final TextView eventText;
+        private final TextView eventTime;
+
+        EventViewHolder(@NonNull View itemView) {
+            super(itemView);
+            eventIcon = itemView.findViewById(R.id.eventIcon);
+            eventText = itemView.findViewById(R.id.eventText);
+            eventTime = itemView.findViewById(R.id.eventTime);
+        }
+
+        void bind(ActivityEvent event, boolean unread) {
+            if (event == null) {
+                eventIcon.setText("");
+                eventText.setText("…");
+                eventTime.setText("");
+                return;
+            }
+            eventIcon.setText(iconFor(event.getType()));
+            eventText.setText(event.getText());
+            eventText.setTypeface(null, unread ? Typeface.BOLD : Typeface.NORMAL);
+            eventTime.setText(DateUtils.getRelativeTimeSpanString(event.getTime()));
+        }
+
+        private static String iconFor(ActivityEvent.Type type) {
+            switch (type) {
+                case REMINDER: return "⏰";
+                case TASK_COMPLETED: return "✅";
+                case SYNC_CONFLICT: return "🔄";
+                case WRITE_FAILED: return "⚠️";
+                default: return "•";
+            }
+        }
+    }
+}
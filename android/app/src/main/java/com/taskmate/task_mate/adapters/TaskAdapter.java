@@ -7,16 +7,42 @@ import android.widget.CheckBox;
 import android.widget.TextView;
 
 import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.recyclerview.widget.AdapterListUpdateCallback;
+import androidx.recyclerview.widget.AsyncDifferConfig;
+import androidx.recyclerview.widget.AsyncListDiffer;
 import androidx.recyclerview.widget.DiffUtil;
-import androidx.recyclerview.widget.ListAdapter;
+import androidx.recyclerview.widget.ListUpdateCallback;
 import androidx.recyclerview.widget.RecyclerView;
 
 import com.taskmate.task_mate.R;
 import com.taskmate.task_mate.models.Task;
+import com.taskmate.task_mate.perf.PerfSection;
+import com.taskmate.task_mate.perf.PerfTrace;
 
-public class TaskAdapter extends ListAdapter<Task, TaskAdapter.TaskViewHolder> {
+import java.util.ArrayList;
+import java.util.List;
+
+// Lists are diffed off the main thread (AsyncListDiffer, as ListAdapter does).
+// Rows can also be dragged: while a drag is in progress the adapter shows its
+// own copy of the rows and animates each step with notifyItemMoved, and the
+// diff that later commits the new order must not move the rows a second time.
+// On a cold start the rows can first come from the last-screen snapshot; they
+// show, but can't be clicked, checked or dragged until the live list replaces
+// them.
+public class TaskAdapter extends RecyclerView.Adapter<TaskAdapter.TaskViewHolder> {
 
     private OnTaskClickListener listener;
+    private final AsyncListDiffer<Task> differ;
+    // Rows as dragged; shown instead of the differ's list until a list in the
+    // new order is committed
+    private List<Task> dragRows;
+    // The RecyclerView already shows the dropped order
+    private boolean moveShown;
+    // Snapshot rows on show, until a live list is committed
+    private List<Task> placeholders;
+    // Rebinds rows in place, without the change animation
+    private static final Object REBIND = new Object();
 
     public interface OnTaskClickListener {
         void onTaskClick(Task task);
@@ -24,21 +50,20 @@ public class TaskAdapter extends ListAdapter<Task, TaskAdapter.TaskViewHolder> {
     }
 
     public TaskAdapter(OnTaskClickListener listener) {
-        super(DIFF_CALLBACK);
         this.listener = listener;
+        differ = new AsyncListDiffer<>(new DropAwareUpdates(new AdapterListUpdateCallback(this)),
+                new AsyncDifferConfig.Builder<>(DIFF_CALLBACK).build());
     }
 
     private static final DiffUtil.ItemCallback<Task> DIFF_CALLBACK = new DiffUtil.ItemCallback<Task>() {
         @Override
         public boolean areItemsTheSame(@NonNull Task oldItem, @NonNull Task newItem) {
-            return oldItem.getId().equals(newItem.getId());
+            return TaskDiff.sameItem(oldItem, newItem);
         }
 
         @Override
         public boolean areContentsTheSame(@NonNull Task oldItem, @NonNull Task newItem) {
-            return oldItem.getTitle().equals(newItem.getTitle()) &&
-                    oldItem.isCompleted() == newItem.isCompleted() &&
-                    oldItem.getPriority().equals(newItem.getPriority());
+            return TaskDiff.sameContents(oldItem, newItem);
         }
     };
 
@@ -50,10 +75,93 @@ public class TaskAdapter extends ListAdapter<Task, TaskAdapter.TaskViewHolder> {
         return new TaskViewHolder(itemView);
     }
 
+    // Diff runs off the main thread; the span ends when the result is committed
+    public void submitList(@Nullable List<Task> list) {
+        long mark = PerfTrace.mark();
+        differ.submitList(list, () -> {
+            if (mark != 0) PerfTrace.since(PerfSection.DIFF, mark);
+            onListCommitted(list);
+        });
+    }
+
+    // Shows display-only rows until the first submitList. The differ is empty
+    // at this point, so they are in place before this returns
+    public void showPlaceholders(List<Task> rows) {
+        if (!differ.getCurrentList().isEmpty()) return;
+        placeholders = rows;
+        differ.submitList(rows);
+    }
+
+    public boolean isShowingPlaceholders() {
+        return placeholders != null;
+    }
+
+    public List<Task> getCurrentList() {
+        return dragRows != null ? dragRows : differ.getCurrentList();
+    }
+
+    @Override
+    public int getItemCount() {
+        return getCurrentList().size();
+    }
+
+    protected Task getItem(int position) {
+        return getCurrentList().get(position);
+    }
+
+    // Don't submit lists while a drag is in progress
+    public void startDrag() {
+        dragRows = new ArrayList<>(differ.getCurrentList());
+        moveShown = false;
+    }
+
+    public void moveRow(int from, int to) {
+        if (dragRows == null) return;
+        dragRows.add(to, dragRows.remove(from));
+        notifyItemMoved(from, to);
+    }
+
+    // Rows in dropped order. Unless the drop changed nothing, the caller is
+    // expected to submit a list in that order next
+    public List<Task> endDrag(boolean moved) {
+        List<Task> rows = dragRows;
+        if (moved) {
+            moveShown = true;
+        } else {
+            dragRows = null;
+        }
+        return rows;
+    }
+
+    private void onListCommitted(@Nullable List<Task> list) {
+        if (placeholders != null && list != placeholders) {
+            // Rows the diff found unchanged still hold what the snapshot bound;
+            // the same text again, but live and enabled
+            placeholders = null;
+            notifyItemRangeChanged(0, getItemCount(), REBIND);
+        }
+        if (!moveShown) return;
+        boolean asShown = list != null && sameOrder(dragRows, list);
+        dragRows = null;
+        moveShown = false;
+        // Something else changed the order too: the moves were not applied
+        if (!asShown) notifyDataSetChanged();
+    }
+
+    private static boolean sameOrder(List<Task> a, List<Task> b) {
+        if (a.size() != b.size()) return false;
+        for (int i = 0; i < a.size(); i++) {
+            if (!TaskDiff.sameItem(a.get(i), b.get(i))) return false;
+        }
+        return true;
+    }
+
     @Override
     public void onBindViewHolder(@NonNull TaskViewHolder holder, int position) {
+        long start = PerfTrace.begin(PerfSection.BIND);
         Task currentTask = getItem(position);
         holder.bind(currentTask);
+        PerfTrace.end(PerfSection.BIND, start);
     }
 
     class TaskViewHolder extends RecyclerView.ViewHolder {
@@ -61,6 +169,7 @@ public class TaskAdapter extends ListAdapter<Task, TaskAdapter.TaskViewHolder> {
         private TextView taskDescription;
         private TextView taskPriority;
         private TextView taskCategory;
+        private TextView taskTags;
         private CheckBox taskCheckbox;
         private View priorityIndicator;
 
@@ -70,12 +179,13 @@ public class TaskAdapter extends ListAdapter<Task, TaskAdapter.TaskViewHolder> {
             taskDescription = itemView.findViewById(R.id.taskDescription);
             taskPriority = itemView.findViewById(R.id.taskPriority);
             taskCategory = itemView.findViewById(R.id.taskCategory);
+            taskTags = itemView.findViewById(R.id.taskTags);
             taskCheckbox = itemView.findViewById(R.id.taskCheckbox);
             priorityIndicator = itemView.findViewById(R.id.priorityIndicator);
 
             // Set click listeners
             itemView.setOnClickListener(v -> {
-                if (listener != null) {
+                if (listener != null && placeholders == null) {
                     int position = getAdapterPosition();
                     if (position != RecyclerView.NO_POSITION) {
                         listener.onTaskClick(getItem(position));
@@ -84,7 +194,7 @@ public class TaskAdapter extends ListAdapter<Task, TaskAdapter.TaskViewHolder> {
             });
 
             taskCheckbox.setOnClickListener(v -> {
-                if (listener != null) {
+                if (listener != null && placeholders == null) {
                     int position = getAdapterPosition();
                     if (position != RecyclerView.NO_POSITION) {
                         listener.onTaskToggle(getItem(position), taskCheckbox.isChecked());
@@ -103,10 +213,24 @@ public class TaskAdapter extends ListAdapter<Task, TaskAdapter.TaskViewHolder> {
                 taskDescription.setVisibility(View.GONE);
             }
 
-            taskPriority.setText(task.getPriority() != null ? task.getPriority().toUpperCase() : "MEDIUM");
-            taskCategory.setText(task.getCategory() != null ? task.getCategory() : "General");
+            taskPriority.setText(task.getPriority().getLabel());
+            taskCategory.setText(task.getCategoryLine());
+
+            List<String> tags = task.getTags();
+            if (tags.isEmpty()) {
+                taskTags.setVisibility(View.GONE);
+            } else {
+                StringBuilder text = new StringBuilder();
+                for (String tag : tags) {
+                    if (text.length() > 0) text.append(' ');
+                    text.append('#').append(tag);
+                }
+                taskTags.setText(text);
+                taskTags.setVisibility(View.VISIBLE);
+            }
 
             taskCheckbox.setChecked(task.isCompleted());
+            taskCheckbox.setEnabled(placeholders == null);
 
             // Set priority indicator color
             priorityIndicator.setBackgroundColor(task.getPriorityColor());
@@ -121,4 +245,34 @@ public class TaskAdapter extends ListAdapter<Task, TaskAdapter.TaskViewHolder> {
             }
         }
     }
-}
\ No newline at end of file
+
+    // Passes diff results to the RecyclerView, minus the moves a drag has
+    // already animated
+    private final class DropAwareUpdates implements ListUpdateCallback {
+        private final ListUpdateCallback target;
+
+        DropAwareUpdates(ListUpdateCallback target) {
+            this.target = target;
+        }
+
+        @Override
+        public void onInserted(int position, int count) {
+            target.onInserted(position, count);
+        }
+
+        @Override
+        public void onRemoved(int position, int count) {
+            target.onRemoved(position, count);
+        }
+
+        @Override
+        public void onMoved(int fromPosition, int toPosition) {
+            if (!moveShown) target.onMoved(fromPosition, toPosition);
+        }
+
+        @Override
+        public void onChanged(int position, int count, @Nullable Object payload) {
+            target.onChanged(position, count, payload);
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.taskmate.task_mate.adapters;
+
+import com.taskmate.task_mate.models.Recurrence;
+import com.taskmate.task_mate.models.Task;
+
+import java.util.Arrays;
+
+// Row identity and equality for TaskAdapter's DiffUtil callback. Kept free of
+// Android types so the benchmark module can measure it on the plain JVM.
+public final class TaskDiff {
+
+    private TaskDiff() {}
+
+    public static boolean sameItem(Task oldItem, Task newItem) {
+        return oldItem.getId().equals(newItem.getId());
+    }
+
+    public static boolean sameContents(Task oldItem, Task newItem) {
+        // Edits replace the task with a copy, so an unchanged row is the same instance
+        if (oldItem == newItem) return true;
+        return oldItem.getTitle().equals(newItem.getTitle()) &&
+                oldItem.isCompleted() == newItem.isCompleted() &&
+                oldItem.getPriority() == newItem.getPriority() &&
+                Arrays.equals(oldItem.getTagBits(), newItem.getTagBits()) &&
+                sameRecurrence(oldItem.getRecurrence(), newItem.getRecurrence());
+    }
+
+    // Only what the row shows: the rule's description
+    private static boolean sameRecurrence(Recurrence oldRule, Recurrence newRule) {
+        if (oldRule == newRule) return true;
+        return oldRule != null && newRule != null && oldRule.describe().equals(newRule.describe());
+    }
+}
@@ -0,0 +1,136 @@
+package com.taskmate.task_mate.adapters;
+
+import android.view.LayoutInflater;
+import android.view.View;
+import android.view.ViewGroup;
+import android.widget.CheckBox;
+import android.widget.TextView;
+
+import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.RecyclerView;
+
+import com.taskmate.task_mate.R;
+import com.taskmate.task_mate.models.Task;
+import com.taskmate.task_mate.models.TaskKind;
+import com.taskmate.task_mate.subtasks.TaskTree;
+
+// Rows of a TaskTree. The tree reports which rows it spliced in or out or
+// changed, and those are passed straight on as item notifications.
+public class TaskTreeAdapter extends RecyclerView.Adapter<TaskTreeAdapter.NodeViewHolder>
+        implements TaskTree.Listener {
+
+    public interface OnNodeActionListener {
+        void onToggleExpanded(TaskTree.Node node);
+        void onToggleCompleted(TaskTree.Node node, boolean isCompleted);
+        void onAddChild(TaskTree.Node node);
+    }
+
+    private final TaskTree tree;
+    private final OnNodeActionListener listener;
+    private final int indentPx;
+
+    public TaskTreeAdapter(TaskTree tree, int indentPx, OnNodeActionListener listener) {
+        this.tree = tree;
+        this.indentPx = indentPx;
+        this.listener = listener;
+        tree.setListener(this);
+    }
+
+    @Override
+    public int getItemCount() {
+        return tree.getRowCount();
+    }
+
+    @NonNull
+    @Override
+    public NodeViewHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
+        View itemView = LayoutInflater.from(parent.getContext())
+                .inflate(R.layout.item_task_tree, parent, false);
+        return new NodeViewHolder(itemView);
+    }
+
+    @Override
+    public void onBindViewHolder(@NonNull NodeViewHolder holder, int position) {
+        holder.bind(tree.getRow(position));
+    }
+
+    // TaskTree.Listener implementation
+    @Override
+    public void onRowsInserted(int position, int count) {
+        notifyItemRangeInserted(position, count);
+    }
+
+    @Override
+    public void onRowsRemoved(int position, int count) {
+        notifyItemRangeRemoved(position, count);
+    }
+
+    @Override
+    public void onRowChanged(int position) {
+        notifyItemChanged(position);
+    }
+
+    class NodeViewHolder extends RecyclerView.ViewHolder {
+        private final View row;
+        private final TextView expander;
+        private final CheckBox checkbox;
+        private final TextView title;
+        private final TextView progress;
+        private final int basePadding;
+
+        NodeViewHolder(@NonNull View itemView) {
+            super(itemView);
+            row = itemView;
+            expander = itemView.findViewById(R.id.nodeExpander);
+            checkbox = itemView.findViewById(R.id.nodeCheckbox);
+            title = itemView.findViewById(R.id.nodeTitle);
+            progress = itemView.findViewById(R.id.nodeProgress);
+            basePadding = itemView.getPaddingStart();
+
+            expander.setOnClickListener(v -> {
+                TaskTree.Node node = nodeAt();
+                if (node != null && node.hasChildren()) listener.onToggleExpanded(node);
+            });
+            checkbox.setOnClickListener(v -> {
+                TaskTree.Node node = nodeAt();
+                if (node != null) listener.onToggleCompleted(node, checkbox.isChecked());
+            });
+            itemView.setOnLongClickListener(v -> {
+                TaskTree.Node node = nodeAt();
+                if (node == null || node.getTask().getKind() == TaskKind.CHECKLIST) return false;
+                listener.onAddChild(node);
+                return true;
+            });
+        }
+
+        private TaskTree.Node nodeAt() {
+            int position = getBindingAdapterPosition();
+            return position != RecyclerView.NO_POSITION ? tree.getRow(position) : null;
+        }
+
+        void bind(TaskTree.Node node) {
+            Task task = node.getTask();
+            row.setPaddingRelative(basePadding + node.getDepth() * indentPx,
+                    row.getPaddingTop(), row.getPaddingEnd(), row.getPaddingBottom());
+
+            if (node.hasChildren()) {
+                expander.setText(node.isExpanded() ? "▾" : "▸");
+                expander.setVisibility(View.VISIBLE);
+            } else {
+                expander.setVisibility(View.INVISIBLE);
+            }
+
+            checkbox.setChecked(task.isCompleted());
+            title.setText(task.getTitle());
+            title.setAlpha(task.isCompleted() ? 0.6f : 1.0f);
+            title.setTextSize(task.getKind() == TaskKind.CHECKLIST ? 14 : 16);
+
+            if (node.getTotal() > 0) {
+                progress.setText(node.getDone() + "/" + node.getTotal());
+                progress.setVisibility(View.VISIBLE);
+            } else {
+                progress.setVisibility(View.GONE);
+            }
+        }
+    }
+}
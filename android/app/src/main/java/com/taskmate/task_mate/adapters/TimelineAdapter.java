@@ -0,0 +1,157 @@
+package com.taskmate.task_mate.adapters;
+
+import android.content.res.ColorStateList;
+import android.graphics.Color;
+import android.graphics.Paint;
+import android.view.LayoutInflater;
+import android.view.View;
+import android.view.ViewGroup;
+import android.widget.LinearLayout;
+import android.widget.TextView;
+
+import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.RecyclerView;
+
+import com.taskmate.task_mate.R;
+import com.taskmate.task_mate.models.Task;
+import com.taskmate.task_mate.timeline.TimelineIndex;
+import com.taskmate.task_mate.util.DateUtils;
+
+import java.text.SimpleDateFormat;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+import java.util.TimeZone;
+
+// One row per day that has tasks. Rows hold only the day number; a row's
+// tasks are read from the index when it is bound, so scrolling through months
+// only reads the buckets that come on screen.
+public class TimelineAdapter extends RecyclerView.Adapter<TimelineAdapter.DayViewHolder> {
+
+    public interface OnTaskClickListener {
+        void onTaskClick(Task task);
+        // Only for occurrences of recurring tasks
+        void onOccurrenceLongClick(Task occurrence);
+    }
+
+    private static final int OVERDUE_COLOR = Color.parseColor("#D32F2F");
+
+    private final TimelineIndex index;
+    private final OnTaskClickListener listener;
+    // Day numbers are local days, so their midnights are formatted as UTC
+    private final SimpleDateFormat dayFormat = new SimpleDateFormat("EEE d MMM yyyy", Locale.getDefault());
+    private final SimpleDateFormat weekFormat = new SimpleDateFormat("d MMM", Locale.getDefault());
+    private final SimpleDateFormat timeFormat = new SimpleDateFormat("HH:mm", Locale.getDefault());
+    private long[] days = new long[0];
+    private long now;
+
+    public TimelineAdapter(TimelineIndex index, OnTaskClickListener listener) {
+        this.index = index;
+        this.listener = listener;
+        TimeZone utc = TimeZone.getTimeZone("UTC");
+        dayFormat.setTimeZone(utc);
+        weekFormat.setTimeZone(utc);
+    }
+
+    public void setDays(long[] days, long now) {
+        this.days = days;
+        this.now = now;
+        notifyDataSetChanged();
+    }
+
+    // Position of the first day on or after the given one
+    public int positionOf(long day) {
+        int at = Arrays.binarySearch(days, day);
+        return Math.min(at >= 0 ? at : -at - 1, Math.max(0, days.length - 1));
+    }
+
+    @NonNull
+    @Override
+    public DayViewHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
+        View itemView = LayoutInflater.from(parent.getContext())
+                .inflate(R.layout.item_timeline_day, parent, false);
+        return new DayViewHolder(itemView);
+    }
+
+    @Override
+    public void onBindViewHolder(@NonNull DayViewHolder holder, int position) {
+        long day = days[position];
+        long week = TimelineIndex.weekOf(day);
+        boolean firstOfWeek = position == 0 || TimelineIndex.weekOf(days[position - 1]) != week;
+        holder.bind(day, firstOfWeek ? week : Long.MIN_VALUE, index.tasksOnDay(day));
+    }
+
+    @Override
+    public int getItemCount() {
+        return days.length;
+    }
+
+    class DayViewHolder extends RecyclerView.ViewHolder {
+        private final TextView weekHeader;
+        private final TextView dayHeader;
+        private final LinearLayout dayTasks;
+
+        DayViewHolder(@NonNull View itemView) {
+            super(itemView);
+            weekHeader = itemView.findViewById(R.id.weekHeader);
+            dayHeader = itemView.findViewById(R.id.dayHeader);
+            dayTasks = itemView.findViewById(R.id.dayTasks);
+        }
+
+        void bind(long day, long week, List<Task> tasks) {
+            if (week != Long.MIN_VALUE) {
+                long monday = (week * 7 - 3) * DateUtils.DAY_MS;
+                int count = index.countInWeek(week);
+                weekHeader.setText("Week of " + weekFormat.format(new Date(monday)) + " · "
+                        + count + (count == 1 ? " task" : " tasks"));
+                weekHeader.setVisibility(View.VISIBLE);
+            } else {
+                weekHeader.setVisibility(View.GONE);
+            }
+            dayHeader.setText(dayFormat.format(new Date(day * DateUtils.DAY_MS)));
+
+            // Reuse the line views from the last day this row showed
+            while (dayTasks.getChildCount() > tasks.size()) {
+                dayTasks.removeViewAt(dayTasks.getChildCount() - 1);
+            }
+            while (dayTasks.getChildCount() < tasks.size()) {
+                dayTasks.addView(LayoutInflater.from(itemView.getContext())
+                        .inflate(R.layout.item_timeline_task, dayTasks, false));
+            }
+            for (int i = 0; i < tasks.size(); i++) {
+                bindTask((TextView) dayTasks.getChildAt(i), tasks.get(i));
+            }
+        }
+
+        private void bindTask(TextView line, Task task) {
+            line.setText(timeFormat.format(new Date(task.getDueDate())) + "  "
+                    + (task.isOccurrence() ? "↻ " : "") + task.getTitle());
+            if (line.getTag() == null) line.setTag(line.getTextColors());
+            if (task.isOverdue(now)) {
+                line.setTextColor(OVERDUE_COLOR);
+            } else {
+                line.setTextColor((ColorStateList) line.getTag());
+            }
+            if (task.isCompleted()) {
+                line.setPaintFlags(line.getPaintFlags() | Paint.STRIKE_THRU_TEXT_FLAG);
+                line.setAlpha(0.6f);
+            } else {
+                line.setPaintFlags(line.getPaintFlags() & ~Paint.STRIKE_THRU_TEXT_FLAG);
+                line.setAlpha(1.0f);
+            }
+            line.setOnClickListener(v -> {
+                if (listener != null) listener.onTaskClick(task);
+            });
+            if (task.isOccurrence()) {
+                line.setOnLongClickListener(v -> {
+                    if (listener != null) listener.onOccurrenceLongClick(task);
+                    return true;
+                });
+            } else {
+                line.setOnLongClickListener(null);
+                line.setLongClickable(false);
+            }
+        }
+    }
+}
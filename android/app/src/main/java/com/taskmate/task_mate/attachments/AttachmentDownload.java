@@ -0,0 +1,95 @@
+package com.taskmate.task_mate.attachments;
+
+import com.taskmate.task_mate.models.Attachment;
+import com.taskmate.task_mate.network.ApiService;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+import okhttp3.ResponseBody;
+import retrofit2.Response;
+
+// Streams an attachment's content into a file. Bytes are written to
+// `<target>.part` through a fixed buffer as they arrive; a retry, or a later
+// download of the same attachment, asks only for the rest with a Range
+// request and appends it. The part file takes the target's name once every
+// byte is in. Uploaded content never changes, so a part file is always a
+// prefix of it and needs no If-Range validator.
+public class AttachmentDownload extends AttachmentTransfer {
+
+    private final File target;
+    private final File part;
+
+    public AttachmentDownload(ApiService api, String taskId, Attachment attachment, File target,
+                              ProgressListener listener) {
+        super(api, taskId, attachment, listener);
+        this.target = target;
+        this.part = new File(target.getPath() + ".part");
+    }
+
+    public File getTarget() {
+        return target;
+    }
+
+    @Override
+    protected void attempt(boolean resumed) throws IOException {
+        long size = attachment.getSize();
+        long offset = part.length();
+        if (offset > size) {
+            deletePart();
+            offset = 0;
+        }
+
+        if (offset < size) {
+            Response<ResponseBody> response = execute(api.downloadAttachment(taskId, attachment.getId(),
+                    offset > 0 ? "bytes=" + offset + "-" : null));
+            try (ResponseBody body = response.body()) {
+                if (!response.isSuccessful() || body == null) {
+                    if (response.code() == 416) deletePart();
+                    throw new HttpStatusException(response.code());
+                }
+                // A 200 is the whole file: the server ignored the range
+                boolean append = response.code() == 206;
+                String range = response.headers().get("Content-Range");
+                if (append && (range == null || !range.startsWith("bytes " + offset + "-"))) {
+                    deletePart();
+                    throw new IOException("Unexpected Content-Range: " + range);
+                }
+                copy(body, append ? offset : 0, append);
+            }
+        }
+
+        if (part.length() != size) {
+            throw new IOException("Download ended at " + part.length() + " of " + size + " bytes");
+        }
+        if (target.exists() && !target.delete()) throw new IOException("Cannot replace " + target);
+        if (!part.renameTo(target)) throw new IOException("Cannot rename " + part + " to " + target);
+        report(size);
+    }
+
+    @Override
+    protected long position() {
+        return part.length();
+    }
+
+    private void copy(ResponseBody body, long position, boolean append) throws IOException {
+        File dir = part.getParentFile();
+        if (dir != null && !dir.isDirectory() && !dir.mkdirs()) throw new IOException("Cannot create " + dir);
+        byte[] buffer = new byte[BUFFER_BYTES];
+        report(position);
+        try (InputStream in = body.byteStream(); FileOutputStream out = new FileOutputStream(part, append)) {
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                out.write(buffer, 0, read);
+                position += read;
+                report(position);
+            }
+        }
+    }
+
+    private void deletePart() throws IOException {
+        if (part.exists() && !part.delete()) throw new IOException("Cannot delete " + part);
+    }
+}
@@ -0,0 +1,255 @@
+package com.taskmate.task_mate.attachments;
+
+import android.content.ContentResolver;
+import android.content.Context;
+import android.database.Cursor;
+import android.net.Uri;
+import android.os.Environment;
+import android.os.Handler;
+import android.os.Looper;
+import android.provider.OpenableColumns;
+
+import com.taskmate.task_mate.logging.AppLog;
+import com.taskmate.task_mate.models.Attachment;
+import com.taskmate.task_mate.models.CreateAttachmentRequest;
+import com.taskmate.task_mate.network.ApiClient;
+import com.taskmate.task_mate.network.ApiService;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Runs attachment uploads and downloads for the screens on a small background
+// pool, so they outlive the activity that started them. A file picked from
+// another app is first streamed into the cache: the upload reads from that
+// copy, which is kept until the server has every byte, so an upload that
+// failed can be resumed later from where the server stopped. Downloads land
+// in the app's Downloads folder, one folder per attachment.
+// Listener calls arrive on the main thread.
+public class AttachmentManager {
+
+    private static final String TAG = "AttachmentManager";
+    private static final String STAGING_DIR = "attachments";
+    // Same limit as the server's MAX_ATTACHMENT_BYTES
+    public static final long MAX_BYTES = 100L * 1024 * 1024;
+    private static final int THREADS = 2;
+
+    public interface Listener {
+        // The record exists on the server and its content is on the way
+        void onUploadStarted(String taskId, Attachment attachment);
+        void onProgress(String taskId, String attachmentId, long done, long total);
+        void onUploadFinished(String taskId, Attachment attachment);
+        void onDownloadFinished(String taskId, Attachment attachment, File file);
+        // attachmentId is null when the upload failed before its record was created
+        void onTransferFailed(String taskId, String attachmentId, String message);
+    }
+
+    private static AttachmentManager instance;
+
+    private final Context context;
+    private final ExecutorService executor;
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    private final List<Listener> listeners = new CopyOnWriteArrayList<>();
+    private final Map<String, AttachmentTransfer> running = new ConcurrentHashMap<>();
+
+    private AttachmentManager(Context context) {
+        this.context = context;
+        // Not a WorkPool: transfers run for minutes and only ever THREADS at a
+        // time, each one the user started (see WorkPool)
+        AtomicInteger count = new AtomicInteger();
+        executor = Executors.newFixedThreadPool(THREADS, r -> {
+            Thread thread = new Thread(r, "attachment-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public static synchronized AttachmentManager getInstance(Context context) {
+        if (instance == null) {
+            instance = new AttachmentManager(context.getApplicationContext());
+        }
+        return instance;
+    }
+
+    public void addListener(Listener listener) {
+        listeners.add(listener);
+    }
+
+    public void removeListener(Listener listener) {
+        listeners.remove(listener);
+    }
+
+    public boolean isRunning(String attachmentId) {
+        return running.containsKey(attachmentId);
+    }
+
+    // An incomplete upload whose source copy is still here can be resumed
+    public boolean canResume(Attachment attachment) {
+        File staged = stagedFile(attachment.getId());
+        return !attachment.isComplete() && staged.length() == attachment.getSize();
+    }
+
+    // Where a download of the attachment ends up; exists once it is complete
+    public File downloadedFile(Attachment attachment) {
+        File base = context.getExternalFilesDir(Environment.DIRECTORY_DOWNLOADS);
+        if (base == null) base = new File(context.getFilesDir(), Environment.DIRECTORY_DOWNLOADS);
+        String name = attachment.getName() != null ? attachment.getName() : attachment.getId();
+        return new File(new File(base, attachment.getId()), name.replaceAll("[\\\\/:*?\"<>|]", "_"));
+    }
+
+    public void upload(String taskId, Uri uri) {
+        executor.execute(() -> {
+            File staged = null;
+            try {
+                ContentResolver resolver = context.getContentResolver();
+                String name = displayName(resolver, uri);
+                staged = stage(resolver, uri);
+                if (staged.length() == 0) throw new IOException("The file is empty");
+                if (staged.length() > MAX_BYTES) throw new IOException("Files can be up to 100 MB");
+
+                ApiService api = ApiClient.getApiService();
+                CreateAttachmentRequest request = new CreateAttachmentRequest(name, staged.length(), resolver.getType(uri));
+                Attachment attachment = AttachmentTransfer.attachmentOf(api.createAttachment(taskId, request).execute());
+                File kept = stagedFile(attachment.getId());
+                if (!staged.renameTo(kept)) throw new IOException("Cannot keep a copy of the file");
+                staged = null;
+
+                mainHandler.post(() -> {
+                    for (Listener listener : listeners) listener.onUploadStarted(taskId, attachment);
+                });
+                runUpload(taskId, attachment, kept);
+            } catch (IOException e) {
+                AppLog.w(TAG, "Failed to start upload", e);
+                fail(taskId, null, e);
+            } finally {
+                if (staged != null) staged.delete();
+            }
+        });
+    }
+
+    // Continues an upload that failed earlier, from where the server stopped
+    public void resumeUpload(String taskId, Attachment attachment) {
+        if (!canResume(attachment) || running.containsKey(attachment.getId())) return;
+        executor.execute(() -> runUpload(taskId, attachment, stagedFile(attachment.getId())));
+    }
+
+    public void download(String taskId, Attachment attachment) {
+        if (!attachment.isComplete() || running.containsKey(attachment.getId())) return;
+        File target = downloadedFile(attachment);
+        AttachmentDownload download = new AttachmentDownload(ApiClient.getApiService(), taskId, attachment, target,
+                progressReporter(taskId, attachment.getId()));
+        running.put(attachment.getId(), download);
+        executor.execute(() -> {
+            try {
+                download.run();
+                mainHandler.post(() -> {
+                    for (Listener listener : listeners) listener.onDownloadFinished(taskId, attachment, target);
+                });
+            } catch (IOException e) {
+                AppLog.w(TAG, "Download of {} failed: {}", attachment.getId(), e.getMessage());
+                fail(taskId, attachment.getId(), e);
+            } finally {
+                running.remove(attachment.getId());
+            }
+        });
+    }
+
+    // Stops any transfer and drops the local copies, e.g. after deleting the attachment
+    public void forget(Attachment attachment) {
+        AttachmentTransfer transfer = running.remove(attachment.getId());
+        if (transfer != null) transfer.cancel();
+        executor.execute(() -> {
+            stagedFile(attachment.getId()).delete();
+            File downloaded = downloadedFile(attachment);
+            downloaded.delete();
+            new File(downloaded.getPath() + ".part").delete();
+            File dir = downloaded.getParentFile();
+            if (dir != null) dir.delete();
+        });
+    }
+
+    // Worker thread
+    private void runUpload(String taskId, Attachment attachment, File file) {
+        AttachmentUpload upload = new AttachmentUpload(ApiClient.getApiService(), taskId, attachment, file,
+                progressReporter(taskId, attachment.getId()));
+        if (running.putIfAbsent(attachment.getId(), upload) != null) return;
+        try {
+            upload.run();
+            file.delete();
+            Attachment done = upload.getResult();
+            mainHandler.post(() -> {
+                for (Listener listener : listeners) listener.onUploadFinished(taskId, done);
+            });
+        } catch (IOException e) {
+            AppLog.w(TAG, "Upload of {} stopped at {} bytes", attachment.getId(), upload.position(), e);
+            fail(taskId, attachment.getId(), e);
+        } finally {
+            running.remove(attachment.getId(), upload);
+        }
+    }
+
+    // Posts progress when the whole percentage changes, not for every buffer
+    private AttachmentTransfer.ProgressListener progressReporter(String taskId, String attachmentId) {
+        long[] lastPercent = {-1};
+        return (done, total) -> {
+            long percent = total > 0 ? done * 100 / total : 100;
+            if (percent == lastPercent[0]) return;
+            lastPercent[0] = percent;
+            mainHandler.post(() -> {
+                for (Listener listener : listeners) listener.onProgress(taskId, attachmentId, done, total);
+            });
+        };
+    }
+
+    private void fail(String taskId, String attachmentId, IOException e) {
+        String message = e instanceof InterruptedIOException ? "Transfer cancelled"
+                : e instanceof AttachmentTransfer.HttpStatusException ? "Server error: " + e.getMessage()
+                : e.getMessage() != null ? e.getMessage() : "Network error";
+        mainHandler.post(() -> {
+            for (Listener listener : listeners) listener.onTransferFailed(taskId, attachmentId, message);
+        });
+    }
+
+    // Streams the picked file into the cache, a buffer at a time
+    private File stage(ContentResolver resolver, Uri uri) throws IOException {
+        File dir = new File(context.getCacheDir(), STAGING_DIR);
+        if (!dir.isDirectory() && !dir.mkdirs()) throw new IOException("Cannot create " + dir);
+        File staged = File.createTempFile("picked", ".tmp", dir);
+        try (InputStream in = resolver.openInputStream(uri); FileOutputStream out = new FileOutputStream(staged)) {
+            if (in == null) throw new IOException("Cannot open the file");
+            byte[] buffer = new byte[AttachmentTransfer.BUFFER_BYTES];
+            long copied = 0;
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                out.write(buffer, 0, read);
+                copied += read;
+                if (copied > MAX_BYTES) break;
+            }
+        } catch (IOException e) {
+            staged.delete();
+            throw e;
+        }
+        return staged;
+    }
+
+    private File stagedFile(String attachmentId) {
+        return new File(new File(context.getCacheDir(), STAGING_DIR), attachmentId);
+    }
+
+    private static String displayName(ContentResolver resolver, Uri uri) {
+        try (Cursor cursor = resolver.query(uri, new String[]{OpenableColumns.DISPLAY_NAME}, null, null, null)) {
+            if (cursor != null && cursor.moveToFirst() && !cursor.isNull(0)) return cursor.getString(0);
+        }
+        String last = uri.getLastPathSegment();
+        return last != null ? last : "attachment";
+    }
+}
@@ -0,0 +1,155 @@
+package com.taskmate.task_mate.attachments;
+
+import com.taskmate.task_mate.logging.AppLog;
+import com.taskmate.task_mate.models.ApiResponse;
+import com.taskmate.task_mate.models.Attachment;
+import com.taskmate.task_mate.models.AttachmentResponse;
+import com.taskmate.task_mate.network.ApiService;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import retrofit2.Call;
+import retrofit2.Response;
+
+// One upload or download of an attachment's content, run to the end on a
+// worker thread by run(). A dropped connection or a 5xx doesn't fail it: the
+// next attempt finds out how far it got and continues from there, so only the
+// bytes in flight are sent again. Attempts back off, and any progress resets
+// the count, so a long transfer on a flaky network still gets through.
+public abstract class AttachmentTransfer {
+
+    private static final String TAG = "AttachmentTransfer";
+
+    public interface ProgressListener {
+        // Transfer thread; bytes of the whole file done so far
+        void onProgress(long done, long total);
+    }
+
+    // Not a 2xx; 409, 429 and 5xx are worth retrying, the rest are final
+    public static class HttpStatusException extends IOException {
+        private static final long serialVersionUID = 1L;
+
+        private final int code;
+
+        public HttpStatusException(int code) {
+            super("HTTP " + code);
+            this.code = code;
+        }
+
+        public int getCode() { return code; }
+
+        public boolean isRetryable() {
+            return code >= 500 || code == 408 || code == 409 || code == 429;
+        }
+    }
+
+    // Stream buffer: the most of a file held in memory at once
+    static final int BUFFER_BYTES = 64 * 1024;
+    // Failed attempts in a row, without progress, before giving up
+    static final int MAX_ATTEMPTS = 5;
+    private static final long FIRST_BACKOFF_MS = 500;
+    private static final long MAX_BACKOFF_MS = 8000;
+
+    protected final ApiService api;
+    protected final String taskId;
+    protected final Attachment attachment;
+    private final ProgressListener listener;
+    private final CountDownLatch cancelled = new CountDownLatch(1);
+    private volatile Call<?> current;
+    private long firstBackoffMs = FIRST_BACKOFF_MS;
+
+    protected AttachmentTransfer(ApiService api, String taskId, Attachment attachment, ProgressListener listener) {
+        this.api = api;
+        this.taskId = taskId;
+        this.attachment = attachment;
+        this.listener = listener;
+    }
+
+    public Attachment getAttachment() {
+        return attachment;
+    }
+
+    // Tests keep retries fast
+    void setFirstBackoffMs(long firstBackoffMs) {
+        this.firstBackoffMs = firstBackoffMs;
+    }
+
+    // Stops the transfer from any thread; run() ends with an InterruptedIOException.
+    // What was transferred is kept, so a new transfer picks up from there
+    public void cancel() {
+        cancelled.countDown();
+        Call<?> call = current;
+        if (call != null) call.cancel();
+    }
+
+    public boolean isCancelled() {
+        return cancelled.getCount() == 0;
+    }
+
+    public final void run() throws IOException {
+        int failures = 0;
+        long backoffMs = firstBackoffMs;
+        long best = position();
+        boolean resumed = false;
+        while (true) {
+            try {
+                checkCancelled();
+                attempt(resumed);
+                return;
+            } catch (IOException e) {
+                checkCancelled();
+                if (e instanceof HttpStatusException && !((HttpStatusException) e).isRetryable()) throw e;
+                long reached = position();
+                if (reached > best) {
+                    best = reached;
+                    failures = 0;
+                    backoffMs = firstBackoffMs;
+                }
+                if (++failures >= MAX_ATTEMPTS) throw e;
+                AppLog.w(TAG, "Attachment {} interrupted at {} bytes, retrying in {} ms",
+                        attachment.getId(), reached, backoffMs);
+                try {
+                    if (cancelled.await(backoffMs, TimeUnit.MILLISECONDS)) checkCancelled();
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    throw new InterruptedIOException("Interrupted");
+                }
+                backoffMs = Math.min(backoffMs * 2, MAX_BACKOFF_MS);
+                resumed = true;
+            }
+        }
+    }
+
+    // Moves the content as far as it can; resumed after an earlier attempt failed
+    protected abstract void attempt(boolean resumed) throws IOException;
+
+    // Bytes known to be transferred, to tell a failing attempt from a slow one
+    protected abstract long position();
+
+    protected final <T> Response<T> execute(Call<T> call) throws IOException {
+        current = call;
+        if (isCancelled()) call.cancel();
+        return call.execute();
+    }
+
+    // Attachment from a create/get/upload response, or the failure as an exception
+    protected static Attachment attachmentOf(Response<ApiResponse<AttachmentResponse>> response) throws IOException {
+        ApiResponse<AttachmentResponse> body = response.body();
+        if (!response.isSuccessful() || body == null || !body.isSuccess()
+                || body.getData() == null || body.getData().getAttachment() == null) {
+            throw new HttpStatusException(response.isSuccessful() ? 502 : response.code());
+        }
+        return body.getData().getAttachment();
+    }
+
+    protected final void report(long done) {
+        if (listener != null) listener.onProgress(done, attachment.getSize());
+    }
+
+    private void checkCancelled() throws InterruptedIOException {
+        if (isCancelled()) throw new InterruptedIOException("Transfer cancelled");
+    }
+}
@@ -0,0 +1,85 @@
+package com.taskmate.task_mate.attachments;
+
+import com.taskmate.task_mate.models.ApiResponse;
+import com.taskmate.task_mate.models.Attachment;
+import com.taskmate.task_mate.models.AttachmentResponse;
+import com.taskmate.task_mate.network.ApiService;
+
+import java.io.File;
+import java.io.IOException;
+
+import retrofit2.Response;
+
+// Uploads a file as the content of an attachment record, in CHUNK_BYTES PUTs
+// each streamed from disk by a ChunkRequestBody. Every chunk says where it
+// starts (Content-Range) and the server only takes one that continues what
+// it has. After a failure the next attempt asks the server how much arrived,
+// bytes of a broken chunk included, and carries on from there; the same goes
+// for a new AttachmentUpload of a record left incomplete earlier. The file
+// must not change until the upload is complete.
+public class AttachmentUpload extends AttachmentTransfer {
+
+    public static final int CHUNK_BYTES = 1024 * 1024;
+
+    private final File file;
+    private final int chunkBytes;
+    // Where the server's copy ends, as far as we know
+    private volatile long offset;
+    private Attachment result;
+
+    public AttachmentUpload(ApiService api, String taskId, Attachment attachment, File file,
+                            ProgressListener listener) {
+        this(api, taskId, attachment, file, CHUNK_BYTES, listener);
+    }
+
+    AttachmentUpload(ApiService api, String taskId, Attachment attachment, File file, int chunkBytes,
+                     ProgressListener listener) {
+        super(api, taskId, attachment, listener);
+        if (file.length() != attachment.getSize()) {
+            throw new IllegalArgumentException("File has " + file.length() + " bytes, attachment "
+                    + attachment.getSize());
+        }
+        this.file = file;
+        this.chunkBytes = chunkBytes;
+        this.offset = attachment.isComplete() ? attachment.getSize() : attachment.getUploadedBytes();
+    }
+
+    // The completed record once run() has returned
+    public Attachment getResult() {
+        return result;
+    }
+
+    @Override
+    protected void attempt(boolean resumed) throws IOException {
+        long size = attachment.getSize();
+        Attachment state = null;
+        if (resumed) {
+            state = attachmentOf(execute(api.getAttachment(taskId, attachment.getId())));
+            offset = state.isComplete() ? size : state.getUploadedBytes();
+        }
+        report(offset);
+
+        while (offset < size) {
+            long start = offset;
+            long length = Math.min(chunkBytes, size - start);
+            ChunkRequestBody body = new ChunkRequestBody(file, start, length, this::report);
+            String range = "bytes " + start + "-" + (start + length - 1) + "/" + size;
+            Response<ApiResponse<AttachmentResponse>> response =
+                    execute(api.uploadAttachmentChunk(taskId, attachment.getId(), range, body));
+            state = attachmentOf(response);
+            offset = state.isComplete() ? size : state.getUploadedBytes();
+            report(offset);
+        }
+
+        if (state == null || !state.isComplete()) {
+            state = attachmentOf(execute(api.getAttachment(taskId, attachment.getId())));
+            if (!state.isComplete()) throw new HttpStatusException(409);
+        }
+        result = state;
+    }
+
+    @Override
+    protected long position() {
+        return offset;
+    }
+}
@@ -0,0 +1,68 @@
+package com.taskmate.task_mate.attachments;
+
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+
+import okhttp3.MediaType;
+import okhttp3.RequestBody;
+import okio.BufferedSink;
+
+// One chunk of a file as a request body: length bytes from offset, read from
+// disk through a fixed buffer while OkHttp writes the request, so no more than
+// one buffer of the file is on the heap. The file is opened anew on every
+// write, which lets OkHttp send the body again on a fresh connection.
+public class ChunkRequestBody extends RequestBody {
+
+    private static final MediaType OCTET_STREAM = MediaType.get("application/octet-stream");
+
+    public interface Listener {
+        // Writer thread; position in the file up to which bytes have been sent
+        void onWritten(long position);
+    }
+
+    private final File file;
+    private final long offset;
+    private final long length;
+    private final Listener listener;
+
+    public ChunkRequestBody(File file, long offset, long length, Listener listener) {
+        this.file = file;
+        this.offset = offset;
+        this.length = length;
+        this.listener = listener;
+    }
+
+    @Override
+    public MediaType contentType() {
+        return OCTET_STREAM;
+    }
+
+    @Override
+    public long contentLength() {
+        return length;
+    }
+
+    @Override
+    public void writeTo(BufferedSink sink) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(AttachmentTransfer.BUFFER_BYTES);
+        try (FileInputStream in = new FileInputStream(file)) {
+            FileChannel channel = in.getChannel();
+            channel.position(offset);
+            long remaining = length;
+            while (remaining > 0) {
+                buffer.clear();
+                if (remaining < buffer.capacity()) buffer.limit((int) remaining);
+                int read = channel.read(buffer);
+                if (read < 0) throw new EOFException("File shrank during upload: " + file);
+                buffer.flip();
+                while (buffer.hasRemaining()) sink.write(buffer);
+                remaining -= read;
+                if (listener != null) listener.onWritten(offset + length - remaining);
+            }
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package com.taskmate.task_mate.bulk;
+
+import android.content.ContentResolver;
+import android.content.Context;
+import android.database.Cursor;
+import android.net.Uri;
+import android.os.Handler;
+import android.os.Looper;
+import android.provider.OpenableColumns;
+
+import com.taskmate.task_mate.logging.AppLog;
+import com.taskmate.task_mate.network.ApiClient;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+// Runs one export or import at a time on a background thread, reading and
+// writing documents the user picked, so it keeps going when the screen that
+// started it goes away. Listener calls arrive on the main thread.
+public class BulkTransferManager {
+
+    private static final String TAG = "BulkTransferManager";
+
+    public interface Listener {
+        void onBulkProgress(String message);
+        void onBulkFinished(String message);
+        void onBulkFailed(String message);
+    }
+
+    private static BulkTransferManager instance;
+
+    private final Context context;
+    // Not a WorkPool: one transfer at a time, for minutes (see WorkPool)
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "bulk-transfer");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    private final List<Listener> listeners = new CopyOnWriteArrayList<>();
+    private volatile TaskExporter exporter;
+    private volatile TaskImporter importer;
+
+    private BulkTransferManager(Context context) {
+        this.context = context;
+    }
+
+    public static synchronized BulkTransferManager getInstance(Context context) {
+        if (instance == null) {
+            instance = new BulkTransferManager(context.getApplicationContext());
+        }
+        return instance;
+    }
+
+    public void addListener(Listener listener) {
+        listeners.add(listener);
+    }
+
+    public void removeListener(Listener listener) {
+        listeners.remove(listener);
+    }
+
+    public boolean isRunning() {
+        return exporter != null || importer != null;
+    }
+
+    public void cancel() {
+        TaskExporter runningExport = exporter;
+        if (runningExport != null) runningExport.cancel();
+        TaskImporter runningImport = importer;
+        if (runningImport != null) runningImport.cancel();
+    }
+
+    public void exportTo(Uri uri, TaskFileFormat format) {
+        if (isRunning()) return;
+        TaskExporter export = new TaskExporter(ApiClient.getApiService());
+        exporter = export;
+        executor.execute(() -> {
+            try (OutputStream out = context.getContentResolver().openOutputStream(uri, "wt")) {
+                if (out == null) throw new IOException("Cannot open the file");
+                int exported = export.export(format, out,
+                        count -> post(listener -> listener.onBulkProgress("Exported " + count + " tasks…")));
+                post(listener -> listener.onBulkFinished("Exported " + exported + " tasks"));
+            } catch (IOException e) {
+                AppLog.w(TAG, "Export failed", e);
+                String message = e instanceof InterruptedIOException ? "Export cancelled" : "Export failed: " + e.getMessage();
+                post(listener -> listener.onBulkFailed(message));
+            } finally {
+                exporter = null;
+            }
+        });
+    }
+
+    public void importFrom(Uri uri) {
+        if (isRunning()) return;
+        TaskImporter tasks = new TaskImporter(ApiClient.getApiService());
+        importer = tasks;
+        executor.execute(() -> {
+            ContentResolver resolver = context.getContentResolver();
+            TaskFileFormat format = TaskFileFormat.forFile(displayName(resolver, uri), resolver.getType(uri));
+            try (InputStream in = resolver.openInputStream(uri)) {
+                if (in == null) throw new IOException("Cannot open the file");
+                TaskImporter.Result result = tasks.run(format, new BufferedInputStream(in, 64 * 1024),
+                        (read, imported) -> post(listener -> listener.onBulkProgress("Imported " + imported + " tasks…")));
+                post(listener -> listener.onBulkFinished(summary(result)));
+            } catch (IOException e) {
+                AppLog.w(TAG, "Import failed", e);
+                String message = (e instanceof InterruptedIOException ? "Import cancelled" : "Import failed: " + e.getMessage())
+                        + " (" + tasks.getImported() + " tasks imported)";
+                post(listener -> listener.onBulkFailed(message));
+            } finally {
+                importer = null;
+            }
+        });
+    }
+
+    private static String summary(TaskImporter.Result result) {
+        StringBuilder summary = new StringBuilder("Imported ").append(result.getImported()).append(" tasks");
+        if (result.getSkipped() > 0) {
+            summary.append(", skipped ").append(result.getSkipped()).append(" (").append(result.getFirstProblem()).append(")");
+        }
+        if (result.getDetached() > 0) {
+            summary.append(", ").append(result.getDetached()).append(" subtasks moved to the top level");
+        }
+        return summary.toString();
+    }
+
+    private interface ListenerCall {
+        void call(Listener listener);
+    }
+
+    private void post(ListenerCall call) {
+        mainHandler.post(() -> {
+            for (Listener listener : listeners) call.call(listener);
+        });
+    }
+
+    private static String displayName(ContentResolver resolver, Uri uri) {
+        try (Cursor cursor = resolver.query(uri, new String[]{OpenableColumns.DISPLAY_NAME}, null, null, null)) {
+            if (cursor != null && cursor.moveToFirst() && !cursor.isNull(0)) return cursor.getString(0);
+        }
+        return uri.getLastPathSegment();
+    }
+}
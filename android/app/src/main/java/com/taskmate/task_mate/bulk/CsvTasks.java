@@ -0,0 +1,251 @@
+package com.taskmate.task_mate.bulk;
+
+import com.taskmate.task_mate.models.Priority;
+import com.taskmate.task_mate.models.Task;
+import com.taskmate.task_mate.models.TaskKind;
+import com.taskmate.task_mate.models.TaskStatus;
+import com.taskmate.task_mate.util.DateUtils;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+// RFC 4180 CSV with a header row. Columns are matched by name, in any order
+// and case, so a sheet from another tool only needs a title column; unknown
+// columns are ignored. Tags are one cell, separated by semicolons.
+final class CsvTasks {
+
+    static final String[] COLUMNS = {
+            "id", "parentId", "title", "description", "status", "priority", "category", "tags",
+            "dueDate", "isCompleted", "kind", "createdAt"
+    };
+    private static final String TAG_SEPARATOR = ";";
+
+    private CsvTasks() {}
+
+    static final class Writer implements TaskFileFormat.RecordWriter {
+        private final java.io.Writer out;
+        private final String[] row = new String[COLUMNS.length];
+
+        Writer(java.io.Writer out) throws IOException {
+            this.out = out;
+            writeRow(COLUMNS);
+        }
+
+        @Override
+        public void write(Task task) throws IOException {
+            row[0] = task.getId();
+            row[1] = task.getParentId();
+            row[2] = task.getTitle();
+            row[3] = task.getDescription();
+            row[4] = task.getStatus().getWireValue();
+            row[5] = task.getPriority().getWireValue();
+            row[6] = task.getCategory();
+            row[7] = String.join(TAG_SEPARATOR, task.getTags());
+            row[8] = task.hasDueDate() ? DateUtils.formatIso(task.getDueDate()) : null;
+            row[9] = String.valueOf(task.isCompleted());
+            row[10] = task.getKind().getWireValue();
+            row[11] = task.getCreatedAt() != DateUtils.NO_DATE ? DateUtils.formatIso(task.getCreatedAt()) : null;
+            writeRow(row);
+        }
+
+        private void writeRow(String[] cells) throws IOException {
+            for (int i = 0; i < cells.length; i++) {
+                if (i > 0) out.write(',');
+                writeCell(cells[i]);
+            }
+            out.write("\r\n");
+        }
+
+        private void writeCell(String value) throws IOException {
+            if (value == null || value.isEmpty()) return;
+            // A spreadsheet would run a cell starting like this as a formula
+            if (isFormulaStart(value.charAt(0))) value = "'" + value;
+            boolean quote = false;
+            for (int i = 0; i < value.length() && !quote; i++) {
+                char c = value.charAt(i);
+                quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+            }
+            if (!quote) {
+                out.write(value);
+                return;
+            }
+            out.write('"');
+            for (int i = 0; i < value.length(); i++) {
+                char c = value.charAt(i);
+                if (c == '"') out.write('"');
+                out.write(c);
+            }
+            out.write('"');
+        }
+    }
+
+    static final class Reader implements TaskFileFormat.RecordReader {
+        private final java.io.Reader in;
+        private final char[] buffer = new char[8192];
+        private final List<String> cells = new ArrayList<>();
+        private final StringBuilder cell = new StringBuilder();
+        private int position;
+        private int limit;
+        private int lineNumber = 1;
+        private int recordLine;
+        // Column index of each of COLUMNS, -1 when the file doesn't have it
+        private int[] columnIndex;
+
+        Reader(java.io.Reader in) {
+            this.in = in;
+        }
+
+        @Override
+        public Task next() throws IOException {
+            if (columnIndex == null) readHeader();
+            while (true) {
+                int status = readRecord();
+                if (status < 0) return null;
+                if (status == 0) {
+                    throw new TaskFileFormat.BadRecordException(recordLine, "Row is too long");
+                }
+                if (cells.size() == 1 && cells.get(0).isEmpty()) continue;
+                return toTask();
+            }
+        }
+
+        private void readHeader() throws IOException {
+            int status = readRecord();
+            if (status <= 0) throw new IOException("The CSV file has no header row");
+            columnIndex = new int[COLUMNS.length];
+            Arrays.fill(columnIndex, -1);
+            for (int i = 0; i < cells.size(); i++) {
+                String name = cells.get(i).trim();
+                for (int c = 0; c < COLUMNS.length; c++) {
+                    if (columnIndex[c] < 0 && COLUMNS[c].equalsIgnoreCase(name)) columnIndex[c] = i;
+                }
+            }
+            if (columnIndex[2] < 0) throw new IOException("The CSV file has no title column");
+        }
+
+        private Task toTask() {
+            Task task = new Task();
+            task.setId(value(0));
+            task.setParentId(value(1));
+            task.setTitle(value(2));
+            task.setDescription(value(3));
+            String status = value(4);
+            task.setStatus(TaskStatus.fromWire(status != null ? status.toLowerCase(Locale.ROOT) : null));
+            String priority = value(5);
+            task.setPriority(Priority.fromWire(priority != null ? priority.toLowerCase(Locale.ROOT) : null));
+            task.setCategory(value(6));
+            String tags = value(7);
+            if (tags != null) {
+                List<String> list = new ArrayList<>();
+                for (String tag : tags.split(TAG_SEPARATOR)) {
+                    if (!tag.trim().isEmpty()) list.add(tag.trim());
+                }
+                task.setTags(list);
+            }
+            task.setDueDate(DateUtils.parseIso(value(8)));
+            task.setCompleted(isTrue(value(9)) || task.getStatus() == TaskStatus.COMPLETED);
+            task.setKind(TaskKind.fromWire(value(10)));
+            task.setCreatedAt(DateUtils.parseIso(value(11)));
+            return task;
+        }
+
+        // Trimmed cell of a column, null when missing or empty
+        private String value(int column) {
+            int index = columnIndex[column];
+            if (index < 0 || index >= cells.size()) return null;
+            String value = cells.get(index).trim();
+            if (value.length() > 1 && value.charAt(0) == '\'' && isFormulaStart(value.charAt(1))) {
+                value = value.substring(1);
+            }
+            return value.isEmpty() ? null : value;
+        }
+
+        private static boolean isTrue(String value) {
+            if (value == null) return false;
+            switch (value.toLowerCase(Locale.ROOT)) {
+                case "true": case "yes": case "y": case "1": case "x": return true;
+                default: return false;
+            }
+        }
+
+        // Reads the next record into `cells`: 1 when read, 0 when it was too
+        // long (and was skipped), -1 at the end of the input. A quoted cell may
+        // span lines
+        private int readRecord() throws IOException {
+            cells.clear();
+            cell.setLength(0);
+            recordLine = lineNumber;
+            boolean quoted = false;
+            boolean tooLong = false;
+            boolean any = false;
+            int length = 0;
+            while (true) {
+                int c = read();
+                if (c < 0) {
+                    if (!any) return -1;
+                    break;
+                }
+                any = true;
+                if (c == '\n') lineNumber++;
+                if (quoted) {
+                    if (c == '"') {
+                        if (peek() == '"') {
+                            read();
+                            c = '"';
+                        } else {
+                            quoted = false;
+                            continue;
+                        }
+                    }
+                } else if (c == '"' && cell.length() == 0) {
+                    quoted = true;
+                    continue;
+                } else if (c == ',') {
+                    cells.add(cell.toString());
+                    cell.setLength(0);
+                    continue;
+                } else if (c == '\n') {
+                    break;
+                } else if (c == '\r' && peek() == '\n') {
+                    continue;
+                }
+                if (++length > TaskFileFormat.MAX_RECORD_CHARS) {
+                    tooLong = true;
+                    cells.clear();
+                    cell.setLength(0);
+                }
+                if (!tooLong) cell.append((char) c);
+            }
+            cells.add(cell.toString());
+            return tooLong ? 0 : 1;
+        }
+
+        private int read() throws IOException {
+            if (!fill()) return -1;
+            return buffer[position++];
+        }
+
+        private int peek() throws IOException {
+            if (!fill()) return -1;
+            return buffer[position];
+        }
+
+        private boolean fill() throws IOException {
+            if (position < limit) return true;
+            limit = in.read(buffer);
+            position = 0;
+            if (limit <= 0) {
+                limit = 0;
+                return false;
+            }
+            return true;
+        }
+    }
+
+    private static boolean isFormulaStart(char c) {
+        return c == '=' || c == '+' || c == '-' || c == '@' || c == '\t' || c == '\r';
+    }
+}
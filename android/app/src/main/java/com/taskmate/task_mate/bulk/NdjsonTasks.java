@@ -0,0 +1,119 @@
+package com.taskmate.task_mate.bulk;
+
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+import com.taskmate.task_mate.models.Task;
+import com.taskmate.task_mate.models.TaskTypeAdapter;
+
+import java.io.IOException;
+import java.io.StringReader;
+
+// Newline-delimited JSON: each task is one line, written and read by the same
+// TaskTypeAdapter the API responses go through
+final class NdjsonTasks {
+
+    private static final TaskTypeAdapter ADAPTER = new TaskTypeAdapter();
+
+    private NdjsonTasks() {}
+
+    static final class Writer implements TaskFileFormat.RecordWriter {
+        private final java.io.Writer out;
+        private final JsonWriter json;
+
+        Writer(java.io.Writer out) {
+            this.out = out;
+            // Writes straight through to out; lenient allows a value per line
+            json = new JsonWriter(out);
+            json.setLenient(true);
+        }
+
+        @Override
+        public void write(Task task) throws IOException {
+            ADAPTER.write(json, task);
+            out.write('\n');
+        }
+    }
+
+    static final class Reader implements TaskFileFormat.RecordReader {
+        private final java.io.Reader in;
+        private final char[] buffer = new char[8192];
+        private final StringBuilder line = new StringBuilder();
+        private int position;
+        private int limit;
+        private int lineNumber;
+
+        Reader(java.io.Reader in) {
+            this.in = in;
+        }
+
+        @Override
+        public Task next() throws IOException {
+            while (true) {
+                int status = readLine();
+                if (status < 0) return null;
+                if (status == 0) {
+                    throw new TaskFileFormat.BadRecordException(lineNumber, "Line is too long");
+                }
+                if (isBlank(line)) continue;
+                return parse(line.toString());
+            }
+        }
+
+        private Task parse(String record) throws TaskFileFormat.BadRecordException {
+            try {
+                JsonReader json = new JsonReader(new StringReader(record));
+                if (json.peek() != JsonToken.BEGIN_OBJECT) {
+                    throw new TaskFileFormat.BadRecordException(lineNumber, "Not a JSON object");
+                }
+                Task task = ADAPTER.read(json);
+                if (json.peek() != JsonToken.END_DOCUMENT) {
+                    throw new TaskFileFormat.BadRecordException(lineNumber, "More than one value");
+                }
+                return task;
+            } catch (TaskFileFormat.BadRecordException e) {
+                throw e;
+            } catch (IOException | RuntimeException e) {
+                throw new TaskFileFormat.BadRecordException(lineNumber, "Invalid JSON");
+            }
+        }
+
+        // Reads the next line into `line`: 1 when read, 0 when it was too long
+        // (and was skipped), -1 at the end of the input
+        private int readLine() throws IOException {
+            line.setLength(0);
+            boolean tooLong = false;
+            boolean any = false;
+            while (true) {
+                if (position == limit) {
+                    limit = in.read(buffer);
+                    position = 0;
+                    if (limit <= 0) {
+                        limit = 0;
+                        if (!any) return -1;
+                        break;
+                    }
+                }
+                any = true;
+                char c = buffer[position++];
+                if (c == '\n') break;
+                if (tooLong) continue;
+                if (line.length() == TaskFileFormat.MAX_RECORD_CHARS) {
+                    tooLong = true;
+                    line.setLength(0);
+                } else if (c != '\r') {
+                    line.append(c);
+                }
+            }
+            lineNumber++;
+            return tooLong ? 0 : 1;
+        }
+
+        private static boolean isBlank(CharSequence chars) {
+            for (int i = 0; i < chars.length(); i++) {
+                if (!Character.isWhitespace(chars.charAt(i))) return false;
+            }
+            return true;
+        }
+    }
+}
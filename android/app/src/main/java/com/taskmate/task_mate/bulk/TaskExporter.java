@@ -0,0 +1,136 @@
+package com.taskmate.task_mate.bulk;
+
+import com.taskmate.task_mate.logging.AppLog;
+import com.taskmate.task_mate.models.ApiResponse;
+import com.taskmate.task_mate.models.ExportPage;
+import com.taskmate.task_mate.models.Task;
+import com.taskmate.task_mate.network.ApiService;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import retrofit2.Call;
+import retrofit2.Response;
+
+// Writes every task the user has to a stream, a page at a time, straight from
+// the response to the file. The next page is requested while the current one
+// is written, so at most two pages are in memory: exporting 100,000 tasks
+// needs no more heap than exporting 100. Runs on the calling thread, which
+// must not be the main thread.
+public class TaskExporter {
+
+    private static final String TAG = "TaskExporter";
+
+    public interface ProgressListener {
+        // Calling thread, after each page
+        void onProgress(int exported);
+    }
+
+    static final int PAGE_SIZE = 200;
+    // A failed page request is repeated this many times before giving up
+    private static final int PAGE_ATTEMPTS = 3;
+    private static final long RETRY_DELAY_MS = 1000;
+
+    private final ApiService api;
+    private final int pageSize;
+    private volatile boolean cancelled;
+    private volatile Call<?> current;
+
+    public TaskExporter(ApiService api) {
+        this(api, PAGE_SIZE);
+    }
+
+    TaskExporter(ApiService api, int pageSize) {
+        this.api = api;
+        this.pageSize = pageSize;
+    }
+
+    // From any thread; export() ends with an InterruptedIOException
+    public void cancel() {
+        cancelled = true;
+        Call<?> call = current;
+        if (call != null) call.cancel();
+    }
+
+    // Returns how many tasks were written. The stream is flushed, not closed
+    public int export(TaskFileFormat format, OutputStream out, ProgressListener listener) throws IOException {
+        // Not a WorkPool: lives as long as this export and fetches one page ahead
+        ExecutorService fetcher = Executors.newSingleThreadExecutor(r -> {
+            Thread thread = new Thread(r, "export-fetch");
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 64 * 1024);
+            TaskFileFormat.RecordWriter records = format.newWriter(writer);
+            int exported = 0;
+            Future<ExportPage> pending = fetcher.submit(() -> fetch(null));
+            while (pending != null) {
+                ExportPage page = await(pending);
+                String next = page.getNext();
+                pending = next != null ? fetcher.submit(() -> fetch(next)) : null;
+                if (page.getTasks() != null) {
+                    for (Task task : page.getTasks()) {
+                        if (cancelled) throw new InterruptedIOException("Export cancelled");
+                        records.write(task);
+                        exported++;
+                    }
+                }
+                if (listener != null) listener.onProgress(exported);
+            }
+            writer.flush();
+            return exported;
+        } finally {
+            fetcher.shutdownNow();
+        }
+    }
+
+    // Fetcher thread. Network errors and 5xx are retried, other statuses aren't
+    private ExportPage fetch(String after) throws IOException, InterruptedException {
+        for (int attempt = 1; ; attempt++) {
+            if (cancelled) throw new InterruptedIOException("Export cancelled");
+            Call<ApiResponse<ExportPage>> call = api.exportTasks(after, pageSize);
+            current = call;
+            Response<ApiResponse<ExportPage>> response;
+            try {
+                response = call.execute();
+            } catch (IOException e) {
+                if (cancelled || attempt == PAGE_ATTEMPTS) throw e;
+                AppLog.w(TAG, "Export page after {} failed, retrying", after, e);
+                Thread.sleep(RETRY_DELAY_MS * attempt);
+                continue;
+            }
+            ApiResponse<ExportPage> body = response.body();
+            if (response.isSuccessful() && body != null && body.isSuccess() && body.getData() != null) {
+                return body.getData();
+            }
+            if (response.code() < 500 || attempt == PAGE_ATTEMPTS) {
+                throw new IOException("Export failed: HTTP " + response.code());
+            }
+            Thread.sleep(RETRY_DELAY_MS * attempt);
+        }
+    }
+
+    private ExportPage await(Future<ExportPage> page) throws IOException {
+        try {
+            return page.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Export interrupted");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cancelled) throw new InterruptedIOException("Export cancelled");
+            if (cause instanceof IOException) throw (IOException) cause;
+            throw new IOException(cause);
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.taskmate.task_mate.bulk;
+
+import com.taskmate.task_mate.models.Task;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.util.Locale;
+
+// File formats tasks are exported to and imported from. Both are read and
+// written one record at a time, so a file of any length streams through.
+// NDJSON is one task per line in the API's JSON shape and keeps everything the
+// app knows about a task; CSV has the plain columns, for spreadsheets and
+// other tools.
+public enum TaskFileFormat {
+    NDJSON("application/x-ndjson", ".ndjson"),
+    CSV("text/csv", ".csv");
+
+    // Longest record read; a longer one is skipped as bad rather than buffered
+    static final int MAX_RECORD_CHARS = 256 * 1024;
+
+    public interface RecordWriter {
+        void write(Task task) throws IOException;
+    }
+
+    public interface RecordReader {
+        // The next task, or null at the end of the file. A record that can't be
+        // read throws BadRecordException, after which reading goes on
+        Task next() throws IOException;
+    }
+
+    // One unreadable record; the rest of the file can still be read
+    public static class BadRecordException extends IOException {
+        private static final long serialVersionUID = 1L;
+
+        private final int line;
+
+        public BadRecordException(int line, String message) {
+            super("Line " + line + ": " + message);
+            this.line = line;
+        }
+
+        public int getLine() { return line; }
+    }
+
+    private final String mimeType;
+    private final String extension;
+
+    TaskFileFormat(String mimeType, String extension) {
+        this.mimeType = mimeType;
+        this.extension = extension;
+    }
+
+    public String getMimeType() { return mimeType; }
+    public String getExtension() { return extension; }
+
+    public RecordWriter newWriter(Writer out) throws IOException {
+        return this == CSV ? new CsvTasks.Writer(out) : new NdjsonTasks.Writer(out);
+    }
+
+    public RecordReader newReader(Reader in) {
+        return this == CSV ? new CsvTasks.Reader(in) : new NdjsonTasks.Reader(in);
+    }
+
+    // Picks the format of a file to import from its name, then its type;
+    // anything that isn't CSV is read as NDJSON
+    public static TaskFileFormat forFile(String name, String mimeType) {
+        if (name != null && name.toLowerCase(Locale.ROOT).endsWith(CSV.extension)) return CSV;
+        if (mimeType != null && mimeType.toLowerCase(Locale.ROOT).contains("csv")) return CSV;
+        return NDJSON;
+    }
+}
@@ -0,0 +1,276 @@
+package com.taskmate.task_mate.bulk;
+
+import com.taskmate.task_mate.models.ApiResponse;
+import com.taskmate.task_mate.models.ImportTaskRequest;
+import com.taskmate.task_mate.models.ImportTasksRequest;
+import com.taskmate.task_mate.models.ImportTasksResponse;
+import com.taskmate.task_mate.models.Task;
+import com.taskmate.task_mate.models.TaskKind;
+import com.taskmate.task_mate.network.ApiService;
+import com.taskmate.task_mate.util.DateUtils;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.InterruptedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import retrofit2.Call;
+import retrofit2.Response;
+
+// Reads tasks from a stream and creates them on the server in batches. The
+// calling thread parses records into batches and hands them to a sender
+// thread through a queue of QUEUED_BATCHES; when the server is slower than the
+// parser the queue fills and parsing waits, so memory holds a few batches
+// however long the file is. Batches go out one at a time, in file order, so
+// the tasks keep the file's order.
+//
+// Subtasks: a record whose parentId names an earlier record of the file is
+// created under the task made from it, sent along in the same batch or found
+// in the old -> new ids of the last REMEMBERED_IDS records already created. A
+// subtask whose parent isn't known is imported at the top level. Occurrence
+// exceptions and attachments aren't imported.
+//
+// A failed batch isn't retried, as the server may have created it: run()
+// throws and getImported() tells how many tasks made it.
+public class TaskImporter {
+
+    public interface ProgressListener {
+        // Sender thread, after each batch
+        void onProgress(int read, int imported);
+    }
+
+    public static class Result {
+        private final int read;
+        private final int imported;
+        private final int skipped;
+        private final int detached;
+        private final String firstProblem;
+
+        Result(int read, int imported, int skipped, int detached, String firstProblem) {
+            this.read = read;
+            this.imported = imported;
+            this.skipped = skipped;
+            this.detached = detached;
+            this.firstProblem = firstProblem;
+        }
+
+        // Records in the file, including skipped ones
+        public int getRead() { return read; }
+        public int getImported() { return imported; }
+        // Records that couldn't be read or had no title
+        public int getSkipped() { return skipped; }
+        // Subtasks imported at the top level because their parent wasn't known
+        public int getDetached() { return detached; }
+        // What was wrong with the first skipped record, or null
+        public String getFirstProblem() { return firstProblem; }
+    }
+
+    // The server takes up to 200 (MAX_IMPORT_BATCH)
+    static final int BATCH_SIZE = 100;
+    static final int QUEUED_BATCHES = 2;
+    static final int REMEMBERED_IDS = 10_000;
+    private static final List<Task> END = Collections.emptyList();
+
+    private final ApiService api;
+    private final int batchSize;
+    private final BlockingQueue<List<Task>> queue = new ArrayBlockingQueue<>(QUEUED_BATCHES);
+    // Sender thread only
+    private final Map<String, String> newIds = new LinkedHashMap<String, String>(256, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, String> eldest) {
+            return size() > REMEMBERED_IDS;
+        }
+    };
+    private volatile boolean cancelled;
+    private volatile Call<?> current;
+    private volatile int read;
+    private volatile int imported;
+    private int skipped;
+    private volatile int detached;
+    private String firstProblem;
+
+    public TaskImporter(ApiService api) {
+        this(api, BATCH_SIZE);
+    }
+
+    TaskImporter(ApiService api, int batchSize) {
+        this.api = api;
+        this.batchSize = batchSize;
+    }
+
+    public int getImported() {
+        return imported;
+    }
+
+    // From any thread; run() ends with an InterruptedIOException
+    public void cancel() {
+        cancelled = true;
+        Call<?> call = current;
+        if (call != null) call.cancel();
+    }
+
+    // Runs on the calling thread, which must not be the main thread. The stream
+    // is read to the end but not closed
+    public Result run(TaskFileFormat format, InputStream in, ProgressListener listener) throws IOException {
+        TaskFileFormat.RecordReader records = format.newReader(
+                new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8), 64 * 1024));
+        // Not a WorkPool: lives as long as this import and sends one batch at a time
+        ExecutorService sender = Executors.newSingleThreadExecutor(r -> {
+            Thread thread = new Thread(r, "import-send");
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            Future<?> sending = sender.submit(() -> {
+                send(listener);
+                return null;
+            });
+            List<Task> batch = new ArrayList<>(batchSize);
+            while (true) {
+                if (cancelled) throw new InterruptedIOException("Import cancelled");
+                Task task;
+                try {
+                    task = records.next();
+                } catch (TaskFileFormat.BadRecordException e) {
+                    skip(e.getMessage());
+                    continue;
+                }
+                if (task == null) break;
+                read++;
+                if (task.getTitle() == null || task.getTitle().trim().isEmpty()) {
+                    skip("Record " + read + " has no title");
+                    continue;
+                }
+                batch.add(task);
+                if (batch.size() == batchSize) {
+                    hand(batch, sending);
+                    batch = new ArrayList<>(batchSize);
+                }
+            }
+            if (!batch.isEmpty()) hand(batch, sending);
+            hand(END, sending);
+            await(sending);
+            return new Result(read, imported, skipped, detached, firstProblem);
+        } finally {
+            sender.shutdownNow();
+        }
+    }
+
+    private void skip(String problem) {
+        skipped++;
+        if (firstProblem == null) firstProblem = problem;
+    }
+
+    // Waits for room in the queue; this is where a slow server holds the parser back
+    private void hand(List<Task> batch, Future<?> sending) throws IOException {
+        try {
+            while (!queue.offer(batch, 50, TimeUnit.MILLISECONDS)) {
+                if (cancelled) throw new InterruptedIOException("Import cancelled");
+                if (sending.isDone()) {
+                    await(sending);
+                    throw new IOException("Import stopped");
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Import interrupted");
+        }
+    }
+
+    private void await(Future<?> sending) throws IOException {
+        try {
+            sending.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Import interrupted");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cancelled) throw new InterruptedIOException("Import cancelled");
+            if (cause instanceof IOException) throw (IOException) cause;
+            throw new IOException(cause);
+        }
+    }
+
+    // Sender thread
+    private void send(ProgressListener listener) throws IOException, InterruptedException {
+        List<ImportTaskRequest> requests = new ArrayList<>(batchSize);
+        List<String> oldIds = new ArrayList<>(batchSize);
+        // Old id -> index in this batch, for subtasks whose parent comes with them
+        Map<String, Integer> batchIndex = new HashMap<>();
+        while (true) {
+            List<Task> batch = queue.take();
+            if (batch == END) return;
+            for (Task task : batch) {
+                ImportTaskRequest request = toRequest(task);
+                String parentId = task.getParentId();
+                if (parentId != null) {
+                    Integer parentIndex = batchIndex.get(parentId);
+                    String newParentId = parentIndex == null ? newIds.get(parentId) : null;
+                    if (parentIndex != null) {
+                        request.setParentIndex(parentIndex);
+                    } else if (newParentId != null) {
+                        request.setParentId(newParentId);
+                    } else {
+                        detached++;
+                    }
+                }
+                if (task.getId() != null) batchIndex.put(task.getId(), requests.size());
+                requests.add(request);
+                oldIds.add(task.getId());
+            }
+            post(requests, oldIds);
+            batchIndex.clear();
+            if (listener != null) listener.onProgress(read, imported);
+        }
+    }
+
+    private void post(List<ImportTaskRequest> requests, List<String> oldIds) throws IOException {
+        if (requests.isEmpty()) return;
+        if (cancelled) throw new InterruptedIOException("Import cancelled");
+        Call<ApiResponse<ImportTasksResponse>> call = api.importTasks(new ImportTasksRequest(requests));
+        current = call;
+        Response<ApiResponse<ImportTasksResponse>> response = call.execute();
+        ApiResponse<ImportTasksResponse> body = response.body();
+        List<String> ids = body != null && body.getData() != null ? body.getData().getIds() : null;
+        if (!response.isSuccessful() || body == null || !body.isSuccess()
+                || ids == null || ids.size() != requests.size()) {
+            throw new IOException("Import failed after " + imported + " tasks: HTTP " + response.code());
+        }
+        for (int i = 0; i < ids.size(); i++) {
+            if (oldIds.get(i) != null) newIds.put(oldIds.get(i), ids.get(i));
+        }
+        imported += ids.size();
+        requests.clear();
+        oldIds.clear();
+    }
+
+    private static ImportTaskRequest toRequest(Task task) {
+        ImportTaskRequest request = new ImportTaskRequest(task.getTitle().trim(), task.getDescription(),
+                task.getPriority().getWireValue(), task.getCategory());
+        if (!task.getTags().isEmpty()) request.setTags(task.getTags());
+        if (task.hasDueDate()) {
+            request.setDueDate(DateUtils.formatIso(task.getDueDate()));
+            // The server only takes a rule with a due date to count from
+            request.setRecurrence(task.getRecurrence());
+        }
+        if (task.getKind() != TaskKind.TASK) request.setKind(task.getKind().getWireValue());
+        request.setStatus(task.getStatus().getWireValue());
+        if (task.isCompleted()) request.setIsCompleted(true);
+        return request;
+    }
+}
@@ -0,0 +1,243 @@
+package com.taskmate.task_mate.data;
+
+import com.taskmate.task_mate.models.Task;
+import com.taskmate.task_mate.util.OrderKeys;
+import com.taskmate.task_mate.util.PersistentList;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+// In-memory source of truth for the signed-in user's tasks. Screens publish
+// what they load or change here and on-device indexes (planner, reminders, ...)
+// listen for incremental updates instead of re-reading the whole list.
+// All calls are expected on the main thread, except getTasks(), which
+// background work may read to compare a response with what we hold, and
+// prepareReplace().
+//
+// A full load replaces every listener's state. Listeners for which that is
+// costly implement Preparing: prepareReplace() runs on the worker that
+// processed the response and builds their new state there, and
+// replaceAll(Replacement) only swaps the results in on the main thread.
+//
+// State is a PersistentList: getTasks() is an immutable snapshot that can be
+// handed to the adapter or a background thread as-is, and an edit copies
+// O(log n) nodes instead of the whole list. Finding the task to edit is still
+// a linear scan by id (indexOf), so upsert, move, remove and findById are O(n)
+// reads; move also walks the list for the new position and appendAll builds
+// a set of the ids held. Positions shift with every insert at the top, so an
+// id -> position map would cost as much to keep as the scan does.
+// Tasks inside a snapshot must not be mutated; upsert a copy instead.
+public class TaskRepository {
+
+    public interface Listener {
+        void onTasksReplaced(List<Task> tasks);
+        // Tasks added at the end of the list, as a further page; only these are new
+        void onTasksAppended(List<Task> added);
+        void onTaskUpdated(Task task);
+        void onTaskRemoved(String taskId);
+    }
+
+    // A listener whose rebuild on a full load is costly. prepareReplace gets
+    // the new list on a worker thread, builds the new state beside the
+    // current one without touching it, and returns what swaps it in (or
+    // null to be told by onTasksReplaced after all). The swap runs on the
+    // main thread in place of onTasksReplaced.
+    public interface Preparing extends Listener {
+        Runnable prepareReplace(List<Task> tasks);
+    }
+
+    // A full list with the Preparing listeners' state already built for it
+    public static final class Replacement {
+        private final PersistentList<Task> tasks;
+        private final Map<Listener, Runnable> swaps;
+        private final int generation;
+
+        Replacement(PersistentList<Task> tasks, Map<Listener, Runnable> swaps, int generation) {
+            this.tasks = tasks;
+            this.swaps = swaps;
+            this.generation = generation;
+        }
+
+        public PersistentList<Task> getTasks() {
+            return tasks;
+        }
+    }
+
+    private static TaskRepository instance;
+
+    private final List<Listener> listeners = new CopyOnWriteArrayList<>();
+    private volatile PersistentList<Task> tasks = PersistentList.empty();
+    private boolean loaded;
+    // Goes up on sign-out, so a replacement prepared before it is dropped
+    private volatile int generation;
+
+    public static synchronized TaskRepository getInstance() {
+        if (instance == null) {
+            instance = new TaskRepository();
+        }
+        return instance;
+    }
+
+    // O(1) immutable snapshot, from any thread
+    public PersistentList<Task> getTasks() {
+        return tasks;
+    }
+
+    // True once the first task list has been published in this process
+    public boolean isLoaded() {
+        return loaded;
+    }
+
+    public void replaceAll(List<Task> newTasks) {
+        tasks = newTasks != null ? PersistentList.copyOf(newTasks) : PersistentList.empty();
+        loaded = true;
+        for (Listener listener : listeners) {
+            listener.onTasksReplaced(tasks);
+        }
+    }
+
+    // Any thread. Copies the list and has every Preparing listener build its
+    // state for it; nothing changes until replaceAll(Replacement)
+    public Replacement prepareReplace(List<Task> newTasks) {
+        int preparedFor = generation;
+        PersistentList<Task> copy = newTasks != null ? PersistentList.copyOf(newTasks) : PersistentList.empty();
+        Map<Listener, Runnable> swaps = new IdentityHashMap<>();
+        for (Listener listener : listeners) {
+            if (!(listener instanceof Preparing)) continue;
+            Runnable swap = ((Preparing) listener).prepareReplace(copy);
+            if (swap != null) swaps.put(listener, swap);
+        }
+        return new Replacement(copy, swaps, preparedFor);
+    }
+
+    // As replaceAll(List), with the costly part done. Listeners added since
+    // it was prepared, and those that prepared nothing, get onTasksReplaced
+    public void replaceAll(Replacement replacement) {
+        if (replacement.generation != generation) return;
+        tasks = replacement.tasks;
+        loaded = true;
+        for (Listener listener : listeners) {
+            Runnable swap = replacement.swaps.get(listener);
+            if (swap != null) {
+                swap.run();
+            } else {
+                listener.onTasksReplaced(tasks);
+            }
+        }
+    }
+
+    // Signed out: drops every task and goes back to not loaded, so the next
+    // user's listeners aren't seeded with this user's list
+    public void clear() {
+        generation++;
+        tasks = PersistentList.empty();
+        loaded = false;
+        for (Listener listener : listeners) {
+            listener.onTasksReplaced(tasks);
+        }
+    }
+
+    // Adds a further page of the list at the end. Tasks already held are
+    // skipped: a task created since the first page shifts the later ones by
+    // one. Listeners only hear about the tasks added, so a page costs them
+    // the page, not the list
+    public void appendAll(List<Task> page) {
+        if (page == null || page.isEmpty()) return;
+        Set<String> held = new HashSet<>();
+        for (Task task : tasks) held.add(task.getId());
+        PersistentList<Task> appended = tasks;
+        List<Task> added = new ArrayList<>(page.size());
+        for (Task task : page) {
+            if (task.getId() != null && held.add(task.getId())) {
+                appended = appended.plus(task);
+                added.add(task);
+            }
+        }
+        if (added.isEmpty()) return;
+        tasks = appended;
+        List<Task> view = Collections.unmodifiableList(added);
+        for (Listener listener : listeners) {
+            listener.onTasksAppended(view);
+        }
+    }
+
+    // Replaces the task with the same id, or adds it at the top
+    public void upsert(Task task) {
+        if (task == null || task.getId() == null) return;
+        int index = indexOf(task.getId());
+        tasks = index >= 0 ? tasks.with(index, task) : tasks.plus(0, task);
+        for (Listener listener : listeners) {
+            listener.onTaskUpdated(task);
+        }
+    }
+
+    // Adds a task that was just created on the server; skips the id lookup
+    public void insert(Task task) {
+        if (task == null || task.getId() == null) return;
+        tasks = tasks.plus(0, task);
+        for (Listener listener : listeners) {
+            listener.onTaskUpdated(task);
+        }
+    }
+
+    // Replaces the task and puts it where its order key belongs; the list is
+    // in key order as loaded from the server
+    public void move(Task task) {
+        if (task == null || task.getId() == null) return;
+        int index = indexOf(task.getId());
+        PersistentList<Task> rest = index >= 0 ? tasks.minus(index) : tasks;
+        int to = 0;
+        for (Task other : rest) {
+            if (OrderKeys.compare(other.getOrder(), task.getOrder()) > 0) break;
+            to++;
+        }
+        tasks = rest.plus(to, task);
+        for (Listener listener : listeners) {
+            listener.onTaskUpdated(task);
+        }
+    }
+
+    public void remove(String taskId) {
+        int index = indexOf(taskId);
+        if (index < 0) return;
+        tasks = tasks.minus(index);
+        for (Listener listener : listeners) {
+            listener.onTaskRemoved(taskId);
+        }
+    }
+
+    public Task findById(String taskId) {
+        int index = indexOf(taskId);
+        return index >= 0 ? tasks.get(index) : null;
+    }
+
+    // New listeners are seeded with the current tasks so late subscribers
+    // (e.g. a screen opened after the first load) start out in sync. Nothing is
+    // seeded before the first load, so listeners with persisted state keep it.
+    public void addListener(Listener listener) {
+        listeners.add(listener);
+        if (loaded) {
+            listener.onTasksReplaced(tasks);
+        }
+    }
+
+    public void removeListener(Listener listener) {
+        listeners.remove(listener);
+    }
+
+    private int indexOf(String taskId) {
+        if (taskId == null) return -1;
+        int index = 0;
+        for (Task task : tasks) {
+            if (taskId.equals(task.getId())) return index;
+            index++;
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,29 @@
+package com.taskmate.task_mate.feed;
+
+public class ActivityEvent {
+
+    public enum Type {
+        REMINDER,
+        TASK_COMPLETED,
+        SYNC_CONFLICT,
+        WRITE_FAILED
+    }
+
+    private final Type type;
+    private final long time;
+    private final String taskId;
+    private final String text;
+
+    public ActivityEvent(Type type, long time, String taskId, String text) {
+        this.type = type;
+        this.time = time;
+        this.taskId = taskId;
+        this.text = text;
+    }
+
+    // Getters
+    public Type getType() { return type; }
+    public long getTime() { return time; }
+    public String getTaskId() { return taskId; }
+    public String getText() { return text; }
+}
@@ -0,0 +1,189 @@
+package com.taskmate.task_mate.feed;
+
+import android.content.Context;
+import android.os.Handler;
+import android.os.Looper;
+
+import androidx.lifecycle.LiveData;
+import androidx.lifecycle.MutableLiveData;
+
+import com.taskmate.task_mate.logging.AppLog;
+import com.taskmate.task_mate.network.WorkPool;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.RejectedExecutionException;
+
+// App-wide activity feed: reminders, completions, sync conflicts and failed
+// writes. Events are appended to a bounded on-disk ring (ActivityFeedStore) on
+// WorkPool.DISK; the unread count is kept up to date incrementally.
+public class ActivityFeed {
+
+    private static final String TAG = "ActivityFeed";
+    private static final String FEED_FILE = "activity_feed.bin";
+    private static final int CAPACITY = 512;
+
+    public interface Listener {
+        void onFeedChanged();
+    }
+
+    public interface PageCallback {
+        void onPageLoaded(int position);
+    }
+
+    private static ActivityFeed instance;
+
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    private final MutableLiveData<Integer> unreadCount = new MutableLiveData<>(0);
+    private final File path;
+    private volatile ActivityFeedStore store;
+    private Listener listener;
+
+    public static synchronized ActivityFeed getInstance(Context context) {
+        if (instance == null) {
+            instance = new ActivityFeed(new File(context.getApplicationContext().getFilesDir(), FEED_FILE));
+        }
+        return instance;
+    }
+
+    private ActivityFeed(File path) {
+        this.path = path;
+        // If this is rejected, the first event or page load opens the file
+        submit("Open", () -> {
+            ActivityFeedStore opened = open();
+            if (opened == null) return;
+            unreadCount.postValue(opened.getUnreadCount());
+            mainHandler.post(() -> {
+                if (listener != null) listener.onFeedChanged();
+            });
+        });
+    }
+
+    public LiveData<Integer> getUnreadCount() {
+        return unreadCount;
+    }
+
+    // Only one screen shows the feed at a time
+    public void setListener(Listener listener) {
+        this.listener = listener;
+    }
+
+    public void record(ActivityEvent.Type type, String taskId, String text) {
+        ActivityEvent event = new ActivityEvent(type, System.currentTimeMillis(), taskId, text);
+        submit("Event", () -> {
+            ActivityFeedStore feed = open();
+            if (feed == null) return;
+            try {
+                feed.append(event);
+            } catch (IOException e) {
+                AppLog.e(TAG, "Failed to append activity event", e);
+                return;
+            }
+            unreadCount.postValue(feed.getUnreadCount());
+            mainHandler.post(() -> {
+                if (listener != null) listener.onFeedChanged();
+            });
+        });
+    }
+
+    // A 404/409 on a write means the task changed or vanished elsewhere; anything
+    // else (5xx, no network) is a plain failed write. httpCode is 0 for network errors.
+    public void recordWriteFailure(String taskId, int httpCode, String text) {
+        boolean conflict = httpCode == 404 || httpCode == 409;
+        record(conflict ? ActivityEvent.Type.SYNC_CONFLICT : ActivityEvent.Type.WRITE_FAILED, taskId, text);
+    }
+
+    public void markAllRead() {
+        submit("Mark read", () -> {
+            ActivityFeedStore feed = open();
+            if (feed == null) return;
+            try {
+                feed.markAllRead();
+            } catch (IOException e) {
+                AppLog.e(TAG, "Failed to update unread count", e);
+            }
+            unreadCount.postValue(feed.getUnreadCount());
+        });
+    }
+
+    // Signed out: the next user mustn't see these events
+    public void clear() {
+        Runnable clearing = () -> {
+            ActivityFeedStore feed = open();
+            if (feed == null) return;
+            try {
+                feed.clear();
+            } catch (IOException e) {
+                AppLog.e(TAG, "Failed to clear activity feed", e);
+            }
+            unreadCount.postValue(feed.getUnreadCount());
+            mainHandler.post(() -> {
+                if (listener != null) listener.onFeedChanged();
+            });
+        };
+        try {
+            WorkPool.DISK.execute(clearing);
+        } catch (RejectedExecutionException e) {
+            // Too important to drop; it's a truncate and a header write
+            clearing.run();
+        }
+    }
+
+    // Number of events in the feed; 0 until the file has been opened
+    public int size() {
+        ActivityFeedStore feed = store;
+        return feed != null ? feed.size() : 0;
+    }
+
+    // Number of events ever recorded, including ones that rolled off the ring
+    public long getTotal() {
+        ActivityFeedStore feed = store;
+        return feed != null ? feed.getTotal() : 0;
+    }
+
+    public boolean isUnread(int position) {
+        ActivityFeedStore feed = store;
+        return feed != null && feed.isUnread(position);
+    }
+
+    // Returns the event if its page is in memory; otherwise loads the page in the
+    // background, calls back on the main thread and returns null for now
+    public ActivityEvent getOrLoad(int position, PageCallback callback) {
+        ActivityFeedStore feed = store;
+        if (feed == null) return null;
+        ActivityEvent event = feed.peek(position);
+        if (event != null) return event;
+
+        // If this is rejected, the row asks again when it is bound next
+        submit("Page load", () -> {
+            try {
+                feed.get(position);
+            } catch (IOException e) {
+                AppLog.e(TAG, "Failed to read activity page", e);
+                return;
+            }
+            mainHandler.post(() -> callback.onPageLoaded(position));
+        });
+        return null;
+    }
+
+    private void submit(String what, Runnable work) {
+        try {
+            WorkPool.DISK.execute(work);
+        } catch (RejectedExecutionException e) {
+            AppLog.w(TAG, "{} dropped: {}", what, e.getMessage());
+        }
+    }
+
+    // Runs on WorkPool.DISK
+    private ActivityFeedStore open() {
+        if (store == null) {
+            try {
+                store = new ActivityFeedStore(path, CAPACITY);
+            } catch (IOException e) {
+                AppLog.e(TAG, "Failed to open activity feed", e);
+            }
+        }
+        return store;
+    }
+}
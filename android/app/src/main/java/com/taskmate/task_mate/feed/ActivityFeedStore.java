@@ -0,0 +1,216 @@
+package com.taskmate.task_mate.feed;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// Fixed-capacity ring of activity events backed by a fixed-size file. An append
+// writes one slot and the header, so memory and storage stay constant no matter
+// how long the app has been used, and nothing is scanned on open. Reads are
+// paged: only the pages currently on screen are loaded and a few are cached.
+//
+// Positions are newest-first (0 = most recent). Internally every event has a
+// sequence number; sequence s lives in slot s % capacity.
+public class ActivityFeedStore implements Closeable {
+
+    public static final int PAGE_SIZE = 32;
+
+    static final int SLOT_SIZE = 256;
+    private static final int MAGIC = 0x54464431;
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 32;
+    private static final int MAX_ID_BYTES = 32;
+    private static final int MAX_TEXT_BYTES = SLOT_SIZE - 1 - 8 - 1 - MAX_ID_BYTES - 2;
+    private static final int MAX_CACHED_PAGES = 8;
+
+    private final RandomAccessFile file;
+    private final int capacity;
+    private final byte[] slotBuffer = new byte[SLOT_SIZE];
+    private final Map<Long, ActivityEvent[]> pages =
+            new LinkedHashMap<Long, ActivityEvent[]>(MAX_CACHED_PAGES, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<Long, ActivityEvent[]> eldest) {
+                    return size() > MAX_CACHED_PAGES;
+                }
+            };
+
+    private long total;
+    private int unread;
+
+    // Capacity is rounded up to whole pages so a page never wraps around the ring
+    public ActivityFeedStore(File path, int requestedCapacity) throws IOException {
+        this.capacity = ((Math.max(requestedCapacity, 1) + PAGE_SIZE - 1) / PAGE_SIZE) * PAGE_SIZE;
+        this.file = new RandomAccessFile(path, "rw");
+        if (!readHeader()) {
+            total = 0;
+            unread = 0;
+            file.setLength(HEADER_SIZE + (long) capacity * SLOT_SIZE);
+            writeHeader();
+        }
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public synchronized int size() {
+        return (int) Math.min(total, capacity);
+    }
+
+    public synchronized long getTotal() {
+        return total;
+    }
+
+    public synchronized int getUnreadCount() {
+        return unread;
+    }
+
+    public synchronized void append(ActivityEvent event) throws IOException {
+        long sequence = total;
+        encode(event, slotBuffer);
+        file.seek(HEADER_SIZE + (sequence % capacity) * SLOT_SIZE);
+        file.write(slotBuffer);
+
+        total++;
+        unread = Math.min(unread + 1, capacity);
+        writeHeader();
+
+        ActivityEvent[] page = pages.get(sequence / PAGE_SIZE);
+        if (page != null) {
+            page[(int) (sequence % PAGE_SIZE)] = event;
+        }
+    }
+
+    public synchronized void markAllRead() throws IOException {
+        if (unread == 0) return;
+        unread = 0;
+        writeHeader();
+    }
+
+    // Forgets every event. The slots are zeroed too, so none of the old text
+    // stays readable in the file
+    public synchronized void clear() throws IOException {
+        total = 0;
+        unread = 0;
+        pages.clear();
+        file.setLength(HEADER_SIZE);
+        file.setLength(HEADER_SIZE + (long) capacity * SLOT_SIZE);
+        writeHeader();
+    }
+
+    // Whether the event at this position is newer than the last markAllRead()
+    public synchronized boolean isUnread(int position) {
+        return position < unread;
+    }
+
+    // Returns the event if its page is already in memory, otherwise null
+    public synchronized ActivityEvent peek(int position) {
+        long sequence = sequenceAt(position);
+        if (sequence < 0) return null;
+        ActivityEvent[] page = pages.get(sequence / PAGE_SIZE);
+        return page != null ? page[(int) (sequence % PAGE_SIZE)] : null;
+    }
+
+    // Loads the page holding this position (one contiguous read) and returns the event
+    public synchronized ActivityEvent get(int position) throws IOException {
+        long sequence = sequenceAt(position);
+        if (sequence < 0) return null;
+        long pageIndex = sequence / PAGE_SIZE;
+        ActivityEvent[] page = pages.get(pageIndex);
+        if (page == null) {
+            page = readPage(pageIndex);
+            pages.put(pageIndex, page);
+        }
+        return page[(int) (sequence % PAGE_SIZE)];
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        file.close();
+    }
+
+    private long sequenceAt(int position) {
+        if (position < 0 || position >= size()) return -1;
+        return total - 1 - position;
+    }
+
+    private ActivityEvent[] readPage(long pageIndex) throws IOException {
+        long firstSequence = pageIndex * PAGE_SIZE;
+        long oldestRetained = Math.max(0, total - capacity);
+        byte[] bytes = new byte[PAGE_SIZE * SLOT_SIZE];
+        file.seek(HEADER_SIZE + (firstSequence % capacity) * SLOT_SIZE);
+        file.readFully(bytes);
+
+        ActivityEvent[] page = new ActivityEvent[PAGE_SIZE];
+        for (int i = 0; i < PAGE_SIZE; i++) {
+            long sequence = firstSequence + i;
+            if (sequence >= oldestRetained && sequence < total) {
+                page[i] = decode(ByteBuffer.wrap(bytes, i * SLOT_SIZE, SLOT_SIZE));
+            }
+        }
+        return page;
+    }
+
+    private boolean readHeader() throws IOException {
+        if (file.length() != HEADER_SIZE + (long) capacity * SLOT_SIZE) return false;
+        file.seek(0);
+        if (file.readInt() != MAGIC || file.readInt() != VERSION || file.readInt() != capacity) {
+            return false;
+        }
+        file.readInt();
+        total = file.readLong();
+        unread = file.readInt();
+        return total >= 0 && unread >= 0 && unread <= capacity;
+    }
+
+    private void writeHeader() throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        header.putInt(MAGIC).putInt(VERSION).putInt(capacity).putInt(0)
+                .putLong(total).putInt(unread);
+        file.seek(0);
+        file.write(header.array());
+    }
+
+    private static void encode(ActivityEvent event, byte[] slot) {
+        ByteBuffer buffer = ByteBuffer.wrap(slot);
+        byte[] id = truncate(event.getTaskId(), MAX_ID_BYTES);
+        byte[] text = truncate(event.getText(), MAX_TEXT_BYTES);
+        buffer.put((byte) event.getType().ordinal());
+        buffer.putLong(event.getTime());
+        buffer.put((byte) id.length).put(id);
+        buffer.putShort((short) text.length).put(text);
+        while (buffer.hasRemaining()) buffer.put((byte) 0);
+    }
+
+    private static ActivityEvent decode(ByteBuffer buffer) {
+        ActivityEvent.Type[] types = ActivityEvent.Type.values();
+        int typeIndex = buffer.get();
+        long time = buffer.getLong();
+        byte[] id = new byte[buffer.get() & 0xFF];
+        buffer.get(id);
+        byte[] text = new byte[buffer.getShort() & 0xFFFF];
+        buffer.get(text);
+        ActivityEvent.Type type = typeIndex >= 0 && typeIndex < types.length
+                ? types[typeIndex] : ActivityEvent.Type.WRITE_FAILED;
+        return new ActivityEvent(type, time,
+                id.length > 0 ? new String(id, StandardCharsets.UTF_8) : null,
+                new String(text, StandardCharsets.UTF_8));
+    }
+
+    // UTF-8 bytes cut at a character boundary so they fit the fixed-size slot
+    private static byte[] truncate(String value, int maxBytes) {
+        if (value == null) return new byte[0];
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length <= maxBytes) return bytes;
+        int end = maxBytes;
+        while (end > 0 && (bytes[end] & 0xC0) == 0x80) end--;
+        byte[] cut = new byte[end];
+        System.arraycopy(bytes, 0, cut, 0, end);
+        return cut;
+    }
+}
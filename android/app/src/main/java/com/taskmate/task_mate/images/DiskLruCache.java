@@ -0,0 +1,150 @@
+package com.taskmate.task_mate.images;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// Byte-bounded LRU of files in one directory, one file per key. Recency is
+// kept in memory and rebuilt from file modification times on first use, so
+// call it from a background thread. Entries are written to a temp file and
+// renamed into place, so readers never see a partial image.
+public class DiskLruCache {
+
+    private static final String TEMP_SUFFIX = ".tmp";
+
+    private final File dir;
+    private final long maxBytes;
+    private final LinkedHashMap<String, Long> entries = new LinkedHashMap<>(64, 0.75f, true);
+    private long size;
+    private boolean opened;
+
+    public DiskLruCache(File dir, long maxBytes) {
+        this.dir = dir;
+        this.maxBytes = maxBytes;
+    }
+
+    // File for a cached key, marked as most recently used; null on a miss
+    public synchronized File get(String key) {
+        open();
+        if (entries.get(key) == null) return null;
+        File file = new File(dir, key);
+        if (!file.exists()) {
+            size -= entries.remove(key);
+            return null;
+        }
+        file.setLastModified(System.currentTimeMillis());
+        return file;
+    }
+
+    // Copies at most limit bytes from in; larger sources are rejected
+    public File put(String key, InputStream in, long limit) throws IOException {
+        synchronized (this) {
+            open();
+        }
+        File temp = new File(dir, key + "." + Thread.currentThread().getId() + TEMP_SUFFIX);
+        long length = 0;
+        try (OutputStream out = new FileOutputStream(temp)) {
+            byte[] buffer = new byte[8192];
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                length += read;
+                if (length > limit) throw new IOException("Image larger than " + limit + " bytes");
+                out.write(buffer, 0, read);
+            }
+        } catch (IOException e) {
+            temp.delete();
+            throw e;
+        }
+
+        synchronized (this) {
+            File file = new File(dir, key);
+            Long previous = entries.remove(key);
+            if (previous != null) size -= previous;
+            if (!temp.renameTo(file)) {
+                temp.delete();
+                throw new IOException("Cannot store " + key);
+            }
+            entries.put(key, length);
+            size += length;
+            trimTo(maxBytes);
+            return file;
+        }
+    }
+
+    public synchronized void remove(String key) {
+        open();
+        Long length = entries.remove(key);
+        if (length != null) {
+            size -= length;
+            new File(dir, key).delete();
+        }
+    }
+
+    public synchronized long size() {
+        open();
+        return size;
+    }
+
+    // Every entry, empty files too, which trimTo(0) would stop short of
+    public synchronized void clear() {
+        open();
+        for (String key : entries.keySet()) new File(dir, key).delete();
+        entries.clear();
+        size = 0;
+    }
+
+    // URLs become fixed-length, filesystem-safe names
+    public static String keyFor(String url) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-1").digest(url.getBytes(StandardCharsets.UTF_8));
+            StringBuilder hex = new StringBuilder(digest.length * 2);
+            for (byte b : digest) {
+                hex.append(Character.forDigit((b >> 4) & 0xf, 16)).append(Character.forDigit(b & 0xf, 16));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private void open() {
+        if (opened) return;
+        opened = true;
+        if (!dir.exists()) {
+            dir.mkdirs();
+            return;
+        }
+        File[] files = dir.listFiles();
+        if (files == null) return;
+        // Oldest first, so access order matches the previous session
+        Arrays.sort(files, (a, b) -> Long.compare(a.lastModified(), b.lastModified()));
+        for (File file : files) {
+            if (file.getName().endsWith(TEMP_SUFFIX)) {
+                file.delete();
+            } else {
+                entries.put(file.getName(), file.length());
+                size += file.length();
+            }
+        }
+        trimTo(maxBytes);
+    }
+
+    private void trimTo(long limit) {
+        Iterator<Map.Entry<String, Long>> it = entries.entrySet().iterator();
+        while (size > limit && it.hasNext()) {
+            Map.Entry<String, Long> eldest = it.next();
+            new File(dir, eldest.getKey()).delete();
+            size -= eldest.getValue();
+            it.remove();
+        }
+    }
+}
@@ -0,0 +1,261 @@
+package com.taskmate.task_mate.images;
+
+import android.content.Context;
+import android.graphics.Bitmap;
+import android.graphics.BitmapFactory;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.LruCache;
+import android.view.ViewGroup;
+import android.widget.ImageView;
+
+import com.taskmate.task_mate.R;
+import com.taskmate.task_mate.logging.AppLog;
+import com.taskmate.task_mate.network.ApiClient;
+import com.taskmate.task_mate.network.RequestPriority;
+import com.taskmate.task_mate.network.WorkPool;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
+
+import okhttp3.Call;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+
+// Loads remote images (avatars) into ImageViews. Lookups go memory LRU ->
+// disk LRU -> network. Downloading and decoding run on WorkPool.DECODE,
+// and decoding is downsampled to the view's size. Requests for the
+// same URL and size share one job. A view that is rebound or recycled
+// drops out of its job, and the job stops once no view is waiting for it.
+// Call load/cancel on the main thread.
+public class ImageLoader {
+
+    private static final String TAG = "ImageLoader";
+    private static final String DISK_DIR = "images";
+    private static final long DISK_CACHE_BYTES = 20L * 1024 * 1024;
+    private static final long MAX_IMAGE_BYTES = 8L * 1024 * 1024;
+
+    private static ImageLoader instance;
+
+    private final LruCache<String, Bitmap> memory;
+    private final DiskLruCache disk;
+    private final OkHttpClient client;
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    // Main thread only
+    private final Map<String, Job> inFlight = new HashMap<>();
+
+    private ImageLoader(Context context) {
+        // An eighth of the heap, counted in bytes of decoded pixels
+        int memoryBytes = (int) Math.min(Integer.MAX_VALUE, Runtime.getRuntime().maxMemory() / 8);
+        memory = new LruCache<String, Bitmap>(memoryBytes) {
+            @Override
+            protected int sizeOf(String key, Bitmap bitmap) {
+                return bitmap.getAllocationByteCount();
+            }
+        };
+        disk = new DiskLruCache(new File(context.getCacheDir(), DISK_DIR), DISK_CACHE_BYTES);
+        // Not ApiClient's client: image hosts must not receive the API token. The
+        // scheduler is shared so avatars queue behind interactive API calls.
+        client = new OkHttpClient.Builder()
+                .addInterceptor(ApiClient.getScheduler())
+                .eventListenerFactory(ApiClient.getScheduler().eventListenerFactory())
+                .build();
+    }
+
+    public static synchronized ImageLoader getInstance(Context context) {
+        if (instance == null) {
+            instance = new ImageLoader(context.getApplicationContext());
+        }
+        return instance;
+    }
+
+    public void load(String url, ImageView view, int placeholder) {
+        cancel(view);
+        if (url == null || url.isEmpty()) {
+            view.setImageResource(placeholder);
+            return;
+        }
+
+        int width = targetSize(view.getWidth(), view.getLayoutParams() != null ? view.getLayoutParams().width : 0);
+        int height = targetSize(view.getHeight(), view.getLayoutParams() != null ? view.getLayoutParams().height : 0);
+        if (width <= 0 || height <= 0) {
+            // Not measured yet: retry after layout unless the view is rebound first
+            view.setImageResource(placeholder);
+            Target pending = new Target(view, null);
+            view.setTag(R.id.image_request, pending);
+            view.post(() -> {
+                if (view.getTag(R.id.image_request) == pending && view.getWidth() > 0 && view.getHeight() > 0) {
+                    load(url, view, placeholder);
+                }
+            });
+            return;
+        }
+
+        String key = ImageSizing.memoryKey(url, width, height);
+        Bitmap cached = memory.get(key);
+        if (cached != null) {
+            view.setImageBitmap(cached);
+            return;
+        }
+
+        view.setImageResource(placeholder);
+        Job job = inFlight.get(key);
+        if (job == null) {
+            job = new Job(key, url, width, height);
+            Job started = job;
+            try {
+                WorkPool.DECODE.execute(() -> run(started));
+            } catch (RejectedExecutionException e) {
+                // Far more images asked for than can be shown; the placeholder stays
+                AppLog.w(TAG, "Image not loaded: {}", e.getMessage());
+                return;
+            }
+            inFlight.put(key, job);
+        }
+        Target target = new Target(view, job);
+        job.targets.add(target);
+        view.setTag(R.id.image_request, target);
+    }
+
+    // Detaches the view from any pending request, e.g. from onViewRecycled
+    public void cancel(ImageView view) {
+        Object tag = view.getTag(R.id.image_request);
+        if (!(tag instanceof Target)) return;
+        view.setTag(R.id.image_request, null);
+        Job job = ((Target) tag).job;
+        if (job == null) return;
+        job.targets.remove(tag);
+        if (job.targets.isEmpty()) {
+            job.cancelled = true;
+            Call call = job.call;
+            if (call != null) call.cancel();
+            inFlight.remove(job.key);
+        }
+    }
+
+    public void clearMemory() {
+        memory.evictAll();
+    }
+
+    // Signed out: the next user mustn't see these images, from memory or disk.
+    // Main thread
+    public void clear() {
+        for (Job job : inFlight.values()) {
+            job.discarded = true;
+            job.cancelled = true;
+            Call call = job.call;
+            if (call != null) call.cancel();
+        }
+        inFlight.clear();
+        memory.evictAll();
+        try {
+            WorkPool.DISK.execute(disk::clear);
+        } catch (RejectedExecutionException e) {
+            // Too important to drop; a few hundred small files at most
+            disk.clear();
+        }
+    }
+
+    // Worker thread
+    private void run(Job job) {
+        Bitmap bitmap = null;
+        try {
+            String diskKey = DiskLruCache.keyFor(job.url);
+            File file = disk.get(diskKey);
+            if (file == null && !job.cancelled) {
+                file = download(job, diskKey);
+            }
+            if (file != null && !job.cancelled) {
+                bitmap = decode(file, job.width, job.height);
+                if (bitmap == null) disk.remove(diskKey);
+            }
+        } catch (IOException e) {
+            if (!job.cancelled) AppLog.w(TAG, "Failed to load image: {}", e.getMessage());
+        }
+        Bitmap result = bitmap;
+        mainHandler.post(() -> deliver(job, result));
+    }
+
+    private File download(Job job, String diskKey) throws IOException {
+        Call call = client.newCall(new Request.Builder()
+                .url(job.url)
+                .tag(RequestPriority.class, RequestPriority.VISIBLE_PREFETCH)
+                .build());
+        job.call = call;
+        if (job.cancelled) return null;
+        try (Response response = call.execute()) {
+            ResponseBody body = response.body();
+            if (!response.isSuccessful() || body == null) {
+                throw new IOException("HTTP " + response.code());
+            }
+            return disk.put(diskKey, body.byteStream(), MAX_IMAGE_BYTES);
+        }
+    }
+
+    private static Bitmap decode(File file, int width, int height) {
+        BitmapFactory.Options options = new BitmapFactory.Options();
+        options.inJustDecodeBounds = true;
+        BitmapFactory.decodeFile(file.getPath(), options);
+        options.inSampleSize = ImageSizing.sampleSize(options.outWidth, options.outHeight, width, height);
+        options.inJustDecodeBounds = false;
+        return BitmapFactory.decodeFile(file.getPath(), options);
+    }
+
+    // Main thread
+    private void deliver(Job job, Bitmap bitmap) {
+        if (inFlight.get(job.key) == job) inFlight.remove(job.key);
+        // Cleared while loading: neither cached nor shown
+        if (bitmap == null || job.discarded) return;
+        memory.put(job.key, bitmap);
+        for (Target target : job.targets) {
+            if (target.view.getTag(R.id.image_request) == target) {
+                target.view.setTag(R.id.image_request, null);
+                target.view.setImageBitmap(bitmap);
+            }
+        }
+        job.targets.clear();
+    }
+
+    private static int targetSize(int measured, int layoutParam) {
+        if (measured > 0) return measured;
+        return layoutParam != ViewGroup.LayoutParams.MATCH_PARENT
+                && layoutParam != ViewGroup.LayoutParams.WRAP_CONTENT ? layoutParam : 0;
+    }
+
+    // One decode of one URL at one size, shared by every view waiting for it
+    private static final class Job {
+        final String key;
+        final String url;
+        final int width;
+        final int height;
+        final List<Target> targets = new ArrayList<>(1);
+        volatile boolean cancelled;
+        volatile Call call;
+        // Dropped by clear(); main thread only
+        boolean discarded;
+
+        Job(String key, String url, int width, int height) {
+            this.key = key;
+            this.url = url;
+            this.width = width;
+            this.height = height;
+        }
+    }
+
+    private static final class Target {
+        final ImageView view;
+        final Job job;
+
+        Target(ImageView view, Job job) {
+            this.view = view;
+            this.job = job;
+        }
+    }
+}
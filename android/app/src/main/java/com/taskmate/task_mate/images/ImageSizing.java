@@ -0,0 +1,24 @@
+package com.taskmate.task_mate.images;
+
+// Decode-size arithmetic, kept free of Android types so it can be unit tested
+public final class ImageSizing {
+
+    private ImageSizing() {
+    }
+
+    // Largest power of two that keeps both decoded sides at least as big as
+    // the target (BitmapFactory rounds inSampleSize down to a power of two)
+    public static int sampleSize(int width, int height, int targetWidth, int targetHeight) {
+        if (width <= 0 || height <= 0 || targetWidth <= 0 || targetHeight <= 0) return 1;
+        int sample = 1;
+        while (width / (sample * 2) >= targetWidth && height / (sample * 2) >= targetHeight) {
+            sample *= 2;
+        }
+        return sample;
+    }
+
+    // Memory cache key: the same URL decoded for two view sizes is two entries
+    public static String memoryKey(String url, int targetWidth, int targetHeight) {
+        return url + '@' + targetWidth + 'x' + targetHeight;
+    }
+}
@@ -0,0 +1,112 @@
+package com.taskmate.task_mate.logging;
+
+import android.content.Context;
+import android.content.pm.ApplicationInfo;
+import android.util.Log;
+
+import java.io.File;
+
+// App-wide logger. Calls below the current level return after one volatile
+// read; the rest are queued as unformatted records ({} templates plus up to
+// three arguments) and written to rotating files under filesDir/logs by a
+// background thread. Debug builds also echo to logcat.
+//
+// Arguments are formatted later on the writer thread, so pass values
+// (ids, counts, strings) rather than objects that may change afterwards.
+public final class AppLog {
+
+    private static final String DIR = "logs";
+    private static final String FILE = "app";
+    private static final long MAX_FILE_BYTES = 512 * 1024;
+    private static final int MAX_FILES = 4;
+    private static final int QUEUE_CAPACITY = 2048;
+
+    // OFF until a sink exists, so early calls cost the same as filtered ones
+    private static volatile int minPriority = LogLevel.OFF.getPriority();
+    private static volatile AsyncLogSink sink;
+    private static LogLevel level = LogLevel.INFO;
+
+    private AppLog() {
+    }
+
+    public static synchronized void init(Context context) {
+        if (sink != null) return;
+        Context app = context.getApplicationContext();
+        boolean debuggable = (app.getApplicationInfo().flags & ApplicationInfo.FLAG_DEBUGGABLE) != 0;
+        RotatingLogFile file = new RotatingLogFile(new File(app.getFilesDir(), DIR), FILE, MAX_FILE_BYTES, MAX_FILES);
+        install(new AsyncLogSink(file, QUEUE_CAPACITY, debuggable ? AppLog::echo : null),
+                debuggable ? LogLevel.DEBUG : LogLevel.INFO);
+    }
+
+    // Package-private so tests can log into a temp directory without a Context
+    static synchronized void install(AsyncLogSink newSink, LogLevel newLevel) {
+        sink = newSink;
+        setLevel(newLevel);
+    }
+
+    static synchronized AsyncLogSink uninstall() {
+        AsyncLogSink old = sink;
+        sink = null;
+        minPriority = LogLevel.OFF.getPriority();
+        return old;
+    }
+
+    public static synchronized void setLevel(LogLevel newLevel) {
+        level = newLevel;
+        minPriority = sink != null ? newLevel.getPriority() : LogLevel.OFF.getPriority();
+    }
+
+    public static synchronized LogLevel getLevel() {
+        return level;
+    }
+
+    public static boolean isLoggable(LogLevel level) {
+        return level.getPriority() >= minPriority;
+    }
+
+    public static AsyncLogSink getSink() {
+        return sink;
+    }
+
+    public static void v(String tag, String msg) { log(LogLevel.VERBOSE, tag, msg, 0, null, null, null, null); }
+    public static void v(String tag, String msg, Object a) { log(LogLevel.VERBOSE, tag, msg, 1, a, null, null, null); }
+    public static void v(String tag, String msg, Object a, Object b) { log(LogLevel.VERBOSE, tag, msg, 2, a, b, null, null); }
+
+    public static void d(String tag, String msg) { log(LogLevel.DEBUG, tag, msg, 0, null, null, null, null); }
+    public static void d(String tag, String msg, Object a) { log(LogLevel.DEBUG, tag, msg, 1, a, null, null, null); }
+    public static void d(String tag, String msg, Object a, Object b) { log(LogLevel.DEBUG, tag, msg, 2, a, b, null, null); }
+    public static void d(String tag, String msg, Object a, Object b, Object c) { log(LogLevel.DEBUG, tag, msg, 3, a, b, c, null); }
+
+    public static void i(String tag, String msg) { log(LogLevel.INFO, tag, msg, 0, null, null, null, null); }
+    public static void i(String tag, String msg, Object a) { log(LogLevel.INFO, tag, msg, 1, a, null, null, null); }
+    public static void i(String tag, String msg, Object a, Object b) { log(LogLevel.INFO, tag, msg, 2, a, b, null, null); }
+    public static void i(String tag, String msg, Object a, Object b, Object c) { log(LogLevel.INFO, tag, msg, 3, a, b, c, null); }
+
+    public static void w(String tag, String msg) { log(LogLevel.WARN, tag, msg, 0, null, null, null, null); }
+    public static void w(String tag, String msg, Object a) { log(LogLevel.WARN, tag, msg, 1, a, null, null, null); }
+    public static void w(String tag, String msg, Object a, Object b) { log(LogLevel.WARN, tag, msg, 2, a, b, null, null); }
+    public static void w(String tag, String msg, Object a, Object b, Object c) { log(LogLevel.WARN, tag, msg, 3, a, b, c, null); }
+    public static void w(String tag, String msg, Throwable t) { log(LogLevel.WARN, tag, msg, 0, null, null, null, t); }
+    public static void w(String tag, String msg, Object a, Object b, Throwable t) { log(LogLevel.WARN, tag, msg, 2, a, b, null, t); }
+
+    public static void e(String tag, String msg) { log(LogLevel.ERROR, tag, msg, 0, null, null, null, null); }
+    public static void e(String tag, String msg, Object a) { log(LogLevel.ERROR, tag, msg, 1, a, null, null, null); }
+    public static void e(String tag, String msg, Object a, Object b) { log(LogLevel.ERROR, tag, msg, 2, a, b, null, null); }
+    public static void e(String tag, String msg, Throwable t) { log(LogLevel.ERROR, tag, msg, 0, null, null, null, t); }
+    public static void e(String tag, String msg, Object a, Throwable t) { log(LogLevel.ERROR, tag, msg, 1, a, null, null, t); }
+
+    private static void log(LogLevel level, String tag, String msg, int argCount,
+                            Object a, Object b, Object c, Throwable t) {
+        if (level.getPriority() < minPriority) return;
+        AsyncLogSink current = sink;
+        if (current == null) return;
+        current.offer(new LogRecord(System.currentTimeMillis(), level, tag,
+                Thread.currentThread().getName(), msg, argCount, a, b, c, t));
+    }
+
+    private static void echo(LogRecord record, String message) {
+        Throwable t = record.getThrowable();
+        Log.println(record.getLevel().getPriority(), record.getTag(),
+                t != null ? message + '\n' + Log.getStackTraceString(t) : message);
+    }
+}
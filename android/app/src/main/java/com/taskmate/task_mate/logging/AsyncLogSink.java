@@ -0,0 +1,122 @@
+package com.taskmate.task_mate.logging;
+
+import java.io.IOException;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Hands records to a single writer thread through a bounded queue. Callers
+// never block: when the queue is full the record is dropped and counted.
+// The writer formats records in batches and flushes once per batch.
+public class AsyncLogSink {
+
+    // Also receives every record, on the writer thread (logcat echo)
+    public interface Echo {
+        void echo(LogRecord record, String message);
+    }
+
+    private static final int MAX_BATCH = 256;
+
+    private final BlockingQueue<LogRecord> queue;
+    private final RotatingLogFile file;
+    private final Echo echo;
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong written = new AtomicLong();
+    private final AtomicLong accepted = new AtomicLong();
+    private final AtomicLong handled = new AtomicLong();
+    private final Thread thread;
+    private final SimpleDateFormat timeFormat = new SimpleDateFormat("MM-dd HH:mm:ss.SSS", Locale.US);
+    private volatile boolean closed;
+
+    public AsyncLogSink(RotatingLogFile file, int capacity, Echo echo) {
+        this.file = file;
+        this.echo = echo;
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        thread = new Thread(this::drain, "log-writer");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    public void offer(LogRecord record) {
+        if (!closed && queue.offer(record)) {
+            accepted.incrementAndGet();
+        } else {
+            dropped.incrementAndGet();
+        }
+    }
+
+    public long getDropped() { return dropped.get(); }
+
+    public long getWritten() { return written.get(); }
+
+    public RotatingLogFile getFile() { return file; }
+
+    // Blocks until everything queued so far is on disk (tests, crash paths)
+    public void flush() throws InterruptedException {
+        long target = accepted.get();
+        while (handled.get() < target && thread.isAlive()) {
+            Thread.sleep(1);
+        }
+    }
+
+    public void close() throws InterruptedException {
+        closed = true;
+        thread.interrupt();
+        thread.join(1000);
+    }
+
+    private void drain() {
+        List<LogRecord> batch = new ArrayList<>(MAX_BATCH);
+        long reportedDrops = 0;
+        while (true) {
+            try {
+                if (closed && queue.isEmpty()) break;
+                batch.add(queue.take());
+            } catch (InterruptedException e) {
+                if (queue.isEmpty()) break;
+            }
+            queue.drainTo(batch, MAX_BATCH - batch.size());
+            try {
+                long drops = dropped.get();
+                if (drops != reportedDrops) {
+                    file.append(timeFormat.format(new Date()) + " W LogSink: dropped "
+                            + (drops - reportedDrops) + " records (queue full)");
+                    reportedDrops = drops;
+                }
+                for (LogRecord record : batch) {
+                    write(record);
+                }
+                file.flush();
+            } catch (IOException e) {
+                // Nowhere left to report this; keep draining so callers never back up
+            }
+            handled.addAndGet(batch.size());
+            batch.clear();
+        }
+        try {
+            file.close();
+        } catch (IOException ignored) {
+        }
+    }
+
+    private void write(LogRecord record) throws IOException {
+        String message = record.getMessage();
+        if (echo != null) echo.echo(record, message);
+
+        StringBuilder line = new StringBuilder(48 + message.length());
+        line.append(timeFormat.format(new Date(record.getTime())))
+                .append(' ').append(record.getLevel().getLetter())
+                .append(' ').append(record.getTag())
+                .append(" [").append(record.getThread()).append("] ")
+                .append(message);
+        String stack = record.getStackTrace();
+        if (stack != null) line.append('\n').append(stack.trim());
+        file.append(line.toString());
+        written.incrementAndGet();
+    }
+}
@@ -0,0 +1,22 @@
+package com.taskmate.task_mate.logging;
+
+// Priorities match android.util.Log so records can be echoed to logcat as-is
+public enum LogLevel {
+    VERBOSE(2, 'V'),
+    DEBUG(3, 'D'),
+    INFO(4, 'I'),
+    WARN(5, 'W'),
+    ERROR(6, 'E'),
+    OFF(Integer.MAX_VALUE, '-');
+
+    private final int priority;
+    private final char letter;
+
+    LogLevel(int priority, char letter) {
+        this.priority = priority;
+        this.letter = letter;
+    }
+
+    public int getPriority() { return priority; }
+    public char getLetter() { return letter; }
+}
@@ -0,0 +1,62 @@
+package com.taskmate.task_mate.logging;
+
+import java.io.PrintWriter;
+import java.io.StringWriter;
+
+// One log call, captured as-is on the caller's thread. The message keeps its
+// {} placeholders and is only formatted by the writer thread.
+public final class LogRecord {
+    private final long time;
+    private final LogLevel level;
+    private final String tag;
+    private final String thread;
+    private final String message;
+    private final int argCount;
+    private final Object arg0;
+    private final Object arg1;
+    private final Object arg2;
+    private final Throwable throwable;
+
+    LogRecord(long time, LogLevel level, String tag, String thread, String message,
+              int argCount, Object arg0, Object arg1, Object arg2, Throwable throwable) {
+        this.time = time;
+        this.level = level;
+        this.tag = tag;
+        this.thread = thread;
+        this.message = message;
+        this.argCount = argCount;
+        this.arg0 = arg0;
+        this.arg1 = arg1;
+        this.arg2 = arg2;
+        this.throwable = throwable;
+    }
+
+    // Getters
+    public long getTime() { return time; }
+    public LogLevel getLevel() { return level; }
+    public String getTag() { return tag; }
+    public String getThread() { return thread; }
+    public Throwable getThrowable() { return throwable; }
+
+    // Message with each {} replaced by the next argument
+    public String getMessage() {
+        if (argCount == 0) return message;
+        StringBuilder out = new StringBuilder(message.length() + 16 * argCount);
+        int arg = 0;
+        int from = 0;
+        int at;
+        while (arg < argCount && (at = message.indexOf("{}", from)) >= 0) {
+            out.append(message, from, at).append(arg == 0 ? arg0 : arg == 1 ? arg1 : arg2);
+            arg++;
+            from = at + 2;
+        }
+        return out.append(message, from, message.length()).toString();
+    }
+
+    public String getStackTrace() {
+        if (throwable == null) return null;
+        StringWriter out = new StringWriter();
+        throwable.printStackTrace(new PrintWriter(out));
+        return out.toString();
+    }
+}
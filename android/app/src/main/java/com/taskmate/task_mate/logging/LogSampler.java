@@ -0,0 +1,20 @@
+package com.taskmate.task_mate.logging;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+// Lets one in every N calls through, for events too frequent to log each time
+public class LogSampler {
+
+    private final int every;
+    private final AtomicLong count = new AtomicLong();
+
+    public LogSampler(int every) {
+        this.every = Math.max(1, every);
+    }
+
+    public boolean next() {
+        return count.getAndIncrement() % every == 0;
+    }
+
+    public int getEvery() { return every; }
+}
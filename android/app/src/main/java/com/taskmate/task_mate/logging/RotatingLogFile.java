@@ -0,0 +1,92 @@
+package com.taskmate.task_mate.logging;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+// Size-capped log file: name.log is current, name.1.log .. name.(n-1).log are
+// older generations. Not thread-safe; AsyncLogSink's writer thread owns it.
+public class RotatingLogFile {
+
+    private final File dir;
+    private final String name;
+    private final long maxBytes;
+    private final int maxFiles;
+    private Writer writer;
+    private long size;
+
+    public RotatingLogFile(File dir, String name, long maxBytes, int maxFiles) {
+        this.dir = dir;
+        this.name = name;
+        this.maxBytes = maxBytes;
+        this.maxFiles = Math.max(1, maxFiles);
+    }
+
+    public void append(String line) throws IOException {
+        // Log lines are ASCII apart from user text, so chars approximate bytes closely enough
+        int length = line.length() + 1;
+        if (writer != null && size + length > maxBytes) {
+            rotate();
+        }
+        if (writer == null) open();
+        writer.write(line);
+        writer.write('\n');
+        size += length;
+    }
+
+    public void flush() throws IOException {
+        if (writer != null) writer.flush();
+    }
+
+    public void close() throws IOException {
+        if (writer != null) {
+            writer.close();
+            writer = null;
+        }
+    }
+
+    // Newest first
+    public List<File> getFiles() {
+        List<File> files = new ArrayList<>();
+        for (int i = 0; i < maxFiles; i++) {
+            File file = file(i);
+            if (file.exists()) files.add(file);
+        }
+        return files;
+    }
+
+    private void open() throws IOException {
+        if (!dir.exists() && !dir.mkdirs()) {
+            throw new IOException("Cannot create " + dir);
+        }
+        File current = file(0);
+        size = current.length();
+        writer = new BufferedWriter(new OutputStreamWriter(
+                new FileOutputStream(current, true), StandardCharsets.UTF_8), 8192);
+    }
+
+    private void rotate() throws IOException {
+        close();
+        File oldest = file(maxFiles - 1);
+        if (oldest.exists() && !oldest.delete()) {
+            throw new IOException("Cannot delete " + oldest);
+        }
+        for (int i = maxFiles - 2; i >= 0; i--) {
+            File from = file(i);
+            if (from.exists() && !from.renameTo(file(i + 1))) {
+                throw new IOException("Cannot rotate " + from);
+            }
+        }
+        size = 0;
+    }
+
+    private File file(int generation) {
+        return new File(dir, generation == 0 ? name + ".log" : name + "." + generation + ".log");
+    }
+}
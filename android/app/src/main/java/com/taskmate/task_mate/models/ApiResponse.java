@@ -5,16 +5,20 @@ public class ApiResponse<T> {
     private T data;
     private String error;
     private String message;
+    // Only on list endpoints, next to data
+    private PaginationInfo pagination;
 
     // Getters
     public boolean isSuccess() { return success; }
     public T getData() { return data; }
     public String getError() { return error; }
     public String getMessage() { return message; }
+    public PaginationInfo getPagination() { return pagination; }
 
     // Setters
     public void setSuccess(boolean success) { this.success = success; }
     public void setData(T data) { this.data = data; }
     public void setError(String error) { this.error = error; }
     public void setMessage(String message) { this.message = message; }
+    public void setPagination(PaginationInfo pagination) { this.pagination = pagination; }
 }
\ No newline at end of file
@@ -0,0 +1,37 @@
+package com.taskmate.task_mate.models;
+
+import com.google.gson.annotations.JsonAdapter;
+import com.taskmate.task_mate.util.DateUtils;
+
+// A file on a task. The record is created first and the content uploaded
+// after it in chunks; until complete, uploadedBytes is where the upload resumes.
+@JsonAdapter(AttachmentTypeAdapter.class)
+public class Attachment {
+    private String id;
+    private String name;
+    private long size;
+    private String contentType;
+    private long uploadedBytes;
+    private boolean complete;
+    private long createdAt = DateUtils.NO_DATE;
+
+    public Attachment() {}
+
+    // Getters
+    public String getId() { return id; }
+    public String getName() { return name; }
+    public long getSize() { return size; }
+    public String getContentType() { return contentType; }
+    public long getUploadedBytes() { return uploadedBytes; }
+    public boolean isComplete() { return complete; }
+    public long getCreatedAt() { return createdAt; }
+
+    // Setters
+    public void setId(String id) { this.id = id; }
+    public void setName(String name) { this.name = name; }
+    public void setSize(long size) { this.size = size; }
+    public void setContentType(String contentType) { this.contentType = contentType; }
+    public void setUploadedBytes(long uploadedBytes) { this.uploadedBytes = uploadedBytes; }
+    public void setComplete(boolean complete) { this.complete = complete; }
+    public void setCreatedAt(long createdAt) { this.createdAt = createdAt; }
+}
@@ -0,0 +1,11 @@
+package com.taskmate.task_mate.models;
+
+public class AttachmentResponse {
+    private Attachment attachment;
+
+    // Getters
+    public Attachment getAttachment() { return attachment; }
+
+    // Setters
+    public void setAttachment(Attachment attachment) { this.attachment = attachment; }
+}
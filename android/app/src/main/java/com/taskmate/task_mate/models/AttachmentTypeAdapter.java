@@ -0,0 +1,66 @@
+package com.taskmate.task_mate.models;
+
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+import com.taskmate.task_mate.util.DateUtils;
+
+import java.io.IOException;
+
+// Wire <-> Attachment: {"_id":"...","name":"plan.pdf","size":52311,
+// "contentType":"application/pdf","uploadedBytes":52311,"complete":true,
+// "createdAt":"2025-01-10T08:00:00.000Z"}. Used on its own for attachment
+// responses and by TaskTypeAdapter for tasks.
+public class AttachmentTypeAdapter extends TypeAdapter<Attachment> {
+
+    @Override
+    public Attachment read(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+
+        Attachment attachment = new Attachment();
+        in.beginObject();
+        while (in.hasNext()) {
+            String name = in.nextName();
+            if (in.peek() == JsonToken.NULL) {
+                in.nextNull();
+                continue;
+            }
+            switch (name) {
+                case "_id": attachment.setId(in.nextString()); break;
+                case "name": attachment.setName(in.nextString()); break;
+                case "size": attachment.setSize(in.nextLong()); break;
+                case "contentType": attachment.setContentType(in.nextString()); break;
+                case "uploadedBytes": attachment.setUploadedBytes(in.nextLong()); break;
+                case "complete": attachment.setComplete(in.nextBoolean()); break;
+                case "createdAt": attachment.setCreatedAt(DateUtils.parseIso(in.nextString())); break;
+                default: in.skipValue(); break;
+            }
+        }
+        in.endObject();
+        return attachment.getId() != null ? attachment : null;
+    }
+
+    @Override
+    public void write(JsonWriter out, Attachment attachment) throws IOException {
+        if (attachment == null) {
+            out.nullValue();
+            return;
+        }
+
+        out.beginObject();
+        out.name("_id").value(attachment.getId());
+        out.name("name").value(attachment.getName());
+        out.name("size").value(attachment.getSize());
+        if (attachment.getContentType() != null) out.name("contentType").value(attachment.getContentType());
+        out.name("uploadedBytes").value(attachment.getUploadedBytes());
+        out.name("complete").value(attachment.isComplete());
+        if (attachment.getCreatedAt() != DateUtils.NO_DATE) {
+            out.name("createdAt").value(DateUtils.formatIso(attachment.getCreatedAt()));
+        }
+        out.endObject();
+    }
+}
@@ -0,0 +1,29 @@
+package com.taskmate.task_mate.models;
+
+import java.util.HashMap;
+import java.util.Map;
+
+// Users have a handful of categories spread over thousands of tasks; decoding
+// through this pool makes every task share one String per category.
+public final class CategoryPool {
+
+    public static final String DEFAULT_CATEGORY = "general";
+
+    private static final Map<String, String> pool = new HashMap<>();
+
+    static {
+        pool.put(DEFAULT_CATEGORY, DEFAULT_CATEGORY);
+    }
+
+    private CategoryPool() {}
+
+    public static synchronized String intern(String category) {
+        if (category == null) return null;
+        String existing = pool.get(category);
+        if (existing == null) {
+            pool.put(category, category);
+            existing = category;
+        }
+        return existing;
+    }
+}
@@ -0,0 +1,19 @@
+package com.taskmate.task_mate.models;
+
+// Records a file before its content is uploaded
+public class CreateAttachmentRequest {
+    private String name;
+    private long size;
+    private String contentType;
+
+    public CreateAttachmentRequest(String name, long size, String contentType) {
+        this.name = name;
+        this.size = size;
+        this.contentType = contentType;
+    }
+
+    // Getters
+    public String getName() { return name; }
+    public long getSize() { return size; }
+    public String getContentType() { return contentType; }
+}
@@ -1,11 +1,17 @@
 package com.taskmate.task_mate.models;
 
+import java.util.List;
+
 public class CreateTaskRequest {
     private String title;
     private String description;
     private String dueDate;
     private String priority;
     private String category;
+    private List<String> tags;
+    private String parentId;
+    private String kind;
+    private Recurrence recurrence;
 
     public CreateTaskRequest(String title, String description, String priority, String category) {
         this.title = title;
@@ -20,6 +26,10 @@ public class CreateTaskRequest {
     public String getDueDate() { return dueDate; }
     public String getPriority() { return priority; }
     public String getCategory() { return category; }
+    public List<String> getTags() { return tags; }
+    public String getParentId() { return parentId; }
+    public String getKind() { return kind; }
+    public Recurrence getRecurrence() { return recurrence; }
 
     // Setters
     public void setTitle(String title) { this.title = title; }
@@ -27,4 +37,8 @@ public class CreateTaskRequest {
     public void setDueDate(String dueDate) { this.dueDate = dueDate; }
     public void setPriority(String priority) { this.priority = priority; }
     public void setCategory(String category) { this.category = category; }
+    public void setTags(List<String> tags) { this.tags = tags; }
+    public void setParentId(String parentId) { this.parentId = parentId; }
+    public void setKind(String kind) { this.kind = kind; }
+    public void setRecurrence(Recurrence recurrence) { this.recurrence = recurrence; }
 }
\ No newline at end of file
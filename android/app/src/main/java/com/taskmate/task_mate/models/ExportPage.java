@@ -0,0 +1,17 @@
+package com.taskmate.task_mate.models;
+
+import java.util.List;
+
+public class ExportPage {
+    private List<Task> tasks;
+    // Cursor for the next page; null on the last one
+    private String next;
+
+    // Getters
+    public List<Task> getTasks() { return tasks; }
+    public String getNext() { return next; }
+
+    // Setters
+    public void setTasks(List<Task> tasks) { this.tasks = tasks; }
+    public void setNext(String next) { this.next = next; }
+}
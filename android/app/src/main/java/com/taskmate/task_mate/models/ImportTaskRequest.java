@@ -0,0 +1,24 @@
+package com.taskmate.task_mate.models;
+
+// One task of an import batch: a create request plus the state the task was in
+// where it came from
+public class ImportTaskRequest extends CreateTaskRequest {
+    private String status;
+    private Boolean isCompleted;
+    // Parent is this earlier task of the same batch, instead of parentId
+    private Integer parentIndex;
+
+    public ImportTaskRequest(String title, String description, String priority, String category) {
+        super(title, description, priority, category);
+    }
+
+    // Getters
+    public String getStatus() { return status; }
+    public Boolean getIsCompleted() { return isCompleted; }
+    public Integer getParentIndex() { return parentIndex; }
+
+    // Setters
+    public void setStatus(String status) { this.status = status; }
+    public void setIsCompleted(Boolean isCompleted) { this.isCompleted = isCompleted; }
+    public void setParentIndex(Integer parentIndex) { this.parentIndex = parentIndex; }
+}
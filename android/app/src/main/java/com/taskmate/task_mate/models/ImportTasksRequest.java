@@ -0,0 +1,14 @@
+package com.taskmate.task_mate.models;
+
+import java.util.List;
+
+public class ImportTasksRequest {
+    private List<ImportTaskRequest> tasks;
+
+    public ImportTasksRequest(List<ImportTaskRequest> tasks) {
+        this.tasks = tasks;
+    }
+
+    // Getters
+    public List<ImportTaskRequest> getTasks() { return tasks; }
+}
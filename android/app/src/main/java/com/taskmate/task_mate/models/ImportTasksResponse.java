@@ -0,0 +1,14 @@
+package com.taskmate.task_mate.models;
+
+import java.util.List;
+
+public class ImportTasksResponse {
+    // Ids of the created tasks, in the order they were sent
+    private List<String> ids;
+
+    // Getters
+    public List<String> getIds() { return ids; }
+
+    // Setters
+    public void setIds(List<String> ids) { this.ids = ids; }
+}
@@ -0,0 +1,15 @@
+package com.taskmate.task_mate.models;
+
+// Places a task between two others; a null id means the start/end of the list
+public class MoveTaskRequest {
+    private String previousId;
+    private String nextId;
+
+    public MoveTaskRequest(String previousId, String nextId) {
+        this.previousId = previousId;
+        this.nextId = nextId;
+    }
+
+    public String getPreviousId() { return previousId; }
+    public String getNextId() { return nextId; }
+}
@@ -0,0 +1,32 @@
+package com.taskmate.task_mate.models;
+
+import com.taskmate.task_mate.util.DateUtils;
+
+// One occurrence of a recurring task that differs from the rule: completed,
+// moved or skipped. Identified by the start the rule gave it.
+public class OccurrenceException {
+    private long occurrence = DateUtils.NO_DATE;
+    // Moved start, or NO_DATE
+    private long dueDate = DateUtils.NO_DATE;
+    private boolean isCompleted;
+    private boolean skipped;
+
+    public OccurrenceException() {}
+
+    public OccurrenceException(long occurrence) {
+        this.occurrence = occurrence;
+    }
+
+    // Getters
+    public long getOccurrence() { return occurrence; }
+    public long getDueDate() { return dueDate; }
+    public boolean isMoved() { return dueDate != DateUtils.NO_DATE; }
+    public boolean isCompleted() { return isCompleted; }
+    public boolean isSkipped() { return skipped; }
+
+    // Setters
+    public void setOccurrence(long occurrence) { this.occurrence = occurrence; }
+    public void setDueDate(long dueDate) { this.dueDate = dueDate; }
+    public void setCompleted(boolean completed) { isCompleted = completed; }
+    public void setSkipped(boolean skipped) { this.skipped = skipped; }
+}
@@ -0,0 +1,32 @@
+package com.taskmate.task_mate.models;
+
+import com.taskmate.task_mate.util.DateUtils;
+
+// Completes, moves or skips one occurrence of a recurring task; null fields are left as they are
+public class OccurrenceUpdateRequest {
+    private String occurrence;
+    private Boolean isCompleted;
+    private String dueDate;
+    private Boolean skipped;
+
+    public OccurrenceUpdateRequest(long occurrence) {
+        this.occurrence = DateUtils.formatIso(occurrence);
+    }
+
+    public static OccurrenceUpdateRequest completed(long occurrence, boolean completed) {
+        OccurrenceUpdateRequest request = new OccurrenceUpdateRequest(occurrence);
+        request.isCompleted = completed;
+        return request;
+    }
+
+    // Getters
+    public String getOccurrence() { return occurrence; }
+    public Boolean getIsCompleted() { return isCompleted; }
+    public String getDueDate() { return dueDate; }
+    public Boolean getSkipped() { return skipped; }
+
+    // Setters
+    public void setCompleted(Boolean completed) { isCompleted = completed; }
+    public void setDueDate(long dueDate) { this.dueDate = DateUtils.formatIso(dueDate); }
+    public void setSkipped(Boolean skipped) { this.skipped = skipped; }
+}
@@ -15,4 +15,12 @@ public class PaginationInfo {
     public int getPages() { return pages; }
     public boolean isHasNext() { return hasNext; }
     public boolean isHasPrev() { return hasPrev; }
+
+    // Setters
+    public void setPage(int page) { this.page = page; }
+    public void setLimit(int limit) { this.limit = limit; }
+    public void setTotal(int total) { this.total = total; }
+    public void setPages(int pages) { this.pages = pages; }
+    public void setHasNext(boolean hasNext) { this.hasNext = hasNext; }
+    public void setHasPrev(boolean hasPrev) { this.hasPrev = hasPrev; }
 }
\ No newline at end of file
@@ -0,0 +1,31 @@
+package com.taskmate.task_mate.models;
+
+public enum Priority {
+    LOW("low", "LOW", 0xFF4CAF50),      // Green
+    MEDIUM("medium", "MEDIUM", 0xFFFF9800), // Orange
+    HIGH("high", "HIGH", 0xFFFF5722);   // Red
+
+    private final String wireValue;
+    private final String label;
+    private final int color;
+
+    Priority(String wireValue, String label, int color) {
+        this.wireValue = wireValue;
+        this.label = label;
+        this.color = color;
+    }
+
+    public String getWireValue() { return wireValue; }
+    public String getLabel() { return label; }
+    public int getColor() { return color; }
+
+    // Server default is medium, so anything unknown maps there
+    public static Priority fromWire(String value) {
+        if (value == null) return MEDIUM;
+        switch (value) {
+            case "low": return LOW;
+            case "high": return HIGH;
+            default: return MEDIUM;
+        }
+    }
+}
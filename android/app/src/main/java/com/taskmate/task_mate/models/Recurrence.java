@@ -0,0 +1,73 @@
+package com.taskmate.task_mate.models;
+
+import com.google.gson.annotations.JsonAdapter;
+import com.taskmate.task_mate.util.DateUtils;
+
+// How a recurring task repeats. The task's dueDate is the first occurrence;
+// the others are computed on the device for the dates on screen (see
+// recurrence.RecurringSeries) and never stored.
+@JsonAdapter(RecurrenceTypeAdapter.class)
+public class Recurrence {
+    // Weekday bits, Monday first
+    public static final int MONDAY = 1;
+    public static final int TUESDAY = 1 << 1;
+    public static final int WEDNESDAY = 1 << 2;
+    public static final int THURSDAY = 1 << 3;
+    public static final int FRIDAY = 1 << 4;
+    public static final int SATURDAY = 1 << 5;
+    public static final int SUNDAY = 1 << 6;
+    public static final int WEEKDAYS = MONDAY | TUESDAY | WEDNESDAY | THURSDAY | FRIDAY;
+
+    static final String[] WEEKDAY_WIRE = {"mon", "tue", "wed", "thu", "fri", "sat", "sun"};
+    private static final String[] WEEKDAY_LABELS = {"Mon", "Tue", "Wed", "Thu", "Fri", "Sat", "Sun"};
+
+    private RecurrenceFrequency frequency;
+    private int interval = 1;
+    // Weekly only; 0 means the weekday of the first occurrence
+    private int weekdays;
+    // Last possible start, or NO_DATE
+    private long until = DateUtils.NO_DATE;
+    // Occurrences in total, 0 for no limit
+    private int count;
+
+    public Recurrence() {}
+
+    public Recurrence(RecurrenceFrequency frequency, int interval) {
+        this.frequency = frequency;
+        setInterval(interval);
+    }
+
+    // Getters
+    public RecurrenceFrequency getFrequency() { return frequency; }
+    public int getInterval() { return interval; }
+    public int getWeekdays() { return weekdays; }
+    public long getUntil() { return until; }
+    public int getCount() { return count; }
+
+    // Setters
+    public void setFrequency(RecurrenceFrequency frequency) { this.frequency = frequency; }
+    public void setInterval(int interval) { this.interval = Math.max(1, interval); }
+    public void setWeekdays(int weekdays) { this.weekdays = weekdays & 0x7F; }
+    public void setUntil(long until) { this.until = until; }
+    public void setCount(int count) { this.count = Math.max(0, count); }
+
+    // "Every day", "Every 2 weeks on Mon, Wed", "Every weekday"
+    public String describe() {
+        if (frequency == null) return "";
+        if (frequency == RecurrenceFrequency.WEEKLY && interval == 1 && weekdays == WEEKDAYS) {
+            return "Every weekday";
+        }
+        StringBuilder text = new StringBuilder("Every ").append(frequency.describeInterval(interval));
+        if (frequency == RecurrenceFrequency.WEEKLY && weekdays != 0) {
+            text.append(" on ");
+            boolean first = true;
+            for (int day = 0; day < 7; day++) {
+                if ((weekdays & (1 << day)) == 0) continue;
+                if (!first) text.append(", ");
+                text.append(WEEKDAY_LABELS[day]);
+                first = false;
+            }
+        }
+        return text.toString();
+    }
+}
@@ -0,0 +1,35 @@
+package com.taskmate.task_mate.models;
+
+public enum RecurrenceFrequency {
+    DAILY("daily", "day", "days"),
+    WEEKLY("weekly", "week", "weeks"),
+    MONTHLY("monthly", "month", "months");
+
+    private final String wireValue;
+    private final String unit;
+    private final String units;
+
+    RecurrenceFrequency(String wireValue, String unit, String units) {
+        this.wireValue = wireValue;
+        this.unit = unit;
+        this.units = units;
+    }
+
+    public String getWireValue() { return wireValue; }
+
+    // "day" / "3 days"
+    public String describeInterval(int interval) {
+        return interval == 1 ? unit : interval + " " + units;
+    }
+
+    // Null for anything unknown: the task is then treated as not repeating
+    public static RecurrenceFrequency fromWire(String value) {
+        if (value == null) return null;
+        switch (value) {
+            case "daily": return DAILY;
+            case "weekly": return WEEKLY;
+            case "monthly": return MONTHLY;
+            default: return null;
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.taskmate.task_mate.models;
+
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+import com.taskmate.task_mate.util.DateUtils;
+
+import java.io.IOException;
+
+// Wire <-> Recurrence: {"frequency":"weekly","interval":2,"weekdays":["mon","wed"],
+// "until":"2025-06-30T00:00:00.000Z","count":10}. Used on its own for requests
+// and by TaskTypeAdapter for tasks.
+public class RecurrenceTypeAdapter extends TypeAdapter<Recurrence> {
+
+    @Override
+    public Recurrence read(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+
+        Recurrence recurrence = new Recurrence();
+        in.beginObject();
+        while (in.hasNext()) {
+            String name = in.nextName();
+            if (in.peek() == JsonToken.NULL) {
+                in.nextNull();
+                continue;
+            }
+            switch (name) {
+                case "frequency": recurrence.setFrequency(RecurrenceFrequency.fromWire(in.nextString())); break;
+                case "interval": recurrence.setInterval(in.nextInt()); break;
+                case "weekdays": recurrence.setWeekdays(readWeekdays(in)); break;
+                case "until": recurrence.setUntil(DateUtils.parseIso(in.nextString())); break;
+                case "count": recurrence.setCount(in.nextInt()); break;
+                default: in.skipValue(); break;
+            }
+        }
+        in.endObject();
+        return recurrence.getFrequency() != null ? recurrence : null;
+    }
+
+    @Override
+    public void write(JsonWriter out, Recurrence recurrence) throws IOException {
+        if (recurrence == null || recurrence.getFrequency() == null) {
+            out.nullValue();
+            return;
+        }
+
+        out.beginObject();
+        out.name("frequency").value(recurrence.getFrequency().getWireValue());
+        out.name("interval").value(recurrence.getInterval());
+        if (recurrence.getWeekdays() != 0) {
+            out.name("weekdays").beginArray();
+            for (int day = 0; day < 7; day++) {
+                if ((recurrence.getWeekdays() & (1 << day)) != 0) out.value(Recurrence.WEEKDAY_WIRE[day]);
+            }
+            out.endArray();
+        }
+        if (recurrence.getUntil() != DateUtils.NO_DATE) out.name("until").value(DateUtils.formatIso(recurrence.getUntil()));
+        if (recurrence.getCount() > 0) out.name("count").value(recurrence.getCount());
+        out.endObject();
+    }
+
+    private static int readWeekdays(JsonReader in) throws IOException {
+        int weekdays = 0;
+        in.beginArray();
+        while (in.hasNext()) {
+            if (in.peek() == JsonToken.NULL) {
+                in.nextNull();
+                continue;
+            }
+            String value = in.nextString();
+            for (int day = 0; day < 7; day++) {
+                if (Recurrence.WEEKDAY_WIRE[day].equals(value)) weekdays |= 1 << day;
+            }
+        }
+        in.endArray();
+        return weekdays;
+    }
+}
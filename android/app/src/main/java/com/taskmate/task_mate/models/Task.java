@@ -1,30 +1,66 @@
 package com.taskmate.task_mate.models;
 
+import com.google.gson.annotations.JsonAdapter;
+import com.taskmate.task_mate.tags.TagBits;
+import com.taskmate.task_mate.tags.TagDictionary;
+import com.taskmate.task_mate.util.DateUtils;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+// Client-side task. Timestamps are epoch millis (DateUtils.NO_DATE when unset)
+// and priority/status are enums, all converted once by TaskTypeAdapter when the
+// JSON is decoded, so binding, sorting and overdue checks never re-parse strings.
+@JsonAdapter(TaskTypeAdapter.class)
 public class Task {
-    private String _id;
+    private String id;
     private String title;
     private String description;
-    private String dueDate;
-    private String priority;
-    private String status;
+    private long dueDate = DateUtils.NO_DATE;
+    private Priority priority = Priority.MEDIUM;
+    private TaskStatus status = TaskStatus.PENDING;
     private String category;
+    private List<String> tags = Collections.emptyList();
+    // Same tags as TagDictionary ids, for TagFilter
+    private long[] tagBits = TagBits.EMPTY;
     private boolean isCompleted;
-    private String createdAt;
-    private String updatedAt;
+    // Position in the user's list, an OrderKeys key; null until the server assigns one
+    private String order;
+    // Subtasks: null parentId for top-level tasks. The counts cover every
+    // descendant and come from the server, so a collapsed branch needs no loading
+    private String parentId;
+    private TaskKind kind = TaskKind.TASK;
+    private int subtaskCount;
+    private int subtasksDone;
+    // Recurring tasks: dueDate is the first occurrence, the rest are computed
+    // (recurrence.RecurringSeries). Only occurrences that differ are stored
+    private Recurrence recurrence;
+    private List<OccurrenceException> exceptions = Collections.emptyList();
+    // Set on a generated occurrence: the start the rule gave it (dueDate may be moved)
+    private long occurrence = DateUtils.NO_DATE;
+    // Files on the task, including uploads still in progress; not in summaries
+    private List<Attachment> attachments = Collections.emptyList();
+    private long completedAt = DateUtils.NO_DATE;
+    private long createdAt = DateUtils.NO_DATE;
+    private long updatedAt = DateUtils.NO_DATE;
+    // Decoded from a ?view=summary list: description is only a preview
+    // and the other fields are missing until the full record is fetched
+    private boolean summary;
 
     // Constructors
     public Task() {}
 
-    public Task(String title, String description, String priority, String category) {
+    public Task(String title, String description, Priority priority, String category) {
         this.title = title;
         this.description = description;
         this.priority = priority;
-        this.category = category;
+        this.category = CategoryPool.intern(category);
     }
 
     // Getters and Setters
-    public String getId() { return _id; }
-    public void setId(String id) { this._id = id; }
+    public String getId() { return id; }
+    public void setId(String id) { this.id = id; }
 
     public String getTitle() { return title; }
     public void setTitle(String title) { this.title = title; }
@@ -32,28 +68,129 @@ public class Task {
     public String getDescription() { return description; }
     public void setDescription(String description) { this.description = description; }
 
-    public String getPriority() { return priority; }
-    public void setPriority(String priority) { this.priority = priority; }
+    public long getDueDate() { return dueDate; }
+    public void setDueDate(long dueDate) { this.dueDate = dueDate; }
+    public boolean hasDueDate() { return dueDate != DateUtils.NO_DATE; }
 
-    public String getStatus() { return status; }
-    public void setStatus(String status) { this.status = status; }
+    public Priority getPriority() { return priority; }
+    public void setPriority(Priority priority) { this.priority = priority != null ? priority : Priority.MEDIUM; }
+
+    public TaskStatus getStatus() { return status; }
+    public void setStatus(TaskStatus status) { this.status = status != null ? status : TaskStatus.PENDING; }
 
     public String getCategory() { return category; }
-    public void setCategory(String category) { this.category = category; }
+    public void setCategory(String category) { this.category = CategoryPool.intern(category); }
+
+    public List<String> getTags() { return tags; }
+    public void setTags(List<String> tags) {
+        if (tags == null || tags.isEmpty()) {
+            this.tags = Collections.emptyList();
+            this.tagBits = TagBits.EMPTY;
+            return;
+        }
+        List<String> interned = new ArrayList<>(tags.size());
+        for (String tag : tags) interned.add(TagDictionary.intern(tag));
+        this.tags = Collections.unmodifiableList(interned);
+        this.tagBits = TagBits.of(interned);
+    }
+    public long[] getTagBits() { return tagBits; }
 
     public boolean isCompleted() { return isCompleted; }
     public void setCompleted(boolean completed) { isCompleted = completed; }
 
-    public String getCreatedAt() { return createdAt; }
-    public String getUpdatedAt() { return updatedAt; }
+    public String getOrder() { return order; }
+    public void setOrder(String order) { this.order = order; }
+
+    public String getParentId() { return parentId; }
+    public void setParentId(String parentId) { this.parentId = parentId; }
+
+    public TaskKind getKind() { return kind; }
+    public void setKind(TaskKind kind) { this.kind = kind != null ? kind : TaskKind.TASK; }
+
+    public int getSubtaskCount() { return subtaskCount; }
+    public void setSubtaskCount(int subtaskCount) { this.subtaskCount = subtaskCount; }
+
+    public int getSubtasksDone() { return subtasksDone; }
+    public void setSubtasksDone(int subtasksDone) { this.subtasksDone = subtasksDone; }
+
+    public Recurrence getRecurrence() { return recurrence; }
+    public void setRecurrence(Recurrence recurrence) { this.recurrence = recurrence; }
+    public boolean isRecurring() { return recurrence != null && occurrence == DateUtils.NO_DATE; }
+
+    public List<OccurrenceException> getExceptions() { return exceptions; }
+    public void setExceptions(List<OccurrenceException> exceptions) {
+        this.exceptions = exceptions != null && !exceptions.isEmpty()
+                ? Collections.unmodifiableList(new ArrayList<>(exceptions)) : Collections.emptyList();
+    }
+
+    public long getOccurrence() { return occurrence; }
+    public void setOccurrence(long occurrence) { this.occurrence = occurrence; }
+    public boolean isOccurrence() { return occurrence != DateUtils.NO_DATE; }
+
+    public List<Attachment> getAttachments() { return attachments; }
+    public void setAttachments(List<Attachment> attachments) {
+        this.attachments = attachments != null && !attachments.isEmpty()
+                ? Collections.unmodifiableList(new ArrayList<>(attachments)) : Collections.emptyList();
+    }
+
+    public long getCompletedAt() { return completedAt; }
+    public void setCompletedAt(long completedAt) { this.completedAt = completedAt; }
+
+    public long getCreatedAt() { return createdAt; }
+    public void setCreatedAt(long createdAt) { this.createdAt = createdAt; }
+
+    public long getUpdatedAt() { return updatedAt; }
+    public void setUpdatedAt(long updatedAt) { this.updatedAt = updatedAt; }
+
+    public boolean isSummary() { return summary; }
+    public void setSummary(boolean summary) { this.summary = summary; }
+
+    // Tasks inside list snapshots are shared, so edits go to a copy
+    public Task copy() {
+        Task copy = new Task();
+        copy.id = id;
+        copy.title = title;
+        copy.description = description;
+        copy.dueDate = dueDate;
+        copy.priority = priority;
+        copy.status = status;
+        copy.category = category;
+        copy.tags = tags;
+        copy.tagBits = tagBits;
+        copy.isCompleted = isCompleted;
+        copy.order = order;
+        copy.parentId = parentId;
+        copy.kind = kind;
+        copy.subtaskCount = subtaskCount;
+        copy.subtasksDone = subtasksDone;
+        copy.recurrence = recurrence;
+        copy.exceptions = exceptions;
+        copy.occurrence = occurrence;
+        copy.attachments = attachments;
+        copy.completedAt = completedAt;
+        copy.createdAt = createdAt;
+        copy.updatedAt = updatedAt;
+        copy.summary = summary;
+        return copy;
+    }
+
+    // Still to be done: not completed and not cancelled
+    public boolean isActive() {
+        return !isCompleted && status != TaskStatus.CANCELLED;
+    }
+
+    public boolean isOverdue(long now) {
+        return isActive() && dueDate != DateUtils.NO_DATE && dueDate < now;
+    }
 
     // Helper method for UI colors
     public int getPriorityColor() {
-        switch (priority != null ? priority : "medium") {
-            case "high": return 0xFFFF5722; // Red
-            case "medium": return 0xFFFF9800; // Orange
-            case "low": return 0xFF4CAF50; // Green
-            default: return 0xFF9E9E9E; // Grey
-        }
+        return priority.getColor();
+    }
+
+    // The list row's category line, with the repeat rule if there is one
+    public String getCategoryLine() {
+        String line = category != null ? category : "General";
+        return isRecurring() ? line + " · ↻ " + recurrence.describe() : line;
     }
-}
\ No newline at end of file
+}
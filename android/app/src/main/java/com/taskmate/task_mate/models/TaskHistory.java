@@ -0,0 +1,29 @@
+package com.taskmate.task_mate.models;
+
+import com.taskmate.task_mate.util.DateUtils;
+
+// Tasks created and completed per day, oldest first: index i is `from` plus
+// i days, the last entry is today in the time zone that was asked for
+public class TaskHistory {
+    // YYYY-MM-DD
+    private String from;
+    private int[] created;
+    private int[] completed;
+
+    // Getters
+    public String getFrom() { return from; }
+    public int[] getCreated() { return created != null ? created : new int[0]; }
+    public int[] getCompleted() { return completed != null ? completed : new int[0]; }
+
+    // Day number of `from` (days since 1970-01-01), or Long.MIN_VALUE if it is malformed
+    public long getFromDay() {
+        if (from == null || !from.matches("\\d{4}-\\d{2}-\\d{2}")) return Long.MIN_VALUE;
+        return DateUtils.daysFromCivil(Integer.parseInt(from.substring(0, 4)),
+                Integer.parseInt(from.substring(5, 7)), Integer.parseInt(from.substring(8, 10)));
+    }
+
+    // Setters
+    public void setFrom(String from) { this.from = from; }
+    public void setCreated(int[] created) { this.created = created; }
+    public void setCompleted(int[] completed) { this.completed = completed; }
+}
@@ -0,0 +1,19 @@
+package com.taskmate.task_mate.models;
+
+public enum TaskKind {
+    TASK("task"),
+    // A plain checklist line under a task: just a title and a checkbox
+    CHECKLIST("checklist");
+
+    private final String wireValue;
+
+    TaskKind(String wireValue) {
+        this.wireValue = wireValue;
+    }
+
+    public String getWireValue() { return wireValue; }
+
+    public static TaskKind fromWire(String value) {
+        return "checklist".equals(value) ? CHECKLIST : TASK;
+    }
+}
@@ -0,0 +1,11 @@
+package com.taskmate.task_mate.models;
+
+public class TaskResponse {
+    private Task task;
+
+    // Getters
+    public Task getTask() { return task; }
+
+    // Setters
+    public void setTask(Task task) { this.task = task; }
+}
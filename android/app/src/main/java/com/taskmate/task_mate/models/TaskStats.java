@@ -6,6 +6,31 @@ public class TaskStats {
     private int pendingTasks;
     private int overdueTasks;
     private int completionRate;
+    private PriorityCounts tasksByPriority;
+    private RecentActivity recentActivity;
+
+    public static class PriorityCounts {
+        private int low;
+        private int medium;
+        private int high;
+
+        // Getters
+        public int getLow() { return low; }
+        public int getMedium() { return medium; }
+        public int getHigh() { return high; }
+    }
+
+    // The last 7 days; the streak counts days in the time zone the stats were asked for
+    public static class RecentActivity {
+        private int tasksCompletedThisWeek;
+        private int tasksCreatedThisWeek;
+        private int streak;
+
+        // Getters
+        public int getTasksCompletedThisWeek() { return tasksCompletedThisWeek; }
+        public int getTasksCreatedThisWeek() { return tasksCreatedThisWeek; }
+        public int getStreak() { return streak; }
+    }
 
     // Getters
     public int getTotalTasks() { return totalTasks; }
@@ -13,4 +38,6 @@ public class TaskStats {
     public int getPendingTasks() { return pendingTasks; }
     public int getOverdueTasks() { return overdueTasks; }
     public int getCompletionRate() { return completionRate; }
-}
\ No newline at end of file
+    public PriorityCounts getTasksByPriority() { return tasksByPriority != null ? tasksByPriority : new PriorityCounts(); }
+    public RecentActivity getRecentActivity() { return recentActivity != null ? recentActivity : new RecentActivity(); }
+}
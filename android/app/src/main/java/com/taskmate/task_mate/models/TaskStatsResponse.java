@@ -0,0 +1,11 @@
+package com.taskmate.task_mate.models;
+
+public class TaskStatsResponse {
+    private TaskStats stats;
+
+    // Getters
+    public TaskStats getStats() { return stats; }
+
+    // Setters
+    public void setStats(TaskStats stats) { this.stats = stats; }
+}
@@ -0,0 +1,26 @@
+package com.taskmate.task_mate.models;
+
+public enum TaskStatus {
+    PENDING("pending"),
+    IN_PROGRESS("in-progress"),
+    COMPLETED("completed"),
+    CANCELLED("cancelled");
+
+    private final String wireValue;
+
+    TaskStatus(String wireValue) {
+        this.wireValue = wireValue;
+    }
+
+    public String getWireValue() { return wireValue; }
+
+    public static TaskStatus fromWire(String value) {
+        if (value == null) return PENDING;
+        switch (value) {
+            case "in-progress": return IN_PROGRESS;
+            case "completed": return COMPLETED;
+            case "cancelled": return CANCELLED;
+            default: return PENDING;
+        }
+    }
+}
@@ -0,0 +1,181 @@
+package com.taskmate.task_mate.models;
+
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+import com.taskmate.task_mate.util.DateUtils;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+// Streaming wire <-> Task conversion. This is the only place the server's
+// string representation (ISO dates, "high"/"in-progress", ...) is handled.
+public class TaskTypeAdapter extends TypeAdapter<Task> {
+
+    private static final RecurrenceTypeAdapter RECURRENCE = new RecurrenceTypeAdapter();
+    private static final AttachmentTypeAdapter ATTACHMENT = new AttachmentTypeAdapter();
+
+    @Override
+    public Task read(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+
+        Task task = new Task();
+        in.beginObject();
+        while (in.hasNext()) {
+            String name = in.nextName();
+            if (in.peek() == JsonToken.NULL) {
+                in.nextNull();
+                continue;
+            }
+            switch (name) {
+                case "_id": task.setId(in.nextString()); break;
+                case "title": task.setTitle(in.nextString()); break;
+                case "description": task.setDescription(in.nextString()); break;
+                case "descriptionPreview":
+                    task.setDescription(in.nextString());
+                    task.setSummary(true);
+                    break;
+                case "dueDate": task.setDueDate(DateUtils.parseIso(in.nextString())); break;
+                case "priority": task.setPriority(Priority.fromWire(in.nextString())); break;
+                case "status": task.setStatus(TaskStatus.fromWire(in.nextString())); break;
+                case "category": task.setCategory(in.nextString()); break;
+                case "tags": task.setTags(readTags(in)); break;
+                case "isCompleted": task.setCompleted(in.nextBoolean()); break;
+                case "order": task.setOrder(in.nextString()); break;
+                case "parentId": task.setParentId(in.nextString()); break;
+                case "kind": task.setKind(TaskKind.fromWire(in.nextString())); break;
+                case "subtaskCount": task.setSubtaskCount(in.nextInt()); break;
+                case "subtasksDone": task.setSubtasksDone(in.nextInt()); break;
+                case "recurrence": task.setRecurrence(RECURRENCE.read(in)); break;
+                case "exceptions": task.setExceptions(readExceptions(in)); break;
+                case "attachments": task.setAttachments(readAttachments(in)); break;
+                case "completedAt": task.setCompletedAt(DateUtils.parseIso(in.nextString())); break;
+                case "createdAt": task.setCreatedAt(DateUtils.parseIso(in.nextString())); break;
+                case "updatedAt": task.setUpdatedAt(DateUtils.parseIso(in.nextString())); break;
+                default: in.skipValue(); break;
+            }
+        }
+        in.endObject();
+        return task;
+    }
+
+    @Override
+    public void write(JsonWriter out, Task task) throws IOException {
+        if (task == null) {
+            out.nullValue();
+            return;
+        }
+
+        out.beginObject();
+        out.name("_id").value(task.getId());
+        out.name("title").value(task.getTitle());
+        if (task.getDescription() != null) {
+            out.name(task.isSummary() ? "descriptionPreview" : "description").value(task.getDescription());
+        }
+        if (task.hasDueDate()) out.name("dueDate").value(DateUtils.formatIso(task.getDueDate()));
+        out.name("priority").value(task.getPriority().getWireValue());
+        out.name("status").value(task.getStatus().getWireValue());
+        if (task.getCategory() != null) out.name("category").value(task.getCategory());
+        if (!task.getTags().isEmpty()) {
+            out.name("tags").beginArray();
+            for (String tag : task.getTags()) out.value(tag);
+            out.endArray();
+        }
+        out.name("isCompleted").value(task.isCompleted());
+        if (task.getOrder() != null) out.name("order").value(task.getOrder());
+        if (task.getParentId() != null) out.name("parentId").value(task.getParentId());
+        if (task.getKind() != TaskKind.TASK) out.name("kind").value(task.getKind().getWireValue());
+        if (task.getSubtaskCount() > 0) {
+            out.name("subtaskCount").value(task.getSubtaskCount());
+            out.name("subtasksDone").value(task.getSubtasksDone());
+        }
+        if (task.getRecurrence() != null) {
+            out.name("recurrence");
+            RECURRENCE.write(out, task.getRecurrence());
+        }
+        if (!task.getExceptions().isEmpty()) writeExceptions(out, task.getExceptions());
+        if (!task.getAttachments().isEmpty()) {
+            out.name("attachments").beginArray();
+            for (Attachment attachment : task.getAttachments()) ATTACHMENT.write(out, attachment);
+            out.endArray();
+        }
+        if (task.getCompletedAt() != DateUtils.NO_DATE) out.name("completedAt").value(DateUtils.formatIso(task.getCompletedAt()));
+        if (task.getCreatedAt() != DateUtils.NO_DATE) out.name("createdAt").value(DateUtils.formatIso(task.getCreatedAt()));
+        if (task.getUpdatedAt() != DateUtils.NO_DATE) out.name("updatedAt").value(DateUtils.formatIso(task.getUpdatedAt()));
+        out.endObject();
+    }
+
+    private static List<String> readTags(JsonReader in) throws IOException {
+        List<String> tags = new ArrayList<>();
+        in.beginArray();
+        while (in.hasNext()) {
+            if (in.peek() == JsonToken.NULL) {
+                in.nextNull();
+            } else {
+                tags.add(in.nextString());
+            }
+        }
+        in.endArray();
+        return tags;
+    }
+
+    private static List<OccurrenceException> readExceptions(JsonReader in) throws IOException {
+        List<OccurrenceException> exceptions = new ArrayList<>();
+        in.beginArray();
+        while (in.hasNext()) {
+            if (in.peek() == JsonToken.NULL) {
+                in.nextNull();
+                continue;
+            }
+            OccurrenceException exception = new OccurrenceException();
+            in.beginObject();
+            while (in.hasNext()) {
+                String name = in.nextName();
+                if (in.peek() == JsonToken.NULL) {
+                    in.nextNull();
+                    continue;
+                }
+                switch (name) {
+                    case "occurrence": exception.setOccurrence(DateUtils.parseIso(in.nextString())); break;
+                    case "dueDate": exception.setDueDate(DateUtils.parseIso(in.nextString())); break;
+                    case "isCompleted": exception.setCompleted(in.nextBoolean()); break;
+                    case "skipped": exception.setSkipped(in.nextBoolean()); break;
+                    default: in.skipValue(); break;
+                }
+            }
+            in.endObject();
+            if (exception.getOccurrence() != DateUtils.NO_DATE) exceptions.add(exception);
+        }
+        in.endArray();
+        return exceptions;
+    }
+
+    private static List<Attachment> readAttachments(JsonReader in) throws IOException {
+        List<Attachment> attachments = new ArrayList<>();
+        in.beginArray();
+        while (in.hasNext()) {
+            Attachment attachment = ATTACHMENT.read(in);
+            if (attachment != null) attachments.add(attachment);
+        }
+        in.endArray();
+        return attachments;
+    }
+
+    private static void writeExceptions(JsonWriter out, List<OccurrenceException> exceptions) throws IOException {
+        out.name("exceptions").beginArray();
+        for (OccurrenceException exception : exceptions) {
+            out.beginObject();
+            out.name("occurrence").value(DateUtils.formatIso(exception.getOccurrence()));
+            if (exception.isMoved()) out.name("dueDate").value(DateUtils.formatIso(exception.getDueDate()));
+            out.name("isCompleted").value(exception.isCompleted());
+            out.name("skipped").value(exception.isSkipped());
+            out.endObject();
+        }
+        out.endArray();
+    }
+}
@@ -0,0 +1,11 @@
+package com.taskmate.task_mate.models;
+
+public class UserResponse {
+    private User user;
+
+    // Getters
+    public User getUser() { return user; }
+
+    // Setters
+    public void setUser(User user) { this.user = user; }
+}
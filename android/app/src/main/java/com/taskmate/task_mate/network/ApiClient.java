@@ -1,42 +1,57 @@
 package com.taskmate.task_mate.network;
 
+import com.taskmate.task_mate.perf.TracingMainThreadExecutor;
+
+import java.util.concurrent.Executor;
+
+import okhttp3.Dispatcher;
 import okhttp3.OkHttpClient;
-import okhttp3.logging.HttpLoggingInterceptor;
 import retrofit2.Retrofit;
-import retrofit2.converter.gson.GsonConverterFactory;
 
 public class ApiClient {
     private static final String BASE_URL = "http://10.0.2.2:5000/api/";
+    private static String baseUrl = BASE_URL;
     private static Retrofit retrofit = null;
+    private static Retrofit backgroundRetrofit = null;
+    private static Executor mainThread = null;
     private static String authToken = null;
+    // One scheduler for every client, so the per-class limits hold app-wide
+    private static final RequestScheduler scheduler = new RequestScheduler();
+    // Calls held by the scheduler still occupy dispatcher slots; the scheduler
+    // parks at most RequestScheduler.MAX_PARKED lower-class calls, so the rest
+    // stay free for interactive ones and the dispatcher never decides the order
+    private static final int MAX_DISPATCHED_CALLS = 64;
 
-    public static Retrofit getClient() {
+    public static synchronized Retrofit getClient() {
         if (retrofit == null) {
-            HttpLoggingInterceptor logging = new HttpLoggingInterceptor();
-            logging.setLevel(HttpLoggingInterceptor.Level.BODY);
-
-            OkHttpClient.Builder httpClient = new OkHttpClient.Builder();
-            httpClient.addInterceptor(logging);
-            httpClient.addInterceptor(chain -> {
-                okhttp3.Request original = chain.request();
-                okhttp3.Request.Builder requestBuilder = original.newBuilder();
-
-                if (authToken != null) {
-                    requestBuilder.header("Authorization", "Bearer " + authToken);
-                }
-
-                return chain.proceed(requestBuilder.build());
-            });
-
-            retrofit = new Retrofit.Builder()
-                    .baseUrl(BASE_URL)
-                    .addConverterFactory(GsonConverterFactory.create())
-                    .client(httpClient.build())
+            OkHttpClient.Builder httpClient = newHttpClientBuilder();
+            httpClient.interceptors().add(0, new HttpLogInterceptor());
+
+            retrofit = newRetrofitBuilder(baseUrl, httpClient.build())
+                    .callbackExecutor(mainThread())
                     .build();
         }
         return retrofit;
     }
 
+    // Same HTTP stack, but callbacks run on WorkPool.COMPUTE: process the
+    // response there and hand only the UI update to mainThread()
+    public static synchronized Retrofit getBackgroundClient() {
+        if (backgroundRetrofit == null) {
+            backgroundRetrofit = getClient().newBuilder()
+                    .callbackExecutor(WorkPool.COMPUTE)
+                    .build();
+        }
+        return backgroundRetrofit;
+    }
+
+    // Points the app at another backend (e.g. a local mock); the next call rebuilds the client
+    public static synchronized void setBaseUrl(String url) {
+        baseUrl = url;
+        retrofit = null;
+        backgroundRetrofit = null;
+    }
+
     public static void setAuthToken(String token) {
         authToken = token;
     }
@@ -44,4 +59,54 @@ public class ApiClient {
     public static ApiService getApiService() {
         return getClient().create(ApiService.class);
     }
-}
\ No newline at end of file
+
+    // Callbacks on WorkPool.COMPUTE, not the main thread
+    public static ApiService getBackgroundApiService() {
+        return getBackgroundClient().create(ApiService.class);
+    }
+
+    // Where background callbacks post their UI update; timed like main-thread callbacks
+    public static synchronized Executor mainThread() {
+        if (mainThread == null) {
+            mainThread = new TracingMainThreadExecutor();
+        }
+        return mainThread;
+    }
+
+    public static RequestScheduler getScheduler() {
+        return scheduler;
+    }
+
+    // The production HTTP stack minus logging, so tools and tests can add their own hooks
+    static OkHttpClient.Builder newHttpClientBuilder() {
+        Dispatcher dispatcher = new Dispatcher();
+        dispatcher.setMaxRequests(MAX_DISPATCHED_CALLS);
+        dispatcher.setMaxRequestsPerHost(MAX_DISPATCHED_CALLS);
+
+        OkHttpClient.Builder httpClient = new OkHttpClient.Builder().dispatcher(dispatcher);
+        httpClient.addInterceptor(scheduler);
+        httpClient.eventListenerFactory(scheduler.eventListenerFactory());
+        httpClient.addInterceptor(chain -> {
+            okhttp3.Request original = chain.request();
+            okhttp3.Request.Builder requestBuilder = original.newBuilder();
+
+            if (authToken != null) {
+                requestBuilder.header("Authorization", "Bearer " + authToken);
+            }
+            // Prefer the binary encoding; the server falls back to JSON
+            if (original.header("Accept") == null) {
+                requestBuilder.header("Accept", WireFormatConverterFactory.ACCEPT);
+            }
+
+            return chain.proceed(requestBuilder.build());
+        });
+        return httpClient;
+    }
+
+    static Retrofit.Builder newRetrofitBuilder(String baseUrl, OkHttpClient client) {
+        return new Retrofit.Builder()
+                .baseUrl(baseUrl)
+                .addConverterFactory(WireFormatConverterFactory.create())
+                .client(client);
+    }
+}
@@ -1,32 +1,87 @@
 package com.taskmate.task_mate.network;
 
 import com.taskmate.task_mate.models.ApiResponse;
+import com.taskmate.task_mate.models.AttachmentResponse;
+import com.taskmate.task_mate.models.CreateAttachmentRequest;
 import com.taskmate.task_mate.models.CreateTaskRequest;
+import com.taskmate.task_mate.models.ExportPage;
+import com.taskmate.task_mate.models.ImportTasksRequest;
+import com.taskmate.task_mate.models.ImportTasksResponse;
+import com.taskmate.task_mate.models.MoveTaskRequest;
+import com.taskmate.task_mate.models.OccurrenceUpdateRequest;
 import com.taskmate.task_mate.models.RegisterRequest;
 import com.taskmate.task_mate.models.Task;
-import com.taskmate.task_mate.models.TaskStats;
+import com.taskmate.task_mate.models.TaskHistory;
+import com.taskmate.task_mate.models.TaskResponse;
+import com.taskmate.task_mate.models.TaskStatsResponse;
 import com.taskmate.task_mate.models.TasksResponse;
 import com.taskmate.task_mate.models.UpdateTaskRequest;
 import com.taskmate.task_mate.models.User;
+import com.taskmate.task_mate.models.UserResponse;
 
 import java.util.List;
+import okhttp3.RequestBody;
+import okhttp3.ResponseBody;
 import retrofit2.Call;
 import retrofit2.http.*;
 
 public interface ApiService {
 
+    // Calls are INTERACTIVE unless marked with @Scheduling; see RequestScheduler
+
+    // List projections for getTasks(view); null returns full documents
+    String VIEW_SUMMARY = "summary";
+
     // Get all tasks
     @GET("tasks")
-    Call<ApiResponse<TasksResponse>> getTasks();
+    Call<ApiResponse<TasksResponse>> getTasks(@Query("view") String view);
+
+    // One page of the list in order; pagination comes back on the ApiResponse.
+    // The tag sets the scheduling class, so prefetches can run below INTERACTIVE
+    @GET("tasks")
+    Call<ApiResponse<TasksResponse>> getTaskPage(@Query("view") String view,
+                                                 @Query("page") int page,
+                                                 @Query("limit") int limit,
+                                                 @Tag RequestPriority priority);
+
+    // Same, unless it still has this ETag: then a 304 with no body
+    @GET("tasks")
+    Call<ApiResponse<TasksResponse>> getTaskPage(@Query("view") String view,
+                                                 @Query("page") int page,
+                                                 @Query("limit") int limit,
+                                                 @Tag RequestPriority priority,
+                                                 @Header("If-None-Match") String etag);
+
+    // Children of one task, for expanding it in the subtask tree
+    @GET("tasks")
+    Call<ApiResponse<TasksResponse>> getSubtasks(@Query("parentId") String parentId,
+                                                 @Query("view") String view,
+                                                 @Query("limit") int limit);
+
+    // Get a single full task
+    @GET("tasks/{id}")
+    Call<ApiResponse<TaskResponse>> getTask(@Path("id") String taskId);
+
+    // Same, in the given scheduling class
+    @GET("tasks/{id}")
+    Call<ApiResponse<TaskResponse>> getTask(@Path("id") String taskId, @Tag RequestPriority priority);
 
     // Create new task
     @POST("tasks")
-    Call<ApiResponse<Task>> createTask(@Body CreateTaskRequest request);
+    Call<ApiResponse<TaskResponse>> createTask(@Body CreateTaskRequest request);
 
     // Update task
     @PUT("tasks/{id}")
     Call<ApiResponse<Task>> updateTask(@Path("id") String taskId, @Body UpdateTaskRequest request);
 
+    // Move task between two others in the list; only its order key changes
+    @POST("tasks/{id}/move")
+    Call<ApiResponse<TaskResponse>> moveTask(@Path("id") String taskId, @Body MoveTaskRequest request);
+
+    // Complete, move or skip one occurrence of a recurring task; returns the whole series
+    @PUT("tasks/{id}/occurrences")
+    Call<ApiResponse<TaskResponse>> updateOccurrence(@Path("id") String taskId, @Body OccurrenceUpdateRequest request);
+
     // Delete task
     @DELETE("tasks/{id}")
     Call<ApiResponse<Void>> deleteTask(@Path("id") String taskId);
@@ -39,9 +94,55 @@ public interface ApiService {
     @POST("tasks/{id}/incomplete")
     Call<ApiResponse<Task>> markTaskIncomplete(@Path("id") String taskId);
 
-    // Get task statistics
+    // Attachments: create the record, then upload the content in chunks
+    // (see attachments.AttachmentUpload); getAttachment tells where to resume
+    @POST("tasks/{id}/attachments")
+    Call<ApiResponse<AttachmentResponse>> createAttachment(@Path("id") String taskId,
+                                                           @Body CreateAttachmentRequest request);
+
+    @GET("tasks/{id}/attachments/{attachmentId}")
+    Call<ApiResponse<AttachmentResponse>> getAttachment(@Path("id") String taskId,
+                                                        @Path("attachmentId") String attachmentId);
+
+    // contentRange is "bytes start-end/total"; the body streams from disk
+    @Scheduling(RequestPriority.BACKGROUND)
+    @PUT("tasks/{id}/attachments/{attachmentId}/content")
+    Call<ApiResponse<AttachmentResponse>> uploadAttachmentChunk(@Path("id") String taskId,
+                                                                @Path("attachmentId") String attachmentId,
+                                                                @Header("Content-Range") String contentRange,
+                                                                @Body RequestBody chunk);
+
+    // Unbuffered; range is "bytes=start-" to resume, or null for the whole file
+    @Streaming
+    @GET("tasks/{id}/attachments/{attachmentId}/content")
+    Call<ResponseBody> downloadAttachment(@Path("id") String taskId,
+                                          @Path("attachmentId") String attachmentId,
+                                          @Header("Range") String range);
+
+    @DELETE("tasks/{id}/attachments/{attachmentId}")
+    Call<ApiResponse<Void>> deleteAttachment(@Path("id") String taskId,
+                                             @Path("attachmentId") String attachmentId);
+
+    // Every task, subtasks included, a page at a time; after is the previous
+    // page's next cursor, null for the first (see bulk.TaskExporter)
+    @Scheduling(RequestPriority.BACKGROUND)
+    @GET("tasks/export")
+    Call<ApiResponse<ExportPage>> exportTasks(@Query("after") String after, @Query("limit") int limit);
+
+    // Creates a batch of tasks at the end of their lists, in order
+    @Scheduling(RequestPriority.BACKGROUND)
+    @POST("tasks/import")
+    Call<ApiResponse<ImportTasksResponse>> importTasks(@Body ImportTasksRequest request);
+
+    // Get task statistics; tz is an IANA zone id, for the streak
+    @Scheduling(RequestPriority.VISIBLE_PREFETCH)
     @GET("tasks/stats/overview")
-    Call<ApiResponse<TaskStats>> getTaskStatistics();
+    Call<ApiResponse<TaskStatsResponse>> getTaskStatistics(@Query("tz") String timeZone);
+
+    // Tasks created and completed per local day, the last `days` days up to today
+    @Scheduling(RequestPriority.VISIBLE_PREFETCH)
+    @GET("tasks/stats/history")
+    Call<ApiResponse<TaskHistory>> getTaskHistory(@Query("days") int days, @Query("tz") String timeZone);
 
     // User registration
     @POST("auth/register")
@@ -49,5 +150,5 @@ public interface ApiService {
 
     // Get user profile
     @GET("auth/profile")
-    Call<ApiResponse<User>> getUserProfile();
+    Call<ApiResponse<UserResponse>> getUserProfile();
 }
\ No newline at end of file
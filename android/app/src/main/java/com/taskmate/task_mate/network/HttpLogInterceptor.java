@@ -0,0 +1,60 @@
+package com.taskmate.task_mate.network;
+
+import com.taskmate.task_mate.logging.AppLog;
+import com.taskmate.task_mate.logging.LogLevel;
+import com.taskmate.task_mate.logging.LogSampler;
+
+import java.io.IOException;
+
+import okhttp3.Interceptor;
+import okhttp3.Request;
+import okhttp3.Response;
+
+// One line per call (method, path, status, time, size) instead of
+// HttpLoggingInterceptor's BODY level, which buffered and copied every payload
+// on the calling thread. Bodies are never read here; the size is the declared
+// Content-Length, "?" when the body is chunked. Failures are always
+// logged; successful calls every time at DEBUG, one in 20 at INFO.
+public class HttpLogInterceptor implements Interceptor {
+
+    private static final String TAG = "Http";
+    private static final LogSampler SAMPLER = new LogSampler(20);
+
+    @Override
+    public Response intercept(Chain chain) throws IOException {
+        Request request = chain.request();
+        if (!AppLog.isLoggable(LogLevel.INFO)) {
+            return chain.proceed(request);
+        }
+
+        String call = request.method() + " " + request.url().encodedPath();
+        long start = System.nanoTime();
+        Response response;
+        try {
+            response = chain.proceed(request);
+        } catch (IOException e) {
+            AppLog.w(TAG, "{} failed after {} ms", call, elapsedMs(start), e);
+            throw e;
+        }
+
+        long tookMs = elapsedMs(start);
+        if (response.code() >= 400) {
+            AppLog.w(TAG, "{} -> {} in {}", call, response.code(), timeAndSize(tookMs, response));
+        } else if (AppLog.isLoggable(LogLevel.DEBUG)) {
+            AppLog.d(TAG, "{} -> {} in {}", call, response.code(), timeAndSize(tookMs, response));
+        } else if (SAMPLER.next()) {
+            AppLog.i(TAG, "{} -> {} in {} (sampled)", call, response.code(), timeAndSize(tookMs, response));
+        }
+        return response;
+    }
+
+    // Only built for lines that are logged
+    private static String timeAndSize(long tookMs, Response response) {
+        long length = response.body() != null ? response.body().contentLength() : -1;
+        return tookMs + " ms, " + (length >= 0 ? Long.toString(length) : "?") + " bytes";
+    }
+
+    private static long elapsedMs(long start) {
+        return (System.nanoTime() - start) / 1_000_000;
+    }
+}
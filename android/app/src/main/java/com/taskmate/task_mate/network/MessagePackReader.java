@@ -0,0 +1,378 @@
+package com.taskmate.task_mate.network;
+
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+// Reads MessagePack through Gson's JsonReader API, so the existing type adapters
+// (TaskTypeAdapter and the reflective ones for the other models) decode binary
+// bodies unchanged. Map keys must be strings; bin and ext types are rejected.
+// Map-typed fields need WireFormatConverterFactory's MapAdapter, since Gson's
+// own map adapter can't read keys from a subclass.
+public class MessagePackReader extends JsonReader {
+
+    private static final int NAME_CACHE_SIZE = 64;
+    private static final int MAX_CACHED_NAME = 32;
+
+    private final InputStream in;
+    private final byte[] buffer = new byte[8192];
+    private int pos;
+    private int limit;
+
+    // Entries left per open container; maps count keys and values separately.
+    // Level 0 is the document, which holds a single value.
+    private int[] remaining = new int[32];
+    private boolean[] isMap = new boolean[32];
+    private int depth;
+
+    // Header byte of the next value once peeked, otherwise -1
+    private int peekedHeader = -1;
+
+    // Field names repeat for every object in a list; decode each once
+    private final byte[][] nameBytes = new byte[NAME_CACHE_SIZE][];
+    private final String[] names = new String[NAME_CACHE_SIZE];
+
+    public MessagePackReader(InputStream in) {
+        super(new StringReader(""));
+        this.in = in;
+        remaining[0] = 1;
+    }
+
+    @Override
+    public JsonToken peek() throws IOException {
+        if (remaining[depth] == 0) {
+            if (depth == 0) return JsonToken.END_DOCUMENT;
+            return isMap[depth] ? JsonToken.END_OBJECT : JsonToken.END_ARRAY;
+        }
+        if (isMap[depth] && (remaining[depth] & 1) == 0) return JsonToken.NAME;
+
+        int header = peekHeader();
+        if (header <= 0x7f || header >= 0xe0 || (header >= 0xca && header <= 0xd3)) return JsonToken.NUMBER;
+        if ((header >= 0xa0 && header <= 0xbf) || (header >= 0xd9 && header <= 0xdb)) return JsonToken.STRING;
+        if (header <= 0x8f || header == 0xde || header == 0xdf) return JsonToken.BEGIN_OBJECT;
+        if (header <= 0x9f || header == 0xdc || header == 0xdd) return JsonToken.BEGIN_ARRAY;
+        if (header == 0xc0) return JsonToken.NULL;
+        if (header == 0xc2 || header == 0xc3) return JsonToken.BOOLEAN;
+        throw new IOException("Unsupported MessagePack type 0x" + Integer.toHexString(header) + " at " + getPath());
+    }
+
+    @Override
+    public boolean hasNext() throws IOException {
+        JsonToken token = peek();
+        return token != JsonToken.END_OBJECT && token != JsonToken.END_ARRAY && token != JsonToken.END_DOCUMENT;
+    }
+
+    @Override
+    public void beginArray() throws IOException {
+        expect(JsonToken.BEGIN_ARRAY);
+        int header = takeHeader();
+        int count = header <= 0x9f ? header & 0x0f : header == 0xdc ? readUnsigned(2) : readLength(4);
+        push(count, false);
+    }
+
+    @Override
+    public void endArray() throws IOException {
+        expect(JsonToken.END_ARRAY);
+        depth--;
+    }
+
+    @Override
+    public void beginObject() throws IOException {
+        expect(JsonToken.BEGIN_OBJECT);
+        int header = takeHeader();
+        int count = header <= 0x8f ? header & 0x0f : header == 0xde ? readUnsigned(2) : readLength(4);
+        push(count * 2, true);
+    }
+
+    @Override
+    public void endObject() throws IOException {
+        expect(JsonToken.END_OBJECT);
+        depth--;
+    }
+
+    @Override
+    public String nextName() throws IOException {
+        expect(JsonToken.NAME);
+        int header = takeHeader();
+        if (!isStringHeader(header)) {
+            throw new IllegalStateException("Expected a string map key but was 0x"
+                    + Integer.toHexString(header) + " at " + getPath());
+        }
+        remaining[depth]--;
+        int length = stringLength(header);
+        return length <= MAX_CACHED_NAME ? readName(length) : readString(length);
+    }
+
+    @Override
+    public String nextString() throws IOException {
+        JsonToken token = peek();
+        if (token == JsonToken.NUMBER) {
+            int header = peekHeader();
+            if (header == 0xca || header == 0xcb) return Double.toString(nextDouble());
+            return Long.toString(nextLong());
+        }
+        expect(JsonToken.STRING);
+        String value = readString(stringLength(takeHeader()));
+        remaining[depth]--;
+        return value;
+    }
+
+    @Override
+    public boolean nextBoolean() throws IOException {
+        expect(JsonToken.BOOLEAN);
+        remaining[depth]--;
+        return takeHeader() == 0xc3;
+    }
+
+    @Override
+    public void nextNull() throws IOException {
+        expect(JsonToken.NULL);
+        takeHeader();
+        remaining[depth]--;
+    }
+
+    @Override
+    public long nextLong() throws IOException {
+        if (peek() == JsonToken.STRING) return Long.parseLong(nextString());
+        expect(JsonToken.NUMBER);
+        int header = takeHeader();
+        remaining[depth]--;
+        if (header <= 0x7f) return header;
+        if (header >= 0xe0) return (byte) header;
+        switch (header) {
+            case 0xcc: return readSigned(1) & 0xffL;
+            case 0xcd: return readSigned(2) & 0xffffL;
+            case 0xce: return readSigned(4) & 0xffffffffL;
+            case 0xcf: return readSigned(8);
+            case 0xd0: return (byte) readSigned(1);
+            case 0xd1: return (short) readSigned(2);
+            case 0xd2: return (int) readSigned(4);
+            case 0xd3: return readSigned(8);
+            default:
+                double value = header == 0xca ? Float.intBitsToFloat((int) readSigned(4))
+                        : Double.longBitsToDouble(readSigned(8));
+                if (value != (long) value) throw new NumberFormatException("Expected a long but was " + value);
+                return (long) value;
+        }
+    }
+
+    @Override
+    public int nextInt() throws IOException {
+        long value = nextLong();
+        if (value != (int) value) throw new NumberFormatException("Expected an int but was " + value);
+        return (int) value;
+    }
+
+    @Override
+    public double nextDouble() throws IOException {
+        if (peek() == JsonToken.STRING) return Double.parseDouble(nextString());
+        expect(JsonToken.NUMBER);
+        int header = peekHeader();
+        if (header == 0xca) {
+            takeHeader();
+            remaining[depth]--;
+            return Float.intBitsToFloat((int) readSigned(4));
+        }
+        if (header == 0xcb) {
+            takeHeader();
+            remaining[depth]--;
+            return Double.longBitsToDouble(readSigned(8));
+        }
+        return nextLong();
+    }
+
+    @Override
+    public void skipValue() throws IOException {
+        JsonToken token = peek();
+        if (token == JsonToken.NAME) {
+            nextName();
+            return;
+        }
+        if (token == JsonToken.END_ARRAY || token == JsonToken.END_OBJECT || token == JsonToken.END_DOCUMENT) {
+            throw new IllegalStateException("Nothing to skip at " + getPath());
+        }
+        skip(takeHeader());
+        remaining[depth]--;
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+
+    @Override
+    public String getPath() {
+        return "$ (MessagePack depth " + depth + ")";
+    }
+
+    @Override
+    public String toString() {
+        return "MessagePackReader at " + getPath();
+    }
+
+    private void expect(JsonToken expected) throws IOException {
+        JsonToken actual = peek();
+        if (actual != expected) {
+            throw new IllegalStateException("Expected " + expected + " but was " + actual + " at " + getPath());
+        }
+    }
+
+    private void push(int count, boolean map) {
+        remaining[depth]--;
+        if (++depth == remaining.length) {
+            remaining = Arrays.copyOf(remaining, depth * 2);
+            isMap = Arrays.copyOf(isMap, depth * 2);
+        }
+        remaining[depth] = count;
+        isMap[depth] = map;
+    }
+
+    private int peekHeader() throws IOException {
+        if (peekedHeader < 0) peekedHeader = readByte();
+        return peekedHeader;
+    }
+
+    private int takeHeader() throws IOException {
+        int header = peekHeader();
+        peekedHeader = -1;
+        return header;
+    }
+
+    private static boolean isStringHeader(int header) {
+        return (header >= 0xa0 && header <= 0xbf) || (header >= 0xd9 && header <= 0xdb);
+    }
+
+    private int stringLength(int header) throws IOException {
+        if (header <= 0xbf) return header & 0x1f;
+        if (header == 0xd9) return readUnsigned(1);
+        if (header == 0xda) return readUnsigned(2);
+        return readLength(4);
+    }
+
+    // Skips one value whose header byte was already read
+    private void skip(int header) throws IOException {
+        if (header <= 0x7f || header >= 0xe0 || header == 0xc0 || header == 0xc2 || header == 0xc3) return;
+        if (isStringHeader(header)) {
+            skipBytes(stringLength(header));
+            return;
+        }
+        int entries;
+        if (header <= 0x8f) entries = (header & 0x0f) * 2;
+        else if (header <= 0x9f) entries = header & 0x0f;
+        else switch (header) {
+            case 0xcc: case 0xd0: skipBytes(1); return;
+            case 0xcd: case 0xd1: skipBytes(2); return;
+            case 0xca: case 0xce: case 0xd2: skipBytes(4); return;
+            case 0xcb: case 0xcf: case 0xd3: skipBytes(8); return;
+            case 0xdc: entries = readUnsigned(2); break;
+            case 0xdd: entries = readLength(4); break;
+            case 0xde: entries = readUnsigned(2) * 2; break;
+            case 0xdf: entries = readLength(4) * 2; break;
+            default:
+                throw new IOException("Unsupported MessagePack type 0x" + Integer.toHexString(header) + " at " + getPath());
+        }
+        for (int i = 0; i < entries; i++) {
+            skip(readByte());
+        }
+    }
+
+    private String readName(int length) throws IOException {
+        require(length);
+        int hash = 0;
+        for (int i = pos; i < pos + length; i++) hash = 31 * hash + buffer[i];
+        int slot = (hash ^ (hash >>> 16)) & (NAME_CACHE_SIZE - 1);
+        byte[] cached = nameBytes[slot];
+        if (cached != null && matches(cached, length)) {
+            pos += length;
+            return names[slot];
+        }
+        String name = new String(buffer, pos, length, StandardCharsets.UTF_8);
+        nameBytes[slot] = Arrays.copyOfRange(buffer, pos, pos + length);
+        names[slot] = name;
+        pos += length;
+        return name;
+    }
+
+    private boolean matches(byte[] cached, int length) {
+        if (cached.length != length) return false;
+        for (int i = 0; i < length; i++) {
+            if (cached[i] != buffer[pos + i]) return false;
+        }
+        return true;
+    }
+
+    private String readString(int length) throws IOException {
+        if (length <= buffer.length) {
+            require(length);
+            String value = new String(buffer, pos, length, StandardCharsets.UTF_8);
+            pos += length;
+            return value;
+        }
+        byte[] bytes = new byte[length];
+        int copied = limit - pos;
+        System.arraycopy(buffer, pos, bytes, 0, copied);
+        pos = limit;
+        while (copied < length) {
+            int read = in.read(bytes, copied, length - copied);
+            if (read < 0) throw new EOFException("Truncated MessagePack string at " + getPath());
+            copied += read;
+        }
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    // 8- and 16-bit lengths
+    private int readUnsigned(int size) throws IOException {
+        return (int) (readSigned(size) & ((1L << (size * 8)) - 1));
+    }
+
+    // 32-bit lengths, capped to what an array index can address
+    private int readLength(int size) throws IOException {
+        long length = readSigned(size) & 0xffffffffL;
+        if (length > Integer.MAX_VALUE) throw new IOException("MessagePack length too large: " + length);
+        return (int) length;
+    }
+
+    // Big-endian, sign-extended from the top byte
+    private long readSigned(int size) throws IOException {
+        require(size);
+        long value = buffer[pos];
+        for (int i = 1; i < size; i++) {
+            value = (value << 8) | (buffer[pos + i] & 0xff);
+        }
+        pos += size;
+        return value;
+    }
+
+    private int readByte() throws IOException {
+        require(1);
+        return buffer[pos++] & 0xff;
+    }
+
+    private void skipBytes(int count) throws IOException {
+        while (count > 0) {
+            if (pos == limit) require(1);
+            int step = Math.min(count, limit - pos);
+            pos += step;
+            count -= step;
+        }
+    }
+
+    // Makes at least count bytes (count <= buffer size) available from pos
+    private void require(int count) throws IOException {
+        if (limit - pos >= count) return;
+        System.arraycopy(buffer, pos, buffer, 0, limit - pos);
+        limit -= pos;
+        pos = 0;
+        while (limit < count) {
+            int read = in.read(buffer, limit, buffer.length - limit);
+            if (read < 0) throw new EOFException("Truncated MessagePack body at " + getPath());
+            limit += read;
+        }
+    }
+}
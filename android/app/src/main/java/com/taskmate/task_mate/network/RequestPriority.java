@@ -0,0 +1,23 @@
+package com.taskmate.task_mate.network;
+
+// Scheduling class of an HTTP call. Declared order is dispatch order: a queued
+// call only starts once no call of an earlier class is waiting.
+public enum RequestPriority {
+    // The user is waiting on it (taps, opening a screen, pull-to-refresh)
+    INTERACTIVE("interactive", 6),
+    // Data for what is on screen or about to scroll on (stats, avatars, prefetch)
+    VISIBLE_PREFETCH("visible-prefetch", 3),
+    // Nobody is looking (sync, bulk uploads, housekeeping)
+    BACKGROUND("background", 2);
+
+    private final String label;
+    private final int maxConcurrent;
+
+    RequestPriority(String label, int maxConcurrent) {
+        this.label = label;
+        this.maxConcurrent = maxConcurrent;
+    }
+
+    public String getLabel() { return label; }
+    public int getMaxConcurrent() { return maxConcurrent; }
+}
@@ -0,0 +1,331 @@
+package com.taskmate.task_mate.network;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.lang.reflect.Method;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+import okhttp3.Call;
+import okhttp3.EventListener;
+import okhttp3.Interceptor;
+import okhttp3.Request;
+import okhttp3.Response;
+import retrofit2.Invocation;
+
+// Admits calls to the network by RequestPriority class. Each class has its own
+// concurrency limit and FIFO queue, and a queued call only starts once no call
+// of a more urgent class is waiting, so a tap never sits behind prefetch or
+// background traffic. A slot is held until the response headers arrive.
+// Records per-class queue waits for the performance screen.
+//
+// Queuing happens inside the interceptor, so a queued call still holds one of
+// the OkHttp dispatcher's slots. Calls below INTERACTIVE may only park up to
+// maxParked at a time; past that they fail fast with an IOException instead
+// of filling the dispatcher, which would leave a tap stuck in its FIFO.
+// Clients must install eventListenerFactory() (or forward onCanceled) so a
+// cancelled call leaves the queue at once.
+public class RequestScheduler implements Interceptor {
+
+    private static final RequestPriority[] PRIORITIES = RequestPriority.values();
+    // Lower-class calls that may wait at once; well below ApiClient's 64
+    // dispatcher slots, so interactive calls always find one
+    static final int MAX_PARKED = 16;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final int[] limits = new int[PRIORITIES.length];
+    private final int[] running = new int[PRIORITIES.length];
+    private final List<ArrayDeque<Waiter>> queues = new ArrayList<>(PRIORITIES.length);
+    private final WaitStats[] stats = new WaitStats[PRIORITIES.length];
+    private final Map<Method, RequestPriority> byMethod = new ConcurrentHashMap<>();
+    // Queued calls by Call, so a cancel can wake the right one
+    private final Map<Call, Waiter> waitingCalls = new IdentityHashMap<>();
+    private final int maxParked;
+    private final EventListener cancelSignal = new EventListener() {
+        @Override
+        public void canceled(Call call) {
+            onCanceled(call);
+        }
+    };
+
+    public RequestScheduler() {
+        this(MAX_PARKED, defaultLimits());
+    }
+
+    // Limits in RequestPriority order
+    RequestScheduler(int... limits) {
+        this(MAX_PARKED, limits);
+    }
+
+    RequestScheduler(int maxParked, int[] limits) {
+        if (maxParked < 0) throw new IllegalArgumentException("maxParked must not be negative");
+        this.maxParked = maxParked;
+        if (limits.length != PRIORITIES.length) {
+            throw new IllegalArgumentException("Expected " + PRIORITIES.length + " limits");
+        }
+        for (int i = 0; i < PRIORITIES.length; i++) {
+            if (limits[i] < 1) throw new IllegalArgumentException("Limit must be positive");
+            this.limits[i] = limits[i];
+            queues.add(new ArrayDeque<>());
+            stats[i] = new WaitStats();
+        }
+    }
+
+    @Override
+    public Response intercept(Chain chain) throws IOException {
+        Request request = chain.request();
+        RequestPriority priority = priorityOf(request);
+        acquire(priority, chain.call());
+        try {
+            return chain.proceed(request);
+        } finally {
+            release(priority);
+        }
+    }
+
+    // An explicit RequestPriority tag wins over the ApiService method's @Scheduling
+    public RequestPriority priorityOf(Request request) {
+        RequestPriority tagged = request.tag(RequestPriority.class);
+        if (tagged != null) return tagged;
+        Invocation invocation = request.tag(Invocation.class);
+        if (invocation == null) return RequestPriority.INTERACTIVE;
+        return byMethod.computeIfAbsent(invocation.method(), method -> {
+            Scheduling scheduling = method.getAnnotation(Scheduling.class);
+            return scheduling != null ? scheduling.value() : RequestPriority.INTERACTIVE;
+        });
+    }
+
+    // For clients without listeners of their own
+    public EventListener.Factory eventListenerFactory() {
+        return call -> cancelSignal;
+    }
+
+    // Wakes the call if it is queued here; for clients with their own EventListener
+    public void onCanceled(Call call) {
+        lock.lock();
+        try {
+            Waiter waiter = waitingCalls.get(call);
+            if (waiter != null) {
+                waiter.canceled = true;
+                waiter.condition.signal();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public List<QueueStats> snapshot() {
+        List<QueueStats> result = new ArrayList<>(PRIORITIES.length);
+        lock.lock();
+        try {
+            for (int i = 0; i < PRIORITIES.length; i++) {
+                result.add(new QueueStats(PRIORITIES[i], limits[i], running[i],
+                        queues.get(i).size(), stats[i]));
+            }
+        } finally {
+            lock.unlock();
+        }
+        return result;
+    }
+
+    public void resetStats() {
+        lock.lock();
+        try {
+            for (int i = 0; i < PRIORITIES.length; i++) stats[i] = new WaitStats();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    void acquire(RequestPriority priority, Call call) throws IOException {
+        int p = priority.ordinal();
+        long start = System.nanoTime();
+        lock.lock();
+        try {
+            boolean queued = !queues.get(p).isEmpty() || !canStart(p);
+            if (queued && p > 0 && parkedBelowInteractive() >= maxParked) {
+                stats[p].rejected++;
+                throw new IOException("Too many " + priority.getLabel() + " calls queued");
+            }
+            if (queued) {
+                Waiter waiter = new Waiter(lock.newCondition());
+                queues.get(p).add(waiter);
+                awaitTurn(p, waiter, call);
+            } else {
+                running[p]++;
+            }
+            stats[p].record(System.nanoTime() - start, queued);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    void release(RequestPriority priority) {
+        lock.lock();
+        try {
+            running[priority.ordinal()]--;
+            dispatch();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Lock held. A cancel before the call was registered is seen by
+    // isCanceled(); one after it signals through onCanceled()
+    private void awaitTurn(int p, Waiter waiter, Call call) throws IOException {
+        if (call != null) waitingCalls.put(call, waiter);
+        try {
+            while (!waiter.granted) {
+                if (waiter.canceled || (call != null && call.isCanceled())) {
+                    queues.get(p).remove(waiter);
+                    dispatch();
+                    throw new IOException("Canceled");
+                }
+                waiter.condition.await();
+            }
+        } catch (InterruptedException e) {
+            if (waiter.granted) {
+                running[p]--;
+            } else {
+                queues.get(p).remove(waiter);
+            }
+            dispatch();
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while queued");
+        } finally {
+            if (call != null) waitingCalls.remove(call);
+        }
+    }
+
+    // Lock held. Hands free slots to waiters, most urgent class first; a class
+    // that still has waiters afterwards holds back every class below it.
+    private void dispatch() {
+        for (int p = 0; p < PRIORITIES.length; p++) {
+            ArrayDeque<Waiter> queue = queues.get(p);
+            while (!queue.isEmpty() && running[p] < limits[p]) {
+                Waiter waiter = queue.poll();
+                waiter.granted = true;
+                running[p]++;
+                waiter.condition.signal();
+            }
+            if (!queue.isEmpty()) return;
+        }
+    }
+
+    // Lock held
+    private boolean canStart(int p) {
+        if (running[p] >= limits[p]) return false;
+        for (int q = 0; q < p; q++) {
+            if (!queues.get(q).isEmpty()) return false;
+        }
+        return true;
+    }
+
+    // Lock held
+    private int parkedBelowInteractive() {
+        int parked = 0;
+        for (int p = 1; p < PRIORITIES.length; p++) parked += queues.get(p).size();
+        return parked;
+    }
+
+    private static int[] defaultLimits() {
+        int[] limits = new int[PRIORITIES.length];
+        for (int i = 0; i < PRIORITIES.length; i++) limits[i] = PRIORITIES[i].getMaxConcurrent();
+        return limits;
+    }
+
+    private static final class Waiter {
+        final Condition condition;
+        boolean granted;
+        boolean canceled;
+
+        Waiter(Condition condition) {
+            this.condition = condition;
+        }
+    }
+
+    // Queue waits of one class; buckets are powers of two in microseconds
+    private static final class WaitStats {
+        final long[] buckets = new long[40];
+        long count;
+        long queued;
+        long rejected;
+        long totalNanos;
+        long maxNanos;
+
+        void record(long nanos, boolean wasQueued) {
+            count++;
+            if (wasQueued) queued++;
+            totalNanos += nanos;
+            maxNanos = Math.max(maxNanos, nanos);
+            long micros = nanos / 1000;
+            buckets[Math.min(buckets.length - 1, 64 - Long.numberOfLeadingZeros(micros))]++;
+        }
+
+        // Upper bound of the bucket holding the given percentile, in ms
+        double percentileMs(double percentile) {
+            if (count == 0) return 0;
+            long rank = (long) Math.ceil(count * percentile);
+            long seen = 0;
+            for (int i = 0; i < buckets.length; i++) {
+                seen += buckets[i];
+                if (seen >= rank) return Math.min((1L << i) / 1000.0, maxNanos / 1e6);
+            }
+            return maxNanos / 1e6;
+        }
+    }
+
+    public static final class QueueStats {
+        private final RequestPriority priority;
+        private final int limit;
+        private final int inFlight;
+        private final int waiting;
+        private final long admitted;
+        private final long queued;
+        private final long rejected;
+        private final double averageWaitMs;
+        private final double p95WaitMs;
+        private final double maxWaitMs;
+
+        QueueStats(RequestPriority priority, int limit, int inFlight, int waiting, WaitStats stats) {
+            this.priority = priority;
+            this.limit = limit;
+            this.inFlight = inFlight;
+            this.waiting = waiting;
+            this.admitted = stats.count;
+            this.queued = stats.queued;
+            this.rejected = stats.rejected;
+            this.averageWaitMs = stats.count == 0 ? 0 : stats.totalNanos / 1e6 / stats.count;
+            this.p95WaitMs = stats.percentileMs(0.95);
+            this.maxWaitMs = stats.maxNanos / 1e6;
+        }
+
+        public RequestPriority getPriority() { return priority; }
+        public int getLimit() { return limit; }
+        public int getInFlight() { return inFlight; }
+        public int getWaiting() { return waiting; }
+        // Calls let through since the last reset, and how many of them had to wait
+        public long getAdmitted() { return admitted; }
+        public long getQueued() { return queued; }
+        // Calls turned away because too many lower-class calls were already parked
+        public long getRejected() { return rejected; }
+        public double getAverageWaitMs() { return averageWaitMs; }
+        public double getP95WaitMs() { return p95WaitMs; }
+        public double getMaxWaitMs() { return maxWaitMs; }
+
+        @Override
+        public String toString() {
+            return String.format(Locale.US,
+                    "%s: %d calls (%d queued, %d rejected), wait avg %.1f / p95 %.1f / max %.1f ms, %d/%d in flight, %d waiting",
+                    priority.getLabel(), admitted, queued, rejected, averageWaitMs, p95WaitMs, maxWaitMs,
+                    inFlight, limit, waiting);
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package com.taskmate.task_mate.network;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+// Puts an ApiService method in a RequestScheduler class; unannotated methods
+// are INTERACTIVE
+@Documented
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface Scheduling {
+    RequestPriority value();
+}
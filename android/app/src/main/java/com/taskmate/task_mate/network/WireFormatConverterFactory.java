@@ -0,0 +1,173 @@
+package com.taskmate.task_mate.network;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonIOException;
+import com.google.gson.JsonPrimitive;
+import com.google.gson.JsonSyntaxException;
+import com.google.gson.TypeAdapter;
+import com.google.gson.TypeAdapterFactory;
+import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+import com.taskmate.task_mate.perf.PerfSection;
+import com.taskmate.task_mate.perf.PerfTrace;
+
+import java.io.IOException;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import okhttp3.MediaType;
+import okhttp3.RequestBody;
+import okhttp3.ResponseBody;
+import retrofit2.Converter;
+import retrofit2.Retrofit;
+import retrofit2.converter.gson.GsonConverterFactory;
+
+// Decodes responses in whichever format the server picked from our Accept
+// header: MessagePack when offered, JSON otherwise. Both go through the same
+// Gson type adapters. Request bodies are always sent as JSON.
+//
+// Gson's own Map adapter reads keys through an internal hook that only works
+// on its JsonReader, so MessagePack bodies decode Map fields with MapAdapter
+// instead. It covers Map, HashMap and LinkedHashMap; other map types (e.g.
+// TreeMap) still fail on MessagePack and belong in a model as one of those.
+public final class WireFormatConverterFactory extends Converter.Factory {
+
+    public static final String MSGPACK_SUBTYPE = "msgpack";
+    public static final String ACCEPT = "application/msgpack, application/json;q=0.9";
+
+    private final Gson gson;
+    private final Gson msgpackGson;
+    private final GsonConverterFactory jsonFactory;
+
+    public static WireFormatConverterFactory create() {
+        return create(new Gson());
+    }
+
+    public static WireFormatConverterFactory create(Gson gson) {
+        return new WireFormatConverterFactory(gson);
+    }
+
+    private WireFormatConverterFactory(Gson gson) {
+        this.gson = gson;
+        this.msgpackGson = gson.newBuilder().registerTypeAdapterFactory(new MapAdapterFactory()).create();
+        this.jsonFactory = GsonConverterFactory.create(gson);
+    }
+
+    @Override
+    public Converter<ResponseBody, ?> responseBodyConverter(Type type, Annotation[] annotations, Retrofit retrofit) {
+        TypeAdapter<?> adapter = msgpackGson.getAdapter(TypeToken.get(type));
+        Converter<ResponseBody, ?> json = jsonFactory.responseBodyConverter(type, annotations, retrofit);
+        return new NegotiatedConverter<>(adapter, json);
+    }
+
+    @Override
+    public Converter<?, RequestBody> requestBodyConverter(Type type, Annotation[] parameterAnnotations,
+                                                          Annotation[] methodAnnotations, Retrofit retrofit) {
+        return jsonFactory.requestBodyConverter(type, parameterAnnotations, methodAnnotations, retrofit);
+    }
+
+    public static boolean isMessagePack(MediaType contentType) {
+        return contentType != null && (MSGPACK_SUBTYPE.equals(contentType.subtype())
+                || ("x-" + MSGPACK_SUBTYPE).equals(contentType.subtype()));
+    }
+
+    private static final class NegotiatedConverter<T> implements Converter<ResponseBody, T> {
+        private final TypeAdapter<T> adapter;
+        private final Converter<ResponseBody, T> json;
+
+        @SuppressWarnings("unchecked")
+        NegotiatedConverter(TypeAdapter<?> adapter, Converter<ResponseBody, ?> json) {
+            this.adapter = (TypeAdapter<T>) adapter;
+            this.json = (Converter<ResponseBody, T>) json;
+        }
+
+        @Override
+        public T convert(ResponseBody body) throws IOException {
+            long start = PerfTrace.begin(PerfSection.PARSE);
+            try {
+                return decode(body);
+            } finally {
+                PerfTrace.end(PerfSection.PARSE, start);
+            }
+        }
+
+        private T decode(ResponseBody body) throws IOException {
+            if (!isMessagePack(body.contentType())) {
+                return json.convert(body);
+            }
+            try (MessagePackReader reader = new MessagePackReader(body.byteStream())) {
+                T result = adapter.read(reader);
+                if (reader.peek() != JsonToken.END_DOCUMENT) {
+                    throw new JsonIOException("MessagePack document was not fully consumed.");
+                }
+                return result;
+            } finally {
+                body.close();
+            }
+        }
+    }
+
+    // Maps read through nextName(), which MessagePackReader implements; keys
+    // are converted from the name as Gson does for JSON object keys
+    private static final class MapAdapterFactory implements TypeAdapterFactory {
+        @Override
+        public <T> TypeAdapter<T> create(Gson gson, TypeToken<T> type) {
+            Class<? super T> raw = type.getRawType();
+            if (!Map.class.isAssignableFrom(raw) || !raw.isAssignableFrom(LinkedHashMap.class)) return null;
+            Type keyType = Object.class;
+            Type valueType = Object.class;
+            if (type.getType() instanceof ParameterizedType) {
+                Type[] arguments = ((ParameterizedType) type.getType()).getActualTypeArguments();
+                keyType = arguments[0];
+                valueType = arguments[1];
+            }
+            TypeAdapter<?> keys = keyType == Object.class
+                    ? gson.getAdapter(String.class) : gson.getAdapter(TypeToken.get(keyType));
+            TypeAdapter<?> values = gson.getAdapter(TypeToken.get(valueType));
+            @SuppressWarnings("unchecked")
+            TypeAdapter<T> adapter = (TypeAdapter<T>) new MapAdapter<>(keys, values, gson.getDelegateAdapter(this, type));
+            return adapter;
+        }
+    }
+
+    private static final class MapAdapter<K, V> extends TypeAdapter<Map<K, V>> {
+        private final TypeAdapter<K> keys;
+        private final TypeAdapter<V> values;
+        private final TypeAdapter<Map<K, V>> writer;
+
+        @SuppressWarnings("unchecked")
+        MapAdapter(TypeAdapter<?> keys, TypeAdapter<?> values, TypeAdapter<?> writer) {
+            this.keys = (TypeAdapter<K>) keys;
+            this.values = (TypeAdapter<V>) values;
+            this.writer = (TypeAdapter<Map<K, V>>) writer;
+        }
+
+        @Override
+        public Map<K, V> read(JsonReader in) throws IOException {
+            if (in.peek() == JsonToken.NULL) {
+                in.nextNull();
+                return null;
+            }
+            Map<K, V> map = new LinkedHashMap<>();
+            in.beginObject();
+            while (in.hasNext()) {
+                K key = keys.fromJsonTree(new JsonPrimitive(in.nextName()));
+                if (map.put(key, values.read(in)) != null) {
+                    throw new JsonSyntaxException("Duplicate key " + key + " at " + in.getPath());
+                }
+            }
+            in.endObject();
+            return map;
+        }
+
+        @Override
+        public void write(JsonWriter out, Map<K, V> value) throws IOException {
+            writer.write(out, value);
+        }
+    }
+}
@@ -0,0 +1,187 @@
+package com.taskmate.task_mate.network;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Named, bounded background pools, shared app-wide so work off the main
+// thread neither starts threads of its own nor piles up unseen:
+// - DECODE: images downloaded and decoded for views
+// - DISK: coalesced file writes; one thread, so writes stay in order
+// - COMPUTE: callbacks of ApiClient.getBackgroundApiService(), which turn a
+//   response into what the main thread only has to publish
+// Each has a fixed number of threads and room for `capacity` waiting tasks.
+// What happens past that is the pool's Overflow: DECODE and DISK are fed from
+// the main thread, so execute() throws RejectedExecutionException and the
+// submitter decides whether the work can be dropped or tried again later.
+// COMPUTE is fed by OkHttp's threads, which run the callback themselves
+// instead, slowing further responses down rather than losing one.
+//
+// Bulk export/import and attachment transfers keep threads of their own: each
+// is one long, network-bound job the user started, running for minutes, and
+// the managers run one (bulk) or two (attachments) at a time. On DISK one
+// would hold up every other write; on COMPUTE it would hold up responses.
+public final class WorkPool implements Executor {
+
+    public enum Overflow {
+        REJECT,
+        // Not for pools the main thread submits to
+        RUN_ON_CALLER
+    }
+
+    public static final WorkPool DECODE = new WorkPool("decode", 2, 64, Thread.MIN_PRIORITY, Overflow.REJECT);
+    public static final WorkPool DISK = new WorkPool("disk", 1, 64, Thread.NORM_PRIORITY, Overflow.REJECT);
+    public static final WorkPool COMPUTE = new WorkPool("compute",
+            Math.max(1, Math.min(4, Runtime.getRuntime().availableProcessors() - 1)), 128, Thread.NORM_PRIORITY,
+            Overflow.RUN_ON_CALLER);
+
+    private final String name;
+    private final int threads;
+    private final int capacity;
+    private final Overflow overflow;
+    private final ThreadPoolExecutor executor;
+    // Since the last reset
+    private int peakDepth;
+    private long completed;
+    private long overflowed;
+    private long totalWaitNanos;
+    private long maxWaitNanos;
+    private long totalRunNanos;
+
+    public WorkPool(String name, int threads, int capacity, int priority, Overflow overflow) {
+        this.name = name;
+        this.threads = threads;
+        this.capacity = capacity;
+        this.overflow = overflow;
+        AtomicInteger count = new AtomicInteger();
+        executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(capacity), r -> {
+                    Thread thread = new Thread(r, name + "-" + count.incrementAndGet());
+                    thread.setDaemon(true);
+                    thread.setPriority(priority);
+                    return thread;
+                });
+    }
+
+    public static List<WorkPool> all() {
+        return Arrays.asList(DECODE, DISK, COMPUTE);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public void execute(Runnable command) {
+        long queuedAt = System.nanoTime();
+        try {
+            executor.execute(() -> run(command, queuedAt));
+        } catch (RejectedExecutionException e) {
+            synchronized (this) {
+                overflowed++;
+            }
+            if (overflow == Overflow.REJECT) {
+                throw new RejectedExecutionException(name + " pool is full (" + capacity + " waiting)", e);
+            }
+            run(command, queuedAt);
+            return;
+        }
+        int depth = executor.getQueue().size();
+        synchronized (this) {
+            if (depth > peakDepth) peakDepth = depth;
+        }
+    }
+
+    // Tasks waiting for a thread right now
+    public int getQueueDepth() {
+        return executor.getQueue().size();
+    }
+
+    private void run(Runnable command, long queuedAt) {
+        long startedAt = System.nanoTime();
+        try {
+            command.run();
+        } finally {
+            finished(startedAt - queuedAt, System.nanoTime() - startedAt);
+        }
+    }
+
+    private synchronized void finished(long waitNanos, long runNanos) {
+        completed++;
+        totalWaitNanos += waitNanos;
+        totalRunNanos += runNanos;
+        if (waitNanos > maxWaitNanos) maxWaitNanos = waitNanos;
+    }
+
+    public synchronized Stats getStats() {
+        return new Stats(name, threads, capacity, executor.getActiveCount(), getQueueDepth(), peakDepth,
+                completed, overflowed, totalWaitNanos, maxWaitNanos, totalRunNanos);
+    }
+
+    public synchronized void resetStats() {
+        peakDepth = getQueueDepth();
+        completed = 0;
+        overflowed = 0;
+        totalWaitNanos = 0;
+        maxWaitNanos = 0;
+        totalRunNanos = 0;
+    }
+
+    public static final class Stats {
+        private final String name;
+        private final int threads;
+        private final int capacity;
+        private final int active;
+        private final int depth;
+        private final int peakDepth;
+        private final long completed;
+        private final long overflowed;
+        private final double averageWaitMs;
+        private final double maxWaitMs;
+        private final double averageRunMs;
+
+        Stats(String name, int threads, int capacity, int active, int depth, int peakDepth, long completed,
+              long overflowed, long totalWaitNanos, long maxWaitNanos, long totalRunNanos) {
+            this.name = name;
+            this.threads = threads;
+            this.capacity = capacity;
+            this.active = active;
+            this.depth = depth;
+            this.peakDepth = peakDepth;
+            this.completed = completed;
+            this.overflowed = overflowed;
+            this.averageWaitMs = completed == 0 ? 0 : totalWaitNanos / 1e6 / completed;
+            this.maxWaitMs = maxWaitNanos / 1e6;
+            this.averageRunMs = completed == 0 ? 0 : totalRunNanos / 1e6 / completed;
+        }
+
+        public String getName() { return name; }
+        public int getThreads() { return threads; }
+        public int getCapacity() { return capacity; }
+        public int getActive() { return active; }
+        // Waiting now, and the most that have waited at once
+        public int getDepth() { return depth; }
+        public int getPeakDepth() { return peakDepth; }
+        public long getCompleted() { return completed; }
+        // Found the queue full: rejected, or run by the submitter
+        public long getOverflowed() { return overflowed; }
+        public double getAverageWaitMs() { return averageWaitMs; }
+        public double getMaxWaitMs() { return maxWaitMs; }
+        public double getAverageRunMs() { return averageRunMs; }
+
+        @Override
+        public String toString() {
+            return String.format(Locale.US,
+                    "%s: %d/%d busy, %d queued (peak %d of %d), %d done, %d overflowed, "
+                            + "wait avg %.1f / max %.1f ms, run avg %.1f ms",
+                    name, active, threads, depth, peakDepth, capacity, completed, overflowed,
+                    averageWaitMs, maxWaitMs, averageRunMs);
+        }
+    }
+}
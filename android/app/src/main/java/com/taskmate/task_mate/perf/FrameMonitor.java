@@ -0,0 +1,70 @@
+package com.taskmate.task_mate.perf;
+
+import android.view.Choreographer;
+import android.view.Display;
+import android.view.View;
+
+import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.RecyclerView;
+
+// Records frame intervals for a list while it is being scrolled. Frame
+// callbacks are only posted during a scroll and only while tracing is on,
+// so an idle or untraced list costs nothing.
+public class FrameMonitor extends RecyclerView.OnScrollListener implements Choreographer.FrameCallback {
+
+    private RecyclerView recyclerView;
+    private boolean running;
+    private long lastFrameNanos;
+
+    public void attach(RecyclerView recyclerView) {
+        this.recyclerView = recyclerView;
+        recyclerView.addOnScrollListener(this);
+    }
+
+    public void detach() {
+        stop();
+        if (recyclerView != null) {
+            recyclerView.removeOnScrollListener(this);
+            recyclerView = null;
+        }
+    }
+
+    // One refresh interval of the list's display, for jank thresholds
+    public static long frameBudgetNanos(View view) {
+        Display display = view != null ? view.getDisplay() : null;
+        float rate = display != null ? display.getRefreshRate() : 60f;
+        return (long) (1_000_000_000L / (rate > 0 ? rate : 60f));
+    }
+
+    @Override
+    public void onScrollStateChanged(@NonNull RecyclerView view, int newState) {
+        if (newState != RecyclerView.SCROLL_STATE_IDLE && PerfTrace.isEnabled()) {
+            start();
+        } else {
+            stop();
+        }
+    }
+
+    @Override
+    public void doFrame(long frameTimeNanos) {
+        if (!running) return;
+        if (lastFrameNanos != 0) {
+            PerfTrace.record(PerfSection.FRAME, lastFrameNanos, frameTimeNanos - lastFrameNanos, null);
+        }
+        lastFrameNanos = frameTimeNanos;
+        Choreographer.getInstance().postFrameCallback(this);
+    }
+
+    private void start() {
+        if (running) return;
+        running = true;
+        lastFrameNanos = 0;
+        Choreographer.getInstance().postFrameCallback(this);
+    }
+
+    private void stop() {
+        if (!running) return;
+        running = false;
+        Choreographer.getInstance().removeFrameCallback(this);
+    }
+}
@@ -0,0 +1,69 @@
+package com.taskmate.task_mate.perf;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.os.SystemClock;
+
+// Background thread that pings the main looper and records a STALL sample,
+// with the main thread's stack at the time, whenever a ping waits longer
+// than the threshold.
+class MainThreadWatchdog implements Runnable {
+
+    private static final int STACK_DEPTH = 12;
+
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    private final long thresholdMs;
+    private volatile Thread thread;
+    private volatile long answeredAt;
+
+    private final Runnable ping = () -> answeredAt = System.nanoTime();
+
+    MainThreadWatchdog(long thresholdMs) {
+        this.thresholdMs = thresholdMs;
+    }
+
+    synchronized void start() {
+        if (thread != null) return;
+        thread = new Thread(this, "main-thread-watchdog");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    synchronized void stop() {
+        if (thread == null) return;
+        thread.interrupt();
+        thread = null;
+    }
+
+    @Override
+    public void run() {
+        Thread self = Thread.currentThread();
+        while (thread == self) {
+            long postedAt = System.nanoTime();
+            answeredAt = 0;
+            mainHandler.post(ping);
+            SystemClock.sleep(thresholdMs);
+            if (answeredAt == 0 && thread == self) {
+                String stack = mainStack();
+                // Wait for the main thread to come back so the sample has the full stall length
+                while (answeredAt == 0 && thread == self) {
+                    SystemClock.sleep(16);
+                }
+                if (answeredAt != 0) {
+                    PerfTrace.record(PerfSection.STALL, postedAt, answeredAt - postedAt, stack);
+                }
+            }
+        }
+        mainHandler.removeCallbacks(ping);
+    }
+
+    private static String mainStack() {
+        StackTraceElement[] frames = Looper.getMainLooper().getThread().getStackTrace();
+        StringBuilder stack = new StringBuilder();
+        for (int i = 0; i < Math.min(STACK_DEPTH, frames.length); i++) {
+            if (i > 0) stack.append(" <- ");
+            stack.append(frames[i]);
+        }
+        return stack.toString();
+    }
+}
@@ -0,0 +1,76 @@
+package com.taskmate.task_mate.perf;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+import android.content.pm.ApplicationInfo;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+// Owns the on/off switch (persisted) and the main-thread watchdog, and
+// exports the recorded samples. Only offered in debuggable builds.
+public class PerfMonitor {
+
+    private static final String PREFS = "perf_monitor";
+    private static final String KEY_ENABLED = "enabled";
+    private static final long STALL_THRESHOLD_MS = 200;
+
+    private static PerfMonitor instance;
+
+    private final Context appContext;
+    private final SharedPreferences prefs;
+    private final MainThreadWatchdog watchdog = new MainThreadWatchdog(STALL_THRESHOLD_MS);
+
+    public static synchronized PerfMonitor getInstance(Context context) {
+        if (instance == null) {
+            instance = new PerfMonitor(context.getApplicationContext());
+        }
+        return instance;
+    }
+
+    private PerfMonitor(Context appContext) {
+        this.appContext = appContext;
+        this.prefs = appContext.getSharedPreferences(PREFS, Context.MODE_PRIVATE);
+        apply(isAvailable() && prefs.getBoolean(KEY_ENABLED, false));
+    }
+
+    public boolean isAvailable() {
+        return (appContext.getApplicationInfo().flags & ApplicationInfo.FLAG_DEBUGGABLE) != 0;
+    }
+
+    public boolean isEnabled() {
+        return PerfTrace.isEnabled();
+    }
+
+    public void setEnabled(boolean enabled) {
+        prefs.edit().putBoolean(KEY_ENABLED, enabled).apply();
+        apply(enabled && isAvailable());
+    }
+
+    private void apply(boolean enabled) {
+        PerfTrace.setEnabled(enabled);
+        if (enabled) {
+            watchdog.start();
+        } else {
+            watchdog.stop();
+        }
+    }
+
+    // Writes the ring buffer as CSV to the app's external files dir (adb pull-able)
+    public File export() throws IOException {
+        File dir = appContext.getExternalFilesDir("perf");
+        if (dir == null) dir = new File(appContext.getFilesDir(), "perf");
+        if (!dir.exists() && !dir.mkdirs()) {
+            throw new IOException("Cannot create " + dir);
+        }
+        File file = new File(dir, "perf-" + System.currentTimeMillis() + ".csv");
+        try (Writer out = new OutputStreamWriter(new FileOutputStream(file), StandardCharsets.UTF_8)) {
+            PerfTrace.getRecorder().writeCsv(out);
+        }
+        return file;
+    }
+}
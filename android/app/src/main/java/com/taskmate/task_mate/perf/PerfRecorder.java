@@ -0,0 +1,132 @@
+package com.taskmate.task_mate.perf;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+// Fixed-size ring of the most recent samples. Samples live in parallel
+// primitive arrays, so recording one allocates nothing (stall stacks aside).
+public class PerfRecorder {
+
+    private static final PerfSection[] SECTIONS = PerfSection.values();
+
+    private final byte[] sections;
+    private final long[] starts;
+    private final long[] durations;
+    private final String[] details;
+    private long total;
+
+    public PerfRecorder(int capacity) {
+        sections = new byte[capacity];
+        starts = new long[capacity];
+        durations = new long[capacity];
+        details = new String[capacity];
+    }
+
+    public synchronized void record(PerfSection section, long startNanos, long durationNanos, String detail) {
+        int slot = (int) (total++ % sections.length);
+        sections[slot] = (byte) section.ordinal();
+        starts[slot] = startNanos;
+        durations[slot] = durationNanos;
+        details[slot] = detail;
+    }
+
+    public synchronized int size() {
+        return (int) Math.min(total, sections.length);
+    }
+
+    // Samples ever recorded, including those overwritten since
+    public synchronized long getTotal() {
+        return total;
+    }
+
+    public synchronized void clear() {
+        total = 0;
+        Arrays.fill(details, null);
+    }
+
+    // Oldest first
+    public synchronized List<PerfSample> snapshot() {
+        int size = size();
+        List<PerfSample> samples = new ArrayList<>(size);
+        for (long i = total - size; i < total; i++) {
+            int slot = (int) (i % sections.length);
+            samples.add(new PerfSample(SECTIONS[sections[slot]], starts[slot], durations[slot], details[slot]));
+        }
+        return samples;
+    }
+
+    // Per-section count, percentiles and how many samples went over budget
+    public Map<PerfSection, Stats> summarize(long frameBudgetNanos) {
+        Map<PerfSection, long[]> bySection = new EnumMap<>(PerfSection.class);
+        Map<PerfSection, Integer> counts = new EnumMap<>(PerfSection.class);
+        List<PerfSample> samples = snapshot();
+        for (PerfSample sample : samples) {
+            counts.merge(sample.getSection(), 1, Integer::sum);
+        }
+        for (Map.Entry<PerfSection, Integer> entry : counts.entrySet()) {
+            bySection.put(entry.getKey(), new long[entry.getValue()]);
+            entry.setValue(0);
+        }
+        for (PerfSample sample : samples) {
+            int index = counts.merge(sample.getSection(), 1, Integer::sum) - 1;
+            bySection.get(sample.getSection())[index] = sample.getDurationNanos();
+        }
+
+        Map<PerfSection, Stats> stats = new EnumMap<>(PerfSection.class);
+        for (Map.Entry<PerfSection, long[]> entry : bySection.entrySet()) {
+            stats.put(entry.getKey(), new Stats(entry.getValue(), frameBudgetNanos));
+        }
+        return stats;
+    }
+
+    public void writeCsv(Writer out) throws IOException {
+        out.write("section,start_ns,duration_ns,detail\n");
+        for (PerfSample sample : snapshot()) {
+            out.write(sample.getSection().getLabel());
+            out.write(',');
+            out.write(Long.toString(sample.getStartNanos()));
+            out.write(',');
+            out.write(Long.toString(sample.getDurationNanos()));
+            out.write(',');
+            if (sample.getDetail() != null) {
+                out.write('"');
+                out.write(sample.getDetail().replace("\"", "\"\""));
+                out.write('"');
+            }
+            out.write('\n');
+        }
+        out.flush();
+    }
+
+    public static class Stats {
+        public final int count;
+        public final long p50Nanos;
+        public final long p95Nanos;
+        public final long maxNanos;
+        // Samples longer than one frame: janky frames, or work that could cause one
+        public final int overBudget;
+
+        Stats(long[] durations, long frameBudgetNanos) {
+            Arrays.sort(durations);
+            count = durations.length;
+            p50Nanos = durations[(count - 1) / 2];
+            p95Nanos = durations[(int) Math.ceil(count * 0.95) - 1];
+            maxNanos = durations[count - 1];
+            int over = 0;
+            for (int i = count - 1; i >= 0 && durations[i] > frameBudgetNanos; i--) over++;
+            overBudget = over;
+        }
+
+        @Override
+        public String toString() {
+            return String.format(Locale.US, "%d samples, p50 %.2f ms, p95 %.2f ms, max %.2f ms, %d over budget",
+                    count, p50Nanos / 1e6, p95Nanos / 1e6, maxNanos / 1e6, overBudget);
+        }
+    }
+}
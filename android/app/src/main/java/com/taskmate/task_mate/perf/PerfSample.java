@@ -0,0 +1,21 @@
+package com.taskmate.task_mate.perf;
+
+public class PerfSample {
+    private final PerfSection section;
+    private final long startNanos;
+    private final long durationNanos;
+    private final String detail;
+
+    public PerfSample(PerfSection section, long startNanos, long durationNanos, String detail) {
+        this.section = section;
+        this.startNanos = startNanos;
+        this.durationNanos = durationNanos;
+        this.detail = detail;
+    }
+
+    // Getters
+    public PerfSection getSection() { return section; }
+    public long getStartNanos() { return startNanos; }
+    public long getDurationNanos() { return durationNanos; }
+    public String getDetail() { return detail; }
+}
@@ -0,0 +1,20 @@
+package com.taskmate.task_mate.perf;
+
+// What a performance sample measured. The label doubles as the systrace section name.
+public enum PerfSection {
+    FRAME("TaskList.frame"),
+    BIND("TaskAdapter.bind"),
+    DIFF("TaskAdapter.diff"),
+    PARSE("Response.parse"),
+    CALLBACK("Network.callback"),
+    STALL("MainThread.stall"),
+    FIRST_PAINT("TaskList.firstPaint");
+
+    private final String label;
+
+    PerfSection(String label) {
+        this.label = label;
+    }
+
+    public String getLabel() { return label; }
+}
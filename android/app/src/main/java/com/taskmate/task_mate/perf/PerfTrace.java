@@ -0,0 +1,59 @@
+package com.taskmate.task_mate.perf;
+
+import android.os.Trace;
+
+// Hot-path entry points for instrumentation. While disabled each call is a
+// single volatile read and nothing is allocated or recorded.
+//
+//   long start = PerfTrace.begin(PerfSection.BIND);
+//   ... work ...
+//   PerfTrace.end(PerfSection.BIND, start);
+public final class PerfTrace {
+
+    public static final int CAPACITY = 4096;
+
+    private static final PerfRecorder recorder = new PerfRecorder(CAPACITY);
+    private static volatile boolean enabled;
+
+    private PerfTrace() {}
+
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    static void setEnabled(boolean value) {
+        enabled = value;
+    }
+
+    public static PerfRecorder getRecorder() {
+        return recorder;
+    }
+
+    // Same-thread section, also visible in systrace/Perfetto. Returns 0 when disabled
+    public static long begin(PerfSection section) {
+        if (!enabled) return 0;
+        Trace.beginSection(section.getLabel());
+        return System.nanoTime();
+    }
+
+    public static void end(PerfSection section, long start) {
+        if (start == 0) return;
+        Trace.endSection();
+        recorder.record(section, start, System.nanoTime() - start, null);
+    }
+
+    // Start of a span that ends on another thread or callback; 0 when disabled
+    public static long mark() {
+        return enabled ? System.nanoTime() : 0;
+    }
+
+    public static void since(PerfSection section, long mark) {
+        if (mark == 0) return;
+        recorder.record(section, mark, System.nanoTime() - mark, null);
+    }
+
+    public static void record(PerfSection section, long startNanos, long durationNanos, String detail) {
+        if (!enabled) return;
+        recorder.record(section, startNanos, durationNanos, detail);
+    }
+}
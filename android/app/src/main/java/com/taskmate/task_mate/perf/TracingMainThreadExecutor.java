@@ -0,0 +1,29 @@
+package com.taskmate.task_mate.perf;
+
+import android.os.Handler;
+import android.os.Looper;
+
+import java.util.concurrent.Executor;
+
+// Retrofit callback executor: runs callbacks on the main thread like the
+// default one, timing each as a CALLBACK section while tracing is on.
+public class TracingMainThreadExecutor implements Executor {
+
+    private final Handler handler = new Handler(Looper.getMainLooper());
+
+    @Override
+    public void execute(Runnable command) {
+        if (!PerfTrace.isEnabled()) {
+            handler.post(command);
+            return;
+        }
+        handler.post(() -> {
+            long start = PerfTrace.begin(PerfSection.CALLBACK);
+            try {
+                command.run();
+            } finally {
+                PerfTrace.end(PerfSection.CALLBACK, start);
+            }
+        });
+    }
+}
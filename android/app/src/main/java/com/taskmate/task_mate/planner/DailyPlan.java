@@ -0,0 +1,35 @@
+package com.taskmate.task_mate.planner;
+
+import com.taskmate.task_mate.models.Task;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class DailyPlan {
+    private final List<Task> overdue;
+    private final List<Task> today;
+    private final int overdueTotal;
+
+    public DailyPlan(List<Task> overdue, List<Task> today, int overdueTotal) {
+        this.overdue = overdue;
+        this.today = today;
+        this.overdueTotal = overdueTotal;
+    }
+
+    // Getters
+    public List<Task> getOverdue() { return overdue; }
+    public List<Task> getToday() { return today; }
+    public int getOverdueTotal() { return overdueTotal; }
+
+    // Overdue first, then today's work, in ranked order
+    public List<Task> getAll() {
+        List<Task> all = new ArrayList<>(overdue.size() + today.size());
+        all.addAll(overdue);
+        all.addAll(today);
+        return all;
+    }
+
+    public boolean isEmpty() {
+        return overdue.isEmpty() && today.isEmpty();
+    }
+}
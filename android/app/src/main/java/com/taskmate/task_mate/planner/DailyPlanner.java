@@ -0,0 +1,254 @@
+package com.taskmate.task_mate.planner;
+
+import com.taskmate.task_mate.data.TaskRepository;
+import com.taskmate.task_mate.models.Priority;
+import com.taskmate.task_mate.models.Task;
+import com.taskmate.task_mate.recurrence.RecurringSeries;
+import com.taskmate.task_mate.util.DateUtils;
+import com.taskmate.task_mate.util.IndexedMinHeap;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+
+// On-device "Today" planner. Pending tasks live in indexed heaps so a single
+// task change costs O(log n) and building the plan costs O(k log k) for the k
+// tasks shown, regardless of how many tasks the user has.
+//
+// Ranking:
+//  - overdue tasks come first, ordered by priority and then by how late they are
+//  - everything else is ordered by an "effective due time": the due date pulled
+//    earlier by a lead time for its priority and category, so a high priority
+//    task due in two days is planned today ahead of a low priority one
+//  - tasks without a due date fill whatever room the dated ones leave, by
+//    priority and then oldest first
+//
+// Used from the main thread, except that a full load is indexed into a new
+// planner on a worker (prepareReplace) and only swapped in on the main thread.
+public class DailyPlanner implements TaskRepository.Preparing {
+
+    public static final int DEFAULT_PLAN_SIZE = 20;
+
+    private static final long HIGH_PRIORITY_LEAD_MS = 2 * DateUtils.DAY_MS;
+    private static final long MEDIUM_PRIORITY_LEAD_MS = 12 * DateUtils.HOUR_MS;
+    private static final long PRIORITY_RANK_SHIFT = 1L << 50;
+
+    private static DailyPlanner instance;
+
+    private final LongSupplier clock;
+    // Read by prepareReplace on a worker
+    private final Map<String, Long> categoryLeads = new ConcurrentHashMap<>();
+    // Replaced wholesale by a prepared full load
+    private Map<String, Task> tasksById = new HashMap<>();
+    private Map<String, Long> dueTimes = new HashMap<>();
+    // Not yet overdue, by effective due time
+    private IndexedMinHeap<String> upcoming = new IndexedMinHeap<>();
+    // No due date, by priority then creation time
+    private IndexedMinHeap<String> undated = new IndexedMinHeap<>();
+    // Overdue, by priority then due time
+    private IndexedMinHeap<String> overdue = new IndexedMinHeap<>();
+    // Dated upcoming tasks by raw due time, to find the ones that just became overdue
+    private IndexedMinHeap<String> dueWatch = new IndexedMinHeap<>();
+
+    public static synchronized DailyPlanner getInstance() {
+        if (instance == null) {
+            instance = new DailyPlanner(System::currentTimeMillis);
+            TaskRepository.getInstance().addListener(instance);
+        }
+        return instance;
+    }
+
+    public DailyPlanner(LongSupplier clock) {
+        this.clock = clock;
+    }
+
+    public int size() {
+        return tasksById.size();
+    }
+
+    public DailyPlan planForToday() {
+        long now = clock.getAsLong();
+        return plan(now, DateUtils.endOfLocalDay(now), DEFAULT_PLAN_SIZE);
+    }
+
+    // Builds the plan for [now, horizon): every overdue task first (up to limit),
+    // then upcoming tasks whose effective due time falls before the horizon,
+    // then undated tasks in the slots that are left
+    public DailyPlan plan(long now, long horizon, int limit) {
+        advanceTo(now);
+        List<Task> overdueTasks = resolve(overdue.peekSorted(limit, Long.MAX_VALUE));
+        List<Task> todayTasks = resolve(upcoming.peekSorted(limit - overdueTasks.size(), horizon));
+        int left = limit - overdueTasks.size() - todayTasks.size();
+        if (left > 0) todayTasks.addAll(resolve(undated.peekSorted(left, Long.MAX_VALUE)));
+        return new DailyPlan(overdueTasks, todayTasks, overdue.size());
+    }
+
+    public int getOverdueCount() {
+        advanceTo(clock.getAsLong());
+        return overdue.size();
+    }
+
+    // Pull tasks in a category earlier (e.g. "work" a day ahead). Re-scores only
+    // tasks in that category.
+    public void setCategoryLead(String category, long leadMs) {
+        if (category == null) return;
+        categoryLeads.put(category, leadMs);
+        for (Task task : tasksById.values()) {
+            if (category.equals(task.getCategory()) && upcoming.contains(task.getId())) {
+                upcoming.put(task.getId(), upcomingScore(task, dueTimes.get(task.getId())));
+            }
+        }
+    }
+
+    public void upsert(Task task) {
+        String id = task.getId();
+        if (id == null) return;
+        removeInternal(id);
+        if (!isPlannable(task)) return;
+
+        // A recurring task is planned by its next open occurrence
+        long due = RecurringSeries.effectiveDueDate(task, clock.getAsLong());
+        // A series with no open occurrence left has nothing to plan
+        if (due == DateUtils.NO_DATE && task.isRecurring()) return;
+        tasksById.put(id, task);
+        dueTimes.put(id, due);
+        if (due == DateUtils.NO_DATE) {
+            undated.put(id, undatedScore(task));
+        } else if (due <= clock.getAsLong()) {
+            overdue.put(id, overdueScore(task, due));
+        } else {
+            upcoming.put(id, upcomingScore(task, due));
+            dueWatch.put(id, due);
+        }
+    }
+
+    public void remove(String taskId) {
+        removeInternal(taskId);
+    }
+
+    public void clear() {
+        tasksById.clear();
+        dueTimes.clear();
+        upcoming.clear();
+        undated.clear();
+        overdue.clear();
+        dueWatch.clear();
+    }
+
+    // TaskRepository.Listener implementation
+    @Override
+    public void onTasksReplaced(List<Task> tasks) {
+        clear();
+        for (Task task : tasks) {
+            upsert(task);
+        }
+    }
+
+    // Worker thread: the same rebuild into a new planner, which the swap adopts
+    @Override
+    public Runnable prepareReplace(List<Task> tasks) {
+        DailyPlanner next = new DailyPlanner(clock);
+        next.categoryLeads.putAll(categoryLeads);
+        for (Task task : tasks) {
+            next.upsert(task);
+        }
+        return () -> adopt(next);
+    }
+
+    @Override
+    public void onTasksAppended(List<Task> added) {
+        for (Task task : added) {
+            upsert(task);
+        }
+    }
+
+    @Override
+    public void onTaskUpdated(Task task) {
+        upsert(task);
+    }
+
+    @Override
+    public void onTaskRemoved(String taskId) {
+        remove(taskId);
+    }
+
+    private void adopt(DailyPlanner next) {
+        tasksById = next.tasksById;
+        dueTimes = next.dueTimes;
+        upcoming = next.upcoming;
+        undated = next.undated;
+        overdue = next.overdue;
+        dueWatch = next.dueWatch;
+        // A lead set meanwhile was not in the scores
+        for (Map.Entry<String, Long> lead : categoryLeads.entrySet()) {
+            if (!lead.getValue().equals(next.categoryLeads.get(lead.getKey()))) {
+                setCategoryLead(lead.getKey(), lead.getValue());
+            }
+        }
+    }
+
+    // Moves tasks whose due time has passed from upcoming to overdue; only the
+    // tasks that actually crossed are touched
+    private void advanceTo(long now) {
+        while (!dueWatch.isEmpty() && dueWatch.peekScore() <= now) {
+            String id = dueWatch.poll();
+            upcoming.remove(id);
+            overdue.put(id, overdueScore(tasksById.get(id), dueTimes.get(id)));
+        }
+    }
+
+    private void removeInternal(String id) {
+        if (tasksById.remove(id) == null) return;
+        dueTimes.remove(id);
+        upcoming.remove(id);
+        undated.remove(id);
+        overdue.remove(id);
+        dueWatch.remove(id);
+    }
+
+    private boolean isPlannable(Task task) {
+        return task.isActive();
+    }
+
+    private long upcomingScore(Task task, long due) {
+        long lead = priorityLead(task.getPriority()) + categoryLead(task.getCategory());
+        return due - lead;
+    }
+
+    private long undatedScore(Task task) {
+        return priorityRank(task.getPriority()) * PRIORITY_RANK_SHIFT + Math.max(task.getCreatedAt(), 0L);
+    }
+
+    private long overdueScore(Task task, long due) {
+        return priorityRank(task.getPriority()) * PRIORITY_RANK_SHIFT + due;
+    }
+
+    private long categoryLead(String category) {
+        Long lead = category != null ? categoryLeads.get(category) : null;
+        return lead != null ? lead : 0L;
+    }
+
+    private static long priorityLead(Priority priority) {
+        switch (priority) {
+            case HIGH: return HIGH_PRIORITY_LEAD_MS;
+            case LOW: return 0L;
+            default: return MEDIUM_PRIORITY_LEAD_MS;
+        }
+    }
+
+    // High first
+    private static long priorityRank(Priority priority) {
+        return Priority.HIGH.ordinal() - priority.ordinal();
+    }
+
+    private List<Task> resolve(List<String> ids) {
+        List<Task> result = new ArrayList<>(ids.size());
+        for (String id : ids) {
+            result.add(tasksById.get(id));
+        }
+        return result;
+    }
+}
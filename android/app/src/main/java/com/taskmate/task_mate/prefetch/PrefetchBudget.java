@@ -0,0 +1,87 @@
+package com.taskmate.task_mate.prefetch;
+
+import android.content.Context;
+import android.net.ConnectivityManager;
+
+import java.util.ArrayDeque;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+// Caps what fetching ahead may cost per rolling minute, in requests and in
+// response bytes. On a metered network the caps are a quarter and task records
+// aren't warmed at all, only the next page, which the user is about to need
+// anyway. With Data Saver on, or no network, nothing is fetched ahead.
+public class PrefetchBudget {
+
+    public enum Network { UNMETERED, METERED, RESTRICTED }
+
+    public enum Kind { PAGE, RECORD }
+
+    static final long WINDOW_MS = 60_000;
+    static final int MAX_REQUESTS = 40;
+    static final long MAX_BYTES = 512 * 1024;
+    static final int METERED_DIVISOR = 4;
+
+    private final Supplier<Network> network;
+    private final LongSupplier clock;
+    // Prefetches started in the window, oldest first
+    private final ArrayDeque<Spend> window = new ArrayDeque<>();
+    private long bytesInWindow;
+
+    public PrefetchBudget(Supplier<Network> network, LongSupplier clock) {
+        this.network = network;
+        this.clock = clock;
+    }
+
+    public static Network networkOf(Context context) {
+        ConnectivityManager connectivity = context.getSystemService(ConnectivityManager.class);
+        if (connectivity == null || connectivity.getActiveNetwork() == null) return Network.RESTRICTED;
+        if (connectivity.getRestrictBackgroundStatus() == ConnectivityManager.RESTRICT_BACKGROUND_STATUS_ENABLED) {
+            return Network.RESTRICTED;
+        }
+        return connectivity.isActiveNetworkMetered() ? Network.METERED : Network.UNMETERED;
+    }
+
+    // Room for a prefetch expected to cost estimatedBytes, or null if it
+    // doesn't fit; settle() the result once the real size is known
+    public synchronized Spend tryAcquire(Kind kind, long estimatedBytes) {
+        Network current = network.get();
+        if (current == Network.RESTRICTED) return null;
+        if (current == Network.METERED && kind == Kind.RECORD) return null;
+        int divisor = current == Network.METERED ? METERED_DIVISOR : 1;
+
+        long now = clock.getAsLong();
+        while (!window.isEmpty() && window.peekFirst().at <= now - WINDOW_MS) {
+            bytesInWindow -= window.pollFirst().bytes;
+        }
+        if (window.size() >= MAX_REQUESTS / divisor) return null;
+        if (bytesInWindow + estimatedBytes > MAX_BYTES / divisor) return null;
+
+        Spend spend = new Spend(now, estimatedBytes);
+        window.addLast(spend);
+        bytesInWindow += estimatedBytes;
+        return spend;
+    }
+
+    // Replaces the estimate with what the response actually cost
+    public synchronized void settle(Spend spend, long actualBytes) {
+        if (window.contains(spend)) bytesInWindow += actualBytes - spend.bytes;
+        spend.bytes = actualBytes;
+    }
+
+    public synchronized long getBytesInWindow() {
+        return bytesInWindow;
+    }
+
+    public static final class Spend {
+        private final long at;
+        private long bytes;
+
+        Spend(long at, long bytes) {
+            this.at = at;
+            this.bytes = bytes;
+        }
+
+        public long getBytes() { return bytes; }
+    }
+}
@@ -0,0 +1,90 @@
+package com.taskmate.task_mate.prefetch;
+
+import java.util.Locale;
+
+// What fetching ahead has bought since the last reset, for tuning the budget.
+// A hit was served from what had been fetched ahead, a join attached to a
+// prefetch still in flight, a miss went to the network itself. Unused counts
+// prefetches that expired or were evicted before anyone asked for them.
+public final class PrefetchStats {
+
+    // Slots of the counter array the prefetcher keeps
+    static final int RECORD_HITS = 0;
+    static final int RECORD_JOINS = 1;
+    static final int RECORD_MISSES = 2;
+    static final int PAGE_HITS = 3;
+    static final int PAGE_JOINS = 4;
+    static final int PAGE_MISSES = 5;
+    static final int STARTED = 6;
+    static final int CANCELLED = 7;
+    static final int FAILED = 8;
+    static final int OVER_BUDGET = 9;
+    static final int UNUSED = 10;
+    static final int BYTES = 11;
+    static final int COUNTERS = 12;
+
+    private final long recordHits;
+    private final long recordJoins;
+    private final long recordMisses;
+    private final long pageHits;
+    private final long pageJoins;
+    private final long pageMisses;
+    private final long started;
+    private final long cancelled;
+    private final long failed;
+    private final long overBudget;
+    private final long unused;
+    private final long bytes;
+
+    PrefetchStats(long[] counts) {
+        recordHits = counts[RECORD_HITS];
+        recordJoins = counts[RECORD_JOINS];
+        recordMisses = counts[RECORD_MISSES];
+        pageHits = counts[PAGE_HITS];
+        pageJoins = counts[PAGE_JOINS];
+        pageMisses = counts[PAGE_MISSES];
+        started = counts[STARTED];
+        cancelled = counts[CANCELLED];
+        failed = counts[FAILED];
+        overBudget = counts[OVER_BUDGET];
+        unused = counts[UNUSED];
+        bytes = counts[BYTES];
+    }
+
+    public long getRecordHits() { return recordHits; }
+    public long getRecordJoins() { return recordJoins; }
+    public long getRecordMisses() { return recordMisses; }
+    public long getPageHits() { return pageHits; }
+    public long getPageJoins() { return pageJoins; }
+    public long getPageMisses() { return pageMisses; }
+    public long getStarted() { return started; }
+    public long getCancelled() { return cancelled; }
+    public long getFailed() { return failed; }
+    public long getOverBudget() { return overBudget; }
+    public long getUnused() { return unused; }
+    public long getBytes() { return bytes; }
+
+    // Share of requests that didn't have to wait for a fresh round-trip
+    public double getRecordHitRate() {
+        return rate(recordHits + recordJoins, recordMisses);
+    }
+
+    public double getPageHitRate() {
+        return rate(pageHits + pageJoins, pageMisses);
+    }
+
+    private static double rate(long served, long missed) {
+        return served + missed == 0 ? 0 : (double) served / (served + missed);
+    }
+
+    @Override
+    public String toString() {
+        return String.format(Locale.US,
+                "records: %d hits, %d joined, %d misses (%.0f%%)%n"
+                        + "pages: %d hits, %d joined, %d misses (%.0f%%)%n"
+                        + "%d fetched ahead, %.1f KB, %d cancelled, %d failed, %d over budget, %d unused",
+                recordHits, recordJoins, recordMisses, getRecordHitRate() * 100,
+                pageHits, pageJoins, pageMisses, getPageHitRate() * 100,
+                started, bytes / 1024.0, cancelled, failed, overBudget, unused);
+    }
+}
@@ -0,0 +1,164 @@
+package com.taskmate.task_mate.prefetch;
+
+import android.os.SystemClock;
+
+import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.LinearLayoutManager;
+import androidx.recyclerview.widget.RecyclerView;
+
+import com.taskmate.task_mate.models.Task;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+// Drives TaskPrefetcher from how the task list is scrolled:
+// - the next page is fetched once the rows left below the screen are fewer
+//   than the current speed covers in PAGE_LEAD_MS, or than MIN_SCREENS_AHEAD
+//   screens
+// - at rest, or moving slowly enough to read, the full records of the rows on
+//   screen are fetched; rows flung past aren't worth a request
+// - rows that move more than KEEP_MARGIN_ROWS off screen get their record
+//   prefetches cancelled
+// The host is told when the end is close so it can load the next page, which
+// is then usually there already. Speed is in rows per second, smoothed over
+// recent scroll events; positive is towards the end.
+public class ScrollPrefetcher extends RecyclerView.OnScrollListener {
+
+    static final long SETTLE_MS = 150;
+    static final long PAGE_LEAD_MS = 2_000;
+    static final int MIN_SCREENS_AHEAD = 2;
+    static final float READING_ROWS_PER_SECOND = 3f;
+    static final int MAX_RECORDS_PER_WARM = 8;
+    static final int KEEP_MARGIN_ROWS = 5;
+    static final int END_ROWS = 3;
+    private static final float SMOOTHING = 0.3f;
+
+    public interface Host {
+        // Rows in adapter order
+        List<Task> getRows();
+        // Page after the ones loaded, or 0 when there are no more or it is loading
+        int getNextPage();
+        int getPageSize();
+        void onEndReached();
+    }
+
+    private final TaskPrefetcher prefetcher;
+    private final Host host;
+    private RecyclerView attached;
+    private float rowsPerSecond;
+    private long lastScrolledAt;
+    private long lastWarmedAt;
+    private final Runnable settle = this::warmVisibleRecords;
+
+    public ScrollPrefetcher(TaskPrefetcher prefetcher, Host host) {
+        this.prefetcher = prefetcher;
+        this.host = host;
+    }
+
+    public void attach(RecyclerView recyclerView) {
+        detach();
+        attached = recyclerView;
+        recyclerView.addOnScrollListener(this);
+    }
+
+    // Stops listening and cancels what nobody is waiting on
+    public void detach() {
+        if (attached == null) return;
+        attached.removeOnScrollListener(this);
+        attached.removeCallbacks(settle);
+        attached = null;
+        prefetcher.cancelAll();
+    }
+
+    // Records for the rows now on screen, e.g. once a load has filled them in
+    public void warmSoon() {
+        if (attached == null) return;
+        attached.removeCallbacks(settle);
+        attached.postDelayed(settle, SETTLE_MS);
+    }
+
+    @Override
+    public void onScrollStateChanged(@NonNull RecyclerView recyclerView, int newState) {
+        if (newState == RecyclerView.SCROLL_STATE_IDLE) {
+            rowsPerSecond = 0;
+            lastScrolledAt = 0;
+            warmSoon();
+        } else {
+            recyclerView.removeCallbacks(settle);
+        }
+    }
+
+    @Override
+    public void onScrolled(@NonNull RecyclerView recyclerView, int dx, int dy) {
+        LinearLayoutManager layout = (LinearLayoutManager) recyclerView.getLayoutManager();
+        if (layout == null) return;
+        int first = layout.findFirstVisibleItemPosition();
+        int last = layout.findLastVisibleItemPosition();
+        if (first == RecyclerView.NO_POSITION) return;
+        int visible = last - first + 1;
+        int count = layout.getItemCount();
+
+        long now = SystemClock.uptimeMillis();
+        if (dy != 0 && lastScrolledAt > 0 && now > lastScrolledAt && recyclerView.getHeight() > 0) {
+            float rowHeight = (float) recyclerView.getHeight() / visible;
+            float speed = dy / rowHeight * 1000f / (now - lastScrolledAt);
+            rowsPerSecond += (speed - rowsPerSecond) * SMOOTHING;
+        }
+        if (dy != 0) lastScrolledAt = now;
+
+        if (count - 1 - last <= END_ROWS) host.onEndReached();
+        int nextPage = host.getNextPage();
+        if (nextPage > 0 && shouldWarmPage(last, count, visible, rowsPerSecond)) {
+            prefetcher.warmPage(nextPage, host.getPageSize());
+        }
+        if (dy == 0) return;
+        if (prefetcher.hasRecordsInFlight()) {
+            prefetcher.retainRecords(idsIn(host.getRows(), first - KEEP_MARGIN_ROWS, last + KEEP_MARGIN_ROWS));
+        }
+        if (recyclerView.getScrollState() != RecyclerView.SCROLL_STATE_IDLE
+                && shouldWarmRecords(rowsPerSecond) && now - lastWarmedAt >= SETTLE_MS) {
+            warmVisibleRecords();
+        }
+    }
+
+    private void warmVisibleRecords() {
+        if (attached == null || !(attached.getLayoutManager() instanceof LinearLayoutManager)) return;
+        LinearLayoutManager layout = (LinearLayoutManager) attached.getLayoutManager();
+        int first = layout.findFirstVisibleItemPosition();
+        if (first == RecyclerView.NO_POSITION) return;
+        lastWarmedAt = SystemClock.uptimeMillis();
+        prefetcher.warmRecords(recordsToWarm(host.getRows(), first, layout.findLastVisibleItemPosition(),
+                MAX_RECORDS_PER_WARM));
+    }
+
+    // True once the rows left below the screen are fewer than the speed covers
+    // in PAGE_LEAD_MS, or than MIN_SCREENS_AHEAD screens
+    static boolean shouldWarmPage(int lastVisible, int itemCount, int visibleCount, float rowsPerSecond) {
+        int rowsLeft = itemCount - 1 - lastVisible;
+        float lead = Math.max(visibleCount * MIN_SCREENS_AHEAD, rowsPerSecond * PAGE_LEAD_MS / 1000f);
+        return rowsLeft <= lead;
+    }
+
+    static boolean shouldWarmRecords(float rowsPerSecond) {
+        return Math.abs(rowsPerSecond) <= READING_ROWS_PER_SECOND;
+    }
+
+    // Summary rows in [first, last], top first
+    static List<Task> recordsToWarm(List<Task> rows, int first, int last, int max) {
+        List<Task> wanted = new ArrayList<>();
+        for (int i = Math.max(0, first); i <= last && i < rows.size() && wanted.size() < max; i++) {
+            if (rows.get(i).isSummary()) wanted.add(rows.get(i));
+        }
+        return wanted;
+    }
+
+    static Set<String> idsIn(List<Task> rows, int first, int last) {
+        Set<String> ids = new HashSet<>();
+        for (int i = Math.max(0, first); i <= last && i < rows.size(); i++) {
+            ids.add(rows.get(i).getId());
+        }
+        return ids;
+    }
+}
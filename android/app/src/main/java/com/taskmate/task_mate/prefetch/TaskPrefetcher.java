@@ -0,0 +1,379 @@
+package com.taskmate.task_mate.prefetch;
+
+import android.content.Context;
+
+import com.taskmate.task_mate.data.TaskRepository;
+import com.taskmate.task_mate.logging.AppLog;
+import com.taskmate.task_mate.models.ApiResponse;
+import com.taskmate.task_mate.models.Task;
+import com.taskmate.task_mate.models.TaskResponse;
+import com.taskmate.task_mate.models.TasksResponse;
+import com.taskmate.task_mate.network.ApiClient;
+import com.taskmate.task_mate.network.ApiService;
+import com.taskmate.task_mate.network.RequestPriority;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+import okhttp3.ResponseBody;
+import retrofit2.Call;
+import retrofit2.Callback;
+import retrofit2.Response;
+
+// Fetches what the task list is likely to need next before it is asked for:
+// the full records of rows on screen (the list only has summaries) and the
+// next page. Prefetches run as VISIBLE_PREFETCH within a PrefetchBudget and
+// are held briefly; the detail screen and the list take them with takeTask()
+// and takePage(), joining a prefetch that is still in flight rather than
+// starting a second request. Prefetches nobody has joined yet are cancelled
+// when their rows scroll away (retainRecords) or the list is reloaded.
+//
+// ScrollPrefetcher decides when to call in here. Thread-safe; callbacks run on
+// the Retrofit callback executor, or on the caller's thread for a hit.
+public class TaskPrefetcher implements TaskRepository.Listener {
+
+    private static final String TAG = "TaskPrefetcher";
+
+    static final int MAX_RECORDS = 64;
+    static final long RECORD_TTL_MS = 60_000;
+    static final long PAGE_TTL_MS = 30_000;
+    // Used until a response says what it cost, and when it doesn't
+    static final long RECORD_BYTES_ESTIMATE = 2 * 1024;
+    static final long SUMMARY_BYTES_ESTIMATE = 400;
+
+    // Gets what was fetched ahead, or null if the fetch failed or was cancelled
+    public interface Consumer<T> {
+        void accept(T value);
+    }
+
+    private static TaskPrefetcher instance;
+
+    private final Supplier<ApiService> api;
+    private final PrefetchBudget budget;
+    private final LongSupplier clock;
+    private final long[] counts = new long[PrefetchStats.COUNTERS];
+    // Full records fetched ahead, least recently fetched first
+    private final LinkedHashMap<String, Held<Task>> records = new LinkedHashMap<>();
+    private final Map<String, Pending<Task>> recordsInFlight = new HashMap<>();
+    private final Map<Integer, Held<ApiResponse<TasksResponse>>> pages = new HashMap<>();
+    private final Map<Integer, Pending<ApiResponse<TasksResponse>>> pagesInFlight = new HashMap<>();
+
+    public static synchronized TaskPrefetcher getInstance(Context context) {
+        if (instance == null) {
+            Context app = context.getApplicationContext();
+            instance = new TaskPrefetcher(ApiClient::getApiService,
+                    new PrefetchBudget(() -> PrefetchBudget.networkOf(app), System::currentTimeMillis),
+                    System::currentTimeMillis);
+        }
+        return instance;
+    }
+
+    public TaskPrefetcher(Supplier<ApiService> api, PrefetchBudget budget, LongSupplier clock) {
+        this.api = api;
+        this.budget = budget;
+        this.clock = clock;
+    }
+
+    // Starts following task changes, which make held records stale; called once the UI is up
+    public void attach() {
+        TaskRepository.getInstance().removeListener(this);
+        TaskRepository.getInstance().addListener(this);
+    }
+
+    // Fetches the full records of the given rows that are only summaries, in
+    // order, until the budget runs out
+    public void warmRecords(List<Task> rows) {
+        for (Task row : rows) {
+            if (!row.isSummary() || row.getId() == null) continue;
+            String id = row.getId();
+            Call<ApiResponse<TaskResponse>> call;
+            Pending<Task> pending;
+            synchronized (this) {
+                Held<Task> held = records.get(id);
+                if (held != null && !held.isExpired(RECORD_TTL_MS)) continue;
+                if (recordsInFlight.containsKey(id)) continue;
+                PrefetchBudget.Spend spend = budget.tryAcquire(PrefetchBudget.Kind.RECORD, RECORD_BYTES_ESTIMATE);
+                if (spend == null) {
+                    counts[PrefetchStats.OVER_BUDGET]++;
+                    return;
+                }
+                counts[PrefetchStats.STARTED]++;
+                call = api.get().getTask(id, RequestPriority.VISIBLE_PREFETCH);
+                pending = new Pending<>(call, spend);
+                recordsInFlight.put(id, pending);
+            }
+            enqueue(call, pending, recordsInFlight, id, response -> {
+                ApiResponse<TaskResponse> body = response.body();
+                return body != null && body.isSuccess() && body.getData() != null ? body.getData().getTask() : null;
+            }, (key, task) -> {
+                if (records.remove(key) != null) counts[PrefetchStats.UNUSED]++;
+                if (records.size() >= MAX_RECORDS) {
+                    Iterator<Held<Task>> oldest = records.values().iterator();
+                    oldest.next();
+                    oldest.remove();
+                    counts[PrefetchStats.UNUSED]++;
+                }
+                records.put(key, new Held<>(task));
+            });
+        }
+    }
+
+    // Hands over the full record if it was fetched ahead: right away when it is
+    // held, or when its prefetch completes. False means it wasn't, and the
+    // caller should fetch it itself
+    public boolean takeTask(String id, Consumer<Task> callback) {
+        Task task;
+        synchronized (this) {
+            Held<Task> held = records.remove(id);
+            if (held != null && !held.isExpired(RECORD_TTL_MS)) {
+                counts[PrefetchStats.RECORD_HITS]++;
+                task = held.value;
+            } else {
+                if (held != null) counts[PrefetchStats.UNUSED]++;
+                Pending<Task> pending = recordsInFlight.get(id);
+                if (pending == null) {
+                    counts[PrefetchStats.RECORD_MISSES]++;
+                    return false;
+                }
+                counts[PrefetchStats.RECORD_JOINS]++;
+                pending.waiters.add(callback);
+                return true;
+            }
+        }
+        callback.accept(task);
+        return true;
+    }
+
+    // Cancels record prefetches for rows other than these, unless someone is waiting on them
+    public void retainRecords(Collection<String> ids) {
+        List<Call<?>> cancelled = new ArrayList<>();
+        synchronized (this) {
+            Iterator<Map.Entry<String, Pending<Task>>> it = recordsInFlight.entrySet().iterator();
+            while (it.hasNext()) {
+                Map.Entry<String, Pending<Task>> entry = it.next();
+                if (ids.contains(entry.getKey()) || !entry.getValue().waiters.isEmpty()) continue;
+                it.remove();
+                cancelled.add(entry.getValue().call);
+                counts[PrefetchStats.CANCELLED]++;
+            }
+        }
+        for (Call<?> call : cancelled) call.cancel();
+    }
+
+    public synchronized boolean hasRecordsInFlight() {
+        return !recordsInFlight.isEmpty();
+    }
+
+    synchronized int inFlight() {
+        return recordsInFlight.size() + pagesInFlight.size();
+    }
+
+    // Fetches a page of the summary list ahead, unless it's held or on its way
+    public void warmPage(int page, int limit) {
+        Call<ApiResponse<TasksResponse>> call;
+        Pending<ApiResponse<TasksResponse>> pending;
+        synchronized (this) {
+            Held<ApiResponse<TasksResponse>> held = pages.get(page);
+            if (held != null && held.limit == limit && !held.isExpired(PAGE_TTL_MS)) return;
+            if (pagesInFlight.containsKey(page)) return;
+            PrefetchBudget.Spend spend = budget.tryAcquire(PrefetchBudget.Kind.PAGE, limit * SUMMARY_BYTES_ESTIMATE);
+            if (spend == null) {
+                counts[PrefetchStats.OVER_BUDGET]++;
+                return;
+            }
+            counts[PrefetchStats.STARTED]++;
+            call = api.get().getTaskPage(ApiService.VIEW_SUMMARY, page, limit, RequestPriority.VISIBLE_PREFETCH);
+            pending = new Pending<>(call, spend);
+            pending.limit = limit;
+            pagesInFlight.put(page, pending);
+        }
+        enqueue(call, pending, pagesInFlight, page, response -> {
+            ApiResponse<TasksResponse> body = response.body();
+            return body != null && body.isSuccess() && body.getData() != null ? body : null;
+        }, (key, body) -> {
+            Held<ApiResponse<TasksResponse>> held = new Held<>(body);
+            held.limit = pending.limit;
+            if (pages.put(key, held) != null) counts[PrefetchStats.UNUSED]++;
+        });
+    }
+
+    // Like takeTask, for a page of the list
+    public boolean takePage(int page, int limit, Consumer<ApiResponse<TasksResponse>> callback) {
+        ApiResponse<TasksResponse> body;
+        synchronized (this) {
+            Held<ApiResponse<TasksResponse>> held = pages.remove(page);
+            if (held != null && held.limit == limit && !held.isExpired(PAGE_TTL_MS)) {
+                counts[PrefetchStats.PAGE_HITS]++;
+                body = held.value;
+            } else {
+                if (held != null) counts[PrefetchStats.UNUSED]++;
+                Pending<ApiResponse<TasksResponse>> pending = pagesInFlight.get(page);
+                if (pending == null || pending.limit != limit) {
+                    counts[PrefetchStats.PAGE_MISSES]++;
+                    return false;
+                }
+                counts[PrefetchStats.PAGE_JOINS]++;
+                pending.waiters.add(callback);
+                return true;
+            }
+        }
+        callback.accept(body);
+        return true;
+    }
+
+    // Drops held pages and cancels the ones on their way, e.g. when the list is
+    // reloaded and the pages after it may have moved; waiters get null
+    public void clearPages() {
+        List<Pending<ApiResponse<TasksResponse>>> cancelled;
+        synchronized (this) {
+            counts[PrefetchStats.UNUSED] += pages.size();
+            counts[PrefetchStats.CANCELLED] += pagesInFlight.size();
+            pages.clear();
+            cancelled = new ArrayList<>(pagesInFlight.values());
+            pagesInFlight.clear();
+        }
+        for (Pending<ApiResponse<TasksResponse>> pending : cancelled) {
+            pending.call.cancel();
+            for (Consumer<ApiResponse<TasksResponse>> waiter : pending.waiters) waiter.accept(null);
+        }
+    }
+
+    // Cancels whatever nobody is waiting on, e.g. when the list goes off screen
+    public void cancelAll() {
+        retainRecords(Collections.emptySet());
+        List<Call<?>> cancelled = new ArrayList<>();
+        synchronized (this) {
+            Iterator<Pending<ApiResponse<TasksResponse>>> it = pagesInFlight.values().iterator();
+            while (it.hasNext()) {
+                Pending<ApiResponse<TasksResponse>> pending = it.next();
+                if (!pending.waiters.isEmpty()) continue;
+                it.remove();
+                cancelled.add(pending.call);
+                counts[PrefetchStats.CANCELLED]++;
+            }
+        }
+        for (Call<?> call : cancelled) call.cancel();
+    }
+
+    public synchronized PrefetchStats getStats() {
+        return new PrefetchStats(counts);
+    }
+
+    public synchronized void resetStats() {
+        Arrays.fill(counts, 0);
+    }
+
+    // TaskRepository.Listener implementation. A reload doesn't drop records:
+    // they are younger than RECORD_TTL_MS, and edits made here come through
+    // onTaskUpdated
+    @Override
+    public void onTasksReplaced(List<Task> tasks) {
+    }
+
+    @Override
+    public void onTasksAppended(List<Task> added) {
+    }
+
+    @Override
+    public synchronized void onTaskUpdated(Task task) {
+        if (records.remove(task.getId()) != null) counts[PrefetchStats.UNUSED]++;
+    }
+
+    @Override
+    public synchronized void onTaskRemoved(String taskId) {
+        if (records.remove(taskId) != null) counts[PrefetchStats.UNUSED]++;
+    }
+
+    private interface Extract<B, T> {
+        T from(Response<B> response);
+    }
+
+    private interface Keep<K, T> {
+        void keep(K key, T value);
+    }
+
+    // Runs the prefetch; on success the value goes to whoever joined it, or is
+    // kept for later if nobody did
+    private <K, B, T> void enqueue(Call<B> call, Pending<T> pending, Map<K, Pending<T>> inFlight, K key,
+                                   Extract<B, T> extract, Keep<K, T> keep) {
+        call.enqueue(new Callback<B>() {
+            @Override
+            public void onResponse(Call<B> call, Response<B> response) {
+                T value = response.isSuccessful() ? extract.from(response) : null;
+                budget.settle(pending.spend, sizeOf(response, pending.spend.getBytes()));
+                List<Consumer<T>> waiters;
+                synchronized (TaskPrefetcher.this) {
+                    counts[PrefetchStats.BYTES] += pending.spend.getBytes();
+                    if (!finish(inFlight, key, pending)) return;
+                    if (value == null) counts[PrefetchStats.FAILED]++;
+                    waiters = pending.waiters;
+                    if (value != null && waiters.isEmpty()) keep.keep(key, value);
+                }
+                for (Consumer<T> waiter : waiters) waiter.accept(value);
+            }
+
+            @Override
+            public void onFailure(Call<B> call, Throwable t) {
+                List<Consumer<T>> waiters;
+                synchronized (TaskPrefetcher.this) {
+                    if (!finish(inFlight, key, pending)) return;
+                    counts[PrefetchStats.FAILED]++;
+                    waiters = pending.waiters;
+                }
+                AppLog.w(TAG, "Prefetch failed", t);
+                for (Consumer<T> waiter : waiters) waiter.accept(null);
+            }
+        });
+    }
+
+    // Takes the prefetch off the in-flight map; false if it was cancelled,
+    // which took it off already and dealt with its waiters
+    private static <K, T> boolean finish(Map<K, Pending<T>> inFlight, K key, Pending<T> pending) {
+        if (inFlight.get(key) != pending) return false;
+        inFlight.remove(key);
+        return true;
+    }
+
+    // What the response weighed on the wire; Content-Length is gone when the
+    // body was gzipped, and then the estimate stands
+    private static long sizeOf(Response<?> response, long estimate) {
+        ResponseBody body = response.raw().body();
+        long length = body != null ? body.contentLength() : -1;
+        return length >= 0 ? length : estimate;
+    }
+
+    private final class Held<T> {
+        private final T value;
+        private final long fetchedAt = clock.getAsLong();
+        private int limit;
+
+        Held(T value) {
+            this.value = value;
+        }
+
+        boolean isExpired(long ttlMs) {
+            return clock.getAsLong() - fetchedAt > ttlMs;
+        }
+    }
+
+    private static final class Pending<T> {
+        private final Call<?> call;
+        private final PrefetchBudget.Spend spend;
+        private final List<Consumer<T>> waiters = new ArrayList<>();
+        private int limit;
+
+        Pending(Call<?> call, PrefetchBudget.Spend spend) {
+            this.call = call;
+            this.spend = spend;
+        }
+    }
+}
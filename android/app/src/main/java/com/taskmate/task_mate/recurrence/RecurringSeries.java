@@ -0,0 +1,268 @@
+package com.taskmate.task_mate.recurrence;
+
+import com.taskmate.task_mate.models.OccurrenceException;
+import com.taskmate.task_mate.models.Recurrence;
+import com.taskmate.task_mate.models.RecurrenceFrequency;
+import com.taskmate.task_mate.models.Task;
+import com.taskmate.task_mate.models.TaskStatus;
+import com.taskmate.task_mate.util.DateUtils;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TimeZone;
+
+// The occurrences of one recurring task, computed on demand. The rule is
+// compiled once into local-day arithmetic, so the first occurrence in a range
+// is found directly rather than by stepping from the series start: expanding
+// a window costs the occurrences inside it, however old the series is.
+// Occurrences keep the first one's local time of day across DST changes.
+// The rule never puts two occurrences on one local day, so stored exceptions
+// are matched by the local day of the occurrence they replace.
+public final class RecurringSeries {
+
+    public static final long END = Long.MAX_VALUE;
+    // Older occurrences are never shown; matches EXCEPTION_HISTORY_DAYS on the server
+    public static final int HISTORY_DAYS = 90;
+
+    private final Task series;
+    private final TimeZone timeZone;
+    private final RecurrenceFrequency frequency;
+    private final int interval;
+    private final int count;
+    private final long until;
+    private final long firstDay;
+    private final long timeOfDay;
+    // Weekly: Monday-first weekday bits, and where the first week starts counting
+    private final int weekdays;
+    private final long firstWeek;
+    private final int perWeek;
+    private final int skippedInFirstWeek;
+    // Monthly: months since year 0; a day past the month's end falls on its last day
+    private final long firstMonth;
+    private final int dayOfMonth;
+    private final Map<Long, OccurrenceException> exceptionsByDay = new HashMap<>();
+    private final List<OccurrenceException> moved = new ArrayList<>();
+
+    public RecurringSeries(Task series, TimeZone timeZone) {
+        Recurrence rule = series.getRecurrence();
+        if (rule == null || rule.getFrequency() == null || !series.hasDueDate()) {
+            throw new IllegalArgumentException("Not a recurring task: " + series.getId());
+        }
+        this.series = series;
+        this.timeZone = timeZone;
+        frequency = rule.getFrequency();
+        interval = rule.getInterval();
+        count = rule.getCount();
+        until = rule.getUntil();
+
+        long start = series.getDueDate();
+        long local = start + timeZone.getOffset(start);
+        firstDay = Math.floorDiv(local, DateUtils.DAY_MS);
+        timeOfDay = Math.floorMod(local, DateUtils.DAY_MS);
+
+        int firstWeekday = weekdayOf(firstDay);
+        weekdays = rule.getWeekdays() != 0 ? rule.getWeekdays() : 1 << firstWeekday;
+        firstWeek = weekOf(firstDay);
+        perWeek = Integer.bitCount(weekdays);
+        skippedInFirstWeek = Integer.bitCount(weekdays & ((1 << firstWeekday) - 1));
+
+        int[] civil = DateUtils.civilFromDays(firstDay);
+        firstMonth = civil[0] * 12L + civil[1] - 1;
+        dayOfMonth = civil[2];
+
+        for (OccurrenceException exception : series.getExceptions()) {
+            exceptionsByDay.put(dayOf(exception.getOccurrence()), exception);
+            if (exception.isMoved() && !exception.isSkipped()) moved.add(exception);
+        }
+    }
+
+    // Due date to plan and remind by: the first open occurrence from the start
+    // of today, so missed days don't pile up. Plain tasks keep their own
+    public static long effectiveDueDate(Task task, long now) {
+        if (!task.isRecurring() || !task.hasDueDate()) return task.getDueDate();
+        long next = new RecurringSeries(task, TimeZone.getDefault()).nextOpenStart(now);
+        return next != END ? next : DateUtils.NO_DATE;
+    }
+
+    public Task getSeries() {
+        return series;
+    }
+
+    // Local day number of an instant (days since 1970-01-01 in this time zone)
+    public long dayOf(long epochMillis) {
+        return Math.floorDiv(epochMillis + timeZone.getOffset(epochMillis), DateUtils.DAY_MS);
+    }
+
+    // Instant of local midnight starting the day
+    public long startOfDay(long day) {
+        return toEpoch(day * DateUtils.DAY_MS);
+    }
+
+    // Start the rule gives an occurrence on this local day
+    public long startOn(long day) {
+        return toEpoch(day * DateUtils.DAY_MS + timeOfDay);
+    }
+
+    // First local day on or after the given one with an occurrence, or END
+    public long nextDay(long day) {
+        long from = Math.max(day, firstDay);
+        long candidate;
+        long index;
+        switch (frequency) {
+            case DAILY:
+                index = ceilDiv(from - firstDay, interval);
+                candidate = firstDay + index * interval;
+                break;
+            case WEEKLY:
+                candidate = nextWeeklyDay(from);
+                index = ((weekOf(candidate) - firstWeek) / interval) * perWeek
+                        + Integer.bitCount(weekdays & ((1 << weekdayOf(candidate)) - 1)) - skippedInFirstWeek;
+                break;
+            default:
+                index = ceilDiv(monthOf(from) - firstMonth, interval);
+                candidate = monthlyDay(index);
+                if (candidate < from) candidate = monthlyDay(++index);
+                break;
+        }
+        if (count > 0 && index >= count) return END;
+        if (until != DateUtils.NO_DATE && startOn(candidate) > until) return END;
+        return candidate;
+    }
+
+    // Occurrences whose (possibly moved) start is in [from, to), by start
+    public List<Task> occurrencesBetween(long from, long to) {
+        List<Task> result = new ArrayList<>();
+        collect(from, to, result);
+        if (!moved.isEmpty()) result.sort((a, b) -> Long.compare(a.getDueDate(), b.getDueDate()));
+        return result;
+    }
+
+    public List<Task> occurrencesOn(long day) {
+        return occurrencesBetween(startOfDay(day), startOfDay(day + 1));
+    }
+
+    // Same as occurrencesBetween(from, to).size() without creating the tasks
+    public int countBetween(long from, long to) {
+        return collect(from, to, null);
+    }
+
+    // Local days in [fromDay, toDay) that show at least one occurrence
+    public void addDaysBetween(long fromDay, long toDay, Set<Long> out) {
+        for (long day = nextDay(fromDay); day < toDay; day = nextDay(day + 1)) {
+            OccurrenceException exception = exceptionsByDay.get(day);
+            if (exception == null || (!exception.isSkipped() && !exception.isMoved())) out.add(day);
+        }
+        for (OccurrenceException exception : moved) {
+            long day = dayOf(exception.getDueDate());
+            if (day >= fromDay && day < toDay) out.add(day);
+        }
+    }
+
+    // Start of the first occurrence from the beginning of today on that is
+    // neither completed nor skipped, or END once the series has run out.
+    // Only days with an exception are passed over, so this stops quickly
+    public long nextOpenStart(long now) {
+        long from = startOfDay(dayOf(now));
+        long best = END;
+        for (OccurrenceException exception : moved) {
+            if (!exception.isCompleted() && exception.getDueDate() >= from) {
+                best = Math.min(best, exception.getDueDate());
+            }
+        }
+        for (long day = nextDay(dayOf(now)); day != END; day = nextDay(day + 1)) {
+            long start = startOn(day);
+            if (start >= best) break;
+            OccurrenceException exception = exceptionsByDay.get(day);
+            if (exception == null || (!exception.isCompleted() && !exception.isSkipped() && !exception.isMoved())) {
+                return start;
+            }
+        }
+        return best;
+    }
+
+    private int collect(long from, long to, List<Task> out) {
+        if (from >= to) return 0;
+        int found = 0;
+        long toDay = dayOf(to - 1) + 1;
+        for (long day = nextDay(dayOf(from)); day < toDay; day = nextDay(day + 1)) {
+            OccurrenceException exception = exceptionsByDay.get(day);
+            if (exception != null && (exception.isSkipped() || exception.isMoved())) continue;
+            long start = startOn(day);
+            if (start < from || start >= to) continue;
+            found++;
+            if (out != null) out.add(occurrence(start, start, exception));
+        }
+        for (OccurrenceException exception : moved) {
+            long due = exception.getDueDate();
+            if (due < from || due >= to) continue;
+            found++;
+            if (out != null) out.add(occurrence(exception.getOccurrence(), due, exception));
+        }
+        return found;
+    }
+
+    private Task occurrence(long start, long due, OccurrenceException exception) {
+        Task task = series.copy();
+        task.setOccurrence(start);
+        task.setDueDate(due);
+        task.setExceptions(Collections.emptyList());
+        if (exception != null && exception.isCompleted()) {
+            task.setCompleted(true);
+            task.setStatus(TaskStatus.COMPLETED);
+        }
+        return task;
+    }
+
+    private long nextWeeklyDay(long day) {
+        long week = weekOf(day);
+        int fromWeekday = weekdayOf(day);
+        long behind = (week - firstWeek) % interval;
+        if (behind != 0) {
+            week += interval - behind;
+            fromWeekday = 0;
+        }
+        int bits = weekdays & ~((1 << fromWeekday) - 1);
+        if (bits == 0) {
+            week += interval;
+            bits = weekdays;
+        }
+        return week * 7 - 3 + Integer.numberOfTrailingZeros(bits);
+    }
+
+    private long monthlyDay(long index) {
+        long month = firstMonth + index * interval;
+        int year = (int) Math.floorDiv(month, 12);
+        int monthOfYear = (int) Math.floorMod(month, 12L) + 1;
+        int day = Math.min(dayOfMonth, DateUtils.daysInMonth(year, monthOfYear));
+        return DateUtils.daysFromCivil(year, monthOfYear, day);
+    }
+
+    private static long monthOf(long day) {
+        int[] civil = DateUtils.civilFromDays(day);
+        return civil[0] * 12L + civil[1] - 1;
+    }
+
+    // Local wall-clock millis to an instant; a time skipped by DST lands just after the gap
+    private long toEpoch(long localMillis) {
+        long guess = localMillis - timeZone.getOffset(localMillis);
+        return localMillis - timeZone.getOffset(guess);
+    }
+
+    // Weeks start on Monday; day 0 (1970-01-01) was a Thursday
+    private static long weekOf(long day) {
+        return Math.floorDiv(day + 3, 7);
+    }
+
+    // 0 = Monday ... 6 = Sunday
+    private static int weekdayOf(long day) {
+        return (int) Math.floorMod(day + 3, 7L);
+    }
+
+    private static long ceilDiv(long value, long divisor) {
+        return (value + divisor - 1) / divisor;
+    }
+}
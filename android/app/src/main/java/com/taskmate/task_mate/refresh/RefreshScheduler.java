@@ -0,0 +1,266 @@
+package com.taskmate.task_mate.refresh;
+
+import android.os.Handler;
+import android.os.Looper;
+
+import com.taskmate.task_mate.models.Task;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.LongSupplier;
+
+// Refreshes the task list while it is on screen, as often as this user's data
+// actually changes. Each refresh is an observation: did the server have
+// something we didn't? Changes and the time they were observed over are kept
+// as exponentially decayed sums, so their ratio is the recent change rate, and
+// the interval is picked so that about TARGET_CHANGES_PER_REFRESH changes are
+// expected per refresh, between MIN_INTERVAL_MS and MAX_INTERVAL_MS. A busy
+// shared list converges on the minimum, a list nobody else touches on the
+// maximum.
+//
+// Nothing runs while stopped (the list is off screen or the app is in the
+// background); start() refreshes right away if the data is older than the
+// current interval. Refreshes are conditional on the last ETag, so one that
+// finds nothing new usually costs a 304. Full loads by the user (first load,
+// pull-to-refresh) count as observations too and restart the timer.
+// All calls are expected on the main thread.
+public class RefreshScheduler {
+
+    static final long MIN_INTERVAL_MS = 30_000;
+    static final long MAX_INTERVAL_MS = 15 * 60_000;
+    static final long INITIAL_INTERVAL_MS = 2 * 60_000;
+    static final double TARGET_CHANGES_PER_REFRESH = 0.5;
+    // Weight kept by older observations at each new one
+    static final double DECAY = 0.8;
+    // What the savings are measured against: polling once a minute
+    static final long FIXED_POLL_MS = 60_000;
+
+    public interface Refresher {
+        // Fetches and applies the first page, then reports back with
+        // onRefreshed, onRefreshFailed or onRefreshSkipped
+        void refresh(String etag);
+    }
+
+    public interface Timer {
+        void schedule(Runnable task, long delayMs);
+        void cancel(Runnable task);
+    }
+
+    private static RefreshScheduler instance;
+
+    private final LongSupplier clock;
+    private final Timer timer;
+    private final Runnable tick = this::refreshNow;
+    private Refresher refresher;
+    // Decayed sums; the prior is half a change per initial interval
+    private double changes = TARGET_CHANGES_PER_REFRESH;
+    private double observedMs = INITIAL_INTERVAL_MS;
+    private long lastObservedAt;
+    private String etag;
+    private boolean refreshing;
+    private long startedAt;
+    // Stats since the last reset
+    private long refreshes;
+    private long changed;
+    private long notModified;
+    private long failed;
+    private long foregroundMs;
+
+    public static synchronized RefreshScheduler getInstance() {
+        if (instance == null) {
+            Handler handler = new Handler(Looper.getMainLooper());
+            instance = new RefreshScheduler(System::currentTimeMillis, new Timer() {
+                @Override
+                public void schedule(Runnable task, long delayMs) {
+                    handler.postDelayed(task, delayMs);
+                }
+
+                @Override
+                public void cancel(Runnable task) {
+                    handler.removeCallbacks(task);
+                }
+            });
+        }
+        return instance;
+    }
+
+    public RefreshScheduler(LongSupplier clock, Timer timer) {
+        this.clock = clock;
+        this.timer = timer;
+    }
+
+    // The list is on screen: refresh now if it's stale, then keep it fresh
+    public void start(Refresher refresher) {
+        if (this.refresher != null) stop();
+        this.refresher = refresher;
+        startedAt = clock.getAsLong();
+        if (refreshing) return;
+        long due = lastObservedAt + getIntervalMs() - startedAt;
+        if (lastObservedAt > 0 && due > 0) {
+            timer.schedule(tick, due);
+        } else if (lastObservedAt > 0) {
+            refreshNow();
+        }
+        // Before the first load there's nothing to refresh; onLoaded starts the timer
+    }
+
+    public void stop() {
+        if (refresher == null) return;
+        timer.cancel(tick);
+        foregroundMs += clock.getAsLong() - startedAt;
+        refresher = null;
+    }
+
+    public long getIntervalMs() {
+        double interval = changes > 0 ? TARGET_CHANGES_PER_REFRESH * observedMs / changes : MAX_INTERVAL_MS;
+        return Math.max(MIN_INTERVAL_MS, Math.min(MAX_INTERVAL_MS, (long) interval));
+    }
+
+    // ETag of the first page as last seen, for If-None-Match
+    public String getEtag() {
+        return etag;
+    }
+
+    // A full load the user asked for
+    public void onLoaded(boolean changedSince, String etag) {
+        observe(changedSince, etag);
+    }
+
+    // The scheduled refresh came back; a 304 is unchanged with the same ETag
+    public void onRefreshed(boolean changedSince, String etag, boolean wasNotModified) {
+        refreshes++;
+        if (changedSince) changed++;
+        if (wasNotModified) notModified++;
+        observe(changedSince, etag != null ? etag : this.etag);
+    }
+
+    // Tries again after the current interval
+    public void onRefreshFailed() {
+        refreshes++;
+        failed++;
+        refreshing = false;
+        scheduleNext();
+    }
+
+    // Not the moment (e.g. a page load is under way); tries again after the current interval
+    public void onRefreshSkipped() {
+        refreshing = false;
+        scheduleNext();
+    }
+
+    private void observe(boolean changedSince, String etag) {
+        long now = clock.getAsLong();
+        if (lastObservedAt > 0) {
+            // A long absence counts as no more than two of the longest intervals
+            long elapsed = Math.min(now - lastObservedAt, 2 * MAX_INTERVAL_MS);
+            changes = changes * DECAY + (changedSince ? 1 : 0);
+            observedMs = observedMs * DECAY + elapsed;
+        }
+        lastObservedAt = now;
+        this.etag = etag;
+        refreshing = false;
+        scheduleNext();
+    }
+
+    private void scheduleNext() {
+        if (refresher == null) return;
+        timer.cancel(tick);
+        timer.schedule(tick, getIntervalMs());
+    }
+
+    private void refreshNow() {
+        if (refresher == null || refreshing) return;
+        refreshing = true;
+        refresher.refresh(etag);
+    }
+
+    public Stats getStats() {
+        long shown = foregroundMs + (refresher != null ? clock.getAsLong() - startedAt : 0);
+        return new Stats(refreshes, changed, notModified, failed, shown, getIntervalMs());
+    }
+
+    public void resetStats() {
+        refreshes = 0;
+        changed = 0;
+        notModified = 0;
+        failed = 0;
+        foregroundMs = 0;
+        if (refresher != null) startedAt = clock.getAsLong();
+    }
+
+    // Whether the first page fetched differs from what we hold for it: a task
+    // added, changed or gone. Our own edits are in both, so they don't count.
+    // Descriptions are only compared between two summaries
+    public static boolean differs(List<Task> fetched, List<Task> held) {
+        Map<String, Task> heldById = new HashMap<>();
+        Set<String> heldFirst = new HashSet<>();
+        for (Task task : held) {
+            if (task.isOccurrence() || task.getParentId() != null) continue;
+            heldById.put(task.getId(), task);
+            if (heldFirst.size() < fetched.size()) heldFirst.add(task.getId());
+        }
+        Set<String> fetchedIds = new HashSet<>();
+        for (Task task : fetched) {
+            fetchedIds.add(task.getId());
+            Task ours = heldById.get(task.getId());
+            if (ours == null || !sameRow(task, ours)) return true;
+        }
+        return !fetchedIds.containsAll(heldFirst);
+    }
+
+    private static boolean sameRow(Task a, Task b) {
+        return Objects.equals(a.getTitle(), b.getTitle())
+                && (a.isSummary() != b.isSummary() || Objects.equals(a.getDescription(), b.getDescription()))
+                && a.getDueDate() == b.getDueDate()
+                && a.getPriority() == b.getPriority()
+                && a.getStatus() == b.getStatus()
+                && Objects.equals(a.getCategory(), b.getCategory())
+                && Objects.equals(a.getTags(), b.getTags())
+                && a.isCompleted() == b.isCompleted()
+                && Objects.equals(a.getOrder(), b.getOrder())
+                && a.getSubtaskCount() == b.getSubtaskCount()
+                && a.getSubtasksDone() == b.getSubtasksDone();
+    }
+
+    public static final class Stats {
+        private final long refreshes;
+        private final long changed;
+        private final long notModified;
+        private final long failed;
+        private final long foregroundMs;
+        private final long intervalMs;
+
+        Stats(long refreshes, long changed, long notModified, long failed, long foregroundMs, long intervalMs) {
+            this.refreshes = refreshes;
+            this.changed = changed;
+            this.notModified = notModified;
+            this.failed = failed;
+            this.foregroundMs = foregroundMs;
+            this.intervalMs = intervalMs;
+        }
+
+        public long getRefreshes() { return refreshes; }
+        public long getChanged() { return changed; }
+        public long getNotModified() { return notModified; }
+        public long getFailed() { return failed; }
+        public long getForegroundMs() { return foregroundMs; }
+        public long getIntervalMs() { return intervalMs; }
+        // What polling every FIXED_POLL_MS would have sent over the same time on screen
+        public long getFixedPollRequests() { return foregroundMs / FIXED_POLL_MS; }
+        public long getSaved() { return getFixedPollRequests() - refreshes; }
+
+        @Override
+        public String toString() {
+            return String.format(Locale.US,
+                    "%d refreshes (%d changed, %d not modified, %d failed) in %.1f min on screen, "
+                            + "now every %d s; fixed polling: %d, saved %d",
+                    refreshes, changed, notModified, failed, foregroundMs / 60_000.0, intervalMs / 1000,
+                    getFixedPollRequests(), getSaved());
+        }
+    }
+}
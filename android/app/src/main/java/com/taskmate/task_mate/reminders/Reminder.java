@@ -0,0 +1,18 @@
+package com.taskmate.task_mate.reminders;
+
+public class Reminder {
+    private final String taskId;
+    private final String title;
+    private final long dueTime;
+
+    public Reminder(String taskId, String title, long dueTime) {
+        this.taskId = taskId;
+        this.title = title;
+        this.dueTime = dueTime;
+    }
+
+    // Getters
+    public String getTaskId() { return taskId; }
+    public String getTitle() { return title; }
+    public long getDueTime() { return dueTime; }
+}
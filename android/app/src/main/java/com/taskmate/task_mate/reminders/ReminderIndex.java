@@ -0,0 +1,161 @@
+package com.taskmate.task_mate.reminders;
+
+import com.taskmate.task_mate.util.IndexedMinHeap;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// Time-ordered index of upcoming reminders. Only the earliest trigger time is
+// ever handed to the OS, so the number of tasks does not change the number of
+// alarms. Task changes update a single heap entry in O(log n).
+//
+// Reminders that already fired are remembered by (task, due time), so reloading
+// the same task list does not notify twice, while moving a due date re-arms it.
+public class ReminderIndex {
+
+    public static final long NONE = -1L;
+
+    private static final int FORMAT_VERSION = 1;
+
+    private final long leadTimeMs;
+    private IndexedMinHeap<String> triggers = new IndexedMinHeap<>();
+    private Map<String, Reminder> pending = new HashMap<>();
+    private final Map<String, Long> fired = new HashMap<>();
+
+    public ReminderIndex(long leadTimeMs) {
+        this.leadTimeMs = leadTimeMs;
+    }
+
+    public synchronized int size() {
+        return pending.size();
+    }
+
+    // Indexes a task's reminder, or drops it when dueTime is NO_DATE (0) or
+    // already in the past
+    public synchronized void upsert(String taskId, String title, long dueTime, long now) {
+        if (taskId == null) return;
+        removePending(taskId);
+        if (dueTime <= 0 || dueTime <= now) return;
+
+        Long firedDue = fired.get(taskId);
+        if (firedDue != null) {
+            if (firedDue == dueTime) return;
+            fired.remove(taskId);
+        }
+
+        pending.put(taskId, new Reminder(taskId, title, dueTime));
+        triggers.put(taskId, Math.max(dueTime - leadTimeMs, now));
+    }
+
+    public synchronized void remove(String taskId) {
+        removePending(taskId);
+        fired.remove(taskId);
+    }
+
+    // Drops pending reminders but keeps the fired history, for full reloads
+    public synchronized void clearPending() {
+        pending.clear();
+        triggers.clear();
+    }
+
+    // Drops pending reminders and the fired history, e.g. on sign-out
+    public synchronized void clear() {
+        clearPending();
+        fired.clear();
+    }
+
+    // Forgets fired history for tasks that no longer exist
+    public synchronized void retainFired(Set<String> taskIds) {
+        fired.keySet().retainAll(taskIds);
+    }
+
+    // Full reload built in a separate index (off the main thread): takes over
+    // its pending reminders and keeps fired history only for the given tasks.
+    // A reminder that already fired for the same due time is not re-armed.
+    public synchronized void replacePending(ReminderIndex fresh, Set<String> taskIds) {
+        fired.keySet().retainAll(taskIds);
+        Iterator<Map.Entry<String, Long>> it = fired.entrySet().iterator();
+        while (it.hasNext()) {
+            Map.Entry<String, Long> entry = it.next();
+            Reminder reminder = fresh.pending.get(entry.getKey());
+            if (reminder == null) continue;
+            if (reminder.getDueTime() == entry.getValue()) {
+                fresh.removePending(entry.getKey());
+            } else {
+                it.remove();
+            }
+        }
+        pending = fresh.pending;
+        triggers = fresh.triggers;
+    }
+
+    public synchronized long nextTriggerTime() {
+        return triggers.isEmpty() ? NONE : triggers.peekScore();
+    }
+
+    // Removes and returns every reminder whose trigger time is <= upTo. Callers
+    // pass "now + coalescing window" so reminders that are close together end
+    // up in one notification instead of one wake-up each.
+    public synchronized List<Reminder> pollDue(long upTo) {
+        List<Reminder> due = new ArrayList<>();
+        while (!triggers.isEmpty() && triggers.peekScore() <= upTo) {
+            String taskId = triggers.poll();
+            Reminder reminder = pending.remove(taskId);
+            if (reminder != null) {
+                due.add(reminder);
+                fired.put(taskId, reminder.getDueTime());
+            }
+        }
+        return due;
+    }
+
+    public synchronized void writeTo(DataOutputStream out) throws IOException {
+        out.writeInt(FORMAT_VERSION);
+        out.writeInt(pending.size());
+        for (Reminder reminder : pending.values()) {
+            out.writeUTF(reminder.getTaskId());
+            out.writeUTF(reminder.getTitle() != null ? reminder.getTitle() : "");
+            out.writeLong(reminder.getDueTime());
+            out.writeLong(triggers.scoreOf(reminder.getTaskId()));
+        }
+        out.writeInt(fired.size());
+        for (Map.Entry<String, Long> entry : fired.entrySet()) {
+            out.writeUTF(entry.getKey());
+            out.writeLong(entry.getValue());
+        }
+    }
+
+    public synchronized void readFrom(DataInputStream in) throws IOException {
+        if (in.readInt() != FORMAT_VERSION) {
+            throw new IOException("Unsupported reminder index format");
+        }
+        clearPending();
+        fired.clear();
+        int count = in.readInt();
+        for (int i = 0; i < count; i++) {
+            String taskId = in.readUTF();
+            String title = in.readUTF();
+            long dueTime = in.readLong();
+            long trigger = in.readLong();
+            pending.put(taskId, new Reminder(taskId, title, dueTime));
+            triggers.put(taskId, trigger);
+        }
+        int firedCount = in.readInt();
+        for (int i = 0; i < firedCount; i++) {
+            fired.put(in.readUTF(), in.readLong());
+        }
+    }
+
+    private void removePending(String taskId) {
+        if (pending.remove(taskId) != null) {
+            triggers.remove(taskId);
+        }
+    }
+}
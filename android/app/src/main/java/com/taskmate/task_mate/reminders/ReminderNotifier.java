@@ -0,0 +1,85 @@
+package com.taskmate.task_mate.reminders;
+
+import android.Manifest;
+import android.app.NotificationChannel;
+import android.app.NotificationManager;
+import android.app.PendingIntent;
+import android.content.Context;
+import android.content.Intent;
+import android.content.pm.PackageManager;
+import android.os.Build;
+import android.text.format.DateFormat;
+
+import androidx.core.app.NotificationCompat;
+import androidx.core.app.NotificationManagerCompat;
+import androidx.core.content.ContextCompat;
+
+import com.taskmate.task_mate.MainActivity;
+import com.taskmate.task_mate.R;
+
+import java.util.Date;
+import java.util.List;
+
+// Posts a batch of reminders as a single notification
+final class ReminderNotifier {
+
+    private static final String CHANNEL_ID = "task_reminders";
+    private static final int NOTIFICATION_ID = 2001;
+    private static final int MAX_LINES = 5;
+
+    private ReminderNotifier() {}
+
+    static void show(Context context, List<Reminder> reminders) {
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.TIRAMISU
+                && ContextCompat.checkSelfPermission(context, Manifest.permission.POST_NOTIFICATIONS)
+                != PackageManager.PERMISSION_GRANTED) {
+            return;
+        }
+        createChannel(context);
+
+        Intent intent = new Intent(context, MainActivity.class);
+        intent.setFlags(Intent.FLAG_ACTIVITY_NEW_TASK | Intent.FLAG_ACTIVITY_CLEAR_TOP);
+        PendingIntent contentIntent = PendingIntent.getActivity(context, 0, intent,
+                PendingIntent.FLAG_UPDATE_CURRENT | PendingIntent.FLAG_IMMUTABLE);
+
+        NotificationCompat.Builder builder = new NotificationCompat.Builder(context, CHANNEL_ID)
+                .setSmallIcon(R.drawable.ic_notifications_black_24dp)
+                .setPriority(NotificationCompat.PRIORITY_HIGH)
+                .setContentIntent(contentIntent)
+                .setAutoCancel(true);
+
+        if (reminders.size() == 1) {
+            Reminder reminder = reminders.get(0);
+            builder.setContentTitle(reminder.getTitle())
+                    .setContentText("Due at " + formatTime(context, reminder.getDueTime()));
+        } else {
+            NotificationCompat.InboxStyle style = new NotificationCompat.InboxStyle();
+            for (int i = 0; i < Math.min(MAX_LINES, reminders.size()); i++) {
+                Reminder reminder = reminders.get(i);
+                style.addLine(formatTime(context, reminder.getDueTime()) + "  " + reminder.getTitle());
+            }
+            if (reminders.size() > MAX_LINES) {
+                style.setSummaryText("+" + (reminders.size() - MAX_LINES) + " more");
+            }
+            builder.setContentTitle(reminders.size() + " tasks due soon")
+                    .setContentText(reminders.get(0).getTitle())
+                    .setNumber(reminders.size())
+                    .setStyle(style);
+        }
+
+        NotificationManagerCompat.from(context).notify(NOTIFICATION_ID, builder.build());
+    }
+
+    private static void createChannel(Context context) {
+        if (Build.VERSION.SDK_INT < Build.VERSION_CODES.O) return;
+        NotificationManager manager = context.getSystemService(NotificationManager.class);
+        if (manager != null && manager.getNotificationChannel(CHANNEL_ID) == null) {
+            manager.createNotificationChannel(new NotificationChannel(
+                    CHANNEL_ID, "Task reminders", NotificationManager.IMPORTANCE_HIGH));
+        }
+    }
+
+    private static String formatTime(Context context, long time) {
+        return DateFormat.getTimeFormat(context).format(new Date(time));
+    }
+}
@@ -0,0 +1,37 @@
+package com.taskmate.task_mate.reminders;
+
+import android.content.BroadcastReceiver;
+import android.content.Context;
+import android.content.Intent;
+
+import com.taskmate.task_mate.network.WorkPool;
+
+import java.util.concurrent.RejectedExecutionException;
+
+public class ReminderReceiver extends BroadcastReceiver {
+
+    @Override
+    public void onReceive(Context context, Intent intent) {
+        String action = intent != null ? intent.getAction() : null;
+        // The index may have to be read from disk in a cold process, keep it off the main thread
+        PendingResult result = goAsync();
+        Runnable handling = () -> {
+            try {
+                ReminderScheduler scheduler = ReminderScheduler.getInstance(context);
+                if (Intent.ACTION_BOOT_COMPLETED.equals(action)) {
+                    scheduler.restore();
+                } else if (ReminderScheduler.ACTION_FIRE.equals(action)) {
+                    scheduler.onAlarm();
+                }
+            } finally {
+                result.finish();
+            }
+        };
+        try {
+            WorkPool.DISK.execute(handling);
+        } catch (RejectedExecutionException e) {
+            // A dropped alarm is a reminder never shown and never re-armed
+            handling.run();
+        }
+    }
+}
@@ -0,0 +1,248 @@
+package com.taskmate.task_mate.reminders;
+
+import android.app.AlarmManager;
+import android.app.PendingIntent;
+import android.content.Context;
+import android.content.Intent;
+import android.os.Build;
+
+import com.taskmate.task_mate.data.TaskRepository;
+import com.taskmate.task_mate.feed.ActivityEvent;
+import com.taskmate.task_mate.feed.ActivityFeed;
+import com.taskmate.task_mate.logging.AppLog;
+import com.taskmate.task_mate.models.Task;
+import com.taskmate.task_mate.network.WorkPool;
+import com.taskmate.task_mate.recurrence.RecurringSeries;
+import com.taskmate.task_mate.util.DateUtils;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// Keeps the ReminderIndex in sync with the TaskRepository and arms exactly one
+// OS alarm for the earliest upcoming reminder. When it fires, every reminder
+// inside the coalescing window is posted as one notification and the alarm is
+// re-armed for the next one.
+//
+// A full load is indexed on a worker (prepareReplace); the main thread only
+// swaps the new reminders in and re-arms.
+public class ReminderScheduler implements TaskRepository.Preparing {
+
+    private static final String TAG = "ReminderScheduler";
+    private static final String INDEX_FILE = "reminders.bin";
+    private static final int ALARM_REQUEST_CODE = 1001;
+
+    static final String ACTION_FIRE = "com.taskmate.task_mate.action.FIRE_REMINDERS";
+    static final long LEAD_TIME_MS = 15 * DateUtils.MINUTE_MS;
+    static final long COALESCE_WINDOW_MS = 5 * DateUtils.MINUTE_MS;
+
+    private static ReminderScheduler instance;
+
+    private final Context context;
+    private final ReminderIndex index = new ReminderIndex(LEAD_TIME_MS);
+    private final AtomicBoolean saveQueued = new AtomicBoolean();
+    private long armedAt = ReminderIndex.NONE;
+
+    public static synchronized ReminderScheduler getInstance(Context context) {
+        if (instance == null) {
+            instance = new ReminderScheduler(context.getApplicationContext());
+        }
+        return instance;
+    }
+
+    private ReminderScheduler(Context context) {
+        this.context = context;
+        load();
+    }
+
+    // Starts following task changes; called once the UI is up
+    public void attach() {
+        TaskRepository.getInstance().removeListener(this);
+        TaskRepository.getInstance().addListener(this);
+    }
+
+    // Called from ReminderReceiver when the alarm goes off (or after reboot)
+    void onAlarm() {
+        long now = System.currentTimeMillis();
+        List<Reminder> due = index.pollDue(now + COALESCE_WINDOW_MS);
+        if (!due.isEmpty()) {
+            ReminderNotifier.show(context, due);
+            ActivityFeed feed = ActivityFeed.getInstance(context);
+            for (Reminder reminder : due) {
+                feed.record(ActivityEvent.Type.REMINDER, reminder.getTaskId(),
+                        "\"" + reminder.getTitle() + "\" is due soon");
+            }
+        }
+        rearm(true);
+        saveAsync();
+    }
+
+    // Re-arms the persisted next alarm, e.g. after the device rebooted
+    void restore() {
+        rearm(true);
+    }
+
+    // TaskRepository.Listener implementation
+    @Override
+    public void onTasksReplaced(List<Task> tasks) {
+        long now = System.currentTimeMillis();
+        Set<String> ids = new HashSet<>();
+        index.clearPending();
+        for (Task task : tasks) {
+            ids.add(task.getId());
+            indexTask(task, now);
+        }
+        index.retainFired(ids);
+        rearm(false);
+        saveAsync();
+    }
+
+    // Worker thread: same result as onTasksReplaced once the swap runs
+    @Override
+    public Runnable prepareReplace(List<Task> tasks) {
+        long now = System.currentTimeMillis();
+        ReminderIndex fresh = new ReminderIndex(LEAD_TIME_MS);
+        Set<String> activeIds = new HashSet<>();
+        for (Task task : tasks) {
+            if (!task.isActive()) continue;
+            activeIds.add(task.getId());
+            fresh.upsert(task.getId(), task.getTitle(), RecurringSeries.effectiveDueDate(task, now), now);
+        }
+        return () -> {
+            index.replacePending(fresh, activeIds);
+            rearm(false);
+            saveAsync();
+        };
+    }
+
+    // New tasks only, so the fired history of the rest stays as it is
+    @Override
+    public void onTasksAppended(List<Task> added) {
+        long now = System.currentTimeMillis();
+        for (Task task : added) {
+            indexTask(task, now);
+        }
+        rearm(false);
+        saveAsync();
+    }
+
+    @Override
+    public void onTaskUpdated(Task task) {
+        indexTask(task, System.currentTimeMillis());
+        rearm(false);
+        saveAsync();
+    }
+
+    @Override
+    public void onTaskRemoved(String taskId) {
+        index.remove(taskId);
+        rearm(false);
+        saveAsync();
+    }
+
+    // Signed out: cancels the alarm and forgets every reminder, on disk too
+    public void clear() {
+        index.clear();
+        synchronized (this) {
+            AlarmManager alarmManager = (AlarmManager) context.getSystemService(Context.ALARM_SERVICE);
+            if (alarmManager != null) alarmManager.cancel(alarmIntent());
+            armedAt = ReminderIndex.NONE;
+        }
+        Runnable deletion = () -> {
+            File file = new File(context.getFilesDir(), INDEX_FILE);
+            if (file.exists() && !file.delete()) {
+                AppLog.e(TAG, "Failed to delete reminder index");
+            }
+        };
+        try {
+            WorkPool.DISK.execute(deletion);
+        } catch (RejectedExecutionException e) {
+            // Too important to drop; it's one small file
+            deletion.run();
+        }
+    }
+
+    private void indexTask(Task task, long now) {
+        if (!task.isActive()) {
+            index.remove(task.getId());
+        } else {
+            index.upsert(task.getId(), task.getTitle(), RecurringSeries.effectiveDueDate(task, now), now);
+        }
+    }
+
+    // Only touches the AlarmManager when the earliest trigger actually changed
+    private synchronized void rearm(boolean force) {
+        long next = index.nextTriggerTime();
+        if (next == armedAt && !force) return;
+
+        AlarmManager alarmManager = (AlarmManager) context.getSystemService(Context.ALARM_SERVICE);
+        if (alarmManager == null) return;
+        PendingIntent pendingIntent = alarmIntent();
+
+        if (next == ReminderIndex.NONE) {
+            alarmManager.cancel(pendingIntent);
+        } else if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.S && !alarmManager.canScheduleExactAlarms()) {
+            alarmManager.setAndAllowWhileIdle(AlarmManager.RTC_WAKEUP, next, pendingIntent);
+        } else {
+            alarmManager.setExactAndAllowWhileIdle(AlarmManager.RTC_WAKEUP, next, pendingIntent);
+        }
+        armedAt = next;
+    }
+
+    private PendingIntent alarmIntent() {
+        Intent intent = new Intent(context, ReminderReceiver.class);
+        intent.setAction(ACTION_FIRE);
+        return PendingIntent.getBroadcast(context, ALARM_REQUEST_CODE, intent,
+                PendingIntent.FLAG_UPDATE_CURRENT | PendingIntent.FLAG_IMMUTABLE);
+    }
+
+    private void load() {
+        File file = new File(context.getFilesDir(), INDEX_FILE);
+        if (!file.exists()) return;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            index.readFrom(in);
+        } catch (IOException e) {
+            AppLog.e(TAG, "Failed to read reminder index, starting empty", e);
+            index.clearPending();
+        }
+    }
+
+    // Coalesces bursts of changes into one write; the file is replaced atomically
+    private void saveAsync() {
+        if (!saveQueued.compareAndSet(false, true)) return;
+        try {
+            WorkPool.DISK.execute(() -> {
+                saveQueued.set(false);
+                File file = new File(context.getFilesDir(), INDEX_FILE);
+                File temp = new File(context.getFilesDir(), INDEX_FILE + ".tmp");
+                try (FileOutputStream stream = new FileOutputStream(temp);
+                     DataOutputStream out = new DataOutputStream(new BufferedOutputStream(stream))) {
+                    index.writeTo(out);
+                    out.flush();
+                    // On the device before the rename, or a power loss can leave an empty file
+                    stream.getFD().sync();
+                } catch (IOException e) {
+                    AppLog.e(TAG, "Failed to write reminder index", e);
+                    return;
+                }
+                if (!temp.renameTo(file)) {
+                    AppLog.e(TAG, "Failed to replace reminder index");
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // The next change saves everything, this one included
+            saveQueued.set(false);
+            AppLog.w(TAG, "Reminder index not saved: {}", e.getMessage());
+        }
+    }
+}
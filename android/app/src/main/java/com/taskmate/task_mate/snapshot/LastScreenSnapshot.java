@@ -0,0 +1,262 @@
+package com.taskmate.task_mate.snapshot;
+
+import android.content.Context;
+
+import com.taskmate.task_mate.data.TaskRepository;
+import com.taskmate.task_mate.logging.AppLog;
+import com.taskmate.task_mate.models.Priority;
+import com.taskmate.task_mate.models.Task;
+import com.taskmate.task_mate.network.WorkPool;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// The first screen of the task list as it was last shown, so a cold start can
+// draw rows in its first frame, before the network, the repository or the
+// other on-device indexes are up. Only what a row shows is kept: title,
+// description preview, priority, the category line with the repeat rule
+// already described, tags and the checkbox. A few kilobytes, read with one
+// memory-mapped read.
+//
+// Rewritten in the background whenever the repository changes, coalesced; a
+// change below the first MAX_ROWS rows encodes to the same bytes and isn't
+// written. The new file is synced before it replaces the old one, so a crash
+// or power loss mid-write leaves the previous snapshot, never an empty file.
+//
+// Format, big-endian: magic, version, row count, then per row the id, title,
+// description, priority and category line as strings, the tag count and the
+// tags, and a completed byte. A string is its UTF-8 length (-1 for null)
+// followed by the bytes.
+public class LastScreenSnapshot implements TaskRepository.Listener {
+
+    private static final String TAG = "LastScreenSnapshot";
+    private static final String SNAPSHOT_FILE = "last_screen.bin";
+    static final int MAGIC = 0x544D4C53;
+    static final int VERSION = 1;
+    // More than the tallest phone shows
+    public static final int MAX_ROWS = 20;
+    // Same as the server's summary preview
+    static final int DESCRIPTION_LENGTH = 120;
+    // Anything bigger isn't a snapshot we wrote
+    static final int MAX_BYTES = 256 * 1024;
+
+    private static LastScreenSnapshot instance;
+
+    private final File file;
+    private final Executor ioExecutor;
+    private final AtomicBoolean saveQueued = new AtomicBoolean();
+    // Latest list to save; null once deleted
+    private volatile List<Task> pending;
+    // What the file holds as far as we know. Written on the io thread, or on
+    // the caller's when a rejected delete runs inline
+    private volatile byte[] written;
+
+    public static synchronized LastScreenSnapshot getInstance(Context context) {
+        if (instance == null) {
+            instance = new LastScreenSnapshot(new File(context.getApplicationContext().getFilesDir(), SNAPSHOT_FILE),
+                    WorkPool.DISK);
+        }
+        return instance;
+    }
+
+    public LastScreenSnapshot(File file, Executor ioExecutor) {
+        this.file = file;
+        this.ioExecutor = ioExecutor;
+    }
+
+    // Starts following task changes; called once the first frame is out
+    public void attach() {
+        TaskRepository.getInstance().removeListener(this);
+        TaskRepository.getInstance().addListener(this);
+    }
+
+    // Rows as last saved, or none if there is no readable snapshot. They are
+    // display-only: recurrence is folded into the category line and
+    // everything a row doesn't show is missing
+    public List<Task> read() {
+        if (!file.exists()) return Collections.emptyList();
+        try (FileInputStream in = new FileInputStream(file); FileChannel channel = in.getChannel()) {
+            long size = channel.size();
+            if (size > MAX_BYTES) throw new IOException("Snapshot too large: " + size);
+            return decode(channel.map(FileChannel.MapMode.READ_ONLY, 0, size));
+        } catch (IOException | BufferUnderflowException e) {
+            AppLog.w(TAG, "Ignoring unreadable snapshot", e);
+            return Collections.emptyList();
+        }
+    }
+
+    // Saves the first rows of tasks in the background; bursts of changes
+    // come down to one encode and at most one write
+    public void save(List<Task> tasks) {
+        pending = tasks;
+        if (!saveQueued.compareAndSet(false, true)) return;
+        try {
+            ioExecutor.execute(() -> {
+                saveQueued.set(false);
+                List<Task> latest = pending;
+                if (latest != null) write(latest);
+            });
+        } catch (RejectedExecutionException e) {
+            // The next change saves the rows then current
+            saveQueued.set(false);
+            AppLog.w(TAG, "Snapshot not saved: {}", e.getMessage());
+        }
+    }
+
+    // Signed out: the next user mustn't see these rows
+    public void delete() {
+        pending = null;
+        Runnable deletion = () -> {
+            written = null;
+            if (file.exists() && !file.delete()) {
+                AppLog.e(TAG, "Failed to delete snapshot");
+            }
+        };
+        try {
+            ioExecutor.execute(deletion);
+        } catch (RejectedExecutionException e) {
+            // Too important to drop; it's one small file
+            deletion.run();
+        }
+    }
+
+    // True if the file was replaced, false if it already held these rows or
+    // couldn't be written
+    boolean write(List<Task> tasks) {
+        byte[] bytes = encode(tasks, MAX_ROWS);
+        if (Arrays.equals(bytes, written)) return false;
+        File temp = new File(file.getPath() + ".tmp");
+        try (FileOutputStream out = new FileOutputStream(temp)) {
+            out.write(bytes);
+            // Flushed to the device, or the rename may land before the data
+            out.getFD().sync();
+        } catch (IOException e) {
+            AppLog.e(TAG, "Failed to write snapshot", e);
+            return false;
+        }
+        if (!temp.renameTo(file)) {
+            AppLog.e(TAG, "Failed to replace snapshot");
+            return false;
+        }
+        written = bytes;
+        return true;
+    }
+
+    // TaskRepository.Listener implementation
+    @Override
+    public void onTasksReplaced(List<Task> tasks) {
+        save(tasks);
+    }
+
+    // Rows added below a full first screen don't change the snapshot
+    @Override
+    public void onTasksAppended(List<Task> added) {
+        List<Task> tasks = TaskRepository.getInstance().getTasks();
+        if (tasks.size() - added.size() < MAX_ROWS) save(tasks);
+    }
+
+    @Override
+    public void onTaskUpdated(Task task) {
+        save(TaskRepository.getInstance().getTasks());
+    }
+
+    @Override
+    public void onTaskRemoved(String taskId) {
+        save(TaskRepository.getInstance().getTasks());
+    }
+
+    static byte[] encode(List<Task> tasks, int maxRows) {
+        int count = Math.min(tasks.size(), maxRows);
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(64 + count * 128);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(count);
+            int written = 0;
+            for (Task task : tasks) {
+                if (written++ == count) break;
+                writeString(out, task.getId());
+                writeString(out, task.getTitle());
+                writeString(out, preview(task.getDescription()));
+                writeString(out, task.getPriority().getWireValue());
+                writeString(out, task.getCategoryLine());
+                out.writeInt(task.getTags().size());
+                for (String tag : task.getTags()) writeString(out, tag);
+                out.writeBoolean(task.isCompleted());
+            }
+        } catch (IOException e) {
+            // Not thrown by an in-memory stream
+            throw new IllegalStateException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    static List<Task> decode(ByteBuffer buffer) throws IOException {
+        if (buffer.getInt() != MAGIC) throw new IOException("Not a snapshot");
+        int version = buffer.getInt();
+        if (version != VERSION) throw new IOException("Unknown snapshot version " + version);
+        int count = buffer.getInt();
+        if (count < 0 || count > MAX_ROWS) throw new IOException("Bad row count " + count);
+        List<Task> rows = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Task row = new Task();
+            row.setId(readString(buffer));
+            row.setTitle(readString(buffer));
+            row.setDescription(readString(buffer));
+            row.setPriority(Priority.fromWire(readString(buffer)));
+            row.setCategory(readString(buffer));
+            int tagCount = buffer.getInt();
+            if (tagCount < 0 || tagCount > buffer.remaining()) throw new IOException("Bad tag count " + tagCount);
+            List<String> tags = new ArrayList<>(tagCount);
+            for (int t = 0; t < tagCount; t++) tags.add(readString(buffer));
+            row.setTags(tags);
+            row.setCompleted(buffer.get() != 0);
+            row.setSummary(true);
+            if (row.getId() == null || row.getTitle() == null) throw new IOException("Row without id or title");
+            rows.add(row);
+        }
+        return rows;
+    }
+
+    // Cut to DESCRIPTION_LENGTH chars, never between the halves of a surrogate pair
+    static String preview(String description) {
+        if (description == null || description.length() <= DESCRIPTION_LENGTH) return description;
+        int end = DESCRIPTION_LENGTH;
+        if (Character.isHighSurrogate(description.charAt(end - 1))) end--;
+        return description.substring(0, end);
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(utf8.length);
+        out.write(utf8);
+    }
+
+    private static String readString(ByteBuffer buffer) throws IOException {
+        int length = buffer.getInt();
+        if (length == -1) return null;
+        if (length < 0 || length > buffer.remaining()) throw new IOException("Bad string length " + length);
+        byte[] utf8 = new byte[length];
+        buffer.get(utf8);
+        return new String(utf8, StandardCharsets.UTF_8);
+    }
+}
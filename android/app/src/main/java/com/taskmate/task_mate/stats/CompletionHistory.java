@@ -0,0 +1,266 @@
+package com.taskmate.task_mate.stats;
+
+import android.content.Context;
+
+import com.taskmate.task_mate.data.TaskRepository;
+import com.taskmate.task_mate.logging.AppLog;
+import com.taskmate.task_mate.models.Task;
+import com.taskmate.task_mate.network.WorkPool;
+import com.taskmate.task_mate.util.DateUtils;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TimeZone;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.LongSupplier;
+
+// Tasks created and completed per day, for the dashboard charts and streaks.
+// The server's history is the baseline (merged in by applyServerHistory when
+// the dashboard opens); from then on every task change seen through the
+// repository moves the day counts by the difference it makes, so the charts
+// never count tasks. For each task we remember which days it adds to: a
+// completion moves the task's count onto the completion day, reopening or
+// deleting takes it back off.
+//
+// A task we haven't seen since the last full load adds only what happened
+// after the last sync, since the server's history already has the rest.
+// Occurrences of recurring tasks aren't tasks on the server and aren't counted.
+// All calls are expected on the main thread; saving happens in the background,
+// and a full load is remembered into a new map on a worker (prepareReplace).
+public class CompletionHistory implements TaskRepository.Preparing {
+
+    private static final String TAG = "CompletionHistory";
+    private static final String HISTORY_FILE = "completion_history.bin";
+    // Two years, leap day included
+    public static final int DAYS = 732;
+
+    // Not completed, or not created as far as the counts know
+    private static final int NONE = Integer.MIN_VALUE;
+    // Completed, but on a day the counts don't know (no completedAt)
+    private static final int UNKNOWN_DAY = Integer.MIN_VALUE + 1;
+
+    private static CompletionHistory instance;
+
+    private final DailyCounts counts = new DailyCounts(DAYS);
+    private final LongSupplier clock;
+    private final TimeZone timeZone;
+    private final File file;
+    private final WorkPool ioExecutor;
+    private final AtomicBoolean saveQueued = new AtomicBoolean();
+    // Task id -> creation day << 32 | completion day, as they are in the counts
+    private Map<String, Long> counted = new HashMap<>();
+
+    public static synchronized CompletionHistory getInstance(Context context) {
+        if (instance == null) {
+            instance = new CompletionHistory(new File(context.getApplicationContext().getFilesDir(), HISTORY_FILE),
+                    System::currentTimeMillis, TimeZone.getDefault());
+            instance.onTasksReplaced(TaskRepository.getInstance().getTasks());
+        }
+        return instance;
+    }
+
+    // A null file keeps the history in memory only
+    public CompletionHistory(File file, LongSupplier clock, TimeZone timeZone) {
+        this.file = file;
+        this.clock = clock;
+        this.timeZone = timeZone;
+        this.ioExecutor = file != null ? WorkPool.DISK : null;
+        load();
+    }
+
+    // Starts following task changes; called once the UI is up
+    public void attach() {
+        TaskRepository.getInstance().removeListener(this);
+        TaskRepository.getInstance().addListener(this);
+    }
+
+    public DailyCounts getCounts() {
+        return counts;
+    }
+
+    // Local day number of an instant (days since 1970-01-01 in this time zone)
+    public long dayOf(long epochMillis) {
+        return Math.floorDiv(epochMillis + timeZone.getOffset(epochMillis), DateUtils.DAY_MS);
+    }
+
+    public long today() {
+        return dayOf(clock.getAsLong());
+    }
+
+    // The last `days` days up to today, in at most maxBars bars
+    public DailyCounts.Series lastDays(int days, int maxBars) {
+        long today = today();
+        return counts.downsample(today - days + 1, today, maxBars);
+    }
+
+    public int currentStreak() {
+        return counts.currentStreak(today());
+    }
+
+    public int longestStreak() {
+        return counts.longestStreak(today());
+    }
+
+    // Replaces the days the server sent with its counts; requestedAt is when the
+    // request went out, so changes made after it are still added as they come
+    public void applyServerHistory(long fromDay, int[] created, int[] completed, long requestedAt) {
+        int days = Math.min(created.length, completed.length);
+        for (int i = 0; i < days; i++) {
+            counts.set(fromDay + i, created[i], completed[i]);
+        }
+        counts.setSyncedAt(requestedAt);
+        saveAsync();
+    }
+
+    // Signed out: the next user starts from their own server history
+    public void clear() {
+        counts.clear();
+        counted.clear();
+        if (file == null) return;
+        Runnable deletion = () -> {
+            if (file.exists() && !file.delete()) {
+                AppLog.e(TAG, "Failed to delete completion history");
+            }
+        };
+        try {
+            ioExecutor.execute(deletion);
+        } catch (RejectedExecutionException e) {
+            // Too important to drop; it's one small file
+            deletion.run();
+        }
+    }
+
+    // TaskRepository.Listener implementation
+    @Override
+    public void onTasksReplaced(List<Task> tasks) {
+        // A full load is what the server has, which the counts already reflect
+        counted.clear();
+        remember(tasks, counted);
+    }
+
+    // Worker thread: the same, into a map that replaces this one
+    @Override
+    public Runnable prepareReplace(List<Task> tasks) {
+        Map<String, Long> next = new HashMap<>();
+        remember(tasks, next);
+        return () -> counted = next;
+    }
+
+    // Likewise a further page: remembered, not counted
+    @Override
+    public void onTasksAppended(List<Task> added) {
+        remember(added, counted);
+    }
+
+    @Override
+    public void onTaskUpdated(Task task) {
+        if (task.getId() == null || task.isOccurrence()) return;
+        Long before = counted.get(task.getId());
+        int createdDay;
+        int completedDay;
+        if (before == null) {
+            // New to us: only what happened since the last sync is missing from the counts
+            long syncedAt = counts.getSyncedAt();
+            createdDay = creationDay(task);
+            completedDay = completionDay(task, UNKNOWN_DAY);
+            if (createdDay != NONE && task.getCreatedAt() > syncedAt) counts.add(createdDay, 1, 0);
+            if (isCountedDay(completedDay) && task.getCompletedAt() > syncedAt) counts.add(completedDay, 0, 1);
+        } else {
+            createdDay = (int) (before >> 32);
+            int previous = (int) (long) before;
+            completedDay = completionDay(task, previous == NONE ? (int) today() : previous);
+            if (completedDay == previous) return;
+            // A completion on an unknown day is in the counts already; now we know the day
+            if (previous != UNKNOWN_DAY || completedDay == NONE) {
+                if (isCountedDay(previous)) counts.add(previous, 0, -1);
+                if (isCountedDay(completedDay)) counts.add(completedDay, 0, 1);
+            }
+        }
+        counted.put(task.getId(), pack(createdDay, completedDay));
+        saveAsync();
+    }
+
+    @Override
+    public void onTaskRemoved(String taskId) {
+        Long before = counted.remove(taskId);
+        if (before == null) return;
+        int createdDay = (int) (before >> 32);
+        int completedDay = (int) (long) before;
+        if (createdDay != NONE) counts.add(createdDay, -1, 0);
+        if (isCountedDay(completedDay)) counts.add(completedDay, 0, -1);
+        saveAsync();
+    }
+
+    private void remember(List<Task> tasks, Map<String, Long> into) {
+        for (Task task : tasks) {
+            if (task.getId() == null || task.isOccurrence()) continue;
+            into.put(task.getId(), pack(creationDay(task), completionDay(task, UNKNOWN_DAY)));
+        }
+    }
+
+    private int creationDay(Task task) {
+        return task.getCreatedAt() != DateUtils.NO_DATE ? (int) dayOf(task.getCreatedAt()) : NONE;
+    }
+
+    // NONE if the task is open; its completedAt's day if known, otherwise fallback
+    private int completionDay(Task task, int fallback) {
+        if (!task.isCompleted()) return NONE;
+        return task.getCompletedAt() != DateUtils.NO_DATE ? (int) dayOf(task.getCompletedAt()) : fallback;
+    }
+
+    private static boolean isCountedDay(int day) {
+        return day != NONE && day != UNKNOWN_DAY;
+    }
+
+    private static long pack(int createdDay, int completedDay) {
+        return ((long) createdDay << 32) | (completedDay & 0xFFFFFFFFL);
+    }
+
+    private void load() {
+        if (file == null || !file.exists()) return;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            counts.readFrom(in);
+        } catch (IOException e) {
+            AppLog.e(TAG, "Failed to read completion history, starting empty", e);
+            counts.clear();
+        }
+    }
+
+    // Coalesces bursts of changes into one write; the file is replaced atomically
+    private void saveAsync() {
+        if (file == null || !saveQueued.compareAndSet(false, true)) return;
+        try {
+            ioExecutor.execute(() -> {
+                saveQueued.set(false);
+                File temp = new File(file.getPath() + ".tmp");
+                try (FileOutputStream stream = new FileOutputStream(temp);
+                     DataOutputStream out = new DataOutputStream(new BufferedOutputStream(stream))) {
+                    counts.writeTo(out);
+                    out.flush();
+                    // On the device before the rename, or a power loss can leave an empty file
+                    stream.getFD().sync();
+                } catch (IOException e) {
+                    AppLog.e(TAG, "Failed to write completion history", e);
+                    return;
+                }
+                if (!temp.renameTo(file)) {
+                    AppLog.e(TAG, "Failed to replace completion history");
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // The next change saves everything, this one included
+            saveQueued.set(false);
+            AppLog.w(TAG, "Completion history not saved: {}", e.getMessage());
+        }
+    }
+}
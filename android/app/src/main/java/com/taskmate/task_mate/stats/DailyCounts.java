@@ -0,0 +1,230 @@
+package com.taskmate.task_mate.stats;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+
+// Tasks created and completed per local day (days since 1970-01-01), for the
+// last `capacity` days. Day d lives in slot d % capacity of three int arrays,
+// so a change is one O(1) update and reading a year touches 365 slots and no
+// tasks. A day that reuses a slot clears what the slot held, which by then is
+// at least `capacity` days old. About 12 bytes a day in memory and on disk.
+// Synchronized: counts change on the main thread and are saved on another.
+public class DailyCounts {
+
+    private static final int MAGIC = 0x54444331;
+    private static final int VERSION = 1;
+    private static final int EMPTY = Integer.MIN_VALUE;
+
+    private final int capacity;
+    // Day held by each slot, or EMPTY
+    private final int[] days;
+    private final int[] created;
+    private final int[] completed;
+    // When the counts were last replaced by the server's
+    private long syncedAt;
+
+    public DailyCounts(int capacity) {
+        this.capacity = capacity;
+        days = new int[capacity];
+        created = new int[capacity];
+        completed = new int[capacity];
+        Arrays.fill(days, EMPTY);
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public synchronized long getSyncedAt() {
+        return syncedAt;
+    }
+
+    public synchronized void setSyncedAt(long syncedAt) {
+        this.syncedAt = syncedAt;
+    }
+
+    public synchronized int getCreated(long day) {
+        int slot = slotOf(day);
+        return days[slot] == day ? created[slot] : 0;
+    }
+
+    public synchronized int getCompleted(long day) {
+        int slot = slotOf(day);
+        return days[slot] == day ? completed[slot] : 0;
+    }
+
+    // Counts never go below zero, whatever order the changes arrive in
+    public synchronized void add(long day, int createdDelta, int completedDelta) {
+        int slot = claim(day);
+        if (slot < 0) return;
+        created[slot] = Math.max(0, created[slot] + createdDelta);
+        completed[slot] = Math.max(0, completed[slot] + completedDelta);
+    }
+
+    public synchronized void set(long day, int createdCount, int completedCount) {
+        int slot = claim(day);
+        if (slot < 0) return;
+        created[slot] = Math.max(0, createdCount);
+        completed[slot] = Math.max(0, completedCount);
+    }
+
+    // Days [fromDay, toDay] in at most maxBars bars. Each bar covers the same
+    // number of days, on boundaries that are multiples of it since day 0, so
+    // the bars don't shift as the range moves a day at a time. A bar's value
+    // is its count per day: the bars at either end may cover fewer days
+    public synchronized Series downsample(long fromDay, long toDay, int maxBars) {
+        long total = Math.max(1, toDay - fromDay + 1);
+        maxBars = Math.max(1, maxBars);
+        int daysPerBar = (int) ((total + maxBars - 1) / maxBars);
+        long firstStart = Math.floorDiv(fromDay, daysPerBar) * daysPerBar;
+        int bars = (int) ((toDay - firstStart) / daysPerBar + 1);
+        // Aligning can take one bar more than asked for; the first two then share one
+        if (bars > maxBars) {
+            firstStart += daysPerBar;
+            bars--;
+        }
+
+        float[] createdPerDay = new float[bars];
+        float[] completedPerDay = new float[bars];
+        for (int bar = 0; bar < bars; bar++) {
+            long start = bar == 0 ? fromDay : firstStart + (long) bar * daysPerBar;
+            long end = bar == bars - 1 ? toDay : firstStart + (long) (bar + 1) * daysPerBar - 1;
+            int createdSum = 0;
+            int completedSum = 0;
+            for (long day = start; day <= end; day++) {
+                int slot = slotOf(day);
+                if (days[slot] != day) continue;
+                createdSum += created[slot];
+                completedSum += completed[slot];
+            }
+            int span = (int) (end - start + 1);
+            createdPerDay[bar] = (float) createdSum / span;
+            completedPerDay[bar] = (float) completedSum / span;
+        }
+        return new Series(fromDay, toDay, firstStart, daysPerBar, createdPerDay, completedPerDay);
+    }
+
+    // Days in a row with a completion, ending today; a today without one yet
+    // doesn't break the streak of the days before
+    public synchronized int currentStreak(long today) {
+        long day = today;
+        if (getCompleted(day) == 0) day--;
+        int streak = 0;
+        while (streak < capacity && getCompleted(day) > 0) {
+            streak++;
+            day--;
+        }
+        return streak;
+    }
+
+    // Longest run of days with a completion among the days still held
+    public synchronized int longestStreak(long today) {
+        int longest = 0;
+        int run = 0;
+        for (long day = today - capacity + 1; day <= today; day++) {
+            run = getCompleted(day) > 0 ? run + 1 : 0;
+            longest = Math.max(longest, run);
+        }
+        return longest;
+    }
+
+    // Only days that have counts are written
+    public synchronized void writeTo(DataOutputStream out) throws IOException {
+        int used = 0;
+        for (int slot = 0; slot < capacity; slot++) {
+            if (days[slot] != EMPTY && (created[slot] > 0 || completed[slot] > 0)) used++;
+        }
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+        out.writeLong(syncedAt);
+        out.writeInt(used);
+        for (int slot = 0; slot < capacity; slot++) {
+            if (days[slot] == EMPTY || (created[slot] == 0 && completed[slot] == 0)) continue;
+            out.writeInt(days[slot]);
+            out.writeInt(created[slot]);
+            out.writeInt(completed[slot]);
+        }
+    }
+
+    // Replaces the counts; a file with a different capacity keeps the newest days that fit
+    public synchronized void readFrom(DataInputStream in) throws IOException {
+        if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+            throw new IOException("Not a daily counts file");
+        }
+        long readSyncedAt = in.readLong();
+        int used = in.readInt();
+        if (used < 0) throw new IOException("Bad day count " + used);
+        clear();
+        for (int i = 0; i < used; i++) {
+            set(in.readInt(), in.readInt(), in.readInt());
+        }
+        syncedAt = readSyncedAt;
+    }
+
+    public synchronized void clear() {
+        Arrays.fill(days, EMPTY);
+        Arrays.fill(created, 0);
+        Arrays.fill(completed, 0);
+        syncedAt = 0;
+    }
+
+    private int slotOf(long day) {
+        return (int) Math.floorMod(day, (long) capacity);
+    }
+
+    // Slot for the day, cleared if it held an older one; -1 if the slot
+    // already holds a newer day, i.e. the day is too old to keep
+    private int claim(long day) {
+        int slot = slotOf(day);
+        if (days[slot] == day) return slot;
+        if (days[slot] != EMPTY && days[slot] > day) return -1;
+        days[slot] = (int) day;
+        created[slot] = 0;
+        completed[slot] = 0;
+        return slot;
+    }
+
+    // Per-day averages of consecutive groups of days, oldest first
+    public static final class Series {
+        private final long fromDay;
+        private final long toDay;
+        private final long firstStart;
+        private final int daysPerBar;
+        private final float[] created;
+        private final float[] completed;
+
+        Series(long fromDay, long toDay, long firstStart, int daysPerBar, float[] created, float[] completed) {
+            this.fromDay = fromDay;
+            this.toDay = toDay;
+            this.firstStart = firstStart;
+            this.daysPerBar = daysPerBar;
+            this.created = created;
+            this.completed = completed;
+        }
+
+        public long getFromDay() { return fromDay; }
+        public long getToDay() { return toDay; }
+        public int getDaysPerBar() { return daysPerBar; }
+        public int size() { return created.length; }
+        public long getBarStart(int bar) { return bar == 0 ? fromDay : firstStart + (long) bar * daysPerBar; }
+        public long getBarEnd(int bar) { return bar == size() - 1 ? toDay : firstStart + (long) (bar + 1) * daysPerBar - 1; }
+        public float getCreated(int bar) { return created[bar]; }
+        public float getCompleted(int bar) { return completed[bar]; }
+
+        public float maxCreated() {
+            return max(created);
+        }
+
+        public float maxCompleted() {
+            return max(completed);
+        }
+
+        private static float max(float[] values) {
+            float max = 0;
+            for (float value : values) max = Math.max(max, value);
+            return max;
+        }
+    }
+}
@@ -0,0 +1,229 @@
+package com.taskmate.task_mate.subtasks;
+
+import com.taskmate.task_mate.models.Task;
+import com.taskmate.task_mate.models.TaskStatus;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// The subtask tree under one task and the rows it shows. A branch's children
+// are only created once they have been loaded, and only flattened into rows
+// while the branch is expanded; expanding or collapsing splices that branch's
+// rows in or out and reports the range, so the adapter never rebuilds the
+// whole list. Each node carries its descendant counts (from the server for
+// unloaded branches) and a completion change walks up the parent chain.
+// All calls are expected on the main thread.
+public class TaskTree {
+
+    public interface Listener {
+        void onRowsInserted(int position, int count);
+        void onRowsRemoved(int position, int count);
+        void onRowChanged(int position);
+    }
+
+    public static final class Node {
+        private Task task;
+        private final Node parent;
+        private final int depth;
+        // Null until loaded
+        private List<Node> children;
+        private boolean expanded;
+        private int total;
+        private int done;
+
+        Node(Task task, Node parent) {
+            this.task = task;
+            this.parent = parent;
+            this.depth = parent == null ? -1 : parent.depth + 1;
+            this.total = task.getSubtaskCount();
+            this.done = task.getSubtasksDone();
+        }
+
+        public Task getTask() { return task; }
+        public Node getParent() { return parent; }
+        // Top-level rows are depth 0; the root itself is not a row
+        public int getDepth() { return depth; }
+        public boolean isExpanded() { return expanded; }
+        public boolean isLoaded() { return children != null; }
+        public List<Node> getChildren() {
+            return children != null ? Collections.unmodifiableList(children) : Collections.emptyList();
+        }
+        // Descendants, and how many of them are completed
+        public int getTotal() { return total; }
+        public int getDone() { return done; }
+        public boolean hasChildren() { return children != null ? !children.isEmpty() : total > 0; }
+    }
+
+    private final Node root;
+    private final List<Node> rows = new ArrayList<>();
+    private final Map<String, Node> byId = new HashMap<>();
+    private Listener listener;
+
+    public TaskTree(Task rootTask) {
+        root = new Node(rootTask, null);
+        root.expanded = true;
+        byId.put(rootTask.getId(), root);
+    }
+
+    public void setListener(Listener listener) {
+        this.listener = listener;
+    }
+
+    public Node getRoot() {
+        return root;
+    }
+
+    public int getRowCount() {
+        return rows.size();
+    }
+
+    public Node getRow(int position) {
+        return rows.get(position);
+    }
+
+    public Node find(String taskId) {
+        return byId.get(taskId);
+    }
+
+    // Row of a node, or -1 for the root and nodes inside collapsed branches
+    public int positionOf(Node node) {
+        return node == root ? -1 : rows.indexOf(node);
+    }
+
+    // Loaded children of a node; shown right away if the node is expanded and visible
+    public void setChildren(Node parent, List<Task> tasks) {
+        int at = insertionPoint(parent);
+        if (parent.children != null) {
+            // Reloaded: drop the old branch first
+            if (at >= 0 && parent.expanded) removeRows(at, visibleDescendants(parent, at));
+            for (Node child : parent.children) forget(child);
+        }
+        List<Node> children = new ArrayList<>(tasks.size());
+        for (Task task : tasks) {
+            Node child = new Node(task, parent);
+            children.add(child);
+            byId.put(task.getId(), child);
+        }
+        parent.children = children;
+        if (at >= 0 && parent.expanded) insertRows(at, children);
+    }
+
+    // False when the children still have to be loaded (then call setChildren)
+    public boolean expand(Node node) {
+        if (node.expanded && node.children != null) return true;
+        node.expanded = true;
+        if (node.children == null) return false;
+        int at = insertionPoint(node);
+        if (at >= 0) {
+            List<Node> shown = new ArrayList<>();
+            appendVisible(node, shown);
+            insertRows(at, shown);
+        }
+        changed(node);
+        return true;
+    }
+
+    public void collapse(Node node) {
+        if (!node.expanded || node == root) return;
+        int at = insertionPoint(node);
+        node.expanded = false;
+        if (at >= 0) removeRows(at, visibleDescendants(node, at));
+        changed(node);
+    }
+
+    // Updates the node and the done count of every ancestor
+    public void setCompleted(Node node, boolean completed) {
+        if (node == root || node.task.isCompleted() == completed) return;
+        Task updated = node.task.copy();
+        updated.setCompleted(completed);
+        updated.setStatus(completed ? TaskStatus.COMPLETED : TaskStatus.PENDING);
+        node.task = updated;
+        changed(node);
+        adjustAncestors(node.parent, 0, completed ? 1 : -1);
+    }
+
+    // A subtask created under parent; it gets a row only if the branch is loaded
+    public Node add(Node parent, Task task) {
+        Node child = new Node(task, parent);
+        if (parent.children != null) {
+            int at = insertionPoint(parent);
+            if (at >= 0 && parent.expanded) {
+                int end = at + visibleDescendants(parent, at);
+                insertRows(end, Collections.singletonList(child));
+            }
+            parent.children.add(child);
+            byId.put(task.getId(), child);
+        }
+        adjustAncestors(parent, 1 + child.total, (task.isCompleted() ? 1 : 0) + child.done);
+        return child;
+    }
+
+    public void remove(Node node) {
+        if (node == root) return;
+        int position = positionOf(node);
+        if (position >= 0) {
+            removeRows(position, 1 + (node.expanded ? visibleDescendants(node, position + 1) : 0));
+        }
+        node.parent.children.remove(node);
+        forget(node);
+        adjustAncestors(node.parent, -(1 + node.total), -((node.task.isCompleted() ? 1 : 0) + node.done));
+    }
+
+    private void adjustAncestors(Node from, int total, int done) {
+        for (Node node = from; node != null; node = node.parent) {
+            node.total += total;
+            node.done += done;
+            changed(node);
+        }
+    }
+
+    // Where the node's children start in rows, or -1 when the node isn't shown
+    private int insertionPoint(Node node) {
+        if (node == root) return 0;
+        int position = rows.indexOf(node);
+        return position >= 0 ? position + 1 : -1;
+    }
+
+    // Rows below the node's row that belong to it, given where they start
+    private int visibleDescendants(Node node, int start) {
+        int end = start;
+        while (end < rows.size() && rows.get(end).depth > node.depth) end++;
+        return end - start;
+    }
+
+    private static void appendVisible(Node node, List<Node> out) {
+        if (node.children == null) return;
+        for (Node child : node.children) {
+            out.add(child);
+            if (child.expanded) appendVisible(child, out);
+        }
+    }
+
+    private void insertRows(int position, List<Node> nodes) {
+        if (nodes.isEmpty()) return;
+        rows.addAll(position, nodes);
+        if (listener != null) listener.onRowsInserted(position, nodes.size());
+    }
+
+    private void removeRows(int position, int count) {
+        if (count == 0) return;
+        rows.subList(position, position + count).clear();
+        if (listener != null) listener.onRowsRemoved(position, count);
+    }
+
+    private void changed(Node node) {
+        if (listener == null || node == root) return;
+        int position = rows.indexOf(node);
+        if (position >= 0) listener.onRowChanged(position);
+    }
+
+    private void forget(Node node) {
+        byId.remove(node.task.getId());
+        if (node.children != null) {
+            for (Node child : node.children) forget(child);
+        }
+    }
+}
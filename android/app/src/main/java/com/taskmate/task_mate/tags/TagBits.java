@@ -0,0 +1,59 @@
+package com.taskmate.task_mate.tags;
+
+import java.util.Arrays;
+import java.util.Collection;
+
+// Tag sets as long[] bitsets indexed by TagDictionary id. Arrays are trimmed
+// to the highest set word, so most tasks carry a single long.
+public final class TagBits {
+
+    public static final long[] EMPTY = new long[0];
+
+    private TagBits() {}
+
+    public static long[] of(Collection<String> tags) {
+        if (tags == null || tags.isEmpty()) return EMPTY;
+        long[] bits = EMPTY;
+        for (String tag : tags) {
+            bits = set(bits, TagDictionary.idOf(tag));
+        }
+        return bits;
+    }
+
+    // Updates bits in place unless it has to grow; use the returned array
+    public static long[] set(long[] bits, int id) {
+        int word = id >>> 6;
+        if (word >= bits.length) bits = Arrays.copyOf(bits, word + 1);
+        bits[word] |= 1L << id;
+        return bits;
+    }
+
+    public static boolean contains(long[] bits, int id) {
+        int word = id >>> 6;
+        return word < bits.length && (bits[word] & (1L << id)) != 0;
+    }
+
+    // Every bit of mask is set in bits
+    public static boolean containsAll(long[] bits, long[] mask) {
+        for (int i = 0; i < mask.length; i++) {
+            long word = i < bits.length ? bits[i] : 0;
+            if ((word & mask[i]) != mask[i]) return false;
+        }
+        return true;
+    }
+
+    // At least one bit of mask is set in bits
+    public static boolean containsAny(long[] bits, long[] mask) {
+        int words = Math.min(bits.length, mask.length);
+        for (int i = 0; i < words; i++) {
+            if ((bits[i] & mask[i]) != 0) return true;
+        }
+        return false;
+    }
+
+    public static int count(long[] bits) {
+        int count = 0;
+        for (long word : bits) count += Long.bitCount(word);
+        return count;
+    }
+}
@@ -0,0 +1,48 @@
+package com.taskmate.task_mate.tags;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Process-wide tag <-> small int mapping. Ids are handed out in first-seen
+// order and never reused, so a bitset built earlier keeps its meaning and every
+// task shares one String per tag.
+public final class TagDictionary {
+
+    public static final int UNKNOWN = -1;
+
+    private static final Map<String, Integer> ids = new HashMap<>();
+    private static final List<String> names = new ArrayList<>();
+
+    private TagDictionary() {}
+
+    // Assigns the next id to a tag seen for the first time
+    public static synchronized int idOf(String tag) {
+        Integer id = ids.get(tag);
+        if (id == null) {
+            id = names.size();
+            ids.put(tag, id);
+            names.add(tag);
+        }
+        return id;
+    }
+
+    // Id of a known tag, UNKNOWN otherwise; never grows the dictionary
+    public static synchronized int lookup(String tag) {
+        Integer id = ids.get(tag);
+        return id != null ? id : UNKNOWN;
+    }
+
+    public static synchronized String nameOf(int id) {
+        return names.get(id);
+    }
+
+    public static synchronized String intern(String tag) {
+        return names.get(idOf(tag));
+    }
+
+    public static synchronized int size() {
+        return names.size();
+    }
+}
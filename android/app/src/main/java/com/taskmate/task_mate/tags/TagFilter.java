@@ -0,0 +1,70 @@
+package com.taskmate.task_mate.tags;
+
+import com.taskmate.task_mate.models.Task;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+// Tag filter compiled once into a bitset mask, so testing a task is a few
+// word-wise ANDs on its precomputed TagBits rather than string comparisons.
+public final class TagFilter {
+
+    public enum Mode { ANY, ALL }
+
+    public static final TagFilter NONE = new TagFilter(Mode.ANY, TagBits.EMPTY, false);
+
+    private final Mode mode;
+    private final long[] mask;
+    // ALL with a tag no task has ever carried: nothing can match
+    private final boolean impossible;
+
+    private TagFilter(Mode mode, long[] mask, boolean impossible) {
+        this.mode = mode;
+        this.mask = mask;
+        this.impossible = impossible;
+    }
+
+    public static TagFilter of(Mode mode, Collection<String> tags) {
+        if (tags == null || tags.isEmpty()) return NONE;
+        long[] mask = TagBits.EMPTY;
+        boolean impossible = false;
+        for (String tag : tags) {
+            int id = TagDictionary.lookup(tag);
+            if (id == TagDictionary.UNKNOWN) {
+                impossible |= mode == Mode.ALL;
+            } else {
+                mask = TagBits.set(mask, id);
+            }
+        }
+        return new TagFilter(mode, mask, impossible || (mode == Mode.ANY && mask.length == 0));
+    }
+
+    public boolean isEmpty() {
+        return this == NONE;
+    }
+
+    public Mode getMode() {
+        return mode;
+    }
+
+    public boolean matches(Task task) {
+        return matches(task.getTagBits());
+    }
+
+    public boolean matches(long[] bits) {
+        if (isEmpty()) return true;
+        if (impossible) return false;
+        return mode == Mode.ALL ? TagBits.containsAll(bits, mask) : TagBits.containsAny(bits, mask);
+    }
+
+    // Returns tasks itself when nothing is filtered out
+    public List<Task> apply(List<Task> tasks) {
+        if (isEmpty()) return tasks;
+        List<Task> matching = new ArrayList<>();
+        for (Task task : tasks) {
+            if (matches(task)) matching.add(task);
+        }
+        return matching;
+    }
+}
@@ -0,0 +1,110 @@
+package com.taskmate.task_mate.tags;
+
+import com.taskmate.task_mate.models.Task;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Tags in use across a task list with their task counts, most used first
+// (for the filter chips). Kept up to date one task at a time: a change walks
+// the set bits of that task's old and new tags only, and the chip order is
+// sorted again, over the tags in use, only when a count actually moved.
+// Not thread-safe; the task list screen uses it from the main thread.
+public final class TagIndex {
+
+    // Task count per dictionary id
+    private int[] byId = new int[0];
+    // Tag bits of each task as counted, by task id
+    private final Map<String, long[]> counted = new HashMap<>();
+    // Sorted view, rebuilt on the next read after a count changed
+    private List<String> tags = new ArrayList<>();
+    private int[] counts = new int[0];
+    private boolean dirty;
+
+    public static TagIndex build(List<Task> tasks) {
+        TagIndex index = new TagIndex();
+        index.replaceAll(tasks);
+        return index;
+    }
+
+    public void replaceAll(List<Task> tasks) {
+        byId = new int[TagDictionary.size()];
+        counted.clear();
+        for (Task task : tasks) {
+            long[] bits = task.getTagBits();
+            add(bits, 1);
+            // Tasks without an id can't be updated later; they are counted only
+            if (task.getId() != null) counted.put(task.getId(), bits);
+        }
+        dirty = true;
+    }
+
+    public void update(Task task) {
+        if (task.getId() == null) return;
+        long[] bits = task.getTagBits();
+        long[] before = counted.put(task.getId(), bits);
+        if (before != null && Arrays.equals(before, bits)) return;
+        if (before != null) add(before, -1);
+        add(bits, 1);
+        dirty = true;
+    }
+
+    public void remove(String taskId) {
+        long[] before = counted.remove(taskId);
+        if (before == null || before.length == 0) return;
+        add(before, -1);
+        dirty = true;
+    }
+
+    public List<String> getTags() {
+        sort();
+        return tags;
+    }
+
+    public int getCount(int position) {
+        sort();
+        return counts[position];
+    }
+
+    public boolean isEmpty() {
+        return getTags().isEmpty();
+    }
+
+    private void add(long[] bits, int delta) {
+        for (int word = 0; word < bits.length; word++) {
+            long remaining = bits[word];
+            while (remaining != 0) {
+                int id = (word << 6) + Long.numberOfTrailingZeros(remaining);
+                if (id >= byId.length) byId = Arrays.copyOf(byId, id + 1);
+                byId[id] += delta;
+                remaining &= remaining - 1;
+            }
+        }
+    }
+
+    private void sort() {
+        if (!dirty) return;
+        dirty = false;
+        List<Integer> used = new ArrayList<>();
+        for (int id = 0; id < byId.length; id++) {
+            if (byId[id] > 0) used.add(id);
+        }
+        int[] finalCounts = byId;
+        used.sort((a, b) -> finalCounts[a] != finalCounts[b]
+                ? Integer.compare(finalCounts[b], finalCounts[a])
+                : TagDictionary.nameOf(a).compareTo(TagDictionary.nameOf(b)));
+
+        // A new list each time, so a caller holding the previous one can compare
+        List<String> sorted = new ArrayList<>(used.size());
+        int[] sortedCounts = new int[used.size()];
+        for (int i = 0; i < used.size(); i++) {
+            sorted.add(TagDictionary.nameOf(used.get(i)));
+            sortedCounts[i] = byId[used.get(i)];
+        }
+        tags = sorted;
+        counts = sortedCounts;
+    }
+}
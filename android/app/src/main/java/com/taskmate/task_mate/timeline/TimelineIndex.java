@@ -0,0 +1,327 @@
+package com.taskmate.task_mate.timeline;
+
+import com.taskmate.task_mate.data.TaskRepository;
+import com.taskmate.task_mate.models.Task;
+import com.taskmate.task_mate.recurrence.RecurringSeries;
+import com.taskmate.task_mate.util.DateUtils;
+import com.taskmate.task_mate.util.IndexedMinHeap;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TimeZone;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.function.LongSupplier;
+
+// Tasks with a due date, bucketed by local day (and counted per week) over
+// epoch time. A range query only visits the day buckets inside the range, and
+// a task change touches one bucket. The overdue count is kept incrementally:
+// active tasks wait in a heap by due time and move over as the clock passes.
+//
+// Recurring tasks are kept as rules, not rows: their occurrences are computed
+// when a day is read, and only within the occurrence window (the days the
+// timeline can scroll to), which the screen extends as it nears the end.
+// Missed occurrences are not counted as overdue; the next one replaces them.
+// All calls are expected on the main thread, except that a full load is
+// indexed into a new index on a worker (prepareReplace) and swapped in.
+public class TimelineIndex implements TaskRepository.Preparing {
+
+    private static final Comparator<Task> BY_DUE_TIME = (a, b) -> {
+        int byDue = Long.compare(a.getDueDate(), b.getDueDate());
+        return byDue != 0 ? byDue : String.valueOf(a.getTitle()).compareTo(String.valueOf(b.getTitle()));
+    };
+
+    // How far ahead occurrences are listed, and how much further each extension goes
+    public static final int WINDOW_STEP_DAYS = 90;
+
+    private static TimelineIndex instance;
+
+    private final LongSupplier clock;
+    private final TimeZone timeZone;
+    // Local day number -> tasks due that day, sorted by due time
+    private TreeMap<Long, List<Task>> days = new TreeMap<>();
+    // Week number (Monday-based) -> tasks due that week
+    private Map<Long, Integer> weekCounts = new HashMap<>();
+    private Map<String, Task> tasksById = new HashMap<>();
+    private Map<String, RecurringSeries> series = new HashMap<>();
+    // Local days [windowFrom, windowTo) in which occurrences are listed. The
+    // end is volatile because prepareReplace reads it on a worker
+    private final long windowFrom;
+    private volatile long windowTo;
+    // Active tasks not yet overdue, by due time
+    private IndexedMinHeap<String> dueWatch = new IndexedMinHeap<>();
+    private int overdueCount;
+    private long[] dayKeys;
+
+    public static synchronized TimelineIndex getInstance() {
+        if (instance == null) {
+            instance = new TimelineIndex(System::currentTimeMillis, TimeZone.getDefault());
+            TaskRepository repository = TaskRepository.getInstance();
+            instance.onTasksReplaced(repository.getTasks());
+            repository.addListener(instance);
+        }
+        return instance;
+    }
+
+    public TimelineIndex(LongSupplier clock, TimeZone timeZone) {
+        this.clock = clock;
+        this.timeZone = timeZone;
+        long today = dayOf(clock.getAsLong());
+        windowFrom = today - RecurringSeries.HISTORY_DAYS;
+        windowTo = today + WINDOW_STEP_DAYS;
+    }
+
+    private TimelineIndex(LongSupplier clock, TimeZone timeZone, long windowFrom, long windowTo) {
+        this.clock = clock;
+        this.timeZone = timeZone;
+        this.windowFrom = windowFrom;
+        this.windowTo = windowTo;
+    }
+
+    // Local day number of an instant (days since 1970-01-01 in this time zone)
+    public long dayOf(long epochMillis) {
+        return Math.floorDiv(epochMillis + timeZone.getOffset(epochMillis), DateUtils.DAY_MS);
+    }
+
+    // Weeks start on Monday; day 0 (1970-01-01) was a Thursday
+    public static long weekOf(long day) {
+        return Math.floorDiv(day + 3, 7);
+    }
+
+    // Dated tasks plus recurring series (each counted once)
+    public int size() {
+        return tasksById.size() + series.size();
+    }
+
+    // Days that have at least one task or occurrence, ascending; cached until the next change
+    public long[] getDays() {
+        if (dayKeys == null) {
+            TreeSet<Long> all = new TreeSet<>(days.keySet());
+            for (RecurringSeries recurring : series.values()) {
+                recurring.addDaysBetween(windowFrom, windowTo, all);
+            }
+            dayKeys = new long[all.size()];
+            int i = 0;
+            for (Long day : all) dayKeys[i++] = day;
+        }
+        return dayKeys;
+    }
+
+    // Moves the end of the occurrence window to at least the given day;
+    // false when nothing changes (no recurring tasks or already that far)
+    public boolean extendWindowTo(long day) {
+        if (day <= windowTo || series.isEmpty()) return false;
+        windowTo = day;
+        dayKeys = null;
+        return true;
+    }
+
+    public long getWindowEnd() {
+        return windowTo;
+    }
+
+    public List<Task> tasksOnDay(long day) {
+        List<Task> tasks = days.get(day);
+        List<Task> stored = tasks != null ? Collections.unmodifiableList(tasks) : Collections.<Task>emptyList();
+        if (series.isEmpty() || day < windowFrom || day >= windowTo) return stored;
+
+        List<Task> merged = null;
+        for (RecurringSeries recurring : series.values()) {
+            List<Task> occurrences = recurring.occurrencesOn(day);
+            if (occurrences.isEmpty()) continue;
+            if (merged == null) merged = new ArrayList<>(stored);
+            merged.addAll(occurrences);
+        }
+        if (merged == null) return stored;
+        Collections.sort(merged, BY_DUE_TIME);
+        return Collections.unmodifiableList(merged);
+    }
+
+    public int countInWeek(long week) {
+        Integer count = weekCounts.get(week);
+        int total = count != null ? count : 0;
+        if (!series.isEmpty()) {
+            long monday = week * 7 - 3;
+            long from = Math.max(monday, windowFrom);
+            long to = Math.min(monday + 7, windowTo);
+            for (RecurringSeries recurring : series.values()) {
+                if (from < to) total += recurring.countBetween(recurring.startOfDay(from), recurring.startOfDay(to));
+            }
+        }
+        return total;
+    }
+
+    // Tasks and occurrences due in [from, to), in due order; reads only the
+    // buckets in range and expands each series over the range alone
+    public List<Task> tasksBetween(long from, long to) {
+        List<Task> result = new ArrayList<>();
+        if (from >= to) return result;
+        NavigableMap<Long, List<Task>> range = days.subMap(dayOf(from), true, dayOf(to - 1), true);
+        for (List<Task> bucket : range.values()) {
+            for (Task task : bucket) {
+                if (task.getDueDate() >= from && task.getDueDate() < to) result.add(task);
+            }
+        }
+        if (!series.isEmpty()) {
+            for (RecurringSeries recurring : series.values()) {
+                result.addAll(recurring.occurrencesBetween(from, to));
+            }
+            Collections.sort(result, BY_DUE_TIME);
+        }
+        return result;
+    }
+
+    public RecurringSeries getSeries(String taskId) {
+        return series.get(taskId);
+    }
+
+    public int getOverdueCount() {
+        advanceTo(clock.getAsLong());
+        return overdueCount;
+    }
+
+    // When the overdue count next goes up on its own, or Long.MAX_VALUE
+    public long nextOverdueAt() {
+        advanceTo(clock.getAsLong());
+        return dueWatch.isEmpty() ? Long.MAX_VALUE : dueWatch.peekScore() + 1;
+    }
+
+    public void upsert(Task task) {
+        String id = task.getId();
+        if (id == null) return;
+        removeInternal(id);
+        if (!task.hasDueDate()) return;
+        if (task.isRecurring()) {
+            series.put(id, new RecurringSeries(task, timeZone));
+            dayKeys = null;
+            return;
+        }
+
+        tasksById.put(id, task);
+        long day = dayOf(task.getDueDate());
+        List<Task> bucket = days.get(day);
+        if (bucket == null) {
+            bucket = new ArrayList<>(2);
+            days.put(day, bucket);
+            dayKeys = null;
+        }
+        int at = Collections.binarySearch(bucket, task, BY_DUE_TIME);
+        bucket.add(at < 0 ? -at - 1 : at, task);
+        weekCounts.merge(weekOf(day), 1, Integer::sum);
+
+        if (task.isActive()) {
+            if (task.getDueDate() < clock.getAsLong()) {
+                overdueCount++;
+            } else {
+                dueWatch.put(id, task.getDueDate());
+            }
+        }
+    }
+
+    public void remove(String taskId) {
+        removeInternal(taskId);
+    }
+
+    public void clear() {
+        days.clear();
+        weekCounts.clear();
+        tasksById.clear();
+        series.clear();
+        dueWatch.clear();
+        overdueCount = 0;
+        dayKeys = null;
+    }
+
+    // TaskRepository.Listener implementation
+    @Override
+    public void onTasksReplaced(List<Task> tasks) {
+        clear();
+        for (Task task : tasks) {
+            upsert(task);
+        }
+    }
+
+    // Worker thread: the same rebuild into a new index, days listed too, so
+    // the swap and the screen's next getDays() are cheap
+    @Override
+    public Runnable prepareReplace(List<Task> tasks) {
+        TimelineIndex next = new TimelineIndex(clock, timeZone, windowFrom, windowTo);
+        for (Task task : tasks) {
+            next.upsert(task);
+        }
+        next.getDays();
+        return () -> adopt(next);
+    }
+
+    @Override
+    public void onTasksAppended(List<Task> added) {
+        for (Task task : added) {
+            upsert(task);
+        }
+    }
+
+    @Override
+    public void onTaskUpdated(Task task) {
+        upsert(task);
+    }
+
+    @Override
+    public void onTaskRemoved(String taskId) {
+        remove(taskId);
+    }
+
+    private void adopt(TimelineIndex next) {
+        days = next.days;
+        weekCounts = next.weekCounts;
+        tasksById = next.tasksById;
+        series = next.series;
+        dueWatch = next.dueWatch;
+        overdueCount = next.overdueCount;
+        // The screen may have extended the window meanwhile
+        dayKeys = next.windowTo == windowTo ? next.dayKeys : null;
+    }
+
+    // Counts tasks whose due time has passed since the last call; only those are touched
+    private void advanceTo(long now) {
+        while (!dueWatch.isEmpty() && dueWatch.peekScore() < now) {
+            dueWatch.poll();
+            overdueCount++;
+        }
+    }
+
+    private void removeInternal(String id) {
+        if (series.remove(id) != null) {
+            dayKeys = null;
+            return;
+        }
+        Task task = tasksById.remove(id);
+        if (task == null) return;
+
+        long day = dayOf(task.getDueDate());
+        List<Task> bucket = days.get(day);
+        if (bucket != null) {
+            for (int i = 0; i < bucket.size(); i++) {
+                if (bucket.get(i).getId().equals(id)) {
+                    bucket.remove(i);
+                    break;
+                }
+            }
+            if (bucket.isEmpty()) {
+                days.remove(day);
+                dayKeys = null;
+            }
+        }
+        long week = weekOf(day);
+        int left = countInWeek(week) - 1;
+        if (left > 0) weekCounts.put(week, left); else weekCounts.remove(week);
+
+        if (task.isActive() && !dueWatch.remove(id)) {
+            overdueCount--;
+        }
+    }
+}
@@ -4,34 +4,92 @@ import android.os.Bundle;
 import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
-import android.widget.TextView;
 
 import androidx.annotation.NonNull;
 import androidx.fragment.app.Fragment;
 import androidx.lifecycle.ViewModelProvider;
 
+import com.taskmate.task_mate.R;
 import com.taskmate.task_mate.databinding.FragmentDashboardBinding;
+import com.taskmate.task_mate.models.TaskStats;
+import com.taskmate.task_mate.stats.DailyCounts;
+
+import java.util.Locale;
 
 public class DashboardFragment extends Fragment {
 
     private FragmentDashboardBinding binding;
+    private DashboardViewModel dashboardViewModel;
 
     public View onCreateView(@NonNull LayoutInflater inflater,
                              ViewGroup container, Bundle savedInstanceState) {
-        DashboardViewModel dashboardViewModel =
-                new ViewModelProvider(this).get(DashboardViewModel.class);
+        dashboardViewModel = new ViewModelProvider(this).get(DashboardViewModel.class);
 
         binding = FragmentDashboardBinding.inflate(inflater, container, false);
         View root = binding.getRoot();
 
-        final TextView textView = binding.textDashboard;
-        dashboardViewModel.getText().observe(getViewLifecycleOwner(), textView::setText);
+        // Both charts read the same day counts, bucketed to their own width
+        binding.chartCreated.setMetric(HistoryChartView.CREATED);
+        binding.chartCompleted.setSource(dashboardViewModel::seriesFor);
+        binding.chartCreated.setSource(dashboardViewModel::seriesFor);
+
+        binding.radioRange.setOnCheckedChangeListener((group, checkedId) -> {
+            if (checkedId == R.id.radioRangeYear) {
+                dashboardViewModel.setRangeDays(DashboardViewModel.RANGE_YEAR);
+            } else if (checkedId == R.id.radioRangeQuarter) {
+                dashboardViewModel.setRangeDays(DashboardViewModel.RANGE_QUARTER);
+            } else {
+                dashboardViewModel.setRangeDays(DashboardViewModel.RANGE_MONTH);
+            }
+        });
+
+        dashboardViewModel.getRangeDays().observe(getViewLifecycleOwner(), days -> showHistory());
+        dashboardViewModel.getHistoryVersion().observe(getViewLifecycleOwner(), version -> showHistory());
+        dashboardViewModel.getStats().observe(getViewLifecycleOwner(), this::showStats);
         return root;
     }
 
+    @Override
+    public void onResume() {
+        super.onResume();
+        dashboardViewModel.load();
+    }
+
+    private void showHistory() {
+        binding.chartCompleted.refresh();
+        binding.chartCreated.refresh();
+
+        int streak = dashboardViewModel.getCurrentStreak();
+        binding.textStreak.setText(streak == 1 ? "🔥 1-day streak" : "🔥 " + streak + "-day streak");
+        binding.textBestStreak.setText("Best: " + dashboardViewModel.getLongestStreak() + " days in a row");
+
+        DailyCounts.Series series = binding.chartCompleted.getSeries();
+        if (series != null) {
+            binding.textChartScale.setText(series.getDaysPerBar() == 1
+                    ? "Each bar is one day"
+                    : "Each bar averages " + series.getDaysPerBar() + " days");
+        }
+    }
+
+    private void showStats(TaskStats stats) {
+        if (stats == null) return;
+        TaskStats.RecentActivity recent = stats.getRecentActivity();
+        TaskStats.PriorityCounts priorities = stats.getTasksByPriority();
+        binding.textWeekSummary.setText(String.format(Locale.getDefault(),
+                "This week: %d completed, %d created",
+                recent.getTasksCompletedThisWeek(), recent.getTasksCreatedThisWeek()));
+        binding.textTotals.setText(String.format(Locale.getDefault(),
+                "%d tasks · %d done (%d%%) · %d pending · %d overdue",
+                stats.getTotalTasks(), stats.getCompletedTasks(), stats.getCompletionRate(),
+                stats.getPendingTasks(), stats.getOverdueTasks()));
+        binding.textPriorities.setText(String.format(Locale.getDefault(),
+                "Priority: %d high · %d medium · %d low",
+                priorities.getHigh(), priorities.getMedium(), priorities.getLow()));
+    }
+
     @Override
     public void onDestroyView() {
         super.onDestroyView();
         binding = null;
     }
-}
\ No newline at end of file
+}
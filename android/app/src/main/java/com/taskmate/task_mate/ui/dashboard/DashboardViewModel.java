@@ -1,19 +1,155 @@
 package com.taskmate.task_mate.ui.dashboard;
 
+import android.app.Application;
+
+import androidx.annotation.NonNull;
+import androidx.lifecycle.AndroidViewModel;
 import androidx.lifecycle.LiveData;
 import androidx.lifecycle.MutableLiveData;
-import androidx.lifecycle.ViewModel;
 
-public class DashboardViewModel extends ViewModel {
+import com.taskmate.task_mate.data.TaskRepository;
+import com.taskmate.task_mate.logging.AppLog;
+import com.taskmate.task_mate.models.ApiResponse;
+import com.taskmate.task_mate.models.Task;
+import com.taskmate.task_mate.models.TaskHistory;
+import com.taskmate.task_mate.models.TaskStats;
+import com.taskmate.task_mate.models.TaskStatsResponse;
+import com.taskmate.task_mate.network.ApiClient;
+import com.taskmate.task_mate.stats.CompletionHistory;
+import com.taskmate.task_mate.stats.DailyCounts;
+
+import java.util.List;
+import java.util.TimeZone;
+
+import retrofit2.Call;
+import retrofit2.Callback;
+import retrofit2.Response;
+
+public class DashboardViewModel extends AndroidViewModel implements TaskRepository.Listener {
+
+    private static final String TAG = "DashboardViewModel";
+    // Chart ranges, in days
+    public static final int RANGE_MONTH = 30;
+    public static final int RANGE_QUARTER = 90;
+    public static final int RANGE_YEAR = 365;
+
+    private final MutableLiveData<TaskStats> stats = new MutableLiveData<>();
+    private final MutableLiveData<Integer> rangeDays = new MutableLiveData<>(RANGE_MONTH);
+    // Goes up whenever the day counts change, so the charts ask for their bars again
+    private final MutableLiveData<Integer> historyVersion = new MutableLiveData<>(0);
+    private final CompletionHistory history;
+
+    public DashboardViewModel(@NonNull Application application) {
+        super(application);
+        // History subscribes first, so it is already up to date when we re-query
+        history = CompletionHistory.getInstance(application);
+        TaskRepository.getInstance().addListener(this);
+    }
+
+    public LiveData<TaskStats> getStats() {
+        return stats;
+    }
+
+    public LiveData<Integer> getRangeDays() {
+        return rangeDays;
+    }
+
+    public LiveData<Integer> getHistoryVersion() {
+        return historyVersion;
+    }
+
+    public void setRangeDays(int days) {
+        rangeDays.setValue(days);
+    }
+
+    // Bars for the selected range; drawn from the day counts, no tasks are read
+    public DailyCounts.Series seriesFor(int maxBars) {
+        Integer days = rangeDays.getValue();
+        return history.lastDays(days != null ? days : RANGE_MONTH, maxBars);
+    }
+
+    public int getCurrentStreak() {
+        return history.currentStreak();
+    }
+
+    public int getLongestStreak() {
+        return history.longestStreak();
+    }
 
-    private final MutableLiveData<String> mText;
+    // Fetches the totals, and the server's per-day history to put the local counts right.
+    // The totals only need posting, so their callback stays off the main thread;
+    // the history goes into CompletionHistory, which lives on it
+    public void load() {
+        String timeZone = TimeZone.getDefault().getID();
+        ApiClient.getBackgroundApiService().getTaskStatistics(timeZone)
+                .enqueue(new Callback<ApiResponse<TaskStatsResponse>>() {
+                    @Override
+                    public void onResponse(Call<ApiResponse<TaskStatsResponse>> call,
+                                           Response<ApiResponse<TaskStatsResponse>> response) {
+                        ApiResponse<TaskStatsResponse> body = response.body();
+                        if (response.isSuccessful() && body != null && body.isSuccess() && body.getData() != null) {
+                            stats.postValue(body.getData().getStats());
+                        } else {
+                            AppLog.w(TAG, "Failed to load stats: {}", response.code());
+                        }
+                    }
+
+                    @Override
+                    public void onFailure(Call<ApiResponse<TaskStatsResponse>> call, Throwable t) {
+                        AppLog.w(TAG, "Network error loading stats", t);
+                    }
+                });
+
+        long requestedAt = System.currentTimeMillis();
+        ApiClient.getApiService().getTaskHistory(CompletionHistory.DAYS, timeZone)
+                .enqueue(new Callback<ApiResponse<TaskHistory>>() {
+                    @Override
+                    public void onResponse(Call<ApiResponse<TaskHistory>> call, Response<ApiResponse<TaskHistory>> response) {
+                        ApiResponse<TaskHistory> body = response.body();
+                        TaskHistory days = body != null ? body.getData() : null;
+                        if (!response.isSuccessful() || days == null || days.getFromDay() == Long.MIN_VALUE) {
+                            AppLog.w(TAG, "Failed to load history: {}", response.code());
+                            return;
+                        }
+                        history.applyServerHistory(days.getFromDay(), days.getCreated(), days.getCompleted(), requestedAt);
+                        historyChanged();
+                    }
+
+                    @Override
+                    public void onFailure(Call<ApiResponse<TaskHistory>> call, Throwable t) {
+                        AppLog.w(TAG, "Network error loading history", t);
+                    }
+                });
+    }
+
+    private void historyChanged() {
+        Integer version = historyVersion.getValue();
+        historyVersion.setValue(version != null ? version + 1 : 1);
+    }
+
+    // TaskRepository.Listener implementation
+    @Override
+    public void onTasksReplaced(List<Task> tasks) {
+        historyChanged();
+    }
+
+    // A further page isn't counted, so the charts stay as they are
+    @Override
+    public void onTasksAppended(List<Task> added) {
+    }
+
+    @Override
+    public void onTaskUpdated(Task task) {
+        historyChanged();
+    }
 
-    public DashboardViewModel() {
-        mText = new MutableLiveData<>();
-        mText.setValue("This is dashboard fragment");
+    @Override
+    public void onTaskRemoved(String taskId) {
+        historyChanged();
     }
 
-    public LiveData<String> getText() {
-        return mText;
+    @Override
+    protected void onCleared() {
+        TaskRepository.getInstance().removeListener(this);
     }
-}
\ No newline at end of file
+}
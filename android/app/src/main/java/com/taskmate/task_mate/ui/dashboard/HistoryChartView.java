@@ -0,0 +1,112 @@
+package com.taskmate.task_mate.ui.dashboard;
+
+import android.content.Context;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.Paint;
+import android.util.AttributeSet;
+import android.view.View;
+
+import com.taskmate.task_mate.stats.DailyCounts;
+
+import java.util.Locale;
+
+// Bar chart of tasks completed or created per day. The series is asked for
+// with at most one bar per MIN_BAR_DP of width, so a year costs as much to
+// draw as a month and bars never get thinner than a few pixels; the source is
+// asked again whenever the width changes.
+public class HistoryChartView extends View {
+
+    public static final int COMPLETED = 0;
+    public static final int CREATED = 1;
+
+    private static final float MIN_BAR_DP = 4f;
+    private static final float GAP_FRACTION = 0.2f;
+
+    public interface Source {
+        DailyCounts.Series seriesFor(int maxBars);
+    }
+
+    private final Paint barPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+    private final Paint axisPaint = new Paint();
+    private final Paint labelPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+    private int metric = COMPLETED;
+    private Source source;
+    private DailyCounts.Series series;
+
+    public HistoryChartView(Context context) {
+        this(context, null);
+    }
+
+    public HistoryChartView(Context context, AttributeSet attrs) {
+        super(context, attrs);
+        float density = getResources().getDisplayMetrics().density;
+        barPaint.setColor(0xFF4CAF50);
+        axisPaint.setColor(Color.LTGRAY);
+        axisPaint.setStrokeWidth(density);
+        labelPaint.setColor(Color.GRAY);
+        labelPaint.setTextSize(11 * density);
+    }
+
+    public void setMetric(int metric) {
+        this.metric = metric;
+        barPaint.setColor(metric == COMPLETED ? 0xFF4CAF50 : 0xFF2196F3);
+        invalidate();
+    }
+
+    public void setSource(Source source) {
+        this.source = source;
+        refresh();
+    }
+
+    public DailyCounts.Series getSeries() {
+        return series;
+    }
+
+    // Asks the source again, e.g. after the counts or the range changed
+    public void refresh() {
+        int width = getWidth() - getPaddingLeft() - getPaddingRight();
+        if (source == null || width <= 0) return;
+        int maxBars = Math.max(1, (int) (width / (MIN_BAR_DP * getResources().getDisplayMetrics().density)));
+        series = source.seriesFor(maxBars);
+        invalidate();
+    }
+
+    @Override
+    protected void onSizeChanged(int w, int h, int oldw, int oldh) {
+        super.onSizeChanged(w, h, oldw, oldh);
+        if (w != oldw) refresh();
+    }
+
+    @Override
+    protected void onDraw(Canvas canvas) {
+        super.onDraw(canvas);
+        float left = getPaddingLeft();
+        float right = getWidth() - getPaddingRight();
+        float top = getPaddingTop() + labelPaint.getTextSize() * 1.5f;
+        float bottom = getHeight() - getPaddingBottom();
+        canvas.drawLine(left, bottom, right, bottom, axisPaint);
+        if (series == null || series.size() == 0) return;
+
+        float max = metric == COMPLETED ? series.maxCompleted() : series.maxCreated();
+        canvas.drawText(String.format(Locale.getDefault(), "peak %s a day", format(max)),
+                left, getPaddingTop() + labelPaint.getTextSize(), labelPaint);
+        if (max <= 0) return;
+
+        float slot = (right - left) / series.size();
+        float gap = slot * GAP_FRACTION;
+        for (int bar = 0; bar < series.size(); bar++) {
+            float value = metric == COMPLETED ? series.getCompleted(bar) : series.getCreated(bar);
+            if (value <= 0) continue;
+            float x = left + bar * slot;
+            canvas.drawRect(x + gap / 2, bottom - (bottom - top) * value / max, x + slot - gap / 2, bottom, barPaint);
+        }
+    }
+
+    // Whole numbers as they are, averages to one decimal
+    static String format(float value) {
+        return value == Math.rint(value)
+                ? String.valueOf((int) value)
+                : String.format(Locale.getDefault(), "%.1f", value);
+    }
+}
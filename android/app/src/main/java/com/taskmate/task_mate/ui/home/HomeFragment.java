@@ -3,10 +3,12 @@ package com.taskmate.task_mate.ui.home;
 import android.app.AlertDialog;
 import android.content.Intent;
 import android.os.Bundle;
-import android.util.Log;
+import android.os.Process;
+import android.os.SystemClock;
 import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
+import android.view.ViewTreeObserver;
 import android.widget.EditText;
 import android.widget.LinearLayout;
 import android.widget.Spinner;
@@ -15,43 +17,111 @@ import android.widget.Toast;
 
 import androidx.annotation.NonNull;
 import androidx.fragment.app.Fragment;
+import androidx.recyclerview.widget.ItemTouchHelper;
 import androidx.recyclerview.widget.LinearLayoutManager;
+import androidx.recyclerview.widget.RecyclerView;
 
+import com.google.android.material.chip.Chip;
 import com.google.firebase.auth.FirebaseAuth;
 import com.google.firebase.auth.FirebaseUser;
 import com.taskmate.task_mate.R;
 import com.taskmate.task_mate.TaskDetailActivity;
 import com.taskmate.task_mate.adapters.TaskAdapter;
+import com.taskmate.task_mate.data.TaskRepository;
 import com.taskmate.task_mate.databinding.FragmentHomeBinding;
+import com.taskmate.task_mate.feed.ActivityEvent;
+import com.taskmate.task_mate.feed.ActivityFeed;
+import com.taskmate.task_mate.logging.AppLog;
 import com.taskmate.task_mate.models.ApiResponse;
 import com.taskmate.task_mate.models.CreateTaskRequest;
+import com.taskmate.task_mate.models.MoveTaskRequest;
+import com.taskmate.task_mate.models.Recurrence;
+import com.taskmate.task_mate.models.RecurrenceFrequency;
 import com.taskmate.task_mate.models.RegisterRequest;
 import com.taskmate.task_mate.models.Task;
+import com.taskmate.task_mate.models.TaskResponse;
+import com.taskmate.task_mate.models.TaskStatus;
 import com.taskmate.task_mate.models.TasksResponse;
 import com.taskmate.task_mate.models.User;
 import com.taskmate.task_mate.network.ApiClient;
+import com.taskmate.task_mate.network.ApiService;
+import com.taskmate.task_mate.network.RequestPriority;
+import com.taskmate.task_mate.perf.FrameMonitor;
+import com.taskmate.task_mate.perf.PerfSection;
+import com.taskmate.task_mate.perf.PerfTrace;
+import com.taskmate.task_mate.prefetch.ScrollPrefetcher;
+import com.taskmate.task_mate.prefetch.TaskPrefetcher;
+import com.taskmate.task_mate.refresh.RefreshScheduler;
+import com.taskmate.task_mate.snapshot.LastScreenSnapshot;
+import com.taskmate.task_mate.tags.TagFilter;
+import com.taskmate.task_mate.tags.TagIndex;
+import com.taskmate.task_mate.util.DateUtils;
+import com.taskmate.task_mate.util.OrderKeys;
+import com.taskmate.task_mate.util.PersistentList;
 
 import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 import retrofit2.Call;
 import retrofit2.Callback;
 import retrofit2.Response;
 
-public class HomeFragment extends Fragment implements TaskAdapter.OnTaskClickListener {
+public class HomeFragment extends Fragment implements TaskAdapter.OnTaskClickListener, TaskRepository.Preparing {
 
     private FragmentHomeBinding binding;
     private TaskAdapter taskAdapter;
-    private List<Task> taskList = new ArrayList<>();
+    private final FrameMonitor frameMonitor = new FrameMonitor();
+    // Immutable snapshot from TaskRepository; handed to the adapter without copying
+    private PersistentList<Task> taskList = PersistentList.empty();
+    // Rows shown: taskList itself unless a tag filter is active
+    private List<Task> visibleTasks = taskList;
+    // Kept in step with the repository by the listener calls below
+    private TagIndex tagIndex = new TagIndex();
+    private final Set<String> selectedTags = new LinkedHashSet<>();
+    private TagFilter.Mode tagMode = TagFilter.Mode.ANY;
+    private List<String> shownTags = new ArrayList<>();
+    // While a row is dragged the adapter shows its own order; changes wait for the drop
+    private boolean dragging;
+    private boolean renderPending;
+    private int dragFrom = RecyclerView.NO_POSITION;
+    private ActivityFeed activityFeed;
+    private TaskPrefetcher prefetcher;
+    private RefreshScheduler refreshScheduler;
+    private ScrollPrefetcher scrollPrefetcher;
+    // Pages of PAGE_SIZE loaded so far; a full load starts over at one
+    private int loadedPages;
+    private boolean hasMorePages;
+    private boolean pageLoading;
+    // Bumped by each full load, so a page asked for before it is dropped
+    private int listGeneration;
+    // Once per process: how soon after launch the list first drew
+    private static boolean firstPaintMeasured;
     private static final String TAG = "HomeFragment";
+    private static final int PAGE_SIZE = 50;
+    private static final String[] REPEAT_OPTIONS =
+            {"Does not repeat", "Every day", "Every weekday", "Every week", "Every month"};
+    private static final int REPEAT_HOUR = 9;
 
     @Override
     public View onCreateView(@NonNull LayoutInflater inflater, ViewGroup container, Bundle savedInstanceState) {
         binding = FragmentHomeBinding.inflate(inflater, container, false);
         View root = binding.getRoot();
+        prefetcher = TaskPrefetcher.getInstance(requireContext());
 
+        // Rows first, everything else after
         setupRecyclerView();
+        showLastScreen();
+        measureFirstPaint();
+        activityFeed = ActivityFeed.getInstance(requireContext());
+        refreshScheduler = RefreshScheduler.getInstance();
         setupClickListeners();
+        TaskRepository.getInstance().addListener(this);
         setupFirebaseAuth();
 
         return root;
@@ -61,16 +131,71 @@ public class HomeFragment extends Fragment implements TaskAdapter.OnTaskClickLis
         taskAdapter = new TaskAdapter(this);
         binding.recyclerViewTasks.setLayoutManager(new LinearLayoutManager(getContext()));
         binding.recyclerViewTasks.setAdapter(taskAdapter);
+        new ItemTouchHelper(new ReorderCallback()).attachToRecyclerView(binding.recyclerViewTasks);
+        frameMonitor.attach(binding.recyclerViewTasks);
+        scrollPrefetcher = new ScrollPrefetcher(prefetcher, new ScrollPrefetcher.Host() {
+            @Override
+            public List<Task> getRows() {
+                return visibleTasks;
+            }
+
+            @Override
+            public int getNextPage() {
+                return hasMorePages && !pageLoading ? loadedPages + 1 : 0;
+            }
+
+            @Override
+            public int getPageSize() {
+                return PAGE_SIZE;
+            }
+
+            @Override
+            public void onEndReached() {
+                loadNextPage();
+            }
+        });
+        scrollPrefetcher.attach(binding.recyclerViewTasks);
+    }
+
+    // Cold start: the rows last shown, in the first frame, until the
+    // repository publishes the live list
+    private void showLastScreen() {
+        if (TaskRepository.getInstance().isLoaded()) return;
+        List<Task> rows = LastScreenSnapshot.getInstance(requireContext()).read();
+        if (rows.isEmpty()) return;
+        taskAdapter.showPlaceholders(rows);
+        binding.emptyState.setVisibility(View.GONE);
+        binding.recyclerViewTasks.setVisibility(View.VISIBLE);
+    }
+
+    // Time from process start to the list's first draw, and what it drew
+    private void measureFirstPaint() {
+        if (firstPaintMeasured) return;
+        firstPaintMeasured = true;
+        View root = binding.getRoot();
+        root.getViewTreeObserver().addOnPreDrawListener(new ViewTreeObserver.OnPreDrawListener() {
+            @Override
+            public boolean onPreDraw() {
+                root.getViewTreeObserver().removeOnPreDrawListener(this);
+                long sinceStartNanos = (SystemClock.uptimeMillis() - Process.getStartUptimeMillis()) * 1_000_000;
+                String drawn = taskAdapter.isShowingPlaceholders()
+                        ? taskAdapter.getItemCount() + " rows from the last-screen snapshot"
+                        : taskAdapter.getItemCount() + " rows";
+                PerfTrace.record(PerfSection.FIRST_PAINT, System.nanoTime() - sinceStartNanos, sinceStartNanos, drawn);
+                AppLog.d(TAG, "First paint {} ms after process start, {}", sinceStartNanos / 1_000_000, drawn);
+                return true;
+            }
+        });
     }
 
     private void setupClickListeners() {
         // Debug FAB
-        Log.d(TAG, "Setting up click listeners...");
+        AppLog.d(TAG, "Setting up click listeners...");
 
         if (binding.fabAddTask != null) {
-            Log.d(TAG, "FAB found in binding");
+            AppLog.d(TAG, "FAB found in binding");
             binding.fabAddTask.setOnClickListener(v -> {
-                Log.d(TAG, "FAB clicked!");
+                AppLog.d(TAG, "FAB clicked!");
                 Toast.makeText(getContext(), "Creating new task...", Toast.LENGTH_SHORT).show();
                 showAddTaskDialog();
             });
@@ -80,13 +205,13 @@ public class HomeFragment extends Fragment implements TaskAdapter.OnTaskClickLis
             binding.fabAddTask.show();
 
         } else {
-            Log.e(TAG, "FAB is null in binding!");
+            AppLog.e(TAG, "FAB is null in binding!");
         }
 
         // ADD THIS: Temporary button listener
         if (binding.btnAddTaskTemp != null) {
             binding.btnAddTaskTemp.setOnClickListener(v -> {
-                Log.d(TAG, "Temp button clicked!");
+                AppLog.d(TAG, "Temp button clicked!");
                 Toast.makeText(getContext(), "Creating new task...", Toast.LENGTH_SHORT).show();
                 showAddTaskDialog();
             });
@@ -109,7 +234,7 @@ public class HomeFragment extends Fragment implements TaskAdapter.OnTaskClickLis
                             // Register user with backend (will create or find existing)
                             registerUserWithBackend(currentUser);
                         } else {
-                            Log.e(TAG, "Failed to get Firebase token", task.getException());
+                            AppLog.e(TAG, "Failed to get Firebase token", task.getException());
                             showError("Authentication failed");
                         }
                     });
@@ -128,11 +253,11 @@ public class HomeFragment extends Fragment implements TaskAdapter.OnTaskClickLis
                     @Override
                     public void onResponse(Call<ApiResponse<User>> call, Response<ApiResponse<User>> response) {
                         if (response.isSuccessful() && response.body() != null) {
-                            Log.d(TAG, "User registered/found successfully");
+                            AppLog.d(TAG, "User registered/found successfully");
                             // Now load tasks
                             loadTasks();
                         } else {
-                            Log.e(TAG, "Failed to register user: " + response.code());
+                            AppLog.e(TAG, "Failed to register user: {}", response.code());
                             // Still try to load tasks
                             loadTasks();
                         }
@@ -140,53 +265,305 @@ public class HomeFragment extends Fragment implements TaskAdapter.OnTaskClickLis
 
                     @Override
                     public void onFailure(Call<ApiResponse<User>> call, Throwable t) {
-                        Log.e(TAG, "Register user network error", t);
+                        AppLog.e(TAG, "Register user network error", t);
                         // Still try to load tasks
                         loadTasks();
                     }
                 });
     }
 
+    // Callbacks run on WorkPool.COMPUTE: the page is compared with what we
+    // hold and every index is built for it there, and only swapping the
+    // results in is left for the main thread
     private void loadTasks() {
-        Log.d(TAG, "Loading tasks...");
+        AppLog.d(TAG, "Loading tasks...");
         binding.progressBar.setVisibility(View.VISIBLE);
 
-        ApiClient.getApiService().getTasks()
+        ApiClient.getBackgroundApiService().getTaskPage(ApiService.VIEW_SUMMARY, 1, PAGE_SIZE, RequestPriority.INTERACTIVE)
                 .enqueue(new Callback<ApiResponse<TasksResponse>>() {
                     @Override
                     public void onResponse(Call<ApiResponse<TasksResponse>> call, Response<ApiResponse<TasksResponse>> response) {
-                        binding.progressBar.setVisibility(View.GONE);
-                        binding.swipeRefresh.setRefreshing(false);
-
                         if (response.isSuccessful() && response.body() != null) {
                             ApiResponse<TasksResponse> apiResponse = response.body();
                             if (apiResponse.isSuccess() && apiResponse.getData() != null) {
-                                taskList = apiResponse.getData().getTasks();
-                                taskAdapter.submitList(new ArrayList<>(taskList));
-                                updateEmptyState();
-                                Log.d(TAG, "Loaded " + taskList.size() + " tasks");
+                                TaskRepository.Replacement replacement =
+                                        TaskRepository.getInstance().prepareReplace(apiResponse.getData().getTasks());
+                                boolean changed = RefreshScheduler.differs(replacement.getTasks(),
+                                        TaskRepository.getInstance().getTasks());
+                                boolean more = hasNext(apiResponse);
+                                String etag = response.headers().get("ETag");
+                                onMain(() -> {
+                                    showFirstPage(replacement, more);
+                                    refreshScheduler.onLoaded(changed, etag);
+                                    if (binding == null) return;
+                                    stopLoading();
+                                    AppLog.d(TAG, "Loaded {} tasks", taskList.size());
+                                });
                             } else {
-                                Log.e(TAG, "API error: " + apiResponse.getError());
-                                showError("Failed to load tasks: " + apiResponse.getError());
+                                AppLog.e(TAG, "API error: {}", apiResponse.getError());
+                                onLoadFailed("Failed to load tasks: " + apiResponse.getError());
                             }
                         } else {
-                            Log.e(TAG, "HTTP error: " + response.code());
-                            showError("Failed to load tasks: " + response.code());
+                            AppLog.e(TAG, "HTTP error: {}", response.code());
+                            onLoadFailed("Failed to load tasks: " + response.code());
                         }
                     }
 
                     @Override
                     public void onFailure(Call<ApiResponse<TasksResponse>> call, Throwable t) {
-                        binding.progressBar.setVisibility(View.GONE);
-                        binding.swipeRefresh.setRefreshing(false);
-                        Log.e(TAG, "Network error loading tasks", t);
-                        showError("Network error: " + t.getMessage());
+                        AppLog.e(TAG, "Network error loading tasks", t);
+                        onLoadFailed("Network error: " + t.getMessage());
+                    }
+                });
+    }
+
+    // Background callbacks hand their result to the main thread here
+    private static void onMain(Runnable update) {
+        ApiClient.mainThread().execute(update);
+    }
+
+    private void onLoadFailed(String message) {
+        onMain(() -> {
+            if (binding == null) return;
+            stopLoading();
+            showError(message);
+        });
+    }
+
+    private void stopLoading() {
+        binding.progressBar.setVisibility(View.GONE);
+        binding.swipeRefresh.setRefreshing(false);
+    }
+
+    // Starts the list over from a first page
+    private void showFirstPage(TaskRepository.Replacement replacement, boolean more) {
+        // Later pages may have shifted; whatever was fetched of them goes
+        listGeneration++;
+        pageLoading = false;
+        prefetcher.clearPages();
+        loadedPages = 1;
+        hasMorePages = more;
+        TaskRepository.getInstance().replaceAll(replacement);
+        scrollPrefetcher.warmSoon();
+    }
+
+    // Scheduled by RefreshScheduler while the list is on screen: the first
+    // page again, conditional on its ETag, without progress or error toasts.
+    // The scheduler hears back on the main thread whatever happens, even if
+    // the view is gone by then
+    private void refreshInBackground(String etag) {
+        if (!TaskRepository.getInstance().isLoaded() || pageLoading) {
+            refreshScheduler.onRefreshSkipped();
+            return;
+        }
+        int generation = listGeneration;
+        // Only a refresh that would replace the list needs the indexes built
+        boolean replaces = loadedPages <= 1;
+        ApiClient.getBackgroundApiService()
+                .getTaskPage(ApiService.VIEW_SUMMARY, 1, PAGE_SIZE, RequestPriority.BACKGROUND, etag)
+                .enqueue(new Callback<ApiResponse<TasksResponse>>() {
+                    @Override
+                    public void onResponse(Call<ApiResponse<TasksResponse>> call, Response<ApiResponse<TasksResponse>> response) {
+                        ApiResponse<TasksResponse> apiResponse = response.body();
+                        if (response.code() == 304) {
+                            onMain(() -> refreshScheduler.onRefreshed(false, etag, true));
+                        } else if (response.isSuccessful() && apiResponse != null && apiResponse.isSuccess()
+                                && apiResponse.getData() != null) {
+                            PersistentList<Task> tasks = PersistentList.copyOf(apiResponse.getData().getTasks());
+                            PersistentList<Task> held = TaskRepository.getInstance().getTasks();
+                            boolean changed = RefreshScheduler.differs(tasks, held);
+                            List<Task> changedRows = changed ? changedRows(tasks, held) : Collections.emptyList();
+                            TaskRepository.Replacement replacement = changed && replaces
+                                    ? TaskRepository.getInstance().prepareReplace(tasks) : null;
+                            boolean more = hasNext(apiResponse);
+                            String newEtag = response.headers().get("ETag");
+                            onMain(() -> {
+                                if (generation != listGeneration) {
+                                    // A full load came in meanwhile and counted already
+                                    refreshScheduler.onRefreshSkipped();
+                                    return;
+                                }
+                                if (changed) applyRefreshedPage(replacement, more, changedRows);
+                                refreshScheduler.onRefreshed(changed, newEtag, false);
+                            });
+                        } else {
+                            AppLog.w(TAG, "Refresh failed: {}", response.code());
+                            onMain(refreshScheduler::onRefreshFailed);
+                        }
+                    }
+
+                    @Override
+                    public void onFailure(Call<ApiResponse<TasksResponse>> call, Throwable t) {
+                        AppLog.w(TAG, "Refresh failed", t);
+                        onMain(refreshScheduler::onRefreshFailed);
+                    }
+                });
+    }
+
+    // With only the first page loaded, a refreshed one replaces the list. With
+    // more, that would drop the later pages and jump the scroll, so new and
+    // changed tasks are moved into place; removals wait for the next full load
+    private void applyRefreshedPage(TaskRepository.Replacement replacement, boolean more, List<Task> changedRows) {
+        // A further page may have come in since the replacement was prepared
+        if (replacement != null && loadedPages <= 1) {
+            showFirstPage(replacement, more);
+            return;
+        }
+        TaskRepository repository = TaskRepository.getInstance();
+        for (Task task : changedRows) {
+            repository.move(task);
+        }
+    }
+
+    // Fetched tasks that are new or differ from the ones held; any thread
+    private static List<Task> changedRows(List<Task> fetched, List<Task> held) {
+        Map<String, Task> heldById = new HashMap<>();
+        for (Task task : held) {
+            if (task.getId() != null) heldById.putIfAbsent(task.getId(), task);
+        }
+        List<Task> changed = new ArrayList<>();
+        for (Task task : fetched) {
+            Task ours = heldById.get(task.getId());
+            if (ours == null || RefreshScheduler.differs(Collections.singletonList(task),
+                    Collections.singletonList(ours))) {
+                changed.add(task);
+            }
+        }
+        return changed;
+    }
+
+    // Appends the page after the loaded ones, taking it from the prefetcher
+    // when it was fetched ahead
+    private void loadNextPage() {
+        if (!hasMorePages || pageLoading) return;
+        pageLoading = true;
+        int page = loadedPages + 1;
+        int generation = listGeneration;
+        TaskPrefetcher.Consumer<ApiResponse<TasksResponse>> onPage = apiResponse -> {
+            if (generation != listGeneration) return;
+            pageLoading = false;
+            if (apiResponse == null) return;
+            loadedPages = page;
+            hasMorePages = hasNext(apiResponse);
+            TaskRepository.getInstance().appendAll(apiResponse.getData().getTasks());
+            AppLog.d(TAG, "Loaded page {}, {} tasks", page, taskList.size());
+        };
+        if (prefetcher.takePage(page, PAGE_SIZE, onPage)) return;
+
+        ApiClient.getBackgroundApiService().getTaskPage(ApiService.VIEW_SUMMARY, page, PAGE_SIZE, RequestPriority.INTERACTIVE)
+                .enqueue(new Callback<ApiResponse<TasksResponse>>() {
+                    @Override
+                    public void onResponse(Call<ApiResponse<TasksResponse>> call, Response<ApiResponse<TasksResponse>> response) {
+                        ApiResponse<TasksResponse> apiResponse = response.body();
+                        if (response.isSuccessful() && apiResponse != null && apiResponse.isSuccess()
+                                && apiResponse.getData() != null) {
+                            onMain(() -> onPage.accept(apiResponse));
+                        } else {
+                            AppLog.e(TAG, "Failed to load page {}: {}", page, response.code());
+                            onMain(() -> onPage.accept(null));
+                        }
+                    }
+
+                    @Override
+                    public void onFailure(Call<ApiResponse<TasksResponse>> call, Throwable t) {
+                        AppLog.e(TAG, "Network error loading page", t);
+                        onMain(() -> onPage.accept(null));
                     }
                 });
     }
 
+    private static boolean hasNext(ApiResponse<TasksResponse> apiResponse) {
+        return apiResponse.getPagination() != null && apiResponse.getPagination().isHasNext();
+    }
+
+    // Every change goes through the repository, which calls back here
+    private void render() {
+        if (binding == null) return;
+        if (dragging) {
+            renderPending = true;
+            return;
+        }
+        renderPending = false;
+        taskList = TaskRepository.getInstance().getTasks();
+        // Tags that no longer exist can't stay selected
+        selectedTags.retainAll(tagIndex.getTags());
+        if (!tagIndex.getTags().equals(shownTags)) {
+            showTagChips();
+        }
+        visibleTasks = TagFilter.of(tagMode, selectedTags).apply(taskList);
+        taskAdapter.submitList(visibleTasks);
+        updateEmptyState();
+    }
+
+    private void showTagChips() {
+        shownTags = tagIndex.getTags();
+        binding.tagChips.removeAllViews();
+        binding.tagFilterBar.setVisibility(tagIndex.isEmpty() ? View.GONE : View.VISIBLE);
+        if (tagIndex.isEmpty()) return;
+
+        Chip matchAll = new Chip(requireContext());
+        matchAll.setText("Match all");
+        matchAll.setCheckable(true);
+        matchAll.setChecked(tagMode == TagFilter.Mode.ALL);
+        matchAll.setOnCheckedChangeListener((chip, checked) -> {
+            tagMode = checked ? TagFilter.Mode.ALL : TagFilter.Mode.ANY;
+            render();
+        });
+        binding.tagChips.addView(matchAll);
+
+        for (String tag : shownTags) {
+            Chip chip = new Chip(requireContext());
+            chip.setText("#" + tag);
+            chip.setCheckable(true);
+            chip.setChecked(selectedTags.contains(tag));
+            chip.setOnCheckedChangeListener((view, checked) -> {
+                if (checked) selectedTags.add(tag); else selectedTags.remove(tag);
+                render();
+            });
+            binding.tagChips.addView(chip);
+        }
+    }
+
+    // TaskRepository.Listener implementation
+    @Override
+    public void onTasksReplaced(List<Task> tasks) {
+        tagIndex.replaceAll(tasks);
+        render();
+    }
+
+    // Worker thread: counts and sorts the tags of a full load
+    @Override
+    public Runnable prepareReplace(List<Task> tasks) {
+        TagIndex next = TagIndex.build(tasks);
+        next.getTags();
+        return () -> {
+            tagIndex = next;
+            render();
+        };
+    }
+
+    @Override
+    public void onTasksAppended(List<Task> added) {
+        for (Task task : added) {
+            tagIndex.update(task);
+        }
+        render();
+    }
+
+    @Override
+    public void onTaskUpdated(Task task) {
+        tagIndex.update(task);
+        render();
+    }
+
+    @Override
+    public void onTaskRemoved(String taskId) {
+        tagIndex.remove(taskId);
+        render();
+    }
+
     private void updateEmptyState() {
-        if (taskList.isEmpty()) {
+        if (visibleTasks.isEmpty()) {
             binding.emptyState.setVisibility(View.VISIBLE);
             binding.recyclerViewTasks.setVisibility(View.GONE);
         } else {
@@ -229,6 +606,19 @@ public class HomeFragment extends Fragment implements TaskAdapter.OnTaskClickLis
         categoryInput.setText("general");
         layout.addView(categoryInput);
 
+        // Tags input
+        EditText tagsInput = new EditText(getContext());
+        tagsInput.setHint("Tags, comma separated (optional)");
+        layout.addView(tagsInput);
+
+        // Repeat spinner
+        Spinner repeatSpinner = new Spinner(getContext());
+        ArrayAdapter<String> repeatAdapter = new ArrayAdapter<>(getContext(),
+                android.R.layout.simple_spinner_item, REPEAT_OPTIONS);
+        repeatAdapter.setDropDownViewResource(android.R.layout.simple_spinner_dropdown_item);
+        repeatSpinner.setAdapter(repeatAdapter);
+        layout.addView(repeatSpinner);
+
         builder.setView(layout);
 
         builder.setPositiveButton("Create", (dialog, which) -> {
@@ -236,53 +626,100 @@ public class HomeFragment extends Fragment implements TaskAdapter.OnTaskClickLis
             String description = descriptionInput.getText().toString().trim();
             String priority = prioritySpinner.getSelectedItem().toString();
             String category = categoryInput.getText().toString().trim();
+            List<String> tags = parseTags(tagsInput.getText().toString());
+            Recurrence recurrence = recurrenceFor(repeatSpinner.getSelectedItemPosition());
 
             if (title.isEmpty()) {
                 Toast.makeText(getContext(), "Title is required", Toast.LENGTH_SHORT).show();
                 return;
             }
 
-            createTask(title, description, priority, category);
+            createTask(title, description, priority, category, tags, recurrence);
         });
 
         builder.setNegativeButton("Cancel", null);
         builder.show();
     }
 
-    private void createTask(String title, String description, String priority, String category) {
-        Log.d(TAG, "Creating task: " + title);
+    // "work, q1 ,,work" -> [work, q1]
+    private static List<String> parseTags(String input) {
+        Set<String> tags = new LinkedHashSet<>();
+        for (String part : input.split(",")) {
+            String tag = part.trim();
+            if (!tag.isEmpty()) tags.add(tag);
+        }
+        return new ArrayList<>(tags);
+    }
+
+    // Position in REPEAT_OPTIONS -> rule, null for "Does not repeat"
+    private static Recurrence recurrenceFor(int option) {
+        switch (option) {
+            case 1: return new Recurrence(RecurrenceFrequency.DAILY, 1);
+            case 2: {
+                Recurrence weekdays = new Recurrence(RecurrenceFrequency.WEEKLY, 1);
+                weekdays.setWeekdays(Recurrence.WEEKDAYS);
+                return weekdays;
+            }
+            case 3: return new Recurrence(RecurrenceFrequency.WEEKLY, 1);
+            case 4: return new Recurrence(RecurrenceFrequency.MONTHLY, 1);
+            default: return null;
+        }
+    }
+
+    // A repeating task starts at the next REPEAT_HOUR o'clock, local time
+    private static long firstOccurrence(long now) {
+        Calendar calendar = Calendar.getInstance();
+        calendar.setTimeInMillis(now);
+        calendar.set(Calendar.HOUR_OF_DAY, REPEAT_HOUR);
+        calendar.set(Calendar.MINUTE, 0);
+        calendar.set(Calendar.SECOND, 0);
+        calendar.set(Calendar.MILLISECOND, 0);
+        if (calendar.getTimeInMillis() <= now) calendar.add(Calendar.DAY_OF_MONTH, 1);
+        return calendar.getTimeInMillis();
+    }
+
+    private void createTask(String title, String description, String priority, String category, List<String> tags,
+                            Recurrence recurrence) {
+        AppLog.d(TAG, "Creating task");
         binding.progressBar.setVisibility(View.VISIBLE);
 
         CreateTaskRequest request = new CreateTaskRequest(title, description, priority, category);
+        if (!tags.isEmpty()) request.setTags(tags);
+        if (recurrence != null) {
+            request.setRecurrence(recurrence);
+            request.setDueDate(DateUtils.formatIso(firstOccurrence(System.currentTimeMillis())));
+        }
 
         ApiClient.getApiService().createTask(request)
-                .enqueue(new Callback<ApiResponse<Task>>() {
+                .enqueue(new Callback<ApiResponse<TaskResponse>>() {
                     @Override
-                    public void onResponse(Call<ApiResponse<Task>> call, Response<ApiResponse<Task>> response) {
+                    public void onResponse(Call<ApiResponse<TaskResponse>> call, Response<ApiResponse<TaskResponse>> response) {
                         binding.progressBar.setVisibility(View.GONE);
 
                         if (response.isSuccessful() && response.body() != null) {
-                            ApiResponse<Task> apiResponse = response.body();
+                            ApiResponse<TaskResponse> apiResponse = response.body();
                             if (apiResponse.isSuccess()) {
-                                Task newTask = apiResponse.getData();
-                                taskList.add(0, newTask);
-                                taskAdapter.submitList(new ArrayList<>(taskList));
-                                updateEmptyState();
+                                // The server wraps the created task as data.task
+                                Task newTask = apiResponse.getData() != null ? apiResponse.getData().getTask() : null;
+                                TaskRepository.getInstance().insert(newTask);
                                 Toast.makeText(getContext(), "Task created!", Toast.LENGTH_SHORT).show();
-                                Log.d(TAG, "Task created successfully");
+                                AppLog.d(TAG, "Task created successfully");
                             } else {
                                 showError("Failed to create task: " + apiResponse.getError());
+                                activityFeed.recordWriteFailure(null, response.code(), "Couldn't create \"" + title + "\"");
                             }
                         } else {
                             showError("Failed to create task: " + response.code());
+                            activityFeed.recordWriteFailure(null, response.code(), "Couldn't create \"" + title + "\"");
                         }
                     }
 
                     @Override
-                    public void onFailure(Call<ApiResponse<Task>> call, Throwable t) {
+                    public void onFailure(Call<ApiResponse<TaskResponse>> call, Throwable t) {
                         binding.progressBar.setVisibility(View.GONE);
-                        Log.e(TAG, "Network error creating task", t);
+                        AppLog.e(TAG, "Network error creating task", t);
                         showError("Network error: " + t.getMessage());
+                        activityFeed.recordWriteFailure(null, 0, "Couldn't create \"" + title + "\"");
                     }
                 });
     }
@@ -295,7 +732,7 @@ public class HomeFragment extends Fragment implements TaskAdapter.OnTaskClickLis
         intent.putExtra("task_id", task.getId());
         intent.putExtra("task_title", task.getTitle());
         intent.putExtra("task_description", task.getDescription());
-        intent.putExtra("task_priority", task.getPriority());
+        intent.putExtra("task_priority", task.getPriority().getWireValue());
         intent.putExtra("task_category", task.getCategory());
         intent.putExtra("task_completed", task.isCompleted());
         startActivity(intent);
@@ -303,7 +740,7 @@ public class HomeFragment extends Fragment implements TaskAdapter.OnTaskClickLis
 
     @Override
     public void onTaskToggle(Task task, boolean isCompleted) {
-        Log.d(TAG, "Toggling task: " + task.getTitle() + " to " + isCompleted);
+        AppLog.d(TAG, "Toggling task {} to {}", task.getId(), isCompleted);
 
         String endpoint = isCompleted ? "complete" : "incomplete";
         Call<ApiResponse<Task>> call = isCompleted ?
@@ -316,24 +753,30 @@ public class HomeFragment extends Fragment implements TaskAdapter.OnTaskClickLis
                 if (response.isSuccessful() && response.body() != null) {
                     ApiResponse<Task> apiResponse = response.body();
                     if (apiResponse.isSuccess()) {
-                        // Update task in list
-                        for (int i = 0; i < taskList.size(); i++) {
-                            if (taskList.get(i).getId().equals(task.getId())) {
-                                taskList.get(i).setCompleted(isCompleted);
-                                break;
-                            }
+                        // Update task in list; the snapshot's copy stays untouched
+                        Task updated = task.copy();
+                        updated.setCompleted(isCompleted);
+                        updated.setStatus(isCompleted ? TaskStatus.COMPLETED : TaskStatus.PENDING);
+                        updated.setCompletedAt(isCompleted ? System.currentTimeMillis() : DateUtils.NO_DATE);
+                        TaskRepository.getInstance().upsert(updated);
+                        if (isCompleted) {
+                            activityFeed.record(ActivityEvent.Type.TASK_COMPLETED, task.getId(),
+                                    "Completed \"" + task.getTitle() + "\"");
                         }
-                        taskAdapter.submitList(new ArrayList<>(taskList));
                         Toast.makeText(getContext(),
                                 isCompleted ? "Task completed!" : "Task marked incomplete",
                                 Toast.LENGTH_SHORT).show();
                     } else {
                         showError("Failed to update task: " + apiResponse.getError());
+                        activityFeed.recordWriteFailure(task.getId(), response.code(),
+                                "Couldn't update \"" + task.getTitle() + "\"");
                         // Revert checkbox
                         taskAdapter.notifyDataSetChanged();
                     }
                 } else {
                     showError("Failed to update task: " + response.code());
+                    activityFeed.recordWriteFailure(task.getId(), response.code(),
+                            "Couldn't update \"" + task.getTitle() + "\"");
                     // Revert checkbox
                     taskAdapter.notifyDataSetChanged();
                 }
@@ -341,24 +784,160 @@ public class HomeFragment extends Fragment implements TaskAdapter.OnTaskClickLis
 
             @Override
             public void onFailure(Call<ApiResponse<Task>> call, Throwable t) {
-                Log.e(TAG, "Network error updating task", t);
+                AppLog.e(TAG, "Network error updating task", t);
                 showError("Network error: " + t.getMessage());
+                activityFeed.recordWriteFailure(task.getId(), 0,
+                        "Couldn't update \"" + task.getTitle() + "\"");
                 // Revert checkbox
                 taskAdapter.notifyDataSetChanged();
             }
         });
     }
 
+    // Long-press a row to drag it; the order is saved when it is dropped
+    private final class ReorderCallback extends ItemTouchHelper.SimpleCallback {
+
+        ReorderCallback() {
+            super(ItemTouchHelper.UP | ItemTouchHelper.DOWN, 0);
+        }
+
+        @Override
+        public boolean isLongPressDragEnabled() {
+            // Snapshot rows have no order keys to move between
+            return !taskAdapter.isShowingPlaceholders();
+        }
+
+        @Override
+        public boolean onMove(@NonNull RecyclerView recyclerView, @NonNull RecyclerView.ViewHolder viewHolder,
+                              @NonNull RecyclerView.ViewHolder target) {
+            int from = viewHolder.getBindingAdapterPosition();
+            int to = target.getBindingAdapterPosition();
+            if (!dragging || from == RecyclerView.NO_POSITION || to == RecyclerView.NO_POSITION) return false;
+            taskAdapter.moveRow(from, to);
+            return true;
+        }
+
+        @Override
+        public void onSwiped(@NonNull RecyclerView.ViewHolder viewHolder, int direction) {
+            // Swiping is not enabled
+        }
+
+        @Override
+        public void onSelectedChanged(RecyclerView.ViewHolder viewHolder, int actionState) {
+            super.onSelectedChanged(viewHolder, actionState);
+            if (actionState == ItemTouchHelper.ACTION_STATE_DRAG && viewHolder != null) {
+                dragging = true;
+                dragFrom = viewHolder.getBindingAdapterPosition();
+                taskAdapter.startDrag();
+            }
+        }
+
+        @Override
+        public void clearView(@NonNull RecyclerView recyclerView, @NonNull RecyclerView.ViewHolder viewHolder) {
+            super.clearView(recyclerView, viewHolder);
+            if (!dragging) return;
+            dragging = false;
+            int to = viewHolder.getBindingAdapterPosition();
+            boolean moved = to != RecyclerView.NO_POSITION && to != dragFrom;
+            List<Task> rows = taskAdapter.endDrag(moved);
+            if (moved) {
+                onTaskDropped(rows, to);
+            } else if (renderPending) {
+                render();
+            }
+        }
+    }
+
+    // The dropped task alone gets a new order key, between its new neighbours,
+    // and the server is sent the neighbours so it can check it agrees
+    private void onTaskDropped(List<Task> rows, int position) {
+        Task task = rows.get(position);
+        Task previous = position > 0 ? rows.get(position - 1) : null;
+        Task next = position + 1 < rows.size() ? rows.get(position + 1) : null;
+        String key = orderBetween(previous, next);
+        AppLog.d(TAG, "Moving task {} to {}", task.getId(), position);
+
+        if (key != null) {
+            Task moved = task.copy();
+            moved.setOrder(key);
+            TaskRepository.getInstance().move(moved);
+        } else {
+            // Neighbours without usable keys: keep the old order until the server answers
+            render();
+        }
+
+        MoveTaskRequest request = new MoveTaskRequest(
+                previous != null ? previous.getId() : null, next != null ? next.getId() : null);
+        ApiClient.getApiService().moveTask(task.getId(), request)
+                .enqueue(new Callback<ApiResponse<TaskResponse>>() {
+                    @Override
+                    public void onResponse(Call<ApiResponse<TaskResponse>> call, Response<ApiResponse<TaskResponse>> response) {
+                        if (binding == null) return;
+                        ApiResponse<TaskResponse> apiResponse = response.body();
+                        if (response.isSuccessful() && apiResponse != null && apiResponse.isSuccess()
+                                && apiResponse.getData() != null && apiResponse.getData().getTask() != null) {
+                            // A different key means the server respaced the list or ours was stale
+                            if (key == null || !key.equals(apiResponse.getData().getTask().getOrder())) {
+                                loadTasks();
+                            }
+                        } else {
+                            showError("Failed to move task: " + response.code());
+                            activityFeed.recordWriteFailure(task.getId(), response.code(),
+                                    "Couldn't move \"" + task.getTitle() + "\"");
+                            loadTasks();
+                        }
+                    }
+
+                    @Override
+                    public void onFailure(Call<ApiResponse<TaskResponse>> call, Throwable t) {
+                        if (binding == null) return;
+                        AppLog.e(TAG, "Network error moving task", t);
+                        showError("Network error: " + t.getMessage());
+                        activityFeed.recordWriteFailure(task.getId(), 0,
+                                "Couldn't move \"" + task.getTitle() + "\"");
+                        loadTasks();
+                    }
+                });
+    }
+
+    // Null when a neighbour has no key yet or the keys are out of order
+    private static String orderBetween(Task previous, Task next) {
+        String before = previous != null ? previous.getOrder() : null;
+        String after = next != null ? next.getOrder() : null;
+        if ((previous != null && before == null) || (next != null && after == null)) return null;
+        try {
+            return OrderKeys.between(before, after);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
     private void showError(String message) {
         if (getContext() != null) {
             Toast.makeText(getContext(), message, Toast.LENGTH_LONG).show();
         }
-        Log.e(TAG, message);
+        AppLog.e(TAG, "Shown error: {}", message);
+    }
+
+    // Refreshes run only while the list is showing
+    @Override
+    public void onStart() {
+        super.onStart();
+        refreshScheduler.start(this::refreshInBackground);
+    }
+
+    @Override
+    public void onStop() {
+        super.onStop();
+        refreshScheduler.stop();
     }
 
     @Override
     public void onDestroyView() {
         super.onDestroyView();
+        TaskRepository.getInstance().removeListener(this);
+        frameMonitor.detach();
+        scrollPrefetcher.detach();
         binding = null;
     }
 }
\ No newline at end of file
@@ -9,12 +9,17 @@ import android.widget.TextView;
 import androidx.annotation.NonNull;
 import androidx.fragment.app.Fragment;
 import androidx.lifecycle.ViewModelProvider;
+import androidx.recyclerview.widget.LinearLayoutManager;
 
+import com.taskmate.task_mate.adapters.ActivityFeedAdapter;
 import com.taskmate.task_mate.databinding.FragmentNotificationsBinding;
+import com.taskmate.task_mate.feed.ActivityFeed;
 
-public class NotificationsFragment extends Fragment {
+public class NotificationsFragment extends Fragment implements ActivityFeed.Listener {
 
     private FragmentNotificationsBinding binding;
+    private ActivityFeed feed;
+    private ActivityFeedAdapter feedAdapter;
 
     public View onCreateView(@NonNull LayoutInflater inflater,
                              ViewGroup container, Bundle savedInstanceState) {
@@ -26,12 +31,39 @@ public class NotificationsFragment extends Fragment {
 
         final TextView textView = binding.textNotifications;
         notificationsViewModel.getText().observe(getViewLifecycleOwner(), textView::setText);
+
+        // Only the rows on screen are read from the feed store
+        feed = notificationsViewModel.getFeed();
+        feedAdapter = new ActivityFeedAdapter(feed);
+        binding.recyclerViewFeed.setLayoutManager(new LinearLayoutManager(getContext()));
+        binding.recyclerViewFeed.setAdapter(feedAdapter);
+        feed.setListener(this);
+        updateEmptyState();
         return root;
     }
 
+    @Override
+    public void onFeedChanged() {
+        if (binding == null) return;
+        feedAdapter.onFeedChanged();
+        updateEmptyState();
+    }
+
+    private void updateEmptyState() {
+        binding.textNotifications.setVisibility(feedAdapter.getItemCount() == 0 ? View.VISIBLE : View.GONE);
+    }
+
+    @Override
+    public void onPause() {
+        super.onPause();
+        // Everything on screen has been seen once the user leaves the tab
+        feed.markAllRead();
+    }
+
     @Override
     public void onDestroyView() {
         super.onDestroyView();
+        feed.setListener(null);
         binding = null;
     }
-}
\ No newline at end of file
+}
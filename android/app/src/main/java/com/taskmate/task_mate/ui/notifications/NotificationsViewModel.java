@@ -1,19 +1,35 @@
 package com.taskmate.task_mate.ui.notifications;
 
+import android.app.Application;
+
+import androidx.annotation.NonNull;
+import androidx.lifecycle.AndroidViewModel;
 import androidx.lifecycle.LiveData;
 import androidx.lifecycle.MutableLiveData;
-import androidx.lifecycle.ViewModel;
 
-public class NotificationsViewModel extends ViewModel {
+import com.taskmate.task_mate.feed.ActivityFeed;
+
+public class NotificationsViewModel extends AndroidViewModel {
 
     private final MutableLiveData<String> mText;
+    private final ActivityFeed feed;
 
-    public NotificationsViewModel() {
+    public NotificationsViewModel(@NonNull Application application) {
+        super(application);
+        feed = ActivityFeed.getInstance(application);
         mText = new MutableLiveData<>();
-        mText.setValue("This is notifications fragment");
+        mText.setValue("No activity yet");
     }
 
     public LiveData<String> getText() {
         return mText;
     }
-}
\ No newline at end of file
+
+    public ActivityFeed getFeed() {
+        return feed;
+    }
+
+    public LiveData<Integer> getUnreadCount() {
+        return feed.getUnreadCount();
+    }
+}
@@ -0,0 +1,143 @@
+package com.taskmate.task_mate.ui.timeline;
+
+import android.content.Intent;
+import android.os.Bundle;
+import android.view.LayoutInflater;
+import android.view.View;
+import android.view.ViewGroup;
+import android.widget.Toast;
+
+import androidx.annotation.NonNull;
+import androidx.fragment.app.Fragment;
+import androidx.lifecycle.ViewModelProvider;
+import androidx.recyclerview.widget.LinearLayoutManager;
+import androidx.recyclerview.widget.RecyclerView;
+
+import com.taskmate.task_mate.TaskDetailActivity;
+import com.taskmate.task_mate.adapters.TimelineAdapter;
+import com.taskmate.task_mate.data.TaskRepository;
+import com.taskmate.task_mate.databinding.FragmentTimelineBinding;
+import com.taskmate.task_mate.logging.AppLog;
+import com.taskmate.task_mate.models.ApiResponse;
+import com.taskmate.task_mate.models.OccurrenceUpdateRequest;
+import com.taskmate.task_mate.models.Task;
+import com.taskmate.task_mate.models.TaskResponse;
+import com.taskmate.task_mate.network.ApiClient;
+
+import retrofit2.Call;
+import retrofit2.Callback;
+import retrofit2.Response;
+
+// Tasks by due date, grouped by day and week, opened at today
+public class TimelineFragment extends Fragment implements TimelineAdapter.OnTaskClickListener {
+
+    private static final String TAG = "TimelineFragment";
+    // Rows left below the screen when more recurring occurrences are listed
+    private static final int EXTEND_THRESHOLD = 10;
+
+    private FragmentTimelineBinding binding;
+    private TimelineViewModel timelineViewModel;
+    private TimelineAdapter timelineAdapter;
+    private LinearLayoutManager layoutManager;
+    private boolean scrolledToToday;
+
+    public View onCreateView(@NonNull LayoutInflater inflater,
+                             ViewGroup container, Bundle savedInstanceState) {
+        timelineViewModel = new ViewModelProvider(this).get(TimelineViewModel.class);
+
+        binding = FragmentTimelineBinding.inflate(inflater, container, false);
+        View root = binding.getRoot();
+
+        timelineAdapter = new TimelineAdapter(timelineViewModel.getIndex(), this);
+        layoutManager = new LinearLayoutManager(getContext());
+        binding.recyclerViewTimeline.setLayoutManager(layoutManager);
+        binding.recyclerViewTimeline.setAdapter(timelineAdapter);
+        binding.btnJumpToday.setOnClickListener(v -> scrollToToday());
+        binding.recyclerViewTimeline.addOnScrollListener(new RecyclerView.OnScrollListener() {
+            @Override
+            public void onScrolled(@NonNull RecyclerView recyclerView, int dx, int dy) {
+                if (dy > 0 && layoutManager.findLastVisibleItemPosition()
+                        >= timelineAdapter.getItemCount() - EXTEND_THRESHOLD) {
+                    timelineViewModel.extendWindow();
+                }
+            }
+        });
+
+        timelineViewModel.getDays().observe(getViewLifecycleOwner(), this::showDays);
+        timelineViewModel.getOverdueCount().observe(getViewLifecycleOwner(), count ->
+                binding.textOverdueCount.setText(count + " overdue"));
+        return root;
+    }
+
+    @Override
+    public void onResume() {
+        super.onResume();
+        // Time has moved on since the last render, so tasks may have become overdue
+        timelineViewModel.refresh();
+    }
+
+    private void showDays(long[] days) {
+        if (binding == null || days == null) return;
+        timelineAdapter.setDays(days, System.currentTimeMillis());
+        binding.textTimelineEmpty.setVisibility(days.length == 0 ? View.VISIBLE : View.GONE);
+        if (!scrolledToToday && days.length > 0) {
+            scrolledToToday = true;
+            scrollToToday();
+        }
+    }
+
+    private void scrollToToday() {
+        long today = timelineViewModel.getIndex().dayOf(System.currentTimeMillis());
+        layoutManager.scrollToPositionWithOffset(timelineAdapter.positionOf(today), 0);
+    }
+
+    // TimelineAdapter.OnTaskClickListener implementation
+    @Override
+    public void onTaskClick(Task task) {
+        Intent intent = new Intent(getActivity(), TaskDetailActivity.class);
+        intent.putExtra("task_id", task.getId());
+        intent.putExtra("task_title", task.getTitle());
+        intent.putExtra("task_description", task.getDescription());
+        intent.putExtra("task_priority", task.getPriority().getWireValue());
+        intent.putExtra("task_category", task.getCategory());
+        intent.putExtra("task_completed", task.isCompleted());
+        startActivity(intent);
+    }
+
+    // Long-press checks off (or reopens) one occurrence; the server returns the series
+    @Override
+    public void onOccurrenceLongClick(Task occurrence) {
+        boolean completed = !occurrence.isCompleted();
+        ApiClient.getApiService().updateOccurrence(occurrence.getId(),
+                        OccurrenceUpdateRequest.completed(occurrence.getOccurrence(), completed))
+                .enqueue(new Callback<ApiResponse<TaskResponse>>() {
+                    @Override
+                    public void onResponse(Call<ApiResponse<TaskResponse>> call, Response<ApiResponse<TaskResponse>> response) {
+                        ApiResponse<TaskResponse> body = response.body();
+                        if (response.isSuccessful() && body != null && body.isSuccess()
+                                && body.getData() != null && body.getData().getTask() != null) {
+                            TaskRepository.getInstance().upsert(body.getData().getTask());
+                        } else {
+                            showError("Failed to update occurrence: " + response.code());
+                        }
+                    }
+
+                    @Override
+                    public void onFailure(Call<ApiResponse<TaskResponse>> call, Throwable t) {
+                        AppLog.e(TAG, "Network error updating occurrence", t);
+                        showError("Network error: " + t.getMessage());
+                    }
+                });
+    }
+
+    private void showError(String message) {
+        if (getContext() == null) return;
+        Toast.makeText(getContext(), message, Toast.LENGTH_LONG).show();
+    }
+
+    @Override
+    public void onDestroyView() {
+        super.onDestroyView();
+        binding = null;
+    }
+}
@@ -0,0 +1,91 @@
+package com.taskmate.task_mate.ui.timeline;
+
+import android.os.Handler;
+import android.os.Looper;
+
+import androidx.lifecycle.LiveData;
+import androidx.lifecycle.MutableLiveData;
+import androidx.lifecycle.ViewModel;
+
+import com.taskmate.task_mate.data.TaskRepository;
+import com.taskmate.task_mate.models.Task;
+import com.taskmate.task_mate.timeline.TimelineIndex;
+
+import java.util.List;
+
+public class TimelineViewModel extends ViewModel implements TaskRepository.Listener {
+
+    private final MutableLiveData<long[]> days = new MutableLiveData<>();
+    private final MutableLiveData<Integer> overdueCount = new MutableLiveData<>();
+    private final Handler handler = new Handler(Looper.getMainLooper());
+    private final Runnable tick = this::refreshOverdue;
+    private final TimelineIndex index;
+
+    public TimelineViewModel() {
+        // Index subscribes first, so it is already up to date when we re-query
+        index = TimelineIndex.getInstance();
+        TaskRepository.getInstance().addListener(this);
+        refresh();
+    }
+
+    public TimelineIndex getIndex() {
+        return index;
+    }
+
+    public LiveData<long[]> getDays() {
+        return days;
+    }
+
+    public LiveData<Integer> getOverdueCount() {
+        return overdueCount;
+    }
+
+    // Lists occurrences of recurring tasks further ahead once the user scrolls near the end
+    public void extendWindow() {
+        if (index.extendWindowTo(index.getWindowEnd() + TimelineIndex.WINDOW_STEP_DAYS)) {
+            days.setValue(index.getDays());
+        }
+    }
+
+    public void refresh() {
+        days.setValue(index.getDays());
+        refreshOverdue();
+    }
+
+    // Re-arms itself for the next due time, so the counter goes up while the screen is open
+    private void refreshOverdue() {
+        handler.removeCallbacks(tick);
+        overdueCount.setValue(index.getOverdueCount());
+        long next = index.nextOverdueAt();
+        if (next != Long.MAX_VALUE) {
+            handler.postDelayed(tick, Math.max(0, next - System.currentTimeMillis()));
+        }
+    }
+
+    // TaskRepository.Listener implementation
+    @Override
+    public void onTasksReplaced(List<Task> tasks) {
+        refresh();
+    }
+
+    @Override
+    public void onTasksAppended(List<Task> added) {
+        refresh();
+    }
+
+    @Override
+    public void onTaskUpdated(Task task) {
+        refresh();
+    }
+
+    @Override
+    public void onTaskRemoved(String taskId) {
+        refresh();
+    }
+
+    @Override
+    protected void onCleared() {
+        handler.removeCallbacks(tick);
+        TaskRepository.getInstance().removeListener(this);
+    }
+}
@@ -0,0 +1,137 @@
+package com.taskmate.task_mate.ui.today;
+
+import android.content.Intent;
+import android.os.Bundle;
+import android.view.LayoutInflater;
+import android.view.View;
+import android.view.ViewGroup;
+import android.widget.Toast;
+
+import androidx.annotation.NonNull;
+import androidx.fragment.app.Fragment;
+import androidx.lifecycle.ViewModelProvider;
+import androidx.recyclerview.widget.LinearLayoutManager;
+
+import com.taskmate.task_mate.TaskDetailActivity;
+import com.taskmate.task_mate.adapters.TaskAdapter;
+import com.taskmate.task_mate.data.TaskRepository;
+import com.taskmate.task_mate.databinding.FragmentTodayBinding;
+import com.taskmate.task_mate.feed.ActivityEvent;
+import com.taskmate.task_mate.feed.ActivityFeed;
+import com.taskmate.task_mate.logging.AppLog;
+import com.taskmate.task_mate.models.ApiResponse;
+import com.taskmate.task_mate.models.Task;
+import com.taskmate.task_mate.models.TaskStatus;
+import com.taskmate.task_mate.network.ApiClient;
+import com.taskmate.task_mate.planner.DailyPlan;
+import com.taskmate.task_mate.util.DateUtils;
+
+import retrofit2.Call;
+import retrofit2.Callback;
+import retrofit2.Response;
+
+public class TodayFragment extends Fragment implements TaskAdapter.OnTaskClickListener {
+
+    private static final String TAG = "TodayFragment";
+
+    private FragmentTodayBinding binding;
+    private TodayViewModel todayViewModel;
+    private TaskAdapter taskAdapter;
+    private ActivityFeed activityFeed;
+
+    public View onCreateView(@NonNull LayoutInflater inflater,
+                             ViewGroup container, Bundle savedInstanceState) {
+        todayViewModel = new ViewModelProvider(this).get(TodayViewModel.class);
+
+        binding = FragmentTodayBinding.inflate(inflater, container, false);
+        View root = binding.getRoot();
+        activityFeed = ActivityFeed.getInstance(requireContext());
+
+        taskAdapter = new TaskAdapter(this);
+        binding.recyclerViewToday.setLayoutManager(new LinearLayoutManager(getContext()));
+        binding.recyclerViewToday.setAdapter(taskAdapter);
+
+        todayViewModel.getPlan().observe(getViewLifecycleOwner(), this::showPlan);
+        return root;
+    }
+
+    @Override
+    public void onResume() {
+        super.onResume();
+        // Time has moved on since the last render, so tasks may have become overdue
+        todayViewModel.refresh();
+    }
+
+    private void showPlan(DailyPlan plan) {
+        if (binding == null || plan == null) return;
+
+        taskAdapter.submitList(plan.getAll());
+        binding.textTodayEmpty.setVisibility(plan.isEmpty() ? View.VISIBLE : View.GONE);
+        binding.textTodaySummary.setText(plan.getOverdueTotal() + " overdue · "
+                + plan.getToday().size() + " planned for today");
+    }
+
+    // TaskAdapter.OnTaskClickListener implementation
+    @Override
+    public void onTaskClick(Task task) {
+        Intent intent = new Intent(getActivity(), TaskDetailActivity.class);
+        intent.putExtra("task_id", task.getId());
+        intent.putExtra("task_title", task.getTitle());
+        intent.putExtra("task_description", task.getDescription());
+        intent.putExtra("task_priority", task.getPriority().getWireValue());
+        intent.putExtra("task_category", task.getCategory());
+        intent.putExtra("task_completed", task.isCompleted());
+        startActivity(intent);
+    }
+
+    @Override
+    public void onTaskToggle(Task task, boolean isCompleted) {
+        Call<ApiResponse<Task>> call = isCompleted ?
+                ApiClient.getApiService().markTaskComplete(task.getId()) :
+                ApiClient.getApiService().markTaskIncomplete(task.getId());
+
+        call.enqueue(new Callback<ApiResponse<Task>>() {
+            @Override
+            public void onResponse(Call<ApiResponse<Task>> call, Response<ApiResponse<Task>> response) {
+                if (response.isSuccessful() && response.body() != null && response.body().isSuccess()) {
+                    Task updated = task.copy();
+                    updated.setCompleted(isCompleted);
+                    updated.setStatus(isCompleted ? TaskStatus.COMPLETED : TaskStatus.PENDING);
+                    updated.setCompletedAt(isCompleted ? System.currentTimeMillis() : DateUtils.NO_DATE);
+                    if (isCompleted) {
+                        activityFeed.record(ActivityEvent.Type.TASK_COMPLETED, task.getId(),
+                                "Completed \"" + task.getTitle() + "\"");
+                    }
+                    // Completed tasks drop out of the plan through the repository listener
+                    TaskRepository.getInstance().upsert(updated);
+                } else {
+                    showError("Failed to update task: " + response.code());
+                    activityFeed.recordWriteFailure(task.getId(), response.code(),
+                            "Couldn't update \"" + task.getTitle() + "\"");
+                    todayViewModel.refresh();
+                }
+            }
+
+            @Override
+            public void onFailure(Call<ApiResponse<Task>> call, Throwable t) {
+                AppLog.e(TAG, "Network error updating task", t);
+                showError("Network error: " + t.getMessage());
+                activityFeed.recordWriteFailure(task.getId(), 0,
+                        "Couldn't update \"" + task.getTitle() + "\"");
+                todayViewModel.refresh();
+            }
+        });
+    }
+
+    private void showError(String message) {
+        if (getContext() != null) {
+            Toast.makeText(getContext(), message, Toast.LENGTH_LONG).show();
+        }
+    }
+
+    @Override
+    public void onDestroyView() {
+        super.onDestroyView();
+        binding = null;
+    }
+}
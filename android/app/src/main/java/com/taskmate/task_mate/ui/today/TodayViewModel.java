@@ -0,0 +1,58 @@
+package com.taskmate.task_mate.ui.today;
+
+import androidx.lifecycle.LiveData;
+import androidx.lifecycle.MutableLiveData;
+import androidx.lifecycle.ViewModel;
+
+import com.taskmate.task_mate.data.TaskRepository;
+import com.taskmate.task_mate.models.Task;
+import com.taskmate.task_mate.planner.DailyPlan;
+import com.taskmate.task_mate.planner.DailyPlanner;
+
+import java.util.List;
+
+public class TodayViewModel extends ViewModel implements TaskRepository.Listener {
+
+    private final MutableLiveData<DailyPlan> plan = new MutableLiveData<>();
+    private final DailyPlanner planner;
+
+    public TodayViewModel() {
+        // Planner subscribes first, so it is already up to date when we re-query
+        planner = DailyPlanner.getInstance();
+        TaskRepository.getInstance().addListener(this);
+    }
+
+    public LiveData<DailyPlan> getPlan() {
+        return plan;
+    }
+
+    public void refresh() {
+        plan.setValue(planner.planForToday());
+    }
+
+    // TaskRepository.Listener implementation
+    @Override
+    public void onTasksReplaced(List<Task> tasks) {
+        refresh();
+    }
+
+    @Override
+    public void onTasksAppended(List<Task> added) {
+        refresh();
+    }
+
+    @Override
+    public void onTaskUpdated(Task task) {
+        refresh();
+    }
+
+    @Override
+    public void onTaskRemoved(String taskId) {
+        refresh();
+    }
+
+    @Override
+    protected void onCleared() {
+        TaskRepository.getInstance().removeListener(this);
+    }
+}
@@ -0,0 +1,157 @@
+package com.taskmate.task_mate.util;
+
+import java.util.Calendar;
+import java.util.TimeZone;
+
+// Allocation-free ISO-8601 parsing for the timestamps the server sends
+// (e.g. "2025-01-15T10:30:00.000Z"). java.time is not available below API 26.
+public final class DateUtils {
+
+    public static final long NO_DATE = 0L;
+    public static final long MINUTE_MS = 60_000L;
+    public static final long HOUR_MS = 60 * MINUTE_MS;
+    public static final long DAY_MS = 24 * HOUR_MS;
+
+    private DateUtils() {}
+
+    // Returns epoch millis, or NO_DATE when the value is missing or malformed
+    public static long parseIso(String value) {
+        if (value == null) return NO_DATE;
+        int len = value.length();
+        if (len < 10 || value.charAt(4) != '-' || value.charAt(7) != '-') return NO_DATE;
+
+        int year = digits(value, 0, 4);
+        int month = digits(value, 5, 2);
+        int day = digits(value, 8, 2);
+        if (year < 0 || month < 1 || month > 12 || day < 1 || day > 31) return NO_DATE;
+
+        int hour = 0, minute = 0, second = 0, millis = 0;
+        long offsetMs = 0;
+        int i = 10;
+        if (i < len && (value.charAt(i) == 'T' || value.charAt(i) == ' ')) {
+            if (len < i + 6) return NO_DATE;
+            hour = digits(value, i + 1, 2);
+            minute = digits(value, i + 4, 2);
+            i += 6;
+            if (i < len && value.charAt(i) == ':') {
+                second = digits(value, i + 1, 2);
+                i += 3;
+            }
+            if (i < len && value.charAt(i) == '.') {
+                i++;
+                int scale = 100;
+                while (i < len && Character.isDigit(value.charAt(i))) {
+                    millis += (value.charAt(i) - '0') * scale;
+                    scale /= 10;
+                    i++;
+                }
+            }
+            if (i < len) {
+                char zone = value.charAt(i);
+                if (zone == '+' || zone == '-') {
+                    if (len < i + 3) return NO_DATE;
+                    int offHour = digits(value, i + 1, 2);
+                    int offMinute = 0;
+                    if (len >= i + 6 && value.charAt(i + 3) == ':') {
+                        offMinute = digits(value, i + 4, 2);
+                    } else if (len >= i + 5) {
+                        offMinute = digits(value, i + 3, 2);
+                    }
+                    if (offHour < 0 || offMinute < 0) return NO_DATE;
+                    offsetMs = (offHour * HOUR_MS + offMinute * MINUTE_MS) * (zone == '+' ? 1 : -1);
+                } else if (zone != 'Z') {
+                    return NO_DATE;
+                }
+            }
+            if (hour < 0 || minute < 0 || second < 0) return NO_DATE;
+        }
+
+        return daysFromCivil(year, month, day) * DAY_MS
+                + hour * HOUR_MS + minute * MINUTE_MS + second * 1000L + millis - offsetMs;
+    }
+
+    // Formats epoch millis as UTC ISO-8601 with millisecond precision
+    public static String formatIso(long epochMillis) {
+        long msOfDay = Math.floorMod(epochMillis, DAY_MS);
+        int[] civil = civilFromDays(Math.floorDiv(epochMillis, DAY_MS));
+        int year = civil[0];
+        int month = civil[1];
+        int day = civil[2];
+
+        char[] out = new char[24];
+        put(out, 0, year, 4);
+        out[4] = '-';
+        put(out, 5, month, 2);
+        out[7] = '-';
+        put(out, 8, day, 2);
+        out[10] = 'T';
+        put(out, 11, msOfDay / HOUR_MS, 2);
+        out[13] = ':';
+        put(out, 14, (msOfDay / MINUTE_MS) % 60, 2);
+        out[16] = ':';
+        put(out, 17, (msOfDay / 1000) % 60, 2);
+        out[19] = '.';
+        put(out, 20, msOfDay % 1000, 3);
+        out[23] = 'Z';
+        return new String(out);
+    }
+
+    // Local-time midnight that ends the day containing the given instant
+    public static long endOfLocalDay(long epochMillis) {
+        Calendar calendar = Calendar.getInstance(TimeZone.getDefault());
+        calendar.setTimeInMillis(epochMillis);
+        calendar.set(Calendar.HOUR_OF_DAY, 0);
+        calendar.set(Calendar.MINUTE, 0);
+        calendar.set(Calendar.SECOND, 0);
+        calendar.set(Calendar.MILLISECOND, 0);
+        calendar.add(Calendar.DAY_OF_MONTH, 1);
+        return calendar.getTimeInMillis();
+    }
+
+    // Year, month (1-12) and day of month of a day number (days since 1970-01-01)
+    public static int[] civilFromDays(long days) {
+        // Howard Hinnant's algorithm
+        long z = days + 719468;
+        long era = Math.floorDiv(z, 146097);
+        long doe = z - era * 146097;
+        long yoe = (doe - doe / 1460 + doe / 36524 - doe / 146096) / 365;
+        long doy = doe - (365 * yoe + yoe / 4 - yoe / 100);
+        long mp = (5 * doy + 2) / 153;
+        long day = doy - (153 * mp + 2) / 5 + 1;
+        long month = mp < 10 ? mp + 3 : mp - 9;
+        long year = yoe + era * 400 + (month <= 2 ? 1 : 0);
+        return new int[]{(int) year, (int) month, (int) day};
+    }
+
+    public static int daysInMonth(int year, int month) {
+        return month == 12 ? 31 : (int) (daysFromCivil(year, month + 1, 1) - daysFromCivil(year, month, 1));
+    }
+
+    // Day number of a civil date; the inverse of civilFromDays
+    public static long daysFromCivil(int year, int month, int day) {
+        long y = month <= 2 ? year - 1 : year;
+        long era = Math.floorDiv(y, 400);
+        long yoe = y - era * 400;
+        long doy = (153L * (month + (month > 2 ? -3 : 9)) + 2) / 5 + day - 1;
+        long doe = yoe * 365 + yoe / 4 - yoe / 100 + doy;
+        return era * 146097 + doe - 719468;
+    }
+
+    private static int digits(String s, int start, int count) {
+        if (start + count > s.length()) return -1;
+        int result = 0;
+        for (int i = start; i < start + count; i++) {
+            char c = s.charAt(i);
+            if (c < '0' || c > '9') return -1;
+            result = result * 10 + (c - '0');
+        }
+        return result;
+    }
+
+    private static void put(char[] out, int offset, long value, int width) {
+        for (int i = offset + width - 1; i >= offset; i--) {
+            out[i] = (char) ('0' + (value % 10));
+            value /= 10;
+        }
+    }
+}
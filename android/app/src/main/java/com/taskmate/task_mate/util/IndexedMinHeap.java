@@ -0,0 +1,208 @@
+package com.taskmate.task_mate.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Binary min-heap over long scores with a key -> slot index, so a single
+// entry can be inserted, re-scored or removed in O(log n) without re-sorting.
+// Ties on score are broken by insertion sequence to keep the order stable.
+public class IndexedMinHeap<K> {
+
+    private Object[] keys;
+    private long[] scores;
+    private long[] sequences;
+    private final Map<K, Integer> positions;
+    private int size;
+    private long nextSequence;
+
+    public IndexedMinHeap() {
+        this(16);
+    }
+
+    public IndexedMinHeap(int initialCapacity) {
+        int capacity = Math.max(4, initialCapacity);
+        keys = new Object[capacity];
+        scores = new long[capacity];
+        sequences = new long[capacity];
+        positions = new HashMap<>(capacity * 2);
+    }
+
+    public int size() { return size; }
+    public boolean isEmpty() { return size == 0; }
+    public boolean contains(K key) { return positions.containsKey(key); }
+
+    // Inserts the key or moves it to its new score; O(log n)
+    public void put(K key, long score) {
+        Integer slot = positions.get(key);
+        if (slot == null) {
+            ensureCapacity(size + 1);
+            int i = size++;
+            keys[i] = key;
+            scores[i] = score;
+            sequences[i] = nextSequence++;
+            positions.put(key, i);
+            siftUp(i);
+            return;
+        }
+        int i = slot;
+        long old = scores[i];
+        if (old == score) return;
+        scores[i] = score;
+        if (score < old) {
+            siftUp(i);
+        } else {
+            siftDown(i);
+        }
+    }
+
+    public boolean remove(K key) {
+        Integer slot = positions.remove(key);
+        if (slot == null) return false;
+        int i = slot;
+        int last = --size;
+        if (i != last) {
+            move(last, i);
+            keys[last] = null;
+            if (!siftUp(i)) siftDown(i);
+        } else {
+            keys[last] = null;
+        }
+        return true;
+    }
+
+    public long scoreOf(K key) {
+        Integer slot = positions.get(key);
+        if (slot == null) throw new IllegalArgumentException("Unknown key: " + key);
+        return scores[slot];
+    }
+
+    @SuppressWarnings("unchecked")
+    public K peek() {
+        return size == 0 ? null : (K) keys[0];
+    }
+
+    public long peekScore() {
+        if (size == 0) throw new IllegalStateException("Heap is empty");
+        return scores[0];
+    }
+
+    public K poll() {
+        K top = peek();
+        if (top != null) remove(top);
+        return top;
+    }
+
+    public void clear() {
+        Arrays.fill(keys, 0, size, null);
+        positions.clear();
+        size = 0;
+    }
+
+    // Returns up to `limit` keys with score <= maxScore in ascending order without
+    // disturbing the heap. Walks a frontier of candidate slots, so the cost is
+    // O(k log k) in the number of keys returned rather than O(n log n).
+    @SuppressWarnings("unchecked")
+    public List<K> peekSorted(int limit, long maxScore) {
+        List<K> result = new ArrayList<>(Math.min(limit, size));
+        if (size == 0 || limit <= 0) return result;
+
+        int[] frontier = new int[Math.min(size, 2 * limit + 1)];
+        int frontierSize = 0;
+        frontier[frontierSize++] = 0;
+
+        while (frontierSize > 0 && result.size() < limit) {
+            int slot = frontier[0];
+            frontier[0] = frontier[--frontierSize];
+            siftDownFrontier(frontier, frontierSize, 0);
+            if (scores[slot] > maxScore) break;
+            result.add((K) keys[slot]);
+
+            for (int child = 2 * slot + 1; child <= 2 * slot + 2 && child < size; child++) {
+                if (frontierSize == frontier.length) {
+                    frontier = Arrays.copyOf(frontier, frontier.length * 2);
+                }
+                frontier[frontierSize] = child;
+                siftUpFrontier(frontier, frontierSize++);
+            }
+        }
+        return result;
+    }
+
+    private boolean less(int a, int b) {
+        return scores[a] < scores[b] || (scores[a] == scores[b] && sequences[a] < sequences[b]);
+    }
+
+    private boolean siftUp(int i) {
+        boolean moved = false;
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (!less(i, parent)) break;
+            swap(i, parent);
+            i = parent;
+            moved = true;
+        }
+        return moved;
+    }
+
+    private void siftDown(int i) {
+        while (true) {
+            int left = 2 * i + 1;
+            if (left >= size) return;
+            int smallest = left;
+            int right = left + 1;
+            if (right < size && less(right, left)) smallest = right;
+            if (!less(smallest, i)) return;
+            swap(i, smallest);
+            i = smallest;
+        }
+    }
+
+    private void siftUpFrontier(int[] heap, int i) {
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (!less(heap[i], heap[parent])) break;
+            int tmp = heap[i]; heap[i] = heap[parent]; heap[parent] = tmp;
+            i = parent;
+        }
+    }
+
+    private void siftDownFrontier(int[] heap, int length, int i) {
+        while (true) {
+            int left = 2 * i + 1;
+            if (left >= length) return;
+            int smallest = left;
+            if (left + 1 < length && less(heap[left + 1], heap[left])) smallest = left + 1;
+            if (!less(heap[smallest], heap[i])) return;
+            int tmp = heap[i]; heap[i] = heap[smallest]; heap[smallest] = tmp;
+            i = smallest;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void swap(int a, int b) {
+        Object key = keys[a]; keys[a] = keys[b]; keys[b] = key;
+        long score = scores[a]; scores[a] = scores[b]; scores[b] = score;
+        long seq = sequences[a]; sequences[a] = sequences[b]; sequences[b] = seq;
+        positions.put((K) keys[a], a);
+        positions.put((K) keys[b], b);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void move(int from, int to) {
+        keys[to] = keys[from];
+        scores[to] = scores[from];
+        sequences[to] = sequences[from];
+        positions.put((K) keys[to], to);
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity <= keys.length) return;
+        int newCapacity = Math.max(capacity, keys.length * 2);
+        keys = Arrays.copyOf(keys, newCapacity);
+        scores = Arrays.copyOf(scores, newCapacity);
+        sequences = Arrays.copyOf(sequences, newCapacity);
+    }
+}
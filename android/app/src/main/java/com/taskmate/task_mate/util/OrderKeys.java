@@ -0,0 +1,104 @@
+package com.taskmate.task_mate.util;
+
+// Fractional ordering keys for manually arranged lists. A key is the digit
+// string of a fraction in (0, 1), base 62, without trailing zeros, so plain
+// String.compareTo orders keys and there is always room between two of them:
+// moving an item only rewrites that item's key. Keys grow by about a digit
+// per six inserts into the same gap; once one passes MAX_LENGTH the list is
+// respaced with spread(). server/src/utils/orderKey.ts implements the same
+// scheme and must produce the same keys.
+public final class OrderKeys {
+
+    // Base-62 digits in ASCII order
+    static final String DIGITS = "0123456789ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz";
+    private static final int BASE = DIGITS.length();
+    public static final int MAX_LENGTH = 24;
+
+    private OrderKeys() {}
+
+    // A key strictly between before and after; null stands for the start/end of the list
+    public static String between(String before, String after) {
+        if (before != null) check(before);
+        if (after != null) check(after);
+        if (before != null && after != null && before.compareTo(after) >= 0) {
+            throw new IllegalArgumentException(before + " is not before " + after);
+        }
+
+        String a = before != null ? before : "";
+        String b = after;
+        StringBuilder key = new StringBuilder();
+        if (b != null) {
+            // Shared leading digits (a is zero-padded) stay as they are
+            int n = 0;
+            while (n < b.length() && digitAt(a, n) == b.charAt(n)) n++;
+            key.append(b, 0, n);
+            a = a.substring(Math.min(n, a.length()));
+            b = b.substring(n);
+        }
+        while (true) {
+            int digitA = a.isEmpty() ? 0 : DIGITS.indexOf(a.charAt(0));
+            int digitB = b != null ? DIGITS.indexOf(b.charAt(0)) : BASE;
+            if (digitB - digitA > 1) {
+                return key.append(DIGITS.charAt((digitA + digitB + 1) / 2)).toString();
+            }
+            // Adjacent digits: b's first digit alone is enough when b goes on,
+            // otherwise keep a's digit and look for room after it
+            if (b != null && b.length() > 1) {
+                return key.append(b.charAt(0)).toString();
+            }
+            key.append(DIGITS.charAt(digitA));
+            a = a.isEmpty() ? a : a.substring(1);
+            b = null;
+        }
+    }
+
+    public static boolean isTooLong(String key) {
+        return key != null && key.length() > MAX_LENGTH;
+    }
+
+    // count ascending keys, evenly spaced and as short as possible
+    public static String[] spread(int count) {
+        int length = 1;
+        long span = BASE;
+        // At least one free slot between neighbours
+        while (span < 2L * (count + 1)) {
+            length++;
+            span *= BASE;
+        }
+        String[] keys = new String[count];
+        char[] digits = new char[length];
+        for (int i = 0; i < count; i++) {
+            long value = span * (i + 1) / (count + 1);
+            for (int d = length - 1; d >= 0; d--) {
+                digits[d] = DIGITS.charAt((int) (value % BASE));
+                value /= BASE;
+            }
+            int end = length;
+            while (digits[end - 1] == '0') end--;
+            keys[i] = new String(digits, 0, end);
+        }
+        return keys;
+    }
+
+    // Key order; tasks without a key sort last
+    public static int compare(String a, String b) {
+        if (a == null) return b == null ? 0 : 1;
+        if (b == null) return -1;
+        return a.compareTo(b);
+    }
+
+    private static char digitAt(String key, int index) {
+        return index < key.length() ? key.charAt(index) : '0';
+    }
+
+    private static void check(String key) {
+        if (key.isEmpty() || key.charAt(key.length() - 1) == '0') {
+            throw new IllegalArgumentException("Invalid order key: " + key);
+        }
+        for (int i = 0; i < key.length(); i++) {
+            if (DIGITS.indexOf(key.charAt(i)) < 0) {
+                throw new IllegalArgumentException("Invalid order key: " + key);
+            }
+        }
+    }
+}
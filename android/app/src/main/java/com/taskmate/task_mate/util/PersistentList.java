@@ -0,0 +1,204 @@
+package com.taskmate.task_mate.util;
+
+import java.util.AbstractList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+// Immutable list with structural sharing: an AVL tree ordered by position
+// where every node knows its subtree size. Insert, replace and remove at any
+// index copy only the O(log n) nodes on the path, so every version can be
+// handed to the adapter or a background thread as a snapshot without copying.
+//
+// It is a regular read-only java.util.List; iteration is O(n) overall and
+// get(i) is O(log n).
+public final class PersistentList<E> extends AbstractList<E> {
+
+    private static final PersistentList<?> EMPTY = new PersistentList<>(null);
+
+    private final Node<E> root;
+
+    private PersistentList(Node<E> root) {
+        this.root = root;
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <E> PersistentList<E> empty() {
+        return (PersistentList<E>) EMPTY;
+    }
+
+    // Builds a perfectly balanced tree in O(n)
+    @SuppressWarnings("unchecked")
+    public static <E> PersistentList<E> copyOf(Collection<? extends E> items) {
+        if (items instanceof PersistentList) return (PersistentList<E>) items;
+        if (items == null || items.isEmpty()) return empty();
+        Object[] values = items.toArray();
+        return new PersistentList<>(build(values, 0, values.length));
+    }
+
+    @Override
+    public int size() {
+        return size(root);
+    }
+
+    @Override
+    public E get(int index) {
+        checkIndex(index, size());
+        Node<E> node = root;
+        while (true) {
+            int leftSize = size(node.left);
+            if (index < leftSize) {
+                node = node.left;
+            } else if (index == leftSize) {
+                return node.value;
+            } else {
+                index -= leftSize + 1;
+                node = node.right;
+            }
+        }
+    }
+
+    // Returns a new list with the element at index replaced
+    public PersistentList<E> with(int index, E value) {
+        checkIndex(index, size());
+        return new PersistentList<>(set(root, index, value));
+    }
+
+    // Returns a new list with value inserted before index (0..size)
+    public PersistentList<E> plus(int index, E value) {
+        if (index < 0 || index > size()) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size());
+        }
+        return new PersistentList<>(insert(root, index, value));
+    }
+
+    public PersistentList<E> plus(E value) {
+        return plus(size(), value);
+    }
+
+    // Returns a new list without the element at index
+    public PersistentList<E> minus(int index) {
+        checkIndex(index, size());
+        Node<E> newRoot = remove(root, index);
+        return newRoot == null ? empty() : new PersistentList<>(newRoot);
+    }
+
+    @Override
+    public Iterator<E> iterator() {
+        return new Iterator<E>() {
+            @SuppressWarnings("unchecked")
+            private final Node<E>[] stack = (Node<E>[]) new Node<?>[height(root) + 1];
+            private int depth;
+
+            {
+                pushLeft(root);
+            }
+
+            @Override
+            public boolean hasNext() {
+                return depth > 0;
+            }
+
+            @Override
+            public E next() {
+                if (depth == 0) throw new NoSuchElementException();
+                Node<E> node = stack[--depth];
+                pushLeft(node.right);
+                return node.value;
+            }
+
+            private void pushLeft(Node<E> node) {
+                while (node != null) {
+                    stack[depth++] = node;
+                    node = node.left;
+                }
+            }
+        };
+    }
+
+    private static final class Node<E> {
+        final E value;
+        final Node<E> left;
+        final Node<E> right;
+        final int size;
+        final int height;
+
+        Node(E value, Node<E> left, Node<E> right) {
+            this.value = value;
+            this.left = left;
+            this.right = right;
+            this.size = size(left) + size(right) + 1;
+            this.height = Math.max(height(left), height(right)) + 1;
+        }
+    }
+
+    private static int size(Node<?> node) {
+        return node == null ? 0 : node.size;
+    }
+
+    private static int height(Node<?> node) {
+        return node == null ? 0 : node.height;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <E> Node<E> build(Object[] values, int from, int to) {
+        if (from >= to) return null;
+        int mid = (from + to) >>> 1;
+        return new Node<>((E) values[mid], build(values, from, mid), build(values, mid + 1, to));
+    }
+
+    private static <E> Node<E> set(Node<E> node, int index, E value) {
+        int leftSize = size(node.left);
+        if (index < leftSize) return new Node<>(node.value, set(node.left, index, value), node.right);
+        if (index == leftSize) return new Node<>(value, node.left, node.right);
+        return new Node<>(node.value, node.left, set(node.right, index - leftSize - 1, value));
+    }
+
+    private static <E> Node<E> insert(Node<E> node, int index, E value) {
+        if (node == null) return new Node<>(value, null, null);
+        int leftSize = size(node.left);
+        if (index <= leftSize) return balance(node.value, insert(node.left, index, value), node.right);
+        return balance(node.value, node.left, insert(node.right, index - leftSize - 1, value));
+    }
+
+    private static <E> Node<E> remove(Node<E> node, int index) {
+        int leftSize = size(node.left);
+        if (index < leftSize) return balance(node.value, remove(node.left, index), node.right);
+        if (index > leftSize) return balance(node.value, node.left, remove(node.right, index - leftSize - 1));
+        if (node.left == null) return node.right;
+        if (node.right == null) return node.left;
+        Node<E> successor = node.right;
+        while (successor.left != null) successor = successor.left;
+        return balance(successor.value, node.left, remove(node.right, 0));
+    }
+
+    private static <E> Node<E> balance(E value, Node<E> left, Node<E> right) {
+        int leftHeight = height(left);
+        int rightHeight = height(right);
+        if (leftHeight > rightHeight + 1) {
+            if (height(left.left) >= height(left.right)) {
+                return new Node<>(left.value, left.left, new Node<>(value, left.right, right));
+            }
+            Node<E> pivot = left.right;
+            return new Node<>(pivot.value,
+                    new Node<>(left.value, left.left, pivot.left),
+                    new Node<>(value, pivot.right, right));
+        }
+        if (rightHeight > leftHeight + 1) {
+            if (height(right.right) >= height(right.left)) {
+                return new Node<>(right.value, new Node<>(value, left, right.left), right.right);
+            }
+            Node<E> pivot = right.left;
+            return new Node<>(pivot.value,
+                    new Node<>(value, left, pivot.left),
+                    new Node<>(right.value, pivot.right, right.right));
+        }
+        return new Node<>(value, left, right);
+    }
+
+    private static void checkIndex(int index, int size) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+    }
+}
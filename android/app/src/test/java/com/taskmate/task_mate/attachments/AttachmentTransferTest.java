@@ -0,0 +1,318 @@
+package com.taskmate.task_mate.attachments;
+
+import com.taskmate.task_mate.models.Attachment;
+import com.taskmate.task_mate.models.CreateAttachmentRequest;
+import com.taskmate.task_mate.network.ApiService;
+import com.taskmate.task_mate.network.WireFormatConverterFactory;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import okhttp3.OkHttpClient;
+import retrofit2.Retrofit;
+
+import static org.junit.Assert.*;
+
+public class AttachmentTransferTest {
+
+    private static final String TASK_ID = "65a1b2c3d4e5f6a7b8000001";
+    private static final int CHUNK = 64 * 1024;
+
+    @Rule
+    public TemporaryFolder temp = new TemporaryFolder();
+
+    private StandInAttachmentServer server;
+    private ApiService api;
+
+    @Before
+    public void setUp() throws IOException {
+        server = new StandInAttachmentServer(temp.newFolder("server"));
+        api = new Retrofit.Builder()
+                .baseUrl(server.start())
+                .addConverterFactory(WireFormatConverterFactory.create())
+                .client(new OkHttpClient())
+                .build()
+                .create(ApiService.class);
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        server.close();
+    }
+
+    @Test
+    public void upload_sendsFixedSizeChunksFromDisk() throws IOException {
+        File file = randomFile("notes.bin", CHUNK * 2 + 1000);
+        Attachment attachment = create(file);
+        List<Long> progress = new ArrayList<>();
+
+        AttachmentUpload upload = upload(attachment, file, (done, total) -> progress.add(done));
+        upload.run();
+
+        assertTrue(upload.getResult().isComplete());
+        assertTrue(server.isComplete(attachment.getId()));
+        assertSameContent(file, server.contentOf(attachment.getId()));
+        assertEquals(Arrays.asList(
+                "PUT " + contentPath(attachment) + " bytes 0-65535/" + file.length(),
+                "PUT " + contentPath(attachment) + " bytes 65536-131071/" + file.length(),
+                "PUT " + contentPath(attachment) + " bytes 131072-132071/" + file.length()),
+                server.getRequests().subList(1, 4));
+        // Reported a buffer at a time, never backwards, ending at the size
+        assertTrue(progress.size() > 3);
+        for (int i = 1; i < progress.size(); i++) assertTrue(progress.get(i) >= progress.get(i - 1));
+        assertEquals(file.length(), (long) progress.get(progress.size() - 1));
+    }
+
+    @Test
+    public void upload_resumesAfterDisconnectsMidChunk() throws IOException {
+        File file = randomFile("photo.jpg", CHUNK * 4);
+        Attachment attachment = create(file);
+        server.cutUploads(2, 10_000);
+
+        AttachmentUpload upload = upload(attachment, file, null);
+        upload.run();
+
+        assertTrue(upload.getResult().isComplete());
+        assertSameContent(file, server.contentOf(attachment.getId()));
+        // Bytes that made it before a cut were kept, so nothing was sent twice
+        assertEquals(file.length(), server.getUploadedBodyBytes());
+        assertTrue(server.getRequests().contains("GET " + attachmentPath(attachment)));
+        assertTrue(server.getRequests().contains("PUT " + contentPath(attachment)
+                + " bytes 20000-" + (CHUNK + 20000 - 1) + "/" + file.length()));
+    }
+
+    @Test
+    public void upload_newTransferContinuesAnIncompleteRecord() throws IOException {
+        File file = randomFile("report.pdf", CHUNK * 3);
+        Attachment attachment = create(file);
+        AttachmentUpload[] first = new AttachmentUpload[1];
+        first[0] = upload(attachment, file, (done, total) -> {
+            if (done >= CHUNK + 1000) first[0].cancel();
+        });
+        try {
+            first[0].run();
+            fail("Expected the upload to be cancelled");
+        } catch (InterruptedIOException expected) {
+            // Cancelled partway through the second chunk
+        }
+
+        // The record we hold still says 0 bytes; the server's answer puts the upload right
+        AttachmentUpload later = upload(attachment, file, null);
+        later.run();
+        assertTrue(later.getResult().isComplete());
+        assertSameContent(file, server.contentOf(attachment.getId()));
+    }
+
+    @Test
+    public void download_resumesWithRangeRequests() throws IOException {
+        File source = randomFile("video.mp4", 300_000);
+        Attachment attachment = served(source);
+        File target = new File(temp.getRoot(), "downloads/video.mp4");
+        server.cutDownloads(2, 100_000);
+
+        AttachmentDownload download = download(attachment, target, null);
+        download.run();
+
+        assertSameContent(source, target);
+        assertFalse(new File(target.getPath() + ".part").exists());
+        assertEquals(Arrays.asList(
+                "GET " + contentPath(attachment),
+                "GET " + contentPath(attachment) + " bytes=100000-",
+                "GET " + contentPath(attachment) + " bytes=200000-"),
+                server.getRequests());
+        assertEquals(source.length(), server.getDownloadedBodyBytes());
+    }
+
+    @Test
+    public void download_continuesPartFileFromAnEarlierRun() throws IOException {
+        File source = randomFile("scan.png", 150_000);
+        Attachment attachment = served(source);
+        File target = new File(temp.getRoot(), "downloads/scan.png");
+        File part = new File(target.getPath() + ".part");
+        assertTrue(part.getParentFile().mkdirs());
+        copyPrefix(source, part, 70_000);
+
+        download(attachment, target, null).run();
+
+        assertSameContent(source, target);
+        assertEquals(Arrays.asList("GET " + contentPath(attachment) + " bytes=70000-"), server.getRequests());
+    }
+
+    @Test
+    public void cancel_stopsAndKeepsWhatArrived() throws IOException {
+        File source = randomFile("archive.zip", CHUNK * 8);
+        Attachment attachment = served(source);
+        File target = new File(temp.getRoot(), "downloads/archive.zip");
+        AttachmentDownload[] download = new AttachmentDownload[1];
+        download[0] = download(attachment, target, (done, total) -> {
+            if (done >= CHUNK * 2) download[0].cancel();
+        });
+
+        try {
+            download[0].run();
+            fail("Expected the download to be cancelled");
+        } catch (InterruptedIOException expected) {
+            // Cancelled
+        }
+        File part = new File(target.getPath() + ".part");
+        assertFalse(target.exists());
+        assertTrue(part.length() >= CHUNK * 2 && part.length() < source.length());
+
+        download(attachment, target, null).run();
+        assertSameContent(source, target);
+    }
+
+    @Test
+    public void missingAttachment_failsWithoutRetrying() throws IOException {
+        File file = randomFile("gone.txt", 1000);
+        Attachment attachment = new Attachment();
+        attachment.setId("att000000000000000000999");
+        attachment.setSize(file.length());
+
+        try {
+            upload(attachment, file, null).run();
+            fail("Expected a 404");
+        } catch (AttachmentTransfer.HttpStatusException e) {
+            assertEquals(404, e.getCode());
+        }
+        assertEquals(1, server.getRequests().size());
+    }
+
+    // A 64 MB file up and down with forced disconnects both ways. The heap
+    // measured halfway through each transfer may grow by a few buffers, far
+    // less than the file
+    @Test
+    public void largeFile_streamsInConstantMemory() throws IOException {
+        long size = 64L * 1024 * 1024;
+        File file = randomFile("large.bin", size);
+        Attachment attachment = create(file);
+        server.cutUploads(2, 300_000);
+        long[] heapGrowth = new long[2];
+        long baseline = usedHeapAfterGc();
+
+        AttachmentUpload upload = new AttachmentUpload(api, TASK_ID, attachment, file,
+                halfwayHeap(size, baseline, heapGrowth, 0));
+        upload.setFirstBackoffMs(10);
+        upload.run();
+
+        File target = new File(temp.getRoot(), "large-copy.bin");
+        server.cutDownloads(2, 20L * 1024 * 1024);
+        AttachmentDownload download = new AttachmentDownload(api, TASK_ID, upload.getResult(), target,
+                halfwayHeap(size, baseline, heapGrowth, 1));
+        download.setFirstBackoffMs(10);
+        download.run();
+
+        assertSameContent(file, server.contentOf(attachment.getId()));
+        assertSameContent(file, target);
+        assertTrue("Upload heap growth " + heapGrowth[0], heapGrowth[0] < 16L * 1024 * 1024);
+        assertTrue("Download heap growth " + heapGrowth[1], heapGrowth[1] < 16L * 1024 * 1024);
+    }
+
+    private AttachmentTransfer.ProgressListener halfwayHeap(long size, long baseline, long[] growth, int slot) {
+        boolean[] measured = {false};
+        return (done, total) -> {
+            if (!measured[0] && done >= size / 2) {
+                measured[0] = true;
+                growth[slot] = usedHeapAfterGc() - baseline;
+            }
+        };
+    }
+
+    private static long usedHeapAfterGc() {
+        Runtime runtime = Runtime.getRuntime();
+        System.gc();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    private Attachment create(File file) throws IOException {
+        return AttachmentTransfer.attachmentOf(api.createAttachment(TASK_ID,
+                new CreateAttachmentRequest(file.getName(), file.length(), "application/octet-stream")).execute());
+    }
+
+    private Attachment served(File source) {
+        Attachment attachment = new Attachment();
+        attachment.setId(server.serve(TASK_ID, source.getName(), source));
+        attachment.setName(source.getName());
+        attachment.setSize(source.length());
+        attachment.setUploadedBytes(source.length());
+        attachment.setComplete(true);
+        return attachment;
+    }
+
+    private AttachmentUpload upload(Attachment attachment, File file, AttachmentTransfer.ProgressListener listener) {
+        AttachmentUpload upload = new AttachmentUpload(api, TASK_ID, attachment, file, CHUNK, listener);
+        upload.setFirstBackoffMs(10);
+        return upload;
+    }
+
+    private AttachmentDownload download(Attachment attachment, File target, AttachmentTransfer.ProgressListener listener) {
+        AttachmentDownload download = new AttachmentDownload(api, TASK_ID, attachment, target, listener);
+        download.setFirstBackoffMs(10);
+        return download;
+    }
+
+    private static String attachmentPath(Attachment attachment) {
+        return "/api/tasks/" + TASK_ID + "/attachments/" + attachment.getId();
+    }
+
+    private static String contentPath(Attachment attachment) {
+        return attachmentPath(attachment) + "/content";
+    }
+
+    // Written a buffer at a time so large files don't need the heap either
+    private File randomFile(String name, long size) throws IOException {
+        File file = temp.newFile(name);
+        Random random = new Random(size);
+        byte[] buffer = new byte[64 * 1024];
+        try (OutputStream out = new FileOutputStream(file)) {
+            for (long written = 0; written < size; written += buffer.length) {
+                random.nextBytes(buffer);
+                out.write(buffer, 0, (int) Math.min(buffer.length, size - written));
+            }
+        }
+        return file;
+    }
+
+    private static void copyPrefix(File from, File to, int length) throws IOException {
+        byte[] prefix = new byte[length];
+        try (InputStream in = new FileInputStream(from); OutputStream out = new FileOutputStream(to)) {
+            int read = 0;
+            while (read < length) read += in.read(prefix, read, length - read);
+            out.write(prefix);
+        }
+    }
+
+    private static void assertSameContent(File expected, File actual) throws IOException {
+        assertEquals(expected.length(), actual.length());
+        assertArrayEquals(digest(expected), digest(actual));
+    }
+
+    private static byte[] digest(File file) throws IOException {
+        try (InputStream in = new FileInputStream(file)) {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            byte[] buffer = new byte[64 * 1024];
+            int read;
+            while ((read = in.read(buffer)) != -1) digest.update(buffer, 0, read);
+            return digest.digest();
+        } catch (NoSuchAlgorithmException e) {
+            throw new AssertionError(e);
+        }
+    }
+}
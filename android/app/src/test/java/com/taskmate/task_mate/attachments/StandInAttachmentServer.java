@@ -0,0 +1,402 @@
+package com.taskmate.task_mate.attachments;
+
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import okhttp3.HttpUrl;
+
+// Local stand-in for the attachment endpoints of server/src/routes/tasks.ts,
+// speaking just enough HTTP/1.1 for OkHttp. Unlike MockWebServer it never
+// holds a body in memory: chunks stream from the socket into files in a temp
+// directory and downloads stream back out, a buffer at a time, so a large
+// transfer costs no heap on this side either. Uploads follow the real
+// server's rules: a chunk must continue what is stored, and bytes that
+// arrived before a disconnect are kept. Forced disconnects cut a connection
+// after a given number of body bytes.
+public class StandInAttachmentServer implements Closeable {
+
+    private static final String PREFIX = "/api/tasks/";
+    private static final Pattern PATH = Pattern.compile(
+            "/api/tasks/([^/]+)/attachments(?:/([^/]+)(/content)?)?");
+    private static final Pattern CONTENT_RANGE = Pattern.compile("bytes (\\d+)-(\\d+)/(\\d+)");
+    private static final Pattern RANGE = Pattern.compile("bytes=(\\d+)-(\\d*)");
+    private static final int BUFFER_BYTES = 64 * 1024;
+
+    private static final class Entry {
+        final String id;
+        final String taskId;
+        final String name;
+        final long size;
+        final String contentType;
+        final File file;
+        volatile boolean complete;
+
+        Entry(String id, String taskId, String name, long size, String contentType, File file) {
+            this.id = id;
+            this.taskId = taskId;
+            this.name = name;
+            this.size = size;
+            this.contentType = contentType;
+            this.file = file;
+        }
+    }
+
+    // Cuts the next `remaining` connections of one kind after `afterBytes` of body
+    private static final class Cut {
+        final AtomicInteger remaining = new AtomicInteger();
+        volatile long afterBytes;
+
+        boolean take() {
+            return remaining.getAndUpdate(n -> n > 0 ? n - 1 : 0) > 0;
+        }
+    }
+
+    private final File dir;
+    private final ServerSocket serverSocket;
+    private final ExecutorService threads = Executors.newCachedThreadPool(r -> {
+        Thread thread = new Thread(r, "stand-in-attachments");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final Map<String, Entry> attachments = new ConcurrentHashMap<>();
+    private final Set<Socket> sockets = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger nextId = new AtomicInteger();
+    private final List<String> requests = Collections.synchronizedList(new ArrayList<>());
+    private final AtomicLong uploadedBodyBytes = new AtomicLong();
+    private final AtomicLong downloadedBodyBytes = new AtomicLong();
+    private final Cut uploadCut = new Cut();
+    private final Cut downloadCut = new Cut();
+    private volatile boolean closed;
+
+    public StandInAttachmentServer(File dir) throws IOException {
+        this.dir = dir;
+        serverSocket = new ServerSocket(0, 50, InetAddress.getLoopbackAddress());
+    }
+
+    public HttpUrl start() {
+        threads.execute(this::acceptLoop);
+        return new HttpUrl.Builder()
+                .scheme("http")
+                .host(serverSocket.getInetAddress().getHostAddress())
+                .port(serverSocket.getLocalPort())
+                .encodedPath("/api/")
+                .build();
+    }
+
+    // The next `times` chunk uploads lose their connection after afterBytes of body
+    public void cutUploads(int times, long afterBytes) {
+        uploadCut.afterBytes = afterBytes;
+        uploadCut.remaining.set(times);
+    }
+
+    // The next `times` downloads lose their connection after afterBytes of body
+    public void cutDownloads(int times, long afterBytes) {
+        downloadCut.afterBytes = afterBytes;
+        downloadCut.remaining.set(times);
+    }
+
+    // A finished attachment with the given content, ready to download
+    public String serve(String taskId, String name, File content) {
+        String id = newId();
+        attachments.put(id, complete(new Entry(id, taskId, name, content.length(), "application/octet-stream", content)));
+        return id;
+    }
+
+    public File contentOf(String attachmentId) {
+        return attachments.get(attachmentId).file;
+    }
+
+    public boolean isComplete(String attachmentId) {
+        return attachments.get(attachmentId).complete;
+    }
+
+    // "METHOD path [Range or Content-Range]" for every request, in order
+    public List<String> getRequests() {
+        synchronized (requests) {
+            return new ArrayList<>(requests);
+        }
+    }
+
+    // Chunk body bytes read off the wire, kept or not
+    public long getUploadedBodyBytes() {
+        return uploadedBodyBytes.get();
+    }
+
+    public long getDownloadedBodyBytes() {
+        return downloadedBodyBytes.get();
+    }
+
+    @Override
+    public void close() throws IOException {
+        closed = true;
+        serverSocket.close();
+        for (Socket socket : sockets) socket.close();
+        threads.shutdownNow();
+    }
+
+    private void acceptLoop() {
+        while (!closed) {
+            try {
+                Socket socket = serverSocket.accept();
+                sockets.add(socket);
+                threads.execute(() -> serve(socket));
+            } catch (IOException e) {
+                return;
+            }
+        }
+    }
+
+    // One connection: requests until the client or a forced cut closes it
+    private void serve(Socket socket) {
+        try (Socket s = socket;
+             InputStream in = new BufferedInputStream(s.getInputStream(), BUFFER_BYTES);
+             OutputStream out = s.getOutputStream()) {
+            while (!closed) {
+                String requestLine = readLine(in);
+                if (requestLine == null || requestLine.isEmpty()) return;
+                String[] parts = requestLine.split(" ");
+                Map<String, String> headers = new HashMap<>();
+                for (String line = readLine(in); line != null && !line.isEmpty(); line = readLine(in)) {
+                    int colon = line.indexOf(':');
+                    if (colon > 0) headers.put(line.substring(0, colon).trim().toLowerCase(Locale.ROOT), line.substring(colon + 1).trim());
+                }
+                if (!handle(parts[0], parts[1], headers, in, out)) return;
+            }
+        } catch (IOException ignored) {
+            // Client went away
+        } finally {
+            sockets.remove(socket);
+        }
+    }
+
+    // False when the connection has to be dropped
+    private boolean handle(String method, String path, Map<String, String> headers, InputStream in,
+                           OutputStream out) throws IOException {
+        String range = headers.containsKey("content-range") ? headers.get("content-range") : headers.get("range");
+        requests.add(method + " " + path + (range != null ? " " + range : ""));
+        long length = headers.containsKey("content-length") ? Long.parseLong(headers.get("content-length")) : 0;
+
+        Matcher matcher = PATH.matcher(path);
+        if (!path.startsWith(PREFIX) || !matcher.matches()) {
+            skip(in, length);
+            return respond(out, 404, error("Not found"));
+        }
+        String taskId = matcher.group(1);
+        String attachmentId = matcher.group(2);
+        boolean content = matcher.group(3) != null;
+        Entry entry = attachmentId != null ? attachments.get(attachmentId) : null;
+
+        if (attachmentId == null && "POST".equals(method)) {
+            JsonObject request = JsonParser.parseString(new String(readFully(in, length), StandardCharsets.UTF_8)).getAsJsonObject();
+            String id = newId();
+            Entry created = new Entry(id, taskId, request.get("name").getAsString(), request.get("size").getAsLong(),
+                    request.has("contentType") ? request.get("contentType").getAsString() : "application/octet-stream",
+                    new File(dir, id));
+            new FileOutputStream(created.file).close();
+            attachments.put(id, created);
+            return respond(out, 201, envelope(created));
+        }
+        if (entry == null || !entry.taskId.equals(taskId)) {
+            skip(in, length);
+            return respond(out, 404, error("Attachment not found"));
+        }
+        if (!content && "GET".equals(method)) return respond(out, 200, envelope(entry));
+        if (!content && "DELETE".equals(method)) {
+            attachments.remove(entry.id);
+            entry.file.delete();
+            return respond(out, 200, "{\"success\":true,\"message\":\"Attachment deleted successfully\"}");
+        }
+        if (content && "PUT".equals(method)) return upload(entry, headers.get("content-range"), length, in, out);
+        if (content && "GET".equals(method)) return download(entry, headers.get("range"), out);
+        skip(in, length);
+        return respond(out, 404, error("Not found"));
+    }
+
+    private boolean upload(Entry entry, String contentRange, long length, InputStream in, OutputStream out)
+            throws IOException {
+        Matcher range = CONTENT_RANGE.matcher(contentRange != null ? contentRange : "");
+        if (!range.matches()) {
+            skip(in, length);
+            return respond(out, 400, error("Invalid Content-Range"));
+        }
+        long start = Long.parseLong(range.group(1));
+        long end = Long.parseLong(range.group(2));
+        if (entry.complete) return respondAndClose(out, 409, error("Attachment already uploaded"));
+        if (Long.parseLong(range.group(3)) != entry.size || end < start || end >= entry.size || end - start + 1 != length) {
+            skip(in, length);
+            return respond(out, 400, error("Invalid Content-Range"));
+        }
+        if (start != entry.file.length()) {
+            // Like Express: answered without reading the body, so the connection can't be reused
+            return respondAndClose(out, 409, error("Chunk does not continue the upload"));
+        }
+
+        long limit = uploadCut.take() ? Math.min(uploadCut.afterBytes, length) : length;
+        byte[] buffer = new byte[BUFFER_BYTES];
+        long received = 0;
+        try (FileOutputStream file = new FileOutputStream(entry.file, true)) {
+            while (received < limit) {
+                int read = in.read(buffer, 0, (int) Math.min(buffer.length, limit - received));
+                if (read == -1) break;
+                file.write(buffer, 0, read);
+                received += read;
+                uploadedBodyBytes.addAndGet(read);
+            }
+        }
+        if (received < length) return false;
+        if (entry.file.length() == entry.size) complete(entry);
+        return respond(out, 200, envelope(entry));
+    }
+
+    private boolean download(Entry entry, String rangeHeader, OutputStream out) throws IOException {
+        if (!entry.complete) return respond(out, 409, error("Attachment not uploaded yet"));
+        long start = 0;
+        long end = entry.size - 1;
+        boolean partial = false;
+        if (rangeHeader != null) {
+            Matcher range = RANGE.matcher(rangeHeader);
+            if (!range.matches() || Long.parseLong(range.group(1)) >= entry.size) {
+                return respond(out, 416, error("Range not satisfiable"));
+            }
+            start = Long.parseLong(range.group(1));
+            if (!range.group(2).isEmpty()) end = Math.min(end, Long.parseLong(range.group(2)));
+            partial = true;
+        }
+        long length = end - start + 1;
+        StringBuilder head = new StringBuilder()
+                .append(partial ? "HTTP/1.1 206 Partial Content\r\n" : "HTTP/1.1 200 OK\r\n")
+                .append("Content-Type: ").append(entry.contentType).append("\r\n")
+                .append("Content-Length: ").append(length).append("\r\n")
+                .append("Accept-Ranges: bytes\r\n");
+        if (partial) head.append("Content-Range: bytes ").append(start).append('-').append(end).append('/').append(entry.size).append("\r\n");
+        out.write(head.append("\r\n").toString().getBytes(StandardCharsets.ISO_8859_1));
+
+        long limit = downloadCut.take() ? Math.min(downloadCut.afterBytes, length) : length;
+        byte[] buffer = new byte[BUFFER_BYTES];
+        long sent = 0;
+        try (RandomAccessFile file = new RandomAccessFile(entry.file, "r")) {
+            file.seek(start);
+            while (sent < limit) {
+                int read = file.read(buffer, 0, (int) Math.min(buffer.length, limit - sent));
+                if (read == -1) break;
+                out.write(buffer, 0, read);
+                sent += read;
+                downloadedBodyBytes.addAndGet(read);
+            }
+        }
+        out.flush();
+        return sent == length;
+    }
+
+    private String newId() {
+        return String.format("att%021d", nextId.incrementAndGet());
+    }
+
+    private static Entry complete(Entry entry) {
+        entry.complete = true;
+        return entry;
+    }
+
+    private static String envelope(Entry entry) {
+        JsonObject attachment = new JsonObject();
+        attachment.addProperty("_id", entry.id);
+        attachment.addProperty("name", entry.name);
+        attachment.addProperty("size", entry.size);
+        attachment.addProperty("contentType", entry.contentType);
+        attachment.addProperty("uploadedBytes", entry.complete ? entry.size : entry.file.length());
+        attachment.addProperty("complete", entry.complete);
+        attachment.addProperty("createdAt", "2025-01-10T08:00:00.000Z");
+        JsonObject data = new JsonObject();
+        data.add("attachment", attachment);
+        JsonObject body = new JsonObject();
+        body.addProperty("success", true);
+        body.add("data", data);
+        return body.toString();
+    }
+
+    private static String error(String message) {
+        JsonObject body = new JsonObject();
+        body.addProperty("success", false);
+        body.addProperty("error", message);
+        return body.toString();
+    }
+
+    private static boolean respond(OutputStream out, int code, String json) throws IOException {
+        byte[] body = json.getBytes(StandardCharsets.UTF_8);
+        String head = "HTTP/1.1 " + code + " " + (code < 300 ? "OK" : "Error") + "\r\n"
+                + "Content-Type: application/json; charset=utf-8\r\n"
+                + "Content-Length: " + body.length + "\r\n\r\n";
+        out.write(head.getBytes(StandardCharsets.ISO_8859_1));
+        out.write(body);
+        out.flush();
+        return true;
+    }
+
+    private static boolean respondAndClose(OutputStream out, int code, String json) throws IOException {
+        respond(out, code, json);
+        return false;
+    }
+
+    private static String readLine(InputStream in) throws IOException {
+        StringBuilder line = new StringBuilder();
+        int c;
+        while ((c = in.read()) != -1) {
+            if (c == '\n') return line.toString();
+            if (c != '\r') line.append((char) c);
+        }
+        return line.length() > 0 ? line.toString() : null;
+    }
+
+    private static byte[] readFully(InputStream in, long length) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream((int) length);
+        byte[] buffer = new byte[BUFFER_BYTES];
+        long remaining = length;
+        while (remaining > 0) {
+            int read = in.read(buffer, 0, (int) Math.min(buffer.length, remaining));
+            if (read == -1) throw new IOException("Body ended early");
+            out.write(buffer, 0, read);
+            remaining -= read;
+        }
+        return out.toByteArray();
+    }
+
+    private static void skip(InputStream in, long length) throws IOException {
+        long remaining = length;
+        while (remaining > 0) {
+            long skipped = in.skip(remaining);
+            if (skipped <= 0) {
+                if (in.read() == -1) return;
+                skipped = 1;
+            }
+            remaining -= skipped;
+        }
+    }
+}
@@ -0,0 +1,219 @@
+package com.taskmate.task_mate.bulk;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import okhttp3.Interceptor;
+import okhttp3.MediaType;
+import okhttp3.Protocol;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import okio.Buffer;
+
+// Answers the export and import endpoints inside the OkHttp client, without a
+// socket, following server/src/services/taskService.ts: export pages are
+// keyset-paged by _id and generated on the fly, so there can be any number of
+// tasks; import batches are checked the way importTasks checks them. Nothing
+// is kept per request unless recording is on, so long runs don't grow the
+// heap and a memory test measures only the client.
+class StandInBulkApi implements Interceptor {
+
+    private static final MediaType JSON = MediaType.get("application/json; charset=utf-8");
+    private static final String ID_PREFIX = "65a1b2c3d4e5f6a7";
+
+    // One imported task, as the server saw it
+    static class Imported {
+        final String id;
+        final String title;
+        final String parentId;
+        final JsonObject body;
+
+        Imported(String id, String title, String parentId, JsonObject body) {
+            this.id = id;
+            this.title = title;
+            this.parentId = parentId;
+            this.body = body;
+        }
+    }
+
+    private final int taskCount;
+    private final List<Imported> imported = new ArrayList<>();
+    private final Map<String, String> titleById = new HashMap<>();
+    private final List<Integer> batchSizes = new ArrayList<>();
+    private final List<String> exportCursors = new ArrayList<>();
+    private final AtomicInteger importedCount = new AtomicInteger();
+    private final AtomicInteger importCalls = new AtomicInteger();
+    private volatile boolean recording = true;
+    private volatile long importDelayMs;
+    private volatile int failImportCall = -1;
+
+    StandInBulkApi(int taskCount) {
+        this.taskCount = taskCount;
+    }
+
+    // Task i of the export: every tenth task has two subtasks right after it
+    static String idOf(int index) {
+        return ID_PREFIX + String.format("%08x", index);
+    }
+
+    static String parentOf(int index) {
+        int place = index % 10;
+        return place == 1 || place == 2 ? idOf(index - place) : null;
+    }
+
+    void setRecording(boolean recording) { this.recording = recording; }
+    void setImportDelayMs(long importDelayMs) { this.importDelayMs = importDelayMs; }
+    // The n-th import call (from 1) answers 500
+    void failImportCall(int call) { this.failImportCall = call; }
+
+    synchronized List<Imported> getImported() { return new ArrayList<>(imported); }
+    synchronized List<Integer> getBatchSizes() { return new ArrayList<>(batchSizes); }
+    synchronized List<String> getExportCursors() { return new ArrayList<>(exportCursors); }
+    synchronized String titleOf(String id) { return titleById.get(id); }
+    int getImportedCount() { return importedCount.get(); }
+
+    @Override
+    public Response intercept(Chain chain) throws IOException {
+        Request request = chain.request();
+        String path = request.url().encodedPath();
+        if (request.method().equals("GET") && path.equals("/api/tasks/export")) {
+            return respond(request, 200, exportPage(request.url().queryParameter("after"),
+                    Integer.parseInt(request.url().queryParameter("limit"))));
+        }
+        if (request.method().equals("POST") && path.equals("/api/tasks/import")) {
+            Buffer buffer = new Buffer();
+            request.body().writeTo(buffer);
+            JsonObject body = JsonParser.parseString(buffer.readString(StandardCharsets.UTF_8)).getAsJsonObject();
+            sleep(importDelayMs);
+            return importBatch(request, body.getAsJsonArray("tasks"));
+        }
+        return respond(request, 404, error("Route not found"));
+    }
+
+    private JsonObject exportPage(String after, int limit) {
+        synchronized (this) {
+            if (recording) exportCursors.add(after);
+        }
+        int start = after == null ? 0 : Integer.parseInt(after.substring(ID_PREFIX.length()), 16) + 1;
+        int end = Math.min(taskCount, start + limit);
+        JsonArray tasks = new JsonArray();
+        for (int i = start; i < end; i++) tasks.add(task(i));
+        JsonObject data = new JsonObject();
+        data.add("tasks", tasks);
+        if (end - start == limit) data.addProperty("next", idOf(end - 1));
+        return success(data);
+    }
+
+    static JsonObject task(int index) {
+        JsonObject task = new JsonObject();
+        task.addProperty("_id", idOf(index));
+        task.addProperty("title", "Task " + index);
+        if (index % 3 == 0) task.addProperty("description", "Line one, \"quoted\"\nline " + index);
+        if (index % 4 == 0) task.addProperty("dueDate", "2026-11-0" + (1 + index % 9) + "T09:00:00.000Z");
+        task.addProperty("priority", index % 2 == 0 ? "high" : "low");
+        task.addProperty("status", index % 7 == 0 ? "completed" : "pending");
+        task.addProperty("isCompleted", index % 7 == 0);
+        task.addProperty("category", index % 5 == 0 ? "=cmd|' /C calc'!A0" : "work");
+        JsonArray tags = new JsonArray();
+        tags.add("tag" + index % 4);
+        task.add("tags", tags);
+        if (parentOf(index) != null) task.addProperty("parentId", parentOf(index));
+        if (index % 10 == 0) task.addProperty("subtaskCount", 2);
+        task.addProperty("order", "V" + index);
+        task.addProperty("createdAt", "2026-10-01T08:00:00.000Z");
+        return task;
+    }
+
+    private Response importBatch(Request request, JsonArray tasks) {
+        int call = importCalls.incrementAndGet();
+        if (call == failImportCall) return respond(request, 500, error("Server Error"));
+        if (tasks == null || tasks.size() == 0) return respond(request, 400, error("No tasks to import"));
+        if (tasks.size() > 200) return respond(request, 413, error("Too many tasks in one batch"));
+        synchronized (this) {
+            for (int i = 0; i < tasks.size(); i++) {
+                JsonObject task = tasks.get(i).getAsJsonObject();
+                if (!task.has("title") || task.get("title").getAsString().trim().isEmpty()) {
+                    return respond(request, 400, error("Task title is required"));
+                }
+                if (task.has("parentIndex") && (task.has("parentId") || task.get("parentIndex").getAsInt() >= i)) {
+                    return respond(request, 400, error("Invalid parent index"));
+                }
+                // Only tasks that already exist can be parents by id
+                if (task.has("parentId") && !isCreated(task.get("parentId").getAsString())) {
+                    return respond(request, 404, error("Parent task not found"));
+                }
+            }
+            JsonArray ids = new JsonArray();
+            for (int i = 0; i < tasks.size(); i++) {
+                JsonObject task = tasks.get(i).getAsJsonObject();
+                String id = "new" + importedCount.incrementAndGet();
+                ids.add(id);
+                if (recording) {
+                    String parentId = task.has("parentIndex") ? ids.get(task.get("parentIndex").getAsInt()).getAsString()
+                            : task.has("parentId") ? task.get("parentId").getAsString() : null;
+                    imported.add(new Imported(id, task.get("title").getAsString(), parentId, task));
+                    titleById.put(id, task.get("title").getAsString());
+                }
+            }
+            if (recording) batchSizes.add(tasks.size());
+            JsonObject data = new JsonObject();
+            data.add("ids", ids);
+            return respond(request, 201, success(data));
+        }
+    }
+
+    // Ids are handed out as new1, new2, ...
+    private boolean isCreated(String id) {
+        if (!id.startsWith("new")) return false;
+        try {
+            int number = Integer.parseInt(id.substring(3));
+            return number >= 1 && number <= importedCount.get();
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+
+    private static JsonObject success(JsonObject data) {
+        JsonObject body = new JsonObject();
+        body.addProperty("success", true);
+        body.add("data", data);
+        return body;
+    }
+
+    private static JsonObject error(String message) {
+        JsonObject body = new JsonObject();
+        body.addProperty("success", false);
+        body.addProperty("error", message);
+        return body;
+    }
+
+    private static Response respond(Request request, int code, JsonObject body) {
+        return new Response.Builder()
+                .request(request)
+                .protocol(Protocol.HTTP_1_1)
+                .code(code)
+                .message(code < 400 ? "OK" : "Error")
+                .body(ResponseBody.create(body.toString(), JSON))
+                .build();
+    }
+
+    private static void sleep(long ms) {
+        if (ms <= 0) return;
+        try {
+            Thread.sleep(ms);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
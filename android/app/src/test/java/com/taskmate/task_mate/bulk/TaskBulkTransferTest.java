@@ -0,0 +1,336 @@
+package com.taskmate.task_mate.bulk;
+
+import com.taskmate.task_mate.models.Priority;
+import com.taskmate.task_mate.models.Task;
+import com.taskmate.task_mate.models.TaskTypeAdapter;
+import com.taskmate.task_mate.network.ApiService;
+import com.taskmate.task_mate.network.WireFormatConverterFactory;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import okhttp3.OkHttpClient;
+import retrofit2.Retrofit;
+
+import static org.junit.Assert.*;
+
+public class TaskBulkTransferTest {
+
+    private static ApiService api(StandInBulkApi standIn) {
+        return new Retrofit.Builder()
+                .baseUrl("http://stand-in.test/api/")
+                .addConverterFactory(WireFormatConverterFactory.create())
+                .client(new OkHttpClient.Builder().addInterceptor(standIn).build())
+                .build()
+                .create(ApiService.class);
+    }
+
+    @Test
+    public void export_pagesThroughEveryTaskWithCursors() throws IOException {
+        StandInBulkApi standIn = new StandInBulkApi(400);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        List<Integer> progress = new ArrayList<>();
+
+        int exported = new TaskExporter(api(standIn), 200).export(TaskFileFormat.NDJSON, out, progress::add);
+
+        assertEquals(400, exported);
+        // A full last page can't tell it's the last, so one empty page follows
+        assertEquals(Arrays.asList(null, StandInBulkApi.idOf(199), StandInBulkApi.idOf(399)),
+                standIn.getExportCursors());
+        assertEquals(Arrays.asList(200, 400, 400), progress);
+        String[] lines = out.toString("UTF-8").split("\n");
+        assertEquals(400, lines.length);
+        Task last = new TaskTypeAdapter().fromJson(lines[399]);
+        assertEquals(StandInBulkApi.idOf(399), last.getId());
+        assertEquals("Task 399", last.getTitle());
+    }
+
+    @Test
+    public void export_cancelStopsBetweenPages() throws IOException {
+        StandInBulkApi standIn = new StandInBulkApi(1000);
+        TaskExporter exporter = new TaskExporter(api(standIn), 100);
+        try {
+            exporter.export(TaskFileFormat.CSV, new ByteArrayOutputStream(), exported -> {
+                if (exported >= 300) exporter.cancel();
+            });
+            fail("Expected the export to be cancelled");
+        } catch (InterruptedIOException expected) {
+            // Cancelled
+        }
+        // The page after the cancel was already requested, but nothing past it
+        assertTrue(standIn.getExportCursors().size() <= 5);
+    }
+
+    @Test
+    public void csv_roundTripsQuotesNewlinesAndFormulaCells() throws IOException {
+        StandInBulkApi standIn = new StandInBulkApi(30);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        new TaskExporter(api(standIn), 200).export(TaskFileFormat.CSV, out, null);
+        String csv = out.toString("UTF-8");
+
+        assertTrue(csv.startsWith("id,parentId,title,description,status,priority,category,tags,dueDate,isCompleted,kind,createdAt\r\n"));
+        assertTrue(csv.contains(",\"Line one, \"\"quoted\"\"\nline 3\","));
+        // Would be run as a formula by a spreadsheet without the quote mark
+        assertTrue(csv.contains(",'=cmd|' /C calc'!A0,"));
+
+        TaskFileFormat.RecordReader reader = TaskFileFormat.CSV.newReader(new StringReader(csv));
+        Task exported = new Task();
+        for (int i = 0; i < 30; i++) {
+            Task task = reader.next();
+            Task expected = new TaskTypeAdapter().fromJsonTree(StandInBulkApi.task(i));
+            assertEquals(expected.getId(), task.getId());
+            assertEquals(expected.getTitle(), task.getTitle());
+            assertEquals(expected.getDescription(), task.getDescription());
+            assertEquals(expected.getParentId(), task.getParentId());
+            assertEquals(expected.getCategory(), task.getCategory());
+            assertEquals(expected.getTags(), task.getTags());
+            assertEquals(expected.getDueDate(), task.getDueDate());
+            assertEquals(expected.getPriority(), task.getPriority());
+            assertEquals(expected.getStatus(), task.getStatus());
+            assertEquals(expected.isCompleted(), task.isCompleted());
+            exported = task;
+        }
+        assertEquals("Task 29", exported.getTitle());
+        assertNull(reader.next());
+    }
+
+    @Test
+    public void csv_readsAnotherToolsSheetByColumnName() throws IOException {
+        String csv = "Notes,TITLE,Priority,tags,isCompleted\n"
+                + "ignored,Buy milk,High, home; errands ,yes\n"
+                + "no title here,,low,,\n"
+                + "\n"
+                + "x,\"Call \"\"Bob\"\"\nabout lunch\",medium,,no\n";
+        TaskFileFormat.RecordReader reader = TaskFileFormat.CSV.newReader(new StringReader(csv));
+
+        Task milk = reader.next();
+        assertEquals("Buy milk", milk.getTitle());
+        assertEquals(Priority.HIGH, milk.getPriority());
+        assertEquals(Arrays.asList("home", "errands"), milk.getTags());
+        assertTrue(milk.isCompleted());
+        assertNull(reader.next().getTitle());
+        Task bob = reader.next();
+        assertEquals("Call \"Bob\"\nabout lunch", bob.getTitle());
+        assertFalse(bob.isCompleted());
+        assertNull(reader.next());
+
+        try {
+            TaskFileFormat.CSV.newReader(new StringReader("name,notes\nBuy milk,\n")).next();
+            fail("Expected a missing title column to be reported");
+        } catch (TaskFileFormat.BadRecordException e) {
+            fail("Not a bad record: the whole file can't be read");
+        } catch (IOException expected) {
+            // No title column
+        }
+    }
+
+    @Test
+    public void ndjson_skipsBadLinesAndReadsOn() throws IOException {
+        String tooLong = "{\"title\":\"" + "a".repeat(TaskFileFormat.MAX_RECORD_CHARS) + "\"}";
+        String input = "{\"title\":\"One\"}\n{not json\n\n[1,2]\n" + tooLong + "\n{\"title\":\"Two\"}\r\n";
+        TaskFileFormat.RecordReader reader = TaskFileFormat.NDJSON.newReader(new StringReader(input));
+
+        assertEquals("One", reader.next().getTitle());
+        assertBadRecord(reader, 2);
+        assertBadRecord(reader, 4);
+        assertBadRecord(reader, 5);
+        assertEquals("Two", reader.next().getTitle());
+        assertNull(reader.next());
+    }
+
+    @Test
+    public void import_sendsFullBatchesInOrderWithSubtasksLinked() throws IOException {
+        StandInBulkApi standIn = new StandInBulkApi(250);
+        ByteArrayOutputStream exported = new ByteArrayOutputStream();
+        new TaskExporter(api(standIn), 200).export(TaskFileFormat.NDJSON, exported, null);
+
+        TaskImporter.Result result = new TaskImporter(api(standIn), 50)
+                .run(TaskFileFormat.NDJSON, new ByteArrayInputStream(exported.toByteArray()), null);
+
+        assertEquals(250, result.getRead());
+        assertEquals(250, result.getImported());
+        assertEquals(0, result.getSkipped());
+        assertEquals(0, result.getDetached());
+        // Subtasks travel with their parents, so no batch is cut short
+        assertEquals(Arrays.asList(50, 50, 50, 50, 50), standIn.getBatchSizes());
+        List<StandInBulkApi.Imported> imported = standIn.getImported();
+        for (int i = 0; i < 250; i++) {
+            StandInBulkApi.Imported task = imported.get(i);
+            assertEquals("Task " + i, task.title);
+            String parent = StandInBulkApi.parentOf(i);
+            if (parent == null) {
+                assertNull(task.parentId);
+            } else {
+                assertEquals("Task " + (i - i % 10), standIn.titleOf(task.parentId));
+            }
+            // Status and tags came along; order and ids from the old account didn't
+            assertEquals(i % 7 == 0, task.body.has("isCompleted"));
+            assertFalse(task.body.has("order"));
+        }
+        // Task 51's parent, task 50, opened the second batch
+        assertTrue(imported.get(51).body.has("parentIndex"));
+        assertFalse(imported.get(50).body.has("parentIndex"));
+    }
+
+    @Test
+    public void import_linksSubtasksToParentsFromEarlierBatches() throws IOException {
+        String input = "{\"_id\":\"a\",\"title\":\"Parent\"}\n"
+                + "{\"_id\":\"b\",\"title\":\"Other\"}\n"
+                + "{\"_id\":\"c\",\"title\":\"Child\",\"parentId\":\"a\"}\n"
+                + "{\"title\":\"Orphan\",\"parentId\":\"zzz\"}\n"
+                + "{\"description\":\"no title\"}\n"
+                + "oops\n";
+        StandInBulkApi standIn = new StandInBulkApi(0);
+
+        TaskImporter.Result result = new TaskImporter(api(standIn), 2)
+                .run(TaskFileFormat.NDJSON, new ByteArrayInputStream(input.getBytes(StandardCharsets.UTF_8)), null);
+
+        assertEquals(5, result.getRead());
+        assertEquals(4, result.getImported());
+        assertEquals(2, result.getSkipped());
+        assertEquals("Record 5 has no title", result.getFirstProblem());
+        assertEquals(1, result.getDetached());
+        List<StandInBulkApi.Imported> imported = standIn.getImported();
+        assertEquals("Parent", standIn.titleOf(imported.get(2).parentId));
+        assertFalse(imported.get(2).body.has("parentIndex"));
+        assertNull(imported.get(3).parentId);
+    }
+
+    @Test
+    public void import_waitsForTheServerInsteadOfReadingAhead() throws IOException {
+        StandInBulkApi standIn = new StandInBulkApi(0);
+        standIn.setImportDelayMs(20);
+        int batch = 10;
+        int[] mostAhead = {0};
+
+        TaskImporter.Result result = new TaskImporter(api(standIn), batch).run(TaskFileFormat.NDJSON,
+                new GeneratedNdjson(300), (read, imported) -> mostAhead[0] = Math.max(mostAhead[0], read - imported));
+
+        assertEquals(300, result.getImported());
+        // One batch sending, the queue full and one batch parsed and waiting
+        assertTrue("Read ahead " + mostAhead[0], mostAhead[0] <= (TaskImporter.QUEUED_BATCHES + 2) * batch);
+        assertTrue(mostAhead[0] >= TaskImporter.QUEUED_BATCHES * batch);
+    }
+
+    @Test
+    public void import_stopsAtAFailedBatchAndReportsWhatWasCreated() {
+        StandInBulkApi standIn = new StandInBulkApi(0);
+        standIn.failImportCall(3);
+        TaskImporter importer = new TaskImporter(api(standIn), 50);
+        try {
+            importer.run(TaskFileFormat.NDJSON, new GeneratedNdjson(250), null);
+            fail("Expected the import to fail");
+        } catch (IOException e) {
+            assertEquals("Import failed after 100 tasks: HTTP 500", e.getMessage());
+        }
+        assertEquals(100, importer.getImported());
+        assertEquals(2, standIn.getBatchSizes().size());
+    }
+
+    // 100,000 tasks out and back in. The heap is measured halfway through each
+    // and should grow by a few pages or batches, the same as for 1,000 tasks
+    @Test
+    public void hundredThousandTasks_streamInConstantMemory() throws IOException {
+        int count = 100_000;
+        StandInBulkApi standIn = new StandInBulkApi(count);
+        standIn.setRecording(false);
+        ApiService service = api(standIn);
+        new TaskExporter(service).export(TaskFileFormat.NDJSON, new CountingStream(), null);
+
+        long[] growth = new long[2];
+        long baseline = usedHeapAfterGc();
+        CountingStream sink = new CountingStream();
+        boolean[] measured = {false, false};
+        int exported = new TaskExporter(service).export(TaskFileFormat.CSV, sink, done -> {
+            if (!measured[0] && done >= count / 2) {
+                measured[0] = true;
+                growth[0] = usedHeapAfterGc() - baseline;
+            }
+        });
+
+        TaskImporter.Result result = new TaskImporter(service).run(TaskFileFormat.NDJSON, new GeneratedNdjson(count),
+                (read, imported) -> {
+                    if (!measured[1] && imported >= count / 2) {
+                        measured[1] = true;
+                        growth[1] = usedHeapAfterGc() - baseline;
+                    }
+                });
+
+        assertEquals(count, exported);
+        assertEquals(count, result.getImported());
+        assertEquals(0, result.getDetached());
+        assertTrue("Export heap growth " + growth[0], growth[0] < 8L * 1024 * 1024);
+        assertTrue("Import heap growth " + growth[1], growth[1] < 8L * 1024 * 1024);
+    }
+
+    private static void assertBadRecord(TaskFileFormat.RecordReader reader, int line) throws IOException {
+        try {
+            reader.next();
+            fail("Expected line " + line + " to be bad");
+        } catch (TaskFileFormat.BadRecordException e) {
+            assertEquals(line, e.getLine());
+        }
+    }
+
+    private static long usedHeapAfterGc() {
+        Runtime runtime = Runtime.getRuntime();
+        System.gc();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    // The stand-in's export as NDJSON, made a line at a time as it is read
+    private static class GeneratedNdjson extends InputStream {
+        private final int count;
+        private int next;
+        private byte[] line = new byte[0];
+        private int position;
+
+        GeneratedNdjson(int count) {
+            this.count = count;
+        }
+
+        @Override
+        public int read() {
+            byte[] one = new byte[1];
+            return read(one, 0, 1) == -1 ? -1 : one[0] & 0xff;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) {
+            if (position == line.length) {
+                if (next == count) return -1;
+                line = (StandInBulkApi.task(next++) + "\n").getBytes(StandardCharsets.UTF_8);
+                position = 0;
+            }
+            int n = Math.min(length, line.length - position);
+            System.arraycopy(line, position, buffer, offset, n);
+            position += n;
+            return n;
+        }
+    }
+
+    private static class CountingStream extends OutputStream {
+        long count;
+
+        @Override
+        public void write(int b) {
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            count += len;
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package com.taskmate.task_mate.feed;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import static org.junit.Assert.*;
+
+public class ActivityFeedStoreTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void ring_keepsNewestEventsAndConstantFileSize() throws Exception {
+        File path = folder.newFile("feed.bin");
+        try (ActivityFeedStore store = new ActivityFeedStore(path, 64)) {
+            long fileSize = path.length();
+            for (int i = 0; i < 1000; i++) {
+                store.append(event(i));
+            }
+
+            assertEquals(64, store.size());
+            assertEquals(1000, store.getTotal());
+            assertEquals(fileSize, path.length());
+            assertEquals("event 999", store.get(0).getText());
+            assertEquals("event 936", store.get(63).getText());
+            assertNull(store.get(64));
+        }
+    }
+
+    @Test
+    public void reopen_restoresEventsAndUnreadCount() throws Exception {
+        File path = folder.newFile("feed.bin");
+        try (ActivityFeedStore store = new ActivityFeedStore(path, 32)) {
+            for (int i = 0; i < 5; i++) store.append(event(i));
+            store.markAllRead();
+            store.append(event(5));
+            store.append(event(6));
+        }
+
+        try (ActivityFeedStore store = new ActivityFeedStore(path, 32)) {
+            assertEquals(7, store.size());
+            assertEquals(2, store.getUnreadCount());
+            assertTrue(store.isUnread(1));
+            assertFalse(store.isUnread(2));
+            assertNull(store.peek(0));
+            assertEquals("event 6", store.get(0).getText());
+            assertEquals("event 6", store.peek(0).getText());
+            assertEquals(ActivityEvent.Type.TASK_COMPLETED, store.get(6).getType());
+        }
+    }
+
+    @Test
+    public void clear_forgetsEventsAndTheirText() throws Exception {
+        File path = folder.newFile("feed.bin");
+        try (ActivityFeedStore store = new ActivityFeedStore(path, 32)) {
+            long fileSize = path.length();
+            for (int i = 0; i < 40; i++) store.append(event(i));
+            assertEquals("event 39", store.get(0).getText());
+
+            store.clear();
+            assertEquals(0, store.size());
+            assertEquals(0, store.getTotal());
+            assertEquals(0, store.getUnreadCount());
+            assertNull(store.peek(0));
+            assertNull(store.get(0));
+            assertEquals(fileSize, path.length());
+            assertFalse(new String(Files.readAllBytes(path.toPath()), StandardCharsets.UTF_8).contains("event"));
+
+            store.append(event(100));
+            assertEquals(1, store.size());
+            assertEquals("event 100", store.get(0).getText());
+        }
+
+        try (ActivityFeedStore store = new ActivityFeedStore(path, 32)) {
+            assertEquals(1, store.size());
+            assertEquals(1, store.getUnreadCount());
+        }
+    }
+
+    @Test
+    public void append_truncatesLongTextToTheSlot() throws Exception {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < 300; i++) text.append('é');
+        try (ActivityFeedStore store = new ActivityFeedStore(folder.newFile("feed.bin"), 32)) {
+            store.append(new ActivityEvent(ActivityEvent.Type.REMINDER, 1L, "abc", text.toString()));
+            String stored = store.get(0).getText();
+            assertTrue(stored.length() > 0 && stored.length() < 300);
+            assertTrue(text.toString().startsWith(stored));
+        }
+    }
+
+    private static ActivityEvent event(int i) {
+        return new ActivityEvent(ActivityEvent.Type.TASK_COMPLETED, 1_000L + i, "task" + i, "event " + i);
+    }
+}
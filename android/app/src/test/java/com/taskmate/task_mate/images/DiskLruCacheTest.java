@@ -0,0 +1,120 @@
+package com.taskmate.task_mate.images;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+
+import static org.junit.Assert.*;
+
+public class DiskLruCacheTest {
+
+    private File dir;
+
+    @Before
+    public void setUp() throws IOException {
+        dir = Files.createTempDirectory("images").toFile();
+    }
+
+    @After
+    public void tearDown() {
+        File[] files = dir.listFiles();
+        if (files != null) for (File file : files) file.delete();
+        dir.delete();
+    }
+
+    @Test
+    public void put_evictsLeastRecentlyUsedOverBudget() throws IOException {
+        DiskLruCache cache = new DiskLruCache(dir, 250);
+        cache.put("a", bytes(100), 1000);
+        cache.put("b", bytes(100), 1000);
+        assertNotNull(cache.get("a"));
+
+        cache.put("c", bytes(100), 1000);
+
+        assertNotNull(cache.get("a"));
+        assertNull(cache.get("b"));
+        assertNotNull(cache.get("c"));
+        assertEquals(200, cache.size());
+        assertFalse(new File(dir, "b").exists());
+    }
+
+    @Test
+    public void clear_deletesEveryEntryFromDisk() throws IOException {
+        DiskLruCache cache = new DiskLruCache(dir, 1000);
+        cache.put("a", bytes(100), 1000);
+        cache.put("empty", bytes(0), 1000);
+
+        cache.clear();
+
+        assertEquals(0, cache.size());
+        assertNull(cache.get("a"));
+        assertNull(cache.get("empty"));
+        assertEquals(0, dir.listFiles().length);
+        // A cache opened on the same directory later finds nothing either
+        assertEquals(0, new DiskLruCache(dir, 1000).size());
+    }
+
+    @Test
+    public void put_replacesExistingEntry() throws IOException {
+        DiskLruCache cache = new DiskLruCache(dir, 1000);
+        cache.put("a", bytes(100), 1000);
+        cache.put("a", bytes(40), 1000);
+
+        assertEquals(40, cache.size());
+        assertEquals(40, cache.get("a").length());
+    }
+
+    @Test
+    public void put_rejectsOversizedSourceAndLeavesNoFile() {
+        DiskLruCache cache = new DiskLruCache(dir, 1000);
+        try {
+            cache.put("big", bytes(500), 100);
+            fail();
+        } catch (IOException expected) {
+        }
+        assertNull(cache.get("big"));
+        assertEquals(0, dir.listFiles().length);
+    }
+
+    @Test
+    public void reopen_rebuildsIndexAndDropsTempFiles() throws IOException {
+        DiskLruCache cache = new DiskLruCache(dir, 1000);
+        cache.put("a", bytes(100), 1000);
+        cache.put("b", bytes(50), 1000);
+        Files.write(new File(dir, "c.7.tmp").toPath(), new byte[10]);
+
+        DiskLruCache reopened = new DiskLruCache(dir, 1000);
+
+        assertEquals(150, reopened.size());
+        assertNotNull(reopened.get("a"));
+        assertFalse(new File(dir, "c.7.tmp").exists());
+    }
+
+    @Test
+    public void keyFor_isStableAndFileSafe() {
+        String key = DiskLruCache.keyFor("https://lh3.googleusercontent.com/a/photo.jpg?sz=96");
+        assertEquals(40, key.length());
+        assertTrue(key.matches("[0-9a-f]+"));
+        assertEquals(key, DiskLruCache.keyFor("https://lh3.googleusercontent.com/a/photo.jpg?sz=96"));
+        assertNotEquals(key, DiskLruCache.keyFor("https://lh3.googleusercontent.com/a/photo.jpg?sz=48"));
+    }
+
+    @Test
+    public void sampleSize_keepsDecodeAtLeastTargetSize() {
+        assertEquals(1, ImageSizing.sampleSize(96, 96, 288, 288));
+        assertEquals(1, ImageSizing.sampleSize(400, 400, 288, 288));
+        assertEquals(8, ImageSizing.sampleSize(2400, 2400, 288, 288));
+        // Limited by the shorter side
+        assertEquals(2, ImageSizing.sampleSize(4000, 600, 288, 288));
+        assertEquals(1, ImageSizing.sampleSize(0, 0, 288, 288));
+    }
+
+    private static ByteArrayInputStream bytes(int length) {
+        return new ByteArrayInputStream(new byte[length]);
+    }
+}
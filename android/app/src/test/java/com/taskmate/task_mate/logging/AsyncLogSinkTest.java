@@ -0,0 +1,151 @@
+package com.taskmate.task_mate.logging;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+public class AsyncLogSinkTest {
+
+    private File dir;
+
+    @Before
+    public void setUp() throws IOException {
+        dir = Files.createTempDirectory("logs").toFile();
+    }
+
+    @After
+    public void tearDown() throws InterruptedException {
+        AsyncLogSink sink = AppLog.uninstall();
+        if (sink != null) sink.close();
+        File[] files = dir.listFiles();
+        if (files != null) for (File file : files) file.delete();
+        dir.delete();
+    }
+
+    @Test
+    public void message_fillsPlaceholdersInOrder() {
+        assertEquals("Loaded 3 tasks in 12 ms", record("Loaded {} tasks in {} ms", 2, 3, 12L, null).getMessage());
+        assertEquals("a=1 b={}", record("a={} b={}", 1, 1, null, null).getMessage());
+        assertEquals("extra", record("extra", 1, 1, null, null).getMessage());
+        assertEquals("null", record("{}", 1, null, null, null).getMessage());
+        assertEquals("no args {}", record("no args {}", 0, null, null, null).getMessage());
+    }
+
+    @Test
+    public void levelBelowMinimum_isNotQueued() throws Exception {
+        AsyncLogSink sink = new AsyncLogSink(new RotatingLogFile(dir, "app", 1 << 20, 2), 64, null);
+        AppLog.install(sink, LogLevel.INFO);
+
+        AppLog.d("Test", "hidden {}", 1);
+        AppLog.i("Test", "shown {}", 2);
+        AppLog.e("Test", "failed", new IllegalStateException("boom"));
+        sink.flush();
+
+        String text = read(new File(dir, "app.log"));
+        assertFalse(text.contains("hidden"));
+        assertTrue(text.contains(" I Test ["));
+        assertTrue(text.contains("shown 2"));
+        assertTrue(text.contains("java.lang.IllegalStateException: boom"));
+        assertEquals(2, sink.getWritten());
+        assertFalse(AppLog.isLoggable(LogLevel.DEBUG));
+    }
+
+    @Test
+    public void beforeInstall_everythingIsFiltered() {
+        AppLog.uninstall();
+        assertFalse(AppLog.isLoggable(LogLevel.ERROR));
+        AppLog.e("Test", "dropped silently");
+    }
+
+    @Test
+    public void fullQueue_dropsAndReportsInsteadOfBlocking() throws Exception {
+        CountDownLatch writing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AsyncLogSink sink = new AsyncLogSink(new RotatingLogFile(dir, "app", 1 << 20, 2), 8, (record, message) -> {
+            writing.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException ignored) {
+            }
+        });
+
+        // Hold the writer inside the first record so the queue fills up
+        sink.offer(record("line {}", 1, 0, null, null));
+        assertTrue(writing.await(5, TimeUnit.SECONDS));
+        for (int i = 1; i < 100; i++) {
+            sink.offer(record("line {}", 1, i, null, null));
+        }
+        assertEquals(100 - 1 - 8, sink.getDropped());
+        release.countDown();
+        sink.flush();
+
+        String text = read(new File(dir, "app.log"));
+        assertTrue(text.contains("LogSink: dropped 91 records"));
+        assertEquals(1 + 8, sink.getWritten());
+    }
+
+    @Test
+    public void rotation_keepsBoundedGenerations() throws IOException {
+        RotatingLogFile file = new RotatingLogFile(dir, "app", 1000, 3);
+        for (int i = 0; i < 200; i++) {
+            file.append(String.format("%04d %s", i, "................................................"));
+        }
+        file.close();
+
+        List<File> files = file.getFiles();
+        assertEquals(3, files.size());
+        assertFalse(new File(dir, "app.3.log").exists());
+        for (File f : files) assertTrue(f.length() <= 1000);
+        // Newest entries end up in app.log, older ones in higher generations
+        assertTrue(read(files.get(0)).contains("0199"));
+        assertTrue(read(files.get(1)).compareTo(read(files.get(0))) < 0);
+    }
+
+    @Test
+    public void sampler_passesOneInN() {
+        LogSampler sampler = new LogSampler(10);
+        int passed = 0;
+        for (int i = 0; i < 1000; i++) {
+            if (sampler.next()) passed++;
+        }
+        assertEquals(100, passed);
+    }
+
+    // Caller-side cost of a filtered call vs an accepted one
+    @Test
+    public void benchmark_callerCost() throws Exception {
+        AsyncLogSink sink = new AsyncLogSink(new RotatingLogFile(dir, "app", 4 << 20, 2), 1 << 16, null);
+        AppLog.install(sink, LogLevel.INFO);
+        int rounds = 200_000;
+
+        for (int i = 0; i < rounds; i++) AppLog.d("Bench", "row {} bound", i);
+        long start = System.nanoTime();
+        for (int i = 0; i < rounds; i++) AppLog.d("Bench", "row {} bound", i);
+        long filteredNs = (System.nanoTime() - start) / rounds;
+
+        int accepted = 20_000;
+        for (int i = 0; i < accepted; i++) AppLog.i("Bench", "row {} bound", i);
+        sink.flush();
+
+        assertEquals(accepted, sink.getWritten() + sink.getDropped());
+        assertTrue(filteredNs < 1_000);
+    }
+
+    private static LogRecord record(String message, int argCount, Object a, Object b, Object c) {
+        return new LogRecord(0, LogLevel.INFO, "Test", "main", message, argCount, a, b, c, null);
+    }
+
+    private static String read(File file) throws IOException {
+        return new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8);
+    }
+}
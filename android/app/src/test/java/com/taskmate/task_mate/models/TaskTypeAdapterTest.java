@@ -0,0 +1,211 @@
+package com.taskmate.task_mate.models;
+
+import com.google.gson.Gson;
+import com.google.gson.reflect.TypeToken;
+import com.taskmate.task_mate.tags.TagBits;
+import com.taskmate.task_mate.util.DateUtils;
+
+import org.junit.Test;
+
+import java.lang.reflect.Type;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class TaskTypeAdapterTest {
+
+    private static final String TASK_JSON = "{\"_id\":\"65a1\",\"title\":\"Write report\","
+            + "\"description\":\"Q1 numbers\",\"dueDate\":\"2025-01-15T10:30:00.000Z\","
+            + "\"userId\":\"uid-1\",\"priority\":\"high\",\"status\":\"in-progress\","
+            + "\"category\":\"work\",\"tags\":[\"a\",\"b\"],\"isCompleted\":false,\"order\":\"Vk\","
+            + "\"parentId\":\"64f0\",\"kind\":\"checklist\",\"subtaskCount\":3,\"subtasksDone\":1,"
+            + "\"reminderSent\":false,\"createdAt\":\"2025-01-10T08:00:00.000Z\","
+            + "\"updatedAt\":\"2025-01-11T09:15:30.250+02:00\",\"__v\":0}";
+
+    private final Gson gson = new Gson();
+
+    @Test
+    public void read_convertsWireFieldsOnce() {
+        Task task = gson.fromJson(TASK_JSON, Task.class);
+
+        assertEquals("65a1", task.getId());
+        assertEquals(Priority.HIGH, task.getPriority());
+        assertEquals(TaskStatus.IN_PROGRESS, task.getStatus());
+        assertEquals(DateUtils.parseIso("2025-01-15T10:30:00Z"), task.getDueDate());
+        assertEquals(1736937000000L, task.getDueDate());
+        assertEquals(DateUtils.parseIso("2025-01-11T07:15:30.250Z"), task.getUpdatedAt());
+        assertTrue(task.isOverdue(task.getDueDate() + 1));
+        assertFalse(task.isOverdue(task.getDueDate() - 1));
+        assertEquals(Arrays.asList("a", "b"), task.getTags());
+        assertEquals(2, TagBits.count(task.getTagBits()));
+        assertEquals("Vk", task.getOrder());
+        assertEquals("64f0", task.getParentId());
+        assertEquals(TaskKind.CHECKLIST, task.getKind());
+        assertEquals(3, task.getSubtaskCount());
+        assertEquals(1, task.getSubtasksDone());
+    }
+
+    @Test
+    public void read_defaultsMissingFieldsAndInternsCategories() {
+        Task first = gson.fromJson("{\"_id\":\"1\",\"title\":\"a\",\"category\":\"errands\"}", Task.class);
+        Task second = gson.fromJson("{\"_id\":\"2\",\"title\":\"b\",\"category\":\"errands\",\"dueDate\":null}", Task.class);
+
+        assertEquals(Priority.MEDIUM, first.getPriority());
+        assertEquals(TaskStatus.PENDING, first.getStatus());
+        assertFalse(second.hasDueDate());
+        assertSame(first.getCategory(), second.getCategory());
+    }
+
+    @Test
+    public void write_roundTripsThroughWireFormat() {
+        Task task = gson.fromJson(TASK_JSON, Task.class);
+        Task copy = gson.fromJson(gson.toJson(task), Task.class);
+
+        assertEquals(task.getDueDate(), copy.getDueDate());
+        assertEquals(task.getUpdatedAt(), copy.getUpdatedAt());
+        assertEquals(task.getPriority(), copy.getPriority());
+        assertEquals(task.getStatus(), copy.getStatus());
+        assertEquals(task.getCategory(), copy.getCategory());
+        assertEquals(task.getTags(), copy.getTags());
+        assertArrayEquals(task.getTagBits(), copy.getTagBits());
+        assertEquals(task.getOrder(), copy.getOrder());
+        assertEquals(task.getParentId(), copy.getParentId());
+        assertEquals(task.getKind(), copy.getKind());
+        assertEquals(task.getSubtaskCount(), copy.getSubtaskCount());
+        assertEquals(task.getSubtasksDone(), copy.getSubtasksDone());
+    }
+
+    @Test
+    public void read_marksSummaryProjection() {
+        Task task = gson.fromJson("{\"_id\":\"1\",\"title\":\"a\",\"descriptionPreview\":\"short\"}", Task.class);
+        Task copy = gson.fromJson(gson.toJson(task), Task.class);
+
+        assertTrue(task.isSummary());
+        assertEquals("short", task.getDescription());
+        assertTrue(copy.isSummary());
+        assertFalse(gson.fromJson(TASK_JSON, Task.class).isSummary());
+    }
+
+    @Test
+    public void recurrence_roundTripsWithExceptions() {
+        String json = "{\"_id\":\"1\",\"title\":\"Standup\",\"dueDate\":\"2025-01-06T09:00:00.000Z\","
+                + "\"recurrence\":{\"frequency\":\"weekly\",\"interval\":2,\"weekdays\":[\"mon\",\"thu\"],\"count\":10},"
+                + "\"exceptions\":[{\"occurrence\":\"2025-01-09T09:00:00.000Z\",\"isCompleted\":true,\"skipped\":false},"
+                + "{\"occurrence\":\"2025-01-20T09:00:00.000Z\",\"dueDate\":\"2025-01-21T10:00:00.000Z\"}]}";
+        Task task = gson.fromJson(json, Task.class);
+        Task copy = gson.fromJson(gson.toJson(task), Task.class);
+
+        for (Task decoded : Arrays.asList(task, copy)) {
+            assertTrue(decoded.isRecurring());
+            assertEquals(RecurrenceFrequency.WEEKLY, decoded.getRecurrence().getFrequency());
+            assertEquals(Recurrence.MONDAY | Recurrence.THURSDAY, decoded.getRecurrence().getWeekdays());
+            assertEquals(10, decoded.getRecurrence().getCount());
+            assertEquals("Every 2 weeks on Mon, Thu", decoded.getRecurrence().describe());
+            assertEquals(2, decoded.getExceptions().size());
+            assertTrue(decoded.getExceptions().get(0).isCompleted());
+            assertEquals(DateUtils.parseIso("2025-01-21T10:00:00Z"), decoded.getExceptions().get(1).getDueDate());
+        }
+        // Unknown frequencies don't make a task repeat
+        assertFalse(gson.fromJson("{\"_id\":\"2\",\"recurrence\":{\"frequency\":\"hourly\"}}", Task.class).isRecurring());
+    }
+
+    // Payload size for a heavy user's list: full documents vs ?view=summary.
+    // Decode time is JsonDecodeBenchmark's
+    @Test
+    public void summaryView_halvesThePayload() {
+        int count = 2_000;
+        StringBuilder description = new StringBuilder();
+        while (description.length() < 1000) description.append("Quarterly numbers and notes. ");
+        String longDescription = description.substring(0, 1000);
+
+        StringBuilder full = new StringBuilder("[");
+        StringBuilder summary = new StringBuilder("[");
+        for (int i = 0; i < count; i++) {
+            if (i > 0) {
+                full.append(',');
+                summary.append(',');
+            }
+            String id = "\"_id\":\"65a1b2c3d4e5f6a7b8c9" + String.format("%04x", i) + "\"";
+            String common = ",\"title\":\"Task " + i + "\",\"dueDate\":\"2025-01-15T10:30:00.000Z\","
+                    + "\"priority\":\"high\",\"status\":\"pending\",\"category\":\"work\",\"isCompleted\":false";
+            full.append('{').append(id).append(common)
+                    .append(",\"description\":\"").append(longDescription)
+                    .append("\",\"userId\":\"firebase-uid-0123456789\",\"tags\":[\"q1\",\"finance\",\"report\"],")
+                    .append("\"reminderSent\":false,\"createdAt\":\"2025-01-10T08:00:00.000Z\",")
+                    .append("\"updatedAt\":\"2025-01-11T09:15:30.250Z\",\"__v\":0}");
+            summary.append('{').append(id).append(common)
+                    .append(",\"descriptionPreview\":\"").append(longDescription, 0, 120).append("\"}");
+        }
+        String fullPayload = full.append(']').toString();
+        String summaryPayload = summary.append(']').toString();
+        Type type = new TypeToken<List<Task>>() {}.getType();
+
+        List<Task> fullTasks = gson.fromJson(fullPayload, type);
+        List<Task> tasks = gson.fromJson(summaryPayload, type);
+
+        assertEquals(count, fullTasks.size());
+        assertEquals(count, tasks.size());
+        assertTrue(tasks.get(0).isSummary());
+        assertTrue(summaryPayload.length() * 2 < fullPayload.length());
+    }
+
+    // Retained heap for 50k decoded tasks next to the old all-String model
+    @Test
+    public void footprint_isSmallerThanStringModel() {
+        int count = 50_000;
+        String[] categories = {"work", "personal", "health", "errands", "general"};
+        String[] priorities = {"low", "medium", "high"};
+        StringBuilder json = new StringBuilder("[");
+        for (int i = 0; i < count; i++) {
+            if (i > 0) json.append(',');
+            json.append("{\"_id\":\"65a1b2c3d4e5f6a7b8c9").append(String.format("%04x", i & 0xffff))
+                    .append("\",\"title\":\"Task ").append(i)
+                    .append("\",\"dueDate\":\"2025-0").append(1 + i % 9).append("-1").append(i % 10)
+                    .append("T10:30:00.000Z\",\"priority\":\"").append(priorities[i % 3])
+                    .append("\",\"status\":\"pending\",\"category\":\"").append(categories[i % 5])
+                    .append("\",\"isCompleted\":false,\"createdAt\":\"2025-01-10T08:00:00.000Z\"")
+                    .append(",\"updatedAt\":\"2025-01-11T09:15:30.250Z\"}");
+        }
+        json.append(']');
+        String payload = json.toString();
+
+        Type legacyType = new TypeToken<List<LegacyTask>>() {}.getType();
+        Type compactType = new TypeToken<List<Task>>() {}.getType();
+
+        long before = usedHeap();
+        List<LegacyTask> legacy = gson.fromJson(payload, legacyType);
+        long legacyBytes = usedHeap() - before;
+        assertEquals(count, legacy.size());
+        legacy = null;
+
+        before = usedHeap();
+        List<Task> compact = gson.fromJson(payload, compactType);
+        long compactBytes = usedHeap() - before;
+        assertEquals(count, compact.size());
+
+        assertTrue("Compact " + compactBytes + " bytes, string model " + legacyBytes,
+                compactBytes < legacyBytes);
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) System.gc();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    // Field layout of the previous wire-shaped model, for comparison only
+    @SuppressWarnings("unused")
+    private static class LegacyTask {
+        private String _id;
+        private String title;
+        private String description;
+        private String dueDate;
+        private String priority;
+        private String status;
+        private String category;
+        private boolean isCompleted;
+        private String createdAt;
+        private String updatedAt;
+    }
+}
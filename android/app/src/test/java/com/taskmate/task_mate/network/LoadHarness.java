@@ -0,0 +1,188 @@
+package com.taskmate.task_mate.network;
+
+import com.taskmate.task_mate.models.ApiResponse;
+import com.taskmate.task_mate.models.Task;
+import com.taskmate.task_mate.models.TasksResponse;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import okhttp3.Call;
+import okhttp3.Connection;
+import okhttp3.EventListener;
+import okhttp3.OkHttpClient;
+import okhttp3.Protocol;
+import okhttp3.Request;
+import okhttp3.Response;
+import retrofit2.Callback;
+
+// Drives the app's real Retrofit/OkHttp stack (ApiClient's interceptors and
+// converter, one shared client like the app) with scripted user sessions and
+// collects per-call metrics through an OkHttp EventListener.
+public class LoadHarness {
+
+    // One user's scripted session against the API
+    public interface Session {
+        void run(ApiService api) throws Exception;
+    }
+
+    private final LoadReport.Recorder recorder = new LoadReport.Recorder();
+    private final OkHttpClient client;
+    private final ApiService api;
+
+    public LoadHarness(String baseUrl) {
+        client = ApiClient.newHttpClientBuilder()
+                .eventListenerFactory(call -> new MetricsListener())
+                .build();
+        api = ApiClient.newRetrofitBuilder(baseUrl, client).build().create(ApiService.class);
+    }
+
+    // Runs the session sessionsPerUser times on each of users threads
+    public LoadReport run(String name, int users, int sessionsPerUser, Session session) throws Exception {
+        recorder.reset();
+        ExecutorService pool = Executors.newFixedThreadPool(users);
+        long start = System.nanoTime();
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int u = 0; u < users; u++) {
+                futures.add(pool.submit(() -> {
+                    for (int s = 0; s < sessionsPerUser; s++) {
+                        session.run(api);
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get(5, TimeUnit.MINUTES);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+        return recorder.report(name, System.nanoTime() - start);
+    }
+
+    public void shutdown() {
+        client.dispatcher().executorService().shutdown();
+        client.connectionPool().evictAll();
+    }
+
+    // Cold start: full list, then the detail screen for the first row
+    public static final Session OPEN_APP = api -> {
+        retrofit2.Response<ApiResponse<TasksResponse>> list = api.getTasks(ApiService.VIEW_SUMMARY).execute();
+        if (list.isSuccessful() && list.body() != null && list.body().getData() != null) {
+            List<Task> tasks = list.body().getData().getTasks();
+            if (!tasks.isEmpty()) {
+                api.getTask(tasks.get(0).getId()).execute();
+            }
+        }
+    };
+
+    // A user ticking off several rows in quick succession: the calls are
+    // enqueued together, as the checkbox handlers do
+    public static Session toggleBurst(int toggles) {
+        return api -> {
+            CountDownLatch done = new CountDownLatch(toggles);
+            Callback<ApiResponse<Task>> callback = new Callback<ApiResponse<Task>>() {
+                @Override
+                public void onResponse(retrofit2.Call<ApiResponse<Task>> call, retrofit2.Response<ApiResponse<Task>> response) {
+                    done.countDown();
+                }
+
+                @Override
+                public void onFailure(retrofit2.Call<ApiResponse<Task>> call, Throwable t) {
+                    done.countDown();
+                }
+            };
+            for (int i = 0; i < toggles; i++) {
+                String id = StandInTaskServer.id(i);
+                (i % 2 == 0 ? api.markTaskComplete(id) : api.markTaskIncomplete(id)).enqueue(callback);
+            }
+            if (!done.await(2, TimeUnit.MINUTES)) throw new IOException("Toggle burst timed out");
+        };
+    }
+
+    // Pull-to-refresh
+    public static final Session REFRESH = api -> api.getTasks(ApiService.VIEW_SUMMARY).execute();
+
+    public static Session sequence(Session... sessions) {
+        return api -> {
+            for (Session session : sessions) session.run(api);
+        };
+    }
+
+    private final class MetricsListener extends EventListener {
+        private long startNanos;
+        private int attempts;
+        private int code;
+
+        @Override
+        public void callStart(Call call) {
+            startNanos = System.nanoTime();
+        }
+
+        @Override
+        public void connectStart(Call call, InetSocketAddress address, Proxy proxy) {
+            recorder.connectionOpened();
+        }
+
+        @Override
+        public void connectionAcquired(Call call, Connection connection) {
+            recorder.connectionAcquired();
+        }
+
+        @Override
+        public void requestHeadersStart(Call call) {
+            attempts++;
+        }
+
+        @Override
+        public void requestHeadersEnd(Call call, Request request) {
+            recorder.bytesSent(request.headers().byteCount());
+        }
+
+        @Override
+        public void requestBodyEnd(Call call, long byteCount) {
+            recorder.bytesSent(byteCount);
+        }
+
+        @Override
+        public void responseHeadersEnd(Call call, Response response) {
+            code = response.code();
+            recorder.bytesReceived(response.headers().byteCount());
+        }
+
+        @Override
+        public void responseBodyEnd(Call call, long byteCount) {
+            recorder.bytesReceived(byteCount);
+        }
+
+        @Override
+        public void callEnd(Call call) {
+            recorder.call(System.nanoTime() - startNanos, code, Math.max(0, attempts - 1));
+        }
+
+        @Override
+        public void callFailed(Call call, IOException ioe) {
+            recorder.call(System.nanoTime() - startNanos, 0, Math.max(0, attempts - 1));
+        }
+
+        // Replaces the scheduler's own listener, so pass the cancel on
+        @Override
+        public void canceled(Call call) {
+            ApiClient.getScheduler().onCanceled(call);
+        }
+
+        @Override
+        public void connectFailed(Call call, InetSocketAddress address, Proxy proxy, Protocol protocol, IOException ioe) {
+            recorder.connectFailed();
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.taskmate.task_mate.network;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+// Scripted sessions against the stand-in server, one network profile per test.
+// Everything runs on localhost; reports are printed for comparison between runs.
+public class LoadHarnessTest {
+
+    private static final LoadHarness.Session TYPICAL_SESSION = LoadHarness.sequence(
+            LoadHarness.OPEN_APP, LoadHarness.toggleBurst(8), LoadHarness.REFRESH);
+
+    private StandInTaskServer server;
+    private LoadHarness harness;
+
+    @Before
+    public void setUp() throws Exception {
+        server = new StandInTaskServer(1_000);
+        harness = new LoadHarness(server.start().toString());
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        harness.shutdown();
+        server.close();
+    }
+
+    @Test
+    public void idealNetwork_reusesConnections() throws Exception {
+        LoadReport report = harness.run("ideal", 4, 5, TYPICAL_SESSION);
+        // 4 users x 5 sessions x (list + detail + 8 toggles + refresh)
+        assertEquals(4 * 5 * 11, report.calls);
+        assertEquals(report.calls, server.getRequestCount());
+        assertEquals(0, report.failures);
+        assertTrue(report.toString(), report.getConnectionReuse() > 0.5);
+        assertTrue(report.bytesReceived > 4 * 5 * 2 * server.getMessagePack().length);
+    }
+
+    @Test
+    public void slowLink_showsInTailLatency() throws Exception {
+        server.setProfile(NetworkProfile.IDEAL.named("3g")
+                .withLatency(40, 60)
+                .withBandwidth(2_000_000));
+        LoadReport report = harness.run("3g", 4, 2, TYPICAL_SESSION);
+        assertEquals(0, report.failures);
+        assertTrue(report.toString(), report.p50Ms >= 40);
+        assertTrue(report.p99Ms >= report.p50Ms);
+    }
+
+    @Test
+    public void errorStorms_areCounted() throws Exception {
+        server.setProfile(NetworkProfile.IDEAL.named("5xx storm")
+                .withLatency(5, 5)
+                .withErrorRate(0.05)
+                .withErrorStorms(200, 60));
+        LoadReport report = harness.run("5xx storm", 4, 5, TYPICAL_SESSION);
+        assertTrue(report.toString(), report.failures > 0);
+        assertTrue(report.statusCounts.keySet().stream().anyMatch(code -> code >= 500));
+        assertEquals(report.calls, server.getRequestCount());
+    }
+}
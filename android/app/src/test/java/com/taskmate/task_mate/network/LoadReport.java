@@ -0,0 +1,125 @@
+package com.taskmate.task_mate.network;
+
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+// Result of one LoadHarness run
+public final class LoadReport {
+
+    public final String name;
+    public final int calls;
+    public final int failures;
+    public final int retries;
+    public final int connectionsOpened;
+    public final int connectionsAcquired;
+    public final int connectFailures;
+    public final long bytesSent;
+    public final long bytesReceived;
+    public final double seconds;
+    public final double p50Ms;
+    public final double p95Ms;
+    public final double p99Ms;
+    public final double maxMs;
+    public final Map<Integer, Integer> statusCounts;
+
+    private LoadReport(String name, Recorder recorder, long elapsedNanos) {
+        this.name = name;
+        long[] latencies = Arrays.copyOf(recorder.latencies, recorder.calls);
+        Arrays.sort(latencies);
+        calls = recorder.calls;
+        failures = recorder.failures;
+        retries = recorder.retries;
+        connectionsOpened = recorder.connectionsOpened;
+        connectionsAcquired = recorder.connectionsAcquired;
+        connectFailures = recorder.connectFailures;
+        bytesSent = recorder.bytesSent;
+        bytesReceived = recorder.bytesReceived;
+        seconds = elapsedNanos / 1e9;
+        p50Ms = percentile(latencies, 0.50);
+        p95Ms = percentile(latencies, 0.95);
+        p99Ms = percentile(latencies, 0.99);
+        maxMs = latencies.length > 0 ? latencies[latencies.length - 1] / 1e6 : 0;
+        statusCounts = new TreeMap<>(recorder.statusCounts);
+    }
+
+    public double getThroughput() {
+        return seconds > 0 ? calls / seconds : 0;
+    }
+
+    // Share of calls that ran on an already open connection
+    public double getConnectionReuse() {
+        return connectionsAcquired > 0 ? 1.0 - (double) connectionsOpened / connectionsAcquired : 0;
+    }
+
+    private static double percentile(long[] sorted, double quantile) {
+        if (sorted.length == 0) return 0;
+        int index = (int) Math.ceil(quantile * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(index, sorted.length - 1))] / 1e6;
+    }
+
+    @Override
+    public String toString() {
+        return String.format(Locale.US,
+                "%s: %d calls in %.2f s (%.1f req/s), latency p50 %.1f / p95 %.1f / p99 %.1f / max %.1f ms, "
+                        + "%d failed, %d retries, status %s, connections %d opened / %d acquired (%.0f%% reuse, %d connect failures), "
+                        + "%d KB sent / %d KB received",
+                name, calls, seconds, getThroughput(), p50Ms, p95Ms, p99Ms, maxMs,
+                failures, retries, statusCounts, connectionsOpened, connectionsAcquired,
+                getConnectionReuse() * 100, connectFailures, bytesSent / 1024, bytesReceived / 1024);
+    }
+
+    // Thread-safe sink for the harness' event listeners
+    static final class Recorder {
+        private long[] latencies = new long[1024];
+        private int calls;
+        private int failures;
+        private int retries;
+        private int connectionsOpened;
+        private int connectionsAcquired;
+        private int connectFailures;
+        private long bytesSent;
+        private long bytesReceived;
+        private final Map<Integer, Integer> statusCounts = new TreeMap<>();
+
+        synchronized void reset() {
+            calls = failures = retries = connectionsOpened = connectionsAcquired = connectFailures = 0;
+            bytesSent = bytesReceived = 0;
+            statusCounts.clear();
+        }
+
+        // code 0 means the call failed without a response
+        synchronized void call(long latencyNanos, int code, int retried) {
+            if (calls == latencies.length) latencies = Arrays.copyOf(latencies, calls * 2);
+            latencies[calls++] = latencyNanos;
+            retries += retried;
+            if (code < 200 || code >= 300) failures++;
+            statusCounts.merge(code, 1, Integer::sum);
+        }
+
+        synchronized void connectionOpened() {
+            connectionsOpened++;
+        }
+
+        synchronized void connectionAcquired() {
+            connectionsAcquired++;
+        }
+
+        synchronized void connectFailed() {
+            connectFailures++;
+        }
+
+        synchronized void bytesSent(long count) {
+            bytesSent += count;
+        }
+
+        synchronized void bytesReceived(long count) {
+            bytesReceived += count;
+        }
+
+        synchronized LoadReport report(String name, long elapsedNanos) {
+            return new LoadReport(name, this, elapsedNanos);
+        }
+    }
+}
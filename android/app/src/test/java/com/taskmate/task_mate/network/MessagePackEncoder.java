@@ -0,0 +1,79 @@
+package com.taskmate.task_mate.network;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonPrimitive;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+// Test-side counterpart of server/src/utils/msgpack.ts: same type choices,
+// so the stand-in server produces the bytes the real one would.
+final class MessagePackEncoder {
+
+    private final ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+    static byte[] encode(JsonElement element) {
+        MessagePackEncoder encoder = new MessagePackEncoder();
+        encoder.write(element);
+        return encoder.out.toByteArray();
+    }
+
+    private void write(JsonElement element) {
+        if (element == null || element.isJsonNull()) {
+            out.write(0xc0);
+        } else if (element.isJsonArray()) {
+            JsonArray array = element.getAsJsonArray();
+            writeHeader(array.size(), 0x90, 0xdc);
+            for (JsonElement item : array) write(item);
+        } else if (element.isJsonObject()) {
+            JsonObject object = element.getAsJsonObject();
+            writeHeader(object.size(), 0x80, 0xde);
+            for (Map.Entry<String, JsonElement> entry : object.entrySet()) {
+                writeString(entry.getKey());
+                write(entry.getValue());
+            }
+        } else {
+            JsonPrimitive primitive = element.getAsJsonPrimitive();
+            if (primitive.isBoolean()) out.write(primitive.getAsBoolean() ? 0xc3 : 0xc2);
+            else if (primitive.isNumber()) writeNumber(primitive.getAsDouble());
+            else writeString(primitive.getAsString());
+        }
+    }
+
+    private void writeNumber(double value) {
+        long integer = (long) value;
+        if (integer == value && integer >= Integer.MIN_VALUE && integer <= 0xffffffffL) {
+            if (integer >= 0 && integer < 0x80) out.write((int) integer);
+            else if (integer < 0 && integer >= -32) out.write((int) integer & 0xff);
+            else if (integer >= 0) writeSized(0xce, integer, 4);
+            else writeSized(0xd2, integer, 4);
+        } else {
+            writeSized(0xcb, Double.doubleToLongBits(value), 8);
+        }
+    }
+
+    private void writeString(String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length < 32) out.write(0xa0 | bytes.length);
+        else if (bytes.length < 0x100) writeSized(0xd9, bytes.length, 1);
+        else if (bytes.length < 0x10000) writeSized(0xda, bytes.length, 2);
+        else writeSized(0xdb, bytes.length, 4);
+        out.write(bytes, 0, bytes.length);
+    }
+
+    private void writeHeader(int count, int fixType, int type16) {
+        if (count < 16) out.write(fixType | count);
+        else if (count < 0x10000) writeSized(type16, count, 2);
+        else writeSized(type16 + 1, count, 4);
+    }
+
+    private void writeSized(int type, long value, int size) {
+        out.write(type);
+        for (int shift = (size - 1) * 8; shift >= 0; shift -= 8) {
+            out.write((int) (value >>> shift) & 0xff);
+        }
+    }
+}
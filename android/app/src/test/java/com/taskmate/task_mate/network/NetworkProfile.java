@@ -0,0 +1,84 @@
+package com.taskmate.task_mate.network;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import okhttp3.mockwebserver.MockResponse;
+
+// Latency, bandwidth and failure behaviour the stand-in server replays.
+// Immutable; the with* methods return adjusted copies.
+public final class NetworkProfile {
+
+    public static final NetworkProfile IDEAL = new NetworkProfile("ideal", 0, 0, 0, 0, 0, 0);
+
+    private final String name;
+    private final long latencyMs;
+    private final long jitterMs;
+    private final long bytesPerSecond;
+    private final double errorRate;
+    private final long stormEveryMs;
+    private final long stormLengthMs;
+
+    private NetworkProfile(String name, long latencyMs, long jitterMs, long bytesPerSecond,
+                           double errorRate, long stormEveryMs, long stormLengthMs) {
+        this.name = name;
+        this.latencyMs = latencyMs;
+        this.jitterMs = jitterMs;
+        this.bytesPerSecond = bytesPerSecond;
+        this.errorRate = errorRate;
+        this.stormEveryMs = stormEveryMs;
+        this.stormLengthMs = stormLengthMs;
+    }
+
+    public NetworkProfile named(String name) {
+        return new NetworkProfile(name, latencyMs, jitterMs, bytesPerSecond, errorRate, stormEveryMs, stormLengthMs);
+    }
+
+    // Time to first byte: latency plus a uniform 0..jitter extra
+    public NetworkProfile withLatency(long latencyMs, long jitterMs) {
+        return new NetworkProfile(name, latencyMs, jitterMs, bytesPerSecond, errorRate, stormEveryMs, stormLengthMs);
+    }
+
+    public NetworkProfile withBandwidth(long bytesPerSecond) {
+        return new NetworkProfile(name, latencyMs, jitterMs, bytesPerSecond, errorRate, stormEveryMs, stormLengthMs);
+    }
+
+    // Fraction of requests answered with a random 5xx
+    public NetworkProfile withErrorRate(double errorRate) {
+        return new NetworkProfile(name, latencyMs, jitterMs, bytesPerSecond, errorRate, stormEveryMs, stormLengthMs);
+    }
+
+    // Every stormEveryMs, fail everything with 503 for stormLengthMs
+    public NetworkProfile withErrorStorms(long stormEveryMs, long stormLengthMs) {
+        return new NetworkProfile(name, latencyMs, jitterMs, bytesPerSecond, errorRate, stormEveryMs, stormLengthMs);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    MockResponse apply(MockResponse response, long elapsedMs, Random random) {
+        boolean storm = stormEveryMs > 0 && elapsedMs % stormEveryMs >= stormEveryMs - stormLengthMs;
+        if (storm || (errorRate > 0 && random.nextDouble() < errorRate)) {
+            int code = storm ? 503 : 500 + random.nextInt(4);
+            response = new MockResponse()
+                    .setResponseCode(code)
+                    .setHeader("Content-Type", "application/json; charset=utf-8")
+                    .setBody("{\"success\":false,\"error\":\"Service unavailable\"}");
+        }
+        if (latencyMs > 0 || jitterMs > 0) {
+            long jitter = jitterMs > 0 ? (long) (random.nextDouble() * jitterMs) : 0;
+            response.setHeadersDelay(latencyMs + jitter, TimeUnit.MILLISECONDS);
+        }
+        if (bytesPerSecond > 0) {
+            // Ten slices a second keeps the throttle smooth for small bodies
+            response.throttleBody(Math.max(1, bytesPerSecond / 10), 100, TimeUnit.MILLISECONDS);
+        }
+        return response;
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+}
@@ -0,0 +1,304 @@
+package com.taskmate.task_mate.network;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import okhttp3.Call;
+import okhttp3.Callback;
+import okhttp3.Dispatcher;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import retrofit2.Invocation;
+import retrofit2.http.GET;
+
+import static org.junit.Assert.*;
+
+public class RequestSchedulerTest {
+
+    interface ScheduledApi {
+        @Scheduling(RequestPriority.BACKGROUND)
+        @GET("sync")
+        retrofit2.Call<Void> sync();
+
+        @GET("tasks")
+        retrofit2.Call<Void> tasks();
+    }
+
+    private final MockWebServer server = new MockWebServer();
+    private final CountDownLatch unblock = new CountDownLatch(1);
+    private final AtomicInteger active = new AtomicInteger();
+    private final AtomicInteger maxActive = new AtomicInteger();
+
+    @Before
+    public void setUp() throws Exception {
+        // Every request is held at the server until the test lets them go
+        server.setDispatcher(new okhttp3.mockwebserver.Dispatcher() {
+            @Override
+            public MockResponse dispatch(RecordedRequest request) throws InterruptedException {
+                maxActive.accumulateAndGet(active.incrementAndGet(), Math::max);
+                try {
+                    unblock.await(10, TimeUnit.SECONDS);
+                    return new MockResponse().setBody("ok");
+                } finally {
+                    active.decrementAndGet();
+                }
+            }
+        });
+        server.start();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        unblock.countDown();
+        server.shutdown();
+    }
+
+    @Test
+    public void perClassLimit_capsCallsInFlight() throws Exception {
+        RequestScheduler scheduler = new RequestScheduler(4, 3, 2);
+        OkHttpClient client = client(scheduler);
+        CountingCallback callback = new CountingCallback(6);
+        for (int i = 0; i < 6; i++) {
+            client.newCall(request("/sync/" + i, RequestPriority.BACKGROUND)).enqueue(callback);
+        }
+
+        awaitState(scheduler, RequestPriority.BACKGROUND, 2, 4);
+        assertEquals(2, active.get());
+        unblock.countDown();
+
+        assertTrue(callback.done.await(10, TimeUnit.SECONDS));
+        assertEquals(6, callback.succeeded.get());
+        assertEquals(2, maxActive.get());
+        RequestScheduler.QueueStats stats = stats(scheduler, RequestPriority.BACKGROUND);
+        assertEquals(6, stats.getAdmitted());
+        assertEquals(4, stats.getQueued());
+        assertTrue(stats.getMaxWaitMs() > 0);
+        assertEquals(0, stats.getInFlight());
+    }
+
+    @Test
+    public void queuedInteractive_holdsBackLowerClasses() throws Exception {
+        RequestScheduler scheduler = new RequestScheduler(1, 1, 1);
+        scheduler.acquire(RequestPriority.INTERACTIVE, null);
+        scheduler.acquire(RequestPriority.BACKGROUND, null);
+
+        Thread interactive = acquireInBackground(scheduler, RequestPriority.INTERACTIVE);
+        awaitState(scheduler, RequestPriority.INTERACTIVE, 1, 1);
+        Thread background = acquireInBackground(scheduler, RequestPriority.BACKGROUND);
+        awaitState(scheduler, RequestPriority.BACKGROUND, 1, 1);
+
+        // A free background slot is not used while an interactive call waits
+        scheduler.release(RequestPriority.BACKGROUND);
+        assertEquals(0, stats(scheduler, RequestPriority.BACKGROUND).getInFlight());
+        assertEquals(1, stats(scheduler, RequestPriority.BACKGROUND).getWaiting());
+
+        scheduler.release(RequestPriority.INTERACTIVE);
+        interactive.join(5_000);
+        background.join(5_000);
+        assertEquals(1, stats(scheduler, RequestPriority.INTERACTIVE).getInFlight());
+        assertEquals(1, stats(scheduler, RequestPriority.BACKGROUND).getInFlight());
+        assertEquals(0, stats(scheduler, RequestPriority.BACKGROUND).getWaiting());
+    }
+
+    @Test
+    public void interactive_isNotLimitedByBackgroundTraffic() throws Exception {
+        RequestScheduler scheduler = new RequestScheduler(2, 1, 1);
+        OkHttpClient client = client(scheduler);
+        CountingCallback background = new CountingCallback(3);
+        for (int i = 0; i < 3; i++) {
+            client.newCall(request("/sync/" + i, RequestPriority.BACKGROUND)).enqueue(background);
+        }
+        awaitState(scheduler, RequestPriority.BACKGROUND, 1, 2);
+
+        CountingCallback interactive = new CountingCallback(2);
+        client.newCall(request("/tasks", RequestPriority.INTERACTIVE)).enqueue(interactive);
+        client.newCall(request("/tasks/1", RequestPriority.INTERACTIVE)).enqueue(interactive);
+        awaitState(scheduler, RequestPriority.INTERACTIVE, 2, 0);
+
+        unblock.countDown();
+        assertTrue(interactive.done.await(10, TimeUnit.SECONDS));
+        assertTrue(background.done.await(10, TimeUnit.SECONDS));
+        assertEquals(0, stats(scheduler, RequestPriority.INTERACTIVE).getQueued());
+    }
+
+    @Test
+    public void cancelledWhileQueued_leavesTheQueue() throws Exception {
+        RequestScheduler scheduler = new RequestScheduler(1, 1, 1);
+        OkHttpClient client = client(scheduler);
+        CountingCallback first = new CountingCallback(1);
+        client.newCall(request("/sync/0", RequestPriority.BACKGROUND)).enqueue(first);
+        awaitState(scheduler, RequestPriority.BACKGROUND, 1, 0);
+
+        CountingCallback second = new CountingCallback(1);
+        Call queued = client.newCall(request("/sync/1", RequestPriority.BACKGROUND));
+        queued.enqueue(second);
+        awaitState(scheduler, RequestPriority.BACKGROUND, 1, 1);
+        queued.cancel();
+
+        assertTrue(second.done.await(5, TimeUnit.SECONDS));
+        assertEquals(0, second.succeeded.get());
+        assertEquals(0, stats(scheduler, RequestPriority.BACKGROUND).getWaiting());
+        unblock.countDown();
+        assertTrue(first.done.await(5, TimeUnit.SECONDS));
+        assertEquals(1, server.getRequestCount());
+    }
+
+    @Test
+    public void cancelSignal_wakesTheQueuedCall() throws Exception {
+        RequestScheduler scheduler = new RequestScheduler(1, 1, 1);
+        scheduler.acquire(RequestPriority.BACKGROUND, null);
+        Call call = client(scheduler).newCall(request("/sync/1", RequestPriority.BACKGROUND));
+        AtomicInteger failed = new AtomicInteger();
+        Thread queued = new Thread(() -> {
+            try {
+                scheduler.acquire(RequestPriority.BACKGROUND, call);
+            } catch (IOException e) {
+                failed.incrementAndGet();
+            }
+        });
+        queued.start();
+        awaitState(scheduler, RequestPriority.BACKGROUND, 1, 1);
+
+        // Only the listener's signal; the call itself never reports cancelled
+        scheduler.onCanceled(call);
+        queued.join(5_000);
+        assertFalse(queued.isAlive());
+        assertEquals(1, failed.get());
+        assertEquals(0, stats(scheduler, RequestPriority.BACKGROUND).getWaiting());
+    }
+
+    @Test
+    public void parkedLowerClasses_areCapped() throws Exception {
+        RequestScheduler scheduler = new RequestScheduler(2, new int[] {1, 1, 1});
+        scheduler.acquire(RequestPriority.INTERACTIVE, null);
+        scheduler.acquire(RequestPriority.VISIBLE_PREFETCH, null);
+        scheduler.acquire(RequestPriority.BACKGROUND, null);
+        acquireInBackground(scheduler, RequestPriority.VISIBLE_PREFETCH);
+        awaitState(scheduler, RequestPriority.VISIBLE_PREFETCH, 1, 1);
+        acquireInBackground(scheduler, RequestPriority.BACKGROUND);
+        awaitState(scheduler, RequestPriority.BACKGROUND, 1, 1);
+
+        try {
+            scheduler.acquire(RequestPriority.BACKGROUND, null);
+            fail("Expected the third parked call to be turned away");
+        } catch (IOException expected) {
+            // Fails fast instead of holding a dispatcher slot
+        }
+        assertEquals(1, stats(scheduler, RequestPriority.BACKGROUND).getRejected());
+
+        // Interactive calls still queue however many lower calls are parked
+        acquireInBackground(scheduler, RequestPriority.INTERACTIVE);
+        awaitState(scheduler, RequestPriority.INTERACTIVE, 1, 1);
+        assertEquals(0, stats(scheduler, RequestPriority.INTERACTIVE).getRejected());
+
+        // Releasing frees the interactive waiter first, then the parked ones
+        scheduler.release(RequestPriority.INTERACTIVE);
+        scheduler.release(RequestPriority.VISIBLE_PREFETCH);
+        scheduler.release(RequestPriority.BACKGROUND);
+        awaitState(scheduler, RequestPriority.BACKGROUND, 1, 0);
+        awaitState(scheduler, RequestPriority.VISIBLE_PREFETCH, 1, 0);
+        awaitState(scheduler, RequestPriority.INTERACTIVE, 1, 0);
+    }
+
+    @Test
+    public void priorityOf_readsTagThenAnnotation() throws Exception {
+        RequestScheduler scheduler = new RequestScheduler();
+        Method sync = ScheduledApi.class.getMethod("sync");
+        Method tasks = ScheduledApi.class.getMethod("tasks");
+        Method stats = ApiService.class.getMethod("getTaskStatistics", String.class);
+
+        assertEquals(RequestPriority.BACKGROUND, scheduler.priorityOf(invocation(sync).build()));
+        assertEquals(RequestPriority.INTERACTIVE, scheduler.priorityOf(invocation(tasks).build()));
+        assertEquals(RequestPriority.VISIBLE_PREFETCH, scheduler.priorityOf(invocation(stats).build()));
+        assertEquals(RequestPriority.INTERACTIVE, scheduler.priorityOf(
+                new Request.Builder().url(server.url("/")).build()));
+        assertEquals(RequestPriority.VISIBLE_PREFETCH, scheduler.priorityOf(invocation(sync)
+                .tag(RequestPriority.class, RequestPriority.VISIBLE_PREFETCH).build()));
+    }
+
+    private OkHttpClient client(RequestScheduler scheduler) {
+        Dispatcher dispatcher = new Dispatcher();
+        dispatcher.setMaxRequests(64);
+        dispatcher.setMaxRequestsPerHost(64);
+        return new OkHttpClient.Builder()
+                .dispatcher(dispatcher)
+                .addInterceptor(scheduler)
+                .eventListenerFactory(scheduler.eventListenerFactory())
+                .build();
+    }
+
+    private Request request(String path, RequestPriority priority) {
+        return new Request.Builder()
+                .url(server.url(path))
+                .tag(RequestPriority.class, priority)
+                .build();
+    }
+
+    private Request.Builder invocation(Method method) {
+        return new Request.Builder()
+                .url(server.url("/"))
+                .tag(Invocation.class, Invocation.of(method, Collections.emptyList()));
+    }
+
+    private static Thread acquireInBackground(RequestScheduler scheduler, RequestPriority priority) {
+        Thread thread = new Thread(() -> {
+            try {
+                scheduler.acquire(priority, null);
+            } catch (IOException e) {
+                throw new AssertionError(e);
+            }
+        });
+        thread.start();
+        return thread;
+    }
+
+    private static RequestScheduler.QueueStats stats(RequestScheduler scheduler, RequestPriority priority) {
+        List<RequestScheduler.QueueStats> all = scheduler.snapshot();
+        return all.get(priority.ordinal());
+    }
+
+    private static void awaitState(RequestScheduler scheduler, RequestPriority priority,
+                                   int inFlight, int waiting) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5_000;
+        RequestScheduler.QueueStats stats = stats(scheduler, priority);
+        while (stats.getInFlight() != inFlight || stats.getWaiting() != waiting) {
+            if (System.currentTimeMillis() > deadline) fail("Timed out waiting for " + stats);
+            Thread.sleep(5);
+            stats = stats(scheduler, priority);
+        }
+    }
+
+    private static final class CountingCallback implements Callback {
+        final CountDownLatch done;
+        final AtomicInteger succeeded = new AtomicInteger();
+
+        CountingCallback(int calls) {
+            done = new CountDownLatch(calls);
+        }
+
+        @Override
+        public void onResponse(Call call, Response response) {
+            if (response.isSuccessful()) succeeded.incrementAndGet();
+            response.close();
+            done.countDown();
+        }
+
+        @Override
+        public void onFailure(Call call, IOException e) {
+            done.countDown();
+        }
+    }
+}
@@ -0,0 +1,214 @@
+package com.taskmate.task_mate.network;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import okhttp3.HttpUrl;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import okio.Buffer;
+
+// Local stand-in for the API. Serves the task endpoints the app calls with
+// generated tasks shaped like the real server's documents, negotiating JSON or
+// MessagePack by Accept the same way server/src/middleware/wireFormat.ts does,
+// and replaying the latency/bandwidth/error behaviour of a NetworkProfile.
+public class StandInTaskServer implements Closeable {
+
+    private static final String TASKS_PATH = "/api/tasks";
+    private static final String ID_PREFIX = "65a1b2c3d4e5f6a7b8";
+    private static final String[] PRIORITIES = {"low", "medium", "high"};
+    private static final String[] STATUSES = {"pending", "in-progress", "completed"};
+    private static final String[] CATEGORIES = {"work", "personal", "health", "errands", "general"};
+
+    private final MockWebServer server = new MockWebServer();
+    private final Gson gson = new Gson();
+    private final int taskCount;
+    private final byte[] json;
+    private final byte[] messagePack;
+    private final Random random = new Random(7);
+    private final AtomicInteger requestCount = new AtomicInteger();
+    private volatile NetworkProfile profile = NetworkProfile.IDEAL;
+    private volatile long startedAt;
+
+    public StandInTaskServer(int taskCount) {
+        this.taskCount = taskCount;
+        JsonObject body = listResponse(taskCount);
+        json = gson.toJson(body).getBytes(StandardCharsets.UTF_8);
+        messagePack = MessagePackEncoder.encode(body);
+        server.setDispatcher(new Dispatcher() {
+            @Override
+            public MockResponse dispatch(RecordedRequest request) {
+                requestCount.incrementAndGet();
+                MockResponse response = route(request);
+                long elapsedMs = (System.nanoTime() - startedAt) / 1_000_000;
+                synchronized (random) {
+                    return profile.apply(response, elapsedMs, random);
+                }
+            }
+        });
+    }
+
+    public HttpUrl start() throws IOException {
+        startedAt = System.nanoTime();
+        server.start();
+        return server.url("/api/");
+    }
+
+    public void setProfile(NetworkProfile profile) {
+        this.profile = profile;
+    }
+
+    public int getRequestCount() {
+        return requestCount.get();
+    }
+
+    public byte[] getJson() {
+        return json;
+    }
+
+    public byte[] getMessagePack() {
+        return messagePack;
+    }
+
+    @Override
+    public void close() throws IOException {
+        server.shutdown();
+    }
+
+    private MockResponse route(RecordedRequest request) {
+        String path = request.getRequestUrl() != null ? request.getRequestUrl().encodedPath() : "";
+        boolean binary = prefersMessagePack(request.getHeader("Accept"));
+        String method = request.getMethod();
+
+        if (path.equals(TASKS_PATH)) {
+            if ("GET".equals(method)) return body(200, binary ? messagePack : json, binary);
+            if ("POST".equals(method)) {
+                JsonObject task = task(taskCount);
+                task.addProperty("title", "Created task");
+                return body(201, envelope(task), binary);
+            }
+        }
+        if (path.startsWith(TASKS_PATH + "/")) {
+            String[] parts = path.substring(TASKS_PATH.length() + 1).split("/");
+            int index = indexOf(parts[0]);
+            if (index < 0) return notFound();
+            JsonObject task = task(index);
+            if (parts.length == 1 && "GET".equals(method)) {
+                return body(200, envelope(task), binary);
+            }
+            if (parts.length == 2 && "POST".equals(method)
+                    && ("complete".equals(parts[1]) || "incomplete".equals(parts[1]))) {
+                boolean completed = "complete".equals(parts[1]);
+                task.addProperty("isCompleted", completed);
+                task.addProperty("status", completed ? "completed" : "pending");
+                return body(200, envelope(task), binary);
+            }
+        }
+        return notFound();
+    }
+
+    private MockResponse body(int code, JsonElement element, boolean binary) {
+        return body(code, binary ? MessagePackEncoder.encode(element)
+                : gson.toJson(element).getBytes(StandardCharsets.UTF_8), binary);
+    }
+
+    private static MockResponse body(int code, byte[] bytes, boolean binary) {
+        return new MockResponse()
+                .setResponseCode(code)
+                .setHeader("Content-Type", binary ? "application/msgpack" : "application/json; charset=utf-8")
+                .setHeader("Vary", "Accept")
+                .setBody(new Buffer().write(bytes));
+    }
+
+    private static MockResponse notFound() {
+        return new MockResponse()
+                .setResponseCode(404)
+                .setHeader("Content-Type", "application/json; charset=utf-8")
+                .setBody("{\"success\":false,\"error\":\"Task not found\"}");
+    }
+
+    private int indexOf(String id) {
+        if (id.length() != 24 || !id.startsWith(ID_PREFIX)) return -1;
+        try {
+            int index = Integer.parseInt(id.substring(ID_PREFIX.length()), 16);
+            return index < taskCount ? index : -1;
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private static JsonObject envelope(JsonObject task) {
+        JsonObject data = new JsonObject();
+        data.add("task", task);
+        JsonObject body = new JsonObject();
+        body.addProperty("success", true);
+        body.add("data", data);
+        return body;
+    }
+
+    // Same answer as Express' req.accepts(['application/json', 'application/msgpack'])
+    // for the headers the app sends
+    static boolean prefersMessagePack(String accept) {
+        return accept != null && accept.trim().startsWith("application/msgpack");
+    }
+
+    static String id(int i) {
+        return ID_PREFIX + String.format("%06x", i);
+    }
+
+    static JsonObject task(int i) {
+        JsonObject task = new JsonObject();
+        task.addProperty("_id", id(i));
+        task.addProperty("title", "Task " + i + " - follow up on the weekly report");
+        task.addProperty("description", "Collect the numbers from finance, compare them with last "
+                + "quarter and send a short summary to the team before the Friday sync (#" + i + ").");
+        task.addProperty("dueDate", "2025-0" + (1 + i % 9) + "-1" + (i % 10) + "T10:30:00.000Z");
+        task.addProperty("userId", "firebase-uid-0123456789abcdef");
+        task.addProperty("priority", PRIORITIES[i % 3]);
+        task.addProperty("status", STATUSES[i % 3]);
+        task.addProperty("category", CATEGORIES[i % 5]);
+        JsonArray tags = new JsonArray();
+        tags.add("q" + (1 + i % 4));
+        tags.add("team");
+        task.add("tags", tags);
+        task.addProperty("isCompleted", i % 3 == 2);
+        task.addProperty("reminderSent", false);
+        task.addProperty("createdAt", "2025-01-10T08:00:00.000Z");
+        task.addProperty("updatedAt", "2025-01-11T09:15:30.250Z");
+        task.addProperty("__v", 0);
+        return task;
+    }
+
+    static JsonObject listResponse(int count) {
+        JsonArray tasks = new JsonArray();
+        for (int i = 0; i < count; i++) {
+            tasks.add(task(i));
+        }
+
+        JsonObject data = new JsonObject();
+        data.add("tasks", tasks);
+        JsonObject pagination = new JsonObject();
+        pagination.addProperty("page", 1);
+        pagination.addProperty("limit", count);
+        pagination.addProperty("total", count);
+        pagination.addProperty("pages", 1);
+        pagination.addProperty("hasNext", false);
+        pagination.addProperty("hasPrev", false);
+
+        JsonObject body = new JsonObject();
+        body.addProperty("success", true);
+        body.add("data", data);
+        body.add("pagination", pagination);
+        return body;
+    }
+}
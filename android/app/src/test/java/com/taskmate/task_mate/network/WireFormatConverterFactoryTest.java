@@ -0,0 +1,168 @@
+package com.taskmate.task_mate.network;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import com.google.gson.reflect.TypeToken;
+import com.taskmate.task_mate.models.ApiResponse;
+import com.taskmate.task_mate.models.Priority;
+import com.taskmate.task_mate.models.Task;
+import com.taskmate.task_mate.models.TaskStats;
+import com.taskmate.task_mate.models.TaskStatus;
+import com.taskmate.task_mate.models.TasksResponse;
+
+import org.junit.Test;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import okhttp3.MediaType;
+import okhttp3.OkHttpClient;
+import okhttp3.ResponseBody;
+import retrofit2.Converter;
+import retrofit2.Response;
+import retrofit2.Retrofit;
+
+import static org.junit.Assert.*;
+
+public class WireFormatConverterFactoryTest {
+
+    private static final MediaType JSON = MediaType.get("application/json; charset=utf-8");
+    private static final MediaType MSGPACK = MediaType.get("application/msgpack");
+    private static final Type LIST_TYPE = new TypeToken<ApiResponse<TasksResponse>>() {}.getType();
+
+    @Test
+    public void negotiatesMessagePackAndFallsBackToJson() throws Exception {
+        try (StandInTaskServer server = new StandInTaskServer(50)) {
+            String baseUrl = server.start().toString();
+
+            Response<ApiResponse<TasksResponse>> binary = service(baseUrl, WireFormatConverterFactory.ACCEPT)
+                    .getTasks(null).execute();
+            Response<ApiResponse<TasksResponse>> json = service(baseUrl, "application/json")
+                    .getTasks(null).execute();
+
+            assertTrue(WireFormatConverterFactory.isMessagePack(binary.raw().body().contentType()));
+            assertFalse(WireFormatConverterFactory.isMessagePack(json.raw().body().contentType()));
+            assertSameTasks(json.body().getData().getTasks(), binary.body().getData().getTasks());
+            assertEquals(50, binary.body().getData().getTasks().size());
+        }
+    }
+
+    @Test
+    public void reader_decodesNumbersNullsAndSkipsUnknownFields() throws Exception {
+        JsonObject stats = new JsonObject();
+        stats.addProperty("totalTasks", 70000);
+        stats.addProperty("completedTasks", 12);
+        stats.addProperty("pendingTasks", -3);
+        stats.add("overdueTasks", null);
+        stats.addProperty("completionRate", 17.0);
+        stats.add("unknown", StandInTaskServer.listResponse(20));
+        JsonObject body = new JsonObject();
+        body.addProperty("success", true);
+        body.add("data", stats);
+
+        ApiResponse<TaskStats> response = convert(new TypeToken<ApiResponse<TaskStats>>() {}.getType(),
+                MessagePackEncoder.encode(body), MSGPACK);
+
+        assertTrue(response.isSuccess());
+        assertEquals(70000, response.getData().getTotalTasks());
+        assertEquals(12, response.getData().getCompletedTasks());
+        assertEquals(-3, response.getData().getPendingTasks());
+        assertEquals(0, response.getData().getOverdueTasks());
+        assertEquals(17, response.getData().getCompletionRate());
+    }
+
+    static final class TagCounts {
+        String owner;
+        Map<String, Integer> byTag;
+        Map<Integer, List<String>> byWeekday;
+    }
+
+    @Test
+    public void reader_decodesMapFields() throws Exception {
+        JsonObject byTag = new JsonObject();
+        byTag.addProperty("work", 3);
+        byTag.addProperty("home", 70000);
+        JsonObject byWeekday = new JsonObject();
+        JsonArray monday = new JsonArray();
+        monday.add("work");
+        byWeekday.add("1", monday);
+        JsonObject body = new JsonObject();
+        body.add("byTag", byTag);
+        body.add("byWeekday", byWeekday);
+        body.addProperty("owner", "u1");
+
+        TagCounts counts = convert(TagCounts.class, MessagePackEncoder.encode(body), MSGPACK);
+
+        assertEquals("u1", counts.owner);
+        assertEquals(2, counts.byTag.size());
+        assertEquals(Integer.valueOf(3), counts.byTag.get("work"));
+        assertEquals(Integer.valueOf(70000), counts.byTag.get("home"));
+        assertEquals(Collections.singletonList("work"), counts.byWeekday.get(1));
+        // Same result as JSON
+        TagCounts fromJson = convert(TagCounts.class, body.toString().getBytes(StandardCharsets.UTF_8), JSON);
+        assertEquals(fromJson.byTag, counts.byTag);
+        assertEquals(fromJson.byWeekday, counts.byWeekday);
+    }
+
+    // A full task list decodes the same from both formats, in fewer bytes from MessagePack
+    @Test
+    public void wireFormats_decodeAlikeAndMessagePackIsSmaller() throws Exception {
+        for (int count : new int[] {1_000, 10_000}) {
+            try (StandInTaskServer server = new StandInTaskServer(count)) {
+                byte[] json = server.getJson();
+                byte[] binary = server.getMessagePack();
+
+                ApiResponse<TasksResponse> fromJson = convert(LIST_TYPE, json, JSON);
+                ApiResponse<TasksResponse> fromBinary = convert(LIST_TYPE, binary, MSGPACK);
+                assertEquals(count, fromBinary.getData().getTasks().size());
+                assertSameTasks(fromJson.getData().getTasks(), fromBinary.getData().getTasks());
+                assertTrue("MessagePack " + binary.length + " bytes, JSON " + json.length,
+                        binary.length < json.length);
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T convert(Type type, byte[] bytes, MediaType mediaType) throws Exception {
+        Retrofit retrofit = new Retrofit.Builder().baseUrl("http://localhost/").build();
+        Converter<ResponseBody, ?> converter = WireFormatConverterFactory.create()
+                .responseBodyConverter(type, new Annotation[0], retrofit);
+        return (T) converter.convert(ResponseBody.Companion.create(bytes, mediaType));
+    }
+
+    private static ApiService service(String baseUrl, String accept) {
+        OkHttpClient client = new OkHttpClient.Builder()
+                .addInterceptor(chain -> chain.proceed(chain.request().newBuilder().header("Accept", accept).build()))
+                .build();
+        return new Retrofit.Builder()
+                .baseUrl(baseUrl)
+                .addConverterFactory(WireFormatConverterFactory.create())
+                .client(client)
+                .build()
+                .create(ApiService.class);
+    }
+
+    private static void assertSameTasks(List<Task> expected, List<Task> actual) {
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            Task a = expected.get(i);
+            Task b = actual.get(i);
+            assertEquals(a.getId(), b.getId());
+            assertEquals(a.getTitle(), b.getTitle());
+            assertEquals(a.getDescription(), b.getDescription());
+            assertEquals(a.getDueDate(), b.getDueDate());
+            assertEquals(a.getPriority(), b.getPriority());
+            assertEquals(a.getStatus(), b.getStatus());
+            assertSame(a.getCategory(), b.getCategory());
+            assertEquals(a.isCompleted(), b.isCompleted());
+            assertEquals(a.getUpdatedAt(), b.getUpdatedAt());
+        }
+        Task first = actual.get(0);
+        assertEquals(Priority.LOW, first.getPriority());
+        assertEquals(TaskStatus.PENDING, first.getStatus());
+    }
+}
@@ -0,0 +1,110 @@
+package com.taskmate.task_mate.network;
+
+import org.junit.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+public class WorkPoolTest {
+
+    @Test
+    public void threads_areNamedAfterThePool() throws Exception {
+        WorkPool pool = new WorkPool("test", 2, 8, Thread.NORM_PRIORITY, WorkPool.Overflow.REJECT);
+        List<String> names = new CopyOnWriteArrayList<>();
+        CountDownLatch done = new CountDownLatch(4);
+        for (int i = 0; i < 4; i++) {
+            pool.execute(() -> {
+                names.add(Thread.currentThread().getName());
+                done.countDown();
+            });
+        }
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        for (String name : names) assertTrue(name, name.matches("test-[12]"));
+    }
+
+    @Test
+    public void fullQueue_rejectsAndCounts() throws Exception {
+        WorkPool pool = new WorkPool("disk", 1, 2, Thread.NORM_PRIORITY, WorkPool.Overflow.REJECT);
+        CountDownLatch gate = new CountDownLatch(1);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(3);
+        pool.execute(() -> {
+            started.countDown();
+            await(gate);
+            done.countDown();
+        });
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        pool.execute(done::countDown);
+        pool.execute(done::countDown);
+        assertEquals(2, pool.getQueueDepth());
+
+        try {
+            pool.execute(() -> fail("Ran past the limit"));
+            fail("Expected the full pool to reject");
+        } catch (RejectedExecutionException e) {
+            assertTrue(e.getMessage(), e.getMessage().startsWith("disk pool is full"));
+        }
+
+        WorkPool.Stats stats = pool.getStats();
+        assertEquals(1, stats.getActive());
+        assertEquals(2, stats.getDepth());
+        assertEquals(2, stats.getPeakDepth());
+        assertEquals(1, stats.getOverflowed());
+
+        gate.countDown();
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        awaitCompleted(pool, 3);
+        stats = pool.getStats();
+        assertEquals(0, stats.getDepth());
+        assertEquals(2, stats.getPeakDepth());
+        // The queued two waited for the gate
+        assertTrue(stats.getMaxWaitMs() > 0);
+
+        pool.resetStats();
+        stats = pool.getStats();
+        assertEquals(0, stats.getCompleted());
+        assertEquals(0, stats.getOverflowed());
+        assertEquals(0, stats.getPeakDepth());
+    }
+
+    @Test
+    public void fullQueue_runsOnTheCallerWhenAsked() throws Exception {
+        WorkPool pool = new WorkPool("compute", 1, 1, Thread.NORM_PRIORITY, WorkPool.Overflow.RUN_ON_CALLER);
+        CountDownLatch gate = new CountDownLatch(1);
+        CountDownLatch started = new CountDownLatch(1);
+        pool.execute(() -> {
+            started.countDown();
+            await(gate);
+        });
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        pool.execute(() -> {});
+
+        Thread caller = Thread.currentThread();
+        Thread[] ranOn = new Thread[1];
+        pool.execute(() -> ranOn[0] = Thread.currentThread());
+        assertSame(caller, ranOn[0]);
+        assertEquals(1, pool.getStats().getOverflowed());
+        gate.countDown();
+    }
+
+    private static void awaitCompleted(WorkPool pool, long count) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (pool.getStats().getCompleted() < count) {
+            assertTrue("Timed out", System.currentTimeMillis() < deadline);
+            Thread.sleep(5);
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
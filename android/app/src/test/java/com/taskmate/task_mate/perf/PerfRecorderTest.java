@@ -0,0 +1,87 @@
+package com.taskmate.task_mate.perf;
+
+import org.junit.Test;
+
+import java.io.StringWriter;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+public class PerfRecorderTest {
+
+    @Test
+    public void ring_keepsNewestSamplesInOrder() {
+        PerfRecorder recorder = new PerfRecorder(4);
+        for (int i = 1; i <= 6; i++) {
+            recorder.record(PerfSection.BIND, i, i * 1000L, null);
+        }
+
+        List<PerfSample> samples = recorder.snapshot();
+
+        assertEquals(4, recorder.size());
+        assertEquals(6, recorder.getTotal());
+        assertEquals(3, samples.get(0).getStartNanos());
+        assertEquals(6, samples.get(3).getStartNanos());
+    }
+
+    @Test
+    public void summarize_splitsBySectionAndCountsOverBudget() {
+        PerfRecorder recorder = new PerfRecorder(64);
+        for (int i = 1; i <= 20; i++) {
+            recorder.record(PerfSection.FRAME, i, i * 1_000_000L, null);
+        }
+        recorder.record(PerfSection.STALL, 0, 450_000_000L, "main <- loop");
+
+        Map<PerfSection, PerfRecorder.Stats> stats = recorder.summarize(16_666_667L);
+
+        PerfRecorder.Stats frames = stats.get(PerfSection.FRAME);
+        assertEquals(20, frames.count);
+        assertEquals(10_000_000L, frames.p50Nanos);
+        assertEquals(19_000_000L, frames.p95Nanos);
+        assertEquals(20_000_000L, frames.maxNanos);
+        assertEquals(4, frames.overBudget);
+        assertEquals(1, stats.get(PerfSection.STALL).count);
+        assertFalse(stats.containsKey(PerfSection.BIND));
+    }
+
+    @Test
+    public void writeCsv_quotesDetails() throws Exception {
+        PerfRecorder recorder = new PerfRecorder(8);
+        recorder.record(PerfSection.PARSE, 5, 7, null);
+        recorder.record(PerfSection.STALL, 9, 11, "at \"x\", y");
+        StringWriter out = new StringWriter();
+
+        recorder.writeCsv(out);
+
+        assertEquals("section,start_ns,duration_ns,detail\n"
+                + "Response.parse,5,7,\n"
+                + "MainThread.stall,9,11,\"at \"\"x\"\", y\"\n", out.toString());
+    }
+
+    // Cost of an instrumented section while tracing is off
+    @Test
+    public void disabledTrace_recordsNothingAndCostsLittle() {
+        PerfTrace.setEnabled(false);
+        long before = PerfTrace.getRecorder().getTotal();
+        int rounds = 10_000_000;
+        long sink = 0;
+
+        for (int i = 0; i < rounds; i++) {
+            long start = PerfTrace.begin(PerfSection.BIND);
+            sink += start;
+            PerfTrace.end(PerfSection.BIND, start);
+        }
+        long startNanos = System.nanoTime();
+        for (int i = 0; i < rounds; i++) {
+            long start = PerfTrace.begin(PerfSection.BIND);
+            sink += start;
+            PerfTrace.end(PerfSection.BIND, start);
+        }
+        double perSection = (System.nanoTime() - startNanos) / (double) rounds;
+
+        assertEquals(0, sink);
+        assertEquals(before, PerfTrace.getRecorder().getTotal());
+        assertTrue(perSection + " ns per section", perSection < 50);
+    }
+}
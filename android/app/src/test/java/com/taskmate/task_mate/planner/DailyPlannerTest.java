@@ -0,0 +1,139 @@
+package com.taskmate.task_mate.planner;
+
+import com.taskmate.task_mate.models.Priority;
+import com.taskmate.task_mate.models.Task;
+import com.taskmate.task_mate.util.DateUtils;
+import com.taskmate.task_mate.util.IndexedMinHeap;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class DailyPlannerTest {
+
+    private static final long NOW = DateUtils.parseIso("2025-03-10T09:00:00.000Z");
+    private static final long END_OF_DAY = DateUtils.parseIso("2025-03-11T00:00:00.000Z");
+
+    private long now;
+    private DailyPlanner planner;
+
+    @Before
+    public void setUp() {
+        now = NOW;
+        planner = new DailyPlanner(() -> now);
+    }
+
+    @Test
+    public void heap_keepsOrderAcrossUpdatesAndRemovals() {
+        IndexedMinHeap<Integer> heap = new IndexedMinHeap<>(4);
+        Random random = new Random(42);
+        long[] expected = new long[500];
+        for (int i = 0; i < expected.length; i++) {
+            expected[i] = random.nextInt(10_000);
+            heap.put(i, expected[i]);
+        }
+        for (int i = 0; i < expected.length; i += 3) {
+            expected[i] = random.nextInt(10_000);
+            heap.put(i, expected[i]);
+        }
+        for (int i = 1; i < expected.length; i += 7) {
+            heap.remove(i);
+            expected[i] = Long.MAX_VALUE;
+        }
+
+        List<Integer> top = heap.peekSorted(50, Long.MAX_VALUE);
+        long[] sorted = expected.clone();
+        Arrays.sort(sorted);
+        for (int i = 0; i < top.size(); i++) {
+            assertEquals(sorted[i], heap.scoreOf(top.get(i)));
+        }
+
+        long previous = Long.MIN_VALUE;
+        while (!heap.isEmpty()) {
+            long score = heap.peekScore();
+            assertTrue(score >= previous);
+            previous = score;
+            heap.poll();
+        }
+    }
+
+    @Test
+    public void plan_putsOverdueFirstThenRanksByEffectiveDueTime() {
+        planner.upsert(task("late-low", "low", "2025-03-09T12:00:00.000Z"));
+        planner.upsert(task("late-high", "high", "2025-03-08T12:00:00.000Z"));
+        planner.upsert(task("today-low", "low", "2025-03-10T18:00:00.000Z"));
+        planner.upsert(task("soon-high", "high", "2025-03-11T20:00:00.000Z"));
+        planner.upsert(task("later-low", "low", "2025-03-15T08:00:00.000Z"));
+        planner.upsert(task("undated", "high", null));
+
+        DailyPlan plan = planner.plan(NOW, END_OF_DAY, 10);
+
+        assertEquals(Arrays.asList("late-high", "late-low"), ids(plan.getOverdue()));
+        // The undated task fills a slot the dated ones left
+        assertEquals(Arrays.asList("soon-high", "today-low", "undated"), ids(plan.getToday()));
+    }
+
+    @Test
+    public void plan_fillsLeftoverSlotsWithUndatedTasksByPriority() {
+        planner.upsert(task("today", "low", "2025-03-10T18:00:00.000Z"));
+        planner.upsert(task("next-week", "high", "2025-03-17T08:00:00.000Z"));
+        Task oldLow = task("old-low", Priority.LOW, DateUtils.NO_DATE);
+        oldLow.setCreatedAt(NOW - 10 * DateUtils.DAY_MS);
+        Task newLow = task("new-low", Priority.LOW, DateUtils.NO_DATE);
+        newLow.setCreatedAt(NOW - DateUtils.DAY_MS);
+        planner.upsert(newLow);
+        planner.upsert(oldLow);
+        planner.upsert(task("undated-medium", Priority.MEDIUM, DateUtils.NO_DATE));
+        planner.upsert(task("undated-high", Priority.HIGH, DateUtils.NO_DATE));
+
+        assertEquals(Arrays.asList("today", "undated-high", "undated-medium", "old-low", "new-low"),
+                ids(planner.plan(NOW, END_OF_DAY, 10).getToday()));
+        // Only as many as there is room for, and never ahead of dated work
+        assertEquals(Arrays.asList("today", "undated-high"), ids(planner.plan(NOW, END_OF_DAY, 2).getToday()));
+        assertEquals(Arrays.asList("today"), ids(planner.plan(NOW, END_OF_DAY, 1).getToday()));
+    }
+
+    @Test
+    public void plan_movesTasksToOverdueAsTimePasses() {
+        planner.upsert(task("a", "medium", "2025-03-10T10:00:00.000Z"));
+        assertEquals(0, planner.getOverdueCount());
+
+        now = NOW + 2 * DateUtils.HOUR_MS;
+        assertEquals(1, planner.getOverdueCount());
+        assertEquals(Arrays.asList("a"), ids(planner.plan(now, END_OF_DAY, 10).getOverdue()));
+    }
+
+    @Test
+    public void upsert_dropsCompletedTasks() {
+        Task task = task("a", "high", "2025-03-10T10:00:00.000Z");
+        planner.upsert(task);
+        task.setCompleted(true);
+        planner.upsert(task);
+
+        assertTrue(planner.plan(NOW, END_OF_DAY, 10).isEmpty());
+        assertEquals(0, planner.size());
+    }
+
+    private static Task task(String id, String priority, String dueDate) {
+        return task(id, Priority.fromWire(priority), DateUtils.parseIso(dueDate));
+    }
+
+    private static Task task(String id, Priority priority, long dueDate) {
+        Task task = new Task(id, null, priority, "general");
+        task.setId(id);
+        task.setDueDate(dueDate);
+        return task;
+    }
+
+    private static List<String> ids(List<Task> tasks) {
+        List<String> ids = new ArrayList<>();
+        for (Task task : tasks) ids.add(task.getId());
+        return ids;
+    }
+}
@@ -0,0 +1,326 @@
+package com.taskmate.task_mate.prefetch;
+
+import com.taskmate.task_mate.models.ApiResponse;
+import com.taskmate.task_mate.models.Task;
+import com.taskmate.task_mate.models.TasksResponse;
+import com.taskmate.task_mate.network.ApiService;
+import com.taskmate.task_mate.network.WireFormatConverterFactory;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BooleanSupplier;
+
+import okhttp3.OkHttpClient;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import retrofit2.Retrofit;
+
+import static org.junit.Assert.*;
+
+public class TaskPrefetcherTest {
+
+    private static final String ID_PREFIX = "65a1b2c3d4e5f6a7b80000";
+
+    private final MockWebServer server = new MockWebServer();
+    private final List<String> requests = Collections.synchronizedList(new ArrayList<>());
+    // Held responses wait here until released
+    private volatile CountDownLatch gate = new CountDownLatch(0);
+    private volatile PrefetchBudget.Network network = PrefetchBudget.Network.UNMETERED;
+    private long now = 1_000_000;
+    private TaskPrefetcher prefetcher;
+
+    @Before
+    public void setUp() throws IOException {
+        server.setDispatcher(new Dispatcher() {
+            @Override
+            public MockResponse dispatch(RecordedRequest request) throws InterruptedException {
+                requests.add(request.getPath());
+                gate.await(5, TimeUnit.SECONDS);
+                return respond(request.getRequestUrl().encodedPath(), request.getRequestUrl());
+            }
+        });
+        server.start();
+        ApiService api = new Retrofit.Builder()
+                .baseUrl(server.url("/api/"))
+                .addConverterFactory(WireFormatConverterFactory.create())
+                .client(new OkHttpClient())
+                .callbackExecutor(Runnable::run)
+                .build()
+                .create(ApiService.class);
+        prefetcher = new TaskPrefetcher(() -> api, new PrefetchBudget(() -> network, () -> now), () -> now);
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        server.shutdown();
+    }
+
+    @Test
+    public void warmedRecord_isTakenWithoutAnotherRequest() {
+        prefetcher.warmRecords(rows(0, 3));
+        awaitIdle();
+        assertEquals(3, requests.size());
+
+        AtomicReference<Task> taken = new AtomicReference<>();
+        assertTrue(prefetcher.takeTask(id(1), taken::set));
+        assertEquals(id(1), taken.get().getId());
+        assertFalse(taken.get().isSummary());
+        assertEquals("Full notes for " + id(1), taken.get().getDescription());
+
+        // Taking hands it over; a second take is a miss
+        assertFalse(prefetcher.takeTask(id(1), taken::set));
+        assertEquals(3, requests.size());
+        PrefetchStats stats = prefetcher.getStats();
+        assertEquals(1, stats.getRecordHits());
+        assertEquals(1, stats.getRecordMisses());
+        assertTrue(stats.getBytes() > 0);
+    }
+
+    @Test
+    public void takeWhileInFlight_joinsThePrefetch() throws InterruptedException {
+        gate = new CountDownLatch(1);
+        prefetcher.warmRecords(rows(0, 1));
+        CountDownLatch delivered = new CountDownLatch(1);
+        AtomicReference<Task> taken = new AtomicReference<>();
+
+        assertTrue(prefetcher.takeTask(id(0), task -> {
+            taken.set(task);
+            delivered.countDown();
+        }));
+        // Someone is waiting on it now, so scrolling away doesn't cancel it
+        prefetcher.retainRecords(Collections.emptySet());
+        gate.countDown();
+
+        assertTrue(delivered.await(5, TimeUnit.SECONDS));
+        assertEquals(id(0), taken.get().getId());
+        assertEquals(1, requests.size());
+        assertEquals(1, prefetcher.getStats().getRecordJoins());
+        assertEquals(0, prefetcher.getStats().getCancelled());
+    }
+
+    @Test
+    public void scrollingAway_cancelsRecordsNobodyWaitsFor() {
+        gate = new CountDownLatch(1);
+        prefetcher.warmRecords(rows(0, 4));
+        prefetcher.retainRecords(Arrays.asList(id(2), id(3)));
+        gate.countDown();
+        awaitIdle();
+
+        assertEquals(2, prefetcher.getStats().getCancelled());
+        assertFalse(prefetcher.takeTask(id(0), task -> fail("Cancelled prefetch delivered")));
+        assertTrue(prefetcher.takeTask(id(3), task -> assertNotNull(task)));
+    }
+
+    @Test
+    public void fullRecordsAndFreshOnes_areNotFetchedAgain() {
+        List<Task> rows = rows(0, 2);
+        rows.get(0).setSummary(false);
+        prefetcher.warmRecords(rows);
+        awaitIdle();
+        prefetcher.warmRecords(rows);
+        awaitIdle();
+        assertEquals(Collections.singletonList("/api/tasks/" + id(1)), requests);
+
+        // Once held past the TTL the record is fetched again, and the old one was never used
+        now += TaskPrefetcher.RECORD_TTL_MS + 1;
+        prefetcher.warmRecords(rows);
+        awaitIdle();
+        assertEquals(2, requests.size());
+        assertEquals(1, prefetcher.getStats().getUnused());
+    }
+
+    @Test
+    public void changedTask_dropsItsHeldRecord() {
+        prefetcher.warmRecords(rows(0, 1));
+        awaitIdle();
+        prefetcher.onTaskUpdated(rows(0, 1).get(0));
+
+        assertFalse(prefetcher.takeTask(id(0), task -> fail("Stale record delivered")));
+        assertEquals(1, prefetcher.getStats().getUnused());
+    }
+
+    @Test
+    public void budget_capsRequestsPerWindow() {
+        prefetcher.warmRecords(rows(0, PrefetchBudget.MAX_REQUESTS + 5));
+        awaitIdle();
+        assertEquals(PrefetchBudget.MAX_REQUESTS, requests.size());
+        assertEquals(1, prefetcher.getStats().getOverBudget());
+
+        now += PrefetchBudget.WINDOW_MS;
+        prefetcher.warmRecords(rows(PrefetchBudget.MAX_REQUESTS, 1));
+        awaitIdle();
+        assertEquals(PrefetchBudget.MAX_REQUESTS + 1, requests.size());
+    }
+
+    @Test
+    public void budget_settlesEstimatesToWhatResponsesWeighed() {
+        PrefetchBudget budget = new PrefetchBudget(() -> PrefetchBudget.Network.UNMETERED, () -> now);
+        PrefetchBudget.Spend spend = budget.tryAcquire(PrefetchBudget.Kind.PAGE, PrefetchBudget.MAX_BYTES);
+        assertNotNull(spend);
+        assertNull(budget.tryAcquire(PrefetchBudget.Kind.RECORD, 1));
+
+        budget.settle(spend, 10_000);
+        assertEquals(10_000, budget.getBytesInWindow());
+        assertNotNull(budget.tryAcquire(PrefetchBudget.Kind.RECORD, 1));
+    }
+
+    @Test
+    public void meteredNetwork_warmsPagesButNotRecords() {
+        network = PrefetchBudget.Network.METERED;
+        prefetcher.warmRecords(rows(0, 3));
+        prefetcher.warmPage(2, 50);
+        awaitIdle();
+        assertEquals(Collections.singletonList("/api/tasks?view=summary&page=2&limit=50"), requests);
+
+        network = PrefetchBudget.Network.RESTRICTED;
+        prefetcher.warmPage(3, 50);
+        awaitIdle();
+        assertEquals(1, requests.size());
+        assertEquals(2, prefetcher.getStats().getOverBudget());
+    }
+
+    @Test
+    public void warmedPage_isTakenAndDroppedOnReload() {
+        prefetcher.warmPage(2, 50);
+        awaitIdle();
+        AtomicReference<ApiResponse<TasksResponse>> taken = new AtomicReference<>();
+        assertTrue(prefetcher.takePage(2, 50, taken::set));
+        assertEquals(50, taken.get().getData().getTasks().size());
+        assertEquals(id(50), taken.get().getData().getTasks().get(0).getId());
+        assertTrue(taken.get().getPagination().isHasNext());
+
+        // A page of another size, or one from before a reload, isn't what the list asks for
+        prefetcher.warmPage(3, 50);
+        awaitIdle();
+        assertFalse(prefetcher.takePage(3, 20, taken::set));
+        prefetcher.warmPage(4, 50);
+        awaitIdle();
+        prefetcher.clearPages();
+        assertFalse(prefetcher.takePage(4, 50, taken::set));
+
+        PrefetchStats stats = prefetcher.getStats();
+        assertEquals(1, stats.getPageHits());
+        assertEquals(2, stats.getPageMisses());
+        assertEquals(2, stats.getUnused());
+    }
+
+    @Test
+    public void reloadWhilePageInFlight_handsWaitersNull() {
+        gate = new CountDownLatch(1);
+        prefetcher.warmPage(2, 50);
+        Object[] taken = {"nothing yet"};
+        assertTrue(prefetcher.takePage(2, 50, page -> taken[0] = page));
+
+        prefetcher.clearPages();
+        gate.countDown();
+        assertNull(taken[0]);
+        assertEquals(1, prefetcher.getStats().getCancelled());
+    }
+
+    @Test
+    public void scrollPolicy_leadGrowsWithSpeed() {
+        // Ten rows on screen, so two screens ahead is always enough
+        assertFalse(ScrollPrefetcher.shouldWarmPage(69, 100, 10, 0));
+        assertTrue(ScrollPrefetcher.shouldWarmPage(79, 100, 10, 0));
+        // Flinging at 30 rows a second covers 60 rows in the lead time
+        assertTrue(ScrollPrefetcher.shouldWarmPage(45, 100, 10, 30));
+        assertFalse(ScrollPrefetcher.shouldWarmPage(45, 100, 10, -30));
+
+        assertTrue(ScrollPrefetcher.shouldWarmRecords(0));
+        assertTrue(ScrollPrefetcher.shouldWarmRecords(-2));
+        assertFalse(ScrollPrefetcher.shouldWarmRecords(20));
+    }
+
+    @Test
+    public void scrollPolicy_warmsSummaryRowsOnScreen() {
+        List<Task> rows = rows(0, 20);
+        rows.get(5).setSummary(false);
+        List<Task> wanted = ScrollPrefetcher.recordsToWarm(rows, 4, 15, 3);
+        assertEquals(Arrays.asList(id(4), id(6), id(7)), idsOf(wanted));
+        assertEquals(2, ScrollPrefetcher.recordsToWarm(rows, 18, 25, 8).size());
+    }
+
+    // Waits until no prefetch is in flight any more
+    private void awaitIdle() {
+        await(() -> prefetcher.inFlight() == 0);
+    }
+
+    private void await(BooleanSupplier condition) {
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (!condition.getAsBoolean()) {
+            if (System.currentTimeMillis() > deadline) fail("Timed out waiting for prefetches");
+            try {
+                Thread.sleep(5);
+            } catch (InterruptedException e) {
+                throw new AssertionError(e);
+            }
+        }
+        // Lets callbacks that already took themselves off the map finish
+        try {
+            Thread.sleep(20);
+        } catch (InterruptedException e) {
+            throw new AssertionError(e);
+        }
+    }
+
+    private static MockResponse respond(String path, okhttp3.HttpUrl url) {
+        if (path.equals("/api/tasks")) {
+            int page = Integer.parseInt(url.queryParameter("page"));
+            int limit = Integer.parseInt(url.queryParameter("limit"));
+            StringBuilder tasks = new StringBuilder();
+            for (int i = 0; i < limit; i++) {
+                if (i > 0) tasks.append(',');
+                tasks.append(taskJson((page - 1) * limit + i, true));
+            }
+            return json("{\"success\":true,\"data\":{\"tasks\":[" + tasks + "]},\"pagination\":{\"page\":" + page
+                    + ",\"limit\":" + limit + ",\"total\":1000,\"pages\":20,\"hasNext\":true,\"hasPrev\":true}}");
+        }
+        int index = Integer.parseInt(path.substring(("/api/tasks/" + ID_PREFIX).length()));
+        return json("{\"success\":true,\"data\":{\"task\":" + taskJson(index, false) + "}}");
+    }
+
+    private static MockResponse json(String body) {
+        return new MockResponse().setHeader("Content-Type", "application/json").setBody(body);
+    }
+
+    private static String taskJson(int index, boolean summary) {
+        String description = summary
+                ? "\"descriptionPreview\":\"Notes for " + id(index) + "\""
+                : "\"description\":\"Full notes for " + id(index) + "\"";
+        return "{\"_id\":\"" + id(index) + "\",\"title\":\"Task " + index + "\"," + description + "}";
+    }
+
+    private static List<Task> rows(int from, int count) {
+        List<Task> rows = new ArrayList<>();
+        for (int i = from; i < from + count; i++) {
+            Task task = new Task();
+            task.setId(id(i));
+            task.setTitle("Task " + i);
+            task.setSummary(true);
+            rows.add(task);
+        }
+        return rows;
+    }
+
+    private static List<String> idsOf(List<Task> tasks) {
+        List<String> ids = new ArrayList<>();
+        for (Task task : tasks) ids.add(task.getId());
+        return ids;
+    }
+
+    private static String id(int index) {
+        return ID_PREFIX + String.format("%02d", index);
+    }
+}
@@ -0,0 +1,210 @@
+package com.taskmate.task_mate.recurrence;
+
+import com.taskmate.task_mate.models.OccurrenceException;
+import com.taskmate.task_mate.models.Recurrence;
+import com.taskmate.task_mate.models.RecurrenceFrequency;
+import com.taskmate.task_mate.models.Task;
+import com.taskmate.task_mate.util.DateUtils;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.TimeZone;
+
+import static org.junit.Assert.*;
+
+public class RecurringSeriesTest {
+
+    private static final TimeZone BERLIN = TimeZone.getTimeZone("Europe/Berlin");
+
+    @Test
+    public void daily_withInterval() {
+        RecurringSeries series = series("2025-01-01T08:00:00+01:00", rule(RecurrenceFrequency.DAILY, 2));
+
+        assertEquals(Arrays.asList(
+                "2025-01-01T07:00:00.000Z", "2025-01-03T07:00:00.000Z",
+                "2025-01-05T07:00:00.000Z", "2025-01-07T07:00:00.000Z"),
+                starts(series.occurrencesBetween(at("2024-12-20T00:00:00Z"), at("2025-01-08T00:00:00Z"))));
+    }
+
+    @Test
+    public void weekly_onSeveralDaysWithCount() {
+        // Starts on a Wednesday; Mon, Wed and Fri; five in total
+        Recurrence rule = rule(RecurrenceFrequency.WEEKLY, 1);
+        rule.setWeekdays(Recurrence.MONDAY | Recurrence.WEDNESDAY | Recurrence.FRIDAY);
+        rule.setCount(5);
+        RecurringSeries series = series("2025-01-01T18:30:00+01:00", rule);
+
+        assertEquals(Arrays.asList("2025-01-01", "2025-01-03", "2025-01-06", "2025-01-08", "2025-01-10"),
+                days(series.occurrencesBetween(at("2025-01-01T00:00:00Z"), at("2025-03-01T00:00:00Z"))));
+        // A window in the middle still knows how many came before it
+        assertEquals(Arrays.asList("2025-01-08", "2025-01-10"),
+                days(series.occurrencesBetween(at("2025-01-07T00:00:00Z"), at("2025-02-01T00:00:00Z"))));
+        assertEquals(0, series.countBetween(at("2025-01-11T00:00:00Z"), at("2026-01-01T00:00:00Z")));
+    }
+
+    @Test
+    public void weekly_everyOtherWeek() {
+        Recurrence rule = rule(RecurrenceFrequency.WEEKLY, 2);
+        rule.setWeekdays(Recurrence.MONDAY | Recurrence.THURSDAY);
+        RecurringSeries series = series("2025-01-06T09:00:00+01:00", rule);
+
+        assertEquals(Arrays.asList("2025-01-06", "2025-01-09", "2025-01-20", "2025-01-23", "2025-02-03"),
+                days(series.occurrencesBetween(at("2025-01-01T00:00:00Z"), at("2025-02-04T00:00:00Z"))));
+    }
+
+    @Test
+    public void monthly_fallsOnTheLastDayOfShortMonths() {
+        RecurringSeries series = series("2025-01-31T12:00:00+01:00", rule(RecurrenceFrequency.MONTHLY, 1));
+
+        assertEquals(Arrays.asList("2025-01-31", "2025-02-28", "2025-03-31", "2025-04-30", "2025-05-31"),
+                days(series.occurrencesBetween(at("2025-01-01T00:00:00Z"), at("2025-06-01T00:00:00Z"))));
+    }
+
+    @Test
+    public void until_endsTheSeries() {
+        Recurrence rule = rule(RecurrenceFrequency.DAILY, 1);
+        rule.setUntil(at("2025-01-03T08:00:00+01:00"));
+        RecurringSeries series = series("2025-01-01T08:00:00+01:00", rule);
+
+        assertEquals(3, series.countBetween(at("2025-01-01T00:00:00Z"), at("2025-02-01T00:00:00Z")));
+        assertEquals(RecurringSeries.END, series.nextDay(series.dayOf(at("2025-01-04T00:00:00Z"))));
+    }
+
+    @Test
+    public void keepsLocalTimeAcrossDst() {
+        // Berlin moves to summer time on 2025-03-30
+        RecurringSeries series = series("2025-03-28T09:00:00+01:00", rule(RecurrenceFrequency.DAILY, 1));
+
+        assertEquals(Arrays.asList(
+                "2025-03-28T08:00:00.000Z", "2025-03-29T08:00:00.000Z",
+                "2025-03-30T07:00:00.000Z", "2025-03-31T07:00:00.000Z"),
+                starts(series.occurrencesBetween(at("2025-03-28T00:00:00Z"), at("2025-04-01T00:00:00Z"))));
+    }
+
+    @Test
+    public void exceptions_skipMoveAndComplete() {
+        Task task = task("2025-01-01T08:00:00+01:00", rule(RecurrenceFrequency.DAILY, 1));
+        OccurrenceException skipped = new OccurrenceException(at("2025-01-02T08:00:00+01:00"));
+        skipped.setSkipped(true);
+        OccurrenceException moved = new OccurrenceException(at("2025-01-03T08:00:00+01:00"));
+        moved.setDueDate(at("2025-01-10T15:00:00+01:00"));
+        OccurrenceException completed = new OccurrenceException(at("2025-01-04T08:00:00+01:00"));
+        completed.setCompleted(true);
+        task.setExceptions(Arrays.asList(skipped, moved, completed));
+        RecurringSeries series = new RecurringSeries(task, BERLIN);
+
+        List<Task> week = series.occurrencesBetween(at("2025-01-01T00:00:00Z"), at("2025-01-06T00:00:00Z"));
+        assertEquals(Arrays.asList("2025-01-01", "2025-01-04", "2025-01-05"), days(week));
+        assertTrue(week.get(1).isCompleted());
+        assertFalse(week.get(2).isCompleted());
+        assertTrue(week.get(0).isOccurrence());
+        assertFalse(week.get(0).isRecurring());
+
+        List<Task> tenth = series.occurrencesOn(series.dayOf(at("2025-01-10T12:00:00Z")));
+        assertEquals(2, tenth.size());
+        assertEquals(at("2025-01-10T08:00:00+01:00"), tenth.get(0).getDueDate());
+        assertEquals(at("2025-01-10T15:00:00+01:00"), tenth.get(1).getDueDate());
+        assertEquals(at("2025-01-03T08:00:00+01:00"), tenth.get(1).getOccurrence());
+    }
+
+    @Test
+    public void nextOpenStart_passesOverDoneDays() {
+        Task task = task("2025-01-01T08:00:00+01:00", rule(RecurrenceFrequency.DAILY, 1));
+        OccurrenceException today = new OccurrenceException(at("2025-03-10T08:00:00+01:00"));
+        today.setCompleted(true);
+        OccurrenceException tomorrow = new OccurrenceException(at("2025-03-11T08:00:00+01:00"));
+        tomorrow.setSkipped(true);
+        task.setExceptions(Arrays.asList(today, tomorrow));
+        RecurringSeries series = new RecurringSeries(task, BERLIN);
+
+        // Missed days before today don't count
+        assertEquals(at("2025-03-12T08:00:00+01:00"), series.nextOpenStart(at("2025-03-10T12:00:00+01:00")));
+        assertEquals(at("2025-03-09T08:00:00+01:00"), series.nextOpenStart(at("2025-03-09T20:00:00+01:00")));
+
+        Recurrence limited = rule(RecurrenceFrequency.DAILY, 1);
+        limited.setCount(3);
+        assertEquals(RecurringSeries.END,
+                series("2025-01-01T08:00:00+01:00", limited).nextOpenStart(at("2025-01-05T00:00:00Z")));
+    }
+
+    // Twenty years in, the window is found directly; it has to hold exactly
+    // what stepping day by day from the series start finds
+    @Test
+    public void farWindow_matchesSteppingFromTheStart() {
+        Task task = task("2005-01-01T07:30:00+01:00", rule(RecurrenceFrequency.DAILY, 1));
+        List<OccurrenceException> exceptions = new ArrayList<>();
+        for (int day = 10; day < 30; day++) {
+            OccurrenceException done = new OccurrenceException(at("2025-03-" + day + "T07:30:00+01:00"));
+            done.setCompleted(true);
+            exceptions.add(done);
+        }
+        task.setExceptions(exceptions);
+        RecurringSeries daily = new RecurringSeries(task, BERLIN);
+        // Across the exceptions' end and the switch to summer time
+        long from = at("2025-03-24T00:00:00Z");
+        long to = from + 14 * DateUtils.DAY_MS;
+
+        List<Task> window = daily.occurrencesBetween(from, to);
+        assertEquals(14, window.size());
+        assertEquals(stepFromStart(daily, from, to), starts(window));
+        assertTrue(window.get(5).isCompleted());
+        assertFalse(window.get(6).isCompleted());
+
+        Recurrence fortnightly = rule(RecurrenceFrequency.WEEKLY, 2);
+        fortnightly.setWeekdays(Recurrence.MONDAY | Recurrence.THURSDAY);
+        RecurringSeries weekly = series("2005-01-03T09:00:00+01:00", fortnightly);
+        from = at("2025-01-01T00:00:00Z");
+        to = at("2025-03-01T00:00:00Z");
+        assertEquals(stepFromStart(weekly, from, to), starts(weekly.occurrencesBetween(from, to)));
+    }
+
+    private static List<String> stepFromStart(RecurringSeries series, long from, long to) {
+        List<String> found = new ArrayList<>();
+        for (long day = series.nextDay(Long.MIN_VALUE / 2); day != RecurringSeries.END; day = series.nextDay(day + 1)) {
+            long occurrence = series.startOn(day);
+            if (occurrence >= to) break;
+            if (occurrence >= from) found.add(DateUtils.formatIso(occurrence));
+        }
+        return found;
+    }
+
+    private static Recurrence rule(RecurrenceFrequency frequency, int interval) {
+        return new Recurrence(frequency, interval);
+    }
+
+    private static Task task(String firstStart, Recurrence rule) {
+        Task task = new Task();
+        task.setId("r1");
+        task.setTitle("Water plants");
+        task.setDueDate(at(firstStart));
+        task.setRecurrence(rule);
+        return task;
+    }
+
+    private static RecurringSeries series(String firstStart, Recurrence rule) {
+        return new RecurringSeries(task(firstStart, rule), BERLIN);
+    }
+
+    private static long at(String iso) {
+        return DateUtils.parseIso(iso);
+    }
+
+    private static List<String> starts(List<Task> occurrences) {
+        List<String> starts = new ArrayList<>();
+        for (Task occurrence : occurrences) starts.add(DateUtils.formatIso(occurrence.getDueDate()));
+        return starts;
+    }
+
+    // Local dates in Berlin
+    private static List<String> days(List<Task> occurrences) {
+        List<String> days = new ArrayList<>();
+        for (Task occurrence : occurrences) {
+            long due = occurrence.getDueDate();
+            days.add(DateUtils.formatIso(due + BERLIN.getOffset(due)).substring(0, 10));
+        }
+        return days;
+    }
+}
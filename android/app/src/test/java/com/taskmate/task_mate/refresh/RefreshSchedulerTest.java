@@ -0,0 +1,212 @@
+package com.taskmate.task_mate.refresh;
+
+import com.taskmate.task_mate.models.Task;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class RefreshSchedulerTest {
+
+    private long now = 1_000_000;
+    private Runnable scheduled;
+    private long scheduledAt;
+    private final List<String> refreshes = new ArrayList<>();
+    private RefreshScheduler scheduler;
+
+    @Before
+    public void setUp() {
+        scheduler = new RefreshScheduler(() -> now, new RefreshScheduler.Timer() {
+            @Override
+            public void schedule(Runnable task, long delayMs) {
+                scheduled = task;
+                scheduledAt = now + delayMs;
+            }
+
+            @Override
+            public void cancel(Runnable task) {
+                if (scheduled == task) scheduled = null;
+            }
+        });
+    }
+
+    @Test
+    public void nothingRunsBeforeTheFirstLoad() {
+        scheduler.start(refreshes::add);
+        assertNull(scheduled);
+        assertTrue(refreshes.isEmpty());
+
+        scheduler.onLoaded(true, "\"v1\"");
+        assertEquals(now + RefreshScheduler.INITIAL_INTERVAL_MS, scheduledAt);
+        runDue();
+        assertEquals(Arrays.asList("\"v1\""), refreshes);
+    }
+
+    @Test
+    public void busyList_refreshesMoreOften() {
+        scheduler.start(refreshes::add);
+        scheduler.onLoaded(false, null);
+        for (int i = 0; i < 30; i++) {
+            runDue();
+            scheduler.onRefreshed(true, "\"v" + i + "\"", false);
+        }
+        assertEquals(RefreshScheduler.MIN_INTERVAL_MS, scheduler.getIntervalMs());
+        assertEquals("\"v29\"", scheduler.getEtag());
+    }
+
+    @Test
+    public void quietList_backsOffToTheMaximum() {
+        scheduler.start(refreshes::add);
+        scheduler.onLoaded(false, "\"v1\"");
+        long previous = scheduler.getIntervalMs();
+        for (int i = 0; i < 30; i++) {
+            runDue();
+            scheduler.onRefreshed(false, null, true);
+            assertTrue(scheduler.getIntervalMs() >= previous);
+            previous = scheduler.getIntervalMs();
+        }
+        assertEquals(RefreshScheduler.MAX_INTERVAL_MS, scheduler.getIntervalMs());
+        // A 304 keeps the ETag we had
+        assertEquals("\"v1\"", scheduler.getEtag());
+    }
+
+    @Test
+    public void interval_followsTheObservedChangeRate() {
+        scheduler.start(refreshes::add);
+        scheduler.onLoaded(false, null);
+        // The server changes on its own about once every four minutes
+        Random random = new Random(3);
+        long nextChange = now + 240_000;
+        boolean pending = false;
+        for (int i = 0; i < 200; i++) {
+            long due = scheduledAt;
+            while (nextChange <= due) {
+                pending = true;
+                nextChange += (long) (-Math.log(1 - random.nextDouble()) * 240_000);
+            }
+            runDue();
+            scheduler.onRefreshed(pending, null, !pending);
+            pending = false;
+        }
+        // Half a change per refresh at one per four minutes is about two minutes;
+        // more often than that, refreshes find nothing and the wait grows again
+        long interval = scheduler.getIntervalMs();
+        assertTrue("interval " + interval, interval > 60_000 && interval < 6 * 60_000);
+    }
+
+    @Test
+    public void resume_refreshesOnlyWhenStale() {
+        scheduler.start(refreshes::add);
+        scheduler.onLoaded(false, null);
+        scheduler.stop();
+        assertNull(scheduled);
+
+        // Back within the interval: the rest of it is waited out
+        now += 30_000;
+        scheduler.start(refreshes::add);
+        assertTrue(refreshes.isEmpty());
+        assertEquals(now + RefreshScheduler.INITIAL_INTERVAL_MS - 30_000, scheduledAt);
+        scheduler.stop();
+
+        // Back after it: straight away
+        now += RefreshScheduler.INITIAL_INTERVAL_MS;
+        scheduler.start(refreshes::add);
+        assertEquals(1, refreshes.size());
+        // and not twice while that one is in flight
+        scheduler.stop();
+        scheduler.start(refreshes::add);
+        assertEquals(1, refreshes.size());
+    }
+
+    @Test
+    public void failures_retryAfterTheInterval() {
+        scheduler.start(refreshes::add);
+        scheduler.onLoaded(false, null);
+        runDue();
+        scheduler.onRefreshFailed();
+        assertEquals(now + scheduler.getIntervalMs(), scheduledAt);
+        runDue();
+        assertEquals(2, refreshes.size());
+        assertEquals(1, scheduler.getStats().getFailed());
+    }
+
+    @Test
+    public void stats_compareWithFixedPolling() {
+        long startedAt = now;
+        scheduler.start(refreshes::add);
+        scheduler.onLoaded(false, null);
+        for (int i = 0; i < 10; i++) {
+            runDue();
+            scheduler.onRefreshed(false, null, true);
+        }
+        scheduler.stop();
+        long shownMs = now - startedAt;
+        // Off screen time doesn't count
+        now += 3_600_000;
+
+        RefreshScheduler.Stats stats = scheduler.getStats();
+        assertEquals(10, stats.getRefreshes());
+        assertEquals(10, stats.getNotModified());
+        assertEquals(stats.getForegroundMs() / RefreshScheduler.FIXED_POLL_MS, stats.getFixedPollRequests());
+        assertEquals(shownMs, stats.getForegroundMs());
+        assertTrue(stats.getSaved() > 10);
+    }
+
+    @Test
+    public void differs_ignoresOurOwnStateAndRowsNotOnThePage() {
+        List<Task> held = Arrays.asList(task("a", "Buy milk"), task("b", "Call Sam"), task("c", "File taxes"));
+        List<Task> fetched = Arrays.asList(task("a", "Buy milk"), task("b", "Call Sam"));
+        assertFalse(RefreshScheduler.differs(fetched, held));
+
+        // A full record we hold against the summary's preview is the same row
+        Task full = task("a", "Buy milk");
+        full.setSummary(false);
+        full.setDescription("Two litres, the usual brand");
+        assertFalse(RefreshScheduler.differs(fetched, Arrays.asList(full, held.get(1))));
+
+        // Occurrences and subtasks aren't on the server's first page
+        Task occurrence = task("a", "Buy milk");
+        occurrence.setOccurrence(now);
+        Task subtask = task("s", "Skimmed");
+        subtask.setParentId("a");
+        assertFalse(RefreshScheduler.differs(fetched, Arrays.asList(subtask, held.get(0), occurrence, held.get(1))));
+    }
+
+    @Test
+    public void differs_seesAddsEditsAndRemovals() {
+        List<Task> held = Arrays.asList(task("a", "Buy milk"), task("b", "Call Sam"));
+        assertTrue(RefreshScheduler.differs(Arrays.asList(task("a", "Buy oat milk"), task("b", "Call Sam")), held));
+        assertTrue(RefreshScheduler.differs(Arrays.asList(task("n", "New"), task("a", "Buy milk")), held));
+
+        Task done = task("b", "Call Sam");
+        done.setCompleted(true);
+        assertTrue(RefreshScheduler.differs(Arrays.asList(task("a", "Buy milk"), done), held));
+        // "b" was deleted elsewhere and "c" moved up from the next page
+        assertTrue(RefreshScheduler.differs(Arrays.asList(task("a", "Buy milk"), task("c", "File taxes")),
+                Arrays.asList(task("a", "Buy milk"), task("b", "Call Sam"), task("c", "File taxes"))));
+    }
+
+    // Runs the scheduled refresh, moving the clock to when it was due
+    private void runDue() {
+        assertNotNull("Nothing scheduled", scheduled);
+        Runnable task = scheduled;
+        scheduled = null;
+        now = scheduledAt;
+        task.run();
+    }
+
+    private static Task task(String id, String title) {
+        Task task = new Task();
+        task.setId(id);
+        task.setTitle(title);
+        task.setDescription(title);
+        task.setSummary(true);
+        return task;
+    }
+}
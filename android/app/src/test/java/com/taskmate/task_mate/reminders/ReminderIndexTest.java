@@ -0,0 +1,122 @@
+package com.taskmate.task_mate.reminders;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class ReminderIndexTest {
+
+    private static final long MINUTE = 60_000L;
+    private static final long NOW = 1_700_000_000_000L;
+
+    @Test
+    public void nextTrigger_isEarliestDueMinusLead() {
+        ReminderIndex index = new ReminderIndex(15 * MINUTE);
+        index.upsert("a", "A", NOW + 120 * MINUTE, NOW);
+        index.upsert("b", "B", NOW + 60 * MINUTE, NOW);
+
+        assertEquals(NOW + 45 * MINUTE, index.nextTriggerTime());
+
+        index.upsert("b", "B", NOW + 300 * MINUTE, NOW);
+        assertEquals(NOW + 105 * MINUTE, index.nextTriggerTime());
+
+        index.remove("a");
+        index.remove("b");
+        assertEquals(ReminderIndex.NONE, index.nextTriggerTime());
+    }
+
+    @Test
+    public void pollDue_coalescesRemindersInsideTheWindow() {
+        ReminderIndex index = new ReminderIndex(0);
+        index.upsert("a", "A", NOW + 10 * MINUTE, NOW);
+        index.upsert("b", "B", NOW + 12 * MINUTE, NOW);
+        index.upsert("c", "C", NOW + 40 * MINUTE, NOW);
+
+        List<Reminder> batch = index.pollDue(NOW + 10 * MINUTE + 5 * MINUTE);
+
+        assertEquals(2, batch.size());
+        assertEquals("a", batch.get(0).getTaskId());
+        assertEquals("b", batch.get(1).getTaskId());
+        assertEquals(NOW + 40 * MINUTE, index.nextTriggerTime());
+    }
+
+    @Test
+    public void firedReminders_areNotReArmedUntilTheDueDateMoves() {
+        ReminderIndex index = new ReminderIndex(0);
+        index.upsert("a", "A", NOW + 10 * MINUTE, NOW);
+        assertEquals(1, index.pollDue(NOW + 10 * MINUTE).size());
+
+        index.upsert("a", "A", NOW + 10 * MINUTE, NOW);
+        assertEquals(ReminderIndex.NONE, index.nextTriggerTime());
+
+        index.upsert("a", "A", NOW + 30 * MINUTE, NOW);
+        assertEquals(NOW + 30 * MINUTE, index.nextTriggerTime());
+    }
+
+    @Test
+    public void replacePending_keepsFiredHistoryOfTheTasksStillThere() {
+        ReminderIndex index = new ReminderIndex(0);
+        index.upsert("a", "A", NOW + 10 * MINUTE, NOW);
+        index.upsert("b", "B", NOW + 12 * MINUTE, NOW);
+        index.upsert("gone", "Gone", NOW + 14 * MINUTE, NOW);
+        assertEquals(3, index.pollDue(NOW + 15 * MINUTE).size());
+
+        // Reloaded: "a" unchanged, "b" moved, "gone" deleted, "c" new
+        ReminderIndex fresh = new ReminderIndex(0);
+        fresh.upsert("a", "A", NOW + 10 * MINUTE, NOW);
+        fresh.upsert("b", "B", NOW + 50 * MINUTE, NOW);
+        fresh.upsert("c", "C", NOW + 40 * MINUTE, NOW);
+        index.replacePending(fresh, new HashSet<>(Arrays.asList("a", "b", "c")));
+
+        assertEquals(2, index.size());
+        assertEquals(NOW + 40 * MINUTE, index.nextTriggerTime());
+
+        // "gone" was forgotten, so the same id and due time reminds again
+        index.upsert("gone", "Gone", NOW + 14 * MINUTE, NOW);
+        assertEquals(NOW + 14 * MINUTE, index.nextTriggerTime());
+        index.upsert("a", "A", NOW + 10 * MINUTE, NOW);
+        assertEquals(3, index.size());
+    }
+
+    @Test
+    public void clear_forgetsPendingAndFired() {
+        ReminderIndex index = new ReminderIndex(0);
+        index.upsert("a", "A", NOW + 10 * MINUTE, NOW);
+        index.upsert("b", "B", NOW + 20 * MINUTE, NOW);
+        assertEquals(1, index.pollDue(NOW + 10 * MINUTE).size());
+
+        index.clear();
+        assertEquals(0, index.size());
+        assertEquals(ReminderIndex.NONE, index.nextTriggerTime());
+
+        // The next user's task with the same id and due date is reminded again
+        index.upsert("a", "A", NOW + 10 * MINUTE, NOW);
+        assertEquals(NOW + 10 * MINUTE, index.nextTriggerTime());
+    }
+
+    @Test
+    public void writeAndRead_roundTripsPendingAndFired() throws Exception {
+        ReminderIndex index = new ReminderIndex(0);
+        index.upsert("a", "A", NOW + 10 * MINUTE, NOW);
+        index.upsert("b", "B", NOW + 20 * MINUTE, NOW);
+        index.pollDue(NOW + 10 * MINUTE);
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        index.writeTo(new DataOutputStream(bytes));
+        ReminderIndex restored = new ReminderIndex(0);
+        restored.readFrom(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+
+        assertEquals(1, restored.size());
+        assertEquals(NOW + 20 * MINUTE, restored.nextTriggerTime());
+        restored.upsert("a", "A", NOW + 10 * MINUTE, NOW);
+        assertEquals(NOW + 20 * MINUTE, restored.nextTriggerTime());
+    }
+}
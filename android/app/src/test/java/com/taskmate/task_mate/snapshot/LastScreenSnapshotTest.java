@@ -0,0 +1,168 @@
+package com.taskmate.task_mate.snapshot;
+
+import com.taskmate.task_mate.models.Priority;
+import com.taskmate.task_mate.models.Recurrence;
+import com.taskmate.task_mate.models.RecurrenceFrequency;
+import com.taskmate.task_mate.models.Task;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class LastScreenSnapshotTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private File file;
+    private final List<Runnable> queued = new ArrayList<>();
+    private LastScreenSnapshot snapshot;
+
+    @Before
+    public void setUp() throws Exception {
+        file = new File(folder.getRoot(), "last_screen.bin");
+        snapshot = new LastScreenSnapshot(file, queued::add);
+    }
+
+    @Test
+    public void roundTrip_keepsWhatTheRowShows() {
+        Task task = task("a", "Water the plants 🌱");
+        task.setDescription("Balcony first, then the ficus — über alles");
+        task.setPriority(Priority.HIGH);
+        task.setCategory("home");
+        task.setTags(Arrays.asList("weekly", "q1"));
+        task.setCompleted(true);
+        Task recurring = task("b", "Stand-up");
+        recurring.setCategory("work");
+        recurring.setRecurrence(new Recurrence(RecurrenceFrequency.DAILY, 1));
+
+        assertTrue(snapshot.write(Arrays.asList(task, recurring)));
+        List<Task> rows = snapshot.read();
+
+        assertEquals(2, rows.size());
+        Task row = rows.get(0);
+        assertEquals("a", row.getId());
+        assertEquals(task.getTitle(), row.getTitle());
+        assertEquals(task.getDescription(), row.getDescription());
+        assertEquals(Priority.HIGH, row.getPriority());
+        assertEquals("home", row.getCategoryLine());
+        assertEquals(Arrays.asList("weekly", "q1"), row.getTags());
+        assertArrayEquals(task.getTagBits(), row.getTagBits());
+        assertTrue(row.isCompleted());
+        // The repeat rule is already in the line the row shows
+        assertNull(rows.get(1).getRecurrence());
+        assertEquals(recurring.getCategoryLine(), rows.get(1).getCategoryLine());
+        assertNull(rows.get(1).getDescription());
+    }
+
+    @Test
+    public void write_keepsOnlyTheFirstScreen() {
+        List<Task> tasks = new ArrayList<>();
+        for (int i = 0; i < 500; i++) tasks.add(task("t" + i, "Task " + i));
+        StringBuilder longText = new StringBuilder();
+        for (int i = 0; i < 1000; i++) longText.append("🌱");
+        tasks.get(0).setDescription(longText.toString());
+
+        snapshot.write(tasks);
+        List<Task> rows = snapshot.read();
+
+        assertEquals(LastScreenSnapshot.MAX_ROWS, rows.size());
+        assertEquals("t19", rows.get(LastScreenSnapshot.MAX_ROWS - 1).getId());
+        // Cut to a preview, and not through the middle of an emoji
+        String preview = rows.get(0).getDescription();
+        assertTrue(preview.length() <= LastScreenSnapshot.DESCRIPTION_LENGTH);
+        assertEquals(longText.substring(0, preview.length()), preview);
+        assertFalse(Character.isHighSurrogate(preview.charAt(preview.length() - 1)));
+        assertTrue(file.length() < 4096);
+    }
+
+    @Test
+    public void write_skipsRowsAlreadyOnDisk() {
+        List<Task> tasks = new ArrayList<>();
+        for (int i = 0; i < 30; i++) tasks.add(task("t" + i, "Task " + i));
+        assertTrue(snapshot.write(tasks));
+
+        // A change below the first screen encodes to the same bytes
+        tasks.set(25, task("t25", "Renamed"));
+        assertFalse(snapshot.write(tasks));
+
+        tasks.set(3, task("t3", "Renamed"));
+        assertTrue(snapshot.write(tasks));
+        assertEquals("Renamed", snapshot.read().get(3).getTitle());
+        assertFalse(new File(file.getPath() + ".tmp").exists());
+    }
+
+    @Test
+    public void save_coalescesBurstsIntoOneWrite() {
+        snapshot.save(Arrays.asList(task("a", "First")));
+        snapshot.save(Arrays.asList(task("a", "Second")));
+        snapshot.save(Arrays.asList(task("a", "Third")));
+        assertEquals(1, queued.size());
+        assertFalse(file.exists());
+
+        runQueued();
+        assertEquals("Third", snapshot.read().get(0).getTitle());
+    }
+
+    @Test
+    public void delete_dropsTheFileAndAnyPendingSave() {
+        snapshot.write(Arrays.asList(task("a", "Mine")));
+        snapshot.save(Arrays.asList(task("a", "Still mine")));
+        snapshot.delete();
+        runQueued();
+
+        assertFalse(file.exists());
+        assertTrue(snapshot.read().isEmpty());
+    }
+
+    @Test
+    public void read_ignoresMissingAndDamagedFiles() throws Exception {
+        assertTrue(snapshot.read().isEmpty());
+
+        snapshot.write(Arrays.asList(task("a", "Buy milk"), task("b", "Call Sam")));
+        byte[] whole = Files.readAllBytes(file.toPath());
+        // Cut short, as by a crash before atomic writes
+        writeFile(Arrays.copyOf(whole, whole.length - 5));
+        assertTrue(snapshot.read().isEmpty());
+
+        // Someone else's file
+        writeFile("not a snapshot at all".getBytes("UTF-8"));
+        assertTrue(snapshot.read().isEmpty());
+
+        // A future version
+        ByteBuffer newer = ByteBuffer.wrap(whole.clone());
+        newer.putInt(4, LastScreenSnapshot.VERSION + 1);
+        writeFile(newer.array());
+        assertTrue(snapshot.read().isEmpty());
+    }
+
+    private void runQueued() {
+        List<Runnable> tasks = new ArrayList<>(queued);
+        queued.clear();
+        for (Runnable task : tasks) task.run();
+    }
+
+    private void writeFile(byte[] bytes) throws Exception {
+        try (FileOutputStream out = new FileOutputStream(file)) {
+            out.write(bytes);
+        }
+    }
+
+    private static Task task(String id, String title) {
+        Task task = new Task();
+        task.setId(id);
+        task.setTitle(title);
+        return task;
+    }
+}
@@ -0,0 +1,275 @@
+package com.taskmate.task_mate.stats;
+
+import com.taskmate.task_mate.models.Task;
+import com.taskmate.task_mate.util.DateUtils;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.Random;
+import java.util.TimeZone;
+
+import static org.junit.Assert.*;
+
+public class CompletionHistoryTest {
+
+    private static final long NOW = DateUtils.parseIso("2025-03-10T09:00:00.000Z");
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private long now;
+    private CompletionHistory history;
+    private long today;
+
+    @Before
+    public void setUp() {
+        now = NOW;
+        history = new CompletionHistory(null, () -> now, TimeZone.getTimeZone("UTC"));
+        history.onTasksReplaced(Collections.emptyList());
+        today = history.today();
+    }
+
+    @Test
+    public void changes_moveTheDayCounts() {
+        Task task = task("a", NOW, false, DateUtils.NO_DATE);
+        history.onTaskUpdated(task);
+        assertEquals(1, history.getCounts().getCreated(today));
+
+        history.onTaskUpdated(completed(task, NOW));
+        history.onTaskUpdated(completed(task, NOW));
+        assertEquals(1, history.getCounts().getCompleted(today));
+
+        history.onTaskUpdated(task);
+        assertEquals(0, history.getCounts().getCompleted(today));
+
+        history.onTaskUpdated(completed(task, NOW + DateUtils.DAY_MS));
+        assertEquals(1, history.getCounts().getCompleted(today + 1));
+
+        history.onTaskRemoved("a");
+        assertEquals(0, history.getCounts().getCreated(today));
+        assertEquals(0, history.getCounts().getCompleted(today + 1));
+    }
+
+    @Test
+    public void appendedPage_isRememberedNotCounted() {
+        // Created after the last sync, but it came in a further page of the
+        // server's list, so the server's counts have it already
+        Task later = task("later", NOW - DateUtils.HOUR_MS, true, NOW - DateUtils.HOUR_MS);
+        history.onTasksAppended(Collections.singletonList(later));
+        assertEquals(0, history.getCounts().getCreated(today));
+        assertEquals(0, history.getCounts().getCompleted(today));
+
+        // Remembered: hearing of it again is no news, where a task new to
+        // the history would be counted now
+        history.onTaskUpdated(later);
+        assertEquals(0, history.getCounts().getCreated(today));
+        assertEquals(0, history.getCounts().getCompleted(today));
+    }
+
+    @Test
+    public void completionWithoutTime_countsTodayUntilTheServerSaysOtherwise() {
+        Task task = task("a", NOW - 3 * DateUtils.DAY_MS, false, DateUtils.NO_DATE);
+        history.onTasksReplaced(Collections.singletonList(task));
+
+        history.onTaskUpdated(completed(task, DateUtils.NO_DATE));
+        assertEquals(1, history.getCounts().getCompleted(today));
+
+        // The server stamped it just before midnight yesterday
+        history.onTaskUpdated(completed(task, NOW - 10 * DateUtils.HOUR_MS));
+        assertEquals(0, history.getCounts().getCompleted(today));
+        assertEquals(1, history.getCounts().getCompleted(today - 1));
+    }
+
+    @Test
+    public void loadedTasks_areAlreadyInTheCounts() {
+        Task done = task("done", NOW - 5 * DateUtils.DAY_MS, true, NOW - 2 * DateUtils.DAY_MS);
+        history.applyServerHistory(today - 5, new int[]{1, 0, 0, 0, 0, 0}, new int[]{0, 0, 0, 1, 0, 0}, NOW);
+        history.onTasksReplaced(Collections.singletonList(done));
+
+        history.onTaskUpdated(done);
+        assertEquals(1, history.getCounts().getCompleted(today - 2));
+
+        // Reopening and deleting take back what the server had counted
+        history.onTaskUpdated(task("done", NOW - 5 * DateUtils.DAY_MS, false, DateUtils.NO_DATE));
+        history.onTaskRemoved("done");
+        assertEquals(0, history.getCounts().getCompleted(today - 2));
+        assertEquals(0, history.getCounts().getCreated(today - 5));
+    }
+
+    @Test
+    public void unseenTasks_addOnlyWhatHappenedAfterTheSync() {
+        history.applyServerHistory(today - 1, new int[]{1, 0}, new int[]{0, 1}, NOW - DateUtils.HOUR_MS);
+
+        // A subtask opened in the detail screen: created before the sync, completed after
+        history.onTaskUpdated(task("sub", NOW - DateUtils.DAY_MS, true, NOW));
+        assertEquals(1, history.getCounts().getCreated(today - 1));
+        assertEquals(2, history.getCounts().getCompleted(today));
+
+        history.onTaskRemoved("sub");
+        assertEquals(0, history.getCounts().getCreated(today - 1));
+        assertEquals(1, history.getCounts().getCompleted(today));
+    }
+
+    @Test
+    public void completionOnUnknownDay_isNotCountedTwice() {
+        Task old = task("old", NOW - 9 * DateUtils.DAY_MS, true, DateUtils.NO_DATE);
+        history.applyServerHistory(today - 1, new int[]{0, 0}, new int[]{1, 0}, NOW);
+        history.onTasksReplaced(Collections.singletonList(old));
+
+        history.onTaskUpdated(completed(old, NOW - DateUtils.DAY_MS));
+        assertEquals(1, history.getCounts().getCompleted(today - 1));
+    }
+
+    @Test
+    public void occurrences_areNotCounted() {
+        Task occurrence = task("series", NOW, true, NOW);
+        occurrence.setOccurrence(NOW);
+        history.onTaskUpdated(occurrence);
+
+        assertEquals(0, history.getCounts().getCreated(today));
+        assertEquals(0, history.getCounts().getCompleted(today));
+    }
+
+    @Test
+    public void streaks_allowTodayToBeEmpty() {
+        DailyCounts counts = history.getCounts();
+        for (int back = 1; back <= 4; back++) counts.add(today - back, 0, 1);
+        for (int back = 10; back <= 16; back++) counts.add(today - back, 0, 2);
+
+        assertEquals(4, history.currentStreak());
+        assertEquals(7, history.longestStreak());
+
+        counts.add(today, 0, 1);
+        assertEquals(5, history.currentStreak());
+        now += 2 * DateUtils.DAY_MS;
+        assertEquals(0, history.currentStreak());
+    }
+
+    @Test
+    public void downsample_keepsTotalsAndAlignsBars() {
+        DailyCounts counts = history.getCounts();
+        Random random = new Random(7);
+        int total = 0;
+        for (long day = today - 364; day <= today; day++) {
+            int completed = random.nextInt(5);
+            counts.add(day, 0, completed);
+            total += completed;
+        }
+
+        DailyCounts.Series series = counts.downsample(today - 364, today, 100);
+        assertEquals(4, series.getDaysPerBar());
+        assertTrue(series.size() <= 100);
+        assertEquals(total, Math.round(sumOfCompleted(series)));
+
+        // A day later the bars in the middle cover the same days
+        DailyCounts.Series later = counts.downsample(today - 363, today + 1, 100);
+        long day = series.getBarStart(10);
+        assertEquals(day + 3, series.getBarEnd(10));
+        assertEquals(series.getCompleted(10), later.getCompleted(barStartingOn(later, day)), 0.0001f);
+
+        DailyCounts.Series daily = counts.downsample(today - 29, today, 300);
+        assertEquals(1, daily.getDaysPerBar());
+        assertEquals(30, daily.size());
+        assertEquals(counts.getCompleted(today), (int) daily.getCompleted(29));
+    }
+
+    @Test
+    public void daysOlderThanTheRing_areDropped() {
+        DailyCounts counts = new DailyCounts(10);
+        counts.add(100, 1, 1);
+        counts.add(110, 2, 0);
+        counts.add(100, 5, 5);
+
+        assertEquals(0, counts.getCreated(100));
+        assertEquals(2, counts.getCreated(110));
+    }
+
+    @Test
+    public void counts_surviveARoundTrip() throws IOException {
+        DailyCounts counts = history.getCounts();
+        counts.add(today, 3, 2);
+        counts.add(today - 400, 1, 0);
+        counts.setSyncedAt(NOW);
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        counts.writeTo(new DataOutputStream(bytes));
+
+        DailyCounts read = new DailyCounts(CompletionHistory.DAYS);
+        read.readFrom(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+
+        assertEquals(3, read.getCreated(today));
+        assertEquals(2, read.getCompleted(today));
+        assertEquals(1, read.getCreated(today - 400));
+        assertEquals(NOW, read.getSyncedAt());
+        // Twelve bytes per day that has counts, after a 20-byte header
+        assertEquals(20 + 2 * 12, bytes.size());
+    }
+
+    @Test
+    public void clear_forgetsCountsAndTheFile() throws Exception {
+        File file = folder.newFile("completion_history.bin");
+        CompletionHistory saved = new CompletionHistory(file, () -> now, TimeZone.getTimeZone("UTC"));
+        saved.applyServerHistory(today - 1, new int[]{2, 1}, new int[]{1, 1}, NOW);
+        Task task = task("a", NOW, false, DateUtils.NO_DATE);
+        saved.onTasksReplaced(Collections.singletonList(task));
+
+        saved.clear();
+        assertEquals(0, saved.getCounts().getCreated(today - 1));
+        assertEquals(0, saved.getCounts().getCompleted(today));
+        assertEquals(0, saved.getCounts().getSyncedAt());
+        awaitDeleted(file);
+
+        // Not counted any more, so removing it takes nothing back
+        saved.onTaskRemoved("a");
+        assertEquals(0, saved.getCounts().getCreated(today));
+    }
+
+    private static void awaitDeleted(File file) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (file.exists()) {
+            assertTrue("Timed out", System.currentTimeMillis() < deadline);
+            Thread.sleep(5);
+        }
+    }
+
+    private static float sumOfCompleted(DailyCounts.Series series) {
+        float sum = 0;
+        for (int bar = 0; bar < series.size(); bar++) {
+            sum += series.getCompleted(bar) * (series.getBarEnd(bar) - series.getBarStart(bar) + 1);
+        }
+        return sum;
+    }
+
+    private static int barStartingOn(DailyCounts.Series series, long day) {
+        for (int bar = 0; bar < series.size(); bar++) {
+            if (series.getBarStart(bar) == day) return bar;
+        }
+        throw new AssertionError("No bar starts on day " + day);
+    }
+
+    private static Task completed(Task task, long completedAt) {
+        Task copy = task.copy();
+        copy.setCompleted(true);
+        copy.setCompletedAt(completedAt);
+        return copy;
+    }
+
+    private static Task task(String id, long createdAt, boolean completed, long completedAt) {
+        Task task = new Task();
+        task.setId(id);
+        task.setTitle(id);
+        task.setCreatedAt(createdAt);
+        task.setCompleted(completed);
+        task.setCompletedAt(completedAt);
+        return task;
+    }
+}
@@ -0,0 +1,210 @@
+package com.taskmate.task_mate.subtasks;
+
+import com.taskmate.task_mate.models.Task;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class TaskTreeTest {
+
+    private final List<String> events = new ArrayList<>();
+    private TaskTree tree;
+
+    @Before
+    public void setUp() {
+        tree = new TaskTree(task("root", 5, 1, false));
+        tree.setListener(new TaskTree.Listener() {
+            @Override
+            public void onRowsInserted(int position, int count) {
+                events.add("+" + position + ":" + count);
+            }
+
+            @Override
+            public void onRowsRemoved(int position, int count) {
+                events.add("-" + position + ":" + count);
+            }
+
+            @Override
+            public void onRowChanged(int position) {
+                events.add("~" + position);
+            }
+        });
+    }
+
+    @Test
+    public void collapsedBranches_areNotLoadedUntilExpanded() {
+        tree.setChildren(tree.getRoot(), Arrays.asList(
+                task("a", 2, 1, false), task("b", 0, 0, true), task("c", 0, 0, false)));
+        assertEquals(Arrays.asList("+0:3"), events);
+
+        TaskTree.Node a = tree.find("a");
+        assertTrue(a.hasChildren());
+        assertFalse(a.isLoaded());
+        assertFalse(tree.expand(a));
+        assertEquals(3, tree.getRowCount());
+
+        events.clear();
+        tree.setChildren(a, Arrays.asList(task("a1", 0, 0, true), task("a2", 0, 0, false)));
+        assertEquals(Arrays.asList("+1:2"), events);
+        assertEquals(Arrays.asList("a", "a1", "a2", "b", "c"), rowIds());
+        assertEquals(1, tree.getRow(1).getDepth());
+    }
+
+    @Test
+    public void expandAndCollapse_spliceOnlyTheBranch() {
+        tree.setChildren(tree.getRoot(), Arrays.asList(task("a", 2, 0, false), task("b", 0, 0, false)));
+        TaskTree.Node a = tree.find("a");
+        tree.expand(a);
+        tree.setChildren(a, Arrays.asList(task("a1", 1, 0, false), task("a2", 0, 0, false)));
+        TaskTree.Node a1 = tree.find("a1");
+        tree.expand(a1);
+        tree.setChildren(a1, Arrays.asList(task("a1x", 0, 0, false)));
+        assertEquals(Arrays.asList("a", "a1", "a1x", "a2", "b"), rowIds());
+
+        events.clear();
+        tree.collapse(a);
+        assertEquals(Arrays.asList("-1:3", "~0"), events);
+        assertEquals(Arrays.asList("a", "b"), rowIds());
+
+        // Nested expansion state is kept while the parent is collapsed
+        events.clear();
+        assertTrue(tree.expand(a));
+        assertEquals(Arrays.asList("+1:3", "~0"), events);
+        assertEquals(Arrays.asList("a", "a1", "a1x", "a2", "b"), rowIds());
+
+        // Expanding twice doesn't duplicate rows
+        events.clear();
+        assertTrue(tree.expand(a));
+        assertTrue(events.isEmpty());
+    }
+
+    @Test
+    public void completion_propagatesUpTheTree() {
+        tree.setChildren(tree.getRoot(), Arrays.asList(task("a", 2, 0, false)));
+        TaskTree.Node a = tree.find("a");
+        tree.expand(a);
+        tree.setChildren(a, Arrays.asList(task("a1", 0, 0, false), task("a2", 0, 0, false)));
+
+        tree.setCompleted(tree.find("a1"), true);
+        assertEquals(1, a.getDone());
+        assertEquals(2, tree.getRoot().getDone());
+        assertTrue(tree.find("a1").getTask().isCompleted());
+
+        // No double counting
+        tree.setCompleted(tree.find("a1"), true);
+        assertEquals(2, tree.getRoot().getDone());
+
+        tree.setCompleted(tree.find("a1"), false);
+        assertEquals(0, a.getDone());
+        assertEquals(1, tree.getRoot().getDone());
+    }
+
+    @Test
+    public void add_toUnloadedBranch_onlyUpdatesCounts() {
+        tree.setChildren(tree.getRoot(), Arrays.asList(task("a", 4, 3, false)));
+        TaskTree.Node a = tree.find("a");
+        events.clear();
+
+        tree.add(a, task("new", 0, 0, false));
+        assertFalse(a.isLoaded());
+        assertNull(tree.find("new"));
+        assertEquals(5, a.getTotal());
+        assertEquals(6, tree.getRoot().getTotal());
+        assertEquals(Arrays.asList("~0"), events);
+
+        tree.add(tree.getRoot(), task("b", 0, 0, true));
+        assertEquals(Arrays.asList("a", "b"), rowIds());
+        assertEquals(7, tree.getRoot().getTotal());
+        assertEquals(2, tree.getRoot().getDone());
+    }
+
+    @Test
+    public void remove_dropsRowsAndCounts() {
+        tree.setChildren(tree.getRoot(), Arrays.asList(task("a", 2, 1, true), task("b", 0, 0, false)));
+        TaskTree.Node a = tree.find("a");
+        tree.expand(a);
+        tree.setChildren(a, Arrays.asList(task("a1", 0, 0, true), task("a2", 0, 0, false)));
+        int total = tree.getRoot().getTotal();
+        int done = tree.getRoot().getDone();
+
+        events.clear();
+        tree.remove(a);
+        assertEquals("-0:3", events.get(0));
+        assertEquals(Arrays.asList("b"), rowIds());
+        assertEquals(total - 3, tree.getRoot().getTotal());
+        assertEquals(done - 2, tree.getRoot().getDone());
+        assertNull(tree.find("a1"));
+    }
+
+    // 100 branches of 100 subtasks, all expanded: toggling one branch in the
+    // middle touches its own rows only and leaves what a full flatten gives
+    @Test
+    public void toggleInLargeTree_splicesOnlyThatBranch() {
+        List<Task> top = new ArrayList<>();
+        for (int i = 0; i < 100; i++) top.add(task("t" + i, 100, 0, false));
+        tree.setChildren(tree.getRoot(), top);
+        for (int i = 0; i < 100; i++) {
+            TaskTree.Node node = tree.find("t" + i);
+            tree.expand(node);
+            List<Task> children = new ArrayList<>();
+            for (int j = 0; j < 100; j++) children.add(task("t" + i + "." + j, 0, 0, j % 3 == 0));
+            tree.setChildren(node, children);
+        }
+        assertEquals(10_100, tree.getRowCount());
+        TaskTree.Node middle = tree.find("t50");
+
+        events.clear();
+        tree.collapse(middle);
+        assertEquals(Arrays.asList("-5051:100", "~5050"), events);
+        assertEquals(10_000, tree.getRowCount());
+        assertRowsMatchFlatten();
+
+        events.clear();
+        tree.expand(middle);
+        assertEquals(Arrays.asList("+5051:100", "~5050"), events);
+        assertEquals("t50.0", tree.getRow(5051).getTask().getId());
+        assertEquals("t51", tree.getRow(5151).getTask().getId());
+        assertRowsMatchFlatten();
+    }
+
+    private void assertRowsMatchFlatten() {
+        List<TaskTree.Node> expected = flatten(tree.getRoot());
+        assertEquals(expected.size(), tree.getRowCount());
+        for (int i = 0; i < expected.size(); i++) assertSame(expected.get(i), tree.getRow(i));
+    }
+
+    private static List<TaskTree.Node> flatten(TaskTree.Node node) {
+        List<TaskTree.Node> out = new ArrayList<>();
+        appendExpanded(node, out);
+        return out;
+    }
+
+    private static void appendExpanded(TaskTree.Node node, List<TaskTree.Node> out) {
+        for (TaskTree.Node child : node.getChildren()) {
+            out.add(child);
+            if (child.isExpanded()) appendExpanded(child, out);
+        }
+    }
+
+    private List<String> rowIds() {
+        List<String> ids = new ArrayList<>();
+        for (int i = 0; i < tree.getRowCount(); i++) ids.add(tree.getRow(i).getTask().getId());
+        return ids;
+    }
+
+    private static Task task(String id, int subtasks, int subtasksDone, boolean completed) {
+        Task task = new Task();
+        task.setId(id);
+        task.setTitle(id);
+        task.setSubtaskCount(subtasks);
+        task.setSubtasksDone(subtasksDone);
+        task.setCompleted(completed);
+        return task;
+    }
+}
@@ -0,0 +1,149 @@
+package com.taskmate.task_mate.tags;
+
+import com.taskmate.task_mate.models.Task;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class TagFilterTest {
+
+    @Test
+    public void any_matchesTasksWithAtLeastOneTag() {
+        Task work = task("work", "q1");
+        Task home = task("home");
+        Task none = task();
+
+        TagFilter filter = TagFilter.of(TagFilter.Mode.ANY, Arrays.asList("q1", "home"));
+
+        assertTrue(filter.matches(work));
+        assertTrue(filter.matches(home));
+        assertFalse(filter.matches(none));
+    }
+
+    @Test
+    public void all_requiresEveryTag() {
+        Task both = task("work", "q1", "team");
+        Task one = task("work");
+
+        TagFilter filter = TagFilter.of(TagFilter.Mode.ALL, Arrays.asList("work", "q1"));
+
+        assertTrue(filter.matches(both));
+        assertFalse(filter.matches(one));
+    }
+
+    @Test
+    public void unknownTags_neverMatchAllAndAreIgnoredByAny() {
+        Task work = task("work");
+
+        assertFalse(TagFilter.of(TagFilter.Mode.ALL, Arrays.asList("work", "never-seen-tag")).matches(work));
+        assertTrue(TagFilter.of(TagFilter.Mode.ANY, Arrays.asList("work", "never-seen-tag")).matches(work));
+        assertFalse(TagFilter.of(TagFilter.Mode.ANY, Collections.singletonList("never-seen-tag")).matches(work));
+        assertEquals(TagDictionary.UNKNOWN, TagDictionary.lookup("never-seen-tag"));
+    }
+
+    @Test
+    public void emptyFilter_returnsListUnchanged() {
+        List<Task> tasks = Arrays.asList(task("a"), task());
+        assertSame(tasks, TagFilter.of(TagFilter.Mode.ALL, Collections.emptyList()).apply(tasks));
+    }
+
+    @Test
+    public void bits_spanSeveralWords() {
+        List<String> many = new ArrayList<>();
+        for (int i = 0; i < 200; i++) many.add("bulk-" + i);
+        Task task = task(many.get(3), many.get(130), many.get(199));
+
+        assertTrue(TagFilter.of(TagFilter.Mode.ALL, Arrays.asList(many.get(130), many.get(199))).matches(task));
+        assertFalse(TagFilter.of(TagFilter.Mode.ALL, Arrays.asList(many.get(130), many.get(131))).matches(task));
+        assertTrue(TagFilter.of(TagFilter.Mode.ANY, Arrays.asList(many.get(64), many.get(199))).matches(task));
+        assertEquals(3, TagBits.count(task.getTagBits()));
+    }
+
+    @Test
+    public void index_countsTagsMostUsedFirst() {
+        List<Task> tasks = Arrays.asList(task("idx-b", "idx-a"), task("idx-a"), task("idx-c", "idx-a"), task("idx-c"));
+
+        TagIndex index = TagIndex.build(tasks);
+
+        assertEquals(Arrays.asList("idx-a", "idx-c", "idx-b"), index.getTags());
+        assertEquals(3, index.getCount(0));
+        assertEquals(2, index.getCount(1));
+        assertEquals(1, index.getCount(2));
+    }
+
+    @Test
+    public void index_followsChangesOneTaskAtATime() {
+        Task b = withId("b", task("inc-b", "inc-a"));
+        Task c = withId("c", task("inc-c", "inc-a"));
+        TagIndex index = TagIndex.build(Arrays.asList(withId("a", task("inc-a")), b, c));
+        List<String> before = index.getTags();
+        assertEquals(Arrays.asList("inc-a", "inc-b", "inc-c"), before);
+
+        // The same tags again leave the chips as they were
+        index.update(withId("b", task("inc-a", "inc-b")));
+        assertSame(before, index.getTags());
+
+        index.update(withId("b", task("inc-c")));
+        index.update(withId("d", task("inc-d", "inc-c")));
+        assertEquals(Arrays.asList("inc-c", "inc-a", "inc-d"), index.getTags());
+        assertEquals(3, index.getCount(0));
+
+        index.remove("c");
+        index.remove("d");
+        index.remove("missing");
+        assertEquals(Arrays.asList("inc-a", "inc-c"), index.getTags());
+        assertEquals(1, index.getCount(1));
+        assertEquals(TagIndex.build(Arrays.asList(withId("a", task("inc-a")), withId("b", task("inc-c")))).getTags(),
+                index.getTags());
+    }
+
+    // 20k tasks with 3 of 40 tags each, ALL of two tags: the bitset finds
+    // what List.containsAll does
+    @Test
+    public void filter_agreesWithStringMatch() {
+        List<Task> tasks = new ArrayList<>();
+        for (int i = 0; i < 20_000; i++) {
+            tasks.add(task("bench-" + (i % 40), "bench-" + ((i * 7) % 40), "bench-" + ((i * 13) % 40)));
+        }
+        // Fresh strings, as typed or read from prefs: no identity shortcut in equals
+        List<String> wanted = Arrays.asList(new String("bench-7"), new String("bench-9"));
+        TagFilter filter = TagFilter.of(TagFilter.Mode.ALL, wanted);
+
+        int matches = countMatches(filter, tasks);
+        assertTrue(matches > 0);
+        assertEquals(countStringMatches(tasks, wanted), matches);
+    }
+
+    private static int countMatches(TagFilter filter, List<Task> tasks) {
+        int count = 0;
+        for (Task task : tasks) {
+            if (filter.matches(task)) count++;
+        }
+        return count;
+    }
+
+    private static int countStringMatches(List<Task> tasks, List<String> wanted) {
+        int count = 0;
+        for (Task task : tasks) {
+            if (task.getTags().containsAll(wanted)) count++;
+        }
+        return count;
+    }
+
+    private static Task withId(String id, Task task) {
+        task.setId(id);
+        return task;
+    }
+
+    private static Task task(String... tags) {
+        Task task = new Task();
+        task.setTags(Arrays.asList(tags));
+        return task;
+    }
+}
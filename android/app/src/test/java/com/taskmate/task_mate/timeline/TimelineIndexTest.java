@@ -0,0 +1,204 @@
+package com.taskmate.task_mate.timeline;
+
+import com.taskmate.task_mate.models.Recurrence;
+import com.taskmate.task_mate.models.RecurrenceFrequency;
+import com.taskmate.task_mate.models.Task;
+import com.taskmate.task_mate.models.TaskStatus;
+import com.taskmate.task_mate.util.DateUtils;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.TimeZone;
+
+import static org.junit.Assert.*;
+
+public class TimelineIndexTest {
+
+    // Monday
+    private static final long NOW = DateUtils.parseIso("2025-03-10T09:00:00.000Z");
+
+    private long now;
+    private TimelineIndex index;
+
+    @Before
+    public void setUp() {
+        now = NOW;
+        index = new TimelineIndex(() -> now, TimeZone.getTimeZone("UTC"));
+    }
+
+    @Test
+    public void tasks_areBucketedByLocalDayInDueOrder() {
+        index.upsert(task("late", "2025-03-10T18:00:00.000Z"));
+        index.upsert(task("early", "2025-03-10T07:00:00.000Z"));
+        index.upsert(task("next", "2025-03-11T07:00:00.000Z"));
+        index.upsert(task("undated", null));
+
+        long today = index.dayOf(NOW);
+        assertArrayEquals(new long[]{today, today + 1}, index.getDays());
+        assertEquals(Arrays.asList("early", "late"), ids(index.tasksOnDay(today)));
+        assertEquals(3, index.size());
+    }
+
+    @Test
+    public void dayOf_followsTimeZone() {
+        TimelineIndex tokyo = new TimelineIndex(() -> now, TimeZone.getTimeZone("Asia/Tokyo"));
+        long instant = DateUtils.parseIso("2025-03-10T20:00:00.000Z");
+
+        assertEquals(index.dayOf(instant) + 1, tokyo.dayOf(instant));
+    }
+
+    @Test
+    public void weeks_startOnMonday() {
+        long monday = index.dayOf(NOW);
+        assertEquals(TimelineIndex.weekOf(monday), TimelineIndex.weekOf(monday + 6));
+        assertEquals(TimelineIndex.weekOf(monday) - 1, TimelineIndex.weekOf(monday - 1));
+
+        index.upsert(task("a", "2025-03-10T10:00:00.000Z"));
+        index.upsert(task("b", "2025-03-16T10:00:00.000Z"));
+        index.upsert(task("c", "2025-03-17T10:00:00.000Z"));
+        assertEquals(2, index.countInWeek(TimelineIndex.weekOf(monday)));
+
+        index.remove("b");
+        assertEquals(1, index.countInWeek(TimelineIndex.weekOf(monday)));
+    }
+
+    @Test
+    public void tasksBetween_isHalfOpenAcrossBuckets() {
+        index.upsert(task("a", "2025-03-09T23:59:59.999Z"));
+        index.upsert(task("b", "2025-03-10T00:00:00.000Z"));
+        index.upsert(task("c", "2025-03-12T12:00:00.000Z"));
+        index.upsert(task("d", "2025-03-13T00:00:00.000Z"));
+
+        List<Task> range = index.tasksBetween(DateUtils.parseIso("2025-03-10T00:00:00.000Z"),
+                DateUtils.parseIso("2025-03-13T00:00:00.000Z"));
+
+        assertEquals(Arrays.asList("b", "c"), ids(range));
+    }
+
+    @Test
+    public void recurringTasks_areExpandedPerDayInsideTheWindow() {
+        Task daily = task("daily", "2024-01-01T08:00:00.000Z");
+        daily.setRecurrence(new Recurrence(RecurrenceFrequency.DAILY, 1));
+        index.upsert(daily);
+        index.upsert(task("one-off", "2025-03-10T07:00:00.000Z"));
+
+        long today = index.dayOf(NOW);
+        assertEquals(2, index.size());
+        assertEquals(Arrays.asList("one-off", "daily"), ids(index.tasksOnDay(today)));
+        assertTrue(index.tasksOnDay(today).get(1).isOccurrence());
+        // Seven occurrences plus the one-off
+        assertEquals(8, index.countInWeek(TimelineIndex.weekOf(today)));
+        assertEquals(3, index.tasksBetween(NOW - DateUtils.DAY_MS, NOW + DateUtils.DAY_MS).size());
+
+        // Listed only within the window, which grows on request
+        long[] days = index.getDays();
+        long windowEnd = index.getWindowEnd();
+        assertEquals(windowEnd - 1, days[days.length - 1]);
+        assertTrue(index.tasksOnDay(windowEnd).isEmpty());
+        assertTrue(index.extendWindowTo(windowEnd + TimelineIndex.WINDOW_STEP_DAYS));
+        assertEquals(days.length + TimelineIndex.WINDOW_STEP_DAYS, index.getDays().length);
+
+        // Missed occurrences aren't overdue (only the one-off is), and removing the series drops them all
+        assertEquals(1, index.getOverdueCount());
+        index.remove("daily");
+        assertArrayEquals(new long[]{today}, index.getDays());
+        assertFalse(index.extendWindowTo(windowEnd + 2 * TimelineIndex.WINDOW_STEP_DAYS));
+    }
+
+    @Test
+    public void preparedReplace_swapsInTheSameIndex() {
+        index.upsert(task("old", "2025-03-10T07:00:00.000Z"));
+        Task daily = task("daily", "2024-01-01T08:00:00.000Z");
+        daily.setRecurrence(new Recurrence(RecurrenceFrequency.DAILY, 1));
+        index.upsert(daily);
+        List<Task> loaded = Arrays.asList(task("past", "2025-03-09T10:00:00.000Z"),
+                task("next", "2025-03-11T07:00:00.000Z"), daily);
+
+        Runnable swap = index.prepareReplace(loaded);
+        // Nothing changes until the swap; the window may grow meanwhile
+        assertEquals(Arrays.asList("old", "daily"), ids(index.tasksOnDay(index.dayOf(NOW))));
+        long windowEnd = index.getWindowEnd();
+        assertTrue(index.extendWindowTo(windowEnd + TimelineIndex.WINDOW_STEP_DAYS));
+        swap.run();
+
+        TimelineIndex rebuilt = new TimelineIndex(() -> now, TimeZone.getTimeZone("UTC"));
+        rebuilt.onTasksReplaced(loaded);
+        rebuilt.extendWindowTo(windowEnd + TimelineIndex.WINDOW_STEP_DAYS);
+        assertArrayEquals(rebuilt.getDays(), index.getDays());
+        assertEquals(rebuilt.size(), index.size());
+        assertEquals(1, index.getOverdueCount());
+        assertTrue(index.tasksOnDay(index.dayOf(NOW)).get(0).isOccurrence());
+    }
+
+    @Test
+    public void overdueCount_tracksClockAndChanges() {
+        index.upsert(task("past", "2025-03-09T10:00:00.000Z"));
+        index.upsert(task("soon", "2025-03-10T10:00:00.000Z"));
+        index.upsert(task("later", "2025-03-12T10:00:00.000Z"));
+        Task done = task("done", "2025-03-08T10:00:00.000Z");
+        done.setCompleted(true);
+        done.setStatus(TaskStatus.COMPLETED);
+        index.upsert(done);
+        assertEquals(1, index.getOverdueCount());
+        assertEquals(DateUtils.parseIso("2025-03-10T10:00:00.000Z") + 1, index.nextOverdueAt());
+
+        now = DateUtils.parseIso("2025-03-10T11:00:00.000Z");
+        assertEquals(2, index.getOverdueCount());
+
+        // Completing an overdue task and removing a pending one
+        Task completed = task("soon", "2025-03-10T10:00:00.000Z");
+        completed.setCompleted(true);
+        index.upsert(completed);
+        index.remove("later");
+        assertEquals(1, index.getOverdueCount());
+        assertEquals(Long.MAX_VALUE, index.nextOverdueAt());
+
+        // Moving the past task into the future
+        index.upsert(task("past", "2025-04-01T10:00:00.000Z"));
+        assertEquals(0, index.getOverdueCount());
+    }
+
+    @Test
+    public void randomEdits_matchFullScan() {
+        Random random = new Random(11);
+        List<Task> live = new ArrayList<>();
+        for (int step = 0; step < 3000; step++) {
+            if (random.nextInt(4) == 0 && !live.isEmpty()) {
+                Task removed = live.remove(random.nextInt(live.size()));
+                index.remove(removed.getId());
+            } else {
+                Task task = task("t" + random.nextInt(800), null);
+                task.setDueDate(NOW + (random.nextInt(120) - 60) * DateUtils.HOUR_MS);
+                task.setCompleted(random.nextInt(5) == 0);
+                live.removeIf(t -> t.getId().equals(task.getId()));
+                live.add(task);
+                index.upsert(task);
+            }
+            if (step % 500 == 0) now += 7 * DateUtils.HOUR_MS;
+        }
+
+        int overdue = 0;
+        for (Task task : live) if (task.isOverdue(now)) overdue++;
+        assertEquals(overdue, index.getOverdueCount());
+        assertEquals(live.size(), index.tasksBetween(Long.MIN_VALUE / 4, Long.MAX_VALUE / 4).size());
+    }
+
+    private static Task task(String id, String due) {
+        Task task = new Task();
+        task.setId(id);
+        task.setTitle(id);
+        task.setDueDate(DateUtils.parseIso(due));
+        return task;
+    }
+
+    private static List<String> ids(List<Task> tasks) {
+        List<String> ids = new ArrayList<>();
+        for (Task task : tasks) ids.add(task.getId());
+        return ids;
+    }
+}
@@ -0,0 +1,109 @@
+package com.taskmate.task_mate.util;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class OrderKeysTest {
+
+    @Test
+    public void between_isStrictlyBetween() {
+        assertBetween(null, null);
+        assertBetween(null, "V");
+        assertBetween("V", null);
+        assertBetween("V", "W");
+        assertBetween("V", "V1");
+        assertBetween("0V", "1");
+        assertBetween("Az", "B");
+        assertBetween("zz", null);
+        assertBetween(null, "01");
+    }
+
+    @Test
+    public void between_prefersShortKeys() {
+        assertEquals("V", OrderKeys.between(null, null));
+        assertEquals("l", OrderKeys.between("V", null));
+        assertEquals("G", OrderKeys.between(null, "V"));
+        assertEquals("A", OrderKeys.between("5", "F"));
+        assertEquals("0V", OrderKeys.between(null, "1"));
+        assertEquals("B", OrderKeys.between("A", "B1"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void between_rejectsReversedBounds() {
+        OrderKeys.between("B", "A");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void between_rejectsTrailingZero() {
+        OrderKeys.between("A0", null);
+    }
+
+    @Test
+    public void randomMoves_keepListSortedAndKeysShort() {
+        List<String> keys = new ArrayList<>(Arrays.asList(OrderKeys.spread(200)));
+        Random random = new Random(11);
+        for (int i = 0; i < 10_000; i++) {
+            keys.remove(random.nextInt(keys.size()));
+            int to = random.nextInt(keys.size() + 1);
+            String key = OrderKeys.between(to > 0 ? keys.get(to - 1) : null, to < keys.size() ? keys.get(to) : null);
+            keys.add(to, key);
+        }
+        int longest = 0;
+        for (int i = 1; i < keys.size(); i++) {
+            assertTrue(keys.get(i - 1).compareTo(keys.get(i)) < 0);
+            longest = Math.max(longest, keys.get(i).length());
+        }
+        assertFalse(OrderKeys.isTooLong(keys.get(0)));
+        assertTrue("longest key " + longest, longest <= 8);
+    }
+
+    @Test
+    public void sameGap_growsSlowlyUntilRespaced() {
+        // New tasks always go to the top: the worst case for one gap
+        String first = "V";
+        int inserts = 0;
+        while (!OrderKeys.isTooLong(first)) {
+            first = OrderKeys.between(null, first);
+            inserts++;
+        }
+        assertTrue("respaced after " + inserts + " inserts", inserts > 100);
+    }
+
+    @Test
+    public void spread_isAscendingAndShort() {
+        assertEquals(0, OrderKeys.spread(0).length);
+        assertArrayEquals(new String[]{"V"}, OrderKeys.spread(1));
+
+        String[] keys = OrderKeys.spread(1_000);
+        for (int i = 0; i < keys.length; i++) {
+            assertTrue(keys[i].length() <= 2);
+            assertFalse(keys[i].endsWith("0"));
+            if (i > 0) {
+                assertTrue(keys[i - 1].compareTo(keys[i]) < 0);
+                // Room for a move between any two neighbours
+                assertBetween(keys[i - 1], keys[i]);
+            }
+        }
+    }
+
+    @Test
+    public void compare_putsMissingKeysLast() {
+        assertTrue(OrderKeys.compare("A", null) < 0);
+        assertTrue(OrderKeys.compare(null, "A") > 0);
+        assertEquals(0, OrderKeys.compare(null, null));
+        assertTrue(OrderKeys.compare("A", "B") < 0);
+    }
+
+    private static void assertBetween(String before, String after) {
+        String key = OrderKeys.between(before, after);
+        assertFalse(key.endsWith("0"));
+        if (before != null) assertTrue(key + " > " + before, key.compareTo(before) > 0);
+        if (after != null) assertTrue(key + " < " + after, key.compareTo(after) < 0);
+    }
+}
@@ -0,0 +1,124 @@
+package com.taskmate.task_mate.util;
+
+import org.junit.Test;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class PersistentListTest {
+
+    @Test
+    public void randomEdits_matchArrayList() {
+        Random random = new Random(42);
+        List<Integer> expected = new ArrayList<>();
+        PersistentList<Integer> actual = PersistentList.empty();
+
+        for (int step = 0; step < 5000; step++) {
+            int op = random.nextInt(4);
+            if (op == 0 || expected.isEmpty()) {
+                int index = random.nextInt(expected.size() + 1);
+                expected.add(index, step);
+                actual = actual.plus(index, step);
+            } else if (op == 1) {
+                int index = random.nextInt(expected.size());
+                expected.set(index, -step);
+                actual = actual.with(index, -step);
+            } else if (op == 2) {
+                int index = random.nextInt(expected.size());
+                expected.remove(index);
+                actual = actual.minus(index);
+            } else {
+                expected.add(step);
+                actual = actual.plus(step);
+            }
+            assertEquals(expected.size(), actual.size());
+        }
+        assertEquals(expected, actual);
+        assertEquals(expected, new ArrayList<>(actual));
+    }
+
+    @Test
+    public void edits_leaveSnapshotsUntouched() {
+        PersistentList<String> before = PersistentList.copyOf(Arrays.asList("a", "b", "c"));
+
+        PersistentList<String> after = before.with(1, "B").plus(0, "z").minus(3);
+
+        assertEquals(Arrays.asList("a", "b", "c"), before);
+        assertEquals(Arrays.asList("z", "a", "B"), after);
+        assertSame(before, PersistentList.copyOf(before));
+    }
+
+    @Test
+    public void iterator_walksInOrder() {
+        List<Integer> source = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) source.add(i);
+        PersistentList<Integer> list = PersistentList.copyOf(source);
+
+        Iterator<Integer> it = list.iterator();
+        for (int i = 0; i < 1000; i++) {
+            assertTrue(it.hasNext());
+            assertEquals(Integer.valueOf(i), it.next());
+        }
+        assertFalse(it.hasNext());
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void get_rejectsOutOfRange() {
+        PersistentList.copyOf(Arrays.asList(1, 2)).get(2);
+    }
+
+    // Bytes allocated per edit on a 10k list: defensive ArrayList copy vs path copying
+    @Test
+    public void benchmark_allocationPerEdit() {
+        com.sun.management.ThreadMXBean threads =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long thread = Thread.currentThread().getId();
+        int size = 10_000;
+        int rounds = 2_000;
+
+        List<Integer> source = new ArrayList<>();
+        for (int i = 0; i < size; i++) source.add(i);
+        PersistentList<Integer> persistent = PersistentList.copyOf(source);
+
+        // Warm up both paths
+        List<Integer> copy = source;
+        for (int i = 0; i < rounds; i++) {
+            copy = new ArrayList<>(source);
+            copy.add(0, i);
+            persistent = persistent.plus(0, i).minus(0).with(i, i);
+        }
+
+        long start = threads.getThreadAllocatedBytes(thread);
+        for (int i = 0; i < rounds; i++) {
+            copy = new ArrayList<>(source);
+            copy.add(0, i);
+        }
+        long copyBytes = (threads.getThreadAllocatedBytes(thread) - start) / rounds;
+
+        PersistentList<Integer> inserted = persistent;
+        start = threads.getThreadAllocatedBytes(thread);
+        for (int i = 0; i < rounds; i++) {
+            inserted = persistent.plus(0, i);
+        }
+        long insertBytes = (threads.getThreadAllocatedBytes(thread) - start) / rounds;
+
+        PersistentList<Integer> updated = persistent;
+        start = threads.getThreadAllocatedBytes(thread);
+        for (int i = 0; i < rounds; i++) {
+            updated = persistent.with(i * 5, i);
+        }
+        long updateBytes = (threads.getThreadAllocatedBytes(thread) - start) / rounds;
+
+        assertEquals(size + 1, copy.size());
+        assertEquals(size + 1, inserted.size());
+        assertEquals(size, updated.size());
+        assertTrue("Insert " + insertBytes + " B, copy " + copyBytes + " B", insertBytes * 10 < copyBytes);
+        assertTrue("Update " + updateBytes + " B, copy " + copyBytes + " B", updateBytes * 10 < copyBytes);
+    }
+}
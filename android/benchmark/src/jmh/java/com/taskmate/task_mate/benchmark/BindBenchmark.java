@@ -0,0 +1,53 @@
+package com.taskmate.task_mate.benchmark;
+
+import com.taskmate.task_mate.models.Task;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// The model reads TaskAdapter.TaskViewHolder.bind does for one screen of rows,
+// minus the View calls themselves
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class BindBenchmark {
+
+    private static final int ROWS_PER_SCREEN = 12;
+
+    private List<Task> tasks;
+
+    @Setup
+    public void setUp() {
+        tasks = TaskFixtures.tasks(ROWS_PER_SCREEN);
+    }
+
+    @Benchmark
+    public void priorityColor(Blackhole blackhole) {
+        for (Task task : tasks) {
+            blackhole.consume(task.getPriorityColor());
+        }
+    }
+
+    @Benchmark
+    public void bindScreen(Blackhole blackhole) {
+        for (Task task : tasks) {
+            blackhole.consume(task.getTitle());
+            String description = task.getDescription();
+            blackhole.consume(description != null && !description.isEmpty());
+            blackhole.consume(task.getPriority().getLabel());
+            blackhole.consume(task.getCategory() != null ? task.getCategory() : "General");
+            blackhole.consume(task.isCompleted());
+            blackhole.consume(task.getPriorityColor());
+            blackhole.consume(task.isCompleted() ? 0.6f : 1.0f);
+        }
+    }
+}
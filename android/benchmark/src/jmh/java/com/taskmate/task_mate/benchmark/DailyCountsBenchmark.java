@@ -0,0 +1,57 @@
+package com.taskmate.task_mate.benchmark;
+
+import com.taskmate.task_mate.stats.DailyCounts;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// The dashboard's year chart at phone width over two years of day counts,
+// and one task change moving them. CompletionHistory only ever touches the
+// counts, so neither depends on how many tasks there are
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class DailyCountsBenchmark {
+
+    // Two years, leap day included, as in CompletionHistory
+    private static final int DAYS = 732;
+    // 2025-03-10
+    private static final long TODAY = 20157;
+
+    private DailyCounts counts;
+    private long changedDay;
+
+    @Setup
+    public void setUp() {
+        counts = new DailyCounts(DAYS);
+        Random random = new Random(42);
+        for (long day = TODAY - DAYS + 1; day <= TODAY; day++) {
+            counts.add(day, random.nextInt(150), random.nextInt(140));
+        }
+    }
+
+    @Benchmark
+    public void yearChart(Blackhole blackhole) {
+        blackhole.consume(counts.downsample(TODAY - 364, TODAY, 270));
+        blackhole.consume(counts.currentStreak(TODAY));
+    }
+
+    // A completion moved from one day to another, as a reopen and complete do
+    @Benchmark
+    public int moveCompletion() {
+        long from = TODAY - changedDay;
+        changedDay = (changedDay + 1) % 365;
+        counts.add(from, 0, -1);
+        counts.add(TODAY - changedDay, 0, 1);
+        return counts.getCompleted(TODAY);
+    }
+}
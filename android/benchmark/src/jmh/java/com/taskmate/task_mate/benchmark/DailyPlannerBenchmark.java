@@ -0,0 +1,73 @@
+package com.taskmate.task_mate.benchmark;
+
+import com.taskmate.task_mate.models.Priority;
+import com.taskmate.task_mate.models.Task;
+import com.taskmate.task_mate.planner.DailyPlan;
+import com.taskmate.task_mate.planner.DailyPlanner;
+import com.taskmate.task_mate.util.DateUtils;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// The Today planner with tasks due over two months: one task changing, the
+// plan being built, and the full re-sort the heaps avoid
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class DailyPlannerBenchmark {
+
+    private static final long NOW = DateUtils.parseIso("2025-03-10T09:00:00.000Z");
+    private static final long END_OF_DAY = DateUtils.parseIso("2025-03-11T00:00:00.000Z");
+    private static final Priority[] PRIORITIES = {Priority.LOW, Priority.MEDIUM, Priority.HIGH};
+
+    @Param({"1000", "50000"})
+    public int size;
+
+    private final Random random = new Random(7);
+    private List<Task> tasks;
+    private DailyPlanner planner;
+
+    @Setup
+    public void setUp() {
+        tasks = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            Task task = new Task("t" + i, null, PRIORITIES[random.nextInt(3)], "general");
+            task.setId(TaskFixtures.id(i));
+            task.setDueDate(NOW + (random.nextInt(60 * 24) - 24 * 5) * DateUtils.HOUR_MS);
+            tasks.add(task);
+        }
+        planner = new DailyPlanner(() -> NOW);
+        planner.onTasksReplaced(tasks);
+    }
+
+    @Benchmark
+    public int update() {
+        Task task = tasks.get(random.nextInt(size)).copy();
+        task.setPriority(PRIORITIES[random.nextInt(3)]);
+        planner.upsert(task);
+        return planner.size();
+    }
+
+    @Benchmark
+    public DailyPlan plan() {
+        return planner.plan(NOW, END_OF_DAY, DailyPlanner.DEFAULT_PLAN_SIZE);
+    }
+
+    @Benchmark
+    public List<Task> fullResort() {
+        List<Task> copy = new ArrayList<>(tasks);
+        copy.sort((a, b) -> Long.compare(a.getDueDate(), b.getDueDate()));
+        return copy;
+    }
+}
@@ -0,0 +1,69 @@
+package com.taskmate.task_mate.benchmark;
+
+import com.taskmate.task_mate.adapters.TaskDiff;
+import com.taskmate.task_mate.models.Task;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// TaskAdapter's DiffUtil callback over a whole list. With no moves, DiffUtil
+// matches rows pairwise, calling both checks once per row, which is what the
+// loop below does.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class DiffCallbackBenchmark {
+
+    @Param({"100", "1000", "10000"})
+    public int size;
+
+    private List<Task> current;
+    private List<Task> oneToggled;
+    private List<Task> refreshed;
+
+    @Setup
+    public void setUp() {
+        current = TaskFixtures.tasks(size);
+
+        // A toggle replaces one task with an edited copy
+        oneToggled = new ArrayList<>(current);
+        Task toggled = current.get(size / 2).copy();
+        toggled.setCompleted(!toggled.isCompleted());
+        oneToggled.set(size / 2, toggled);
+
+        // A pull-to-refresh decodes fresh instances with equal contents
+        refreshed = TaskFixtures.tasks(size);
+    }
+
+    @Benchmark
+    public int toggleOne() {
+        return diff(current, oneToggled);
+    }
+
+    @Benchmark
+    public int refreshAll() {
+        return diff(current, refreshed);
+    }
+
+    private static int diff(List<Task> oldList, List<Task> newList) {
+        int changed = 0;
+        for (int i = 0; i < oldList.size(); i++) {
+            Task oldItem = oldList.get(i);
+            Task newItem = newList.get(i);
+            if (!TaskDiff.sameItem(oldItem, newItem) || !TaskDiff.sameContents(oldItem, newItem)) {
+                changed++;
+            }
+        }
+        return changed;
+    }
+}
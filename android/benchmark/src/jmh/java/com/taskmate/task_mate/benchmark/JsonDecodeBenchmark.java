@@ -0,0 +1,48 @@
+package com.taskmate.task_mate.benchmark;
+
+import com.google.gson.Gson;
+import com.google.gson.TypeAdapter;
+import com.google.gson.reflect.TypeToken;
+import com.taskmate.task_mate.models.ApiResponse;
+import com.taskmate.task_mate.models.TasksResponse;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.concurrent.TimeUnit;
+
+// Decoding a GET /tasks body the way GsonConverterFactory does
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class JsonDecodeBenchmark {
+
+    @Param({"100", "1000", "10000"})
+    public int size;
+
+    @Param({"full", "summary"})
+    public String view;
+
+    private final Gson gson = new Gson();
+    private TypeAdapter<ApiResponse<TasksResponse>> adapter;
+    private String payload;
+
+    @Setup
+    public void setUp() {
+        adapter = gson.getAdapter(new TypeToken<ApiResponse<TasksResponse>>() {});
+        payload = TaskFixtures.listJson(size, "summary".equals(view));
+    }
+
+    @Benchmark
+    public ApiResponse<TasksResponse> decodeTaskList() throws IOException {
+        return adapter.read(gson.newJsonReader(new StringReader(payload)));
+    }
+}
@@ -0,0 +1,69 @@
+package com.taskmate.task_mate.benchmark;
+
+import com.taskmate.task_mate.models.OccurrenceException;
+import com.taskmate.task_mate.models.Recurrence;
+import com.taskmate.task_mate.models.RecurrenceFrequency;
+import com.taskmate.task_mate.models.Task;
+import com.taskmate.task_mate.recurrence.RecurringSeries;
+import com.taskmate.task_mate.util.DateUtils;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TimeZone;
+import java.util.concurrent.TimeUnit;
+
+// A daily task running for 20 years with a year of exceptions: the two weeks
+// on screen, found directly vs by stepping from the series start
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class RecurringSeriesBenchmark {
+
+    private RecurringSeries series;
+    private long from;
+    private long to;
+
+    @Setup
+    public void setUp() {
+        Task task = new Task();
+        task.setId("r1");
+        task.setTitle("Water plants");
+        task.setDueDate(DateUtils.parseIso("2005-01-01T07:30:00+01:00"));
+        task.setRecurrence(new Recurrence(RecurrenceFrequency.DAILY, 1));
+        long firstException = DateUtils.parseIso("2024-01-01T07:30:00+01:00");
+        List<OccurrenceException> exceptions = new ArrayList<>();
+        for (int i = 0; i < 365; i++) {
+            OccurrenceException done = new OccurrenceException(firstException + i * DateUtils.DAY_MS);
+            done.setCompleted(true);
+            exceptions.add(done);
+        }
+        task.setExceptions(exceptions);
+        series = new RecurringSeries(task, TimeZone.getTimeZone("Europe/Berlin"));
+        from = DateUtils.parseIso("2025-06-02T00:00:00Z");
+        to = from + 14 * DateUtils.DAY_MS;
+    }
+
+    @Benchmark
+    public List<Task> windowDirect() {
+        return series.occurrencesBetween(from, to);
+    }
+
+    @Benchmark
+    public int windowSteppedFromStart() {
+        int found = 0;
+        for (long day = series.nextDay(Long.MIN_VALUE / 2); day != RecurringSeries.END; day = series.nextDay(day + 1)) {
+            long occurrence = series.startOn(day);
+            if (occurrence >= to) break;
+            if (occurrence >= from) found++;
+        }
+        return found;
+    }
+}
@@ -0,0 +1,80 @@
+package com.taskmate.task_mate.benchmark;
+
+import com.taskmate.task_mate.models.Task;
+import com.taskmate.task_mate.util.PersistentList;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// List snapshots handed to submitList after a create or a toggle: the old
+// HomeFragment pattern (mutate, then new ArrayList<>(taskList)) against the
+// PersistentList that TaskRepository keeps now.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class SubmitListBenchmark {
+
+    @Param({"100", "1000", "10000"})
+    public int size;
+
+    private List<Task> arrayList;
+    private PersistentList<Task> persistentList;
+    private Task created;
+    private String toggledId;
+
+    @Setup
+    public void setUp() {
+        arrayList = TaskFixtures.tasks(size);
+        persistentList = PersistentList.copyOf(arrayList);
+        created = new Task("New task", null, null, "work");
+        created.setId("new");
+        toggledId = TaskFixtures.id(size / 2);
+    }
+
+    @Benchmark
+    public List<Task> createWithArrayListCopy() {
+        List<Task> copy = new ArrayList<>(arrayList);
+        copy.add(0, created);
+        return new ArrayList<>(copy);
+    }
+
+    @Benchmark
+    public List<Task> createWithPersistentList() {
+        return persistentList.plus(0, created);
+    }
+
+    @Benchmark
+    public List<Task> toggleWithArrayListCopy() {
+        for (Task task : arrayList) {
+            if (task.getId().equals(toggledId)) {
+                task.setCompleted(!task.isCompleted());
+                break;
+            }
+        }
+        return new ArrayList<>(arrayList);
+    }
+
+    @Benchmark
+    public List<Task> toggleWithPersistentList() {
+        int index = 0;
+        for (Task task : persistentList) {
+            if (task.getId().equals(toggledId)) {
+                Task updated = task.copy();
+                updated.setCompleted(!task.isCompleted());
+                return persistentList.with(index, updated);
+            }
+            index++;
+        }
+        return persistentList;
+    }
+}
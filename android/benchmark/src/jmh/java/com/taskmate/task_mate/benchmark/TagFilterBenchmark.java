@@ -0,0 +1,64 @@
+package com.taskmate.task_mate.benchmark;
+
+import com.taskmate.task_mate.models.Task;
+import com.taskmate.task_mate.tags.TagFilter;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Tasks with 3 of 40 tags each, ALL of two tags: the dictionary bitset vs
+// List.containsAll on the tag strings
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class TagFilterBenchmark {
+
+    @Param({"1000", "20000"})
+    public int size;
+
+    private List<Task> tasks;
+    private List<String> wanted;
+    private TagFilter filter;
+
+    @Setup
+    public void setUp() {
+        tasks = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            Task task = new Task();
+            task.setTags(Arrays.asList("bench-" + (i % 40), "bench-" + ((i * 7) % 40), "bench-" + ((i * 13) % 40)));
+            tasks.add(task);
+        }
+        // Fresh strings, as typed or read from prefs: no identity shortcut in equals
+        wanted = Arrays.asList(new String("bench-7"), new String("bench-9"));
+        filter = TagFilter.of(TagFilter.Mode.ALL, wanted);
+    }
+
+    @Benchmark
+    public int bitset() {
+        int count = 0;
+        for (Task task : tasks) {
+            if (filter.matches(task)) count++;
+        }
+        return count;
+    }
+
+    @Benchmark
+    public int stringMatch() {
+        int count = 0;
+        for (Task task : tasks) {
+            if (task.getTags().containsAll(wanted)) count++;
+        }
+        return count;
+    }
+}
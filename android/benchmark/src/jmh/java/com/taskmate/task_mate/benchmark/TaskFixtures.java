@@ -0,0 +1,68 @@
+package com.taskmate.task_mate.benchmark;
+
+import com.taskmate.task_mate.models.Priority;
+import com.taskmate.task_mate.models.Task;
+import com.taskmate.task_mate.models.TaskStatus;
+import com.taskmate.task_mate.util.DateUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Deterministic tasks and list payloads shaped like the server's responses
+final class TaskFixtures {
+
+    private static final String[] PRIORITIES = {"low", "medium", "high"};
+    private static final String[] STATUSES = {"pending", "in-progress", "completed"};
+    private static final String[] CATEGORIES = {"work", "personal", "health", "errands", "general"};
+
+    private TaskFixtures() {}
+
+    static String id(int i) {
+        return String.format("65a1b2c3d4e5f6a7b8%06x", i);
+    }
+
+    static List<Task> tasks(int count) {
+        List<Task> tasks = new ArrayList<>(count);
+        long due = DateUtils.parseIso("2025-01-15T10:30:00Z");
+        for (int i = 0; i < count; i++) {
+            Task task = new Task("Task " + i + " - follow up on the weekly report",
+                    i % 4 == 0 ? null : "Collect the numbers from finance (#" + i + ")",
+                    Priority.fromWire(PRIORITIES[i % 3]), CATEGORIES[i % 5]);
+            task.setId(id(i));
+            task.setStatus(TaskStatus.fromWire(STATUSES[i % 3]));
+            task.setCompleted(i % 3 == 2);
+            task.setDueDate(due + i * DateUtils.HOUR_MS);
+            tasks.add(task);
+        }
+        return tasks;
+    }
+
+    // GET /tasks body; summary=true mirrors ?view=summary
+    static String listJson(int count, boolean summary) {
+        StringBuilder json = new StringBuilder("{\"success\":true,\"data\":{\"tasks\":[");
+        for (int i = 0; i < count; i++) {
+            if (i > 0) json.append(',');
+            json.append("{\"_id\":\"").append(id(i))
+                    .append("\",\"title\":\"Task ").append(i).append(" - follow up on the weekly report\"")
+                    .append(",\"dueDate\":\"2025-0").append(1 + i % 9).append("-1").append(i % 10).append("T10:30:00.000Z\"")
+                    .append(",\"priority\":\"").append(PRIORITIES[i % 3])
+                    .append("\",\"status\":\"").append(STATUSES[i % 3])
+                    .append("\",\"category\":\"").append(CATEGORIES[i % 5])
+                    .append("\",\"isCompleted\":").append(i % 3 == 2);
+            if (summary) {
+                json.append(",\"descriptionPreview\":\"Collect the numbers from finance, compare them with last quarter\"");
+            } else {
+                json.append(",\"description\":\"Collect the numbers from finance, compare them with last quarter ")
+                        .append("and send a short summary to the team before the Friday sync (#").append(i).append(").\"")
+                        .append(",\"userId\":\"firebase-uid-0123456789abcdef\",\"tags\":[\"q1\",\"team\"]")
+                        .append(",\"reminderSent\":false,\"createdAt\":\"2025-01-10T08:00:00.000Z\"")
+                        .append(",\"updatedAt\":\"2025-01-11T09:15:30.250Z\",\"__v\":0");
+            }
+            json.append('}');
+        }
+        json.append("]},\"pagination\":{\"page\":1,\"limit\":").append(count)
+                .append(",\"total\":").append(count)
+                .append(",\"pages\":1,\"hasNext\":false,\"hasPrev\":false}}");
+        return json.toString();
+    }
+}
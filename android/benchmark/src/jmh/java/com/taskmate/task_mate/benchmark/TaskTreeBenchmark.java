@@ -0,0 +1,73 @@
+package com.taskmate.task_mate.benchmark;
+
+import com.taskmate.task_mate.models.Task;
+import com.taskmate.task_mate.subtasks.TaskTree;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// 100 branches of 100 subtasks, all expanded: toggling one branch in the
+// middle against flattening the whole tree again
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class TaskTreeBenchmark {
+
+    private TaskTree tree;
+    private TaskTree.Node middle;
+
+    @Setup
+    public void setUp() {
+        tree = new TaskTree(task("root", 100));
+        List<Task> top = new ArrayList<>();
+        for (int i = 0; i < 100; i++) top.add(task("t" + i, 100));
+        tree.setChildren(tree.getRoot(), top);
+        for (int i = 0; i < 100; i++) {
+            TaskTree.Node node = tree.find("t" + i);
+            tree.expand(node);
+            List<Task> children = new ArrayList<>();
+            for (int j = 0; j < 100; j++) children.add(task("t" + i + "." + j, 0));
+            tree.setChildren(node, children);
+        }
+        middle = tree.find("t50");
+    }
+
+    // Collapse and expand again, so every invocation starts from the same tree
+    @Benchmark
+    public int toggleBranch() {
+        tree.collapse(middle);
+        tree.expand(middle);
+        return tree.getRowCount();
+    }
+
+    @Benchmark
+    public int fullFlatten() {
+        List<TaskTree.Node> rows = new ArrayList<>();
+        appendExpanded(tree.getRoot(), rows);
+        return rows.size();
+    }
+
+    private static void appendExpanded(TaskTree.Node node, List<TaskTree.Node> out) {
+        for (TaskTree.Node child : node.getChildren()) {
+            out.add(child);
+            if (child.isExpanded()) appendExpanded(child, out);
+        }
+    }
+
+    private static Task task(String id, int subtasks) {
+        Task task = new Task();
+        task.setId(id);
+        task.setTitle(id);
+        task.setSubtaskCount(subtasks);
+        return task;
+    }
+}
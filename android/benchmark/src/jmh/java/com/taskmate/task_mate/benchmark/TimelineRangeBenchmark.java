@@ -0,0 +1,67 @@
+package com.taskmate.task_mate.benchmark;
+
+import com.taskmate.task_mate.models.Task;
+import com.taskmate.task_mate.timeline.TimelineIndex;
+import com.taskmate.task_mate.util.DateUtils;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.TimeZone;
+import java.util.concurrent.TimeUnit;
+
+// The timeline's on-screen two weeks out of tasks due over two years: the
+// day buckets vs a scan of every task
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class TimelineRangeBenchmark {
+
+    private static final long NOW = DateUtils.parseIso("2025-03-10T09:00:00.000Z");
+
+    @Param({"1000", "50000"})
+    public int size;
+
+    private List<Task> tasks;
+    private TimelineIndex index;
+    private final long from = NOW;
+    private final long to = NOW + 14 * DateUtils.DAY_MS;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(3);
+        tasks = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            Task task = new Task();
+            task.setId(TaskFixtures.id(i));
+            task.setTitle("Task " + i);
+            task.setDueDate(NOW + (long) (random.nextDouble() * 730 - 365) * DateUtils.DAY_MS);
+            tasks.add(task);
+        }
+        index = new TimelineIndex(() -> NOW, TimeZone.getTimeZone("UTC"));
+        index.onTasksReplaced(tasks);
+    }
+
+    @Benchmark
+    public List<Task> dayBuckets() {
+        return index.tasksBetween(from, to);
+    }
+
+    @Benchmark
+    public int fullScan() {
+        int count = 0;
+        for (Task task : tasks) {
+            if (task.getDueDate() >= from && task.getDueDate() < to) count++;
+        }
+        return count;
+    }
+}
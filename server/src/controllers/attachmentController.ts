@@ -0,0 +1,174 @@
+import { Response, NextFunction } from 'express';
+import { ApiResponse, CreateAttachmentRequest, AuthenticatedRequest } from '../types';
+import { AttachmentService } from '../services/attachmentService';
+
+const attachmentService = new AttachmentService();
+
+export class AttachmentController {
+
+  // Record a new attachment before its content is uploaded
+  async createAttachment(req: AuthenticatedRequest, res: Response, next: NextFunction) {
+    try {
+      const userId = req.user!.uid;
+      const { id } = req.params;
+      const request: CreateAttachmentRequest = req.body;
+
+      const attachment = await attachmentService.createAttachment(userId, id, request);
+
+      res.status(201).json({
+        success: true,
+        message: 'Attachment created successfully',
+        data: { attachment }
+      } as ApiResponse);
+
+    } catch (error) {
+      if (error instanceof Error && error.message === 'Task not found') {
+        return res.status(404).json({
+          success: false,
+          error: 'Task not found'
+        } as ApiResponse);
+      }
+      if (error instanceof Error && (error.message === 'Attachment name is required'
+          || error.message === 'Invalid attachment size')) {
+        return res.status(400).json({
+          success: false,
+          error: error.message
+        } as ApiResponse);
+      }
+      if (error instanceof Error && error.message === 'Attachment too large') {
+        return res.status(413).json({
+          success: false,
+          error: 'Attachment too large'
+        } as ApiResponse);
+      }
+      next(error);
+    }
+  }
+
+  // Attachment with its upload state; uploadedBytes is where a resumed upload continues
+  async getAttachment(req: AuthenticatedRequest, res: Response, next: NextFunction) {
+    try {
+      const userId = req.user!.uid;
+      const { id, attachmentId } = req.params;
+
+      const attachment = await attachmentService.getAttachment(userId, id, attachmentId);
+
+      res.status(200).json({
+        success: true,
+        data: { attachment }
+      } as ApiResponse);
+
+    } catch (error) {
+      if (error instanceof Error && (error.message === 'Task not found' || error.message === 'Attachment not found')) {
+        return res.status(404).json({
+          success: false,
+          error: error.message
+        } as ApiResponse);
+      }
+      next(error);
+    }
+  }
+
+  // Append one chunk of the content; the body is streamed to disk, never parsed
+  async uploadChunk(req: AuthenticatedRequest, res: Response, next: NextFunction) {
+    try {
+      const userId = req.user!.uid;
+      const { id, attachmentId } = req.params;
+
+      const attachment = await attachmentService.writeChunk(userId, id, attachmentId, req.get('Content-Range'), req);
+
+      res.status(200).json({
+        success: true,
+        data: { attachment }
+      } as ApiResponse);
+
+    } catch (error) {
+      if (error instanceof Error && (error.message === 'Task not found' || error.message === 'Attachment not found')) {
+        return res.status(404).json({
+          success: false,
+          error: error.message
+        } as ApiResponse);
+      }
+      if (error instanceof Error && (error.message === 'Invalid Content-Range'
+          || error.message === 'Chunk longer than its range')) {
+        return res.status(400).json({
+          success: false,
+          error: error.message
+        } as ApiResponse);
+      }
+      // The client asks for the attachment again and continues from uploadedBytes
+      if (error instanceof Error && (error.message === 'Chunk does not continue the upload'
+          || error.message === 'Upload in progress' || error.message === 'Attachment already uploaded')) {
+        return res.status(409).json({
+          success: false,
+          error: error.message
+        } as ApiResponse);
+      }
+      if (error instanceof Error && error.message === 'Chunk too large') {
+        return res.status(413).json({
+          success: false,
+          error: 'Chunk too large'
+        } as ApiResponse);
+      }
+      next(error);
+    }
+  }
+
+  // Stream the content back. Range and If-Range are handled by sendFile, so a
+  // download that broke off asks for the rest and gets a 206 with just that
+  async downloadContent(req: AuthenticatedRequest, res: Response, next: NextFunction) {
+    try {
+      const userId = req.user!.uid;
+      const { id, attachmentId } = req.params;
+
+      const { attachment, path } = await attachmentService.getContent(userId, id, attachmentId);
+
+      res.attachment(attachment.name);
+      res.type(attachment.contentType);
+      res.set('Cache-Control', 'private, no-cache');
+      res.sendFile(path, { cacheControl: false }, error => {
+        // A client that hung up mid-file is not an error worth a response
+        if (error && !res.headersSent) next(error);
+      });
+
+    } catch (error) {
+      if (error instanceof Error && (error.message === 'Task not found' || error.message === 'Attachment not found')) {
+        return res.status(404).json({
+          success: false,
+          error: error.message
+        } as ApiResponse);
+      }
+      if (error instanceof Error && error.message === 'Attachment not uploaded yet') {
+        return res.status(409).json({
+          success: false,
+          error: 'Attachment not uploaded yet'
+        } as ApiResponse);
+      }
+      next(error);
+    }
+  }
+
+  // Delete an attachment and its content
+  async deleteAttachment(req: AuthenticatedRequest, res: Response, next: NextFunction) {
+    try {
+      const userId = req.user!.uid;
+      const { id, attachmentId } = req.params;
+
+      await attachmentService.deleteAttachment(userId, id, attachmentId);
+
+      res.status(200).json({
+        success: true,
+        message: 'Attachment deleted successfully'
+      } as ApiResponse);
+
+    } catch (error) {
+      if (error instanceof Error && error.message === 'Attachment not found') {
+        return res.status(404).json({
+          success: false,
+          error: 'Attachment not found'
+        } as ApiResponse);
+      }
+      next(error);
+    }
+  }
+}
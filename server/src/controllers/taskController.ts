@@ -1,5 +1,8 @@
 import { Response, NextFunction } from 'express';
-import { ApiResponse, CreateTaskRequest, UpdateTaskRequest, TaskQuery, AuthenticatedRequest } from '../types';
+import {
+  ApiResponse, CreateTaskRequest, UpdateTaskRequest, MoveTaskRequest, OccurrenceUpdateRequest, TaskQuery,
+  ExportQuery, ImportTasksRequest, StatsQuery, AuthenticatedRequest
+} from '../types';
 import { TaskService } from '../services/taskService';
 
 const taskService = new TaskService();
@@ -46,6 +49,81 @@ export class TaskController {
           error: 'Task title is required'
         } as ApiResponse);
       }
+      if (error instanceof Error && error.message === 'Parent task not found') {
+        return res.status(404).json({
+          success: false,
+          error: 'Parent task not found'
+        } as ApiResponse);
+      }
+      if (error instanceof Error && error.message === 'Recurring tasks need a due date') {
+        return res.status(400).json({
+          success: false,
+          error: error.message
+        } as ApiResponse);
+      }
+      next(error);
+    }
+  }
+
+  // One page of every task, for export
+  async exportTasks(req: AuthenticatedRequest, res: Response, next: NextFunction) {
+    try {
+      const userId = req.user!.uid;
+      const query: ExportQuery = req.query;
+
+      const page = await taskService.exportTasks(userId, query);
+
+      res.status(200).json({
+        success: true,
+        data: page
+      } as ApiResponse);
+
+    } catch (error) {
+      if (error instanceof Error && error.message === 'Invalid export cursor') {
+        return res.status(400).json({
+          success: false,
+          error: error.message
+        } as ApiResponse);
+      }
+      next(error);
+    }
+  }
+
+  // Create a batch of imported tasks
+  async importTasks(req: AuthenticatedRequest, res: Response, next: NextFunction) {
+    try {
+      const userId = req.user!.uid;
+      const request: ImportTasksRequest = req.body;
+
+      const ids = await taskService.importTasks(userId, request?.tasks);
+
+      res.status(201).json({
+        success: true,
+        message: `${ids.length} tasks imported`,
+        data: { ids }
+      } as ApiResponse);
+
+    } catch (error) {
+      if (error instanceof Error && (error.message === 'No tasks to import'
+          || error.message === 'Task title is required' || error.message === 'Recurring tasks need a due date'
+          || error.message === 'Invalid parent index')) {
+        return res.status(400).json({
+          success: false,
+          error: error.message
+        } as ApiResponse);
+      }
+      if (error instanceof Error && error.message === 'Too many tasks in one batch') {
+        return res.status(413).json({
+          success: false,
+          error: error.message
+        } as ApiResponse);
+      }
+      if (error instanceof Error && error.message === 'Parent task not found') {
+        return res.status(404).json({
+          success: false,
+          error: error.message
+        } as ApiResponse);
+      }
       next(error);
     }
   }
@@ -96,6 +174,82 @@ export class TaskController {
           error: 'Task not found'
         } as ApiResponse);
       }
+      if (error instanceof Error && error.message === 'Recurring tasks need a due date') {
+        return res.status(400).json({
+          success: false,
+          error: error.message
+        } as ApiResponse);
+      }
+      next(error);
+    }
+  }
+
+  // Complete, move or skip one occurrence of a recurring task
+  async updateOccurrence(req: AuthenticatedRequest, res: Response, next: NextFunction) {
+    try {
+      const userId = req.user!.uid;
+      const { id } = req.params;
+      const update: OccurrenceUpdateRequest = req.body;
+
+      const task = await taskService.updateOccurrence(userId, id, update);
+
+      res.status(200).json({
+        success: true,
+        message: 'Occurrence updated successfully',
+        data: { task }
+      } as ApiResponse);
+
+    } catch (error) {
+      if (error instanceof Error && error.message === 'Task not found') {
+        return res.status(404).json({
+          success: false,
+          error: 'Task not found'
+        } as ApiResponse);
+      }
+      if (error instanceof Error && (error.message === 'Task does not repeat' || error.message === 'Invalid occurrence')) {
+        return res.status(400).json({
+          success: false,
+          error: error.message
+        } as ApiResponse);
+      }
+      next(error);
+    }
+  }
+
+  // Move task to a new place in the user's list
+  async moveTask(req: AuthenticatedRequest, res: Response, next: NextFunction) {
+    try {
+      const userId = req.user!.uid;
+      const { id } = req.params;
+      const move: MoveTaskRequest = req.body;
+
+      const task = await taskService.moveTask(userId, id, move);
+
+      res.status(200).json({
+        success: true,
+        message: 'Task moved successfully',
+        data: { task }
+      } as ApiResponse);
+
+    } catch (error) {
+      if (error instanceof Error && error.message === 'Task not found') {
+        return res.status(404).json({
+          success: false,
+          error: 'Task not found'
+        } as ApiResponse);
+      }
+      if (error instanceof Error && error.message === 'Invalid move') {
+        return res.status(400).json({
+          success: false,
+          error: error.message
+        } as ApiResponse);
+      }
+      if (error instanceof Error && error.message === 'Task order changed') {
+        return res.status(409).json({
+          success: false,
+          error: 'Task order changed'
+        } as ApiResponse);
+      }
       next(error);
     }
   }
@@ -178,8 +332,9 @@ export class TaskController {
   async getTaskStatistics(req: AuthenticatedRequest, res: Response, next: NextFunction) {
     try {
       const userId = req.user!.uid;
+      const query: StatsQuery = req.query;
 
-      const stats = await taskService.getTaskStatistics(userId);
+      const stats = await taskService.getTaskStatistics(userId, query);
 
       res.status(200).json({
         success: true,
@@ -187,6 +342,36 @@ export class TaskController {
       } as ApiResponse);
 
     } catch (error) {
+      if (error instanceof Error && error.message === 'Invalid time zone') {
+        return res.status(400).json({
+          success: false,
+          error: error.message
+        } as ApiResponse);
+      }
+      next(error);
+    }
+  }
+
+  // Get tasks created and completed per day for the dashboard charts
+  async getCompletionHistory(req: AuthenticatedRequest, res: Response, next: NextFunction) {
+    try {
+      const userId = req.user!.uid;
+      const query: StatsQuery = req.query;
+
+      const history = await taskService.getCompletionHistory(userId, query);
+
+      res.status(200).json({
+        success: true,
+        data: history
+      } as ApiResponse);
+
+    } catch (error) {
+      if (error instanceof Error && error.message === 'Invalid time zone') {
+        return res.status(400).json({
+          success: false,
+          error: error.message
+        } as ApiResponse);
+      }
       next(error);
     }
   }
@@ -0,0 +1,19 @@
+import { Request, Response, NextFunction } from 'express';
+import { encodeMsgPack } from '../utils/msgpack';
+
+export const MSGPACK_TYPE = 'application/msgpack';
+
+// Content negotiation for response bodies: clients that prefer MessagePack in
+// their Accept header get it, everyone else keeps getting JSON.
+export const wireFormat = (req: Request, res: Response, next: NextFunction): void => {
+  res.vary('Accept');
+
+  if (req.accepts(['application/json', MSGPACK_TYPE]) === MSGPACK_TYPE) {
+    res.json = (body?: any) => {
+      res.type(MSGPACK_TYPE);
+      return res.send(encodeMsgPack(body));
+    };
+  }
+
+  next();
+};
@@ -63,6 +63,111 @@ const TaskSchema: Schema = new Schema({
     type: Boolean,
     default: false,
   },
+  // Position in the user's manually arranged list (see utils/orderKey.ts)
+  order: {
+    type: String,
+  },
+  // Subtasks: the parent's id (null for top-level tasks) and every ancestor's,
+  // root first, so a change can update all of them with one query
+  parentId: {
+    type: String,
+    default: null
+  },
+  ancestors: [{
+    type: String
+  }],
+  kind: {
+    type: String,
+    enum: {
+      values: ['task', 'checklist'],
+      message: 'Kind must be: task or checklist'
+    },
+    default: 'task'
+  },
+  // All descendants, and how many of them are completed
+  subtaskCount: {
+    type: Number,
+    default: 0
+  },
+  subtasksDone: {
+    type: Number,
+    default: 0
+  },
+  // Recurring tasks: dueDate is the first occurrence. Later occurrences are
+  // never stored; only the ones completed, moved or skipped are kept, in exceptions
+  recurrence: {
+    type: new Schema({
+      frequency: {
+        type: String,
+        enum: {
+          values: ['daily', 'weekly', 'monthly'],
+          message: 'Frequency must be: daily, weekly, or monthly'
+        },
+        required: true
+      },
+      interval: {
+        type: Number,
+        min: [1, 'Interval must be at least 1'],
+        max: [365, 'Interval cannot exceed 365'],
+        default: 1
+      },
+      weekdays: [{
+        type: String,
+        enum: ['mon', 'tue', 'wed', 'thu', 'fri', 'sat', 'sun']
+      }],
+      until: {
+        type: Date
+      },
+      count: {
+        type: Number,
+        min: [1, 'Count must be at least 1']
+      }
+    }, { _id: false }),
+    default: null
+  },
+  exceptions: [new Schema({
+    occurrence: {
+      type: Date,
+      required: true
+    },
+    dueDate: {
+      type: Date
+    },
+    isCompleted: {
+      type: Boolean,
+      default: false
+    },
+    skipped: {
+      type: Boolean,
+      default: false
+    }
+  }, { _id: false })],
+  // Files on the task; the content lives on disk (utils/attachmentStore.ts)
+  attachments: [new Schema({
+    name: {
+      type: String,
+      required: [true, 'Attachment name is required'],
+      trim: true,
+      maxlength: [255, 'Attachment name cannot exceed 255 characters']
+    },
+    size: {
+      type: Number,
+      required: true,
+      min: [0, 'Size cannot be negative']
+    },
+    contentType: {
+      type: String,
+      default: 'application/octet-stream'
+    },
+    uploadedBytes: {
+      type: Number,
+      default: 0
+    },
+    complete: {
+      type: Boolean,
+      default: false
+    }
+  }, { timestamps: { createdAt: true, updatedAt: false } })],
   completedAt: {
     type: Date,
   },
@@ -82,9 +187,14 @@ const TaskSchema: Schema = new Schema({
 
 // Indexes for better query performance
 TaskSchema.index({ userId: 1, createdAt: -1 });
+TaskSchema.index({ userId: 1, _id: 1 }); // Export pages
+TaskSchema.index({ userId: 1, order: 1 });
+TaskSchema.index({ userId: 1, parentId: 1, order: 1 });
+TaskSchema.index({ ancestors: 1 });
 TaskSchema.index({ userId: 1, dueDate: 1 });
 TaskSchema.index({ userId: 1, status: 1 });
 TaskSchema.index({ userId: 1, isCompleted: 1 });
+TaskSchema.index({ userId: 1, completedAt: 1 }); // Completion history
 TaskSchema.index({ dueDate: 1, reminderSent: 1 }); // For reminder system
 
 // Virtual for checking if task is overdue
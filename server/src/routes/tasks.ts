@@ -1,9 +1,11 @@
 import { Router } from 'express';
 import { authenticateToken } from '../middleware/auth';
 import { TaskController } from '../controllers/taskController';
+import { AttachmentController } from '../controllers/attachmentController';
 
 const router = Router();
 const taskController = new TaskController();
+const attachmentController = new AttachmentController();
 
 // All routes require authentication
 router.use(authenticateToken);
@@ -23,6 +25,21 @@ router.post('/', taskController.createTask.bind(taskController));
 // @access  Private
 router.get('/stats/overview', taskController.getTaskStatistics.bind(taskController));
 
+// @route   GET /api/tasks/stats/history
+// @desc    Tasks created and completed per day (?days=&tz=)
+// @access  Private
+router.get('/stats/history', taskController.getCompletionHistory.bind(taskController));
+
+// @route   GET /api/tasks/export
+// @desc    Page through every task, subtasks included (?after=<last _id>&limit=)
+// @access  Private
+router.get('/export', taskController.exportTasks.bind(taskController));
+
+// @route   POST /api/tasks/import
+// @desc    Create a batch of tasks, appended in order
+// @access  Private
+router.post('/import', taskController.importTasks.bind(taskController));
+
 // @route   GET /api/tasks/:id
 // @desc    Get single task by ID
 // @access  Private
@@ -48,4 +65,39 @@ router.post('/:id/complete', taskController.markTaskCompleted.bind(taskControlle
 // @access  Private
 router.post('/:id/incomplete', taskController.markTaskIncomplete.bind(taskController));
 
+// @route   POST /api/tasks/:id/move
+// @desc    Move task between two others in the user's list
+// @access  Private
+router.post('/:id/move', taskController.moveTask.bind(taskController));
+
+// @route   PUT /api/tasks/:id/occurrences
+// @desc    Complete, move or skip one occurrence of a recurring task
+// @access  Private
+router.put('/:id/occurrences', taskController.updateOccurrence.bind(taskController));
+
+// @route   POST /api/tasks/:id/attachments
+// @desc    Create an attachment record before uploading its content
+// @access  Private
+router.post('/:id/attachments', attachmentController.createAttachment.bind(attachmentController));
+
+// @route   GET /api/tasks/:id/attachments/:attachmentId
+// @desc    Get an attachment and how much of it has been uploaded
+// @access  Private
+router.get('/:id/attachments/:attachmentId', attachmentController.getAttachment.bind(attachmentController));
+
+// @route   PUT /api/tasks/:id/attachments/:attachmentId/content
+// @desc    Upload one chunk of an attachment (Content-Range: bytes start-end/total)
+// @access  Private
+router.put('/:id/attachments/:attachmentId/content', attachmentController.uploadChunk.bind(attachmentController));
+
+// @route   GET /api/tasks/:id/attachments/:attachmentId/content
+// @desc    Download an attachment; honours Range for resumed downloads
+// @access  Private
+router.get('/:id/attachments/:attachmentId/content', attachmentController.downloadContent.bind(attachmentController));
+
+// @route   DELETE /api/tasks/:id/attachments/:attachmentId
+// @desc    Delete an attachment and its content
+// @access  Private
+router.delete('/:id/attachments/:attachmentId', attachmentController.deleteAttachment.bind(attachmentController));
+
 export default router;
\ No newline at end of file
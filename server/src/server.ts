@@ -9,6 +9,7 @@ import { connectDB } from './config/database';
 import { initializeFirebase } from './config/firebase';
 import { errorHandler } from './middleware/errorHandler';
 import { notFound } from './middleware/notFound';
+import { wireFormat } from './middleware/wireFormat';
 
 // Import routes
 import authRoutes from './routes/auth';
@@ -38,6 +39,9 @@ app.use(morgan('combined'));
 app.use(express.json({ limit: '10mb' }));
 app.use(express.urlencoded({ extended: true }));
 
+// Response encoding (JSON or MessagePack, by Accept header)
+app.use(wireFormat);
+
 // Health check endpoint
 app.get('/health', (req, res) => {
   res.status(200).json({
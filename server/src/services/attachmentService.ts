@@ -0,0 +1,136 @@
+import { Readable } from 'stream';
+import Task from '../models/Task';
+import { CreateAttachmentRequest } from '../types';
+import { appendChunk, contentPath, finishUpload, receivedBytes, removeContent } from '../utils/attachmentStore';
+
+export const MAX_ATTACHMENT_BYTES = 100 * 1024 * 1024;
+// Per PUT; the app sends 1 MiB chunks
+export const MAX_CHUNK_BYTES = 8 * 1024 * 1024;
+
+// Attachments with a chunk being written. A second writer would interleave
+// its bytes with the first, so it is turned away until the first is done
+const writing = new Set<string>();
+
+export class AttachmentService {
+
+  // Record a file about to be uploaded; its content follows in chunks
+  async createAttachment(userId: string, taskId: string, request: CreateAttachmentRequest) {
+    if (!request.name || request.name.trim().length === 0) {
+      throw new Error('Attachment name is required');
+    }
+    if (!Number.isInteger(request.size) || request.size <= 0) {
+      throw new Error('Invalid attachment size');
+    }
+    if (request.size > MAX_ATTACHMENT_BYTES) {
+      throw new Error('Attachment too large');
+    }
+
+    const task = await Task.findOne({ _id: taskId, userId });
+    if (!task) {
+      throw new Error('Task not found');
+    }
+
+    task.attachments.push({
+      name: request.name.trim(),
+      size: request.size,
+      contentType: request.contentType || 'application/octet-stream',
+      uploadedBytes: 0,
+      complete: false
+    } as any);
+    await task.save();
+    return task.attachments[task.attachments.length - 1];
+  }
+
+  // The attachment with its upload state; for an unfinished upload the bytes
+  // on disk are the truth, since a write can outlive a failed database update
+  async getAttachment(userId: string, taskId: string, attachmentId: string) {
+    const task = await Task.findOne({ _id: taskId, userId }, 'attachments');
+
+    if (!task) {
+      throw new Error('Task not found');
+    }
+    const attachment = (task.attachments as any).id(attachmentId);
+    if (!attachment) {
+      throw new Error('Attachment not found');
+    }
+
+    if (!attachment.complete) attachment.uploadedBytes = await receivedBytes(attachmentId);
+    return attachment;
+  }
+
+  // Appends the chunk in `range` ("bytes start-end/total") straight from the
+  // request stream. The chunk must start where the upload stands; whatever
+  // arrived is kept even if the client drops, and the last chunk completes it
+  async writeChunk(userId: string, taskId: string, attachmentId: string, range: string | undefined, body: Readable) {
+    const match = /^bytes (\d+)-(\d+)\/(\d+)$/.exec(range || '');
+    if (!match) {
+      throw new Error('Invalid Content-Range');
+    }
+    const start = Number(match[1]);
+    const end = Number(match[2]);
+    const total = Number(match[3]);
+
+    const attachment = await this.getAttachment(userId, taskId, attachmentId);
+    if (attachment.complete) {
+      throw new Error('Attachment already uploaded');
+    }
+    if (total !== attachment.size || end < start || end >= total) {
+      throw new Error('Invalid Content-Range');
+    }
+    if (end - start + 1 > MAX_CHUNK_BYTES) {
+      throw new Error('Chunk too large');
+    }
+    if (writing.has(attachmentId)) {
+      throw new Error('Upload in progress');
+    }
+
+    writing.add(attachmentId);
+    try {
+      if (start !== await receivedBytes(attachmentId)) {
+        throw new Error('Chunk does not continue the upload');
+      }
+
+      let failure: unknown = null;
+      try {
+        await appendChunk(attachmentId, body, end - start + 1);
+      } catch (error) {
+        failure = error;
+      }
+
+      const received = await receivedBytes(attachmentId);
+      const complete = received === attachment.size;
+      if (complete) await finishUpload(attachmentId);
+      await Task.updateOne(
+        { _id: taskId, userId, 'attachments._id': attachmentId },
+        { $set: { 'attachments.$.uploadedBytes': received, 'attachments.$.complete': complete } }
+      );
+      if (failure && !complete) throw failure;
+
+      attachment.uploadedBytes = received;
+      attachment.complete = complete;
+      return attachment;
+    } finally {
+      writing.delete(attachmentId);
+    }
+  }
+
+  // Path of a fully uploaded attachment, for streaming it back
+  async getContent(userId: string, taskId: string, attachmentId: string) {
+    const attachment = await this.getAttachment(userId, taskId, attachmentId);
+    if (!attachment.complete) {
+      throw new Error('Attachment not uploaded yet');
+    }
+    return { attachment, path: contentPath(attachmentId) };
+  }
+
+  async deleteAttachment(userId: string, taskId: string, attachmentId: string) {
+    const result = await Task.updateOne(
+      { _id: taskId, userId, 'attachments._id': attachmentId },
+      { $pull: { attachments: { _id: attachmentId } } }
+    );
+    if (result.matchedCount === 0) {
+      throw new Error('Attachment not found');
+    }
+    await removeContent([attachmentId]);
+  }
+}
@@ -1,12 +1,45 @@
+import { isValidObjectId, Types } from 'mongoose';
 import Task from '../models/Task';
-import { CreateTaskRequest, UpdateTaskRequest, TaskQuery, PaginationInfo } from '../types';
+import {
+  CreateTaskRequest, UpdateTaskRequest, MoveTaskRequest, OccurrenceUpdateRequest, RecurrenceRequest,
+  ImportTaskRequest, TaskQuery, ExportQuery, StatsQuery, PaginationInfo
+} from '../types';
+import { isValidOrderKey, keyBetween, keysAfter, spreadKeys, MAX_ORDER_KEY_LENGTH } from '../utils/orderKey';
+import { removeContent } from '../utils/attachmentStore';
+
+// Fields a list request may ask for with ?fields=a,b,c (_id is always returned)
+const PROJECTABLE_FIELDS = [
+  'title', 'description', 'dueDate', 'priority', 'status', 'category',
+  'tags', 'isCompleted', 'order', 'parentId', 'kind', 'subtaskCount', 'subtasksDone',
+  'recurrence', 'exceptions', 'attachments', 'completedAt', 'reminderSent', 'createdAt', 'updatedAt'
+];
+
+// ?view=summary: what list rows, the Today planner and reminders need.
+// The description is cut down to a preview; the detail screen loads the rest
+const SUMMARY_FIELDS = [
+  'title', 'description', 'dueDate', 'priority', 'status', 'category', 'tags', 'isCompleted', 'order',
+  'parentId', 'kind', 'subtaskCount', 'subtasksDone', 'recurrence', 'exceptions', 'completedAt', 'createdAt'
+];
+export const DESCRIPTION_PREVIEW_LENGTH = 120;
+
+// The client never shows occurrences older than this, so their exceptions are
+// dropped on the next write and a long-running series stays small
+export const EXCEPTION_HISTORY_DAYS = 90;
+const DAY_MS = 24 * 60 * 60 * 1000;
+
+// Largest export page and import batch; both keep one request's memory small
+export const MAX_EXPORT_PAGE = 500;
+export const MAX_IMPORT_BATCH = 200;
+
+// Longest completion history one request returns, and how far back a streak is counted
+export const MAX_HISTORY_DAYS = 731;
 
 export class TaskService {
 
   // Get all tasks with filtering and pagination
   async getTasks(userId: string, query: TaskQuery) {
-    // Build MongoDB query
-    const mongoQuery: any = { userId };
+    // Build MongoDB query: one level of the task tree
+    const mongoQuery: any = { userId, parentId: query.parentId || null };
 
     // Apply filters
     if (query.status) mongoQuery.status = query.status;
@@ -31,14 +64,19 @@ export class TaskService {
     const limit = Math.min(100, Math.max(1, parseInt(query.limit as any as string) || 10));
     const skip = (page - 1) * limit;
 
-    // Sorting
-    const sortBy = query.sortBy || 'createdAt';
-    const sortOrder = query.sortOrder === 'asc' ? 1 : -1;
+    // Sorting: the user's own arrangement unless asked otherwise
+    const sortBy = query.sortBy || 'order';
+    const sortOrder = query.sortOrder ? (query.sortOrder === 'asc' ? 1 : -1) : (sortBy === 'order' ? 1 : -1);
     const sort: Record<string, 1 | -1> = { [sortBy]: sortOrder };
+    if (sortBy === 'order') await this.ensureOrderKeys(userId);
+
+    // Projection
+    const fields = this.resolveFields(query);
+    const summary = !query.fields && query.view === 'summary';
 
     // Execute query with pagination
-    const [tasks, total] = await Promise.all([
-      Task.find(mongoQuery)
+    const [docs, total] = await Promise.all([
+      Task.find(mongoQuery, fields)
         .sort(sort)
         .skip(skip)
         .limit(limit)
@@ -46,6 +84,8 @@ export class TaskService {
       Task.countDocuments(mongoQuery)
     ]);
 
+    const tasks = summary ? docs.map(doc => this.toSummary(doc)) : docs;
+
     // Pagination info
     const pagination: PaginationInfo = {
       page,
@@ -59,6 +99,26 @@ export class TaskService {
     return { tasks, pagination };
   }
 
+  // Mongo projection for the list endpoint, or null for full documents
+  private resolveFields(query: TaskQuery): string[] | null {
+    if (query.fields) {
+      const requested = query.fields.split(',').map(field => field.trim());
+      return PROJECTABLE_FIELDS.filter(field => requested.includes(field));
+    }
+    return query.view === 'summary' ? SUMMARY_FIELDS : null;
+  }
+
+  // Replace the description with a short preview
+  private toSummary(doc: any) {
+    const { description, ...rest } = doc;
+    if (description) {
+      rest.descriptionPreview = description.length > DESCRIPTION_PREVIEW_LENGTH
+        ? description.substring(0, DESCRIPTION_PREVIEW_LENGTH)
+        : description;
+    }
+    return rest;
+  }
+
   // Create new task
   async createTask(userId: string, taskData: CreateTaskRequest) {
     // Validate required fields
@@ -66,17 +126,274 @@ export class TaskService {
       throw new Error('Task title is required');
     }
 
+    let ancestors: string[] = [];
+    if (taskData.parentId) {
+      const parent = await Task.findOne({ _id: taskData.parentId, userId }, 'ancestors').lean();
+      if (!parent) {
+        throw new Error('Parent task not found');
+      }
+      ancestors = [...(parent.ancestors || []), String(parent._id)];
+    }
+    const parentId = taskData.parentId || null;
+    if (taskData.recurrence && !taskData.dueDate) {
+      throw new Error('Recurring tasks need a due date');
+    }
+
+    // New tasks go to the top of the list, subtasks to the end of their parent's
+    await this.ensureOrderKeys(userId);
+    const neighbour = await Task.findOne({ userId, parentId }, 'order')
+      .sort({ order: parentId ? -1 : 1 })
+      .lean();
+    const neighbourOrder = neighbour?.order;
+    const neighbourKey = isValidOrderKey(neighbourOrder) ? neighbourOrder : null;
+    const order = parentId ? keyBetween(neighbourKey, null) : keyBetween(null, neighbourKey);
+
     // Create task
     const task = new Task({
       ...taskData,
       userId,
-      dueDate: taskData.dueDate ? new Date(taskData.dueDate) : undefined
+      parentId,
+      ancestors,
+      order,
+      subtaskCount: 0,
+      subtasksDone: 0,
+      dueDate: taskData.dueDate ? new Date(taskData.dueDate) : undefined,
+      recurrence: this.toRecurrence(taskData.recurrence),
+      exceptions: [],
+      attachments: []
     });
 
     await task.save();
+    await this.adjustAncestors(userId, ancestors, 1, 0);
+    if (order.length > MAX_ORDER_KEY_LENGTH) {
+      await this.rebalanceOrder(userId);
+      return this.getTaskById(userId, String(task._id));
+    }
+    return task;
+  }
+
+  // Move a task between two others. Only the moved task's key is written,
+  // unless the new key is too long and the whole list is respaced
+  async moveTask(userId: string, taskId: string, move: MoveTaskRequest) {
+    if (move.previousId === taskId || move.nextId === taskId
+        || (move.previousId && move.previousId === move.nextId)) {
+      throw new Error('Invalid move');
+    }
+    await this.ensureOrderKeys(userId);
+    const neighbourIds = [move.previousId, move.nextId].filter((id): id is string => !!id);
+    const [task, neighbours] = await Promise.all([
+      Task.findOne({ _id: taskId, userId }),
+      Task.find({ _id: { $in: neighbourIds }, userId }, 'order parentId').lean()
+    ]);
+
+    if (!task) {
+      throw new Error('Task not found');
+    }
+
+    const parentId = task.parentId ? String(task.parentId) : null;
+    const keyOf = (id?: string | null) => {
+      if (!id) return null;
+      const neighbour = neighbours.find(doc => String(doc._id) === id);
+      if (!neighbour) throw new Error('Task not found');
+      // A task can only move among its siblings
+      if ((neighbour.parentId ? String(neighbour.parentId) : null) !== parentId) {
+        throw new Error('Task order changed');
+      }
+      return isValidOrderKey(neighbour.order) ? neighbour.order : null;
+    };
+    const before = keyOf(move.previousId);
+    const after = keyOf(move.nextId);
+    // The client's neighbours are no longer adjacent in this order: it has to reload
+    if ((move.previousId && before === null) || (move.nextId && after === null)
+        || (before !== null && after !== null && before >= after)) {
+      throw new Error('Task order changed');
+    }
+    // Nothing else may sit between them; a missing neighbour means the end of the list
+    const between: any = {};
+    if (before !== null) between.$gt = before;
+    if (after !== null) between.$lt = after;
+    const filter: any = { userId, parentId, _id: { $ne: taskId } };
+    if (before !== null || after !== null) filter.order = between;
+    if (await Task.countDocuments(filter) > 0) {
+      throw new Error('Task order changed');
+    }
+
+    task.order = keyBetween(before, after);
+    await task.save();
+    if (task.order.length > MAX_ORDER_KEY_LENGTH) {
+      await this.rebalanceOrder(userId);
+      return this.getTaskById(userId, taskId);
+    }
     return task;
   }
 
+  // One page of all the user's tasks, subtasks included, in _id order. Each
+  // page starts after the last _id of the one before, so the last page of a
+  // large list costs the same as the first. A subtask is created after its
+  // parent, so it comes later in the export
+  async exportTasks(userId: string, query: ExportQuery) {
+    const limit = Math.min(MAX_EXPORT_PAGE, Math.max(1, parseInt(query.limit as any as string) || 100));
+    const filter: any = { userId };
+    if (query.after) {
+      if (!isValidObjectId(query.after)) {
+        throw new Error('Invalid export cursor');
+      }
+      filter._id = { $gt: query.after };
+    }
+
+    const tasks = await Task.find(filter).sort({ _id: 1 }).limit(limit).lean();
+    const next = tasks.length === limit ? String(tasks[tasks.length - 1]._id) : null;
+    return { tasks, next };
+  }
+
+  // Creates a batch of tasks with one insert, keeping their order: top-level
+  // tasks go after the user's list, subtasks after their parent's. A task's
+  // parent is an existing task (parentId) or an earlier task of the batch
+  // (parentIndex), so a parent and its subtasks can arrive together. The batch
+  // is checked first, so either all of it is written or none
+  async importTasks(userId: string, items: ImportTaskRequest[]) {
+    if (!Array.isArray(items) || items.length === 0) {
+      throw new Error('No tasks to import');
+    }
+    if (items.length > MAX_IMPORT_BATCH) {
+      throw new Error('Too many tasks in one batch');
+    }
+    items.forEach((item, index) => {
+      if (!item || typeof item.title !== 'string' || item.title.trim().length === 0) {
+        throw new Error('Task title is required');
+      }
+      if (item.recurrence && !item.dueDate) {
+        throw new Error('Recurring tasks need a due date');
+      }
+      if (item.parentIndex !== undefined && item.parentIndex !== null && (item.parentId
+          || !Number.isInteger(item.parentIndex) || item.parentIndex < 0 || item.parentIndex >= index)) {
+        throw new Error('Invalid parent index');
+      }
+    });
+
+    const parentIds = [...new Set(items.map(item => item.parentId).filter((id): id is string => !!id))];
+    if (!parentIds.every(id => isValidObjectId(id))) {
+      throw new Error('Parent task not found');
+    }
+    const parents = parentIds.length === 0 ? []
+      : await Task.find({ _id: { $in: parentIds }, userId }, 'ancestors').lean();
+    if (parents.length !== parentIds.length) {
+      throw new Error('Parent task not found');
+    }
+    const ancestorsOf = new Map<string | null, string[]>([[null, []]]);
+    parents.forEach(parent => ancestorsOf.set(String(parent._id), [...(parent.ancestors || []), String(parent._id)]));
+
+    // Ids up front, so subtasks can point at parents of the same batch
+    const ids = items.map(() => new Types.ObjectId());
+    const parentOf = items.map(item => item.parentIndex !== undefined && item.parentIndex !== null
+      ? String(ids[item.parentIndex]) : (item.parentId || null));
+    items.forEach(item => {
+      if (item.parentIndex !== undefined && item.parentIndex !== null) {
+        const parentId = String(ids[item.parentIndex]);
+        ancestorsOf.set(parentId, [...ancestorsOf.get(parentOf[item.parentIndex])!, parentId]);
+      }
+    });
+
+    // Keys for each list the batch appends to, in batch order; a parent from
+    // the batch has no subtasks yet
+    await this.ensureOrderKeys(userId);
+    const keysFor = new Map<string | null, string[]>();
+    for (const parentId of new Set(parentOf)) {
+      const count = parentOf.filter(id => id === parentId).length;
+      const existing = parentId === null || parentIds.includes(parentId);
+      const last = existing ? await Task.findOne({ userId, parentId }, 'order').sort({ order: -1 }).lean() : null;
+      keysFor.set(parentId, keysAfter(isValidOrderKey(last?.order) ? last!.order : null, count).reverse());
+    }
+
+    // insertMany skips the save hook, so its status and tag rules are applied here
+    const docs = items.map((item, index) => {
+      const parentId = parentOf[index];
+      const isCompleted = item.isCompleted === true || item.status === 'completed';
+      const completedAt = item.completedAt ? new Date(item.completedAt) : undefined;
+      return {
+        _id: ids[index],
+        title: item.title.trim(),
+        description: item.description,
+        dueDate: item.dueDate ? new Date(item.dueDate) : undefined,
+        priority: item.priority,
+        category: item.category,
+        tags: [...new Set((item.tags || []).filter(tag => typeof tag === 'string' && tag.trim().length > 0))],
+        kind: item.kind,
+        status: isCompleted ? 'completed' : (item.status || 'pending'),
+        isCompleted,
+        completedAt: isCompleted ? (completedAt && !isNaN(completedAt.getTime()) ? completedAt : new Date()) : undefined,
+        userId,
+        parentId,
+        ancestors: ancestorsOf.get(parentId)!,
+        order: keysFor.get(parentId)!.pop()!,
+        subtaskCount: 0,
+        subtasksDone: 0,
+        recurrence: this.toRecurrence(item.recurrence),
+        exceptions: [],
+        attachments: []
+      };
+    });
+
+    // Descendant counts: ancestors from the batch are set before the insert,
+    // existing ones are incremented after it
+    const docById = new Map(docs.map(doc => [String(doc._id), doc]));
+    const increments = new Map<string, { count: number, done: number }>();
+    docs.forEach(doc => doc.ancestors.forEach(ancestorId => {
+      const ancestor = docById.get(ancestorId);
+      if (ancestor) {
+        ancestor.subtaskCount++;
+        if (doc.isCompleted) ancestor.subtasksDone++;
+      } else {
+        const increment = increments.get(ancestorId) || { count: 0, done: 0 };
+        increment.count++;
+        if (doc.isCompleted) increment.done++;
+        increments.set(ancestorId, increment);
+      }
+    }));
+
+    await Task.insertMany(docs);
+    if (increments.size > 0) {
+      await Task.bulkWrite([...increments].map(([ancestorId, increment]) => ({
+        updateOne: {
+          filter: { _id: ancestorId, userId },
+          update: { $inc: { subtaskCount: increment.count, subtasksDone: increment.done } },
+          timestamps: false
+        }
+      })));
+    }
+    if (docs.some(doc => doc.order.length > MAX_ORDER_KEY_LENGTH)) {
+      await this.rebalanceOrder(userId);
+    }
+    return ids.map(id => String(id));
+  }
+
+  // Tasks from before manual ordering have no key: give the whole list keys once
+  private async ensureOrderKeys(userId: string) {
+    if (await Task.exists({ userId, order: { $exists: false } })) {
+      await this.rebalanceOrder(userId);
+    }
+  }
+
+  // Respaces every key of the user's list, keeping its order; tasks without
+  // a key follow, newest first. Not a user edit, so updatedAt is left alone
+  private async rebalanceOrder(userId: string) {
+    const tasks = await Task.find({ userId }, 'order createdAt').lean();
+    tasks.sort((a: any, b: any) => {
+      if (a.order && b.order) return a.order < b.order ? -1 : a.order > b.order ? 1 : 0;
+      if (a.order || b.order) return a.order ? -1 : 1;
+      return new Date(b.createdAt).getTime() - new Date(a.createdAt).getTime();
+    });
+    if (tasks.length === 0) return;
+    const keys = spreadKeys(tasks.length);
+    await Task.bulkWrite(tasks.map((doc, i) => ({
+      updateOne: {
+        filter: { _id: doc._id },
+        update: { $set: { order: keys[i] } },
+        timestamps: false
+      }
+    })));
+  }
+
   // Get single task by ID
   async getTaskById(userId: string, taskId: string) {
     const task = await Task.findOne({ _id: taskId, userId });
@@ -103,16 +420,28 @@ export class TaskService {
     if (updateData.status !== undefined) task.status = updateData.status;
     if (updateData.category !== undefined) task.category = updateData.category;
     if (updateData.tags !== undefined) task.tags = updateData.tags;
+    const wasCompleted = task.isCompleted;
     if (updateData.isCompleted !== undefined) task.isCompleted = updateData.isCompleted;
     if (updateData.dueDate !== undefined) {
       task.dueDate = updateData.dueDate ? new Date(updateData.dueDate) : undefined;
     }
+    if (updateData.recurrence !== undefined) {
+      if (updateData.recurrence && !task.dueDate) {
+        throw new Error('Recurring tasks need a due date');
+      }
+      // Exceptions belong to the old rule's occurrences
+      task.recurrence = this.toRecurrence(updateData.recurrence);
+      task.exceptions = [] as any;
+    }
 
     await task.save();
+    if (task.isCompleted !== wasCompleted) {
+      await this.adjustAncestors(userId, task.ancestors, 0, task.isCompleted ? 1 : -1);
+    }
     return task;
   }
 
-  // Delete task by ID
+  // Delete task by ID, with its subtasks
   async deleteTask(userId: string, taskId: string) {
     const task = await Task.findOneAndDelete({ _id: taskId, userId });
 
@@ -120,6 +449,18 @@ export class TaskService {
       throw new Error('Task not found');
     }
 
+    // Attachment content is on disk, not in the documents
+    const attachmentIds = (task.attachments || []).map(attachment => String(attachment._id));
+    if (task.subtaskCount > 0) {
+      const withAttachments = await Task.find(
+        { userId, ancestors: String(task._id), 'attachments.0': { $exists: true } }, 'attachments._id'
+      ).lean();
+      withAttachments.forEach(doc => (doc.attachments || []).forEach(attachment => attachmentIds.push(String(attachment._id))));
+      await Task.deleteMany({ userId, ancestors: String(task._id) });
+    }
+    await removeContent(attachmentIds);
+    await this.adjustAncestors(userId, task.ancestors,
+      -(1 + task.subtaskCount), -((task.isCompleted ? 1 : 0) + task.subtasksDone));
     return task;
   }
 
@@ -131,7 +472,9 @@ export class TaskService {
       throw new Error('Task not found');
     }
 
+    const changed = !task.isCompleted;
     await (task as any).markCompleted();
+    if (changed) await this.adjustAncestors(userId, task.ancestors, 0, 1);
     return task;
   }
 
@@ -143,19 +486,79 @@ export class TaskService {
       throw new Error('Task not found');
     }
 
+    const changed = task.isCompleted;
     await (task as any).markIncomplete();
+    if (changed) await this.adjustAncestors(userId, task.ancestors, 0, -1);
     return task;
   }
 
-  // Get task statistics
-  async getTaskStatistics(userId: string) {
+  // Completes, moves or skips one occurrence of a recurring task. Only the
+  // difference from the rule is stored: an occurrence set back to plain is dropped
+  async updateOccurrence(userId: string, taskId: string, update: OccurrenceUpdateRequest) {
+    const task = await Task.findOne({ _id: taskId, userId });
+
+    if (!task) {
+      throw new Error('Task not found');
+    }
+    if (!task.recurrence) {
+      throw new Error('Task does not repeat');
+    }
+    const occurrence = new Date(update.occurrence);
+    if (!update.occurrence || isNaN(occurrence.getTime())) {
+      throw new Error('Invalid occurrence');
+    }
+
+    const existing = (task.exceptions || []).find(e => e.occurrence.getTime() === occurrence.getTime());
+    const exceptions = (task.exceptions || []).filter(e => e !== existing);
+    const dueDate = update.dueDate !== undefined
+      ? (update.dueDate ? new Date(update.dueDate) : undefined)
+      : existing?.dueDate;
+    const isCompleted = update.isCompleted ?? existing?.isCompleted ?? false;
+    const skipped = update.skipped ?? existing?.skipped ?? false;
+    if (dueDate || isCompleted || skipped) {
+      exceptions.push({ occurrence, dueDate, isCompleted, skipped } as any);
+    }
+
+    const cutoff = Date.now() - EXCEPTION_HISTORY_DAYS * DAY_MS;
+    task.exceptions = exceptions.filter(e =>
+      e.occurrence.getTime() >= cutoff || (!!e.dueDate && e.dueDate.getTime() >= cutoff)) as any;
+    await task.save();
+    return task;
+  }
+
+  private toRecurrence(request: RecurrenceRequest | null | undefined) {
+    if (!request) return null;
+    return {
+      frequency: request.frequency,
+      interval: request.interval || 1,
+      weekdays: request.frequency === 'weekly' && request.weekdays ? [...new Set(request.weekdays)] : [],
+      until: request.until ? new Date(request.until) : undefined,
+      count: request.count || undefined
+    };
+  }
+
+  // Keeps every ancestor's descendant counts in step with one change below it
+  private async adjustAncestors(userId: string, ancestors: string[] | undefined, count: number, done: number) {
+    if (!ancestors || ancestors.length === 0 || (count === 0 && done === 0)) return;
+    await Task.updateMany(
+      { _id: { $in: ancestors }, userId },
+      { $inc: { subtaskCount: count, subtasksDone: done } },
+      { timestamps: false }
+    );
+  }
+
+  // Get task statistics; the streak counts days in the user's time zone
+  async getTaskStatistics(userId: string, query: StatsQuery = {}) {
+    const weekAgo = new Date(Date.now() - 7 * DAY_MS);
     const [
       totalTasks,
       completedTasks,
       pendingTasks,
       overdueTasks,
       tasksByPriority,
-      recentCompleted
+      recentCompleted,
+      recentCreated,
+      history
     ] = await Promise.all([
       Task.countDocuments({ userId }),
       Task.countDocuments({ userId, isCompleted: true }),
@@ -173,8 +576,10 @@ export class TaskService {
       Task.countDocuments({
         userId,
         isCompleted: true,
-        completedAt: { $gte: new Date(Date.now() - 7 * 24 * 60 * 60 * 1000) }
-      })
+        completedAt: { $gte: weekAgo }
+      }),
+      Task.countDocuments({ userId, createdAt: { $gte: weekAgo } }),
+      this.getCompletionHistory(userId, { days: MAX_HISTORY_DAYS, tz: query.tz })
     ]);
 
     const priorityStats = {
@@ -196,11 +601,74 @@ export class TaskService {
       tasksByPriority: priorityStats,
       recentActivity: {
         tasksCompletedThisWeek: recentCompleted,
-        tasksCreatedThisWeek: 0, // Can be implemented later
-        streak: 0 // Can be implemented later
+        tasksCreatedThisWeek: recentCreated,
+        streak: streakOf(history.completed)
       }
     };
 
     return stats;
   }
-}
\ No newline at end of file
+
+  // Tasks created and completed per day, oldest first: index i is `from` plus
+  // i days and the last entry is today. Grouped by the database, so only the
+  // non-empty days come back; completions of tasks since reopened or deleted
+  // are no longer counted
+  async getCompletionHistory(userId: string, query: StatsQuery) {
+    const days = Math.min(MAX_HISTORY_DAYS, Math.max(1, parseInt(query.days as any as string) || 30));
+    const timezone = query.tz || 'UTC';
+    const today = localDate(new Date(), timezone);
+    const from = addDays(today, 1 - days);
+    // A day early, to cover any offset; days before `from` are dropped below
+    const since = new Date(Date.parse(from + 'T00:00:00Z') - DAY_MS);
+
+    const perDay = (field: string) => Task.aggregate([
+      { $match: { userId, [field]: { $gte: since } } },
+      { $group: {
+        _id: { $dateToString: { format: '%Y-%m-%d', date: '$' + field, timezone } },
+        count: { $sum: 1 }
+      } }
+    ]);
+    const [created, completed] = await Promise.all([perDay('createdAt'), perDay('completedAt')]);
+
+    const series = (groups: any[]) => {
+      const counts = new Array(days).fill(0);
+      groups.forEach((group) => {
+        const index = daysBetween(from, group._id);
+        if (index >= 0 && index < days) counts[index] = group.count;
+      });
+      return counts;
+    };
+    return { from, created: series(created), completed: series(completed) };
+  }
+}
+
+// YYYY-MM-DD of an instant in an IANA time zone
+function localDate(date: Date, timeZone: string) {
+  try {
+    return new Intl.DateTimeFormat('en-CA', { timeZone, year: 'numeric', month: '2-digit', day: '2-digit' })
+      .format(date);
+  } catch (error) {
+    throw new Error('Invalid time zone');
+  }
+}
+
+function addDays(day: string, count: number) {
+  return new Date(Date.parse(day + 'T00:00:00Z') + count * DAY_MS).toISOString().slice(0, 10);
+}
+
+function daysBetween(from: string, to: string) {
+  return Math.round((Date.parse(to + 'T00:00:00Z') - Date.parse(from + 'T00:00:00Z')) / DAY_MS);
+}
+
+// Days in a row with a completion, ending today; a today without one yet
+// doesn't break the streak of the days before
+function streakOf(completed: number[]) {
+  let day = completed.length - 1;
+  if (day >= 0 && completed[day] === 0) day--;
+  let streak = 0;
+  while (day >= 0 && completed[day] > 0) {
+    streak++;
+    day--;
+  }
+  return streak;
+}
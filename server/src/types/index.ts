@@ -62,6 +62,15 @@ export interface ITask extends Document {
   category: string;
   tags: string[];
   isCompleted: boolean;
+  order?: string;
+  parentId?: string | null;
+  ancestors: string[];
+  kind: 'task' | 'checklist';
+  subtaskCount: number;
+  subtasksDone: number;
+  recurrence?: IRecurrence | null;
+  exceptions: IOccurrenceException[];
+  attachments: IAttachment[];
   completedAt?: Date;
   reminderSent: boolean;
   createdAt: Date;
@@ -76,6 +85,38 @@ export interface ITask extends Document {
   readonly isOverdue: boolean;
 }
 
+// Recurring tasks: dueDate is the first occurrence and the rest are computed
+// by the client for the dates it shows. Only occurrences that differ from the
+// rule are stored, as exceptions keyed by the start they replace.
+export type Weekday = 'mon' | 'tue' | 'wed' | 'thu' | 'fri' | 'sat' | 'sun';
+
+export interface IRecurrence {
+  frequency: 'daily' | 'weekly' | 'monthly';
+  interval: number;
+  weekdays?: Weekday[]; // weekly only; the first occurrence's weekday when empty
+  until?: Date;
+  count?: number;
+}
+
+export interface IOccurrenceException {
+  occurrence: Date;
+  dueDate?: Date; // moved
+  isCompleted: boolean;
+  skipped: boolean;
+}
+
+// A file on a task. The content is uploaded in chunks after the record is
+// created; uploadedBytes is where an interrupted upload resumes
+export interface IAttachment {
+  _id: mongoose.Types.ObjectId;
+  name: string;
+  size: number;
+  contentType: string;
+  uploadedBytes: number;
+  complete: boolean;
+  createdAt: Date;
+}
+
 // Task related request types
 export interface CreateTaskRequest {
   title: string;
@@ -84,6 +125,30 @@ export interface CreateTaskRequest {
   priority?: 'low' | 'medium' | 'high';
   category?: string;
   tags?: string[];
+  parentId?: string;
+  kind?: 'task' | 'checklist';
+  recurrence?: RecurrenceRequest;
+}
+
+// One task of an import batch: what createTask takes, plus the state it was
+// in where it came from
+export interface ImportTaskRequest extends CreateTaskRequest {
+  status?: 'pending' | 'in-progress' | 'completed' | 'cancelled';
+  isCompleted?: boolean;
+  completedAt?: string; // ISO date string
+  parentIndex?: number; // parent is this earlier task of the same batch, instead of parentId
+}
+
+export interface ImportTasksRequest {
+  tasks: ImportTaskRequest[];
+}
+
+export interface RecurrenceRequest {
+  frequency: 'daily' | 'weekly' | 'monthly';
+  interval?: number;
+  weekdays?: Weekday[];
+  until?: string; // ISO date string
+  count?: number;
 }
 
 export interface UpdateTaskRequest {
@@ -95,6 +160,27 @@ export interface UpdateTaskRequest {
   category?: string;
   tags?: string[];
   isCompleted?: boolean;
+  recurrence?: RecurrenceRequest | null; // null stops repeating
+}
+
+// Changes one occurrence of a recurring task, identified by its original start
+export interface OccurrenceUpdateRequest {
+  occurrence: string; // ISO date string
+  isCompleted?: boolean;
+  dueDate?: string | null; // ISO date string; null moves it back
+  skipped?: boolean;
+}
+
+export interface CreateAttachmentRequest {
+  name: string;
+  size: number;
+  contentType?: string;
+}
+
+// Places a task between two others; a missing id means the start/end of the list
+export interface MoveTaskRequest {
+  previousId?: string | null;
+  nextId?: string | null;
 }
 
 export interface TaskQuery {
@@ -107,8 +193,25 @@ export interface TaskQuery {
   isCompleted?: boolean;
   page?: number;
   limit?: number;
-  sortBy?: 'createdAt' | 'dueDate' | 'priority' | 'title';
+  sortBy?: 'order' | 'createdAt' | 'dueDate' | 'priority' | 'title';
   sortOrder?: 'asc' | 'desc';
+  view?: 'full' | 'summary';
+  fields?: string;
+  parentId?: string; // children of this task; top-level tasks when absent
+}
+
+// Keyset paging for export: tasks of every level in _id order, after the
+// last _id of the previous page
+export interface ExportQuery {
+  after?: string;
+  limit?: number;
+}
+
+// Per-day counts for the dashboard charts: the last `days` days up to today,
+// where a day runs midnight to midnight in `tz` (an IANA zone, default UTC)
+export interface StatsQuery {
+  days?: number;
+  tz?: string;
 }
 
 // User related request types
@@ -253,6 +356,15 @@ export interface ITask extends Document {
   category: string;
   tags: string[];
   isCompleted: boolean;
+  order?: string;
+  parentId?: string | null;
+  ancestors: string[];
+  kind: 'task' | 'checklist';
+  subtaskCount: number;
+  subtasksDone: number;
+  recurrence?: IRecurrence | null;
+  exceptions: IOccurrenceException[];
+  attachments: IAttachment[];
   completedAt?: Date;
   reminderSent: boolean;
   createdAt: Date;
@@ -0,0 +1,62 @@
+import fs from 'fs';
+import path from 'path';
+import { Readable, Transform } from 'stream';
+import { pipeline } from 'stream/promises';
+
+// Attachment content on local disk, one file per attachment id. An upload in
+// progress is kept as `<id>.part` and renamed once the last byte is in, so a
+// file under its final name is always complete. Nothing here holds more than
+// one stream buffer of a file in memory.
+const ATTACHMENT_DIR = path.resolve(process.env.ATTACHMENT_DIR || 'uploads');
+
+export function contentPath(attachmentId: string) {
+  return path.join(ATTACHMENT_DIR, attachmentId);
+}
+
+function partPath(attachmentId: string) {
+  return contentPath(attachmentId) + '.part';
+}
+
+// Bytes of an unfinished upload already on disk: where the next chunk starts
+export async function receivedBytes(attachmentId: string): Promise<number> {
+  try {
+    return (await fs.promises.stat(partPath(attachmentId))).size;
+  } catch (error: any) {
+    if (error.code === 'ENOENT') return 0;
+    throw error;
+  }
+}
+
+// Appends one chunk as it streams in. Bytes that arrived before a disconnect
+// stay on disk, so the client resumes right after them; a body longer than
+// `length` is cut off there and fails the chunk
+export async function appendChunk(attachmentId: string, source: Readable, length: number) {
+  await fs.promises.mkdir(ATTACHMENT_DIR, { recursive: true });
+  let seen = 0;
+  const limit = new Transform({
+    transform(chunk: Buffer, _encoding, callback) {
+      seen += chunk.length;
+      if (seen > length) {
+        callback(new Error('Chunk longer than its range'));
+      } else {
+        callback(null, chunk);
+      }
+    }
+  });
+  await pipeline(source, limit, fs.createWriteStream(partPath(attachmentId), { flags: 'a' }));
+}
+
+export async function finishUpload(attachmentId: string) {
+  await fs.promises.rename(partPath(attachmentId), contentPath(attachmentId));
+}
+
+export async function removeContent(attachmentIds: string[]) {
+  const paths = attachmentIds.flatMap(id => [contentPath(id), partPath(id)]);
+  await Promise.all(paths.map(async file => {
+    try {
+      await fs.promises.unlink(file);
+    } catch (error: any) {
+      if (error.code !== 'ENOENT') throw error;
+    }
+  }));
+}
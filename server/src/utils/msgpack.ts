@@ -0,0 +1,119 @@
+// Minimal MessagePack encoder for API responses. Values go through the same
+// conversions as JSON.stringify (toJSON, undefined dropped) so both wire
+// formats carry identical data.
+
+class Encoder {
+  private buffer = Buffer.allocUnsafe(4096);
+  private length = 0;
+
+  encode(value: any): Buffer {
+    this.write(value);
+    return this.buffer.subarray(0, this.length);
+  }
+
+  private ensure(bytes: number) {
+    if (this.length + bytes <= this.buffer.length) return;
+    const grown = Buffer.allocUnsafe(Math.max(this.buffer.length * 2, this.length + bytes));
+    this.buffer.copy(grown, 0, 0, this.length);
+    this.buffer = grown;
+  }
+
+  private byte(value: number) {
+    this.ensure(1);
+    this.buffer[this.length++] = value;
+  }
+
+  private write(value: any) {
+    if (value === null || value === undefined) {
+      this.byte(0xc0);
+    } else if (typeof value === 'boolean') {
+      this.byte(value ? 0xc3 : 0xc2);
+    } else if (typeof value === 'number') {
+      this.writeNumber(value);
+    } else if (typeof value === 'string') {
+      this.writeString(value);
+    } else if (typeof value.toJSON === 'function') {
+      this.write(value.toJSON());
+    } else if (Array.isArray(value)) {
+      this.writeHeader(value.length, 0x90, 0xdc);
+      for (const item of value) this.write(item);
+    } else {
+      const keys = Object.keys(value).filter(key => value[key] !== undefined && typeof value[key] !== 'function');
+      this.writeHeader(keys.length, 0x80, 0xde);
+      for (const key of keys) {
+        this.writeString(key);
+        this.write(value[key]);
+      }
+    }
+  }
+
+  private writeNumber(value: number) {
+    if (Number.isInteger(value) && value >= -0x80000000 && value <= 0xffffffff) {
+      if (value >= 0 && value < 0x80) {
+        this.byte(value);
+      } else if (value < 0 && value >= -32) {
+        this.byte(value & 0xff);
+      } else if (value >= 0) {
+        this.ensure(5);
+        this.buffer[this.length] = 0xce;
+        this.buffer.writeUInt32BE(value, this.length + 1);
+        this.length += 5;
+      } else {
+        this.ensure(5);
+        this.buffer[this.length] = 0xd2;
+        this.buffer.writeInt32BE(value, this.length + 1);
+        this.length += 5;
+      }
+    } else if (Number.isFinite(value)) {
+      this.ensure(9);
+      this.buffer[this.length] = 0xcb;
+      this.buffer.writeDoubleBE(value, this.length + 1);
+      this.length += 9;
+    } else {
+      // JSON.stringify turns NaN/Infinity into null
+      this.byte(0xc0);
+    }
+  }
+
+  private writeString(value: string) {
+    const size = Buffer.byteLength(value, 'utf8');
+    if (size < 32) {
+      this.byte(0xa0 | size);
+    } else if (size < 0x100) {
+      this.ensure(2);
+      this.buffer[this.length++] = 0xd9;
+      this.buffer[this.length++] = size;
+    } else if (size < 0x10000) {
+      this.ensure(3);
+      this.buffer[this.length] = 0xda;
+      this.buffer.writeUInt16BE(size, this.length + 1);
+      this.length += 3;
+    } else {
+      this.ensure(5);
+      this.buffer[this.length] = 0xdb;
+      this.buffer.writeUInt32BE(size, this.length + 1);
+      this.length += 5;
+    }
+    this.ensure(size);
+    this.length += this.buffer.write(value, this.length, 'utf8');
+  }
+
+  // fixarray/fixmap, then the 16- and 32-bit forms (type16 + 1)
+  private writeHeader(count: number, fixType: number, type16: number) {
+    if (count < 16) {
+      this.byte(fixType | count);
+    } else if (count < 0x10000) {
+      this.ensure(3);
+      this.buffer[this.length] = type16;
+      this.buffer.writeUInt16BE(count, this.length + 1);
+      this.length += 3;
+    } else {
+      this.ensure(5);
+      this.buffer[this.length] = type16 + 1;
+      this.buffer.writeUInt32BE(count, this.length + 1);
+      this.length += 5;
+    }
+  }
+}
+
+export const encodeMsgPack = (value: any): Buffer => new Encoder().encode(value);
@@ -0,0 +1,107 @@
+// Fractional ordering keys for the manually arranged task list. Same scheme
+// as the app's util/OrderKeys.java (which must produce the same keys): a key
+// is the digit string of a fraction in (0, 1), base 62, without trailing
+// zeros, so keys sort as plain strings and a move rewrites one key.
+
+const DIGITS = '0123456789ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz';
+const BASE = DIGITS.length;
+// Past this the user's list is respaced with spreadKeys
+export const MAX_ORDER_KEY_LENGTH = 24;
+
+export function isValidOrderKey(key: unknown): key is string {
+  if (typeof key !== 'string' || key.length === 0 || key.endsWith('0')) return false;
+  for (const char of key) {
+    if (!DIGITS.includes(char)) return false;
+  }
+  return true;
+}
+
+// A key strictly between before and after; null stands for the start/end of the list
+export function keyBetween(before: string | null, after: string | null): string {
+  if (before !== null && !isValidOrderKey(before)) throw new Error(`Invalid order key: ${before}`);
+  if (after !== null && !isValidOrderKey(after)) throw new Error(`Invalid order key: ${after}`);
+  if (before !== null && after !== null && before >= after) {
+    throw new Error(`${before} is not before ${after}`);
+  }
+
+  let a = before ?? '';
+  let b = after;
+  let key = '';
+  if (b !== null) {
+    // Shared leading digits (a is zero-padded) stay as they are
+    let n = 0;
+    while (n < b.length && (a[n] ?? '0') === b[n]) n++;
+    key = b.slice(0, n);
+    a = a.slice(n);
+    b = b.slice(n);
+  }
+  for (;;) {
+    const digitA = a.length > 0 ? DIGITS.indexOf(a[0]) : 0;
+    const digitB = b !== null ? DIGITS.indexOf(b[0]) : BASE;
+    if (digitB - digitA > 1) {
+      return key + DIGITS[Math.floor((digitA + digitB + 1) / 2)];
+    }
+    if (b !== null && b.length > 1) {
+      return key + b[0];
+    }
+    key += DIGITS[digitA];
+    a = a.slice(1);
+    b = null;
+  }
+}
+
+// count ascending keys, evenly spaced and as short as possible
+export function spreadKeys(count: number): string[] {
+  let length = 1;
+  let span = BASE;
+  while (span < 2 * (count + 1)) {
+    length++;
+    span *= BASE;
+  }
+  const keys: string[] = [];
+  for (let i = 0; i < count; i++) {
+    let value = Math.floor(span * (i + 1) / (count + 1));
+    let digits = '';
+    for (let d = 0; d < length; d++) {
+      digits = DIGITS[value % BASE] + digits;
+      value = Math.floor(value / BASE);
+    }
+    keys.push(digits.replace(/0+$/, ''));
+  }
+  return keys;
+}
+
+const BIG_BASE = BigInt(BASE);
+
+// count ascending keys right after before (null: the start of the list), for
+// appending a batch. They count up by one in the last digit of the shortest
+// length with room for them all, so appending batch after batch lengthens the
+// keys by about a digit every 62 batches. Server only: the app never appends
+// in bulk
+export function keysAfter(before: string | null, count: number): string[] {
+  if (before !== null && !isValidOrderKey(before)) throw new Error(`Invalid order key: ${before}`);
+  const start = before ?? '';
+  let length = Math.max(1, start.length);
+  let value = 0n;
+  for (let i = 0; i < length; i++) {
+    value = value * BIG_BASE + BigInt(DIGITS.indexOf(start[i] ?? '0'));
+  }
+  let end = BIG_BASE ** BigInt(length);
+  while (end - value <= BigInt(count)) {
+    length++;
+    value *= BIG_BASE;
+    end *= BIG_BASE;
+  }
+
+  const keys: string[] = [];
+  for (let i = 1; i <= count; i++) {
+    let rest = value + BigInt(i);
+    let digits = '';
+    for (let d = 0; d < length; d++) {
+      digits = DIGITS[Number(rest % BIG_BASE)] + digits;
+      rest /= BIG_BASE;
+    }
+    keys.push(digits.replace(/0+$/, ''));
+  }
+  return keys;
+}